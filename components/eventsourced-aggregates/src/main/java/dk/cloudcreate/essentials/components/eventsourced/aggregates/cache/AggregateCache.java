@@ -0,0 +1,265 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.aggregates.cache;
+
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.decider.CommandHandler;
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.stateful.StatefulAggregateRepository;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
+import org.slf4j.*;
+
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Bounded, in-memory, Least-Recently-Used cache of hydrated aggregate instances (or Decider <code>STATE</code>'s), keyed by {@link AggregateType} and aggregate-id.<br>
+ * Each entry records the {@link EventOrder} of the last event that was applied to the cached aggregate, which allows
+ * {@link StatefulAggregateRepository}'s and {@link CommandHandler}'s to only fetch the events persisted <b>after</b> the cached {@link EventOrder}
+ * (i.e. <code>LongRange.from(eventOrder + 1)</code>) instead of rehydrating the aggregate from its full event stream.<br>
+ * <br>
+ * The cache is only ever updated <b>after</b> a {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} has been committed
+ * and entries are invalidated when a {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} is rolled back,
+ * which means that the cache never contains uncommitted changes. A stale entry (e.g. if another node appended events to the same aggregate) is harmless,
+ * since any events persisted after the cached {@link EventOrder} are always applied when the aggregate is loaded.<br>
+ * <br>
+ * Entries are evicted when either {@link #getMaxEntries()} or {@link #getMaxWeight()} (as calculated by the {@link Weigher}) is exceeded.<br>
+ * Hit/miss statistics are available using {@link #statistics()}<br>
+ * <br>
+ * A single {@link AggregateCache} instance can be shared between multiple repositories/command handlers.
+ */
+public final class AggregateCache {
+    private static final Logger log = LoggerFactory.getLogger(AggregateCache.class);
+
+    private final int                                         maxEntries;
+    private final long                                        maxWeight;
+    private final Weigher                                     weigher;
+    private final LinkedHashMap<CacheKey, CachedAggregate<?>> entries;
+    private       long                                        currentWeight;
+    private       long                                        hits;
+    private       long                                        misses;
+    private       long                                        evictions;
+
+    /**
+     * Create an {@link AggregateCache} that's only bounded by the number of entries
+     *
+     * @param maxEntries the maximum number of aggregates that will be cached
+     * @return the new {@link AggregateCache}
+     */
+    public static AggregateCache withMaxEntries(int maxEntries) {
+        return new AggregateCache(maxEntries, Long.MAX_VALUE, (aggregateType, aggregateId, aggregate) -> 1);
+    }
+
+    /**
+     * Create an {@link AggregateCache} that's bounded both by the number of entries and the total weight of the cached aggregates
+     *
+     * @param maxEntries the maximum number of aggregates that will be cached
+     * @param maxWeight  the maximum total weight of the cached aggregates
+     * @param weigher    the {@link Weigher} that calculates the weight of a single cached aggregate
+     */
+    public AggregateCache(int maxEntries, long maxWeight, Weigher weigher) {
+        requireTrue(maxEntries > 0, "maxEntries must be > 0");
+        requireTrue(maxWeight > 0, "maxWeight must be > 0");
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = requireNonNull(weigher, "No weigher provided");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get the cached aggregate <b>without</b> removing it from the cache.<br>
+     * Only use this method for immutable aggregates/states (such as Decider <code>STATE</code>'s),
+     * since the returned instance is shared with any other caller
+     *
+     * @param aggregateType the aggregate type
+     * @param aggregateId   the aggregate id
+     * @param <AGGREGATE>   the type of aggregate
+     * @return the cached aggregate or {@link Optional#empty()} if the aggregate isn't cached
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <AGGREGATE> Optional<CachedAggregate<AGGREGATE>> get(AggregateType aggregateType, Object aggregateId) {
+        var entry = (CachedAggregate<AGGREGATE>) entries.get(new CacheKey(aggregateType, aggregateId));
+        return recordAccess(entry);
+    }
+
+    /**
+     * Remove (check-out) the cached aggregate from the cache.<br>
+     * Use this method for mutable aggregates (such as {@link dk.cloudcreate.essentials.components.eventsourced.aggregates.stateful.StatefulAggregate}'s),
+     * which guarantees that the same instance is never used by two concurrent {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork}'s.<br>
+     * The aggregate is expected to be {@link #put(AggregateType, Object, Object, EventOrder)} back after the
+     * {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} has been committed
+     *
+     * @param aggregateType the aggregate type
+     * @param aggregateId   the aggregate id
+     * @param <AGGREGATE>   the type of aggregate
+     * @return the cached aggregate or {@link Optional#empty()} if the aggregate isn't cached
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <AGGREGATE> Optional<CachedAggregate<AGGREGATE>> take(AggregateType aggregateType, Object aggregateId) {
+        var entry = (CachedAggregate<AGGREGATE>) entries.remove(new CacheKey(aggregateType, aggregateId));
+        if (entry != null) {
+            currentWeight -= entry.weight;
+        }
+        return recordAccess(entry);
+    }
+
+    /**
+     * Add or replace the cached aggregate. If the cache already contains the aggregate with a higher {@link EventOrder},
+     * then the existing entry is kept
+     *
+     * @param aggregateType                the aggregate type
+     * @param aggregateId                  the aggregate id
+     * @param aggregate                    the hydrated aggregate instance (or Decider <code>STATE</code>)
+     * @param eventOrderOfLastAppliedEvent the {@link EventOrder} of the last event applied to the <code>aggregate</code>
+     */
+    public synchronized void put(AggregateType aggregateType, Object aggregateId, Object aggregate, EventOrder eventOrderOfLastAppliedEvent) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        requireNonNull(aggregateId, "No aggregateId provided");
+        requireNonNull(aggregate, "No aggregate provided");
+        requireNonNull(eventOrderOfLastAppliedEvent, "No eventOrderOfLastAppliedEvent provided");
+        var key      = new CacheKey(aggregateType, aggregateId);
+        var existing = entries.get(key);
+        if (existing != null && existing.eventOrderOfLastAppliedEvent.longValue() > eventOrderOfLastAppliedEvent.longValue()) {
+            log.trace("[{}:{}] Keeping cached aggregate with eventOrderOfLastAppliedEvent {} > {}",
+                      aggregateType, aggregateId, existing.eventOrderOfLastAppliedEvent, eventOrderOfLastAppliedEvent);
+            return;
+        }
+        var weight = weigher.weigh(aggregateType, aggregateId, aggregate);
+        requireTrue(weight >= 0, msg("[{}:{}] Weigher returned a negative weight {}", aggregateType, aggregateId, weight));
+        var previous = entries.put(key, new CachedAggregate<>(aggregate, eventOrderOfLastAppliedEvent, weight));
+        if (previous != null) {
+            currentWeight -= previous.weight;
+        }
+        currentWeight += weight;
+        evictIfNecessary();
+    }
+
+    /**
+     * Remove the aggregate from the cache
+     *
+     * @param aggregateType the aggregate type
+     * @param aggregateId   the aggregate id
+     */
+    public synchronized void invalidate(AggregateType aggregateType, Object aggregateId) {
+        var removed = entries.remove(new CacheKey(aggregateType, aggregateId));
+        if (removed != null) {
+            log.trace("[{}:{}] Invalidated cached aggregate with eventOrderOfLastAppliedEvent {}",
+                      aggregateType, aggregateId, removed.eventOrderOfLastAppliedEvent);
+            currentWeight -= removed.weight;
+        }
+    }
+
+    /**
+     * Remove all aggregates from the cache
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        currentWeight = 0;
+    }
+
+    /**
+     * @return a snapshot of the cache statistics
+     */
+    public synchronized Statistics statistics() {
+        return new Statistics(hits, misses, evictions, entries.size(), currentWeight);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregateCache{" +
+                "maxEntries=" + maxEntries +
+                ", maxWeight=" + maxWeight +
+                ", statistics=" + statistics() +
+                '}';
+    }
+
+    private <AGGREGATE> Optional<CachedAggregate<AGGREGATE>> recordAccess(CachedAggregate<AGGREGATE> entry) {
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry);
+    }
+
+    private void evictIfNecessary() {
+        var iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentWeight > maxWeight) && iterator.hasNext()) {
+            var eldest = iterator.next();
+            iterator.remove();
+            currentWeight -= eldest.getValue().weight;
+            evictions++;
+            log.trace("[{}:{}] Evicted cached aggregate", eldest.getKey().aggregateType, eldest.getKey().aggregateId);
+        }
+    }
+
+    private record CacheKey(AggregateType aggregateType, Object aggregateId) {
+    }
+
+    /**
+     * A cached aggregate
+     *
+     * @param aggregate                    the hydrated aggregate instance (or Decider <code>STATE</code>)
+     * @param eventOrderOfLastAppliedEvent the {@link EventOrder} of the last event applied to the <code>aggregate</code>
+     * @param weight                       the weight calculated by the {@link Weigher}
+     * @param <AGGREGATE>                  the type of aggregate
+     */
+    public record CachedAggregate<AGGREGATE>(AGGREGATE aggregate, EventOrder eventOrderOfLastAppliedEvent, long weight) {
+    }
+
+    /**
+     * Cache statistics
+     *
+     * @param hits          the number of {@link #get(AggregateType, Object)}/{@link #take(AggregateType, Object)} calls that found a cached aggregate
+     * @param misses        the number of {@link #get(AggregateType, Object)}/{@link #take(AggregateType, Object)} calls that didn't find a cached aggregate
+     * @param evictions     the number of aggregates evicted because the cache exceeded its max entries or max weight
+     * @param size          the number of cached aggregates
+     * @param currentWeight the total weight of the cached aggregates
+     */
+    public record Statistics(long hits, long misses, long evictions, int size, long currentWeight) {
+        /**
+         * @return the ratio (0.0 - 1.0) of cache lookups that found a cached aggregate
+         */
+        public double hitRatio() {
+            var lookups = hits + misses;
+            return lookups == 0 ? 0.0d : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Calculates the weight of a cached aggregate (e.g. an estimate of the number of bytes it occupies or the number of events applied)
+     */
+    @FunctionalInterface
+    public interface Weigher {
+        /**
+         * @param aggregateType the aggregate type
+         * @param aggregateId   the aggregate id
+         * @param aggregate     the aggregate instance (or Decider <code>STATE</code>)
+         * @return the weight of the aggregate (must be &gt;= 0)
+         */
+        long weigh(AggregateType aggregateType, Object aggregateId, Object aggregate);
+    }
+}
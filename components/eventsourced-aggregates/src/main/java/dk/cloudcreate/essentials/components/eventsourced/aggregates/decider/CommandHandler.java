@@ -16,18 +16,20 @@
 
 package dk.cloudcreate.essentials.components.eventsourced.aggregates.decider;
 
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.cache.AggregateCache;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot.AggregateSnapshotRepository;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamConfiguration;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
 import dk.cloudcreate.essentials.components.foundation.transaction.*;
 import dk.cloudcreate.essentials.shared.functional.tuple.Pair;
 import dk.cloudcreate.essentials.types.LongRange;
 import org.slf4j.*;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.*;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
@@ -89,6 +91,55 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
                                                                                                            AggregateSnapshotRepository aggregateSnapshotRepository,
                                                                                                            Class<STATE> stateType,
                                                                                                            Decider<COMMAND, EVENT, ERROR, STATE> decider) {
+        return deciderBasedCommandHandler(eventStore,
+                                          aggregateType,
+                                          aggregateIdType,
+                                          aggregateIdFromCommandResolver,
+                                          aggregateIdFromEventResolver,
+                                          aggregateSnapshotRepository,
+                                          stateType,
+                                          decider,
+                                          null);
+    }
+
+    /**
+     * Create an instance of a {@link CommandHandler} that is responsible for loading any existing Aggregate <code>STATE</code> from the underlying {@link EventStore}
+     * and coordinate persisting any changes to the Aggregate, in the form of <code>EVENT</code>'s, to the {@link EventStore} as part of an active {@link UnitOfWork} (if one exists)<br>
+     * The actual logic is delegated to an instance of a {@link Decider}<br>
+     * If an {@link AggregateCache} is provided, then the <code>STATE</code> resulting from a committed {@link UnitOfWork} is cached, which means that handling the next
+     * <code>COMMAND</code> for the same aggregate only requires fetching the events persisted after the cached <code>STATE</code>'s {@link EventOrder}.<br>
+     * <b>Note: The cached <code>STATE</code> instance is shared between {@link CommandHandler#handle(Object)} calls, so the {@link Decider} MUST treat <code>STATE</code> as immutable</b>
+     *
+     * @param eventStore                     the {@link EventStore} that provides persistence support for aggregate events
+     * @param aggregateType                  the aggregate type that this command handler can support <code>COMMAND</code>'s related to and which the {@link Decider} supports <code>EVENT</code>'s related to
+     * @param aggregateIdType                the type of aggregate id that is associated with the {@link AggregateType}
+     * @param aggregateIdFromCommandResolver resolver that can resolve the <code>aggregate-id</code> from a <code>COMMAND</code> object instance
+     * @param aggregateIdFromEventResolver   resolver that can resolve the <code>aggregate-id</code> from an <code>EVENT</code> object instance
+     * @param aggregateSnapshotRepository    optional {@link AggregateSnapshotRepository} for storing snapshots of the aggregate <code>STATE</code> for faster loading
+     * @param stateType                      The type of aggregate <code>STATE</code> that the {@link Decider} instance works with
+     * @param decider                        the {@link Decider} instance responsible for Aggregate logic
+     * @param aggregateCache                 optional (may be null) {@link AggregateCache} for caching the aggregate <code>STATE</code> between {@link UnitOfWork}'s
+     * @param <CONFIG>                       The type of {@link AggregateEventStreamConfiguration} that the {@link EventStore} provided supports
+     * @param <ID>                           the type of aggregate id that is associated with the {@link AggregateType}
+     * @param <COMMAND>                      the type of <code>COMMAND</code> that the {@link Decider} instance supports
+     * @param <EVENT>                        the type of <code>EVENT</code> that the {@link Decider} instance supports
+     * @param <ERROR>                        the type of <code>ERROR</code> that the {@link Decider}  instance supports
+     * @param <STATE>                        the type of Aggregate <code>STATE</code> that the {@link Decider}  instance supports
+     * @return a {@link CommandHandler} that is responsible for loading any existing Aggregate <code>STATE</code> from the underlying {@link EventStore}
+     * and coordinate persisting any changes to the Aggregate, in the form of <code>EVENT</code>'s, to the {@link EventStore} as part of an active {@link UnitOfWork} (if one exists)<br>
+     * The actual logic is delegated to an instance of a {@link Decider}
+     */
+    static <CONFIG extends AggregateEventStreamConfiguration,
+            ID,
+            COMMAND, EVENT, ERROR, STATE> CommandHandler<COMMAND, EVENT, ERROR> deciderBasedCommandHandler(ConfigurableEventStore<CONFIG> eventStore,
+                                                                                                           AggregateType aggregateType,
+                                                                                                           Class<ID> aggregateIdType,
+                                                                                                           AggregateIdResolver<COMMAND, ID> aggregateIdFromCommandResolver,
+                                                                                                           AggregateIdResolver<EVENT, ID> aggregateIdFromEventResolver,
+                                                                                                           AggregateSnapshotRepository aggregateSnapshotRepository,
+                                                                                                           Class<STATE> stateType,
+                                                                                                           Decider<COMMAND, EVENT, ERROR, STATE> decider,
+                                                                                                           AggregateCache aggregateCache) {
         requireNonNull(eventStore, "No eventStore provided");
         requireNonNull(aggregateType, "No aggregateType provided");
         requireNonNull(aggregateIdType, "No aggregateIdType provided");
@@ -103,9 +154,16 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
         }
 
         var optionalAggregateSnapshotRepository = Optional.ofNullable(aggregateSnapshotRepository);
+        var optionalAggregateCache              = Optional.ofNullable(aggregateCache);
 
         return new CommandHandler<COMMAND, EVENT, ERROR>() {
             private static final Logger log = LoggerFactory.getLogger(CommandHandler.class);
+            /**
+             * The {@link EventOrder} of the last event persisted for the {@link EventsToAppendToStream}'s in a {@link UnitOfWork} - resolved in
+             * {@link DeciderUnitOfWorkLifecycleCallback#beforeCommit(UnitOfWork, List)} and used to update the <code>aggregateCache</code>
+             * in {@link DeciderUnitOfWorkLifecycleCallback#afterCommit(UnitOfWork, List)}
+             */
+            private final Map<EventsToAppendToStream<ID, EVENT, STATE>, AggregateEventStream<ID>> persistedEventsPendingCommit = Collections.synchronizedMap(new IdentityHashMap<>());
 
             @Override
             public HandlerResult<ERROR, EVENT> handle(COMMAND cmd) {
@@ -113,6 +171,31 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
 
                 var eventOrderOfLastRehydratedEvent = new AtomicReference<EventOrder>(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED);
                 STATE finalState = optionalAggregateId.map(aggregateId -> {
+                    // Check for cached aggregate state
+                    var possibleCachedState = optionalAggregateCache.flatMap(cache -> cache.<STATE>get(aggregateType, aggregateId));
+                    if (possibleCachedState.isPresent()) {
+                        var cachedState = possibleCachedState.get();
+                        log.trace("[{}] Preparing to handle command '{}' with associated aggregateId '{}' using cached '{}' with eventOrderOfLastAppliedEvent {}",
+                                  aggregateType,
+                                  cmd.getClass().getName(),
+                                  aggregateId,
+                                  stateType.getName(),
+                                  cachedState.eventOrderOfLastAppliedEvent());
+                        eventOrderOfLastRehydratedEvent.set(cachedState.eventOrderOfLastAppliedEvent());
+                        return eventStore.fetchStream(aggregateType,
+                                                      aggregateId,
+                                                      LongRange.from(cachedState.eventOrderOfLastAppliedEvent().increment().longValue()))
+                                         .map(eventStream -> eventStream.events()
+                                                                        .reduce(cachedState.aggregate(),
+                                                                                (deltaState, event) -> {
+                                                                                    eventOrderOfLastRehydratedEvent.set(event.eventOrder());
+                                                                                    return decider.applyEvent(event.event().deserialize(), deltaState);
+                                                                                },
+                                                                                (deltaState, deltaState2) -> deltaState2))
+                                         .orElse(cachedState.aggregate());
+                    }
+
+                    var rehydrationStartedAt = System.nanoTime();
                     // Check for aggregate snapshot
                     var possibleAggregateSnapshot = optionalAggregateSnapshotRepository.flatMap(repository -> repository.loadSnapshot(aggregateType,
                                                                                                                                       optionalAggregateId.get(),
@@ -148,15 +231,22 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
                                   cmd.getClass().getName(),
                                   aggregateId);
 
+                        var numberOfEventsRehydrated = new AtomicLong();
                         state = initialStateAndEventStream._2.get()
                                                              .events()
                                                              .reduce(initialStateAndEventStream._1,
                                                                      (deltaState, event) -> {
                                                                          eventOrderOfLastRehydratedEvent.set(event.eventOrder());
+                                                                         numberOfEventsRehydrated.incrementAndGet();
                                                                          return decider.applyEvent(event.event().deserialize(), deltaState);
                                                                      },
                                                                      (deltaState, deltaState2) -> deltaState2);
-
+                        var rehydrationTime = Duration.ofNanos(System.nanoTime() - rehydrationStartedAt);
+                        var rehydratedState = state;
+                        optionalAggregateSnapshotRepository.ifPresent(repository -> repository.aggregateRehydrated(aggregateType,
+                                                                                                                    rehydratedState != null ? rehydratedState.getClass() : stateType,
+                                                                                                                    numberOfEventsRehydrated.get(),
+                                                                                                                    rehydrationTime));
                     }
                     return state;
                 }).orElseGet(() -> {
@@ -265,17 +355,50 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
                                       stateType.getName(),
                                       eventsToAppendToStream.aggregateId());
                         }
-                        var persistedEvents = eventStore.appendToStream(aggregateType,
+                        AggregateEventStream<ID> persistedEvents;
+                        try {
+                            persistedEvents = eventStore.appendToStream(aggregateType,
                                                                         eventsToAppendToStream.aggregateId(),
                                                                         eventsToAppendToStream.eventOrderOfLastRehydratedEvent(),
                                                                         eventsToAppendToStream.events());
-                        optionalAggregateSnapshotRepository.ifPresent(repository -> repository.aggregateUpdated(eventsToAppendToStream.state(), persistedEvents));
+                        } catch (OptimisticAppendToStreamException e) {
+                            optionalAggregateCache.ifPresent(cache -> cache.invalidate(aggregateType, eventsToAppendToStream.aggregateId()));
+                            throw e;
+                        }
+                        optionalAggregateSnapshotRepository.filter(repository -> !repository.persistsSnapshotsAsynchronously())
+                                                           .ifPresent(repository -> repository.aggregateUpdated(eventsToAppendToStream.state(), persistedEvents));
+                        persistedEventsPendingCommit.put(eventsToAppendToStream, persistedEvents);
                     });
                 }
 
                 @Override
                 public void afterCommit(UnitOfWork unitOfWork, List<EventsToAppendToStream<ID, EVENT, STATE>> associatedResources) {
-
+                    associatedResources.forEach(eventsToAppendToStream -> {
+                        var persistedEvents = persistedEventsPendingCommit.remove(eventsToAppendToStream);
+                        if (persistedEvents == null) {
+                            return;
+                        }
+                        optionalAggregateSnapshotRepository.filter(AggregateSnapshotRepository::persistsSnapshotsAsynchronously)
+                                                           .ifPresent(repository -> repository.aggregateUpdated(eventsToAppendToStream.state(), persistedEvents));
+                        if (optionalAggregateCache.isEmpty()) {
+                            return;
+                        }
+                        var eventOrderOfLastPersistedEvent = EventOrder.of(persistedEvents.eventOrderRangeIncluded().toInclusive);
+                        var stateAfterEvents = eventsToAppendToStream.events()
+                                                                     .stream()
+                                                                     .reduce(eventsToAppendToStream.state(),
+                                                                             (deltaState, event) -> decider.applyEvent(event, deltaState),
+                                                                             (deltaState, deltaState2) -> deltaState2);
+                        if (stateAfterEvents == null) {
+                            return;
+                        }
+                        log.trace("[{}] Caching '{}' with id '{}' and eventOrderOfLastAppliedEvent {}",
+                                  aggregateType,
+                                  stateType.getName(),
+                                  eventsToAppendToStream.aggregateId(),
+                                  eventOrderOfLastPersistedEvent);
+                        optionalAggregateCache.get().put(aggregateType, eventsToAppendToStream.aggregateId(), stateAfterEvents, eventOrderOfLastPersistedEvent);
+                    });
                 }
 
                 @Override
@@ -285,7 +408,10 @@ public interface CommandHandler<COMMAND, EVENT, ERROR> {
 
                 @Override
                 public void afterRollback(UnitOfWork unitOfWork, List<EventsToAppendToStream<ID, EVENT, STATE>> associatedResources, Exception causeOfTheRollback) {
-
+                    associatedResources.forEach(eventsToAppendToStream -> {
+                        persistedEventsPendingCommit.remove(eventsToAppendToStream);
+                        optionalAggregateCache.ifPresent(cache -> cache.invalidate(aggregateType, eventsToAppendToStream.aggregateId()));
+                    });
                 }
             }
 
@@ -16,14 +16,16 @@
 
 package dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot;
 
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateEventStream;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
 import dk.cloudcreate.essentials.shared.collections.Lists;
 import dk.cloudcreate.essentials.types.NumberType;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static dk.cloudcreate.essentials.shared.FailFast.requireTrue;
+import static dk.cloudcreate.essentials.shared.FailFast.*;
 
 /**
  * Strategy for when an aggregate snapshot should be added
@@ -38,6 +40,21 @@ public interface AddNewAggregateSnapshotStrategy {
         return new AddNewSnapshotWhenBehindByNumberOfEvents(1);
     }
 
+    /**
+     * Add a new aggregate snapshot when the projected time it takes to rehydrate the aggregate (based on the measured rehydration cost per event
+     * reported through {@link #aggregateRehydrated(AggregateType, Class, long, Duration)}) exceeds <code>targetRehydrationTime</code>
+     *
+     * @param targetRehydrationTime                            the maximum projected rehydration time before a new snapshot is added
+     * @param numberOfEventsBetweenSnapshotsWithoutMeasurement the number of events between adding a new snapshot as long as no rehydration cost
+     *                                                         has been measured for the aggregate implementation type
+     * @return the strategy
+     */
+    static AddNewAggregateSnapshotStrategy updateWhenProjectedRehydrationTimeExceeds(Duration targetRehydrationTime,
+                                                                                    long numberOfEventsBetweenSnapshotsWithoutMeasurement) {
+        return new AddNewSnapshotWhenProjectedRehydrationTimeExceeds(targetRehydrationTime,
+                                                                     numberOfEventsBetweenSnapshotsWithoutMeasurement);
+    }
+
     /**
      * Should a new aggregate snapshot be added based on
      *
@@ -51,6 +68,20 @@ public interface AddNewAggregateSnapshotStrategy {
                                                                          AggregateEventStream<ID> persistedEvents,
                                                                          Optional<EventOrder> mostRecentlyStoredSnapshotLastIncludedEventOrder);
 
+    /**
+     * Callback that reports how long it took to rehydrate an aggregate instance (i.e. fetch and apply its events).<br>
+     * Cost based strategies can use this to determine when a new snapshot should be added. The default implementation ignores the measurement.
+     *
+     * @param aggregateType            the aggregate type
+     * @param aggregateImplType        the concrete aggregate implementation type
+     * @param numberOfEventsRehydrated the number of events that were fetched and applied to the aggregate
+     * @param rehydrationTime          the time it took to fetch and apply the events
+     */
+    default void aggregateRehydrated(AggregateType aggregateType,
+                                     Class<?> aggregateImplType,
+                                     long numberOfEventsRehydrated,
+                                     Duration rehydrationTime) {
+    }
 
     class AddNewSnapshotWhenBehindByNumberOfEvents implements AddNewAggregateSnapshotStrategy {
         private final long numberOfEventsBetweenAddingANewSnapshot;
@@ -95,4 +126,85 @@ public interface AddNewAggregateSnapshotStrategy {
             return (Lists.last(persistedEvents.eventList()).get().eventOrder().longValue() - mostRecentlyStoredSnapshotLastIncludedEventOrder.map(NumberType::longValue).orElse(-1L) >= numberOfEventsBetweenAddingANewSnapshot);
         }
     }
+
+    /**
+     * Adds a new aggregate snapshot when the projected rehydration time exceeds the configured target.<br>
+     * The projected rehydration time is the number of events persisted since the most recent snapshot multiplied by the
+     * (exponentially weighted moving average) rehydration cost per event measured for the aggregate implementation type.<br>
+     * Until the rehydration cost has been measured for an aggregate implementation type, a new snapshot is added when the
+     * snapshot is behind by <code>numberOfEventsBetweenSnapshotsWithoutMeasurement</code> events
+     */
+    class AddNewSnapshotWhenProjectedRehydrationTimeExceeds implements AddNewAggregateSnapshotStrategy {
+        /**
+         * Weight of the newest measurement in the moving average of the rehydration cost per event
+         */
+        static final double SMOOTHING_FACTOR = 0.2d;
+
+        private final Duration                            targetRehydrationTime;
+        private final long                                numberOfEventsBetweenSnapshotsWithoutMeasurement;
+        private final ConcurrentHashMap<Class<?>, Double> nanosPerEventPerAggregateImplType = new ConcurrentHashMap<>();
+
+        public AddNewSnapshotWhenProjectedRehydrationTimeExceeds(Duration targetRehydrationTime,
+                                                                 long numberOfEventsBetweenSnapshotsWithoutMeasurement) {
+            this.targetRehydrationTime = requireNonNull(targetRehydrationTime, "No targetRehydrationTime provided");
+            requireTrue(!targetRehydrationTime.isNegative() && !targetRehydrationTime.isZero(), "targetRehydrationTime must be > 0");
+            requireTrue(numberOfEventsBetweenSnapshotsWithoutMeasurement >= 1, "numberOfEventsBetweenSnapshotsWithoutMeasurement must be >= 1");
+            this.numberOfEventsBetweenSnapshotsWithoutMeasurement = numberOfEventsBetweenSnapshotsWithoutMeasurement;
+        }
+
+        public Duration getTargetRehydrationTime() {
+            return targetRehydrationTime;
+        }
+
+        public long getNumberOfEventsBetweenSnapshotsWithoutMeasurement() {
+            return numberOfEventsBetweenSnapshotsWithoutMeasurement;
+        }
+
+        /**
+         * @param aggregateImplType the concrete aggregate implementation type
+         * @return the measured rehydration cost per event for the given aggregate implementation type or {@link Optional#empty()}
+         * if no rehydrations have been measured yet
+         */
+        public Optional<Duration> getRehydrationTimePerEvent(Class<?> aggregateImplType) {
+            return Optional.ofNullable(nanosPerEventPerAggregateImplType.get(aggregateImplType))
+                           .map(nanosPerEvent -> Duration.ofNanos(Math.round(nanosPerEvent)));
+        }
+
+        @Override
+        public void aggregateRehydrated(AggregateType aggregateType,
+                                        Class<?> aggregateImplType,
+                                        long numberOfEventsRehydrated,
+                                        Duration rehydrationTime) {
+            if (aggregateImplType == null || rehydrationTime == null || numberOfEventsRehydrated <= 0) {
+                return;
+            }
+            var nanosPerEvent = (double) rehydrationTime.toNanos() / numberOfEventsRehydrated;
+            nanosPerEventPerAggregateImplType.merge(aggregateImplType,
+                                                    nanosPerEvent,
+                                                    (average, measurement) -> average + SMOOTHING_FACTOR * (measurement - average));
+        }
+
+        @Override
+        public <ID, AGGREGATE_IMPL_TYPE> boolean shouldANewAggregateSnapshotBeAdded(AGGREGATE_IMPL_TYPE aggregate,
+                                                                                    AggregateEventStream<ID> persistedEvents,
+                                                                                    Optional<EventOrder> mostRecentlyStoredSnapshotLastIncludedEventOrder) {
+            var numberOfEventsBehind = Lists.last(persistedEvents.eventList()).get().eventOrder().longValue() - mostRecentlyStoredSnapshotLastIncludedEventOrder.map(NumberType::longValue).orElse(-1L);
+            if (numberOfEventsBehind < 1) {
+                return false;
+            }
+            var nanosPerEvent = nanosPerEventPerAggregateImplType.get(aggregate.getClass());
+            if (nanosPerEvent == null) {
+                return numberOfEventsBehind >= numberOfEventsBetweenSnapshotsWithoutMeasurement;
+            }
+            return numberOfEventsBehind * nanosPerEvent >= targetRehydrationTime.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return "AddNewSnapshotWhenProjectedRehydrationTimeExceeds(" +
+                    "targetRehydrationTime=" + targetRehydrationTime +
+                    ", numberOfEventsBetweenSnapshotsWithoutMeasurement=" + numberOfEventsBetweenSnapshotsWithoutMeasurement +
+                    ')';
+        }
+    }
 }
@@ -19,6 +19,7 @@ package dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -87,6 +88,36 @@ public interface AggregateSnapshotRepository {
      */
     <ID, AGGREGATE_IMPL_TYPE> void aggregateUpdated(AGGREGATE_IMPL_TYPE aggregate, AggregateEventStream<ID> persistedEvents);
 
+    /**
+     * Callback from an Aggregate Repository to report how long it took to rehydrate an aggregate instance (i.e. fetch and apply its events),
+     * which allows cost based {@link AddNewAggregateSnapshotStrategy}'s to determine when a new snapshot should be added.<br>
+     * The default implementation ignores the measurement
+     *
+     * @param aggregateType            the aggregate type
+     * @param aggregateImplType        the concrete aggregate implementation type
+     * @param numberOfEventsRehydrated the number of events that were fetched and applied to the aggregate
+     * @param rehydrationTime          the time it took to fetch and apply the events
+     */
+    default void aggregateRehydrated(AggregateType aggregateType,
+                                     Class<?> aggregateImplType,
+                                     long numberOfEventsRehydrated,
+                                     Duration rehydrationTime) {
+    }
+
+    /**
+     * Does this repository persist snapshots asynchronously, i.e. outside the {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} that persisted the events?<br>
+     * Aggregate Repositories call {@link #aggregateUpdated(Object, AggregateEventStream)} on a synchronous repository before the
+     * {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} is committed, so the snapshot is persisted in the same transaction as the events.<br>
+     * An asynchronous repository is called after the {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} has been committed
+     * (and never if it is rolled back), so it never persists a snapshot of events that weren't committed.<br>
+     * The default implementation returns false
+     *
+     * @return true if snapshots are persisted asynchronously, otherwise false
+     */
+    default boolean persistsSnapshotsAsynchronously() {
+        return false;
+    }
+
     /**
      * Delete all snapshots for the given aggregate implementation type
      *
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
+import dk.cloudcreate.essentials.components.foundation.Lifecycle;
+import dk.cloudcreate.essentials.components.foundation.json.JSONSerializer;
+import dk.cloudcreate.essentials.shared.collections.Lists;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import org.slf4j.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Delegating {@link AggregateSnapshotRepository} which directly delegates all operations to the provided <code>delegateRepository</code>,
+ * except for {@link AggregateSnapshotRepository#aggregateUpdated(Object, AggregateEventStream)}, which is performed by a bounded number of background writer threads.<br>
+ * Pending snapshots are coalesced per aggregate instance, i.e. only the latest pending snapshot (the one with the highest {@link EventOrder}) for a given
+ * {@link AggregateType}, aggregate-id and aggregate implementation type is kept, so write-heavy aggregates only pay for serializing and persisting
+ * the most recent snapshot.<br>
+ * The number of pending snapshots is bounded by <code>maxPendingSnapshots</code> - when the limit is reached the oldest pending snapshot is dropped
+ * (snapshots are purely an optimization, so dropping one only means that the aggregate is rehydrated from a slightly older snapshot).<br>
+ * <br>
+ * Since the snapshot is persisted by a background thread, after the {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} that persisted the events
+ * has been committed (see {@link #persistsSnapshotsAsynchronously()}), {@link #aggregateUpdated(Object, AggregateEventStream)} queues a copy of the aggregate
+ * (created by a JSON round trip using the provided {@link JSONSerializer}), so the aggregate instance can be reused and modified while the snapshot is pending.<br>
+ * If the {@link CoalescingBackgroundAggregateSnapshotDelegate} hasn't been started, then {@link #aggregateUpdated(Object, AggregateEventStream)} is delegated synchronously.
+ */
+public class CoalescingBackgroundAggregateSnapshotDelegate implements AggregateSnapshotRepository, Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CoalescingBackgroundAggregateSnapshotDelegate.class);
+
+    public static final int DEFAULT_MAX_PENDING_SNAPSHOTS    = 10_000;
+    public static final int DEFAULT_NUMBER_OF_WRITER_THREADS = 1;
+
+    private final    AggregateSnapshotRepository                        delegateRepository;
+    private final    JSONSerializer                                     jsonSerializer;
+    private final    int                                                maxPendingSnapshots;
+    private final    int                                                numberOfWriterThreads;
+    private final    Object                                             lock             = new Object();
+    private final    LinkedHashMap<PendingSnapshotKey, PendingSnapshot> pendingSnapshots = new LinkedHashMap<>();
+    private          ExecutorService                                    writerPool;
+    private volatile boolean                                            started;
+    private          long                                               snapshotsWritten;
+    private          long                                               snapshotsCoalesced;
+    private          long                                               snapshotsDropped;
+
+    /**
+     * Create and start a {@link CoalescingBackgroundAggregateSnapshotDelegate} using {@link #DEFAULT_MAX_PENDING_SNAPSHOTS} and {@link #DEFAULT_NUMBER_OF_WRITER_THREADS}
+     *
+     * @param delegateRepository the repository that will persist the snapshots
+     * @param jsonSerializer     the JSON serializer used to copy the aggregate instance when a snapshot is queued
+     * @return the started {@link CoalescingBackgroundAggregateSnapshotDelegate}
+     */
+    public static CoalescingBackgroundAggregateSnapshotDelegate delegateTo(AggregateSnapshotRepository delegateRepository,
+                                                                           JSONSerializer jsonSerializer) {
+        var delegate = new CoalescingBackgroundAggregateSnapshotDelegate(delegateRepository,
+                                                                         jsonSerializer,
+                                                                         DEFAULT_MAX_PENDING_SNAPSHOTS,
+                                                                         DEFAULT_NUMBER_OF_WRITER_THREADS);
+        delegate.start();
+        return delegate;
+    }
+
+    /**
+     * @param delegateRepository    the repository that will persist the snapshots
+     * @param jsonSerializer        the JSON serializer used to copy the aggregate instance when a snapshot is queued
+     * @param maxPendingSnapshots   the maximum number of pending snapshots - when exceeded the oldest pending snapshot is dropped
+     * @param numberOfWriterThreads the number of background threads that will persist snapshots
+     */
+    public CoalescingBackgroundAggregateSnapshotDelegate(AggregateSnapshotRepository delegateRepository,
+                                                         JSONSerializer jsonSerializer,
+                                                         int maxPendingSnapshots,
+                                                         int numberOfWriterThreads) {
+        this.delegateRepository = requireNonNull(delegateRepository, "No delegateRepository provided");
+        this.jsonSerializer = requireNonNull(jsonSerializer, "No jsonSerializer provided");
+        requireTrue(maxPendingSnapshots >= 1, "maxPendingSnapshots must be >= 1");
+        requireTrue(numberOfWriterThreads >= 1, "numberOfWriterThreads must be >= 1");
+        this.maxPendingSnapshots = maxPendingSnapshots;
+        this.numberOfWriterThreads = numberOfWriterThreads;
+        log.info("Delegating to {} using maxPendingSnapshots {} and numberOfWriterThreads {}", delegateRepository, maxPendingSnapshots, numberOfWriterThreads);
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (started) {
+                return;
+            }
+            log.info("Starting with {} writer thread(s)", numberOfWriterThreads);
+            started = true;
+            writerPool = Executors.newFixedThreadPool(numberOfWriterThreads,
+                                                      ThreadFactoryBuilder.builder()
+                                                                          .nameFormat("AggregateSnapshotWriter-%d")
+                                                                          .daemon(true)
+                                                                          .build());
+            for (int i = 0; i < numberOfWriterThreads; i++) {
+                writerPool.submit(this::writePendingSnapshots);
+            }
+        }
+    }
+
+    /**
+     * Stop the background writers - any pending snapshots will be persisted before the writers stop
+     */
+    @Override
+    public void stop() {
+        ExecutorService poolToShutdown;
+        synchronized (lock) {
+            if (!started) {
+                return;
+            }
+            log.info("Stopping with {} pending snapshot(s)", pendingSnapshots.size());
+            started = false;
+            poolToShutdown = writerPool;
+            writerPool = null;
+            lock.notifyAll();
+        }
+        poolToShutdown.shutdown();
+        try {
+            if (!poolToShutdown.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for the pending snapshots to be written");
+                poolToShutdown.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            poolToShutdown.shutdownNow();
+        }
+        log.info("Stopped");
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    @Override
+    public <ID, AGGREGATE_IMPL_TYPE> void aggregateUpdated(AGGREGATE_IMPL_TYPE aggregate, AggregateEventStream<ID> persistedEvents) {
+        requireNonNull(aggregate, "No aggregate instance supplied");
+        requireNonNull(persistedEvents, "No persistedEvents stream supplied");
+        if (!started) {
+            log.debug("[{}:{}] Not started - delegating aggregateUpdated for '{}' synchronously",
+                      persistedEvents.aggregateType(),
+                      persistedEvents.aggregateId(),
+                      aggregate.getClass().getName());
+            delegateRepository.aggregateUpdated(aggregate, persistedEvents);
+            return;
+        }
+
+        var eventOrderOfLastPersistedEvent = Lists.last(persistedEvents.eventList()).get().eventOrder();
+        var key                            = new PendingSnapshotKey(persistedEvents.aggregateType(), persistedEvents.aggregateId(), aggregate.getClass());
+        // Capture the state at queue time, as the aggregate instance may be reused (and modified) by the next UnitOfWork before the snapshot is written
+        var aggregateCopy = copyOf(aggregate);
+        synchronized (lock) {
+            var existing = pendingSnapshots.get(key);
+            if (existing != null) {
+                if (existing.eventOrderOfLastPersistedEvent.longValue() > eventOrderOfLastPersistedEvent.longValue()) {
+                    log.trace("[{}:{}] Ignoring snapshot for '{}' with eventOrder {} as a newer snapshot with eventOrder {} is pending",
+                              key.aggregateType, key.aggregateId, key.aggregateImplType.getName(), eventOrderOfLastPersistedEvent, existing.eventOrderOfLastPersistedEvent);
+                    snapshotsCoalesced++;
+                    return;
+                }
+                log.trace("[{}:{}] Coalescing pending snapshot for '{}' with eventOrder {} into eventOrder {}",
+                          key.aggregateType, key.aggregateId, key.aggregateImplType.getName(), existing.eventOrderOfLastPersistedEvent, eventOrderOfLastPersistedEvent);
+                pendingSnapshots.remove(key);
+                snapshotsCoalesced++;
+            } else if (pendingSnapshots.size() >= maxPendingSnapshots) {
+                var eldest = pendingSnapshots.entrySet().iterator().next();
+                log.debug("[{}:{}] Dropping pending snapshot for '{}' with eventOrder {} since maxPendingSnapshots {} has been reached",
+                          eldest.getKey().aggregateType, eldest.getKey().aggregateId, eldest.getKey().aggregateImplType.getName(),
+                          eldest.getValue().eventOrderOfLastPersistedEvent, maxPendingSnapshots);
+                pendingSnapshots.remove(eldest.getKey());
+                snapshotsDropped++;
+            }
+            pendingSnapshots.put(key, new PendingSnapshot(aggregateCopy, persistedEvents, eventOrderOfLastPersistedEvent));
+            lock.notifyAll();
+        }
+    }
+
+    private Object copyOf(Object aggregate) {
+        return jsonSerializer.deserialize(jsonSerializer.serialize(aggregate), aggregate.getClass());
+    }
+
+    /**
+     * @return true while the background writers are started, in which case snapshots must be queued after the
+     * {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} has been committed
+     */
+    @Override
+    public boolean persistsSnapshotsAsynchronously() {
+        return started;
+    }
+
+    /**
+     * @return the number of snapshots waiting to be persisted
+     */
+    public int getNumberOfPendingSnapshots() {
+        synchronized (lock) {
+            return pendingSnapshots.size();
+        }
+    }
+
+    /**
+     * @return the number of snapshots that have been handed over to the <code>delegateRepository</code>
+     */
+    public long getNumberOfSnapshotsWritten() {
+        synchronized (lock) {
+            return snapshotsWritten;
+        }
+    }
+
+    /**
+     * @return the number of snapshots that were replaced by a newer snapshot of the same aggregate before they were written
+     */
+    public long getNumberOfSnapshotsCoalesced() {
+        synchronized (lock) {
+            return snapshotsCoalesced;
+        }
+    }
+
+    /**
+     * @return the number of snapshots that were dropped because <code>maxPendingSnapshots</code> was reached
+     */
+    public long getNumberOfSnapshotsDropped() {
+        synchronized (lock) {
+            return snapshotsDropped;
+        }
+    }
+
+    private void writePendingSnapshots() {
+        while (true) {
+            PendingSnapshot pendingSnapshot;
+            synchronized (lock) {
+                while (started && pendingSnapshots.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pendingSnapshots.isEmpty()) {
+                    // Stopped and all pending snapshots have been written
+                    return;
+                }
+                var eldest = pendingSnapshots.entrySet().iterator().next();
+                pendingSnapshots.remove(eldest.getKey());
+                pendingSnapshot = eldest.getValue();
+            }
+            try {
+                log.debug("[{}:{}] Delegating aggregateUpdated for '{}' and last_included_event_order {}",
+                          pendingSnapshot.persistedEvents.aggregateType(),
+                          pendingSnapshot.persistedEvents.aggregateId(),
+                          pendingSnapshot.aggregate.getClass().getName(),
+                          pendingSnapshot.eventOrderOfLastPersistedEvent);
+                delegateRepository.aggregateUpdated(pendingSnapshot.aggregate, pendingSnapshot.persistedEvents);
+            } catch (Throwable e) {
+                log.error(msg("[{}:{}] Failed to persist snapshot for '{}' with last_included_event_order {}",
+                              pendingSnapshot.persistedEvents.aggregateType(),
+                              pendingSnapshot.persistedEvents.aggregateId(),
+                              pendingSnapshot.aggregate.getClass().getName(),
+                              pendingSnapshot.eventOrderOfLastPersistedEvent), e);
+            } finally {
+                synchronized (lock) {
+                    snapshotsWritten++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void aggregateRehydrated(AggregateType aggregateType,
+                                    Class<?> aggregateImplType,
+                                    long numberOfEventsRehydrated,
+                                    Duration rehydrationTime) {
+        delegateRepository.aggregateRehydrated(aggregateType, aggregateImplType, numberOfEventsRehydrated, rehydrationTime);
+    }
+
+    @Override
+    public <ID, AGGREGATE_IMPL_TYPE> Optional<AggregateSnapshot<ID, AGGREGATE_IMPL_TYPE>> loadSnapshot(AggregateType aggregateType, ID aggregateId, EventOrder withLastIncludedEventOrderLessThanOrEqualTo, Class<AGGREGATE_IMPL_TYPE> aggregateImplType) {
+        return delegateRepository.loadSnapshot(aggregateType, aggregateId, withLastIncludedEventOrderLessThanOrEqualTo, aggregateImplType);
+    }
+
+    @Override
+    public <ID, AGGREGATE_IMPL_TYPE> List<AggregateSnapshot<ID, AGGREGATE_IMPL_TYPE>> loadAllSnapshots(AggregateType aggregateType, ID aggregateId, Class<AGGREGATE_IMPL_TYPE> aggregateImplType, boolean includeSnapshotPayload) {
+        return delegateRepository.loadAllSnapshots(aggregateType, aggregateId, aggregateImplType, includeSnapshotPayload);
+    }
+
+    @Override
+    public <AGGREGATE_IMPL_TYPE> void deleteAllSnapshots(Class<AGGREGATE_IMPL_TYPE> ofAggregateImplementationType) {
+        delegateRepository.deleteAllSnapshots(ofAggregateImplementationType);
+    }
+
+    @Override
+    public <ID, AGGREGATE_IMPL_TYPE> void deleteSnapshots(AggregateType aggregateType, ID aggregateId, Class<AGGREGATE_IMPL_TYPE> withAggregateImplementationType) {
+        delegateRepository.deleteSnapshots(aggregateType, aggregateId, withAggregateImplementationType);
+    }
+
+    @Override
+    public <ID, AGGREGATE_IMPL_TYPE> void deleteSnapshots(AggregateType aggregateType, ID aggregateId, Class<AGGREGATE_IMPL_TYPE> withAggregateImplementationType, List<EventOrder> snapshotEventOrdersToDelete) {
+        delegateRepository.deleteSnapshots(aggregateType, aggregateId, withAggregateImplementationType, snapshotEventOrdersToDelete);
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingBackgroundAggregateSnapshotDelegate{" +
+                "delegateRepository=" + delegateRepository +
+                ", maxPendingSnapshots=" + maxPendingSnapshots +
+                ", numberOfWriterThreads=" + numberOfWriterThreads +
+                '}';
+    }
+
+    private record PendingSnapshotKey(AggregateType aggregateType, Object aggregateId, Class<?> aggregateImplType) {
+    }
+
+    private record PendingSnapshot(Object aggregate, AggregateEventStream<?> persistedEvents, EventOrder eventOrderOfLastPersistedEvent) {
+    }
+}
@@ -21,6 +21,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.t
 import dk.cloudcreate.essentials.shared.collections.Lists;
 import org.slf4j.*;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -73,6 +74,14 @@ public class DelayedAddAndDeleteAggregateSnapshotDelegate implements AggregateSn
         });
     }
 
+    @Override
+    public void aggregateRehydrated(AggregateType aggregateType,
+                                    Class<?> aggregateImplType,
+                                    long numberOfEventsRehydrated,
+                                    Duration rehydrationTime) {
+        delegateRepository.aggregateRehydrated(aggregateType, aggregateImplType, numberOfEventsRehydrated, rehydrationTime);
+    }
+
     @Override
     public <AGGREGATE_IMPL_TYPE> void deleteAllSnapshots(Class<AGGREGATE_IMPL_TYPE> ofAggregateImplementationType) {
         delegateRepository.deleteAllSnapshots(ofAggregateImplementationType);
@@ -332,6 +332,14 @@ public class PostgresqlAggregateSnapshotRepository implements AggregateSnapshotR
         });
     }
 
+    @Override
+    public void aggregateRehydrated(AggregateType aggregateType,
+                                    Class<?> aggregateImplType,
+                                    long numberOfEventsRehydrated,
+                                    Duration rehydrationTime) {
+        addNewSnapshotStrategy.aggregateRehydrated(aggregateType, aggregateImplType, numberOfEventsRehydrated, rehydrationTime);
+    }
+
     private <ID, AGGREGATE_IMPL_TYPE> boolean shouldWeAddANewAggregateSnapshot(AGGREGATE_IMPL_TYPE aggregate, AggregateEventStream<ID> persistedEvents, AggregateType aggregateType, String aggregateImplType, Optional<EventOrder> mostRecentlyStoredSnapshotLastIncludedEventOrder) {
         if (addNewSnapshotStrategy.shouldANewAggregateSnapshotBeAdded(aggregate, persistedEvents, mostRecentlyStoredSnapshotLastIncludedEventOrder)) {
             if (log.isDebugEnabled()) {
@@ -18,6 +18,7 @@ package dk.cloudcreate.essentials.components.eventsourced.aggregates.stateful;
 
 
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.*;
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.cache.AggregateCache;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot.*;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.stateful.classic.Event;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
@@ -29,7 +30,9 @@ import dk.cloudcreate.essentials.shared.types.GenericType;
 import dk.cloudcreate.essentials.types.LongRange;
 import org.slf4j.*;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 
@@ -77,6 +80,7 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         (Class<ID>) GenericType.resolveGenericTypeOnSuperClass(aggregateImplementationType, 0),
                                                         aggregateImplementationType,
+                                                        null,
                                                         null);
     }
 
@@ -113,7 +117,8 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         (Class<ID>) GenericType.resolveGenericTypeOnSuperClass(aggregateImplementationType, 0),
                                                         aggregateImplementationType,
-                                                        aggregateSnapshotRepository);
+                                                        aggregateSnapshotRepository,
+                                                        null);
     }
 
     /**
@@ -145,6 +150,7 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         (Class<ID>) GenericType.resolveGenericTypeOnSuperClass(aggregateImplementationType, 0),
                                                         aggregateImplementationType,
+                                                        null,
                                                         null);
     }
 
@@ -183,7 +189,8 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         (Class<ID>) GenericType.resolveGenericTypeOnSuperClass(aggregateImplementationType, 0),
                                                         aggregateImplementationType,
-                                                        aggregateSnapshotRepository);
+                                                        aggregateSnapshotRepository,
+                                                        null);
     }
 
     /**
@@ -210,6 +217,7 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         aggregateIdType,
                                                         aggregateImplementationType,
+                                                        null,
                                                         null);
     }
 
@@ -243,7 +251,8 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         aggregateIdType,
                                                         aggregateImplementationType,
-                                                        aggregateSnapshotRepository);
+                                                        aggregateSnapshotRepository,
+                                                        null);
     }
 
     /**
@@ -272,6 +281,7 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         aggregateIdType,
                                                         aggregateImplementationType,
+                                                        null,
                                                         null);
     }
 
@@ -307,7 +317,86 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                         aggregateRootInstanceFactory,
                                                         aggregateIdType,
                                                         aggregateImplementationType,
-                                                        aggregateSnapshotRepository);
+                                                        aggregateSnapshotRepository,
+                                                        null);
+    }
+
+    /**
+     * Create an {@link StatefulAggregateRepository} instance that supports loading and persisting the given Aggregate type - the {@link EventStore} will be configured with the supplied <code>eventStreamConfiguration</code>.<br>
+     * Hydrated aggregates are cached in the supplied {@link AggregateCache}, which means that loading a cached aggregate only requires fetching the events persisted
+     * after the cached aggregate's {@link EventOrder}
+     *
+     * @param <CONFIG>                     the aggregate type configuration
+     * @param <ID>                         the aggregate ID type
+     * @param <EVENT_TYPE>                 the type of event
+     * @param <AGGREGATE_IMPL_TYPE>        the concrete aggregate type  (MUST be a subtype of {@link StatefulAggregate})
+     * @param eventStore                   the {@link EventStore} instance to use
+     * @param eventStreamConfiguration     the configuration for the event stream that will contain all the events related to the aggregate type
+     * @param aggregateRootInstanceFactory the factory responsible for instantiating your {@link StatefulAggregate}'s when loading them from the {@link EventStore}
+     * @param aggregateIdType              the concrete aggregate ID type
+     * @param aggregateImplementationType  the concrete aggregate type (MUST be a subtype of {@link StatefulAggregate})
+     * @param aggregateSnapshotRepository  optional (may be null) {@link AggregateSnapshotRepository}
+     * @param aggregateCache               optional (may be null) {@link AggregateCache}
+     * @return a repository instance that can be used load, add and query aggregates of type <code>eventStreamConfiguration</code>'s {@link AggregateType}
+     */
+    static <CONFIG extends AggregateEventStreamConfiguration,
+            ID,
+            EVENT_TYPE,
+            AGGREGATE_IMPL_TYPE extends StatefulAggregate<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE>>
+    StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE> from(ConfigurableEventStore<CONFIG> eventStore,
+                                                                          CONFIG eventStreamConfiguration,
+                                                                          StatefulAggregateInstanceFactory aggregateRootInstanceFactory,
+                                                                          Class<ID> aggregateIdType,
+                                                                          Class<AGGREGATE_IMPL_TYPE> aggregateImplementationType,
+                                                                          AggregateSnapshotRepository aggregateSnapshotRepository,
+                                                                          AggregateCache aggregateCache) {
+        return new DefaultStatefulAggregateRepository<>(eventStore,
+                                                        eventStreamConfiguration,
+                                                        aggregateRootInstanceFactory,
+                                                        aggregateIdType,
+                                                        aggregateImplementationType,
+                                                        aggregateSnapshotRepository,
+                                                        aggregateCache);
+    }
+
+    /**
+     * Create an {@link StatefulAggregateRepository} instance that supports loading and persisting the given Aggregate type - if missing, the {@link EventStore} will be configured with the
+     * default {@link AggregateEventStreamConfiguration} based on the {@link AggregateEventStreamConfigurationFactory} that the {@link EventStore}'s {@link AggregateEventStreamPersistenceStrategy}
+     * is configured with<br>
+     * Hydrated aggregates are cached in the supplied {@link AggregateCache}, which means that loading a cached aggregate only requires fetching the events persisted
+     * after the cached aggregate's {@link EventOrder}
+     *
+     * @param <CONFIG>                     the aggregate type configuration
+     * @param <ID>                         the aggregate ID type
+     * @param <EVENT_TYPE>                 the type of event
+     * @param <AGGREGATE_IMPL_TYPE>        the concrete aggregate type  (MUST be a subtype of {@link StatefulAggregate})
+     * @param eventStore                   the {@link EventStore} instance to use
+     * @param aggregateType                the aggregate type being handled by this repository
+     * @param aggregateRootInstanceFactory the factory responsible for instantiating your {@link StatefulAggregate}'s when loading them from the {@link EventStore}
+     * @param aggregateIdType              the concrete aggregate ID type
+     * @param aggregateImplementationType  the concrete aggregate type (MUST be a subtype of {@link StatefulAggregate})
+     * @param aggregateSnapshotRepository  optional (may be null) {@link AggregateSnapshotRepository}
+     * @param aggregateCache               optional (may be null) {@link AggregateCache}
+     * @return a repository instance that can be used load, add and query aggregates of type <code>aggregateType</code>
+     */
+    static <CONFIG extends AggregateEventStreamConfiguration,
+            ID,
+            EVENT_TYPE,
+            AGGREGATE_IMPL_TYPE extends StatefulAggregate<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE>>
+    StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE> from(ConfigurableEventStore<CONFIG> eventStore,
+                                                                          AggregateType aggregateType,
+                                                                          StatefulAggregateInstanceFactory aggregateRootInstanceFactory,
+                                                                          Class<ID> aggregateIdType,
+                                                                          Class<AGGREGATE_IMPL_TYPE> aggregateImplementationType,
+                                                                          AggregateSnapshotRepository aggregateSnapshotRepository,
+                                                                          AggregateCache aggregateCache) {
+        return new DefaultStatefulAggregateRepository<>(eventStore,
+                                                        aggregateType,
+                                                        aggregateRootInstanceFactory,
+                                                        aggregateIdType,
+                                                        aggregateImplementationType,
+                                                        aggregateSnapshotRepository,
+                                                        aggregateCache);
     }
 
     // -------------------------------------------------------------------------------------------------------------------------------------------------
@@ -439,13 +528,20 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
     class DefaultStatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE extends StatefulAggregate<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE>> implements StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE> {
         private static final Logger log = LoggerFactory.getLogger(StatefulAggregateRepository.class);
 
-        private final EventStore                                             eventStore;
+        private final ConfigurableEventStore<?>                              eventStore;
         private final Class<AGGREGATE_IMPL_TYPE>                             aggregateImplementationType;
         private final Class<ID>                                              aggregateIdType;
         private final StatefulAggregateRepositoryUnitOfWorkLifecycleCallback unitOfWorkCallback;
         private final StatefulAggregateInstanceFactory                       aggregateRootInstanceFactory;
         private final AggregateType                                          aggregateType;
         private final Optional<AggregateSnapshotRepository>                  aggregateSnapshotRepository;
+        private final Optional<AggregateCache>                               aggregateCache;
+        /**
+         * The events persisted for the aggregates committed in a {@link UnitOfWork} - resolved in
+         * {@link StatefulAggregateRepositoryUnitOfWorkLifecycleCallback#beforeCommit(UnitOfWork, List)} and used to update the {@link #aggregateCache}
+         * and queue asynchronous snapshots in {@link StatefulAggregateRepositoryUnitOfWorkLifecycleCallback#afterCommit(UnitOfWork, List)}
+         */
+        private final Map<AGGREGATE_IMPL_TYPE, AggregateEventStream<ID>>     persistedEventsPendingCommit;
 
         /**
          * Create an {@link StatefulAggregateRepository} - the {@link EventStore} will be configured with the supplied <code>eventStreamConfiguration</code>.<br>
@@ -456,19 +552,23 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
          * @param aggregateIdType                   the concrete aggregate ID type
          * @param aggregateImplementationType       the concrete aggregate type (MUST be a subtype of {@link StatefulAggregate})
          * @param aggregateSnapshotRepository       optional (may be null) {@link AggregateSnapshotRepository}
+         * @param aggregateCache                    optional (may be null) {@link AggregateCache}
          */
         private <CONFIG extends AggregateEventStreamConfiguration> DefaultStatefulAggregateRepository(ConfigurableEventStore<CONFIG> eventStore,
                                                                                                       CONFIG aggregateEventStreamConfiguration,
                                                                                                       StatefulAggregateInstanceFactory statefulAggregateInstanceFactory,
                                                                                                       Class<ID> aggregateIdType,
                                                                                                       Class<AGGREGATE_IMPL_TYPE> aggregateImplementationType,
-                                                                                                      AggregateSnapshotRepository aggregateSnapshotRepository) {
+                                                                                                      AggregateSnapshotRepository aggregateSnapshotRepository,
+                                                                                                      AggregateCache aggregateCache) {
             this.eventStore = requireNonNull(eventStore, "You must supply an EventStore instance");
             this.aggregateType = requireNonNull(aggregateEventStreamConfiguration, "You must supply an aggregateType").aggregateType;
             this.aggregateRootInstanceFactory = requireNonNull(statefulAggregateInstanceFactory, "You must supply a AggregateRootFactory instance");
             this.aggregateImplementationType = requireNonNull(aggregateImplementationType, "You must supply an aggregateImplementationType");
             this.aggregateIdType = requireNonNull(aggregateIdType, "You must supply an aggregateIdType");
             this.aggregateSnapshotRepository = Optional.ofNullable(aggregateSnapshotRepository);
+            this.aggregateCache = Optional.ofNullable(aggregateCache);
+            this.persistedEventsPendingCommit = Collections.synchronizedMap(new IdentityHashMap<>());
             unitOfWorkCallback = new StatefulAggregateRepositoryUnitOfWorkLifecycleCallback();
             eventStore.addAggregateEventStreamConfiguration(aggregateEventStreamConfiguration);
             eventStore.addSpecificInMemoryProjector(aggregateImplementationType, new StatefulAggregateInMemoryProjector(statefulAggregateInstanceFactory));
@@ -485,19 +585,23 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
          * @param aggregateIdType                  the concrete aggregate ID type
          * @param aggregateImplementationType      the concrete aggregate type (MUST be a subtype of {@link StatefulAggregate})
          * @param aggregateSnapshotRepository      optional (may be null) {@link AggregateSnapshotRepository}
+         * @param aggregateCache                   optional (may be null) {@link AggregateCache}
          */
         private <CONFIG extends AggregateEventStreamConfiguration> DefaultStatefulAggregateRepository(ConfigurableEventStore<CONFIG> eventStore,
                                                                                                       AggregateType aggregateType,
                                                                                                       StatefulAggregateInstanceFactory statefulAggregateInstanceFactory,
                                                                                                       Class<ID> aggregateIdType,
                                                                                                       Class<AGGREGATE_IMPL_TYPE> aggregateImplementationType,
-                                                                                                      AggregateSnapshotRepository aggregateSnapshotRepository) {
+                                                                                                      AggregateSnapshotRepository aggregateSnapshotRepository,
+                                                                                                      AggregateCache aggregateCache) {
             this.eventStore = requireNonNull(eventStore, "You must supply an EventStore instance");
             this.aggregateType = requireNonNull(aggregateType, "You must supply an aggregateType");
             this.aggregateRootInstanceFactory = requireNonNull(statefulAggregateInstanceFactory, "You must supply a AggregateRootFactory instance");
             this.aggregateImplementationType = requireNonNull(aggregateImplementationType, "You must supply an aggregateImplementationType");
             this.aggregateIdType = requireNonNull(aggregateIdType, "You must supply an aggregateIdType");
             this.aggregateSnapshotRepository = Optional.ofNullable(aggregateSnapshotRepository);
+            this.aggregateCache = Optional.ofNullable(aggregateCache);
+            this.persistedEventsPendingCommit = Collections.synchronizedMap(new IdentityHashMap<>());
             unitOfWorkCallback = new StatefulAggregateRepositoryUnitOfWorkLifecycleCallback();
             if (eventStore.findAggregateEventStreamConfiguration(aggregateType).isEmpty()) {
                 eventStore.addAggregateEventStreamConfiguration(aggregateType,
@@ -528,6 +632,12 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
             log.trace("Trying to load {} with id '{}' and expectedLatestEventOrder {}", aggregateImplementationType.getName(), aggregateId, expectedLatestEventOrder);
             var unitOfWork = eventStore.getUnitOfWorkFactory().getRequiredUnitOfWork();
 
+            Optional<AggregateCache.CachedAggregate<AGGREGATE_IMPL_TYPE>> cachedAggregate = aggregateCache.flatMap(cache -> cache.<AGGREGATE_IMPL_TYPE>take(aggregateType, aggregateId));
+            if (cachedAggregate.isPresent()) {
+                return Optional.of(unitOfWork.registerLifecycleCallbackForResource(rehydrateCachedAggregate(aggregateId, expectedLatestEventOrder, cachedAggregate.get()),
+                                                                                   unitOfWorkCallback));
+            }
+
             Optional<AggregateSnapshot> aggregateSnapshot = aggregateSnapshotRepository.flatMap(repository -> repository.loadSnapshot(aggregateType,
                                                                                                                                       aggregateId,
                                                                                                                                       aggregateRootImplementationType()));
@@ -548,6 +658,7 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                                                                  .orElse(EventOrder.FIRST_EVENT_ORDER.longValue());
             log.debug("Loading [{}:{}] of aggregate-implementation-type '{}' using loadMoreEventsWithEventOrderFromAndIncluding: {}",
                       aggregateType, aggregateId, aggregateImplementationType.getName(), loadMoreEventsWithEventOrderFromAndIncluding);
+            var rehydrationStartedAt = System.nanoTime();
             var potentialPersistedEventStream = eventStore.fetchStream(aggregateType,
                                                                        aggregateId,
                                                                        LongRange.from(loadMoreEventsWithEventOrderFromAndIncluding));
@@ -581,11 +692,58 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                           aggregateIdType, aggregateId, aggregateImplementationType.getName(), expectedLatestEventOrder, aggregateSnapshot.isPresent());
                 AGGREGATE_IMPL_TYPE aggregate = aggregateSnapshot.map(snapshot -> (AGGREGATE_IMPL_TYPE) snapshot.aggregateSnapshot)
                                                                  .orElseGet(() -> aggregateRootInstanceFactory.create(aggregateId, aggregateImplementationType));
-                return Optional.of(unitOfWork.registerLifecycleCallbackForResource(aggregate.rehydrate(persistedEventsStream),
+                aggregate.rehydrate(persistedEventsStream);
+                var rehydrationTime = Duration.ofNanos(System.nanoTime() - rehydrationStartedAt);
+                aggregateSnapshotRepository.ifPresent(repository -> repository.aggregateRehydrated(aggregateType,
+                                                                                                    aggregateImplementationType,
+                                                                                                    aggregate.eventOrderOfLastRehydratedEvent().longValue() - loadMoreEventsWithEventOrderFromAndIncluding + 1,
+                                                                                                    rehydrationTime));
+                return Optional.of(unitOfWork.registerLifecycleCallbackForResource(aggregate,
                                                                                    unitOfWorkCallback));
             }
         }
 
+        /**
+         * Apply the events persisted after the {@link AggregateCache.CachedAggregate#eventOrderOfLastAppliedEvent()} to the cached aggregate
+         *
+         * @param aggregateId              the id of the aggregate
+         * @param expectedLatestEventOrder the expected {@link EventOrder} of the last event stored in relation to the given aggregate instance
+         * @param cachedAggregate          the aggregate taken from the {@link #aggregateCache}
+         * @return the rehydrated aggregate
+         */
+        private AGGREGATE_IMPL_TYPE rehydrateCachedAggregate(ID aggregateId,
+                                                             Optional<EventOrder> expectedLatestEventOrder,
+                                                             AggregateCache.CachedAggregate<AGGREGATE_IMPL_TYPE> cachedAggregate) {
+            var loadMoreEventsWithEventOrderFromAndIncluding = cachedAggregate.eventOrderOfLastAppliedEvent().increment().longValue();
+            log.debug("[{}:{}] Using cached '{}' with eventOrderOfLastAppliedEvent {} and loadMoreEventsWithEventOrderFromAndIncluding: {}",
+                      aggregateType, aggregateId, aggregateImplementationType.getName(), cachedAggregate.eventOrderOfLastAppliedEvent(), loadMoreEventsWithEventOrderFromAndIncluding);
+            var persistedEventsStream = eventStore.fetchStream(aggregateType,
+                                                               aggregateId,
+                                                               LongRange.from(loadMoreEventsWithEventOrderFromAndIncluding))
+                                                  .orElseGet(() -> AggregateEventStream.of(eventStore.getAggregateEventStreamConfiguration(aggregateType),
+                                                                                           aggregateId,
+                                                                                           LongRange.from(loadMoreEventsWithEventOrderFromAndIncluding),
+                                                                                           Stream.empty()));
+            if (expectedLatestEventOrder.isPresent()) {
+                var actualLatestEventOrder = persistedEventsStream.isEmpty() ?
+                                             cachedAggregate.eventOrderOfLastAppliedEvent() :
+                                             persistedEventsStream.lastEvent().eventOrder();
+                if (!actualLatestEventOrder.equals(expectedLatestEventOrder.get())) {
+                    log.trace("Found cached {} with id '{}' but expectedLatestEventOrder {} != actualLatestEventOrder {}",
+                              aggregateImplementationType.getName(),
+                              aggregateId,
+                              expectedLatestEventOrder.get(),
+                              actualLatestEventOrder);
+                    aggregateCache.get().put(aggregateType, aggregateId, cachedAggregate.aggregate(), cachedAggregate.eventOrderOfLastAppliedEvent());
+                    throw new OptimisticAggregateLoadException(aggregateId,
+                                                               aggregateImplementationType,
+                                                               expectedLatestEventOrder.get(),
+                                                               actualLatestEventOrder);
+                }
+            }
+            return cachedAggregate.aggregate().rehydrate(persistedEventsStream);
+        }
+
         @Override
         public AGGREGATE_IMPL_TYPE save(AGGREGATE_IMPL_TYPE aggregate) {
             log.debug("Adding {} with id '{}' to the current UnitOfWork so it will be persisted at commit time", aggregateImplementationType.getName(), aggregate.aggregateId());
@@ -639,19 +797,42 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
                                       aggregateImplementationType.getName(),
                                       aggregate.aggregateId());
                         }
-                        var persistedEvents = eventStore.appendToStream(aggregateType,
+                        AggregateEventStream<ID> persistedEvents;
+                        try {
+                            persistedEvents = eventStore.appendToStream(aggregateType,
                                                                         eventsToPersist.aggregateId,
                                                                         eventsToPersist.eventOrderOfLastRehydratedEvent,
                                                                         eventsToPersist.events);
+                        } catch (OptimisticAppendToStreamException e) {
+                            aggregateCache.ifPresent(cache -> cache.invalidate(aggregateType, aggregate.aggregateId()));
+                            throw e;
+                        }
                         aggregate.markChangesAsCommitted();
-                        aggregateSnapshotRepository.ifPresent(repository -> repository.aggregateUpdated(aggregate, persistedEvents));
+                        aggregateSnapshotRepository.filter(repository -> !repository.persistsSnapshotsAsynchronously())
+                                                   .ifPresent(repository -> repository.aggregateUpdated(aggregate, persistedEvents));
+                        persistedEventsPendingCommit.put(aggregate, persistedEvents);
                     }
                 });
             }
 
             @Override
             public void afterCommit(UnitOfWork unitOfWork, java.util.List<AGGREGATE_IMPL_TYPE> associatedResources) {
-
+                associatedResources.forEach(aggregate -> {
+                    var persistedEvents = persistedEventsPendingCommit.remove(aggregate);
+                    if (persistedEvents != null) {
+                        // Asynchronous snapshots are queued before the aggregate is cached, so the repository can capture the state before the aggregate can be reused
+                        aggregateSnapshotRepository.filter(AggregateSnapshotRepository::persistsSnapshotsAsynchronously)
+                                                   .ifPresent(repository -> repository.aggregateUpdated(aggregate, persistedEvents));
+                    }
+                    aggregateCache.ifPresent(cache -> {
+                        var eventOrderOfLastAppliedEvent = persistedEvents != null ? EventOrder.of(persistedEvents.eventOrderRangeIncluded().toInclusive) : aggregate.eventOrderOfLastRehydratedEvent();
+                        if (eventOrderOfLastAppliedEvent != null && eventOrderOfLastAppliedEvent.longValue() >= EventOrder.FIRST_EVENT_ORDER.longValue()) {
+                            log.trace("[{}:{}] Caching '{}' with eventOrderOfLastAppliedEvent {}",
+                                      aggregateType, aggregate.aggregateId(), aggregateImplementationType.getName(), eventOrderOfLastAppliedEvent);
+                            cache.put(aggregateType, aggregate.aggregateId(), aggregate, eventOrderOfLastAppliedEvent);
+                        }
+                    });
+                });
             }
 
             @Override
@@ -661,7 +842,10 @@ public interface StatefulAggregateRepository<ID, EVENT_TYPE, AGGREGATE_IMPL_TYPE
 
             @Override
             public void afterRollback(UnitOfWork unitOfWork, java.util.List<AGGREGATE_IMPL_TYPE> associatedResources, Exception causeOfTheRollback) {
-
+                associatedResources.forEach(aggregate -> {
+                    persistedEventsPendingCommit.remove(aggregate);
+                    aggregateCache.ifPresent(cache -> cache.invalidate(aggregateType, aggregate.aggregateId()));
+                });
             }
         }
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.aggregates.cache;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateCacheTest {
+    private static final AggregateType ORDERS   = AggregateType.of("Orders");
+    private static final AggregateType PRODUCTS = AggregateType.of("Products");
+
+    @Test
+    void get_keeps_the_entry_and_take_removes_it() {
+        var cache = AggregateCache.withMaxEntries(10);
+        cache.put(ORDERS, "order-1", "state-1", EventOrder.of(3));
+
+        var cached = cache.<String>get(ORDERS, "order-1");
+        assertThat(cached).isPresent();
+        assertThat(cached.get().aggregate()).isEqualTo("state-1");
+        assertThat(cached.get().eventOrderOfLastAppliedEvent()).isEqualTo(EventOrder.of(3));
+        assertThat(cache.<String>get(PRODUCTS, "order-1")).isEmpty();
+
+        assertThat(cache.<String>take(ORDERS, "order-1")).isPresent();
+        assertThat(cache.<String>take(ORDERS, "order-1")).isEmpty();
+
+        var statistics = cache.statistics();
+        assertThat(statistics.hits()).isEqualTo(2);
+        assertThat(statistics.misses()).isEqualTo(2);
+        assertThat(statistics.hitRatio()).isEqualTo(0.5d);
+        assertThat(statistics.size()).isEqualTo(0);
+    }
+
+    @Test
+    void put_keeps_the_entry_with_the_highest_event_order() {
+        var cache = AggregateCache.withMaxEntries(10);
+        cache.put(ORDERS, "order-1", "newer", EventOrder.of(5));
+        cache.put(ORDERS, "order-1", "older", EventOrder.of(4));
+        assertThat(cache.<String>get(ORDERS, "order-1").get().aggregate()).isEqualTo("newer");
+
+        cache.put(ORDERS, "order-1", "newest", EventOrder.of(6));
+        assertThat(cache.<String>get(ORDERS, "order-1").get().aggregate()).isEqualTo("newest");
+        assertThat(cache.statistics().size()).isEqualTo(1);
+    }
+
+    @Test
+    void evicts_least_recently_used_entry_when_max_entries_is_exceeded() {
+        var cache = AggregateCache.withMaxEntries(2);
+        cache.put(ORDERS, "order-1", "state-1", EventOrder.FIRST_EVENT_ORDER);
+        cache.put(ORDERS, "order-2", "state-2", EventOrder.FIRST_EVENT_ORDER);
+        // Access order-1 so order-2 becomes the least recently used
+        cache.get(ORDERS, "order-1");
+        cache.put(ORDERS, "order-3", "state-3", EventOrder.FIRST_EVENT_ORDER);
+
+        assertThat(cache.<String>get(ORDERS, "order-1")).isPresent();
+        assertThat(cache.<String>get(ORDERS, "order-2")).isEmpty();
+        assertThat(cache.<String>get(ORDERS, "order-3")).isPresent();
+        assertThat(cache.statistics().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evicts_entries_when_max_weight_is_exceeded() {
+        var cache = new AggregateCache(100, 10, (aggregateType, aggregateId, aggregate) -> ((String) aggregate).length());
+        cache.put(ORDERS, "order-1", "12345", EventOrder.FIRST_EVENT_ORDER);
+        cache.put(ORDERS, "order-2", "1234", EventOrder.FIRST_EVENT_ORDER);
+        assertThat(cache.statistics().currentWeight()).isEqualTo(9);
+
+        cache.put(ORDERS, "order-3", "123", EventOrder.FIRST_EVENT_ORDER);
+
+        assertThat(cache.<String>get(ORDERS, "order-1")).isEmpty();
+        assertThat(cache.<String>get(ORDERS, "order-2")).isPresent();
+        assertThat(cache.<String>get(ORDERS, "order-3")).isPresent();
+        assertThat(cache.statistics().currentWeight()).isEqualTo(7);
+        assertThat(cache.statistics().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_removes_the_entry() {
+        var cache = AggregateCache.withMaxEntries(10);
+        cache.put(ORDERS, "order-1", "state-1", EventOrder.FIRST_EVENT_ORDER);
+        cache.put(ORDERS, "order-2", "state-2", EventOrder.FIRST_EVENT_ORDER);
+
+        cache.invalidate(ORDERS, "order-1");
+        assertThat(cache.<String>get(ORDERS, "order-1")).isEmpty();
+        assertThat(cache.statistics().size()).isEqualTo(1);
+
+        cache.invalidateAll();
+        assertThat(cache.statistics().size()).isEqualTo(0);
+        assertThat(cache.statistics().currentWeight()).isEqualTo(0);
+    }
+}
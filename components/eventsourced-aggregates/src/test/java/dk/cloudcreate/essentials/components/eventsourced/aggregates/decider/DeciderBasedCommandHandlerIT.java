@@ -17,6 +17,7 @@
 package dk.cloudcreate.essentials.components.eventsourced.aggregates.decider;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.cache.AggregateCache;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.decider.DeciderTest.GuessingGameEvent;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot.AggregateSnapshotRepository;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
@@ -28,7 +29,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.s
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
 import dk.cloudcreate.essentials.components.foundation.postgresql.SqlExecutionTimeLogger;
-import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.components.foundation.transaction.*;
 import dk.cloudcreate.essentials.components.foundation.types.*;
 import dk.cloudcreate.essentials.reactive.EventHandler;
 import org.jdbi.v3.core.Jdbi;
@@ -41,10 +42,11 @@ import reactor.core.Disposable;
 
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.*;
 
 import static dk.cloudcreate.essentials.jackson.immutable.EssentialsImmutableJacksonModule.createObjectMapper;
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.*;
 
 /**
  * Event-Sourced, {@link Decider} based Mastermind Digit Guessing Game integration test,
@@ -319,6 +321,151 @@ class DeciderBasedCommandHandlerIT {
                   .until(() -> asynchronousGameEventsReceived.isEmpty());
     }
 
+    @Test
+    void cached_state_is_rehydrated_with_the_events_persisted_by_another_node() {
+        // Given
+        var aggregateCache        = AggregateCache.withMaxEntries(10);
+        var cachingCommandHandler = createCachingCommandHandler(aggregateCache);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.JoinGame(gameId,
+                                                                                      secret,
+                                                                                      maxAttempts,
+                                                                                      allowedDigits))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GameStarted(gameId,
+                                                                                                  secret,
+                                                                                                  maxAttempts,
+                                                                                                  allowedDigits));
+        });
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        // When another node persists an event related to the cached aggregate
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            eventStore.appendToStream(GAMES,
+                                      gameId,
+                                      EventOrder.of(0),
+                                      new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                  new DeciderTest.Guess(1, 2, 3, 4),
+                                                                                  1));
+        });
+
+        // Then the cached state isn't stale
+        var guess = new DeciderTest.Guess(2, 3, 4, 5);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.MakeGuess(gameId,
+                                                                                       guess))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                                guess,
+                                                                                                2));
+        });
+        assertThat(aggregateCache.statistics().hits()).isEqualTo(1);
+        assertThat(aggregateCache.get(GAMES, gameId).get().eventOrderOfLastAppliedEvent()).isEqualTo(EventOrder.of(2));
+    }
+
+    @Test
+    void cached_state_is_invalidated_when_persisting_the_events_fails_with_an_OptimisticAppendToStreamException() {
+        // Given
+        var aggregateCache        = AggregateCache.withMaxEntries(10);
+        var cachingCommandHandler = createCachingCommandHandler(aggregateCache);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.JoinGame(gameId,
+                                                                                      secret,
+                                                                                      maxAttempts,
+                                                                                      allowedDigits))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GameStarted(gameId,
+                                                                                                  secret,
+                                                                                                  maxAttempts,
+                                                                                                  allowedDigits));
+        });
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var firstGuess = new DeciderTest.Guess(1, 2, 3, 4);
+        cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.MakeGuess(gameId,
+                                                                                   firstGuess))
+                             .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                            firstGuess,
+                                                                                            1));
+
+        // When another node persists an event related to the aggregate before the UnitOfWork is committed
+        CompletableFuture.runAsync(() -> unitOfWorkFactory.usingUnitOfWork(otherNodeUnitOfWork -> {
+                             eventStore.appendToStream(GAMES,
+                                                       gameId,
+                                                       EventOrder.of(0),
+                                                       new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                                   new DeciderTest.Guess(5, 6, 7, 8),
+                                                                                                   1));
+                         }))
+                         .join();
+
+        // Then
+        assertThatThrownBy(unitOfWork::commit)
+                .isInstanceOf(UnitOfWorkException.class)
+                .hasCauseExactlyInstanceOf(OptimisticAppendToStreamException.class);
+        assertThat(aggregateCache.statistics().size()).isEqualTo(0);
+
+        // And the next command is handled using the state loaded from the event store
+        var guess = new DeciderTest.Guess(2, 3, 4, 5);
+        unitOfWorkFactory.usingUnitOfWork(nextUnitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.MakeGuess(gameId,
+                                                                                       guess))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                                guess,
+                                                                                                2));
+        });
+    }
+
+    @Test
+    void cached_state_is_invalidated_when_the_unit_of_work_is_rolled_back() {
+        // Given
+        var aggregateCache        = AggregateCache.withMaxEntries(10);
+        var cachingCommandHandler = createCachingCommandHandler(aggregateCache);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.JoinGame(gameId,
+                                                                                      secret,
+                                                                                      maxAttempts,
+                                                                                      allowedDigits))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GameStarted(gameId,
+                                                                                                  secret,
+                                                                                                  maxAttempts,
+                                                                                                  allowedDigits));
+        });
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        // When
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var firstGuess = new DeciderTest.Guess(1, 2, 3, 4);
+        cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.MakeGuess(gameId,
+                                                                                   firstGuess))
+                             .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                            firstGuess,
+                                                                                            1));
+        unitOfWork.rollback();
+
+        // Then
+        assertThat(aggregateCache.statistics().size()).isEqualTo(0);
+        var guess = new DeciderTest.Guess(2, 3, 4, 5);
+        unitOfWorkFactory.usingUnitOfWork(nextUnitOfWork -> {
+            cachingCommandHandler.handle(new DeciderTest.GuessingGameCommand.MakeGuess(gameId,
+                                                                                       guess))
+                                 .shouldSucceedWith(new DeciderTest.GuessingGameEvent.GuessMade(gameId,
+                                                                                                guess,
+                                                                                                1));
+        });
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+    }
+
+    private CommandHandler<DeciderTest.GuessingGameCommand, DeciderTest.GuessingGameEvent, DeciderTest.GuessingGameError> createCachingCommandHandler(AggregateCache aggregateCache) {
+        return CommandHandler.deciderBasedCommandHandler(eventStore,
+                                                         GAMES,
+                                                         DeciderTest.GuessingGameId.class,
+                                                         cmd -> Optional.of(cmd.gameId()),
+                                                         event -> Optional.of(event.gameId()),
+                                                         null,
+                                                         DeciderTest.GuessingGameState.class,
+                                                         decider,
+                                                         aggregateCache);
+    }
+
     // ------------------------ Supporting classes ---------------------------
 
     private static class TestPersistableEventMapper implements PersistableEventMapper {
@@ -161,6 +161,50 @@ class AddNewAggregateSnapshotStrategyTest {
                                                                Optional.of(EventOrder.of(0)))).isTrue();
     }
 
+    @Test
+    void test_updateWhenProjectedRehydrationTimeExceeds_without_measurements() {
+        var strategy = AddNewAggregateSnapshotStrategy.updateWhenProjectedRehydrationTimeExceeds(Duration.ofMillis(10), 3);
+
+        var testData = new TestEventStreams(0);
+
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.onePersistedEvent,
+                                                               Optional.empty())).isFalse();
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.twoPersistedEvents,
+                                                               Optional.empty())).isFalse();
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.threePersistedEvents,
+                                                               Optional.empty())).isTrue();
+    }
+
+    @Test
+    void test_updateWhenProjectedRehydrationTimeExceeds_with_measurements() {
+        var strategy = (AddNewAggregateSnapshotStrategy.AddNewSnapshotWhenProjectedRehydrationTimeExceeds) AddNewAggregateSnapshotStrategy.updateWhenProjectedRehydrationTimeExceeds(Duration.ofMillis(10), 1);
+        // 1 ms per event
+        strategy.aggregateRehydrated(AggregateType.of("ORDERS"), Order.class, 10, Duration.ofMillis(10));
+        // Ignored as no events were rehydrated
+        strategy.aggregateRehydrated(AggregateType.of("ORDERS"), Order.class, 0, Duration.ofMillis(100));
+        assertThat(strategy.getRehydrationTimePerEvent(Order.class)).hasValue(Duration.ofMillis(1));
+
+        var testData = new TestEventStreams(5);
+
+        // Behind by 5 events -> projected 5 ms
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.fivePersistedEvents,
+                                                               Optional.of(EventOrder.of(4)))).isFalse();
+        // Behind by 10 events -> projected 10 ms
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.fivePersistedEvents,
+                                                               Optional.empty())).isTrue();
+
+        // Rehydration becomes more expensive (moving average moves towards 6 ms per event)
+        strategy.aggregateRehydrated(AggregateType.of("ORDERS"), Order.class, 1, Duration.ofMillis(6));
+        assertThat(strategy.getRehydrationTimePerEvent(Order.class)).hasValue(Duration.ofMillis(2));
+        assertThat(strategy.shouldANewAggregateSnapshotBeAdded(AGGREGATE,
+                                                               testData.fivePersistedEvents,
+                                                               Optional.of(EventOrder.of(4)))).isTrue();
+    }
 
     static class TestEventStreams {
         private final AggregateEventStream<OrderId> onePersistedEvent;
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.EventOrder;
+import dk.cloudcreate.essentials.components.foundation.json.JSONSerializer;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CoalescingBackgroundAggregateSnapshotDelegateTest {
+    private static final AggregateType ORDERS = AggregateType.of("Orders");
+
+    private AggregateSnapshotRepository                   delegateRepository;
+    private JSONSerializer                                jsonSerializer;
+    private CoalescingBackgroundAggregateSnapshotDelegate snapshotDelegate;
+    private List<Long>                                    writtenEventOrders;
+    private List<Object>                                  writtenAggregates;
+    private CountDownLatch                                releaseWriter;
+
+    @BeforeEach
+    void setup() {
+        delegateRepository = mock(AggregateSnapshotRepository.class);
+        jsonSerializer = mock(JSONSerializer.class);
+        when(jsonSerializer.serialize(any())).thenReturn("{}");
+        when(jsonSerializer.deserialize(anyString(), any(Class.class))).thenAnswer(invocation -> new Object());
+        writtenEventOrders = new CopyOnWriteArrayList<>();
+        writtenAggregates = new CopyOnWriteArrayList<>();
+        releaseWriter = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            AggregateEventStream<?> persistedEvents = invocation.getArgument(1);
+            releaseWriter.await(10, TimeUnit.SECONDS);
+            writtenAggregates.add(invocation.getArgument(0));
+            writtenEventOrders.add(persistedEvents.eventList().get(0).eventOrder().longValue());
+            return null;
+        }).when(delegateRepository).aggregateUpdated(any(), any());
+    }
+
+    @AfterEach
+    void cleanup() {
+        releaseWriter.countDown();
+        if (snapshotDelegate != null) {
+            snapshotDelegate.stop();
+        }
+    }
+
+    @Test
+    void aggregateUpdated_is_delegated_synchronously_when_not_started() {
+        snapshotDelegate = new CoalescingBackgroundAggregateSnapshotDelegate(delegateRepository, jsonSerializer, 10, 1);
+        releaseWriter.countDown();
+        var aggregate = new Object();
+
+        snapshotDelegate.aggregateUpdated(aggregate, persistedEvents("order-1", 0));
+
+        assertThat(writtenEventOrders).containsExactly(0L);
+        assertThat(writtenAggregates).containsExactly(aggregate);
+        assertThat(snapshotDelegate.getNumberOfPendingSnapshots()).isEqualTo(0);
+        assertThat(snapshotDelegate.persistsSnapshotsAsynchronously()).isFalse();
+        verifyNoInteractions(jsonSerializer);
+    }
+
+    @Test
+    void a_copy_of_the_aggregate_is_queued_when_started() {
+        snapshotDelegate = CoalescingBackgroundAggregateSnapshotDelegate.delegateTo(delegateRepository, jsonSerializer);
+        releaseWriter.countDown();
+        var aggregate = new Object();
+
+        snapshotDelegate.aggregateUpdated(aggregate, persistedEvents("order-1", 0));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> snapshotDelegate.getNumberOfSnapshotsWritten() == 1);
+        assertThat(snapshotDelegate.persistsSnapshotsAsynchronously()).isTrue();
+        assertThat(writtenAggregates).hasSize(1);
+        assertThat(writtenAggregates.get(0)).isNotSameAs(aggregate);
+        verify(jsonSerializer).serialize(aggregate);
+    }
+
+    @Test
+    void pending_snapshots_for_the_same_aggregate_are_coalesced() {
+        snapshotDelegate = CoalescingBackgroundAggregateSnapshotDelegate.delegateTo(delegateRepository, jsonSerializer);
+        var aggregate = new Object();
+
+        // The first snapshot is picked up by the writer, which blocks until released
+        snapshotDelegate.aggregateUpdated(aggregate, persistedEvents("order-1", 0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> snapshotDelegate.getNumberOfPendingSnapshots() == 0);
+
+        var newerAggregate = new Object();
+        snapshotDelegate.aggregateUpdated(aggregate, persistedEvents("order-1", 1));
+        snapshotDelegate.aggregateUpdated(newerAggregate, persistedEvents("order-1", 3));
+        // Older than the pending snapshot
+        snapshotDelegate.aggregateUpdated(aggregate, persistedEvents("order-1", 2));
+        assertThat(snapshotDelegate.getNumberOfPendingSnapshots()).isEqualTo(1);
+        assertThat(snapshotDelegate.getNumberOfSnapshotsCoalesced()).isEqualTo(2);
+
+        releaseWriter.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> snapshotDelegate.getNumberOfSnapshotsWritten() == 2);
+        assertThat(writtenEventOrders).containsExactly(0L, 3L);
+    }
+
+    @Test
+    void oldest_pending_snapshot_is_dropped_when_max_pending_snapshots_is_reached() {
+        snapshotDelegate = new CoalescingBackgroundAggregateSnapshotDelegate(delegateRepository, jsonSerializer, 1, 1);
+        snapshotDelegate.start();
+
+        snapshotDelegate.aggregateUpdated(new Object(), persistedEvents("order-1", 0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> snapshotDelegate.getNumberOfPendingSnapshots() == 0);
+
+        snapshotDelegate.aggregateUpdated(new Object(), persistedEvents("order-2", 5));
+        snapshotDelegate.aggregateUpdated(new Object(), persistedEvents("order-3", 7));
+        assertThat(snapshotDelegate.getNumberOfSnapshotsDropped()).isEqualTo(1);
+
+        releaseWriter.countDown();
+        snapshotDelegate.stop();
+
+        assertThat(writtenEventOrders).containsExactly(0L, 7L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AggregateEventStream<String> persistedEvents(String aggregateId, long eventOrder) {
+        var persistedEvent = mock(PersistedEvent.class);
+        when(persistedEvent.eventOrder()).thenReturn(EventOrder.of(eventOrder));
+        AggregateEventStream<String> persistedEvents = mock(AggregateEventStream.class);
+        when(persistedEvents.aggregateType()).thenReturn(ORDERS);
+        when(persistedEvents.aggregateId()).thenReturn(aggregateId);
+        when(persistedEvents.eventList()).thenReturn(List.of(persistedEvent));
+        return persistedEvents;
+    }
+}
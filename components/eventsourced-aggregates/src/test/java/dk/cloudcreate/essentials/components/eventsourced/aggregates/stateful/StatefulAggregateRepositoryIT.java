@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.*;
+import dk.cloudcreate.essentials.components.eventsourced.aggregates.cache.AggregateCache;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.modern.Order;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.modern.*;
 import dk.cloudcreate.essentials.components.eventsourced.aggregates.snapshot.*;
@@ -33,7 +34,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.s
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.EventStoreManagedUnitOfWorkFactory;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
 import dk.cloudcreate.essentials.components.foundation.postgresql.SqlExecutionTimeLogger;
-import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.components.foundation.transaction.*;
 import dk.cloudcreate.essentials.components.foundation.types.*;
 import dk.cloudcreate.essentials.jackson.immutable.EssentialsImmutableJacksonModule;
 import dk.cloudcreate.essentials.jackson.types.EssentialTypesJacksonModule;
@@ -45,9 +46,10 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.*;
 
 import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import static dk.cloudcreate.essentials.components.eventsourced.aggregates.stateful.StatefulAggregateInstanceFactory.reflectionBasedAggregateRootFactory;
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 
 @Testcontainers
@@ -67,6 +69,9 @@ class StatefulAggregateRepositoryIT {
     private PostgresqlAggregateSnapshotRepository                                   snapshotRepository;
     private StatefulAggregateRepository<OrderId, OrderEvent, Order>                 ordersRepository;
     private PostgresqlAggregateSnapshotRepository                                   snapshotRepositorySpy;
+    private AggregateCache                                                          aggregateCache;
+    private StatefulAggregateRepository<OrderId, OrderEvent, Order>                 cachingOrdersRepository;
+    private StatefulAggregateRepository<OrderId, OrderEvent, Order>                 otherNodeOrdersRepository;
 
     @BeforeEach
     void setup() {
@@ -98,6 +103,23 @@ class StatefulAggregateRepositoryIT {
                                                             reflectionBasedAggregateRootFactory(),
                                                             Order.class,
                                                             snapshotRepositorySpy);
+
+        aggregateCache = AggregateCache.withMaxEntries(10);
+        cachingOrdersRepository = StatefulAggregateRepository.from(eventStore,
+                                                                   ORDERS,
+                                                                   reflectionBasedAggregateRootFactory(),
+                                                                   OrderId.class,
+                                                                   Order.class,
+                                                                   null,
+                                                                   aggregateCache);
+        // Simulates a repository running on another node, i.e. with its own cache
+        otherNodeOrdersRepository = StatefulAggregateRepository.from(eventStore,
+                                                                     ORDERS,
+                                                                     reflectionBasedAggregateRootFactory(),
+                                                                     OrderId.class,
+                                                                     Order.class,
+                                                                     null,
+                                                                     AggregateCache.withMaxEntries(10));
     }
 
     @AfterEach
@@ -165,6 +187,107 @@ class StatefulAggregateRepositoryIT {
         Mockito.verify(snapshotRepositorySpy).loadSnapshot(eq(ORDERS), eq(orderId), eq(Order.class));
     }
 
+    @Test
+    void a_cached_aggregate_is_only_rehydrated_with_the_events_persisted_after_it_was_cached() {
+        // Given
+        var orderId    = OrderId.random();
+        var order      = new Order(orderId, CustomerId.random(), 1234);
+        var product1Id = ProductId.random();
+        order.addProduct(product1Id, 10);
+        unitOfWorkFactory.usingUnitOfWork(() -> cachingOrdersRepository.save(order));
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+        assertThat(aggregateCache.get(ORDERS, orderId).get().eventOrderOfLastAppliedEvent()).isEqualTo(EventOrder.of(1));
+
+        // When
+        var product2Id = ProductId.random();
+        unitOfWorkFactory.usingUnitOfWork(() -> {
+            var loadedOrder = cachingOrdersRepository.load(orderId);
+            assertThat(loadedOrder).isSameAs(order);
+            loadedOrder.addProduct(product2Id, 5);
+        });
+
+        // Then
+        assertThat(aggregateCache.get(ORDERS, orderId).get().eventOrderOfLastAppliedEvent()).isEqualTo(EventOrder.of(2));
+        var loadedOrder = unitOfWorkFactory.withUnitOfWork(() -> cachingOrdersRepository.load(orderId));
+        assertThat(loadedOrder).isSameAs(order);
+        assertThat(loadedOrder.eventOrderOfLastRehydratedEvent()).isEqualTo(EventOrder.of(2));
+        assertThat(loadedOrder.productAndQuantity).containsEntry(product1Id, 10)
+                                                  .containsEntry(product2Id, 5);
+    }
+
+    @Test
+    void a_cached_aggregate_is_rehydrated_with_the_events_persisted_by_another_node() {
+        // Given
+        var orderId = OrderId.random();
+        var order   = new Order(orderId, CustomerId.random(), 1234);
+        unitOfWorkFactory.usingUnitOfWork(() -> cachingOrdersRepository.save(order));
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        // When another node persists events related to the cached aggregate
+        var productId = ProductId.random();
+        unitOfWorkFactory.usingUnitOfWork(() -> otherNodeOrdersRepository.load(orderId).addProduct(productId, 10));
+
+        // Then the cached aggregate isn't stale
+        var loadedOrder = unitOfWorkFactory.withUnitOfWork(() -> cachingOrdersRepository.load(orderId));
+        assertThat(loadedOrder).isSameAs(order);
+        assertThat(loadedOrder.eventOrderOfLastRehydratedEvent()).isEqualTo(EventOrder.of(1));
+        assertThat(loadedOrder.productAndQuantity).containsEntry(productId, 10);
+        assertThat(aggregateCache.statistics().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void a_cached_aggregate_is_invalidated_when_persisting_its_changes_fails_with_an_OptimisticAppendToStreamException() {
+        // Given
+        var orderId = OrderId.random();
+        var order   = new Order(orderId, CustomerId.random(), 1234);
+        unitOfWorkFactory.usingUnitOfWork(() -> cachingOrdersRepository.save(order));
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        var unitOfWork  = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var loadedOrder = cachingOrdersRepository.load(orderId);
+        assertThat(loadedOrder).isSameAs(order);
+        loadedOrder.addProduct(ProductId.random(), 1);
+
+        // When another node persists events related to the aggregate before the UnitOfWork is committed
+        var otherNodeProductId = ProductId.random();
+        CompletableFuture.runAsync(() -> unitOfWorkFactory.usingUnitOfWork(() -> otherNodeOrdersRepository.load(orderId).addProduct(otherNodeProductId, 10)))
+                         .join();
+
+        // Then
+        assertThatThrownBy(unitOfWork::commit)
+                .isInstanceOf(UnitOfWorkException.class)
+                .hasCauseExactlyInstanceOf(OptimisticAppendToStreamException.class);
+        assertThat(aggregateCache.statistics().size()).isEqualTo(0);
+
+        // And the aggregate is reloaded from the event store
+        var reloadedOrder = unitOfWorkFactory.withUnitOfWork(() -> cachingOrdersRepository.load(orderId));
+        assertThat(reloadedOrder).isNotSameAs(order);
+        assertThat(reloadedOrder.productAndQuantity).containsOnlyKeys(otherNodeProductId);
+    }
+
+    @Test
+    void a_cached_aggregate_is_invalidated_when_the_unit_of_work_is_rolled_back() {
+        // Given
+        var orderId = OrderId.random();
+        var order   = new Order(orderId, CustomerId.random(), 1234);
+        unitOfWorkFactory.usingUnitOfWork(() -> cachingOrdersRepository.save(order));
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+
+        // When
+        var unitOfWork  = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var loadedOrder = cachingOrdersRepository.load(orderId);
+        assertThat(loadedOrder).isSameAs(order);
+        loadedOrder.addProduct(ProductId.random(), 1);
+        unitOfWork.rollback();
+
+        // Then the modified aggregate instance isn't cached
+        assertThat(aggregateCache.statistics().size()).isEqualTo(0);
+        var reloadedOrder = unitOfWorkFactory.withUnitOfWork(() -> cachingOrdersRepository.load(orderId));
+        assertThat(reloadedOrder).isNotSameAs(order);
+        assertThat(reloadedOrder.productAndQuantity).isEmpty();
+        assertThat(aggregateCache.statistics().size()).isEqualTo(1);
+    }
+
     private ObjectMapper createObjectMapper() {
         var objectMapper = JsonMapper.builder()
                                      .disable(MapperFeature.AUTO_DETECT_GETTERS)
@@ -231,6 +231,105 @@ public abstract class DurableQueuesIT<DURABLE_QUEUES extends DurableQueues, UOW
         assertThat(durableQueues.getQueueNames()).isEqualTo(Set.of());
     }
 
+    @Test
+    void verify_a_batch_of_messages_is_claimed_and_acknowledged_in_bulk() {
+        // Given
+        var queueName = QueueName.of("TestQueue");
+        var messages = List.of(Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 1)),
+                               Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 2)),
+                               Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 3)),
+                               Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 4)),
+                               Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 5)));
+        var queueEntryIds = withDurableQueue(() -> durableQueues.queueMessages(queueName, messages));
+        assertThat(queueEntryIds).hasSize(5);
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(5);
+
+        usingDurableQueue(() -> {
+            // When
+            var firstBatch  = durableQueues.getNextMessagesReadyForDelivery(queueName, 3);
+            var secondBatch = durableQueues.getNextMessagesReadyForDelivery(queueName, 3);
+
+            // Then
+            assertThat(firstBatch).hasSize(3);
+            assertThat(secondBatch).hasSize(2);
+            assertThat(firstBatch).allMatch(QueuedMessage::isBeingDelivered);
+            assertThat(secondBatch).allMatch(QueuedMessage::isBeingDelivered);
+            assertThat(durableQueues.getNextMessagesReadyForDelivery(queueName, 3)).isEmpty();
+
+            var claimedQueueEntryIds = new ArrayList<QueueEntryId>();
+            firstBatch.forEach(queuedMessage -> claimedQueueEntryIds.add(queuedMessage.getId()));
+            secondBatch.forEach(queuedMessage -> claimedQueueEntryIds.add(queuedMessage.getId()));
+            assertThat(claimedQueueEntryIds).containsExactlyInAnyOrderElementsOf(queueEntryIds);
+
+            // And When
+            var numberOfMessagesAcknowledged = durableQueues.acknowledgeMessagesAsHandled(queueName, claimedQueueEntryIds);
+
+            // Then
+            assertThat(numberOfMessagesAcknowledged).isEqualTo(5);
+        });
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
+    }
+
+    @Test
+    void verify_a_batch_only_contains_the_head_message_of_each_ordered_message_key() {
+        // Given
+        var queueName = QueueName.of("TestQueue");
+        usingDurableQueue(() -> {
+            durableQueues.queueMessage(queueName, OrderedMessage.of("Key1Msg0", "Key1", 0));
+            durableQueues.queueMessage(queueName, OrderedMessage.of("Key1Msg1", "Key1", 1));
+            durableQueues.queueMessage(queueName, OrderedMessage.of("Key1Msg2", "Key1", 2));
+            durableQueues.queueMessage(queueName, OrderedMessage.of("Key2Msg0", "Key2", 0));
+        });
+
+        usingDurableQueue(() -> {
+            // When
+            var batch = durableQueues.getNextMessagesReadyForDelivery(queueName, 10);
+
+            // Then
+            assertThat(batch.stream().map(QueuedMessage::getPayload).toList()).containsExactlyInAnyOrder("Key1Msg0", "Key2Msg0");
+            assertThat(durableQueues.getNextMessagesReadyForDelivery(queueName, 10)).isEmpty();
+
+            // And When
+            durableQueues.acknowledgeMessagesAsHandled(queueName, batch.stream().map(QueuedMessage::getId).toList());
+
+            // Then the next key order is promoted to head of Key1
+            var nextBatch = durableQueues.getNextMessagesReadyForDelivery(queueName, 10);
+            assertThat(nextBatch.stream().map(QueuedMessage::getPayload).toList()).containsExactly("Key1Msg1");
+            durableQueues.acknowledgeMessagesAsHandled(queueName, nextBatch.stream().map(QueuedMessage::getId).toList());
+        });
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(1);
+    }
+
+    @Test
+    void verify_ordered_messages_queued_out_of_order_are_delivered_in_key_order() {
+        // Given
+        var queueName = QueueName.of("TestQueue");
+        var key       = "Key1";
+        // The message with order 2 is head of the key until the messages with a lower order are queued, which demotes it
+        withDurableQueue(() -> durableQueues.queueMessage(queueName, OrderedMessage.of("Msg2", key, 2)));
+        withDurableQueue(() -> durableQueues.queueMessage(queueName, OrderedMessage.of("Msg0", key, 0)));
+        withDurableQueue(() -> durableQueues.queueMessage(queueName, OrderedMessage.of("Msg1", key, 1)));
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(3);
+
+        // When
+        var deliveredPayloads = new ArrayList<>();
+        for (var i = 0; i < 3; i++) {
+            usingDurableQueue(() -> {
+                var nextMessage = durableQueues.getNextMessageReadyForDelivery(queueName);
+                assertThat(nextMessage).isPresent();
+                // No other message with the same key may be delivered while the head of the key is being delivered
+                assertThat(durableQueues.getNextMessageReadyForDelivery(queueName)).isEmpty();
+                deliveredPayloads.add(nextMessage.get().getPayload());
+                // Acknowledging the head of the key promotes the message with the next key order
+                durableQueues.acknowledgeMessageAsHandled(nextMessage.get().getId());
+            });
+        }
+
+        // Then
+        assertThat(deliveredPayloads).containsExactly("Msg0", "Msg1", "Msg2");
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
+    }
+
     @Test
     void verify_a_message_queues_as_a_dead_letter_message_is_marked_as_such_and_will_not_be_delivered_to_the_consumer() {
         // Given
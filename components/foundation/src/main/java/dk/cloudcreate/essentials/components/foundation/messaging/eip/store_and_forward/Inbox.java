@@ -21,8 +21,11 @@ import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.function.Consumer;
 
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
 /**
  * The {@link Inbox} supports the transactional Store and Forward pattern from Enterprise Integration Patterns supporting At-Least-Once delivery guarantee.<br>
  * The {@link Inbox} pattern is used to handle incoming messages from a message infrastructure (such as a Queue, Kafka, EventBus, etc). <br>
@@ -176,6 +179,44 @@ public interface Inbox {
      */
     Inbox addMessageReceived(Message message, Duration deliveryDelay);
 
+    /**
+     * Register or add a batch of messages that have been received<br>
+     * The messages will be stored durably (without any duplication check) in connection with the currently active {@link UnitOfWork}
+     * (or a new {@link UnitOfWork} will be created in case no there isn't an active {@link UnitOfWork}).<br>
+     * The messages will be delivered asynchronously to the message consumer<br>
+     * The default implementation calls {@link #addMessageReceived(Message)} for each message, whereas the {@link Inboxes} implementations
+     * store the entire batch using a single bulk queue operation
+     *
+     * @param messages the messages
+     * @return this inbox instance
+     * @see OrderedMessage
+     */
+    default Inbox addMessagesReceived(List<? extends Message> messages) {
+        requireNonNull(messages, "No messages provided");
+        messages.forEach(this::addMessageReceived);
+        return this;
+    }
+
+    /**
+     * Register or add a batch of messages that have been received and where the messages should be delivered later<br>
+     * The messages will be stored durably (without any duplication check) in connection with the currently active {@link UnitOfWork}
+     * (or a new {@link UnitOfWork} will be created in case no there isn't an active {@link UnitOfWork}).<br>
+     * The messages will be delivered asynchronously to the message consumer<br>
+     * The default implementation calls {@link #addMessageReceived(Message, Duration)} for each message, whereas the {@link Inboxes} implementations
+     * store the entire batch using a single bulk queue operation
+     *
+     * @param messages      the messages
+     * @param deliveryDelay duration before the messages should be delivered
+     * @return this inbox instance
+     * @see OrderedMessage
+     */
+    default Inbox addMessagesReceived(List<? extends Message> messages, Duration deliveryDelay) {
+        requireNonNull(messages, "No messages provided");
+        requireNonNull(deliveryDelay, "No deliveryDelay provided");
+        messages.forEach(message -> addMessageReceived(message, deliveryDelay));
+        return this;
+    }
+
     /**
      * Get the number of message received that haven't been processed yet (or successfully processed) by the message consumer
      *
@@ -22,7 +22,7 @@ import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
 import dk.cloudcreate.essentials.reactive.command.CommandBus;
 
 import java.time.Duration;
-import java.util.Collection;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 
@@ -268,6 +268,36 @@ public interface Inboxes {
                 return this;
             }
 
+            @Override
+            public Inbox addMessagesReceived(List<? extends Message> messages) {
+                return addMessagesReceived(messages, Optional.empty());
+            }
+
+            @Override
+            public Inbox addMessagesReceived(List<? extends Message> messages, Duration deliveryDelay) {
+                return addMessagesReceived(messages, Optional.of(deliveryDelay));
+            }
+
+            private Inbox addMessagesReceived(List<? extends Message> messages, Optional<Duration> deliveryDelay) {
+                requireNonNull(messages, "No messages provided");
+                if (messages.isEmpty()) {
+                    return this;
+                }
+                if (durableQueues.getTransactionalMode() == TransactionalMode.FullyTransactional) {
+                    // Allow addMessagesReceived to automatically start a new or join in an existing UnitOfWork
+                    durableQueues.getUnitOfWorkFactory().get().usingUnitOfWork(() -> {
+                        durableQueues.queueMessages(inboxQueueName,
+                                                    messages,
+                                                    deliveryDelay);
+                    });
+                } else {
+                    durableQueues.queueMessages(inboxQueueName,
+                                                messages,
+                                                deliveryDelay);
+                }
+                return this;
+            }
+
             private DurableQueueConsumer consumeFromDurableQueue(FencedLock lock) {
                 return durableQueues.consumeFromQueue(inboxQueueName,
                                                       config.redeliveryPolicy,
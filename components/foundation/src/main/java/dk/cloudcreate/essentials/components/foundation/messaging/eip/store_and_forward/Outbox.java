@@ -21,8 +21,11 @@ import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.function.Consumer;
 
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
 /**
  * The {@link Outbox} supports the transactional Store and Forward pattern from Enterprise Integration Patterns supporting At-Least-Once delivery guarantee.<br>
  * The {@link Outbox} pattern is used to handle outgoing messages, that are created as a side effect of adding/updating an entity in a database, but where the message infrastructure
@@ -179,6 +182,44 @@ public interface Outbox {
      */
     Outbox sendMessage(Message message, Duration deliveryDelay);
 
+    /**
+     * Send a batch of messages asynchronously.<br>
+     * The messages will be stored durably (without any duplication check) in connection with the currently active {@link UnitOfWork}
+     * (or a new {@link UnitOfWork} will be created in case no there isn't an active {@link UnitOfWork}).<br>
+     * The messages will be delivered asynchronously to the message consumer<br>
+     * The default implementation calls {@link #sendMessage(Message)} for each message, whereas the {@link Outboxes} implementations
+     * store the entire batch using a single bulk queue operation
+     *
+     * @param messages the messages
+     * @return this outbox instance
+     * @see OrderedMessage
+     */
+    default Outbox sendMessages(List<? extends Message> messages) {
+        requireNonNull(messages, "No messages provided");
+        messages.forEach(this::sendMessage);
+        return this;
+    }
+
+    /**
+     * Send a batch of messages asynchronously and where the messages should be delivered later.<br>
+     * The messages will be stored durably (without any duplication check) in connection with the currently active {@link UnitOfWork}
+     * (or a new {@link UnitOfWork} will be created in case no there isn't an active {@link UnitOfWork}).<br>
+     * The messages will be delivered asynchronously to the message consumer<br>
+     * The default implementation calls {@link #sendMessage(Message, Duration)} for each message, whereas the {@link Outboxes} implementations
+     * store the entire batch using a single bulk queue operation
+     *
+     * @param messages      the messages
+     * @param deliveryDelay duration before the messages should be delivered
+     * @return this outbox instance
+     * @see OrderedMessage
+     */
+    default Outbox sendMessages(List<? extends Message> messages, Duration deliveryDelay) {
+        requireNonNull(messages, "No messages provided");
+        requireNonNull(deliveryDelay, "No deliveryDelay provided");
+        messages.forEach(message -> sendMessage(message, deliveryDelay));
+        return this;
+    }
+
     /**
      * Get the number of message in the outbox that haven't been sent yet
      *
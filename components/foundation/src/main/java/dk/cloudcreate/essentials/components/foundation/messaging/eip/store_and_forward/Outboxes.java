@@ -22,7 +22,7 @@ import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
 import dk.cloudcreate.essentials.reactive.EventHandler;
 
 import java.time.Duration;
-import java.util.Collection;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
 
@@ -242,6 +242,27 @@ public interface Outboxes {
                 return this;
             }
 
+            @Override
+            public Outbox sendMessages(List<? extends Message> messages) {
+                return sendMessages(messages, Optional.empty());
+            }
+
+            @Override
+            public Outbox sendMessages(List<? extends Message> messages, Duration deliveryDelay) {
+                return sendMessages(messages, Optional.of(deliveryDelay));
+            }
+
+            private Outbox sendMessages(List<? extends Message> messages, Optional<Duration> deliveryDelay) {
+                requireNonNull(messages, "No messages provided");
+                if (messages.isEmpty()) {
+                    return this;
+                }
+                durableQueues.queueMessages(outboxQueueName,
+                                            messages,
+                                            deliveryDelay);
+                return this;
+            }
+
             private DurableQueueConsumer consumeFromDurableQueue(FencedLock lock) {
                 return durableQueues.consumeFromQueue(outboxQueueName,
                                                       config.redeliveryPolicy,
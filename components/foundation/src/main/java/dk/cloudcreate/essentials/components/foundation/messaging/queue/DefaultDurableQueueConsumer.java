@@ -24,8 +24,10 @@ import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
 import org.slf4j.*;
 
 import java.io.IOException;
+import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,9 @@ import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
 /**
  * The default {@link DurableQueueConsumer} which provides basic implementation (including retrying messages
  * in case of failure, polling interval optimization, etc.)<br>
+ * By default the queue is polled with a fixed rate. If {@link ConsumeFromQueue#isEventDrivenWakeUp()} is true, then idle consumer threads
+ * instead block on a per-queue wake-up signal, which is signalled by {@link #messageAdded(QueuedMessage)} notifications and by a timer
+ * for messages with a future {@link QueuedMessage#getNextDeliveryTimestamp()}<br>
  * Log levels of interest:
  * <pre>{@code
  * dk.cloudcreate.essentials.components.foundation.messaging.queue.DurableQueueConsumer
@@ -51,16 +56,50 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
     public static final Logger   MESSAGE_HANDLING_FAILURE_LOG                 = LoggerFactory.getLogger(DurableQueueConsumer.class + ".MessageHandlingFailures");
     public static final Runnable NO_POSTPROCESSING_AFTER_PROCESS_NEXT_MESSAGE = () -> {
     };
+    /**
+     * Returned when a message failed and was scheduled for redelivery - used by the event-driven consumer threads to keep polling for other messages
+     */
+    private static final Runnable NO_POSTPROCESSING_AFTER_MESSAGE_SCHEDULED_FOR_REDELIVERY = () -> {
+    };
+    /**
+     * The maximum number of messages returned by {@link DurableQueues#queryForMessagesSoonReadyForDelivery(QueueName, Instant, int)}
+     * when the event-driven consumer refreshes its delayed delivery wake-ups
+     */
+    private static final int      MAX_NUMBER_OF_MESSAGES_SOON_READY_FOR_DELIVERY = 100;
 
     public final     QueueName                             queueName;
     private final    ConsumeFromQueue                      consumeFromQueue;
     private volatile boolean                               started;
     private final    ScheduledExecutorService              scheduler;
+    /**
+     * Is the {@link #scheduler} owned by this consumer (false if the scheduler is provided by a shared {@link DurableQueueConsumerRuntime})
+     */
+    private final    boolean                               ownsScheduler;
+    private final    Optional<DurableQueueConsumerRuntime> consumerRuntime;
+    /**
+     * The polling tasks scheduled by this consumer (used to stop the consumer when the {@link #scheduler} is shared)
+     */
+    private final    List<Future<?>>                       consumerTasks                 = new CopyOnWriteArrayList<>();
     private final    DURABLE_QUEUES                        durableQueues;
     private final    Consumer<DurableQueueConsumer>        removeDurableQueueConsumer;
     private final    UOW_FACTORY                           unitOfWorkFactory;
     private final    QueuePollingOptimizer                 queuePollingOptimizer;
     private final    long                                  pollingIntervalMs;
+    private final    Runnable                              noMessagesReadyForDelivery;
+    /**
+     * Only used with {@link ConsumeFromQueue#isEventDrivenWakeUp()} - idle consumer threads block on this signal
+     */
+    private final    Semaphore                             wakeUpSignal                  = new Semaphore(0);
+    /**
+     * Only used with {@link ConsumeFromQueue#isEventDrivenWakeUp()} - timer wheel of the delayed delivery wake-ups.<br>
+     * Key: The timer tick (the next delivery timestamp in epoch milliseconds divided by the polling interval, rounded up)<br>
+     * Value: The {@link QueueEntryId}'s of the messages that become ready for delivery within the timer tick
+     */
+    private final    ConcurrentMap<Long, Set<QueueEntryId>> scheduledWakeUps             = new ConcurrentHashMap<>();
+    /**
+     * Only used with {@link ConsumeFromQueue#isEventDrivenWakeUp()} - when the event-driven consumer threads should next query for messages soon ready for delivery
+     */
+    private final    AtomicLong                            nextSoonReadyForDeliveryQueryTimestampMs = new AtomicLong();
     /**
      * Only used for {@link DeliveryMode#IN_ORDER} - it is used to ensure that two (or more) threads aren't handling messages
      * belonging to the same {@link OrderedMessage#getKey()}
@@ -95,19 +134,27 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
         } else {
             this.queuePollingOptimizer = QueuePollingOptimizer.None();
         }
-
-        this.scheduler = consumeFromQueue.getConsumerExecutorService()
-                                         .orElseGet(() -> Executors.newScheduledThreadPool(consumeFromQueue.getParallelConsumers(),
-                                                                                           new ThreadFactoryBuilder()
-                                                                                                   .nameFormat("Queue-" + queueName + "-Polling-%d")
-                                                                                                   .daemon(true)
-                                                                                                   .build()));
+        this.noMessagesReadyForDelivery = this.queuePollingOptimizer::queuePollingReturnedNoMessages;
+
+        this.consumerRuntime = consumeFromQueue.getConsumerRuntime();
+        this.ownsScheduler = consumerRuntime.isEmpty();
+        this.scheduler = consumerRuntime.map(DurableQueueConsumerRuntime::getExecutorService)
+                                        .or(consumeFromQueue::getConsumerExecutorService)
+                                        .orElseGet(() -> Executors.newScheduledThreadPool(consumeFromQueue.getParallelConsumers(),
+                                                                                          new ThreadFactoryBuilder()
+                                                                                                  .nameFormat("Queue-" + queueName + "-Polling-%d")
+                                                                                                  .daemon(true)
+                                                                                                  .build()));
 
     }
 
     @Override
     public void start() {
         if (!started) {
+            if (consumeFromQueue.isEventDrivenWakeUp()) {
+                startEventDrivenConsumers();
+                return;
+            }
 
             LOG.info("[{}] {} - Starting {} DurableQueueConsumer threads with polling interval {} ms",
                      queueName,
@@ -124,15 +171,172 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
                         Thread.currentThread().interrupt();
                     }
                 }
-                scheduler.scheduleAtFixedRate(this::pollQueue,
-                                              pollingIntervalMs,
-                                              pollingIntervalMs,
-                                              TimeUnit.MILLISECONDS);
+                if (consumerRuntime.isPresent()) {
+                    // The shared runtime's scheduler only triggers the poll, which is handed off to the runtime's task executor
+                    consumerTasks.add(consumerRuntime.get().scheduleAtFixedRate(this::pollQueue,
+                                                                                pollingIntervalMs,
+                                                                                pollingIntervalMs));
+                } else {
+                    consumerTasks.add(scheduler.scheduleAtFixedRate(this::pollQueue,
+                                                                    pollingIntervalMs,
+                                                                    pollingIntervalMs,
+                                                                    TimeUnit.MILLISECONDS));
+                }
             }
             started = true;
         }
     }
 
+    private void startEventDrivenConsumers() {
+        var maxIdleWaitMs = consumeFromQueue.getMaxIdleWait().toMillis();
+        LOG.info("[{}] {} - Starting {} event-driven DurableQueueConsumer threads with max idle wait {} ms",
+                 queueName,
+                 consumeFromQueue.consumerName,
+                 consumeFromQueue.getParallelConsumers(),
+                 maxIdleWaitMs);
+        started = true;
+        nextSoonReadyForDeliveryQueryTimestampMs.set(0);
+        for (var i = 0; i < consumeFromQueue.getParallelConsumers(); i++) {
+            // The event-driven consumer loops block, so with a shared runtime they run on the runtime's task executor instead of its scheduler
+            if (consumerRuntime.isPresent()) {
+                consumerTasks.add(consumerRuntime.get().submit(this::runEventDrivenConsumer));
+            } else {
+                consumerTasks.add(scheduler.submit(this::runEventDrivenConsumer));
+            }
+        }
+    }
+
+    /**
+     * Event-driven consumer loop: keep polling as long as messages are being delivered and block on the {@link #wakeUpSignal}
+     * (for at most {@link ConsumeFromQueue#getMaxIdleWait()}) when the queue doesn't contain messages ready for delivery
+     */
+    private void runEventDrivenConsumer() {
+        var maxIdleWaitMs = consumeFromQueue.getMaxIdleWait().toMillis();
+        while (started && !Thread.currentThread().isInterrupted()) {
+            queryForMessagesSoonReadyForDeliveryIfDue(maxIdleWaitMs);
+            if (pollQueue()) {
+                continue;
+            }
+            // If the shared runtime is saturated, then retry after the polling interval instead of waiting for a wake-up signal
+            var waitMs = consumerRuntime.map(runtime -> runtime.getAvailableMessageHandlingPermits() == 0).orElse(false) ? pollingIntervalMs : maxIdleWaitMs;
+            try {
+                if (!wakeUpSignal.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                    LOG.trace("[{}] {} - No wake-up signal received within {} ms",
+                              queueName,
+                              consumeFromQueue.consumerName,
+                              waitMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        LOG.debug("[{}] {} - Event-driven DurableQueueConsumer thread stopped",
+                  queueName,
+                  consumeFromQueue.consumerName);
+    }
+
+    /**
+     * Wake up idle event-driven consumer threads - at most one thread per message ready for delivery
+     * and never more than {@link ConsumeFromQueue#getParallelConsumers()} threads
+     *
+     * @param numberOfMessagesReadyForDelivery the number of messages that are ready for delivery
+     */
+    private void wakeUpIdleConsumers(int numberOfMessagesReadyForDelivery) {
+        var numberOfConsumersToWakeUp = Math.min(numberOfMessagesReadyForDelivery,
+                                                 consumeFromQueue.getParallelConsumers() - wakeUpSignal.availablePermits());
+        if (numberOfConsumersToWakeUp > 0) {
+            LOG.trace("[{}] {} - Waking up {} consumer thread(s)",
+                      queueName,
+                      consumeFromQueue.consumerName,
+                      numberOfConsumersToWakeUp);
+            wakeUpSignal.release(numberOfConsumersToWakeUp);
+        }
+    }
+
+    /**
+     * Schedule a wake-up of an idle event-driven consumer thread when the message becomes ready for delivery.<br>
+     * Wake-ups are grouped into timer ticks with the resolution of the polling interval, so that messages that
+     * become ready for delivery within the same tick only require a single scheduled task. Messages that become ready for delivery
+     * after the next {@link #scheduleWakeUpsForMessagesSoonReadyForDelivery()} refresh are ignored (they will be discovered by a later refresh)
+     *
+     * @param queueEntryId          the id of the message
+     * @param nextDeliveryTimestamp the timestamp when the message is ready for delivery
+     */
+    private void scheduleWakeUp(QueueEntryId queueEntryId, Instant nextDeliveryTimestamp) {
+        if (!started) {
+            return;
+        }
+        var nowMs                   = System.currentTimeMillis();
+        var nextDeliveryTimestampMs = nextDeliveryTimestamp.toEpochMilli();
+        if (nextDeliveryTimestampMs - nowMs > 2 * consumeFromQueue.getMaxIdleWait().toMillis()) {
+            return;
+        }
+        // Round up to ensure the consumers are never woken up before the message is ready for delivery
+        var tick = -Math.floorDiv(-nextDeliveryTimestampMs, pollingIntervalMs);
+        scheduledWakeUps.compute(tick, (_tick, queueEntryIds) -> {
+            if (queueEntryIds == null) {
+                queueEntryIds = new HashSet<>();
+                try {
+                    Runnable wakeUp = () -> {
+                        var readyQueueEntryIds = scheduledWakeUps.remove(_tick);
+                        if (started && readyQueueEntryIds != null) {
+                            wakeUpIdleConsumers(readyQueueEntryIds.size());
+                        }
+                    };
+                    var delayMs = Math.max(0, _tick * pollingIntervalMs - nowMs);
+                    if (consumerRuntime.isPresent()) {
+                        consumerRuntime.get().schedule(wakeUp, delayMs);
+                    } else {
+                        SharedWakeUpTimer.INSTANCE.schedule(wakeUp, delayMs, TimeUnit.MILLISECONDS);
+                    }
+                } catch (RejectedExecutionException e) {
+                    // The consumer is being stopped
+                    return null;
+                }
+            }
+            queueEntryIds.add(queueEntryId);
+            return queueEntryIds;
+        });
+    }
+
+    /**
+     * Called by the event-driven consumer threads, which wake up at least every {@link ConsumeFromQueue#getMaxIdleWait()}, so that
+     * one of them queries for messages soon ready for delivery once per <code>maxIdleWaitMs</code>
+     *
+     * @param maxIdleWaitMs the interval between queries
+     */
+    private void queryForMessagesSoonReadyForDeliveryIfDue(long maxIdleWaitMs) {
+        var nowMs = System.currentTimeMillis();
+        var dueAt = nextSoonReadyForDeliveryQueryTimestampMs.get();
+        if (nowMs >= dueAt && nextSoonReadyForDeliveryQueryTimestampMs.compareAndSet(dueAt, nowMs + maxIdleWaitMs)) {
+            scheduleWakeUpsForMessagesSoonReadyForDelivery();
+        }
+    }
+
+    /**
+     * Discover messages that will soon be ready for delivery (e.g. delayed messages and redeliveries queued by other nodes)
+     * and schedule a wake-up for each of them
+     */
+    private void scheduleWakeUpsForMessagesSoonReadyForDelivery() {
+        if (!started) {
+            return;
+        }
+        try {
+            var messagesSoonReadyForDelivery = durableQueues.queryForMessagesSoonReadyForDelivery(queueName,
+                                                                                                  Instant.now(),
+                                                                                                  MAX_NUMBER_OF_MESSAGES_SOON_READY_FOR_DELIVERY);
+            LOG.trace("[{}] {} - Found {} message(s) soon ready for delivery",
+                      queueName,
+                      consumeFromQueue.consumerName,
+                      messagesSoonReadyForDelivery.size());
+            messagesSoonReadyForDelivery.forEach(message -> scheduleWakeUp(message.id, message.nextDeliveryTimestamp));
+        } catch (Throwable e) {
+            LOG.debug(msg("[{}] {} - Failed to query for messages soon ready for delivery, will retry later",
+                          queueName,
+                          consumeFromQueue.consumerName), e);
+        }
+    }
+
     @Override
     public void stop() {
         if (started) {
@@ -141,7 +345,14 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
                      consumeFromQueue.consumerName);
             started = false;
             try {
-                scheduler.shutdownNow();
+                if (ownsScheduler) {
+                    scheduler.shutdownNow();
+                } else {
+                    consumerTasks.forEach(consumerTask -> consumerTask.cancel(true));
+                }
+                consumerTasks.clear();
+                scheduledWakeUps.clear();
+                wakeUpSignal.drainPermits();
             } finally {
                 removeDurableQueueConsumer.accept(this);
                 LOG.info("[{}] {} - DurableQueueConsumer stopped",
@@ -167,57 +378,80 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
     }
 
 
-    private void pollQueue() {
+    /**
+     * @return true if a message was delivered (i.e. the queue may contain more messages ready for delivery), otherwise false
+     */
+    private boolean pollQueue() {
         if (!started) {
             LOG.trace("[{}] {} - Skipping Polling Queue as the consumer is not started",
                       queueName,
                       consumeFromQueue.consumerName);
-            return;
+            return false;
         }
 
         try {
-            if (queuePollingOptimizer.shouldSkipPolling()) {
+            if (!consumeFromQueue.isEventDrivenWakeUp() && queuePollingOptimizer.shouldSkipPolling()) {
                 LOG.trace("[{}] {} - Skipping polling",
                           queueName,
                           consumeFromQueue.consumerName);
-                return;
+                return false;
             }
-
-            LOG.trace("[{}] {} - Polling Queue for the next message ready for delivery. Transactional mode: {}",
-                      queueName,
-                      consumeFromQueue.consumerName,
-                      durableQueues.getTransactionalMode());
-            Runnable postTransactionalSideEffect = null;
-            if (durableQueues.getTransactionalMode() == TransactionalMode.FullyTransactional) {
-                if (unitOfWorkFactory.getCurrentUnitOfWork().isPresent()) {
-                    throw new DurableQueueException(msg("[{}] {} - Previous UnitOfWork isn't completed/removed: {}",
-                                                        queueName,
-                                                        consumeFromQueue.consumerName,
-                                                        unitOfWorkFactory.getCurrentUnitOfWork().get()),
-                                                    queueName);
-                }
-
-                try {
-                    postTransactionalSideEffect = unitOfWorkFactory.withUnitOfWork(handleAwareUnitOfWork -> processNextMessageReadyForDelivery());
-                } catch (Exception e) {
-                    handleProcessNextMessageReadyForDeliveryException(e);
-                }
-            } else {
-                try {
-                    postTransactionalSideEffect = processNextMessageReadyForDelivery();
-                } catch (Exception e) {
-                    handleProcessNextMessageReadyForDeliveryException(e);
-                }
+            if (consumerRuntime.isPresent() && !consumerRuntime.get().tryAcquireMessageHandlingPermit()) {
+                LOG.trace("[{}] {} - Skipping polling as the DurableQueueConsumerRuntime has no available message handling permits",
+                          queueName,
+                          consumeFromQueue.consumerName);
+                return false;
             }
-
-            if (postTransactionalSideEffect != null) {
-                postTransactionalSideEffect.run();
+            try {
+                return pollQueueAndHandleMessages();
+            } finally {
+                consumerRuntime.ifPresent(DurableQueueConsumerRuntime::releaseMessageHandlingPermit);
             }
         } catch (Throwable e) {
             LOG.error(msg("[{}] {} - Failed to poll queue",
                           consumeFromQueue.consumerName,
                           queueName), e);
+            return false;
+        }
+    }
+
+    /**
+     * @return true if a message was delivered (i.e. the queue may contain more messages ready for delivery), otherwise false
+     */
+    private boolean pollQueueAndHandleMessages() {
+        LOG.trace("[{}] {} - Polling Queue for the next message ready for delivery. Transactional mode: {}",
+                  queueName,
+                  consumeFromQueue.consumerName,
+                  durableQueues.getTransactionalMode());
+        Runnable postTransactionalSideEffect = null;
+        if (durableQueues.getTransactionalMode() == TransactionalMode.FullyTransactional) {
+            if (unitOfWorkFactory.getCurrentUnitOfWork().isPresent()) {
+                throw new DurableQueueException(msg("[{}] {} - Previous UnitOfWork isn't completed/removed: {}",
+                                                    queueName,
+                                                    consumeFromQueue.consumerName,
+                                                    unitOfWorkFactory.getCurrentUnitOfWork().get()),
+                                                queueName);
+            }
+
+            try {
+                postTransactionalSideEffect = unitOfWorkFactory.withUnitOfWork(handleAwareUnitOfWork -> processNextMessageReadyForDelivery());
+            } catch (Exception e) {
+                handleProcessNextMessageReadyForDeliveryException(e);
+            }
+        } else {
+            try {
+                postTransactionalSideEffect = processNextMessageReadyForDelivery();
+            } catch (Exception e) {
+                handleProcessNextMessageReadyForDeliveryException(e);
+            }
         }
+
+        if (postTransactionalSideEffect != null) {
+            postTransactionalSideEffect.run();
+        }
+        return postTransactionalSideEffect != null &&
+                postTransactionalSideEffect != noMessagesReadyForDelivery &&
+                postTransactionalSideEffect != NO_POSTPROCESSING_AFTER_PROCESS_NEXT_MESSAGE;
     }
 
     private void handleProcessNextMessageReadyForDeliveryException(Exception e) {
@@ -242,10 +476,13 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
         try {
             if (started) {
                 List<String> excludeOrderedMessagesWithTheseKeys = resolveMessageKeysToExclude();
+                if (consumeFromQueue.getMaxMessagesPerPoll() > 1) {
+                    return processNextMessagesReadyForDelivery(excludeOrderedMessagesWithTheseKeys);
+                }
                 return durableQueues.getNextMessageReadyForDelivery(new GetNextMessageReadyForDelivery(queueName,
                                                                                                        excludeOrderedMessagesWithTheseKeys))
-                                    .map(this::handleMessage)
-                                    .orElseGet(() -> queuePollingOptimizer::queuePollingReturnedNoMessages);
+                                    .map(queuedMessage -> handleMessage(queuedMessage, this::acknowledgeMessageAsHandled))
+                                    .orElse(noMessagesReadyForDelivery);
             } else {
                 return NO_POSTPROCESSING_AFTER_PROCESS_NEXT_MESSAGE;
             }
@@ -255,6 +492,76 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
         }
     }
 
+    /**
+     * Claim up to {@link ConsumeFromQueue#getMaxMessagesPerPoll()} messages in a single round trip, handle them one after another
+     * and acknowledge all the successfully handled messages using a single {@link DurableQueues#acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled)}<br>
+     * All the messages claimed share the same {@link DurableQueues#getMessageHandlingTimeout()} budget, which starts when a message is claimed. A message, whose
+     * message handling timeout has expired before we get to handle it, is skipped (not handled), since it may already have been redelivered to another consumer
+     *
+     * @param excludeOrderedMessagesWithTheseKeys the {@link OrderedMessage#getKey()}'s currently being handled by other threads
+     * @return the post transactional side effect of the message handling
+     */
+    private Runnable processNextMessagesReadyForDelivery(List<String> excludeOrderedMessagesWithTheseKeys) {
+        var queuedMessages = durableQueues.getNextMessagesReadyForDelivery(new GetNextMessagesReadyForDelivery(queueName,
+                                                                                                              consumeFromQueue.getMaxMessagesPerPoll(),
+                                                                                                              excludeOrderedMessagesWithTheseKeys));
+        if (queuedMessages.isEmpty()) {
+            return noMessagesReadyForDelivery;
+        }
+        LOG.debug("[{}] {} - Claimed {} message(s) for delivery",
+                  queueName,
+                  consumeFromQueue.consumerName,
+                  queuedMessages.size());
+
+        var messageHandlingTimeout       = durableQueues.getMessageHandlingTimeout();
+        var handledMessageIds            = new ArrayList<QueueEntryId>(queuedMessages.size());
+        var postTransactionalSideEffects = new ArrayList<Runnable>(queuedMessages.size());
+        for (var queuedMessage : queuedMessages) {
+            if (messageHandlingTimeout.isPresent() && hasMessageHandlingTimedOut(queuedMessage, messageHandlingTimeout.get())) {
+                LOG.warn("[{}:{}] {} - Skipping message since its message handling timeout of {} expired before it could be handled. " +
+                                 "Consider lowering the maxMessagesPerPoll ({}) or increasing the message handling timeout",
+                         queueName,
+                         queuedMessage.getId(),
+                         consumeFromQueue.consumerName,
+                         messageHandlingTimeout.get(),
+                         consumeFromQueue.getMaxMessagesPerPoll());
+                continue;
+            }
+            postTransactionalSideEffects.add(handleMessage(queuedMessage, handledMessage -> handledMessageIds.add(handledMessage.getId())));
+        }
+
+        if (!handledMessageIds.isEmpty()) {
+            try {
+                var numberOfMessagesAcknowledged = durableQueues.acknowledgeMessagesAsHandled(new AcknowledgeMessagesAsHandled(queueName, handledMessageIds));
+                LOG.debug("[{}] {} - Acknowledged {} of {} handled message(s)",
+                          queueName,
+                          consumeFromQueue.consumerName,
+                          numberOfMessagesAcknowledged,
+                          handledMessageIds.size());
+            } catch (Throwable e) {
+                MESSAGE_HANDLING_FAILURE_LOG.error(msg("[{}] {} - Failed to acknowledge handled messages {}",
+                                                       queueName,
+                                                       consumeFromQueue.consumerName,
+                                                       handledMessageIds), e);
+                if (durableQueues.getTransactionalMode() == TransactionalMode.FullyTransactional) {
+                    // Rollback the entire batch, which will cause all the messages to be redelivered
+                    unitOfWorkFactory.getRequiredUnitOfWork().markAsRollbackOnly(new DurableQueueException("Failed to acknowledge handled messages", e, queueName));
+                }
+                return NO_POSTPROCESSING_AFTER_PROCESS_NEXT_MESSAGE;
+            }
+        }
+        return () -> postTransactionalSideEffects.forEach(Runnable::run);
+    }
+
+    private static boolean hasMessageHandlingTimedOut(QueuedMessage queuedMessage, Duration messageHandlingTimeout) {
+        var deliveryTimestamp = queuedMessage.getDeliveryTimestamp();
+        return deliveryTimestamp != null && !OffsetDateTime.now(Clock.systemUTC()).isBefore(deliveryTimestamp.plus(messageHandlingTimeout));
+    }
+
+    private void acknowledgeMessageAsHandled(QueuedMessage queuedMessage) {
+        durableQueues.acknowledgeMessageAsHandled(queuedMessage.getId());
+    }
+
     private List<String> resolveMessageKeysToExclude() {
         var orderedMessageLastHandled = orderedMessageDeliveryThreads.get(Thread.currentThread());
         var allOrderedMessages        = new HashSet<>(orderedMessageDeliveryThreads.values());
@@ -265,7 +572,12 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
         return excludeOrderedMessagesWithTheseKeys;
     }
 
-    private Runnable handleMessage(QueuedMessage queuedMessage) {
+    /**
+     * @param queuedMessage      the message to handle
+     * @param acknowledgeMessage callback that's called when the message has been handled successfully
+     * @return the post transactional side effect of the message handling
+     */
+    private Runnable handleMessage(QueuedMessage queuedMessage, Consumer<QueuedMessage> acknowledgeMessage) {
         var isOrderedMessage = queuedMessage.getMessage() instanceof OrderedMessage;
         LOG.debug("[{}:{}] {} - Delivering {}message{}. Total attempts: {}, Redelivery Attempts: {}",
                   queueName,
@@ -287,7 +599,7 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
                       consumeFromQueue.consumerName,
                       queuedMessage.getTotalDeliveryAttempts(),
                       queuedMessage.getRedeliveryAttempts());
-            durableQueues.acknowledgeMessageAsHandled(queuedMessage.getId());
+            acknowledgeMessage.accept(queuedMessage);
             orderedMessageDeliveryThreads.remove(Thread.currentThread());
             return () -> queuePollingOptimizer.queuePollingReturnedMessage(queuedMessage);
         } catch (Throwable e) {
@@ -335,7 +647,10 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
                                                e,
                                                redeliveryDelay);
                     orderedMessageDeliveryThreads.remove(Thread.currentThread());
-                    return NO_POSTPROCESSING_AFTER_PROCESS_NEXT_MESSAGE;
+                    if (consumeFromQueue.isEventDrivenWakeUp()) {
+                        scheduleWakeUp(queuedMessage.getId(), Instant.now().plus(redeliveryDelay));
+                    }
+                    return NO_POSTPROCESSING_AFTER_MESSAGE_SCHEDULED_FOR_REDELIVERY;
                 } catch (Throwable ex) {
                     if (ex.getMessage().contains("Interrupted waiting for lock")) {
                         // Usually happening when SpringBoot is performing an unclean shutdown
@@ -360,6 +675,17 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
     @Override
     public void messageAdded(QueuedMessage queuedMessage) {
         queuePollingOptimizer.messageAdded(queuedMessage);
+        if (consumeFromQueue.isEventDrivenWakeUp() && started) {
+            if (queuedMessage.isDeadLetterMessage() || queuedMessage.isBeingDelivered()) {
+                return;
+            }
+            var nextDeliveryTimestamp = queuedMessage.getNextDeliveryTimestamp();
+            if (nextDeliveryTimestamp == null || !nextDeliveryTimestamp.toInstant().isAfter(Instant.now())) {
+                wakeUpIdleConsumers(1);
+            } else {
+                scheduleWakeUp(queuedMessage.getId(), nextDeliveryTimestamp.toInstant());
+            }
+        }
     }
 
     @Override
@@ -371,4 +697,15 @@ public abstract class DefaultDurableQueueConsumer<DURABLE_QUEUES extends Durable
     }
 
 
+
+    /**
+     * The wake-up timer shared by all event-driven consumers that don't use a {@link DurableQueueConsumerRuntime} (consumers using a runtime
+     * use the runtime's scheduler). The timer only runs the short delayed delivery wake-up tasks
+     */
+    private static final class SharedWakeUpTimer {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                                                                    .nameFormat("DurableQueueConsumer-WakeUpTimer-%d")
+                                                                                                                    .daemon(true)
+                                                                                                                    .build());
+    }
 }
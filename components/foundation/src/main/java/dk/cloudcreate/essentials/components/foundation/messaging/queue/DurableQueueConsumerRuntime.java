@@ -0,0 +1,332 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.ConsumeFromQueue;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import org.slf4j.*;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * A {@link DurableQueueConsumer} runtime that can be shared by many {@link DurableQueueConsumer}'s (e.g. all the consumers
+ * of a {@link DurableQueues} instance, including the consumers created by Inboxes and Outboxes).<br>
+ * The runtime consists of:
+ * <ul>
+ *     <li>A small shared {@link ScheduledExecutorService} of platform threads, which only triggers the polling ticks and the delayed delivery
+ *     wake-ups of the consumers using the runtime. A consumer using the runtime doesn't own any threads, so stopping the consumer only cancels its own tasks</li>
+ *     <li>A shared task {@link ExecutorService} that each poll (and each long-running event-driven consumer loop) is handed off to.<br>
+ *     When running on a JVM that supports virtual threads (Java 21+) the task executor creates a new virtual thread per task,
+ *     otherwise it falls back to a cached pool of daemon platform threads. Blocking consumers therefore never starve the polling of other consumers</li>
+ *     <li>A global concurrency limiter, which bounds the number of concurrent polls/message handlings across all the consumers
+ *     using the runtime. A consumer that can't acquire a message handling permit skips the poll without touching the
+ *     underlying queue storage, which means that the number of in-flight message handlings is bounded by {@link #getMaxConcurrentMessageHandling()}
+ *     (which should match the size of the database connection pool used by the {@link DurableQueues}) instead of the number of threads</li>
+ * </ul>
+ * Use {@link ConsumeFromQueue#setConsumerRuntime(DurableQueueConsumerRuntime)} to use the runtime for a single consumer or add the
+ * {@link DurableQueueConsumerRuntimeInterceptor} to the {@link DurableQueues} to use the runtime for all consumers that don't
+ * specify their own {@link ConsumeFromQueue#getConsumerExecutorService()}
+ */
+public final class DurableQueueConsumerRuntime {
+    private static final Logger log = LoggerFactory.getLogger(DurableQueueConsumerRuntime.class);
+
+    private final ScheduledExecutorService executorService;
+    private final ExecutorService          taskExecutor;
+    private final boolean                  usingVirtualThreads;
+    private final int                      maxConcurrentMessageHandling;
+    private final Semaphore                messageHandlingPermits;
+
+    /**
+     * Create a {@link DurableQueueConsumerRuntime} that uses virtual threads if supported by the JVM, otherwise daemon platform threads
+     *
+     * @param name                         the name of the runtime (used as thread name prefix)
+     * @param numberOfSchedulerThreads     the number of platform threads in the shared {@link ScheduledExecutorService} that triggers the polls and wake-ups
+     * @param maxConcurrentMessageHandling the maximum number of concurrent polls/message handlings across all consumers using this runtime
+     *                                     (typically the size of the database connection pool)
+     * @return the new {@link DurableQueueConsumerRuntime}
+     */
+    public static DurableQueueConsumerRuntime create(String name, int numberOfSchedulerThreads, int maxConcurrentMessageHandling) {
+        return create(name, numberOfSchedulerThreads, maxConcurrentMessageHandling, true);
+    }
+
+    /**
+     * Create a {@link DurableQueueConsumerRuntime}
+     *
+     * @param name                         the name of the runtime (used as thread name prefix)
+     * @param numberOfSchedulerThreads     the number of platform threads in the shared {@link ScheduledExecutorService} that triggers the polls and wake-ups
+     * @param maxConcurrentMessageHandling the maximum number of concurrent polls/message handlings across all consumers using this runtime
+     *                                     (typically the size of the database connection pool)
+     * @param useVirtualThreadsIfSupported should the runtime run the polls on virtual threads if supported by the JVM
+     * @return the new {@link DurableQueueConsumerRuntime}
+     */
+    public static DurableQueueConsumerRuntime create(String name, int numberOfSchedulerThreads, int maxConcurrentMessageHandling, boolean useVirtualThreadsIfSupported) {
+        requireNonNull(name, "No name provided");
+        requireTrue(numberOfSchedulerThreads >= 1, "numberOfSchedulerThreads must be >= 1");
+        var executorService = Executors.newScheduledThreadPool(numberOfSchedulerThreads,
+                                                               new ThreadFactoryBuilder()
+                                                                       .nameFormat(name + "-Scheduler-%d")
+                                                                       .daemon(true)
+                                                                       .build());
+        var virtualThreadFactory = useVirtualThreadsIfSupported ? resolveVirtualThreadFactory() : Optional.<ThreadFactory>empty();
+        var taskThreadFactoryBuilder = new ThreadFactoryBuilder()
+                .nameFormat(name + "-%d")
+                .daemon(true);
+        virtualThreadFactory.ifPresent(taskThreadFactoryBuilder::delegateThreadFactory);
+        // Virtual threads are cheap, so they aren't kept alive after the task has completed (i.e. a virtual thread per task)
+        var taskExecutor = virtualThreadFactory.isPresent() ?
+                           new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), taskThreadFactoryBuilder.build()) :
+                           Executors.newCachedThreadPool(taskThreadFactoryBuilder.build());
+        log.info("[{}] Created DurableQueueConsumerRuntime with {} scheduler threads, {} task threads and max {} concurrent message handlings",
+                 name,
+                 numberOfSchedulerThreads,
+                 virtualThreadFactory.isPresent() ? "virtual" : "platform",
+                 maxConcurrentMessageHandling);
+        return new DurableQueueConsumerRuntime(executorService, taskExecutor, virtualThreadFactory.isPresent(), maxConcurrentMessageHandling);
+    }
+
+    /**
+     * Create a {@link DurableQueueConsumerRuntime} using an existing {@link ScheduledExecutorService} and a cached pool of daemon platform threads
+     * as task executor
+     *
+     * @param executorService              the {@link ScheduledExecutorService} that triggers the polls and wake-ups of all consumers using this runtime
+     * @param usingVirtualThreads          does the <code>executorService</code> use virtual threads
+     * @param maxConcurrentMessageHandling the maximum number of concurrent polls/message handlings across all consumers using this runtime
+     *                                     (typically the size of the database connection pool)
+     */
+    public DurableQueueConsumerRuntime(ScheduledExecutorService executorService, boolean usingVirtualThreads, int maxConcurrentMessageHandling) {
+        this(executorService,
+             Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                                                   .nameFormat("DurableQueueConsumerRuntime-%d")
+                                                   .daemon(true)
+                                                   .build()),
+             usingVirtualThreads,
+             maxConcurrentMessageHandling);
+    }
+
+    /**
+     * Create a {@link DurableQueueConsumerRuntime} using an existing {@link ScheduledExecutorService} and task {@link ExecutorService}
+     *
+     * @param executorService              the {@link ScheduledExecutorService} that triggers the polls and wake-ups of all consumers using this runtime.
+     *                                     Only short non-blocking tasks are executed by this executor
+     * @param taskExecutor                 the {@link ExecutorService} that runs the polls and the event-driven consumer loops. Event-driven consumers
+     *                                     occupy a thread per parallel consumer, so the executor must not be bounded below the total number of parallel consumers
+     * @param usingVirtualThreads          does the <code>taskExecutor</code> use virtual threads
+     * @param maxConcurrentMessageHandling the maximum number of concurrent polls/message handlings across all consumers using this runtime
+     *                                     (typically the size of the database connection pool)
+     */
+    public DurableQueueConsumerRuntime(ScheduledExecutorService executorService, ExecutorService taskExecutor, boolean usingVirtualThreads, int maxConcurrentMessageHandling) {
+        requireTrue(maxConcurrentMessageHandling >= 1, "maxConcurrentMessageHandling must be >= 1");
+        this.executorService = requireNonNull(executorService, "No executorService provided");
+        this.taskExecutor = requireNonNull(taskExecutor, "No taskExecutor provided");
+        this.usingVirtualThreads = usingVirtualThreads;
+        this.maxConcurrentMessageHandling = maxConcurrentMessageHandling;
+        this.messageHandlingPermits = new Semaphore(maxConcurrentMessageHandling);
+    }
+
+    /**
+     * Periodically hand the <code>task</code> off to the task executor. A tick is skipped while the previous run of the task is still in progress,
+     * so a slow task never runs concurrently with itself
+     *
+     * @param task           the task (e.g. a queue poll)
+     * @param initialDelayMs the delay before the first run
+     * @param periodMs       the period between runs
+     * @return the {@link Future} that cancels the periodic task (and interrupts a run in progress if requested)
+     */
+    public Future<?> scheduleAtFixedRate(Runnable task, long initialDelayMs, long periodMs) {
+        requireNonNull(task, "No task provided");
+        var periodicTask = new PeriodicTask(task);
+        periodicTask.tick = executorService.scheduleAtFixedRate(periodicTask::handOff,
+                                                                initialDelayMs,
+                                                                periodMs,
+                                                                TimeUnit.MILLISECONDS);
+        return periodicTask;
+    }
+
+    /**
+     * Run a long-running (e.g. blocking) task, such as an event-driven consumer loop, on the task executor
+     *
+     * @param task the task
+     * @return the {@link Future} of the task
+     */
+    public Future<?> submit(Runnable task) {
+        requireNonNull(task, "No task provided");
+        return taskExecutor.submit(task);
+    }
+
+    /**
+     * Run a short non-blocking task (such as a delayed delivery wake-up) on the shared {@link ScheduledExecutorService} after the given delay
+     *
+     * @param task    the task
+     * @param delayMs the delay
+     * @return the {@link ScheduledFuture} of the task
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        requireNonNull(task, "No task provided");
+        return executorService.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Try to acquire a message handling permit. If successful, then the caller MUST call {@link #releaseMessageHandlingPermit()}
+     * after the poll/message handling has completed
+     *
+     * @return true if a permit was acquired, otherwise false
+     */
+    public boolean tryAcquireMessageHandlingPermit() {
+        return messageHandlingPermits.tryAcquire();
+    }
+
+    /**
+     * Release a message handling permit acquired using {@link #tryAcquireMessageHandlingPermit()}
+     */
+    public void releaseMessageHandlingPermit() {
+        messageHandlingPermits.release();
+    }
+
+    /**
+     * @return the number of message handling permits currently available
+     */
+    public int getAvailableMessageHandlingPermits() {
+        return messageHandlingPermits.availablePermits();
+    }
+
+    /**
+     * @return the maximum number of concurrent polls/message handlings across all consumers using this runtime
+     */
+    public int getMaxConcurrentMessageHandling() {
+        return maxConcurrentMessageHandling;
+    }
+
+    /**
+     * @return the {@link ScheduledExecutorService} that triggers the polls and wake-ups of all consumers using this runtime
+     */
+    public ScheduledExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * @return the {@link ExecutorService} that runs the polls and event-driven consumer loops of all consumers using this runtime
+     */
+    public ExecutorService getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * @return does the {@link #getTaskExecutor()} use virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return usingVirtualThreads;
+    }
+
+    /**
+     * Shutdown the shared {@link ScheduledExecutorService} and task {@link ExecutorService}, which stops all the consumers using this runtime
+     */
+    public void shutdown() {
+        log.info("Shutting down DurableQueueConsumerRuntime");
+        executorService.shutdownNow();
+        taskExecutor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "DurableQueueConsumerRuntime{" +
+                "usingVirtualThreads=" + usingVirtualThreads +
+                ", maxConcurrentMessageHandling=" + maxConcurrentMessageHandling +
+                ", availableMessageHandlingPermits=" + getAvailableMessageHandlingPermits() +
+                '}';
+    }
+
+    /**
+     * A periodic task, whose ticks are triggered by the shared {@link ScheduledExecutorService} and whose runs are performed by the task executor
+     */
+    private final class PeriodicTask implements Future<Object> {
+        private final    Runnable                   task;
+        private final    AtomicBoolean              running    = new AtomicBoolean();
+        private final    AtomicReference<Future<?>> currentRun = new AtomicReference<>();
+        private volatile ScheduledFuture<?>         tick;
+
+        private PeriodicTask(Runnable task) {
+            this.task = task;
+        }
+
+        private void handOff() {
+            if (!running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                currentRun.set(taskExecutor.submit(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.set(false);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            var cancelled = tick.cancel(false);
+            var run       = currentRun.get();
+            if (run != null) {
+                run.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return tick.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return tick.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return tick.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return tick.get(timeout, unit);
+        }
+    }
+
+    /**
+     * Resolve <code>Thread.ofVirtual().factory()</code> using reflection, since the project is compiled for Java 17
+     *
+     * @return the virtual {@link ThreadFactory} or {@link Optional#empty()} if the JVM doesn't support virtual threads
+     */
+    private static Optional<ThreadFactory> resolveVirtualThreadFactory() {
+        try {
+            var virtualThreadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+            var threadBuilderType    = Class.forName("java.lang.Thread$Builder");
+            return Optional.of((ThreadFactory) threadBuilderType.getMethod("factory").invoke(virtualThreadBuilder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads aren't supported by the JVM - falling back to platform threads");
+            return Optional.empty();
+        }
+    }
+}
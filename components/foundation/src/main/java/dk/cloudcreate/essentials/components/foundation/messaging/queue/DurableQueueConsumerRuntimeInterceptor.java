@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.ConsumeFromQueue;
+import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * {@link DurableQueuesInterceptor} that configures all {@link ConsumeFromQueue} operations, that don't specify their own
+ * {@link ConsumeFromQueue#getConsumerExecutorService()} or {@link ConsumeFromQueue#getConsumerRuntime()}, to use the shared {@link DurableQueueConsumerRuntime}.<br>
+ * This also covers the consumers created by Inboxes and Outboxes
+ */
+public final class DurableQueueConsumerRuntimeInterceptor implements DurableQueuesInterceptor {
+    private final DurableQueueConsumerRuntime consumerRuntime;
+
+    /**
+     * @param consumerRuntime the shared {@link DurableQueueConsumerRuntime}
+     */
+    public DurableQueueConsumerRuntimeInterceptor(DurableQueueConsumerRuntime consumerRuntime) {
+        this.consumerRuntime = requireNonNull(consumerRuntime, "No consumerRuntime provided");
+    }
+
+    @Override
+    public void setDurableQueues(DurableQueues durableQueues) {
+    }
+
+    @Override
+    public DurableQueueConsumer intercept(ConsumeFromQueue operation, InterceptorChain<ConsumeFromQueue, DurableQueueConsumer, DurableQueuesInterceptor> interceptorChain) {
+        if (operation.getConsumerRuntime().isEmpty() && operation.getConsumerExecutorService().isEmpty()) {
+            operation.setConsumerRuntime(consumerRuntime);
+        }
+        return interceptorChain.proceed();
+    }
+
+    /**
+     * @return the shared {@link DurableQueueConsumerRuntime}
+     */
+    public DurableQueueConsumerRuntime getConsumerRuntime() {
+        return consumerRuntime;
+    }
+
+    @Override
+    public String toString() {
+        return "DurableQueueConsumerRuntimeInterceptor{" +
+                "consumerRuntime=" + consumerRuntime +
+                '}';
+    }
+}
@@ -168,6 +168,17 @@ public interface DurableQueues extends Lifecycle {
      */
     TransactionalMode getTransactionalMode();
 
+    /**
+     * The message handling timeout used when the {@link #getTransactionalMode()} is {@link TransactionalMode#SingleOperationTransaction}.<br>
+     * A message that has been delivered (see {@link QueuedMessage#getDeliveryTimestamp()}), but which hasn't been acknowledged, retried or marked
+     * as a Dead Letter Message within this timeout, is considered timed out and will be redelivered - possibly to another {@link DurableQueueConsumer}
+     *
+     * @return the message handling timeout or {@link Optional#empty()} if messages being delivered don't time out (e.g. when using {@link TransactionalMode#FullyTransactional})
+     */
+    default Optional<Duration> getMessageHandlingTimeout() {
+        return Optional.empty();
+    }
+
     /**
      * @return If {@link #getTransactionalMode()} is {@link TransactionalMode#FullyTransactional} then
      * it will return the {@link UnitOfWorkFactory} wrapped in an {@link Optional}, otherwise it will return
@@ -533,6 +544,36 @@ public interface DurableQueues extends Lifecycle {
      */
     boolean acknowledgeMessageAsHandled(AcknowledgeMessageAsHandled operation);
 
+    /**
+     * Mark multiple messages, belonging to the same Queue, as acknowledged - this operation deletes the messages from the Queue<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}
+     *
+     * @param queueName     the name of the Queue the messages belong to
+     * @param queueEntryIds the unique id's of the Messages to acknowledge
+     * @return the number of messages acknowledged
+     */
+    default int acknowledgeMessagesAsHandled(QueueName queueName, Collection<QueueEntryId> queueEntryIds) {
+        return acknowledgeMessagesAsHandled(new AcknowledgeMessagesAsHandled(queueName, queueEntryIds));
+    }
+
+    /**
+     * Mark multiple messages, belonging to the same Queue, as acknowledged - this operation also deletes the messages from the Queue<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}<br>
+     * The default implementation acknowledges the messages one by one using {@link #acknowledgeMessageAsHandled(AcknowledgeMessageAsHandled)}.
+     * Implementations should override this method to acknowledge all the messages in a single round trip.
+     *
+     * @param operation the {@link AcknowledgeMessagesAsHandled} operation
+     * @return the number of messages acknowledged
+     */
+    default int acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled operation) {
+        requireNonNull(operation, "You must provide a AcknowledgeMessagesAsHandled instance");
+        return (int) operation.queueEntryIds.stream()
+                                            .filter(queueEntryId -> acknowledgeMessageAsHandled(new AcknowledgeMessageAsHandled(queueEntryId)))
+                                            .count();
+    }
+
     /**
      * Delete a message (Queued or Dead Letter Message)<br>
      * Note this method MUST be called within an existing {@link UnitOfWork} IF
@@ -598,6 +639,49 @@ public interface DurableQueues extends Lifecycle {
      */
     Optional<QueuedMessage> getNextMessageReadyForDelivery(GetNextMessageReadyForDelivery operation);
 
+    /**
+     * Query (and claim) up to <code>maxNumberOfMessages</code> Queued Messages (i.e. not including Dead Letter Messages) that are ready to be delivered to a {@link DurableQueueConsumer}<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}
+     *
+     * @param queueName           the name of the Queue where we will query for the next messages ready for delivery
+     * @param maxNumberOfMessages the maximum number of messages to return
+     * @return the messages ready to be delivered (empty if no messages are ready for delivery)
+     */
+    default List<QueuedMessage> getNextMessagesReadyForDelivery(QueueName queueName, int maxNumberOfMessages) {
+        return getNextMessagesReadyForDelivery(new GetNextMessagesReadyForDelivery(queueName, maxNumberOfMessages));
+    }
+
+    /**
+     * Query (and claim) up to {@link GetNextMessagesReadyForDelivery#maxNumberOfMessages} Queued Messages (i.e. not including Dead Letter Messages) that are ready to be delivered to a {@link DurableQueueConsumer}<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}<br>
+     * For {@link OrderedMessage}'s at most one message per {@link OrderedMessage#getKey()} is returned, which means that the messages returned can be handled
+     * one after another (followed by {@link #acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled)}) without violating the per key ordering.
+     * <p>
+     * The default implementation repeatedly calls {@link #getNextMessageReadyForDelivery(GetNextMessageReadyForDelivery)}, while excluding the keys of the
+     * {@link OrderedMessage}'s already claimed. Implementations should override this method to claim all the messages in a single round trip.
+     *
+     * @param operation the {@link GetNextMessagesReadyForDelivery} operation
+     * @return the messages ready to be delivered (empty if no messages are ready for delivery)
+     */
+    default List<QueuedMessage> getNextMessagesReadyForDelivery(GetNextMessagesReadyForDelivery operation) {
+        requireNonNull(operation, "You must specify a GetNextMessagesReadyForDelivery instance");
+        var excludedKeys = new HashSet<>(operation.getExcludeOrderedMessagesWithKey());
+        var messages     = new ArrayList<QueuedMessage>(operation.maxNumberOfMessages);
+        while (messages.size() < operation.maxNumberOfMessages) {
+            var nextMessage = getNextMessageReadyForDelivery(new GetNextMessageReadyForDelivery(operation.queueName, List.copyOf(excludedKeys)));
+            if (nextMessage.isEmpty()) {
+                break;
+            }
+            messages.add(nextMessage.get());
+            if (nextMessage.get().getMessage() instanceof OrderedMessage orderedMessage) {
+                excludedKeys.add(orderedMessage.getKey());
+            }
+        }
+        return messages;
+    }
+
     /**
      * Check if there are any messages queued  (i.e. not including Dead Letter Messages) for the given queue
      *
@@ -150,6 +150,17 @@ public interface DurableQueuesInterceptor extends Interceptor {
         return interceptorChain.proceed();
     }
 
+    /**
+     * Intercept {@link AcknowledgeMessagesAsHandled} calls
+     *
+     * @param operation        the operation
+     * @param interceptorChain the interceptor chain (call {@link InterceptorChain#proceed()} to continue the processing chain)
+     * @return the number of messages acknowledged
+     */
+    default int intercept(AcknowledgeMessagesAsHandled operation, InterceptorChain<AcknowledgeMessagesAsHandled, Integer, DurableQueuesInterceptor> interceptorChain) {
+        return interceptorChain.proceed();
+    }
+
     /**
      * Intercept {@link DeleteMessage} calls
      *
@@ -172,6 +183,17 @@ public interface DurableQueuesInterceptor extends Interceptor {
         return interceptorChain.proceed();
     }
 
+    /**
+     * Intercept {@link GetNextMessagesReadyForDelivery} calls
+     *
+     * @param operation        the operation
+     * @param interceptorChain the interceptor chain (call {@link InterceptorChain#proceed()} to continue the processing chain)
+     * @return the messages ready to be delivered (empty if no messages are ready for delivery)
+     */
+    default List<QueuedMessage> intercept(GetNextMessagesReadyForDelivery operation, InterceptorChain<GetNextMessagesReadyForDelivery, List<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
+        return interceptorChain.proceed();
+    }
+
     /**
      * Intercept {@link GetTotalMessagesQueuedFor} calls
      *
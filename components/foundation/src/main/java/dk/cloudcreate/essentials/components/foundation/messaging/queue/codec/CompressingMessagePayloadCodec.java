@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.codec;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * {@link MessagePayloadCodec} decorator that GZIP compresses the payload encoded by the delegate {@link MessagePayloadCodec}
+ * when the encoded payload is at least {@link #getCompressionThresholdInBytes()} bytes.<br>
+ * Each encoded payload is prefixed with a single byte that specifies whether the remaining bytes are compressed, which allows
+ * the compression threshold to be changed without affecting the ability to decode already stored payloads.<br>
+ * The {@link #getEncoding()} is the delegate's encoding suffixed with {@value #ENCODING_SUFFIX}, e.g. <code>smile+gzip</code>
+ */
+public final class CompressingMessagePayloadCodec implements MessagePayloadCodec {
+    public static final  String ENCODING_SUFFIX                        = "+gzip";
+    public static final  int    DEFAULT_COMPRESSION_THRESHOLD_IN_BYTES = 1024;
+    private static final byte   UNCOMPRESSED                           = 0;
+    private static final byte   GZIP_COMPRESSED                        = 1;
+
+    private final MessagePayloadCodec delegate;
+    private final int                 compressionThresholdInBytes;
+    private final String              encoding;
+
+    /**
+     * Compress payloads that are at least {@value #DEFAULT_COMPRESSION_THRESHOLD_IN_BYTES} bytes after being encoded by the <code>delegate</code>
+     *
+     * @param delegate the codec that encodes/decodes the uncompressed message payloads
+     */
+    public CompressingMessagePayloadCodec(MessagePayloadCodec delegate) {
+        this(delegate, DEFAULT_COMPRESSION_THRESHOLD_IN_BYTES);
+    }
+
+    /**
+     * @param delegate                    the codec that encodes/decodes the uncompressed message payloads
+     * @param compressionThresholdInBytes payloads that are at least this number of bytes after being encoded by the <code>delegate</code> are compressed
+     */
+    public CompressingMessagePayloadCodec(MessagePayloadCodec delegate, int compressionThresholdInBytes) {
+        this.delegate = requireNonNull(delegate, "No delegate codec provided");
+        requireTrue(compressionThresholdInBytes >= 0, "compressionThresholdInBytes must be >= 0");
+        this.compressionThresholdInBytes = compressionThresholdInBytes;
+        this.encoding = delegate.getEncoding() + ENCODING_SUFFIX;
+    }
+
+    @Override
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public int getCompressionThresholdInBytes() {
+        return compressionThresholdInBytes;
+    }
+
+    public MessagePayloadCodec getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        var encodedPayload = delegate.encode(payload);
+        if (encodedPayload.length < compressionThresholdInBytes) {
+            var result = new byte[encodedPayload.length + 1];
+            result[0] = UNCOMPRESSED;
+            System.arraycopy(encodedPayload, 0, result, 1, encodedPayload.length);
+            return result;
+        }
+
+        var output = new ByteArrayOutputStream(encodedPayload.length / 2 + 1);
+        output.write(GZIP_COMPRESSED);
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(encodedPayload);
+        } catch (IOException e) {
+            throw new MessagePayloadCodecException(msg("Failed to compress {} using encoding '{}'", payload.getClass().getName(), encoding),
+                                                   e);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] encodedPayload, Class<T> payloadType) {
+        requireNonNull(encodedPayload, "No encodedPayload provided");
+        requireTrue(encodedPayload.length > 0, msg("Cannot decode {} using encoding '{}' as the encodedPayload is empty", payloadType, encoding));
+        return switch (encodedPayload[0]) {
+            case UNCOMPRESSED -> delegate.decode(Arrays.copyOfRange(encodedPayload, 1, encodedPayload.length), payloadType);
+            case GZIP_COMPRESSED -> delegate.decode(decompress(encodedPayload, payloadType), payloadType);
+            default -> throw new MessagePayloadCodecException(msg("Failed to decode {} using encoding '{}' - unsupported compression flag {}",
+                                                                  payloadType.getName(), encoding, encodedPayload[0]));
+        };
+    }
+
+    private byte[] decompress(byte[] encodedPayload, Class<?> payloadType) {
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(encodedPayload, 1, encodedPayload.length - 1))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new MessagePayloadCodecException(msg("Failed to decompress {} using encoding '{}'", payloadType.getName(), encoding),
+                                                   e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompressingMessagePayloadCodec{" +
+                "encoding='" + encoding + '\'' +
+                ", compressionThresholdInBytes=" + compressionThresholdInBytes +
+                '}';
+    }
+}
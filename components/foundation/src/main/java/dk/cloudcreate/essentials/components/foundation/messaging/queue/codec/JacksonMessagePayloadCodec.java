@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Jackson {@link ObjectMapper} based {@link MessagePayloadCodec}.<br>
+ * The binary format is determined by the {@link com.fasterxml.jackson.core.JsonFactory} of the {@link ObjectMapper}, e.g.:
+ * <pre>{@code
+ * // Requires com.fasterxml.jackson.dataformat:jackson-dataformat-smile
+ * var smileCodec = new JacksonMessagePayloadCodec("smile", new ObjectMapper(new SmileFactory()).findAndRegisterModules());
+ * // Requires com.fasterxml.jackson.dataformat:jackson-dataformat-cbor
+ * var cborCodec = new JacksonMessagePayloadCodec("cbor", new ObjectMapper(new CBORFactory()).findAndRegisterModules());
+ * }</pre>
+ * The {@link ObjectMapper} should be configured with the same modules as the {@link ObjectMapper} used for JSON serialization
+ * (e.g. <code>EssentialTypesJacksonModule</code> and <code>EssentialsImmutableJacksonModule</code>)
+ */
+public class JacksonMessagePayloadCodec implements MessagePayloadCodec {
+    protected final String       encoding;
+    protected final ObjectMapper objectMapper;
+
+    /**
+     * @param encoding     the unique name of the encoding, which is stored together with each encoded message payload
+     * @param objectMapper the {@link ObjectMapper} used to encode/decode message payloads
+     */
+    public JacksonMessagePayloadCodec(String encoding, ObjectMapper objectMapper) {
+        this.encoding = requireNonNull(encoding, "No encoding provided");
+        this.objectMapper = requireNonNull(objectMapper, "No objectMapper instance provided");
+    }
+
+    @Override
+    public String getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        requireNonNull(payload, "No payload provided");
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (Throwable e) {
+            throw new MessagePayloadCodecException(msg("Failed to encode {} using encoding '{}'", payload.getClass().getName(), encoding),
+                                                   e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] encodedPayload, Class<T> payloadType) {
+        requireNonNull(encodedPayload, "No encodedPayload provided");
+        requireNonNull(payloadType, "No payloadType provided");
+        try {
+            return objectMapper.readValue(encodedPayload, payloadType);
+        } catch (Throwable e) {
+            throw new MessagePayloadCodecException(msg("Failed to decode {} using encoding '{}'", payloadType.getName(), encoding),
+                                                   e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonMessagePayloadCodec{" +
+                "encoding='" + encoding + '\'' +
+                '}';
+    }
+}
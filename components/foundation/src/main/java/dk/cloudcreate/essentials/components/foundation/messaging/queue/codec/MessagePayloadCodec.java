@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.codec;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+
+/**
+ * Encodes and decodes {@link Message#getPayload()}'s to/from a binary representation (such as Jackson Smile or CBOR),
+ * which a {@link DurableQueues} implementation can store instead of the default JSON representation.<br>
+ * Binary encoding is intended for internal queues (such as command or inbox queues), where the message payload
+ * is never queried directly in the database.<br>
+ * <br>
+ * The {@link #getEncoding()} is stored together with each encoded message payload and is used to find the
+ * {@link MessagePayloadCodec} that must decode the message payload (see {@link MessagePayloadCodecs#getCodecForEncoding(String)}).
+ * Once messages have been stored with a given encoding, the encoding name MUST NOT change.
+ *
+ * @see JacksonMessagePayloadCodec
+ * @see CompressingMessagePayloadCodec
+ * @see MessagePayloadCodecs
+ */
+public interface MessagePayloadCodec {
+    /**
+     * The unique name of the encoding, which is stored together with each encoded message payload, e.g. <code>smile</code> or <code>cbor+gzip</code>
+     *
+     * @return the unique name of the encoding
+     */
+    String getEncoding();
+
+    /**
+     * Encode the message payload
+     *
+     * @param payload the message payload
+     * @return the encoded message payload
+     * @throws MessagePayloadCodecException in case the payload couldn't be encoded
+     */
+    byte[] encode(Object payload);
+
+    /**
+     * Decode the message payload
+     *
+     * @param encodedPayload the encoded message payload
+     * @param payloadType    the Java type that the message payload should be decoded into
+     * @param <T>            the corresponding Java type
+     * @return the decoded message payload
+     * @throws MessagePayloadCodecException in case the payload couldn't be decoded
+     */
+    <T> T decode(byte[] encodedPayload, Class<T> payloadType);
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.codec;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Defines which {@link MessagePayloadCodec} a {@link DurableQueues} implementation uses to encode the message payloads of a given {@link QueueName}
+ * and which {@link MessagePayloadCodec}'s are available for decoding already stored message payloads.<br>
+ * Queues without a {@link MessagePayloadCodec} (the default) store their message payloads as JSON.<br>
+ * <br>
+ * Example:
+ * <pre>{@code
+ * var smileCodec = new JacksonMessagePayloadCodec("smile", new ObjectMapper(new SmileFactory()).findAndRegisterModules());
+ * var codecs = MessagePayloadCodecs.jsonByDefault()
+ *                                  .useCodecForQueue(DurableLocalCommandBus.DEFAULT_COMMAND_QUEUE_NAME, new CompressingMessagePayloadCodec(smileCodec));
+ * }</pre>
+ * Changing the {@link MessagePayloadCodec} of a queue only affects new messages. Message payloads already stored as JSON are always readable,
+ * whereas message payloads stored using a binary encoding can only be decoded as long as a {@link MessagePayloadCodec} with the same {@link MessagePayloadCodec#getEncoding()}
+ * is registered (either as the default codec, as a queue codec or using {@link #addDecodingCodec(MessagePayloadCodec)}).
+ */
+public final class MessagePayloadCodecs {
+    private volatile MessagePayloadCodec                                    defaultCodec;
+    /**
+     * Queue specific codecs - {@link Optional#empty()} means that the queue stores its message payloads as JSON
+     */
+    private final    ConcurrentMap<QueueName, Optional<MessagePayloadCodec>> queueCodecs    = new ConcurrentHashMap<>();
+    private final    ConcurrentMap<String, MessagePayloadCodec>              decodingCodecs = new ConcurrentHashMap<>();
+
+    /**
+     * Create a {@link MessagePayloadCodecs} where all queues store their message payloads as JSON,
+     * until a codec is configured using {@link #useDefaultCodec(MessagePayloadCodec)} or {@link #useCodecForQueue(QueueName, MessagePayloadCodec)}
+     *
+     * @return the new {@link MessagePayloadCodecs}
+     */
+    public static MessagePayloadCodecs jsonByDefault() {
+        return new MessagePayloadCodecs();
+    }
+
+    /**
+     * Create a {@link MessagePayloadCodecs} where all queues (unless overridden using {@link #useCodecForQueue(QueueName, MessagePayloadCodec)})
+     * store their message payloads using the <code>defaultCodec</code>
+     *
+     * @param defaultCodec the codec used for all queues without a queue specific codec
+     * @return the new {@link MessagePayloadCodecs}
+     */
+    public static MessagePayloadCodecs withDefaultCodec(MessagePayloadCodec defaultCodec) {
+        return new MessagePayloadCodecs().useDefaultCodec(defaultCodec);
+    }
+
+    private MessagePayloadCodecs() {
+    }
+
+    /**
+     * Use the <code>defaultCodec</code> for all queues without a queue specific codec
+     *
+     * @param defaultCodec the codec used for all queues without a queue specific codec
+     * @return this {@link MessagePayloadCodecs} instance
+     */
+    public MessagePayloadCodecs useDefaultCodec(MessagePayloadCodec defaultCodec) {
+        this.defaultCodec = addDecodingCodec(defaultCodec);
+        return this;
+    }
+
+    /**
+     * Use the <code>codec</code> for the given queue
+     *
+     * @param queueName the name of the queue
+     * @param codec     the codec used for the queue
+     * @return this {@link MessagePayloadCodecs} instance
+     */
+    public MessagePayloadCodecs useCodecForQueue(QueueName queueName, MessagePayloadCodec codec) {
+        queueCodecs.put(requireNonNull(queueName, "No queueName provided"),
+                        Optional.of(addDecodingCodec(codec)));
+        return this;
+    }
+
+    /**
+     * Store the message payloads of the given queue as JSON, even if a default codec has been configured
+     *
+     * @param queueName the name of the queue
+     * @return this {@link MessagePayloadCodecs} instance
+     */
+    public MessagePayloadCodecs useJsonForQueue(QueueName queueName) {
+        queueCodecs.put(requireNonNull(queueName, "No queueName provided"),
+                        Optional.empty());
+        return this;
+    }
+
+    /**
+     * Register a codec that is only used for decoding already stored message payloads (e.g. after a queue has switched to another codec)
+     *
+     * @param codec the codec
+     * @return the codec
+     */
+    public MessagePayloadCodec addDecodingCodec(MessagePayloadCodec codec) {
+        requireNonNull(codec, "No codec provided");
+        requireNonNull(codec.getEncoding(), msg("Codec {} doesn't provide an encoding", codec));
+        decodingCodecs.put(codec.getEncoding(), codec);
+        return codec;
+    }
+
+    /**
+     * Get the codec used to encode message payloads for the given queue
+     *
+     * @param queueName the name of the queue
+     * @return the codec or {@link Optional#empty()} if the message payloads must be stored as JSON
+     */
+    public Optional<MessagePayloadCodec> getCodecFor(QueueName queueName) {
+        requireNonNull(queueName, "No queueName provided");
+        return queueCodecs.getOrDefault(queueName, Optional.ofNullable(defaultCodec));
+    }
+
+    /**
+     * Get the codec that must decode message payloads stored with the given encoding
+     *
+     * @param encoding the {@link MessagePayloadCodec#getEncoding()} stored together with the message payload
+     * @return the codec
+     * @throws MessagePayloadCodecException in case no codec is registered for the encoding
+     */
+    public MessagePayloadCodec getCodecForEncoding(String encoding) {
+        requireNonNull(encoding, "No encoding provided");
+        var codec = decodingCodecs.get(encoding);
+        if (codec == null) {
+            throw new MessagePayloadCodecException(msg("No MessagePayloadCodec registered for encoding '{}'. Registered encodings: {}",
+                                                       encoding,
+                                                       decodingCodecs.keySet()));
+        }
+        return codec;
+    }
+
+    @Override
+    public String toString() {
+        return "MessagePayloadCodecs{" +
+                "defaultCodec=" + defaultCodec +
+                ", queueCodecs=" + queueCodecs +
+                ", decodingCodecs=" + decodingCodecs.keySet() +
+                '}';
+    }
+}
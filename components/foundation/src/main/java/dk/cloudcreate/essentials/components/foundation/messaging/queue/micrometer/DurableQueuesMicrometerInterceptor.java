@@ -18,80 +18,190 @@ package dk.cloudcreate.essentials.components.foundation.messaging.queue.micromet
 
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
-import dk.cloudcreate.essentials.shared.functional.tuple.Pair;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
 import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import org.slf4j.*;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
-
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * {@link DurableQueuesInterceptor} that maintains Micrometer gauges with the number of queued messages and queued dead-letter messages per queue
+ * and counters for the number of processed messages.<br>
+ * The gauges are maintained from deltas (increment on enqueue, decrement on acknowledge/delete, move between queued and dead-letter on
+ * mark-as-dead-letter/resurrect), instead of querying the {@link DurableQueues} for the message counts after each operation.<br>
+ * Since the deltas only cover the operations performed through the local {@link DurableQueues} instance (and don't take
+ * {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} rollbacks into account), the counts are periodically reconciled
+ * against the {@link DurableQueues} using {@link DurableQueues#getQueuedMessageCountsFor(QueueName)} (see <code>reconciliationInterval</code>).<br>
+ * <br>
+ * {@link DurableQueues#getQueuedMessageCountsFor(GetQueuedMessageCountsFor)} calls are answered from the in-memory counts when the counts for the queue
+ * have been reconciled within <code>maxCountsAge</code>, otherwise the call proceeds to the {@link DurableQueues} and the result is used to reconcile the counts.
+ */
 public final class DurableQueuesMicrometerInterceptor implements DurableQueuesInterceptor {
-    private static final String QUEUED_MESSAGES_GAUGE_NAME                     = "DurableQueues_QueuedMessages_Size";
-    private static final String DEAD_LETTER_MESSAGES_GAUGE_NAME                = "DurableQueues_DeadLetterMessages_Size";
-    public static final  String PROCESSED_QUEUED_MESSAGES_COUNTER_NAME         = "DurableQueues_QueuedMessages_Processed";
-    public static final  String PROCESSED_QUEUED_MESSAGES_RETRIES_COUNTER_NAME = "DurableQueues_QueuedMessages_Retries";
-    public static final  String PROCESSED_DEAD_LETTER_MESSAGES_COUNTER_NAME    = "DurableQueues_DeadLetterMessages_Processed";
-    public static final  String QUEUE_NAME_TAG_NAME                            = "QueueName";
-    public static final  String MODULE_TAG_NAME                                = "Module";
-
-    private final MeterRegistry                              meterRegistry;
-    private final ConcurrentHashMap<QueueName, GaugeWrapper> queuedMessagesGauges     = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<QueueName, GaugeWrapper> deadLetterMessagesGauges = new ConcurrentHashMap<>();
-    private       DurableQueues durableQueues;
-    private final List<Tag>     commonTags = new ArrayList<>();
-
-
+    private static final Logger   log                                            = LoggerFactory.getLogger(DurableQueuesMicrometerInterceptor.class);
+    private static final String   QUEUED_MESSAGES_GAUGE_NAME                     = "DurableQueues_QueuedMessages_Size";
+    private static final String   DEAD_LETTER_MESSAGES_GAUGE_NAME                = "DurableQueues_DeadLetterMessages_Size";
+    public static final  String   PROCESSED_QUEUED_MESSAGES_COUNTER_NAME         = "DurableQueues_QueuedMessages_Processed";
+    public static final  String   PROCESSED_QUEUED_MESSAGES_RETRIES_COUNTER_NAME = "DurableQueues_QueuedMessages_Retries";
+    public static final  String   PROCESSED_DEAD_LETTER_MESSAGES_COUNTER_NAME    = "DurableQueues_DeadLetterMessages_Processed";
+    public static final  String   QUEUE_NAME_TAG_NAME                            = "QueueName";
+    public static final  String   MODULE_TAG_NAME                                = "Module";
+    public static final  Duration DEFAULT_RECONCILIATION_INTERVAL                = Duration.ofSeconds(15);
+    /**
+     * The maximum number of messages being delivered for which the {@link QueueName} is tracked (used to resolve the {@link QueueName} of {@link DeleteMessage}'s
+     * without querying the {@link DurableQueues})
+     */
+    private static final int      MAX_NUMBER_OF_TRACKED_MESSAGES_BEING_DELIVERED = 10_000;
+
+    private final    MeterRegistry                             meterRegistry;
+    private final    Duration                                  reconciliationInterval;
+    private final    Duration                                  maxCountsAge;
+    private final    ConcurrentHashMap<QueueName, QueueCounts> queueCounts                        = new ConcurrentHashMap<>();
+    /**
+     * Key: the {@link QueueEntryId} of a message being delivered<br>
+     * Value: the {@link QueueName} of the message
+     */
+    private final    Map<QueueEntryId, QueueName>              queueNamesOfMessagesBeingDelivered = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QueueEntryId, QueueName> eldest) {
+            return size() > MAX_NUMBER_OF_TRACKED_MESSAGES_BEING_DELIVERED;
+        }
+    });
+    /**
+     * Set while reconciling, to ensure that {@link #intercept(GetQueuedMessageCountsFor, InterceptorChain)} proceeds to the {@link DurableQueues}
+     */
+    private final    ThreadLocal<Boolean>                      reconciling                        = ThreadLocal.withInitial(() -> false);
+    private volatile ScheduledExecutorService                  reconciliationScheduler;
+    private          DurableQueues                             durableQueues;
+    private final    List<Tag>                                 commonTags                         = new ArrayList<>();
+
+
+    /**
+     * Create a {@link DurableQueuesMicrometerInterceptor} using {@link #DEFAULT_RECONCILIATION_INTERVAL} as both reconciliation interval and max counts age
+     *
+     * @param meterRegistry the meter registry
+     * @param moduleTag     the optional module tag
+     */
     public DurableQueuesMicrometerInterceptor(MeterRegistry meterRegistry,
                                               String moduleTag) {
+        this(meterRegistry,
+             moduleTag,
+             DEFAULT_RECONCILIATION_INTERVAL,
+             DEFAULT_RECONCILIATION_INTERVAL);
+    }
+
+    /**
+     * Create a {@link DurableQueuesMicrometerInterceptor}
+     *
+     * @param meterRegistry          the meter registry
+     * @param moduleTag              the optional module tag
+     * @param reconciliationInterval the interval with which the in-memory message counts are reconciled against the {@link DurableQueues}
+     * @param maxCountsAge           the maximum time since the last reconciliation, for which {@link DurableQueues#getQueuedMessageCountsFor(GetQueuedMessageCountsFor)}
+     *                               calls are answered from the in-memory message counts. Use {@link Duration#ZERO} to always proceed to the {@link DurableQueues}
+     */
+    public DurableQueuesMicrometerInterceptor(MeterRegistry meterRegistry,
+                                              String moduleTag,
+                                              Duration reconciliationInterval,
+                                              Duration maxCountsAge) {
         this.meterRegistry = requireNonNull(meterRegistry, "No meterRegistry instance provided");
+        this.reconciliationInterval = requireNonNull(reconciliationInterval, "No reconciliationInterval provided");
+        this.maxCountsAge = requireNonNull(maxCountsAge, "No maxCountsAge provided");
+        requireTrue(reconciliationInterval.toMillis() > 0, "reconciliationInterval must be > 0");
         Optional.ofNullable(moduleTag).map(t -> Tag.of(MODULE_TAG_NAME, t)).ifPresent(commonTags::add);
     }
 
     @Override
     public void setDurableQueues(DurableQueues durableQueues) {
         this.durableQueues = requireNonNull(durableQueues, "No durableQueues instance provided");
-        durableQueues.getQueueNames().forEach(this::updateQueueGaugeValues);
+        reconcileAllQueues();
+        if (reconciliationScheduler == null) {
+            reconciliationScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                                         .nameFormat("DurableQueues-Metrics-Reconciliation-%d")
+                                                                                         .daemon(true)
+                                                                                         .build());
+            reconciliationScheduler.scheduleWithFixedDelay(this::reconcileAllQueues,
+                                                           reconciliationInterval.toMillis(),
+                                                           reconciliationInterval.toMillis(),
+                                                           TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the background reconciliation of the message counts
+     */
+    public void shutdown() {
+        if (reconciliationScheduler != null) {
+            reconciliationScheduler.shutdownNow();
+            reconciliationScheduler = null;
+        }
     }
 
-    private void updateQueueGaugeValues(QueuedMessage message) {
-        updateQueueGaugeValues(message.getQueueName());
+    /**
+     * Reconcile the in-memory message counts of all known queues against the {@link DurableQueues}
+     */
+    public void reconcileAllQueues() {
+        if (durableQueues == null) {
+            return;
+        }
+        try {
+            var queueNames = new HashSet<>(durableQueues.getQueueNames());
+            queueNames.addAll(queueCounts.keySet());
+            queueNames.forEach(this::reconcile);
+        } catch (Throwable e) {
+            log.error("Failed to reconcile the queued message counts", e);
+        }
     }
 
-    private void updateQueueGaugeValues(QueueName queueName) {
-        var messageCounts = durableQueues.getQueuedMessageCountsFor(queueName);
-        this.queuedMessagesGauges.computeIfAbsent(queueName, this::buildQueuedMessagesGauge)
-                                 .setMessageCount(messageCounts.numberOfQueuedMessages());
-        this.deadLetterMessagesGauges.computeIfAbsent(queueName, this::buildDeadLetterMessagesGauge)
-                                     .setMessageCount(messageCounts.numberOfQueuedDeadLetterMessages());
+    private void reconcile(QueueName queueName) {
+        reconciling.set(true);
+        try {
+            // Reconciles the counts through intercept(GetQueuedMessageCountsFor)
+            durableQueues.getQueuedMessageCountsFor(queueName);
+        } catch (Throwable e) {
+            log.error(msg("[{}] Failed to reconcile the queued message counts", queueName), e);
+        } finally {
+            reconciling.remove();
+        }
     }
 
-    private GaugeWrapper buildDeadLetterMessagesGauge(QueueName queueName) {
-        var deadLetterMessagesQueuedCount = new AtomicLong();
-        var gauge = Gauge
-                .builder(DEAD_LETTER_MESSAGES_GAUGE_NAME, deadLetterMessagesQueuedCount::get)
-                .tags(buildTagList(QUEUE_NAME_TAG_NAME, queueName.toString()))
-                .register(meterRegistry);
-        return new GaugeWrapper(gauge, deadLetterMessagesQueuedCount);
+    private void reconcileAsync(QueueName queueName) {
+        var reconciliationScheduler = this.reconciliationScheduler;
+        if (reconciliationScheduler != null) {
+            try {
+                reconciliationScheduler.execute(() -> reconcile(queueName));
+            } catch (RejectedExecutionException e) {
+                // The interceptor is being shutdown
+            }
+        }
     }
 
-    private GaugeWrapper buildQueuedMessagesGauge(QueueName queueName) {
-        var queuedMessagesQueuedCount = new AtomicLong();
-        var gauge = Gauge
-                .builder(QUEUED_MESSAGES_GAUGE_NAME, queuedMessagesQueuedCount::get)
-                .tags(buildTagList(QUEUE_NAME_TAG_NAME, queueName.toString()))
-                .register(meterRegistry);
-        return new GaugeWrapper(gauge, queuedMessagesQueuedCount);
+    private QueueCounts countsFor(QueueName queueName) {
+        return queueCounts.computeIfAbsent(requireNonNull(queueName, "No queueName provided"), QueueCounts::new);
+    }
+
+    @Override
+    public QueuedMessageCounts intercept(GetQueuedMessageCountsFor operation, InterceptorChain<GetQueuedMessageCountsFor, QueuedMessageCounts, DurableQueuesInterceptor> interceptorChain) {
+        var counts = queueCounts.get(operation.queueName);
+        if (!reconciling.get() && counts != null && counts.isFresh()) {
+            return counts.toQueuedMessageCounts();
+        }
+        var queuedMessageCounts = interceptorChain.proceed();
+        countsFor(operation.queueName).reconcile(queuedMessageCounts);
+        return queuedMessageCounts;
     }
 
     @Override
     public QueueEntryId intercept(QueueMessage operation, InterceptorChain<QueueMessage, QueueEntryId, DurableQueuesInterceptor> interceptorChain) {
         var queueEntryId = interceptorChain.proceed();
-        updateQueueGaugeValues(operation.queueName);
+        countsFor(operation.queueName).add(1, 0);
         incProcessedQueuedMessagesCount(operation.queueName);
         return queueEntryId;
     }
@@ -100,7 +210,7 @@ public final class DurableQueuesMicrometerInterceptor implements DurableQueuesIn
     @Override
     public List<QueueEntryId> intercept(QueueMessages operation, InterceptorChain<QueueMessages, List<QueueEntryId>, DurableQueuesInterceptor> interceptorChain) {
         var queueEntryIds = interceptorChain.proceed();
-        updateQueueGaugeValues(operation.queueName);
+        countsFor(operation.queueName).add(queueEntryIds.size(), 0);
         incProcessedQueuedMessagesCount(operation.queueName, queueEntryIds.size());
         return queueEntryIds;
     }
@@ -109,17 +219,31 @@ public final class DurableQueuesMicrometerInterceptor implements DurableQueuesIn
     @Override
     public QueueEntryId intercept(QueueMessageAsDeadLetterMessage operation, InterceptorChain<QueueMessageAsDeadLetterMessage, QueueEntryId, DurableQueuesInterceptor> interceptorChain) {
         var queueEntryId = interceptorChain.proceed();
-        updateQueueGaugeValues(operation.queueName);
+        countsFor(operation.queueName).add(0, 1);
         incProcessedQueuedDeadLetterMessagesCount(operation.queueName);
         return queueEntryId;
     }
 
+    @Override
+    public Optional<QueuedMessage> intercept(GetNextMessageReadyForDelivery operation, InterceptorChain<GetNextMessageReadyForDelivery, Optional<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
+        var optionalQueuedMessage = interceptorChain.proceed();
+        optionalQueuedMessage.ifPresent(queuedMessage -> queueNamesOfMessagesBeingDelivered.put(queuedMessage.getId(), queuedMessage.getQueueName()));
+        return optionalQueuedMessage;
+    }
+
+    @Override
+    public List<QueuedMessage> intercept(GetNextMessagesReadyForDelivery operation, InterceptorChain<GetNextMessagesReadyForDelivery, List<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
+        var queuedMessages = interceptorChain.proceed();
+        queuedMessages.forEach(queuedMessage -> queueNamesOfMessagesBeingDelivered.put(queuedMessage.getId(), queuedMessage.getQueueName()));
+        return queuedMessages;
+    }
 
     @Override
     public Optional<QueuedMessage> intercept(MarkAsDeadLetterMessage operation, InterceptorChain<MarkAsDeadLetterMessage, Optional<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
         var optionalQueuedMessage = interceptorChain.proceed();
+        queueNamesOfMessagesBeingDelivered.remove(operation.queueEntryId);
         optionalQueuedMessage.ifPresent(queuedMessage -> {
-            updateQueueGaugeValues(queuedMessage.getQueueName());
+            countsFor(queuedMessage.getQueueName()).add(-1, 1);
             incProcessedQueuedDeadLetterMessagesCount(queuedMessage.getQueueName());
         });
         return optionalQueuedMessage;
@@ -127,28 +251,57 @@ public final class DurableQueuesMicrometerInterceptor implements DurableQueuesIn
 
     @Override
     public boolean intercept(DeleteMessage operation, InterceptorChain<DeleteMessage, Boolean, DurableQueuesInterceptor> interceptorChain) {
+        var queueNameOfMessageBeingDelivered = queueNamesOfMessagesBeingDelivered.remove(operation.queueEntryId);
+        if (queueNameOfMessageBeingDelivered != null) {
+            // A message being delivered is never a dead-letter message
+            var succeeded = interceptorChain.proceed();
+            if (succeeded) {
+                countsFor(queueNameOfMessageBeingDelivered).add(-1, 0);
+            }
+            return succeeded;
+        }
+
+        // Unknown message (e.g. a dead-letter message or a message delivered by another node) - reconcile the counts for its queue
         var queueName = durableQueues.getQueueNameFor(operation.queueEntryId).orElse(null);
         var succeeded = interceptorChain.proceed();
         if (succeeded && queueName != null) {
-            updateQueueGaugeValues(queueName);
+            reconcileAsync(queueName);
         }
         return succeeded;
     }
 
+    @Override
+    public int intercept(AcknowledgeMessagesAsHandled operation, InterceptorChain<AcknowledgeMessagesAsHandled, Integer, DurableQueuesInterceptor> interceptorChain) {
+        var numberOfMessagesAcknowledged = interceptorChain.proceed();
+        operation.queueEntryIds.forEach(queueNamesOfMessagesBeingDelivered::remove);
+        if (numberOfMessagesAcknowledged > 0) {
+            countsFor(operation.queueName).add(-numberOfMessagesAcknowledged, 0);
+        }
+        return numberOfMessagesAcknowledged;
+    }
+
     @Override
     public Optional<QueuedMessage> intercept(ResurrectDeadLetterMessage operation, InterceptorChain<ResurrectDeadLetterMessage, Optional<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
         var optionalQueuedMessage = interceptorChain.proceed();
-        optionalQueuedMessage.ifPresent(this::updateQueueGaugeValues);
+        optionalQueuedMessage.ifPresent(queuedMessage -> countsFor(queuedMessage.getQueueName()).add(1, -1));
         return optionalQueuedMessage;
     }
 
     @Override
     public Optional<QueuedMessage> intercept(RetryMessage operation, InterceptorChain<RetryMessage, Optional<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
+        // The message stays queued, so the counts are unchanged
         var optionalQueuedMessage = interceptorChain.proceed();
-        optionalQueuedMessage.ifPresent(this::updateQueueGaugeValues);
+        queueNamesOfMessagesBeingDelivered.remove(operation.queueEntryId);
         return optionalQueuedMessage;
     }
 
+    @Override
+    public int intercept(PurgeQueue operation, InterceptorChain<PurgeQueue, Integer, DurableQueuesInterceptor> interceptorChain) {
+        var numberOfPurgedMessages = interceptorChain.proceed();
+        countsFor(operation.queueName).reconcile(new QueuedMessageCounts(operation.queueName, 0, 0));
+        return numberOfPurgedMessages;
+    }
+
     private void incProcessedQueuedMessagesCount(QueueName queueName) {
         requireNonNull(queueName, "No queueName provided");
         meterRegistry.counter(PROCESSED_QUEUED_MESSAGES_COUNTER_NAME, buildTagList(QUEUE_NAME_TAG_NAME, queueName.toString()))
@@ -181,15 +334,58 @@ public final class DurableQueuesMicrometerInterceptor implements DurableQueuesIn
         return tagList;
     }
 
-    private static class GaugeWrapper extends Pair<Gauge, AtomicLong> {
+    /**
+     * The in-memory message counts (and gauges) for a single queue
+     */
+    private final class QueueCounts {
+        private final    QueueName  queueName;
+        private final    AtomicLong numberOfQueuedMessages           = new AtomicLong();
+        private final    AtomicLong numberOfQueuedDeadLetterMessages = new AtomicLong();
+        /**
+         * The time (in epoch milliseconds) of the last reconciliation - 0 if the counts haven't been reconciled yet
+         */
+        private volatile long       lastReconciledAtMillis;
+
+        private QueueCounts(QueueName queueName) {
+            this.queueName = queueName;
+            Gauge.builder(QUEUED_MESSAGES_GAUGE_NAME, numberOfQueuedMessages::get)
+                 .tags(buildTagList(QUEUE_NAME_TAG_NAME, queueName.toString()))
+                 .register(meterRegistry);
+            Gauge.builder(DEAD_LETTER_MESSAGES_GAUGE_NAME, numberOfQueuedDeadLetterMessages::get)
+                 .tags(buildTagList(QUEUE_NAME_TAG_NAME, queueName.toString()))
+                 .register(meterRegistry);
+        }
+
+        private void add(long queuedMessagesDelta, long queuedDeadLetterMessagesDelta) {
+            if (queuedMessagesDelta != 0) {
+                numberOfQueuedMessages.updateAndGet(count -> Math.max(0, count + queuedMessagesDelta));
+            }
+            if (queuedDeadLetterMessagesDelta != 0) {
+                numberOfQueuedDeadLetterMessages.updateAndGet(count -> Math.max(0, count + queuedDeadLetterMessagesDelta));
+            }
+        }
 
-        private GaugeWrapper(Gauge gauge, AtomicLong messageCount) {
-            super(gauge, messageCount);
+        private void reconcile(QueuedMessageCounts queuedMessageCounts) {
+            var queuedMessagesDrift           = queuedMessageCounts.numberOfQueuedMessages() - numberOfQueuedMessages.getAndSet(queuedMessageCounts.numberOfQueuedMessages());
+            var queuedDeadLetterMessagesDrift = queuedMessageCounts.numberOfQueuedDeadLetterMessages() - numberOfQueuedDeadLetterMessages.getAndSet(queuedMessageCounts.numberOfQueuedDeadLetterMessages());
+            lastReconciledAtMillis = System.currentTimeMillis();
+            if (queuedMessagesDrift != 0 || queuedDeadLetterMessagesDrift != 0) {
+                log.debug("[{}] Reconciled queued message counts. Queued messages drift: {}, Dead-letter messages drift: {}",
+                          queueName,
+                          queuedMessagesDrift,
+                          queuedDeadLetterMessagesDrift);
+            }
         }
 
-        private void setMessageCount(long messageCount) {
-            this._2.set(messageCount);
+        private boolean isFresh() {
+            var lastReconciledAtMillis = this.lastReconciledAtMillis;
+            return lastReconciledAtMillis > 0 && System.currentTimeMillis() - lastReconciledAtMillis < maxCountsAge.toMillis();
         }
-    }
 
+        private QueuedMessageCounts toQueuedMessageCounts() {
+            return new QueuedMessageCounts(queueName,
+                                           numberOfQueuedMessages.get(),
+                                           numberOfQueuedDeadLetterMessages.get());
+        }
+    }
 }
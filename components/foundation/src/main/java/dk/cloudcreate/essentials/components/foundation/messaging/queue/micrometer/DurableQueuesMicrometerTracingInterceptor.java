@@ -156,6 +156,25 @@ public final class DurableQueuesMicrometerTracingInterceptor implements DurableQ
         }
     }
 
+    @Override
+    public int intercept(AcknowledgeMessagesAsHandled operation, InterceptorChain<AcknowledgeMessagesAsHandled, Integer, DurableQueuesInterceptor> interceptorChain) {
+        if (verboseTracing) {
+            var result = Observation.createNotStarted("AcknowledgeMessagesAsHandled", observationRegistry)
+                                    .lowCardinalityKeyValue(QUEUE_NAME, operation.queueName.toString())
+                                    .highCardinalityKeyValue("numberOfMessages", Integer.toString(operation.queueEntryIds.size()))
+                                    .observe(() -> {
+                                        var numberOfMessagesAcknowledged = interceptorChain.proceed();
+                                        closeAnyActiveObservationScope();
+                                        return numberOfMessagesAcknowledged;
+                                    });
+            return result != null ? result : 0;
+        } else {
+            var result = interceptorChain.proceed();
+            closeAnyActiveObservationScope();
+            return result;
+        }
+    }
+
     @Override
     public boolean intercept(DeleteMessage operation, InterceptorChain<DeleteMessage, Boolean, DurableQueuesInterceptor> interceptorChain) {
         if (verboseTracing) {
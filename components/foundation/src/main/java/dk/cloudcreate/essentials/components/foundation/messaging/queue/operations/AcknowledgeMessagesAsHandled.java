@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.operations;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
+
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * Mark multiple messages, belonging to the same Queue, as acknowledged in a single round trip - this operation also deletes the messages from the Queue<br>
+ * Note this method MUST be called within an existing {@link UnitOfWork} IF
+ * using {@link TransactionalMode#FullyTransactional}<br>
+ * Operation also matches {@link DurableQueuesInterceptor#intercept(AcknowledgeMessagesAsHandled, InterceptorChain)}
+ */
+public final class AcknowledgeMessagesAsHandled {
+    /**
+     * the name of the Queue the messages belong to
+     */
+    public final QueueName                queueName;
+    /**
+     * the unique id's of the Messages to acknowledge
+     */
+    public final Collection<QueueEntryId> queueEntryIds;
+
+    /**
+     * Create a new builder that produces a new {@link AcknowledgeMessagesAsHandled} instance
+     *
+     * @return a new {@link AcknowledgeMessagesAsHandledBuilder} instance
+     */
+    public static AcknowledgeMessagesAsHandledBuilder builder() {
+        return new AcknowledgeMessagesAsHandledBuilder();
+    }
+
+    /**
+     * Mark multiple messages as acknowledged - this operation deletes the messages from the Queue<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}
+     *
+     * @param queueName     the name of the Queue the messages belong to
+     * @param queueEntryIds the unique id's of the Messages to acknowledge
+     */
+    public AcknowledgeMessagesAsHandled(QueueName queueName, Collection<QueueEntryId> queueEntryIds) {
+        this.queueName = requireNonNull(queueName, "No queueName provided");
+        this.queueEntryIds = requireNonNull(queueEntryIds, "No queueEntryIds provided");
+    }
+
+    /**
+     * @return the name of the Queue the messages belong to
+     */
+    public QueueName getQueueName() {
+        return queueName;
+    }
+
+    /**
+     * @return the unique id's of the Messages to acknowledge
+     */
+    public Collection<QueueEntryId> getQueueEntryIds() {
+        return queueEntryIds;
+    }
+
+    @Override
+    public String toString() {
+        return "AcknowledgeMessagesAsHandled{" +
+                "queueName=" + queueName +
+                ", queueEntryIds=" + queueEntryIds +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.operations;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+
+import java.util.*;
+
+/**
+ * Builder for {@link AcknowledgeMessagesAsHandled}
+ */
+public final class AcknowledgeMessagesAsHandledBuilder {
+    private QueueName                queueName;
+    private Collection<QueueEntryId> queueEntryIds = List.of();
+
+    /**
+     * @param queueName the name of the Queue the messages belong to
+     * @return this builder instance
+     */
+    public AcknowledgeMessagesAsHandledBuilder setQueueName(QueueName queueName) {
+        this.queueName = queueName;
+        return this;
+    }
+
+    /**
+     * @param queueEntryIds the unique id's of the Messages to acknowledge
+     * @return this builder instance
+     */
+    public AcknowledgeMessagesAsHandledBuilder setQueueEntryIds(Collection<QueueEntryId> queueEntryIds) {
+        this.queueEntryIds = queueEntryIds;
+        return this;
+    }
+
+    /**
+     * Builder an {@link AcknowledgeMessagesAsHandled} instance from the builder properties
+     * @return the {@link AcknowledgeMessagesAsHandled} instance
+     */
+    public AcknowledgeMessagesAsHandled build() {
+        return new AcknowledgeMessagesAsHandled(queueName, queueEntryIds);
+    }
+}
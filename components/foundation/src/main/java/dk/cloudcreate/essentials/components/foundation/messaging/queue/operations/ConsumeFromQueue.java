@@ -50,6 +50,10 @@ public final class ConsumeFromQueue {
     public final  QueuedMessageHandler               queueMessageHandler;
     private final int                                parallelConsumers;
     private       Optional<ScheduledExecutorService> consumerExecutorService = Optional.empty();
+    private       int                                maxMessagesPerPoll      = 1;
+    private       boolean                            eventDrivenWakeUp       = false;
+    private       Duration                           maxIdleWait;
+    private       DurableQueueConsumerRuntime        consumerRuntime;
 
     private final Duration pollingInterval;
 
@@ -171,6 +175,95 @@ public final class ConsumeFromQueue {
         this.redeliveryPolicy = requireNonNull(redeliveryPolicy, "No redeliveryPolicy provided");
     }
 
+    /**
+     * @return the maximum number of messages each parallel consumer claims per poll. Default is 1
+     * @see #setMaxMessagesPerPoll(int)
+     */
+    public int getMaxMessagesPerPoll() {
+        return maxMessagesPerPoll;
+    }
+
+    /**
+     * Set the maximum number of messages each parallel consumer claims per poll (using {@link DurableQueues#getNextMessagesReadyForDelivery(GetNextMessagesReadyForDelivery)}).<br>
+     * The claimed messages are handled one after another by the consumer thread and the successfully handled messages are acknowledged together using
+     * {@link DurableQueues#acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled)}, which reduces the number of round trips to the underlying queue storage.<br>
+     * Note:
+     * <ul>
+     *     <li>When using {@link TransactionalMode#FullyTransactional} all messages in a batch are handled within the same {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork}</li>
+     *     <li>When using {@link TransactionalMode#SingleOperationTransaction} the message handling timeout applies to the entire batch, since all messages are claimed at the same time</li>
+     *     <li>Trace contexts, stored in the {@link MessageMetaData}, aren't restored for messages delivered in a batch</li>
+     * </ul>
+     *
+     * @param maxMessagesPerPoll the maximum number of messages each parallel consumer claims per poll (must be &gt;= 1). Default is 1
+     */
+    public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
+        requireTrue(maxMessagesPerPoll >= 1, "maxMessagesPerPoll must be >= 1");
+        this.maxMessagesPerPoll = maxMessagesPerPoll;
+    }
+
+    /**
+     * @return true if idle consumer threads wait for a wake-up signal instead of polling the queue with a fixed rate. Default is false
+     * @see #setEventDrivenWakeUp(boolean)
+     */
+    public boolean isEventDrivenWakeUp() {
+        return eventDrivenWakeUp;
+    }
+
+    /**
+     * Enable or disable event-driven wake-up of the consumer threads.<br>
+     * By default each parallel consumer polls the queue using the {@link #getPollingInterval()} (optionally throttled by a {@link QueuePollingOptimizer}).<br>
+     * With event-driven wake-up each consumer thread keeps polling while messages are returned and when the queue is empty it blocks on a per-queue wake-up signal:
+     * <ul>
+     *     <li>Each {@link DurableQueueConsumerNotifications#messageAdded(QueuedMessage)} notification for a message that's ready for delivery wakes up at most one idle consumer thread</li>
+     *     <li>Messages with a future {@link QueuedMessage#getNextDeliveryTimestamp()} (e.g. delayed messages and redeliveries) wake up a consumer thread when they become ready for delivery.
+     *     The consumer periodically uses {@link DurableQueues#queryForMessagesSoonReadyForDelivery(QueueName, java.time.Instant, int)} to discover such messages</li>
+     *     <li>An idle consumer thread never waits longer than {@link #getMaxIdleWait()} before polling the queue, which covers lost or missing notifications</li>
+     * </ul>
+     * Note: Event-driven wake-up is intended for {@link DurableQueues} that deliver {@link DurableQueueConsumerNotifications}
+     * (such as the <code>PostgresqlDurableQueues</code> configured with a <code>MultiTableChangeListener</code> and the <code>MongoDurableQueues</code>).
+     * Without notifications messages are only picked up every {@link #getMaxIdleWait()}
+     *
+     * @param eventDrivenWakeUp true if idle consumer threads should wait for a wake-up signal instead of polling the queue with a fixed rate
+     */
+    public void setEventDrivenWakeUp(boolean eventDrivenWakeUp) {
+        this.eventDrivenWakeUp = eventDrivenWakeUp;
+    }
+
+    /**
+     * @return the maximum time an idle consumer thread waits for a wake-up signal before polling the queue (only used when {@link #isEventDrivenWakeUp()} is true).
+     * Default is 20 times the {@link #getPollingInterval()}
+     */
+    public Duration getMaxIdleWait() {
+        return maxIdleWait != null ? maxIdleWait : pollingInterval.multipliedBy(20);
+    }
+
+    /**
+     * @param maxIdleWait the maximum time an idle consumer thread waits for a wake-up signal before polling the queue (only used when {@link #isEventDrivenWakeUp()} is true).
+     *                    Default is 20 times the {@link #getPollingInterval()}
+     */
+    public void setMaxIdleWait(Duration maxIdleWait) {
+        this.maxIdleWait = requireNonNull(maxIdleWait, "No maxIdleWait provided");
+    }
+
+    /**
+     * @return the optional shared {@link DurableQueueConsumerRuntime} that runs the consumer and limits the number of concurrent message handlings
+     * @see #setConsumerRuntime(DurableQueueConsumerRuntime)
+     */
+    public Optional<DurableQueueConsumerRuntime> getConsumerRuntime() {
+        return Optional.ofNullable(consumerRuntime);
+    }
+
+    /**
+     * Run the consumer using a shared {@link DurableQueueConsumerRuntime} instead of a dedicated {@link ScheduledExecutorService}.<br>
+     * The runtime's {@link DurableQueueConsumerRuntime#getExecutorService()} takes precedence over {@link #getConsumerExecutorService()}
+     * and every poll requires a message handling permit from the runtime's global concurrency limiter
+     *
+     * @param consumerRuntime the shared {@link DurableQueueConsumerRuntime}
+     */
+    public void setConsumerRuntime(DurableQueueConsumerRuntime consumerRuntime) {
+        this.consumerRuntime = requireNonNull(consumerRuntime, "No consumerRuntime provided");
+    }
+
     /**
      * @return the name of the queue that the consumer will be listening for queued messages ready to be delivered to the {@link QueuedMessageHandler} provided
      */
@@ -209,6 +302,10 @@ public final class ConsumeFromQueue {
                 ", queueMessageHandler=" + queueMessageHandler +
                 ", parallelConsumers=" + parallelConsumers +
                 ", consumerExecutorService=" + consumerExecutorService +
+                ", maxMessagesPerPoll=" + maxMessagesPerPoll +
+                ", eventDrivenWakeUp=" + eventDrivenWakeUp +
+                ", maxIdleWait=" + getMaxIdleWait() +
+                ", consumerRuntime=" + consumerRuntime +
                 '}';
     }
 
@@ -222,5 +319,9 @@ public final class ConsumeFromQueue {
                     "parallelConsumers must be >= 1");
         requireTrue(pollingInterval.toMillis() >= 10,
                     "pollingInterval must be >= 10 ms");
+        requireTrue(maxMessagesPerPoll >= 1,
+                    "maxMessagesPerPoll must be >= 1");
+        requireTrue(getMaxIdleWait().toMillis() >= 10,
+                    "maxIdleWait must be >= 10 ms");
     }
 }
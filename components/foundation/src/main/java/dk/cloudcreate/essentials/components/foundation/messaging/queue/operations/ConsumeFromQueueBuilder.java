@@ -35,6 +35,10 @@ public final class ConsumeFromQueueBuilder {
     private Optional<ScheduledExecutorService> consumerExecutorService = Optional.empty();
     private Duration                           pollingInterval         = Duration.ofMillis(100);
     private QueuedMessageHandler               queueMessageHandler;
+    private int                                maxMessagesPerPoll      = 1;
+    private boolean                            eventDrivenWakeUp       = false;
+    private Duration                           maxIdleWait;
+    private DurableQueueConsumerRuntime        consumerRuntime;
 
     /**
      * @param queueName the name of the queue that the consumer will be listening for queued messages ready to be delivered to the {@link QueuedMessageHandler} provided
@@ -102,18 +106,68 @@ public final class ConsumeFromQueueBuilder {
         return this;
     }
 
+    /**
+     * @param maxMessagesPerPoll the maximum number of messages each parallel consumer claims per poll. Default is 1<br>
+     *                           See {@link ConsumeFromQueue#setMaxMessagesPerPoll(int)}
+     * @return this builder instance
+     */
+    public ConsumeFromQueueBuilder setMaxMessagesPerPoll(int maxMessagesPerPoll) {
+        this.maxMessagesPerPoll = maxMessagesPerPoll;
+        return this;
+    }
+
+    /**
+     * @param eventDrivenWakeUp true if idle consumer threads should wait for a wake-up signal instead of polling the queue with a fixed rate. Default is false<br>
+     *                          See {@link ConsumeFromQueue#setEventDrivenWakeUp(boolean)}
+     * @return this builder instance
+     */
+    public ConsumeFromQueueBuilder setEventDrivenWakeUp(boolean eventDrivenWakeUp) {
+        this.eventDrivenWakeUp = eventDrivenWakeUp;
+        return this;
+    }
+
+    /**
+     * @param maxIdleWait the maximum time an idle consumer thread waits for a wake-up signal before polling the queue (only used with event-driven wake-up).
+     *                    Default is 20 times the polling interval<br>
+     *                    See {@link ConsumeFromQueue#setMaxIdleWait(Duration)}
+     * @return this builder instance
+     */
+    public ConsumeFromQueueBuilder setMaxIdleWait(Duration maxIdleWait) {
+        this.maxIdleWait = maxIdleWait;
+        return this;
+    }
+
+    /**
+     * @param consumerRuntime the shared {@link DurableQueueConsumerRuntime} that runs the consumer and limits the number of concurrent message handlings<br>
+     *                        See {@link ConsumeFromQueue#setConsumerRuntime(DurableQueueConsumerRuntime)}
+     * @return this builder instance
+     */
+    public ConsumeFromQueueBuilder setConsumerRuntime(DurableQueueConsumerRuntime consumerRuntime) {
+        this.consumerRuntime = consumerRuntime;
+        return this;
+    }
+
     /**
      * Builder an {@link ConsumeFromQueue} instance from the builder properties
      *
      * @return the {@link ConsumeFromQueue} instance
      */
     public ConsumeFromQueue build() {
-        return new ConsumeFromQueue(consumerName,
-                                    queueName,
-                                    redeliveryPolicy,
-                                    parallelConsumers,
-                                    consumerExecutorService,
-                                    queueMessageHandler,
-                                    pollingInterval);
+        var consumeFromQueue = new ConsumeFromQueue(consumerName,
+                                                    queueName,
+                                                    redeliveryPolicy,
+                                                    parallelConsumers,
+                                                    consumerExecutorService,
+                                                    queueMessageHandler,
+                                                    pollingInterval);
+        consumeFromQueue.setMaxMessagesPerPoll(maxMessagesPerPoll);
+        consumeFromQueue.setEventDrivenWakeUp(eventDrivenWakeUp);
+        if (maxIdleWait != null) {
+            consumeFromQueue.setMaxIdleWait(maxIdleWait);
+        }
+        if (consumerRuntime != null) {
+            consumeFromQueue.setConsumerRuntime(consumerRuntime);
+        }
+        return consumeFromQueue;
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.operations;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
+
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Query (and claim) up to {@link #maxNumberOfMessages} Queued Messages (i.e. not including Dead Letter Messages) that are ready to be delivered to a {@link DurableQueueConsumer}
+ * in a single round trip<br>
+ * For {@link OrderedMessage}'s at most one message per {@link OrderedMessage#getKey()} is returned (the message with the lowest {@link OrderedMessage#getOrder()}),
+ * which ensures that the messages in the batch can be handled one after another without violating the per key ordering<br>
+ * Note this method MUST be called within an existing {@link UnitOfWork} IF
+ * using {@link TransactionalMode#FullyTransactional}<br>
+ * Operation also matches {@link DurableQueuesInterceptor#intercept(GetNextMessagesReadyForDelivery, InterceptorChain)}
+ */
+public final class GetNextMessagesReadyForDelivery {
+    /**
+     * the name of the Queue where we will query for the next messages ready for delivery
+     */
+    public final  QueueName          queueName;
+    /**
+     * the maximum number of messages to return
+     */
+    public final  int                maxNumberOfMessages;
+    private final Collection<String> excludeOrderedMessagesWithKey;
+
+    /**
+     * Create a new builder that produces a new {@link GetNextMessagesReadyForDelivery} instance
+     *
+     * @return a new {@link GetNextMessagesReadyForDeliveryBuilder} instance
+     */
+    public static GetNextMessagesReadyForDeliveryBuilder builder() {
+        return new GetNextMessagesReadyForDeliveryBuilder();
+    }
+
+    /**
+     * Query (and claim) up to <code>maxNumberOfMessages</code> Queued Messages (i.e. not including Dead Letter Messages) that are ready to be delivered to a {@link DurableQueueConsumer}<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}
+     *
+     * @param queueName           the name of the Queue where we will query for the next messages ready for delivery
+     * @param maxNumberOfMessages the maximum number of messages to return (must be &gt;= 1)
+     */
+    public GetNextMessagesReadyForDelivery(QueueName queueName, int maxNumberOfMessages) {
+        this(queueName, maxNumberOfMessages, List.of());
+    }
+
+    /**
+     * Query (and claim) up to <code>maxNumberOfMessages</code> Queued Messages (i.e. not including Dead Letter Messages) that are ready to be delivered to a {@link DurableQueueConsumer}<br>
+     * Note this method MUST be called within an existing {@link UnitOfWork} IF
+     * using {@link TransactionalMode#FullyTransactional}
+     *
+     * @param queueName                     the name of the Queue where we will query for the next messages ready for delivery
+     * @param maxNumberOfMessages           the maximum number of messages to return (must be &gt;= 1)
+     * @param excludeOrderedMessagesWithKey collection of {@link OrderedMessage#getKey()}'s to exclude in the search for the next messages
+     */
+    public GetNextMessagesReadyForDelivery(QueueName queueName, int maxNumberOfMessages, Collection<String> excludeOrderedMessagesWithKey) {
+        this.queueName = requireNonNull(queueName, "No queueName provided");
+        requireTrue(maxNumberOfMessages >= 1, "maxNumberOfMessages must be >= 1");
+        this.maxNumberOfMessages = maxNumberOfMessages;
+        this.excludeOrderedMessagesWithKey = requireNonNull(excludeOrderedMessagesWithKey, "No excludeOrderedMessagesWithKey collection provided");
+    }
+
+    /**
+     * @return the name of the Queue where we will query for the next messages ready for delivery
+     */
+    public QueueName getQueueName() {
+        return queueName;
+    }
+
+    /**
+     * @return the maximum number of messages to return
+     */
+    public int getMaxNumberOfMessages() {
+        return maxNumberOfMessages;
+    }
+
+    /**
+     * @return collection of {@link OrderedMessage#getKey()}'s to exclude in the search for the next messages
+     */
+    public Collection<String> getExcludeOrderedMessagesWithKey() {
+        return excludeOrderedMessagesWithKey;
+    }
+
+    @Override
+    public String toString() {
+        return "GetNextMessagesReadyForDelivery{" +
+                "queueName=" + queueName +
+                ", maxNumberOfMessages=" + maxNumberOfMessages +
+                ", excludeOrderedMessagesWithKey=" + excludeOrderedMessagesWithKey +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.operations;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+
+import java.util.*;
+
+/**
+ * Builder for {@link GetNextMessagesReadyForDelivery}
+ */
+public final class GetNextMessagesReadyForDeliveryBuilder {
+    private QueueName          queueName;
+    private int                maxNumberOfMessages           = 1;
+    private Collection<String> excludeOrderedMessagesWithKey = List.of();
+
+    /**
+     * @param queueName the name of the Queue where we will query for the next messages ready for delivery
+     * @return this builder instance
+     */
+    public GetNextMessagesReadyForDeliveryBuilder setQueueName(QueueName queueName) {
+        this.queueName = queueName;
+        return this;
+    }
+
+    /**
+     * @param maxNumberOfMessages the maximum number of messages to return (must be &gt;= 1)
+     * @return this builder instance
+     */
+    public GetNextMessagesReadyForDeliveryBuilder setMaxNumberOfMessages(int maxNumberOfMessages) {
+        this.maxNumberOfMessages = maxNumberOfMessages;
+        return this;
+    }
+
+    /**
+     * @param excludeOrderedMessagesWithKey collection of {@link OrderedMessage#getKey()}'s to exclude in the search for the next messages
+     * @return this builder instance
+     */
+    public GetNextMessagesReadyForDeliveryBuilder setExcludeOrderedMessagesWithKey(Collection<String> excludeOrderedMessagesWithKey) {
+        this.excludeOrderedMessagesWithKey = excludeOrderedMessagesWithKey;
+        return this;
+    }
+
+    /**
+     * Builder an {@link GetNextMessagesReadyForDelivery} instance from the builder properties
+     *
+     * @return the {@link GetNextMessagesReadyForDelivery} instance
+     */
+    public GetNextMessagesReadyForDelivery build() {
+        return new GetNextMessagesReadyForDelivery(queueName,
+                                                   maxNumberOfMessages,
+                                                   excludeOrderedMessagesWithKey);
+    }
+}
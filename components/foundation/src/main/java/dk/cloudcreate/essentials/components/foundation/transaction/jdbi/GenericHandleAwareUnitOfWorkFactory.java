@@ -168,6 +168,8 @@ public abstract class GenericHandleAwareUnitOfWorkFactory<UOW extends HandleAwar
 
                 beforeCommitting();
 
+                // close() clears the registered resources, so keep a copy for the afterCommit callbacks
+                var callbackResources = new LinkedHashMap<>(unitOfWorkLifecycleCallbackResources);
                 log.trace("Committing Managed UnitOfWork");
                 try {
                     handle.commit();
@@ -178,7 +180,7 @@ public abstract class GenericHandleAwareUnitOfWorkFactory<UOW extends HandleAwar
                     unitOfWorkFactory.removeUnitOfWork();
                 }
                 status = UnitOfWorkStatus.Committed;
-                unitOfWorkLifecycleCallbackResources.forEach((key, resources) -> {
+                callbackResources.forEach((key, resources) -> {
                     try {
                         log.trace("AfterCommit: Calling {} with {} associated resource(s)",
                                   key.getClass().getName(),
@@ -231,9 +233,11 @@ public abstract class GenericHandleAwareUnitOfWorkFactory<UOW extends HandleAwar
                     // Ignore
                 }
                 status = UnitOfWorkStatus.RolledBack;
+                // close() clears the registered resources, so keep a copy for the afterRollback callbacks
+                var callbackResources = new LinkedHashMap<>(unitOfWorkLifecycleCallbackResources);
                 close();
 
-                unitOfWorkLifecycleCallbackResources.entrySet().forEach(unitOfWorkLifecycleCallbackListEntry -> {
+                callbackResources.entrySet().forEach(unitOfWorkLifecycleCallbackListEntry -> {
                     try {
                         log.trace("AfterRollback: Calling {} with {} associated resource(s)",
                                   unitOfWorkLifecycleCallbackListEntry.getKey().getClass().getName(),
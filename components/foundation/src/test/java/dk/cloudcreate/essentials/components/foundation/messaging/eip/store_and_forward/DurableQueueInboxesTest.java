@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.time.Duration;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -193,4 +194,34 @@ class DurableQueueInboxesTest {
         verify(durableQueues).queueMessage(eq(inboxName.asQueueName()),
                                            eq(testMessage));
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_addMessagesReceived_as_a_single_bulk_operation() {
+        // Given
+        var durableQueues     = mock(DurableQueues.class);
+        var fencedLockManager = mock(FencedLockManager.class);
+        var inboxes = Inboxes.durableQueueBasedInboxes(durableQueues,
+                                                       fencedLockManager);
+
+        var inboxName = InboxName.of("test");
+        var inbox = inboxes.getOrCreateInbox(
+                InboxConfig.builder()
+                           .inboxName(inboxName)
+                           .redeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(1), 3))
+                           .messageConsumptionMode(MessageConsumptionMode.GlobalCompetingConsumers)
+                           .build(),
+                o -> {
+                });
+
+        // When
+        var messages = List.of(OrderedMessage.of("Test message 1", "key", 0),
+                               OrderedMessage.of("Test message 2", "key", 1));
+        inbox.addMessagesReceived(messages);
+
+        // Then
+        verify(durableQueues).queueMessages(eq(inboxName.asQueueName()),
+                                            eq(messages),
+                                            eq(Optional.empty()));
+        verify(durableQueues, never()).queueMessage(any(), any(Message.class));
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.time.Duration;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -190,4 +191,35 @@ class DurableQueueOutboxesTest {
         verify(durableQueues).queueMessage(eq(outboxName.asQueueName()),
                                            eq(Message.of("Test message")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_sendMessages() {
+        // Given
+        var durableQueues     = mock(DurableQueues.class);
+        var fencedLockManager = mock(FencedLockManager.class);
+        var outboxes = Outboxes.durableQueueBasedOutboxes(durableQueues,
+                                                          fencedLockManager);
+
+        var outboxName = OutboxName.of("test");
+        var outbox = outboxes.getOrCreateOutbox(
+                OutboxConfig.builder()
+                            .setOutboxName(outboxName)
+                            .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(1), 3))
+                            .setMessageConsumptionMode(MessageConsumptionMode.GlobalCompetingConsumers)
+                            .build(),
+                o -> {
+                });
+
+        // When
+        var messages = List.of(Message.of("Test message 1"),
+                               Message.of("Test message 2"));
+        outbox.sendMessages(messages, Duration.ofSeconds(1));
+        outbox.sendMessages(List.of());
+
+        // Then
+        verify(durableQueues).queueMessages(eq(outboxName.asQueueName()),
+                                            eq(messages),
+                                            eq(Optional.of(Duration.ofSeconds(1))));
+        verify(durableQueues, times(1)).queueMessages(any(QueueName.class), anyList(), any(Optional.class));
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.RedeliveryPolicy;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
+import dk.cloudcreate.essentials.components.foundation.transaction.*;
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DefaultDurableQueueConsumerTest {
+    private static final QueueName QUEUE_NAME = QueueName.of("TestQueue");
+
+    private DurableQueues                                                                                 durableQueues;
+    private DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>> consumer;
+
+    @BeforeEach
+    void setup() {
+        durableQueues = mock(DurableQueues.class);
+        when(durableQueues.getTransactionalMode()).thenReturn(TransactionalMode.SingleOperationTransaction);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (consumer != null) {
+            consumer.stop();
+        }
+    }
+
+    @Test
+    void claims_a_batch_of_messages_and_acknowledges_the_handled_messages_in_bulk() {
+        var message1 = queuedMessage("Message1");
+        var message2 = queuedMessage("Message2");
+        var message3 = queuedMessage("Message3");
+        when(durableQueues.getNextMessagesReadyForDelivery(any(GetNextMessagesReadyForDelivery.class)))
+                .thenReturn(List.of(message1, message2, message3))
+                .thenReturn(List.of());
+
+        var handledPayloads = Collections.synchronizedList(new ArrayList<>());
+        var consumeFromQueue = ConsumeFromQueue.builder()
+                                               .setQueueName(QUEUE_NAME)
+                                               .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                               .setParallelConsumers(1)
+                                               .setPollingInterval(Duration.ofMillis(10))
+                                               .setMaxMessagesPerPoll(3)
+                                               .setQueueMessageHandler(queuedMessage -> {
+                                                   if (queuedMessage == message2) {
+                                                       throw new IllegalStateException("Handling failed");
+                                                   }
+                                                   handledPayloads.add(queuedMessage.getPayload());
+                                               })
+                                               .build();
+        consumer = new DefaultDurableQueueConsumer<>(consumeFromQueue,
+                                                     null,
+                                                     durableQueues,
+                                                     durableQueueConsumer -> {
+                                                     },
+                                                     10,
+                                                     null) {
+        };
+
+        consumer.start();
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues).acknowledgeMessagesAsHandled(argThat((AcknowledgeMessagesAsHandled operation) ->
+                                                                                                       operation.queueName.equals(QUEUE_NAME) &&
+                                                                                                               operation.queueEntryIds.equals(List.of(message1.getId(), message3.getId())))));
+        assertThat(handledPayloads).containsExactly("Message1", "Message3");
+        verify(durableQueues).retryMessage(eq(message2.getId()), any(Exception.class), any(Duration.class));
+        verify(durableQueues, never()).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class));
+        verify(durableQueues, never()).acknowledgeMessageAsHandled(any(QueueEntryId.class));
+    }
+
+    @Test
+    void skips_the_claimed_messages_whose_message_handling_timeout_expired_before_they_could_be_handled() {
+        var message1 = queuedMessage("Message1");
+        var message2 = queuedMessage("Message2");
+        when(durableQueues.getMessageHandlingTimeout()).thenReturn(Optional.of(Duration.ofMillis(200)));
+        when(durableQueues.getNextMessagesReadyForDelivery(any(GetNextMessagesReadyForDelivery.class)))
+                .thenReturn(List.of(message1, message2))
+                .thenReturn(List.of());
+
+        var handledPayloads = Collections.synchronizedList(new ArrayList<>());
+        var consumeFromQueue = ConsumeFromQueue.builder()
+                                               .setQueueName(QUEUE_NAME)
+                                               .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                               .setParallelConsumers(1)
+                                               .setPollingInterval(Duration.ofMillis(10))
+                                               .setMaxMessagesPerPoll(2)
+                                               .setQueueMessageHandler(queuedMessage -> {
+                                                   handledPayloads.add(queuedMessage.getPayload());
+                                                   try {
+                                                       Thread.sleep(300);
+                                                   } catch (InterruptedException e) {
+                                                       Thread.currentThread().interrupt();
+                                                   }
+                                               })
+                                               .build();
+        consumer = newConsumer(consumeFromQueue);
+
+        consumer.start();
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues).acknowledgeMessagesAsHandled(argThat((AcknowledgeMessagesAsHandled operation) ->
+                                                                                                       operation.queueEntryIds.equals(List.of(message1.getId())))));
+        assertThat(handledPayloads).containsExactly("Message1");
+        verify(durableQueues, never()).retryMessage(eq(message2.getId()), any(Exception.class), any(Duration.class));
+        verify(durableQueues, never()).markAsDeadLetterMessage(eq(message2.getId()), any(Exception.class));
+    }
+
+    @Test
+    void event_driven_consumer_only_polls_the_queue_when_woken_up() {
+        var message = queuedMessage("Message1");
+        when(durableQueues.getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)))
+                .thenReturn(Optional.empty());
+
+        var handledPayloads = Collections.synchronizedList(new ArrayList<>());
+        consumer = newConsumer(ConsumeFromQueue.builder()
+                                               .setQueueName(QUEUE_NAME)
+                                               .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                               .setParallelConsumers(2)
+                                               .setPollingInterval(Duration.ofMillis(10))
+                                               .setEventDrivenWakeUp(true)
+                                               .setMaxIdleWait(Duration.ofMinutes(1))
+                                               .setQueueMessageHandler(queuedMessage -> handledPayloads.add(queuedMessage.getPayload()))
+                                               .build());
+        consumer.start();
+
+        // Both consumer threads poll once after being started and then wait for a wake-up signal
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues, times(2)).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)));
+        await().during(Duration.ofMillis(200))
+               .atMost(Duration.ofSeconds(1))
+               .untilAsserted(() -> verify(durableQueues, times(2)).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)));
+
+        // A single ready message only wakes up a single consumer thread, which polls until the queue is empty
+        doReturn(Optional.of(message), Optional.empty())
+                .when(durableQueues).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class));
+        consumer.messageAdded(new DefaultQueuedMessage(message.getId(),
+                                                       QUEUE_NAME,
+                                                       message.getMessage(),
+                                                       OffsetDateTime.now(),
+                                                       OffsetDateTime.now(),
+                                                       null,
+                                                       null,
+                                                       0,
+                                                       0,
+                                                       false,
+                                                       false));
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> assertThat(handledPayloads).containsExactly("Message1"));
+        verify(durableQueues).acknowledgeMessageAsHandled(message.getId());
+        await().during(Duration.ofMillis(200))
+               .atMost(Duration.ofSeconds(1))
+               .untilAsserted(() -> verify(durableQueues, times(4)).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)));
+    }
+
+    @Test
+    void event_driven_consumer_is_woken_up_when_a_delayed_message_is_ready_for_delivery() {
+        var message = queuedMessage("Message1");
+        when(durableQueues.getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(message))
+                .thenReturn(Optional.empty());
+        var delayedMessage = new NextQueuedMessage(message.getId(),
+                                                   QUEUE_NAME,
+                                                   Instant.now(),
+                                                   Instant.now().plusMillis(500));
+        when(durableQueues.queryForMessagesSoonReadyForDelivery(eq(QUEUE_NAME), any(Instant.class), anyInt()))
+                .thenReturn(List.of(delayedMessage))
+                .thenReturn(List.of());
+
+        var handledTimestamps = Collections.synchronizedList(new ArrayList<Instant>());
+        consumer = newConsumer(ConsumeFromQueue.builder()
+                                               .setQueueName(QUEUE_NAME)
+                                               .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                               .setParallelConsumers(1)
+                                               .setPollingInterval(Duration.ofMillis(10))
+                                               .setEventDrivenWakeUp(true)
+                                               .setMaxIdleWait(Duration.ofMinutes(1))
+                                               .setQueueMessageHandler(queuedMessage -> handledTimestamps.add(Instant.now()))
+                                               .build());
+        consumer.start();
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> assertThat(handledTimestamps).hasSize(1));
+        assertThat(handledTimestamps.get(0)).isAfterOrEqualTo(delayedMessage.nextDeliveryTimestamp);
+        // Polled once after being started, then woken up by the timer and polled until the queue was empty
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues, times(3)).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)));
+    }
+
+    @Test
+    void default_getNextMessagesReadyForDelivery_excludes_the_keys_of_already_claimed_ordered_messages() {
+        var durableQueues  = mock(DurableQueues.class, CALLS_REAL_METHODS);
+        var orderedMessage = queuedMessage(OrderedMessage.of("Payload1", "Key1", 0));
+        var message        = queuedMessage(Message.of("Payload2"));
+        doReturn(Optional.of(orderedMessage), Optional.of(message), Optional.empty())
+                .when(durableQueues).getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class));
+
+        var messages = durableQueues.getNextMessagesReadyForDelivery(new GetNextMessagesReadyForDelivery(QUEUE_NAME, 5, List.of("Key0")));
+
+        assertThat(messages).containsExactly(orderedMessage, message);
+        var operations = mockingDetails(durableQueues).getInvocations()
+                                                      .stream()
+                                                      .flatMap(invocation -> Arrays.stream(invocation.getArguments()))
+                                                      .filter(GetNextMessageReadyForDelivery.class::isInstance)
+                                                      .map(GetNextMessageReadyForDelivery.class::cast)
+                                                      .toList();
+        assertThat(operations).hasSize(3);
+        assertThat(operations.get(0).getExcludeOrderedMessagesWithKey()).containsExactly("Key0");
+        assertThat(operations.get(1).getExcludeOrderedMessagesWithKey()).containsExactlyInAnyOrder("Key0", "Key1");
+    }
+
+    private DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>> newConsumer(ConsumeFromQueue consumeFromQueue) {
+        return new DefaultDurableQueueConsumer<>(consumeFromQueue,
+                                                 null,
+                                                 durableQueues,
+                                                 durableQueueConsumer -> {
+                                                 },
+                                                 consumeFromQueue.getPollingInterval().toMillis(),
+                                                 null) {
+        };
+    }
+
+    private static QueuedMessage queuedMessage(String payload) {
+        return queuedMessage(Message.of(payload));
+    }
+
+    private static QueuedMessage queuedMessage(Message message) {
+        return new DefaultQueuedMessage(QueueEntryId.random(),
+                                        QUEUE_NAME,
+                                        message,
+                                        OffsetDateTime.now(),
+                                        null,
+                                        OffsetDateTime.now(),
+                                        null,
+                                        1,
+                                        0,
+                                        false,
+                                        true);
+    }
+}
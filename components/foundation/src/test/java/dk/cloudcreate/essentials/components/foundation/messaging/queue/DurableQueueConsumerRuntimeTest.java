@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.RedeliveryPolicy;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
+import dk.cloudcreate.essentials.components.foundation.transaction.*;
+import org.junit.jupiter.api.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DurableQueueConsumerRuntimeTest {
+    private DurableQueues                                                                          durableQueues;
+    private DurableQueueConsumerRuntime                                                            consumerRuntime;
+    private List<DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>>> consumers;
+
+    @BeforeEach
+    void setup() {
+        durableQueues = mock(DurableQueues.class);
+        when(durableQueues.getTransactionalMode()).thenReturn(TransactionalMode.SingleOperationTransaction);
+        consumerRuntime = DurableQueueConsumerRuntime.create("TestRuntime", 8, 2);
+        consumers = new ArrayList<>();
+    }
+
+    @AfterEach
+    void cleanup() {
+        consumers.forEach(DefaultDurableQueueConsumer::stop);
+        consumerRuntime.shutdown();
+    }
+
+    @Test
+    void concurrent_message_handling_is_limited_across_all_consumers_using_the_runtime() {
+        when(durableQueues.getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class)))
+                .thenAnswer(invocation -> {
+                    GetNextMessageReadyForDelivery operation = invocation.getArgument(0);
+                    return Optional.of(queuedMessage(operation.queueName));
+                });
+
+        var inFlight        = new AtomicInteger();
+        var maxInFlight     = new AtomicInteger();
+        var handledMessages = new AtomicInteger();
+        QueuedMessageHandler messageHandler = queuedMessage -> {
+            var current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                handledMessages.incrementAndGet();
+            }
+        };
+        for (var i = 0; i < 5; i++) {
+            consumers.add(startConsumer(QueueName.of("Queue" + i), 2, messageHandler));
+        }
+
+        await().atMost(Duration.ofSeconds(5))
+               .until(() -> handledMessages.get() >= 20);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(consumerRuntime.getMaxConcurrentMessageHandling());
+    }
+
+    @Test
+    void stopping_a_consumer_does_not_shutdown_the_shared_executor() {
+        when(durableQueues.getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class))).thenReturn(Optional.empty());
+        var consumer1 = startConsumer(QueueName.of("Queue1"), 1, queuedMessage -> {
+        });
+        var consumer2 = startConsumer(QueueName.of("Queue2"), 1, queuedMessage -> {
+        });
+        consumers.add(consumer2);
+
+        consumer1.stop();
+
+        assertThat(consumerRuntime.getExecutorService().isShutdown()).isFalse();
+        clearInvocations(durableQueues);
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues, atLeastOnce()).getNextMessageReadyForDelivery(argThat((GetNextMessageReadyForDelivery operation) -> operation.queueName.equals(QueueName.of("Queue2")))));
+        await().during(Duration.ofMillis(200))
+               .atMost(Duration.ofSeconds(1))
+               .untilAsserted(() -> verify(durableQueues, never()).getNextMessageReadyForDelivery(argThat((GetNextMessageReadyForDelivery operation) -> operation.queueName.equals(QueueName.of("Queue1")))));
+    }
+
+    @Test
+    void event_driven_consumers_do_not_starve_the_polling_consumers() {
+        consumerRuntime.shutdown();
+        consumerRuntime = DurableQueueConsumerRuntime.create("TestRuntime", 1, 2);
+        when(durableQueues.getNextMessageReadyForDelivery(any(GetNextMessageReadyForDelivery.class))).thenReturn(Optional.empty());
+        // More blocking event-driven consumer loops than the runtime has scheduler threads
+        for (var i = 0; i < 4; i++) {
+            consumers.add(startConsumer(ConsumeFromQueue.builder()
+                                                        .setQueueName(QueueName.of("EventDrivenQueue" + i))
+                                                        .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                                        .setParallelConsumers(2)
+                                                        .setPollingInterval(Duration.ofMillis(10))
+                                                        .setEventDrivenWakeUp(true)
+                                                        .setMaxIdleWait(Duration.ofSeconds(10))
+                                                        .setConsumerRuntime(consumerRuntime)
+                                                        .setQueueMessageHandler(queuedMessage -> {
+                                                        })
+                                                        .build()));
+        }
+        consumers.add(startConsumer(QueueName.of("PollingQueue"), 1, queuedMessage -> {
+        }));
+
+        clearInvocations(durableQueues);
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> verify(durableQueues, atLeast(5)).getNextMessageReadyForDelivery(argThat((GetNextMessageReadyForDelivery operation) -> operation.queueName.equals(QueueName.of("PollingQueue")))));
+    }
+
+    private DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>> startConsumer(QueueName queueName,
+                                                                                                                int parallelConsumers,
+                                                                                                                QueuedMessageHandler messageHandler) {
+        var consumeFromQueue = ConsumeFromQueue.builder()
+                                               .setQueueName(queueName)
+                                               .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 5))
+                                               .setParallelConsumers(parallelConsumers)
+                                               .setPollingInterval(Duration.ofMillis(10))
+                                               .setConsumerRuntime(consumerRuntime)
+                                               .setQueueMessageHandler(messageHandler)
+                                               .build();
+        return startConsumer(consumeFromQueue);
+    }
+
+    private DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>> startConsumer(ConsumeFromQueue consumeFromQueue) {
+        var consumer = new DefaultDurableQueueConsumer<DurableQueues, UnitOfWork, UnitOfWorkFactory<UnitOfWork>>(consumeFromQueue,
+                                                                                                                  null,
+                                                                                                                  durableQueues,
+                                                                                                                  durableQueueConsumer -> {
+                                                                                                                  },
+                                                                                                                  10,
+                                                                                                                  null) {
+        };
+        consumer.start();
+        return consumer;
+    }
+
+    private static QueuedMessage queuedMessage(QueueName queueName) {
+        return new DefaultQueuedMessage(QueueEntryId.random(),
+                                        queueName,
+                                        Message.of("Payload"),
+                                        OffsetDateTime.now(),
+                                        null,
+                                        OffsetDateTime.now(),
+                                        null,
+                                        1,
+                                        0,
+                                        false,
+                                        true);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.QueueName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MessagePayloadCodecsTest {
+    private static final QueueName COMMAND_QUEUE = QueueName.of("CommandQueue");
+    private static final QueueName EVENT_QUEUE   = QueueName.of("EventQueue");
+
+    private final JacksonMessagePayloadCodec smileCodec = new JacksonMessagePayloadCodec("smile", new ObjectMapper(new SmileFactory()));
+
+    @Test
+    void jackson_codec_roundtrips_the_payload() {
+        var payload = new TestPayload("order-1", 42);
+
+        var encodedPayload = smileCodec.encode(payload);
+
+        assertThat(smileCodec.decode(encodedPayload, TestPayload.class)).isEqualTo(payload);
+    }
+
+    @Test
+    void compressing_codec_only_compresses_payloads_above_the_threshold() {
+        var codec        = new CompressingMessagePayloadCodec(smileCodec, 100);
+        var smallPayload = new TestPayload("order-1", 1);
+        var largePayload = new TestPayload("order-".repeat(100), 2);
+
+        var encodedSmallPayload = codec.encode(smallPayload);
+        var encodedLargePayload = codec.encode(largePayload);
+
+        assertThat(codec.getEncoding()).isEqualTo("smile+gzip");
+        assertThat(encodedSmallPayload.length).isEqualTo(smileCodec.encode(smallPayload).length + 1);
+        assertThat(encodedLargePayload.length).isLessThan(smileCodec.encode(largePayload).length);
+        assertThat(codec.decode(encodedSmallPayload, TestPayload.class)).isEqualTo(smallPayload);
+        assertThat(codec.decode(encodedLargePayload, TestPayload.class)).isEqualTo(largePayload);
+    }
+
+    @Test
+    void resolves_codecs_per_queue_and_per_encoding() {
+        var compressingCodec = new CompressingMessagePayloadCodec(smileCodec);
+        var codecs = MessagePayloadCodecs.withDefaultCodec(smileCodec)
+                                         .useCodecForQueue(COMMAND_QUEUE, compressingCodec)
+                                         .useJsonForQueue(EVENT_QUEUE);
+
+        assertThat(codecs.getCodecFor(COMMAND_QUEUE)).containsSame(compressingCodec);
+        assertThat(codecs.getCodecFor(EVENT_QUEUE)).isEmpty();
+        assertThat(codecs.getCodecFor(QueueName.of("OtherQueue"))).containsSame(smileCodec);
+        assertThat(MessagePayloadCodecs.jsonByDefault().getCodecFor(COMMAND_QUEUE)).isEmpty();
+
+        assertThat(codecs.getCodecForEncoding("smile")).isSameAs(smileCodec);
+        assertThat(codecs.getCodecForEncoding("smile+gzip")).isSameAs(compressingCodec);
+        assertThatThrownBy(() -> codecs.getCodecForEncoding("cbor")).isInstanceOf(MessagePayloadCodecException.class);
+    }
+
+    public record TestPayload(String orderId, int amount) {
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.foundation.messaging.queue.micrometer;
+
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
+import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DurableQueuesMicrometerInterceptorTest {
+    private static final QueueName QUEUE_NAME = QueueName.of("TestQueue");
+
+    private SimpleMeterRegistry                meterRegistry;
+    private DurableQueues                      durableQueues;
+    private DurableQueuesMicrometerInterceptor interceptor;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        durableQueues = mock(DurableQueues.class);
+        when(durableQueues.getQueueNames()).thenReturn(Set.of());
+        interceptor = new DurableQueuesMicrometerInterceptor(meterRegistry, "test", Duration.ofMinutes(10), Duration.ofMinutes(10));
+        interceptor.setDurableQueues(durableQueues);
+    }
+
+    @AfterEach
+    void cleanup() {
+        interceptor.shutdown();
+    }
+
+    @Test
+    void gauges_are_maintained_from_deltas_after_reconciliation() {
+        InterceptorChain<GetQueuedMessageCountsFor, QueuedMessageCounts, DurableQueuesInterceptor> countsChain = chainReturning(new QueuedMessageCounts(QUEUE_NAME, 5, 1));
+        assertThat(interceptor.intercept(new GetQueuedMessageCountsFor(QUEUE_NAME), countsChain)).isEqualTo(new QueuedMessageCounts(QUEUE_NAME, 5, 1));
+        assertGauges(5, 1);
+
+        interceptor.intercept(new QueueMessage(QUEUE_NAME, Message.of("Test"), Optional.empty(), Optional.empty()),
+                              chainReturning(QueueEntryId.random()));
+        assertGauges(6, 1);
+
+        var queuedMessage = queuedMessage();
+        interceptor.intercept(new MarkAsDeadLetterMessage(queuedMessage.getId(), new RuntimeException("Test")),
+                              chainReturning(Optional.of(queuedMessage)));
+        assertGauges(5, 2);
+
+        interceptor.intercept(new AcknowledgeMessagesAsHandled(QUEUE_NAME, List.of(QueueEntryId.random(), QueueEntryId.random())),
+                              chainReturning(2));
+        assertGauges(3, 2);
+
+        interceptor.intercept(new ResurrectDeadLetterMessage(queuedMessage.getId(), Duration.ZERO),
+                              chainReturning(Optional.of(queuedMessage)));
+        assertGauges(4, 1);
+
+        // Fresh counts are served from memory
+        assertThat(interceptor.intercept(new GetQueuedMessageCountsFor(QUEUE_NAME), countsChain)).isEqualTo(new QueuedMessageCounts(QUEUE_NAME, 4, 1));
+        verify(countsChain, times(1)).proceed();
+
+        interceptor.intercept(new PurgeQueue(QUEUE_NAME), chainReturning(5));
+        assertGauges(0, 0);
+        verify(durableQueues, never()).getQueuedMessageCountsFor(any(QueueName.class));
+    }
+
+    @Test
+    void deleting_a_message_being_delivered_doesnt_query_the_queue_name() {
+        interceptor.intercept(new GetQueuedMessageCountsFor(QUEUE_NAME), chainReturning(new QueuedMessageCounts(QUEUE_NAME, 2, 0)));
+        var queuedMessage = queuedMessage();
+        interceptor.intercept(new GetNextMessageReadyForDelivery(QUEUE_NAME), chainReturning(Optional.of(queuedMessage)));
+
+        interceptor.intercept(new DeleteMessage(queuedMessage.getId()), chainReturning(true));
+        assertGauges(1, 0);
+        verify(durableQueues, never()).getQueueNameFor(any());
+
+        // Unknown messages are resolved using the DurableQueues
+        var unknownQueueEntryId = QueueEntryId.random();
+        when(durableQueues.getQueueNameFor(unknownQueueEntryId)).thenReturn(Optional.of(QUEUE_NAME));
+        interceptor.intercept(new DeleteMessage(unknownQueueEntryId), chainReturning(true));
+        verify(durableQueues).getQueueNameFor(unknownQueueEntryId);
+    }
+
+    private void assertGauges(long expectedQueuedMessages, long expectedDeadLetterMessages) {
+        assertThat(meterRegistry.get("DurableQueues_QueuedMessages_Size").tag("QueueName", QUEUE_NAME.toString()).gauge().value())
+                .isEqualTo(expectedQueuedMessages);
+        assertThat(meterRegistry.get("DurableQueues_DeadLetterMessages_Size").tag("QueueName", QUEUE_NAME.toString()).gauge().value())
+                .isEqualTo(expectedDeadLetterMessages);
+    }
+
+    private static QueuedMessage queuedMessage() {
+        var queuedMessage = mock(QueuedMessage.class);
+        var queueEntryId  = QueueEntryId.random();
+        when(queuedMessage.getId()).thenReturn(queueEntryId);
+        when(queuedMessage.getQueueName()).thenReturn(QUEUE_NAME);
+        return queuedMessage;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <OPERATION, RESULT> InterceptorChain<OPERATION, RESULT, DurableQueuesInterceptor> chainReturning(RESULT result) {
+        InterceptorChain<OPERATION, RESULT, DurableQueuesInterceptor> interceptorChain = mock(InterceptorChain.class);
+        when(interceptorChain.proceed()).thenReturn(result);
+        return interceptorChain;
+    }
+}
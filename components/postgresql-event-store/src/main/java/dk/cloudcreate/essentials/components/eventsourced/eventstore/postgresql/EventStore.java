@@ -17,7 +17,7 @@
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.EventStoreInterceptor;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamConfiguration;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
@@ -298,6 +298,39 @@ public interface EventStore {
      */
     <ID> AggregateEventStream<ID> appendToStream(AppendToStream<ID> operation);
 
+    /**
+     * Append events to multiple {@link AggregateEventStream}'s (which may be associated with different {@link AggregateType}'s) as one operation.<br>
+     * Events are grouped per {@link AggregateType} so each underlying event stream table is written using a single batched statement,
+     * and the {@link EventStoreInterceptor}'s are invoked once (using {@link EventStoreInterceptor#intercept(AppendToStreams, EventStoreInterceptorChain)})
+     * instead of once per {@link AppendToStream}
+     *
+     * @param appendToStreams the {@link AppendToStream} operations - each operation must target a distinct aggregate event stream
+     * @return the {@link AggregateEventStream}'s containing the {@link PersistedEvent}'s - each one corresponds 1-1 and IN-ORDER with the <code>appendToStreams</code>
+     */
+    default List<AggregateEventStream<?>> appendToStreams(List<AppendToStream<?>> appendToStreams) {
+        return appendToStreams(new AppendToStreams(appendToStreams));
+    }
+
+    /**
+     * Append events to multiple {@link AggregateEventStream}'s (which may be associated with different {@link AggregateType}'s) as one operation.<br>
+     * Events are grouped per {@link AggregateType} so each underlying event stream table is written using a single batched statement,
+     * and the {@link EventStoreInterceptor}'s are invoked once (using {@link EventStoreInterceptor#intercept(AppendToStreams, EventStoreInterceptorChain)})
+     * instead of once per {@link AppendToStream}
+     *
+     * The default implementation calls {@link #appendToStream(AppendToStream)} for each {@link AppendToStream}, so it provides neither the batching nor the single interceptor invocation
+     *
+     * @param operation the {@link AppendToStreams} operation
+     * @return the {@link AggregateEventStream}'s containing the {@link PersistedEvent}'s - each one corresponds 1-1 and IN-ORDER with the {@link AppendToStreams#getAppendToStreams()}
+     */
+    default List<AggregateEventStream<?>> appendToStreams(AppendToStreams operation) {
+        requireNonNull(operation, "No operation provided");
+        var aggregateEventStreams = new ArrayList<AggregateEventStream<?>>(operation.getAppendToStreams().size());
+        for (var appendToStream : operation.getAppendToStreams()) {
+            aggregateEventStreams.add(appendToStream(appendToStream));
+        }
+        return aggregateEventStreams;
+    }
+
 
     /**
      * Load the last {@link PersistedEvent} in relation to the specified <code>aggregateType</code> and <code>aggregateId</code>
@@ -787,4 +820,18 @@ public interface EventStore {
      * @return an {@link Optional} with the {@link GlobalEventOrder} persisted or {@link Optional#empty()} if no events have been persisted
      */
     Optional<GlobalEventOrder> findHighestGlobalEventOrderPersisted(AggregateType aggregateType);
+
+    /**
+     * Find the head position, i.e. the highest {@link GlobalEventOrder} persisted, in relation to the given aggregateType.<br>
+     * Contrary to {@link #findHighestGlobalEventOrderPersisted(AggregateType)} the head position may be slightly stale, as implementations are allowed
+     * to track the head position without querying the underlying event stream (see the {@link EventStreamHeadTracker}), which makes it suitable for
+     * e.g. lag monitoring and polling batch sizing.<br>
+     * The default implementation calls {@link #findHighestGlobalEventOrderPersisted(AggregateType)} in a {@link UnitOfWork} from the {@link #getUnitOfWorkFactory()}
+     *
+     * @param aggregateType the aggregate type that the underlying {@link AggregateEventStream} is associated with
+     * @return an {@link Optional} with the head position or {@link Optional#empty()} if no events have been persisted
+     */
+    default Optional<GlobalEventOrder> findEventStreamHead(AggregateType aggregateType) {
+        return getUnitOfWorkFactory().withUnitOfWork(unitOfWork -> findHighestGlobalEventOrderPersisted(aggregateType));
+    }
 }
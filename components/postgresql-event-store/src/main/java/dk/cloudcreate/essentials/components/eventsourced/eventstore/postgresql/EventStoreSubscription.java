@@ -17,7 +17,7 @@
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.SubscriptionResumePoint;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
 import dk.cloudcreate.essentials.components.foundation.Lifecycle;
 import dk.cloudcreate.essentials.components.foundation.types.*;
@@ -25,6 +25,8 @@ import org.reactivestreams.Subscription;
 
 import java.util.Optional;
 
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
 public interface EventStoreSubscription extends Lifecycle, Subscription {
     /**
      * the unique id for the subscriber
@@ -55,6 +57,26 @@ public interface EventStoreSubscription extends Lifecycle, Subscription {
      */
     void resetFrom(GlobalEventOrder subscribeFromAndIncludingGlobalOrder);
 
+    /**
+     * Reset the subscription point and replay the events, from and including <code>replayFromAndIncludingGlobalOrder</code>, using the
+     * {@link EventStoreReplayer}'s parallel range scans instead of the normal polling.<br>
+     * Just like {@link #resetFrom(GlobalEventOrder)} the subscription's {@link PersistedEventHandler#onResetFrom(EventStoreSubscription, GlobalEventOrder)}
+     * is called before the replay starts. When the replay has reached the live tail of the event stream, then the subscription resumes normal polling
+     * from where the replay ended.<br>
+     * This method blocks until the replay has completed.<br>
+     * The default implementation throws an {@link EventStoreException}, as replaying isn't supported by all subscriptions
+     *
+     * @param replayFromAndIncludingGlobalOrder this {@link GlobalEventOrder} will become the new starting point in the
+     *                                          EventStream associated with the {@link #aggregateType()}
+     * @param replayer                          the replayer that will replay the events
+     */
+    default void replayFrom(GlobalEventOrder replayFromAndIncludingGlobalOrder, EventStoreReplayer replayer) {
+        throw new EventStoreException(msg("[{}-{}] Replay isn't supported by {}",
+                                          subscriberId(),
+                                          aggregateType(),
+                                          getClass().getSimpleName()));
+    }
+
     /**
      * Get the subscriptions resume point (if supported by the subscription)
      *
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamPersistenceStrategy;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import org.slf4j.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Keeps track of the head position, i.e. the highest {@link GlobalEventOrder} persisted, per {@link AggregateType}, so that
+ * subscriber lag monitoring, polling batch sizing and replays don't each have to query the event stream table for its <code>MAX(global_order)</code>.<br>
+ * The head position is advanced by:
+ * <ul>
+ *     <li>Events persisted and committed on this node (using a {@link PersistedEventsCommitLifecycleCallback})</li>
+ *     <li>Event stream table notifications received by the {@link PostgresqlEventStreamListener} (if configured), which covers events persisted by other nodes</li>
+ *     <li>A throttled fallback query against the {@link AggregateEventStreamPersistenceStrategy#findHighestGlobalEventOrderPersisted(EventStoreUnitOfWork, AggregateType)},
+ *     which is performed at most once per {@link #getMaxQueryInterval()} per {@link AggregateType} (or once per {@link PostgresqlEventStreamListener#getSafetyNetPollingInterval()}
+ *     if the {@link AggregateType} is covered by the {@link PostgresqlEventStreamListener})</li>
+ * </ul>
+ * The head position returned can be slightly stale (it will never be ahead of what has been committed, except for events persisted in the
+ * {@link EventStoreUnitOfWork} performing the fallback query), so use {@link EventStore#findHighestGlobalEventOrderPersisted(AggregateType)} if an exact value is required.
+ */
+public final class EventStreamHeadTracker {
+    private static final Logger log = LoggerFactory.getLogger(EventStreamHeadTracker.class);
+
+    /**
+     * The default maximum interval between fallback <code>MAX(global_order)</code> queries per {@link AggregateType}
+     */
+    public static final Duration DEFAULT_MAX_QUERY_INTERVAL = Duration.ofSeconds(1);
+
+    private final EventStoreUnitOfWorkFactory<? extends EventStoreUnitOfWork> unitOfWorkFactory;
+    private final AggregateEventStreamPersistenceStrategy<?>                  persistenceStrategy;
+    private final Optional<PostgresqlEventStreamListener>                     eventStreamListener;
+    private final Duration                                                    maxQueryInterval;
+    private final ConcurrentMap<AggregateType, HeadPosition>                  headPositions = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new {@link EventStreamHeadTracker} using the {@link #DEFAULT_MAX_QUERY_INTERVAL}
+     *
+     * @param unitOfWorkFactory   the unit of work factory, which the tracker registers a {@link PersistedEventsCommitLifecycleCallback} with
+     * @param persistenceStrategy the persistence strategy used for the fallback <code>MAX(global_order)</code> query
+     * @param eventStreamListener the optional {@link PostgresqlEventStreamListener} that receives notifications about events persisted by other nodes
+     */
+    public EventStreamHeadTracker(EventStoreUnitOfWorkFactory<? extends EventStoreUnitOfWork> unitOfWorkFactory,
+                                  AggregateEventStreamPersistenceStrategy<?> persistenceStrategy,
+                                  Optional<PostgresqlEventStreamListener> eventStreamListener) {
+        this(unitOfWorkFactory, persistenceStrategy, eventStreamListener, DEFAULT_MAX_QUERY_INTERVAL);
+    }
+
+    /**
+     * Create a new {@link EventStreamHeadTracker}
+     *
+     * @param unitOfWorkFactory   the unit of work factory, which the tracker registers a {@link PersistedEventsCommitLifecycleCallback} with
+     * @param persistenceStrategy the persistence strategy used for the fallback <code>MAX(global_order)</code> query
+     * @param eventStreamListener the optional {@link PostgresqlEventStreamListener} that receives notifications about events persisted by other nodes
+     * @param maxQueryInterval    the maximum interval between fallback <code>MAX(global_order)</code> queries per {@link AggregateType} not covered by the <code>eventStreamListener</code>
+     */
+    public EventStreamHeadTracker(EventStoreUnitOfWorkFactory<? extends EventStoreUnitOfWork> unitOfWorkFactory,
+                                  AggregateEventStreamPersistenceStrategy<?> persistenceStrategy,
+                                  Optional<PostgresqlEventStreamListener> eventStreamListener,
+                                  Duration maxQueryInterval) {
+        this.unitOfWorkFactory = requireNonNull(unitOfWorkFactory, "No unitOfWorkFactory provided");
+        this.persistenceStrategy = requireNonNull(persistenceStrategy, "No persistenceStrategy provided");
+        this.eventStreamListener = requireNonNull(eventStreamListener, "No eventStreamListener option provided");
+        this.maxQueryInterval = requireNonNull(maxQueryInterval, "No maxQueryInterval provided");
+        requireTrue(!maxQueryInterval.isNegative(), "maxQueryInterval must be >= 0");
+        unitOfWorkFactory.registerPersistedEventsCommitLifeCycleCallback(new PersistedEventsCommitLifecycleCallback() {
+            @Override
+            public void beforeCommit(EventStoreUnitOfWork unitOfWork, List<PersistedEvent> persistedEvents) {
+            }
+
+            @Override
+            public void afterCommit(EventStoreUnitOfWork unitOfWork, List<PersistedEvent> persistedEvents) {
+                eventsCommitted(persistedEvents);
+            }
+
+            @Override
+            public void afterRollback(EventStoreUnitOfWork unitOfWork, List<PersistedEvent> persistedEvents) {
+            }
+        });
+    }
+
+    /**
+     * The maximum interval between fallback <code>MAX(global_order)</code> queries per {@link AggregateType} not covered by a {@link PostgresqlEventStreamListener}
+     *
+     * @return the maximum query interval
+     */
+    public Duration getMaxQueryInterval() {
+        return maxQueryInterval;
+    }
+
+    /**
+     * Get the head position, i.e. the highest {@link GlobalEventOrder} persisted, for the given aggregate type.<br>
+     * This will only query the event store if the head position hasn't been resolved from the database within the max query interval.
+     * If a {@link EventStoreUnitOfWork} is active, then the query joins it, otherwise a new {@link EventStoreUnitOfWork} is used for the query.
+     *
+     * @param aggregateType the aggregate type
+     * @return the head position or {@link Optional#empty()} if no events have been persisted for the aggregate type
+     */
+    public Optional<GlobalEventOrder> findHeadPosition(AggregateType aggregateType) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var headPosition = headPositions.computeIfAbsent(aggregateType, HeadPosition::new);
+        headPosition.refreshIfNecessary();
+        var highestGlobalOrder = Math.max(headPosition.highestGlobalOrder, highestNotifiedGlobalOrder(aggregateType));
+        return highestGlobalOrder >= GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue() ?
+               Optional.of(GlobalEventOrder.of(highestGlobalOrder)) :
+               Optional.empty();
+    }
+
+    /**
+     * Advance the head position for the given aggregate type
+     *
+     * @param aggregateType    the aggregate type
+     * @param globalEventOrder the global event order of a persisted event
+     */
+    public void advance(AggregateType aggregateType, GlobalEventOrder globalEventOrder) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        requireNonNull(globalEventOrder, "No globalEventOrder provided");
+        headPositions.computeIfAbsent(aggregateType, HeadPosition::new)
+                     .advance(globalEventOrder.longValue());
+    }
+
+    private void eventsCommitted(List<PersistedEvent> persistedEvents) {
+        AggregateType lastAggregateType = null;
+        var           highestGlobalOrder = -1L;
+        for (var persistedEvent : persistedEvents) {
+            // Events committed together are typically associated with the same AggregateType, so we only advance when the AggregateType changes
+            if (!persistedEvent.aggregateType().equals(lastAggregateType)) {
+                if (lastAggregateType != null) {
+                    advance(lastAggregateType, GlobalEventOrder.of(highestGlobalOrder));
+                }
+                lastAggregateType = persistedEvent.aggregateType();
+                highestGlobalOrder = -1L;
+            }
+            highestGlobalOrder = Math.max(highestGlobalOrder, persistedEvent.globalEventOrder().longValue());
+        }
+        if (lastAggregateType != null) {
+            advance(lastAggregateType, GlobalEventOrder.of(highestGlobalOrder));
+        }
+    }
+
+    private long highestNotifiedGlobalOrder(AggregateType aggregateType) {
+        return eventStreamListener.flatMap(listener -> listener.getHighestNotifiedGlobalOrder(aggregateType))
+                                  .map(GlobalEventOrder::longValue)
+                                  .orElse(-1L);
+    }
+
+    private long resolveQueryIntervalMillis(AggregateType aggregateType) {
+        return eventStreamListener.filter(listener -> listener.isListeningFor(aggregateType))
+                                  .map(listener -> listener.getSafetyNetPollingInterval().toMillis())
+                                  .orElse(maxQueryInterval.toMillis());
+    }
+
+    /**
+     * The head position of a single {@link AggregateType}
+     */
+    private final class HeadPosition {
+        private final    AggregateType aggregateType;
+        private final    ReentrantLock queryLock          = new ReentrantLock();
+        private volatile long          highestGlobalOrder = -1L;
+        private volatile long          lastQueriedAtMillis;
+        private volatile boolean       queried;
+
+        private HeadPosition(AggregateType aggregateType) {
+            this.aggregateType = aggregateType;
+        }
+
+        private synchronized void advance(long globalOrder) {
+            if (globalOrder > highestGlobalOrder) {
+                highestGlobalOrder = globalOrder;
+            }
+        }
+
+        private void refreshIfNecessary() {
+            if (queried && System.currentTimeMillis() - lastQueriedAtMillis < resolveQueryIntervalMillis(aggregateType)) {
+                return;
+            }
+            // Only one caller performs the query. Other callers use the current head position, unless it has never been queried
+            if (queried) {
+                if (!queryLock.tryLock()) {
+                    return;
+                }
+            } else {
+                queryLock.lock();
+            }
+            try {
+                if (queried && System.currentTimeMillis() - lastQueriedAtMillis < resolveQueryIntervalMillis(aggregateType)) {
+                    return;
+                }
+                var queriedHighestGlobalOrder = unitOfWorkFactory.withUnitOfWork(unitOfWork -> persistenceStrategy.findHighestGlobalEventOrderPersisted(unitOfWork, aggregateType))
+                                                                 .map(GlobalEventOrder::longValue)
+                                                                 .orElse(-1L);
+                advance(queriedHighestGlobalOrder);
+                lastQueriedAtMillis = System.currentTimeMillis();
+                queried = true;
+                log.trace("[{}] Queried highest globalOrder {}. Head position is {}", aggregateType, queriedHighestGlobalOrder, highestGlobalOrder);
+            } finally {
+                queryLock.unlock();
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.g
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.EventStoreInterceptor;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.AggregateIdSerializer;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
@@ -79,6 +80,14 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
     private final List<EventStoreInterceptor>                eventStoreInterceptors;
     private final EventStoreEventBus                         eventStoreEventBus;
     private final EventStreamGapHandler<CONFIG>              eventStreamGapHandler;
+    /**
+     * If present, then polling subscribers are woken up by event stream table notifications instead of periodically polling the event store
+     */
+    private final Optional<PostgresqlEventStreamListener>    eventStreamListener;
+    /**
+     * Tracks the head position of each {@link AggregateType}, which is used for polling batch sizing and {@link #findEventStreamHead(AggregateType)}
+     */
+    private final EventStreamHeadTracker                     eventStreamHeadTracker;
 
     /**
      * Create a {@link PostgresqlEventStore} without EventStreamGapHandler (specifically with {@link NoEventStreamGapHandler}) as a backwards compatible configuration
@@ -115,6 +124,12 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
         requireNonNull(eventStreamGapHandlerFactory, "No eventStreamGapHandlerFactory provided");
         this.eventStoreEventBus = eventStoreLocalEventBusOption.orElseGet(() -> new EventStoreEventBus(unitOfWorkFactory));
         this.eventStreamGapHandler = eventStreamGapHandlerFactory.apply(this);
+        this.eventStreamListener = aggregateEventStreamPersistenceStrategy instanceof SeparateTablePerAggregateTypePersistenceStrategy separateTablePerAggregateTypePersistenceStrategy ?
+                                   separateTablePerAggregateTypePersistenceStrategy.getPostgresqlEventStreamListener() :
+                                   Optional.empty();
+        this.eventStreamHeadTracker = new EventStreamHeadTracker(unitOfWorkFactory,
+                                                                 aggregateEventStreamPersistenceStrategy,
+                                                                 eventStreamListener);
 
         eventStoreInterceptors = new ArrayList<>();
         inMemoryProjectors = new HashSet<>();
@@ -170,6 +185,24 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
         return eventStreamGapHandler;
     }
 
+    /**
+     * Get the {@link PostgresqlEventStreamListener} configured on the {@link SeparateTablePerAggregateTypePersistenceStrategy} (if any)
+     *
+     * @return the {@link PostgresqlEventStreamListener} used to wake up polling subscribers when new events are persisted
+     */
+    public Optional<PostgresqlEventStreamListener> getEventStreamListener() {
+        return eventStreamListener;
+    }
+
+    /**
+     * Get the {@link EventStreamHeadTracker} that tracks the head position (the highest {@link GlobalEventOrder} persisted) per {@link AggregateType}
+     *
+     * @return the {@link EventStreamHeadTracker}
+     */
+    public EventStreamHeadTracker getEventStreamHeadTracker() {
+        return eventStreamHeadTracker;
+    }
+
     @Override
     public EventBus localEventBus() {
         return eventStoreEventBus;
@@ -243,6 +276,26 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
         return aggregateEventStream;
     }
 
+    @Override
+    public List<AggregateEventStream<?>> appendToStreams(AppendToStreams operation) {
+        requireNonNull(operation, "You must supply an AppendToStreams operation instance");
+        var unitOfWork = unitOfWorkFactory.getRequiredUnitOfWork();
+
+        return newInterceptorChainForOperation(operation,
+                                               this,
+                                               eventStoreInterceptors,
+                                               (eventStoreInterceptor, eventStoreInterceptorChain) -> eventStoreInterceptor.intercept(operation, eventStoreInterceptorChain),
+                                               () -> {
+                                                   var streams = persistenceStrategy.persist(unitOfWork,
+                                                                                             operation.getAppendToStreams());
+                                                   unitOfWork.registerEventsPersisted(streams.stream()
+                                                                                             .flatMap(stream -> stream.eventList().stream())
+                                                                                             .collect(Collectors.toList()));
+                                                   return streams;
+                                               })
+                .proceed();
+    }
+
 
     @Override
     public <ID> Optional<PersistedEvent> loadLastPersistedEventRelatedTo(LoadLastPersistedEventRelatedTo<ID> operation) {
@@ -306,6 +359,11 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
                                                                         aggregateType);
     }
 
+    @Override
+    public Optional<GlobalEventOrder> findEventStreamHead(AggregateType aggregateType) {
+        return eventStreamHeadTracker.findHeadPosition(aggregateType);
+    }
+
     @Override
     public <ID, AGGREGATE> Optional<AGGREGATE> inMemoryProjection(AggregateType aggregateType,
                                                                   ID aggregateId,
@@ -438,7 +496,14 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
         var lastBatchSizeForThisQuery            = new AtomicLong(batchFetchSize);
         var nextFromInclusiveGlobalOrder         = new AtomicLong(fromInclusiveGlobalOrder);
         var subscriptionGapHandler               = subscriberId.map(eventStreamGapHandler::gapHandlerFor);
+        var notificationPollingState             = new NotificationPollingState(aggregateType, subscriptionGapHandler);
         var persistedEventsFlux = Flux.defer(() -> {
+            if (!notificationPollingState.shouldQueryForEventsFrom(nextFromInclusiveGlobalOrder.get())) {
+                eventStoreStreamLog.trace("[{}] Skipping polling as no notification about new events has been received since last poll",
+                                          eventStreamLogName);
+                return Flux.empty();
+            }
+
             EventStoreUnitOfWork unitOfWork;
             try {
                 unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
@@ -535,6 +600,98 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
                                             .publishOn(Schedulers.newSingle("Publish-" + subscriberId.orElse(NO_SUBSCRIBER_ID) + "-" + aggregateType, true)));
     }
 
+    /**
+     * Keeps track of when a single polling subscriber last queried the event store, so that subscribers of an
+     * {@link AggregateType} covered by a {@link PostgresqlEventStreamListener} only query when notified about new events.<br>
+     * Without a {@link PostgresqlEventStreamListener} the subscriber always queries.
+     */
+    private class NotificationPollingState {
+        private final AggregateType aggregateType;
+        /**
+         * If the subscriber's transient gaps are included in its queries, then a notification with a global order below the subscriber's next global order
+         * (i.e. from a transaction that committed late) can fill a gap
+         */
+        private final boolean       includesTransientGapsInQueries;
+        private       long          lastQueryTimestamp;
+        private       long          lastQueriedFromInclusiveGlobalOrder = -1;
+        private       long          notificationCountAtLastQuery;
+
+        private NotificationPollingState(AggregateType aggregateType, Optional<SubscriptionGapHandler> subscriptionGapHandler) {
+            this.aggregateType = aggregateType;
+            this.includesTransientGapsInQueries = subscriptionGapHandler.isPresent() && !(eventStreamGapHandler instanceof NoEventStreamGapHandler);
+        }
+
+        private Optional<PostgresqlEventStreamListener> listener() {
+            return eventStreamListener.filter(listener -> listener.isListeningFor(aggregateType));
+        }
+
+        /**
+         * Determine if the subscriber needs to query the event store. With a {@link PostgresqlEventStreamListener} we only query if
+         * we've received a notification covering <code>fromInclusiveGlobalOrder</code> that we haven't already queried for, or if
+         * the {@link PostgresqlEventStreamListener#getSafetyNetPollingInterval()} has elapsed since the last query (which also covers
+         * lost notifications).<br>
+         * If the method returns true, then the query is registered as performed.
+         *
+         * @param fromInclusiveGlobalOrder the next global order the subscriber is interested in
+         * @return true if the event store should be queried
+         */
+        private boolean shouldQueryForEventsFrom(long fromInclusiveGlobalOrder) {
+            var listener = listener();
+            if (listener.isEmpty()) {
+                return true;
+            }
+            var notificationCount = listener.get().getNotificationCount(aggregateType);
+            var now               = System.currentTimeMillis();
+            if (hasUnqueriedNotification(listener.get(), fromInclusiveGlobalOrder) || now - lastQueryTimestamp >= listener.get().getSafetyNetPollingInterval().toMillis()) {
+                lastQueryTimestamp = now;
+                lastQueriedFromInclusiveGlobalOrder = fromInclusiveGlobalOrder;
+                notificationCountAtLastQuery = notificationCount;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Park the calling thread until a notification, that hasn't already been queried for, arrives or the safety-net polling interval elapses
+         *
+         * @param fromInclusiveGlobalOrder the next global order the subscriber is interested in
+         * @param defaultPollingSleep      the time to sleep if the aggregate type isn't covered by a {@link PostgresqlEventStreamListener}
+         * @throws InterruptedException if the calling thread was interrupted
+         */
+        private void awaitNextPoll(long fromInclusiveGlobalOrder, long defaultPollingSleep) throws InterruptedException {
+            var listener = listener();
+            if (listener.isEmpty()) {
+                Thread.sleep(defaultPollingSleep);
+                return;
+            }
+            if (hasUnqueriedNotification(listener.get(), fromInclusiveGlobalOrder)) {
+                return;
+            }
+            var remainingSafetyNetTime = listener.get().getSafetyNetPollingInterval().toMillis() - (System.currentTimeMillis() - lastQueryTimestamp);
+            if (remainingSafetyNetTime > 0) {
+                listener.get().awaitEventsPersistedFrom(aggregateType,
+                                                        lowestGlobalOrderOfInterest(fromInclusiveGlobalOrder),
+                                                        notificationCountAtLastQuery,
+                                                        Duration.ofMillis(remainingSafetyNetTime));
+            }
+        }
+
+        /**
+         * A notification is unqueried if it covers <code>fromInclusiveGlobalOrder</code> and either arrived after the last query or the
+         * subscriber has moved on from the global order it last queried from (the last query may not have reached the notified global order)
+         */
+        private boolean hasUnqueriedNotification(PostgresqlEventStreamListener listener, long fromInclusiveGlobalOrder) {
+            if (fromInclusiveGlobalOrder != lastQueriedFromInclusiveGlobalOrder && listener.hasBeenNotifiedOfEventsFrom(aggregateType, fromInclusiveGlobalOrder)) {
+                return true;
+            }
+            return listener.hasBeenNotifiedOfEventsFrom(aggregateType, lowestGlobalOrderOfInterest(fromInclusiveGlobalOrder), notificationCountAtLastQuery);
+        }
+
+        private long lowestGlobalOrderOfInterest(long fromInclusiveGlobalOrder) {
+            return includesTransientGapsInQueries ? GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue() : fromInclusiveGlobalOrder;
+        }
+    }
+
     protected long resolveBatchSizeForThisQuery(AggregateType aggregateType,
                                                 String eventStreamLogName,
                                                 Logger eventStoreStreamLog,
@@ -546,7 +703,7 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
         var batchSizeForThisQuery                       = lastBatchSizeForThisQuery;
         var currentConsecutiveNoPersistedEventsReturned = consecutiveNoPersistedEventsReturned.get();
         if (currentConsecutiveNoPersistedEventsReturned > 0 && currentConsecutiveNoPersistedEventsReturned % 100 == 0) {
-            var highestPersistedGlobalEventOrder = persistenceStrategy.findHighestGlobalEventOrderPersisted(unitOfWork, aggregateType);
+            var highestPersistedGlobalEventOrder = eventStreamHeadTracker.findHeadPosition(aggregateType);
             if (highestPersistedGlobalEventOrder.isPresent()) {
                 if (highestPersistedGlobalEventOrder.get().longValue() == nextFromInclusiveGlobalOrder.get() - 1) {
                     eventStoreStreamLog.debug("[{}] loadEventsByGlobalOrder RESETTING query batchSize back to default {} since highestPersistedGlobalEventOrder {} is the same as nextFromInclusiveGlobalOrder {} - 1",
@@ -683,7 +840,17 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
                                       demandForEvents);
             var pollingSleep             = pollingInterval.orElse(Duration.ofMillis(DEFAULT_POLLING_INTERVAL_MILLISECONDS)).toMillis();
             var remainingDemandForEvents = demandForEvents;
+            var notificationPollingState = new NotificationPollingState(aggregateType, subscriptionGapHandler);
             while (remainingDemandForEvents > 0 && !sink.isCancelled()) {
+                if (!notificationPollingState.shouldQueryForEventsFrom(nextFromInclusiveGlobalOrder.get())) {
+                    try {
+                        notificationPollingState.awaitNextPoll(nextFromInclusiveGlobalOrder.get(), pollingSleep);
+                    } catch (InterruptedException e) {
+                        // Ignore
+                        Thread.currentThread().interrupt();
+                    }
+                    continue;
+                }
                 var numberOfEventsPublished = pollForEvents(remainingDemandForEvents);
                 remainingDemandForEvents -= numberOfEventsPublished;
                 eventStoreStreamLog.trace("[{}] Polling worker published {} event(s) - Outstanding demand for events {}",
@@ -691,7 +858,7 @@ public final class PostgresqlEventStore<CONFIG extends AggregateEventStreamConfi
                                           numberOfEventsPublished,
                                           remainingDemandForEvents);
                 try {
-                    Thread.sleep(pollingSleep);
+                    notificationPollingState.awaitNextPoll(nextFromInclusiveGlobalOrder.get(), pollingSleep);
                 } catch (InterruptedException e) {
                     // Ignore
                     Thread.currentThread().interrupt();
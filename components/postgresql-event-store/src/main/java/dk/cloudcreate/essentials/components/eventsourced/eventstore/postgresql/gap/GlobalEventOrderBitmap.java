@@ -0,0 +1,434 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Compressed bitmap of {@link GlobalEventOrder} values (Roaring bitmap style), which is used by the {@link PostgresqlEventStreamGapHandler}
+ * to track transient and permanent gaps without boxing every {@link GlobalEventOrder}.<br>
+ * The values are split into chunks of 65536 values, where each chunk is stored either as a sorted <code>char</code> array (sparse chunks with up to 4096 values)
+ * or as a <code>long</code> bitmap (dense chunks). This keeps both the memory footprint and {@link #contains(long)} lookups low, regardless of how spread out the gaps are.<br>
+ * <br>
+ * <b>Note: This class is NOT thread safe</b>
+ */
+public final class GlobalEventOrderBitmap {
+    private static final int CHUNK_BITS               = 16;
+    private static final int CHUNK_SIZE               = 1 << CHUNK_BITS;
+    private static final int LOW_BITS_MASK            = CHUNK_SIZE - 1;
+    private static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+
+    private final TreeMap<Long, Container> containers = new TreeMap<>();
+    private       long                     cardinality;
+
+    /**
+     * Create a new empty {@link GlobalEventOrderBitmap}
+     */
+    public GlobalEventOrderBitmap() {
+    }
+
+    /**
+     * Create a {@link GlobalEventOrderBitmap} containing the provided values
+     *
+     * @param values the global event order values
+     * @return the new {@link GlobalEventOrderBitmap}
+     */
+    public static GlobalEventOrderBitmap of(long... values) {
+        requireNonNull(values, "No values provided");
+        var bitmap = new GlobalEventOrderBitmap();
+        for (var value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Create a {@link GlobalEventOrderBitmap} containing the provided {@link GlobalEventOrder}'s
+     *
+     * @param globalEventOrders the global event orders
+     * @return the new {@link GlobalEventOrderBitmap}
+     */
+    public static GlobalEventOrderBitmap of(Collection<GlobalEventOrder> globalEventOrders) {
+        requireNonNull(globalEventOrders, "No globalEventOrders provided");
+        var bitmap = new GlobalEventOrderBitmap();
+        for (var globalEventOrder : globalEventOrders) {
+            bitmap.add(globalEventOrder.longValue());
+        }
+        return bitmap;
+    }
+
+    /**
+     * Add a value to the bitmap
+     *
+     * @param value the global event order value (must be &gt;= 0)
+     * @return true if the value was added, false if the bitmap already contained the value
+     */
+    public boolean add(long value) {
+        requireTrue(value >= 0, "value must be >= 0");
+        var chunkKey  = value >>> CHUNK_BITS;
+        var container = containers.get(chunkKey);
+        if (container == null) {
+            container = new ArrayContainer();
+            containers.put(chunkKey, container);
+        }
+        var lowBits = (int) (value & LOW_BITS_MASK);
+        if (container.contains(lowBits)) {
+            return false;
+        }
+        if (container instanceof ArrayContainer arrayContainer && arrayContainer.size == MAX_ARRAY_CONTAINER_SIZE) {
+            container = arrayContainer.toBitmapContainer();
+            containers.put(chunkKey, container);
+        }
+        container.add(lowBits);
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Remove a value from the bitmap
+     *
+     * @param value the global event order value
+     * @return true if the value was removed, false if the bitmap didn't contain the value
+     */
+    public boolean remove(long value) {
+        if (value < 0) {
+            return false;
+        }
+        var chunkKey  = value >>> CHUNK_BITS;
+        var container = containers.get(chunkKey);
+        if (container == null || !container.remove((int) (value & LOW_BITS_MASK))) {
+            return false;
+        }
+        cardinality--;
+        if (container.cardinality() == 0) {
+            containers.remove(chunkKey);
+        } else if (container instanceof BitmapContainer bitmapContainer && bitmapContainer.cardinality <= MAX_ARRAY_CONTAINER_SIZE / 2) {
+            containers.put(chunkKey, bitmapContainer.toArrayContainer());
+        }
+        return true;
+    }
+
+    /**
+     * @param value the global event order value
+     * @return true if the bitmap contains the value
+     */
+    public boolean contains(long value) {
+        if (value < 0) {
+            return false;
+        }
+        var container = containers.get(value >>> CHUNK_BITS);
+        return container != null && container.contains((int) (value & LOW_BITS_MASK));
+    }
+
+    /**
+     * @param globalEventOrder the global event order
+     * @return true if the bitmap contains the global event order
+     */
+    public boolean contains(GlobalEventOrder globalEventOrder) {
+        requireNonNull(globalEventOrder, "No globalEventOrder provided");
+        return contains(globalEventOrder.longValue());
+    }
+
+    /**
+     * Add all values from the <code>other</code> bitmap
+     *
+     * @param other the other bitmap
+     * @return this bitmap
+     */
+    public GlobalEventOrderBitmap addAll(GlobalEventOrderBitmap other) {
+        requireNonNull(other, "No other bitmap provided");
+        other.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Remove all values contained in the <code>other</code> bitmap
+     *
+     * @param other the other bitmap
+     * @return this bitmap
+     */
+    public GlobalEventOrderBitmap removeAll(GlobalEventOrderBitmap other) {
+        requireNonNull(other, "No other bitmap provided");
+        if (other.cardinality < cardinality) {
+            other.forEach(this::remove);
+        } else {
+            var valuesToRemove = new GlobalEventOrderBitmap();
+            forEach(value -> {
+                if (other.contains(value)) {
+                    valuesToRemove.add(value);
+                }
+            });
+            valuesToRemove.forEach(this::remove);
+        }
+        return this;
+    }
+
+    /**
+     * Create a new bitmap with the values contained both in this and in the <code>other</code> bitmap
+     *
+     * @param other the other bitmap
+     * @return a new bitmap with the intersection of the two bitmaps
+     */
+    public GlobalEventOrderBitmap intersection(GlobalEventOrderBitmap other) {
+        requireNonNull(other, "No other bitmap provided");
+        var smallest     = other.cardinality < cardinality ? other : this;
+        var largest      = smallest == this ? other : this;
+        var intersection = new GlobalEventOrderBitmap();
+        smallest.forEach(value -> {
+            if (largest.contains(value)) {
+                intersection.add(value);
+            }
+        });
+        return intersection;
+    }
+
+    /**
+     * @return a copy of this bitmap
+     */
+    public GlobalEventOrderBitmap copy() {
+        var copy = new GlobalEventOrderBitmap();
+        containers.forEach((chunkKey, container) -> copy.containers.put(chunkKey, container.copy()));
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    /**
+     * @return true if the bitmap doesn't contain any values
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return the number of values in the bitmap
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Call the <code>consumer</code> with each value in ascending order
+     *
+     * @param consumer the consumer
+     */
+    public void forEach(LongConsumer consumer) {
+        requireNonNull(consumer, "No consumer provided");
+        containers.forEach((chunkKey, container) -> container.forEach(chunkKey << CHUNK_BITS, consumer));
+    }
+
+    /**
+     * @return all values in ascending order
+     */
+    public long[] toArray() {
+        var values = new long[Math.toIntExact(cardinality)];
+        var index  = new int[1];
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    /**
+     * @return all values in ascending order
+     */
+    public LongStream stream() {
+        return Arrays.stream(toArray());
+    }
+
+    /**
+     * @return all values, in ascending order, as {@link GlobalEventOrder}'s
+     */
+    public List<GlobalEventOrder> toGlobalEventOrders() {
+        return stream().mapToObj(GlobalEventOrder::of)
+                       .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GlobalEventOrderBitmap that)) return false;
+        return cardinality == that.cardinality && Arrays.equals(toArray(), that.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        var maxValuesToInclude = 100;
+        var values             = stream().limit(maxValuesToInclude)
+                                         .mapToObj(Long::toString)
+                                         .collect(Collectors.joining(", ", "[", cardinality > maxValuesToInclude ? ", ...]" : "]"));
+        return "GlobalEventOrderBitmap{" +
+                "cardinality=" + cardinality +
+                ", values=" + values +
+                '}';
+    }
+
+    private interface Container {
+        boolean contains(int lowBits);
+
+        void add(int lowBits);
+
+        boolean remove(int lowBits);
+
+        int cardinality();
+
+        void forEach(long base, LongConsumer consumer);
+
+        Container copy();
+    }
+
+    /**
+     * Sparse chunk - the values are stored as a sorted <code>char</code> array
+     */
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int    size;
+
+        @Override
+        public boolean contains(int lowBits) {
+            return Arrays.binarySearch(values, 0, size, (char) lowBits) >= 0;
+        }
+
+        @Override
+        public void add(int lowBits) {
+            var index = Arrays.binarySearch(values, 0, size, (char) lowBits);
+            if (index >= 0) {
+                return;
+            }
+            var insertionPoint = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_CONTAINER_SIZE, values.length * 2));
+            }
+            System.arraycopy(values, insertionPoint, values, insertionPoint + 1, size - insertionPoint);
+            values[insertionPoint] = (char) lowBits;
+            size++;
+        }
+
+        @Override
+        public boolean remove(int lowBits) {
+            var index = Arrays.binarySearch(values, 0, size, (char) lowBits);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public void forEach(long base, LongConsumer consumer) {
+            for (var index = 0; index < size; index++) {
+                consumer.accept(base + values[index]);
+            }
+        }
+
+        @Override
+        public Container copy() {
+            var copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, values.length);
+            copy.size = size;
+            return copy;
+        }
+
+        BitmapContainer toBitmapContainer() {
+            var bitmapContainer = new BitmapContainer();
+            for (var index = 0; index < size; index++) {
+                bitmapContainer.add(values[index]);
+            }
+            return bitmapContainer;
+        }
+    }
+
+    /**
+     * Dense chunk - the values are stored as a <code>long</code> bitmap with one bit per value
+     */
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[CHUNK_SIZE / Long.SIZE];
+        private       int    cardinality;
+
+        @Override
+        public boolean contains(int lowBits) {
+            return (words[lowBits >>> 6] & (1L << lowBits)) != 0;
+        }
+
+        @Override
+        public void add(int lowBits) {
+            var wordIndex = lowBits >>> 6;
+            var before    = words[wordIndex];
+            words[wordIndex] = before | (1L << lowBits);
+            if (before != words[wordIndex]) {
+                cardinality++;
+            }
+        }
+
+        @Override
+        public boolean remove(int lowBits) {
+            var wordIndex = lowBits >>> 6;
+            var before    = words[wordIndex];
+            words[wordIndex] = before & ~(1L << lowBits);
+            if (before != words[wordIndex]) {
+                cardinality--;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void forEach(long base, LongConsumer consumer) {
+            for (var wordIndex = 0; wordIndex < words.length; wordIndex++) {
+                var word = words[wordIndex];
+                while (word != 0) {
+                    consumer.accept(base + ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public Container copy() {
+            var copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        ArrayContainer toArrayContainer() {
+            var arrayContainer = new ArrayContainer();
+            arrayContainer.values = new char[Math.max(4, cardinality)];
+            forEach(0, value -> arrayContainer.values[arrayContainer.size++] = (char) value);
+            return arrayContainer;
+        }
+    }
+}
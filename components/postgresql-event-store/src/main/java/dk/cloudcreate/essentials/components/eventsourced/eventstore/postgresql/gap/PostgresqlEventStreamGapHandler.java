@@ -21,6 +21,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.e
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamConfiguration;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.EventStoreSubscriptionManager;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.jdbi.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMetrics;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.EventStoreUnitOfWorkFactory;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
 import dk.cloudcreate.essentials.components.foundation.postgresql.PostgresqlUtil;
@@ -55,6 +56,13 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
     private final        ResolveTransientGapsToIncludeInQueryStrategy         resolveTransientGapsToIncludeInQueryStrategy;
     private final        ResolveTransientGapsToPermanentGapsPromotionStrategy resolveTransientGapsToPermanentGapsPromotionStrategy;
     private              long                                                 refreshTransientGapsFromStorageEverySeconds;
+    /**
+     * Permanent gaps are defined across all subscribers per {@link AggregateType}, so they're cached per {@link AggregateType} and shared
+     * between all {@link PostgresqlSubscriptionGapHandler}'s. Each cached {@link GlobalEventOrderBitmap} is never modified after it has been cached
+     * (new permanent gaps result in a new copy being cached)
+     */
+    private final        ConcurrentMap<AggregateType, CachedPermanentGaps>    permanentGapsCache                   = new ConcurrentHashMap<>();
+    private volatile     EventStoreSubscriptionMetrics                        subscriptionMetrics                  = EventStoreSubscriptionMetrics.NONE;
 
     /**
      * Default configuration that includes the earliest 10 transient gaps and which will promote transient gaps to permanent gaps after 120 seconds.
@@ -105,6 +113,15 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
         createGapHandlingTablesAndIndexes();
     }
 
+    /**
+     * Set the {@link EventStoreSubscriptionMetrics} that the time spent in {@link SubscriptionGapHandler#reconcileGaps(AggregateType, LongRange, List, List)} is reported to
+     *
+     * @param subscriptionMetrics the subscription metrics ({@link EventStoreSubscriptionMetrics#NONE} disables reporting)
+     */
+    public void setSubscriptionMetrics(EventStoreSubscriptionMetrics subscriptionMetrics) {
+        this.subscriptionMetrics = requireNonNull(subscriptionMetrics, "No subscriptionMetrics provided");
+    }
+
     private void createGapHandlingTablesAndIndexes() {
         PostgresqlUtil.checkIsValidTableOrColumnName(TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME);
         PostgresqlUtil.checkIsValidTableOrColumnName(TRANSIENT_SUBSCRIBER_GAPS_INDEX_NAME);
@@ -150,6 +167,7 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                                                                           .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
                                                                                           .mapTo(GlobalEventOrder.class)
                                                                                           .list());
+        permanentGapsCache.remove(aggregateType);
         log.info("[{}] Removed {} Permanent Gap(s) with GlobalEventOrder: {}",
                  aggregateType,
                  globalEventOrdersRemoved.size(),
@@ -182,6 +200,7 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                                                                     .mapTo(GlobalEventOrder.class)
                                                                                     .list();
                                                                         });
+        permanentGapsCache.remove(aggregateType);
         log.info("[{}] Removed {} Permanent Gap(s), according to reset range {}, with GlobalEventOrder: {}",
                  aggregateType,
                  globalEventOrdersRemoved.size(),
@@ -209,6 +228,7 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                                                                              .mapTo(GlobalEventOrder.class)
                                                                                              .list();
                                                                         });
+        permanentGapsCache.remove(aggregateType);
         log.info("[{}] Removed {} Permanent Gap(s), according to reset list {}, with GlobalEventOrder: {}",
                  aggregateType,
                  globalEventOrdersRemoved.size(),
@@ -232,10 +252,95 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                                                   .stream());
     }
 
+    /**
+     * Get the cached permanent gaps for the given aggregate type. The cache is refreshed from the database according to the
+     * <code>refreshTransientGapsFromStorageInterval</code>, as permanent gaps may be added or reset by other nodes
+     *
+     * @param aggregateType the aggregate type
+     * @return the permanent gaps for the given aggregate type (must NOT be modified)
+     */
+    private GlobalEventOrderBitmap getCachedPermanentGapsFor(AggregateType aggregateType) {
+        var cachedPermanentGaps = permanentGapsCache.get(aggregateType);
+        if (cachedPermanentGaps == null || ChronoUnit.SECONDS.between(cachedPermanentGaps.loadedFromStorageAt, now()) >= refreshTransientGapsFromStorageEverySeconds) {
+            var permanentGaps = unitOfWorkFactory.getRequiredUnitOfWork()
+                                                 .handle()
+                                                 .createQuery("SELECT gap_global_event_order FROM " + PERMANENT_GAPS_TABLE_NAME + " WHERE aggregate_type = :aggregate_type")
+                                                 .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
+                                                 .reduceResultSet(new GlobalEventOrderBitmap(), (bitmap, rs, ctx) -> {
+                                                     bitmap.add(rs.getLong("gap_global_event_order"));
+                                                     return bitmap;
+                                                 });
+            cachedPermanentGaps = new CachedPermanentGaps(permanentGaps, now());
+            permanentGapsCache.put(aggregateType, cachedPermanentGaps);
+            log.trace("[{}] Refreshed {} cached Permanent Gap(s)", aggregateType, permanentGaps.cardinality());
+        }
+        return cachedPermanentGaps.gaps;
+    }
+
+    private void addToCachedPermanentGaps(AggregateType aggregateType, GlobalEventOrderBitmap newPermanentGaps) {
+        permanentGapsCache.computeIfPresent(aggregateType, (aggregateType_, cachedPermanentGaps) -> new CachedPermanentGaps(cachedPermanentGaps.gaps.copy().addAll(newPermanentGaps),
+                                                                                                                          cachedPermanentGaps.loadedFromStorageAt));
+    }
+
+    private record CachedPermanentGaps(GlobalEventOrderBitmap gaps, OffsetDateTime loadedFromStorageAt) {
+    }
+
+    /**
+     * The transient gaps for a single subscriber and {@link AggregateType}.<br>
+     * Transient gaps discovered during the same reconciliation share the same first discovered timestamp, so in addition to the
+     * {@link GlobalEventOrderBitmap} of all gaps, the gaps are grouped per first discovered timestamp.<br>
+     * The <code>List&lt;Pair&lt;GlobalEventOrder, OffsetDateTime&gt;&gt;</code> required by the {@link ResolveTransientGapsToIncludeInQueryStrategy}
+     * and {@link ResolveTransientGapsToPermanentGapsPromotionStrategy} is only materialized when the gaps have changed
+     */
+    private static final class TransientGaps {
+        private final GlobalEventOrderBitmap                          gaps                   = new GlobalEventOrderBitmap();
+        private final TreeMap<OffsetDateTime, GlobalEventOrderBitmap> gapsByFirstDiscovered = new TreeMap<>();
+        private final OffsetDateTime                                  loadedFromStorageAt;
+        private       List<Pair<GlobalEventOrder, OffsetDateTime>>    gapsAsList;
+
+        private TransientGaps(OffsetDateTime loadedFromStorageAt) {
+            this.loadedFromStorageAt = loadedFromStorageAt;
+        }
+
+        private void add(long gap, OffsetDateTime firstDiscovered) {
+            if (gaps.add(gap)) {
+                gapsByFirstDiscovered.computeIfAbsent(firstDiscovered, timestamp -> new GlobalEventOrderBitmap()).add(gap);
+                gapsAsList = null;
+            }
+        }
+
+        private void removeAll(GlobalEventOrderBitmap gapsToRemove) {
+            gaps.removeAll(gapsToRemove);
+            gapsByFirstDiscovered.values().removeIf(gapsDiscovered -> gapsDiscovered.removeAll(gapsToRemove).isEmpty());
+            gapsAsList = null;
+        }
+
+        private boolean isEmpty() {
+            return gaps.isEmpty();
+        }
+
+        /**
+         * @return all transient gaps ordered by their {@link GlobalEventOrder}
+         */
+        private List<Pair<GlobalEventOrder, OffsetDateTime>> asList() {
+            if (gapsAsList == null) {
+                var list = new ArrayList<Pair<GlobalEventOrder, OffsetDateTime>>(Math.toIntExact(gaps.cardinality()));
+                gapsByFirstDiscovered.forEach((firstDiscovered, gapsDiscovered) -> gapsDiscovered.forEach(gap -> list.add(Pair.of(GlobalEventOrder.of(gap), firstDiscovered))));
+                list.sort(Comparator.comparingLong(gap -> gap._1.longValue()));
+                gapsAsList = Collections.unmodifiableList(list);
+            }
+            return gapsAsList;
+        }
+
+        @Override
+        public String toString() {
+            return gaps.toString();
+        }
+    }
+
     private class PostgresqlSubscriptionGapHandler implements SubscriptionGapHandler {
-        private final SubscriberId                                                               subscriberId;
-        private       OffsetDateTime                                                             transientGapsLastRefreshedFromStorage;
-        private       ConcurrentMap<AggregateType, List<Pair<GlobalEventOrder, OffsetDateTime>>> allTransientGaps = new ConcurrentHashMap<>();
+        private final SubscriberId                                subscriberId;
+        private final ConcurrentMap<AggregateType, TransientGaps> allTransientGaps = new ConcurrentHashMap<>();
 
         public PostgresqlSubscriptionGapHandler(SubscriberId subscriberId) {
             this.subscriberId = requireNonNull(subscriberId, "No subscriberId provided");
@@ -252,14 +357,13 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
             requireNonNull(globalOrderQueryRange, "No globalOrderQueryRange provided");
 
             // Ensure all transient gaps for this aggregate type is loaded
-            getTransientGapsFor(aggregateType);
-            var transientGapsFor = allTransientGaps.get(aggregateType);
+            var transientGapsFor = unitOfWorkFactory.withUnitOfWork(unitOfWork -> internalGetTransientGapsFor(aggregateType));
             if (transientGapsFor.isEmpty()) {
                 return NO_GAPS;
             } else {
                 return resolveTransientGapsToIncludeInQueryStrategy.resolveTransientGaps(aggregateType,
                                                                                          globalOrderQueryRange,
-                                                                                         Collections.unmodifiableList(transientGapsFor));
+                                                                                         transientGapsFor.asList());
             }
         }
 
@@ -270,6 +374,19 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
             requireNonNull(persistedEvents, "No persistedEvents provided");
             requireNonNull(transientGapsIncludedInQuery, "No transientGaps provided");
 
+            var subscriptionMetrics = PostgresqlEventStreamGapHandler.this.subscriptionMetrics;
+            var startedAt           = System.nanoTime();
+            try {
+                doReconcileGaps(aggregateType, globalOrderQueryRange, persistedEvents, transientGapsIncludedInQuery);
+            } finally {
+                if (subscriptionMetrics != EventStoreSubscriptionMetrics.NONE) {
+                    subscriptionMetrics.gapsReconciled(subscriberId, aggregateType, System.nanoTime() - startedAt);
+                }
+            }
+        }
+
+        private void doReconcileGaps(AggregateType aggregateType, LongRange globalOrderQueryRange, List<PersistedEvent> persistedEvents, List<GlobalEventOrder> transientGapsIncludedInQuery) {
+
             log.debug("[{}] Reconciling '{}' Gaps for query with globalOrderQueryRange: {},  persistedEvents size: {} and transientGaps size: {}",
                       subscriberId,
                       aggregateType,
@@ -277,41 +394,47 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                       persistedEvents.size(),
                       transientGapsIncludedInQuery.size());
 
+            var persistedEventGlobalOrders      = new GlobalEventOrderBitmap();
+            var maxGlobalOrderOfPersistedEvents = -1L;
+            for (var persistedEvent : persistedEvents) {
+                var globalEventOrder = persistedEvent.globalEventOrder().longValue();
+                persistedEventGlobalOrders.add(globalEventOrder);
+                maxGlobalOrderOfPersistedEvents = Math.max(maxGlobalOrderOfPersistedEvents, globalEventOrder);
+            }
+
             // Resolve existing Transient Gaps
-            var resolvedTransientGaps = persistedEvents.stream().map(PersistedEvent::globalEventOrder)
-                                                       .filter(transientGapsIncludedInQuery::contains)
-                                                       .collect(Collectors.toList());
             var findTransientGapsThatWereResolved = !transientGapsIncludedInQuery.isEmpty() && !persistedEvents.isEmpty();
             if (findTransientGapsThatWereResolved) {
                 deleteTransientGaps(aggregateType,
-                                    resolvedTransientGaps);
+                                    persistedEventGlobalOrders.intersection(GlobalEventOrderBitmap.of(transientGapsIncludedInQuery)));
             }
 
             // New Transient Gaps
             if (!persistedEvents.isEmpty()) {
-                var persistedEventGlobalOrders      = persistedEvents.stream().map(persistedEvent -> persistedEvent.globalEventOrder().longValue()).collect(Collectors.toList());
-                var maxGlobalOrderOfPersistedEvents = persistedEventGlobalOrders.stream().max(Long::compareTo).get();
-                var newTransientGapsToAdd = LongRange.between(globalOrderQueryRange.fromInclusive,
-                                                              maxGlobalOrderOfPersistedEvents)
-                                                     .stream()
-                                                     .boxed()
-                                                     .filter(globalEventOrder -> !persistedEventGlobalOrders.contains(globalEventOrder))
-                                                     .map(GlobalEventOrder::of)
-                                                     .collect(Collectors.toList());
-                // Verify if the transient gap is already marked permanent by another subscriber (permanent gaps are defined across subscribers per aggregate type)
-                var permanentGapsAmongTheNewTransientGaps = getPermanentGapsFor(aggregateType).filter(newTransientGapsToAdd::contains).collect(Collectors.toList());
-                if (permanentGapsAmongTheNewTransientGaps.size() > 0) {
-                    log.debug("[{}] Removed {} permanent gaps among the newly discovered transient gaps for {}: {}",
+                // Permanent gaps are defined across subscribers per aggregate type, so any gap that's already marked permanent by another subscriber is skipped
+                var permanentGaps                     = getCachedPermanentGapsFor(aggregateType);
+                var newTransientGapsToAdd             = new GlobalEventOrderBitmap();
+                var numberOfPermanentGapsAmongTheGaps = 0;
+                for (var globalEventOrder = globalOrderQueryRange.fromInclusive; globalEventOrder <= maxGlobalOrderOfPersistedEvents; globalEventOrder++) {
+                    if (persistedEventGlobalOrders.contains(globalEventOrder)) {
+                        continue;
+                    }
+                    if (permanentGaps.contains(globalEventOrder)) {
+                        numberOfPermanentGapsAmongTheGaps++;
+                    } else {
+                        newTransientGapsToAdd.add(globalEventOrder);
+                    }
+                }
+                if (numberOfPermanentGapsAmongTheGaps > 0) {
+                    log.debug("[{}] Skipped {} permanent gaps among the newly discovered transient gaps for {}",
                               subscriberId,
-                              permanentGapsAmongTheNewTransientGaps.size(),
-                              aggregateType,
-                              permanentGapsAmongTheNewTransientGaps);
-                    newTransientGapsToAdd.removeAll(permanentGapsAmongTheNewTransientGaps);
+                              numberOfPermanentGapsAmongTheGaps,
+                              aggregateType);
                 }
                 if (log.isDebugEnabled()) {
                     log.debug("[{}] Detected {} New Transient '{}' gaps: {} based on persisted events: {}",
                               subscriberId,
-                              newTransientGapsToAdd.size(),
+                              newTransientGapsToAdd.cardinality(),
                               aggregateType,
                               newTransientGapsToAdd,
                               persistedEventGlobalOrders);
@@ -324,79 +447,69 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                       subscriberId,
                       aggregateType,
                       allTransientGaps);
-            var promotableTransientGaps = resolveTransientGapsToPermanentGapsPromotionStrategy.resolveTransientGapsReadyToBePromotedToPermanentGaps(aggregateType,
-                                                                                                                                                    allTransientGaps.get(aggregateType));
-            promoteTransientGapsToPermanentGaps(aggregateType,
-                                                promotableTransientGaps);
+            var transientGaps = internalGetTransientGapsFor(aggregateType);
+            if (!transientGaps.isEmpty()) {
+                var promotableTransientGaps = resolveTransientGapsToPermanentGapsPromotionStrategy.resolveTransientGapsReadyToBePromotedToPermanentGaps(aggregateType,
+                                                                                                                                                        transientGaps.asList());
+                promoteTransientGapsToPermanentGaps(aggregateType,
+                                                    promotableTransientGaps);
+            }
         }
 
         private void promoteTransientGapsToPermanentGaps(AggregateType aggregateType, List<GlobalEventOrder> promotableTransientGaps) {
-            if (promotableTransientGaps.isEmpty()) return;
-
-            var unitOfWork = unitOfWorkFactory.getRequiredUnitOfWork();
-            deleteTransientGaps(aggregateType, promotableTransientGaps);
-
-            var now = now();
-            var preparedBatch = unitOfWork.handle().prepareBatch("INSERT INTO " + PERMANENT_GAPS_TABLE_NAME + "\n" +
-                                                                         "(aggregate_type, gap_global_event_order, added_timestamp) " +
-                                                                         "VALUES (:aggregate_type, :gap_global_event_order, :added_timestamp) " +
-                                                                         "ON CONFLICT DO NOTHING");
-
-            for (var permanentGap : promotableTransientGaps) {
-                preparedBatch
-                        .bind("aggregate_type", aggregateType)
-                        .bind("gap_global_event_order", permanentGap)
-                        .bind("added_timestamp", now)
-                        .add();
-            }
-            var rowsUpdated = Arrays.stream(preparedBatch.execute())
-                                    .reduce(Integer::sum).orElse(0);
-            if (rowsUpdated == promotableTransientGaps.size()) {
+            if (promotableTransientGaps == null || promotableTransientGaps.isEmpty()) return;
+
+            var unitOfWork    = unitOfWorkFactory.getRequiredUnitOfWork();
+            var gapsToPromote = GlobalEventOrderBitmap.of(promotableTransientGaps);
+            deleteTransientGaps(aggregateType, gapsToPromote);
+
+            var rowsUpdated = unitOfWork.handle().createUpdate("INSERT INTO " + PERMANENT_GAPS_TABLE_NAME + "\n" +
+                                                                       "(aggregate_type, gap_global_event_order, added_timestamp)\n" +
+                                                                       "SELECT :aggregate_type, gap, :added_timestamp FROM unnest(:gaps) AS gap\n" +
+                                                                       "ON CONFLICT DO NOTHING")
+                                        .bind("aggregate_type", aggregateType)
+                                        .bind("gaps", gapsToPromote.toArray())
+                                        .bind("added_timestamp", now())
+                                        .execute();
+            addToCachedPermanentGaps(aggregateType, gapsToPromote);
+            if (rowsUpdated == gapsToPromote.cardinality()) {
                 log.debug("[{}] Promoted {} Transient '{}' Gaps to be Permanent Gaps: {}",
                           subscriberId,
-                          promotableTransientGaps.size(),
+                          gapsToPromote.cardinality(),
                           aggregateType,
-                          promotableTransientGaps);
+                          gapsToPromote);
             } else {
                 log.debug("[{}] Promoted {} out of {} Transient '{}' Gaps to be Permanent Gaps: {}",
                           subscriberId,
                           rowsUpdated,
-                          promotableTransientGaps.size(),
+                          gapsToPromote.cardinality(),
                           aggregateType,
-                          promotableTransientGaps);
+                          gapsToPromote);
             }
         }
 
-        private void addNewTransientGaps(AggregateType aggregateType, List<GlobalEventOrder> newTransientGapsToAdd) {
+        private void addNewTransientGaps(AggregateType aggregateType, GlobalEventOrderBitmap newTransientGapsToAdd) {
             if (newTransientGapsToAdd.isEmpty()) return;
 
             var unitOfWork = unitOfWorkFactory.getRequiredUnitOfWork();
             var now        = now();
 
             var gaps = internalGetTransientGapsFor(aggregateType);
-            gaps.addAll(newTransientGapsToAdd.stream()
-                                             .map(globalEventOrder -> Pair.of(globalEventOrder,
-                                                                              now))
-                                             .collect(Collectors.toList()));
-
-            var preparedBatch = unitOfWork.handle().prepareBatch("INSERT INTO " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
-                                                                         "(subscriber_id, aggregate_type, gap_global_event_order, first_discovered) " +
-                                                                         "VALUES (:subscriber_id, :aggregate_type, :gap_global_event_order, :first_discovered) " +
-                                                                         "ON CONFLICT DO NOTHING");
-            for (var transientGap : newTransientGapsToAdd) {
-                preparedBatch
-                        .bind("subscriber_id", subscriberId)
-                        .bind("aggregate_type", aggregateType)
-                        .bind("gap_global_event_order", transientGap)
-                        .bind("first_discovered", now)
-                        .add();
-            }
-            var rowsUpdated = Arrays.stream(preparedBatch.execute())
-                                    .reduce(Integer::sum).orElse(0);
-            if (rowsUpdated == newTransientGapsToAdd.size()) {
+            newTransientGapsToAdd.forEach(gap -> gaps.add(gap, now));
+
+            var rowsUpdated = unitOfWork.handle().createUpdate("INSERT INTO " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
+                                                                       "(subscriber_id, aggregate_type, gap_global_event_order, first_discovered)\n" +
+                                                                       "SELECT :subscriber_id, :aggregate_type, gap, :first_discovered FROM unnest(:gaps) AS gap\n" +
+                                                                       "ON CONFLICT DO NOTHING")
+                                        .bind("subscriber_id", subscriberId)
+                                        .bind("aggregate_type", aggregateType)
+                                        .bind("gaps", newTransientGapsToAdd.toArray())
+                                        .bind("first_discovered", now)
+                                        .execute();
+            if (rowsUpdated == newTransientGapsToAdd.cardinality()) {
                 log.debug("[{}] Added {} New Transient '{}' Gaps {}\nAll Transient '{}' Gaps: {}",
                           subscriberId,
-                          newTransientGapsToAdd.size(),
+                          newTransientGapsToAdd.cardinality(),
                           aggregateType,
                           newTransientGapsToAdd,
                           aggregateType,
@@ -407,34 +520,30 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                  "New Transient Gaps to add: {}",
                          subscriberId,
                          rowsUpdated,
-                         newTransientGapsToAdd.size(),
+                         newTransientGapsToAdd.cardinality(),
                          aggregateType,
                          subscriberId,
-                         allTransientGaps);
+                         newTransientGapsToAdd);
             }
         }
 
-        private void deleteTransientGaps(AggregateType aggregateType, List<GlobalEventOrder> resolvedTransientGaps) {
+        private void deleteTransientGaps(AggregateType aggregateType, GlobalEventOrderBitmap resolvedTransientGaps) {
             if (resolvedTransientGaps.isEmpty()) return;
 
             var unitOfWork = unitOfWorkFactory.getRequiredUnitOfWork();
-            var gaps       = internalGetTransientGapsFor(aggregateType);
-            allTransientGaps.put(aggregateType,
-                                 gaps.stream()
-                                     .filter(gap -> !resolvedTransientGaps.contains(gap._1))
-                                     .collect(Collectors.toList()));
+            internalGetTransientGapsFor(aggregateType).removeAll(resolvedTransientGaps);
 
             var numOfRowsChanges = unitOfWork.handle().createUpdate("DELETE FROM " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
-                                                                            "    WHERE aggregate_type = :aggregate_type and gap_global_event_order IN (<resolveTransientGaps>)")
+                                                                            "    WHERE aggregate_type = :aggregate_type and gap_global_event_order = ANY(:resolveTransientGaps)")
                                              .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
-                                             .bindList("resolveTransientGaps", resolvedTransientGaps)
+                                             .bind("resolveTransientGaps", resolvedTransientGaps.toArray())
                                              .execute();
-            if (numOfRowsChanges != resolvedTransientGaps.size()) {
+            if (numOfRowsChanges != resolvedTransientGaps.cardinality()) {
                 log.warn("[{}] Wanted to delete {} resolved Transient '{}' gaps, but was only able to delete {} transient gaps.\n" +
                                  "Do you have multiple instances of the same subscriber '{}' running without using exclusive subscriptions?\n" +
                                  "Resolved Transient Gaps to delete: {}",
                          subscriberId,
-                         resolvedTransientGaps.size(),
+                         resolvedTransientGaps.cardinality(),
                          aggregateType,
                          numOfRowsChanges,
                          subscriberId,
@@ -444,7 +553,7 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
                                   "Resolved Transient Gaps deleted: {}\n" +
                                   "All Transient '{}' Gaps: {}",
                           subscriberId,
-                          resolvedTransientGaps.size(),
+                          resolvedTransientGaps.cardinality(),
                           aggregateType,
                           resolvedTransientGaps,
                           aggregateType,
@@ -452,46 +561,46 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
             }
         }
 
-        private List<Pair<GlobalEventOrder, OffsetDateTime>> internalGetTransientGapsFor(AggregateType aggregateType) {
+        private TransientGaps internalGetTransientGapsFor(AggregateType aggregateType) {
             requireNonNull(aggregateType, "No aggregateType provided");
             var gaps = allTransientGaps.get(aggregateType);
-            if (gaps == null || gaps.isEmpty() || transientGapsLastRefreshedFromStorage == null || ChronoUnit.SECONDS.between(transientGapsLastRefreshedFromStorage, now()) >= refreshTransientGapsFromStorageEverySeconds) {
-                transientGapsLastRefreshedFromStorage = now();
-                allTransientGaps.put(aggregateType, unitOfWorkFactory.getRequiredUnitOfWork()
-                                                                     .handle()
-                                                                     .createQuery("SELECT gap_global_event_order, first_discovered FROM " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
-                                                                                          "    WHERE aggregate_type = :aggregate_type and subscriber_id = :subscriber_id\n" +
-                                                                                          "    ORDER BY gap_global_event_order ASC")
-                                                                     .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
-                                                                     .bind("subscriber_id", subscriberId)
-                                                                     .map((rs, ctx) -> Pair.of(GlobalEventOrder.of(rs.getLong("gap_global_event_order")),
-                                                                                               rs.getObject("first_discovered", OffsetDateTime.class)))
-                                                                     .list());
+            if (gaps == null || ChronoUnit.SECONDS.between(gaps.loadedFromStorageAt, now()) >= refreshTransientGapsFromStorageEverySeconds) {
+                gaps = unitOfWorkFactory.getRequiredUnitOfWork()
+                                        .handle()
+                                        .createQuery("SELECT gap_global_event_order, first_discovered FROM " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
+                                                             "    WHERE aggregate_type = :aggregate_type and subscriber_id = :subscriber_id")
+                                        .bind("aggregate_type", aggregateType)
+                                        .bind("subscriber_id", subscriberId)
+                                        .reduceResultSet(new TransientGaps(now()), (transientGaps, rs, ctx) -> {
+                                            transientGaps.add(rs.getLong("gap_global_event_order"),
+                                                              rs.getObject("first_discovered", OffsetDateTime.class));
+                                            return transientGaps;
+                                        });
+                allTransientGaps.put(aggregateType, gaps);
             }
-            return allTransientGaps.computeIfAbsent(aggregateType, aggregateType_ -> new ArrayList<>());
+            return gaps;
         }
 
         @Override
         public List<GlobalEventOrder> resetTransientGapsFor(AggregateType aggregateType) {
-            return unitOfWorkFactory.withUnitOfWork(unitOfWork ->
-                                                            unitOfWork.handle()
-                                                                      .createQuery("DELETE FROM " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
-                                                                                           "    WHERE aggregate_type = :aggregate_type and subscriber_id = :subscriber_id\n" +
-                                                                                           "    RETURNING gap_global_event_order")
-                                                                      .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
-                                                                      .bind("subscriber_id", subscriberId)
-                                                                      .mapTo(GlobalEventOrder.class)
-                                                                      .list()
-                                                   );
+            var globalEventOrdersRemoved = unitOfWorkFactory.withUnitOfWork(unitOfWork ->
+                                                                                    unitOfWork.handle()
+                                                                                              .createQuery("DELETE FROM " + TRANSIENT_SUBSCRIBER_GAPS_TABLE_NAME + "\n" +
+                                                                                                                   "    WHERE aggregate_type = :aggregate_type and subscriber_id = :subscriber_id\n" +
+                                                                                                                   "    RETURNING gap_global_event_order")
+                                                                                              .bind("aggregate_type", requireNonNull(aggregateType, "No aggregateType provided"))
+                                                                                              .bind("subscriber_id", subscriberId)
+                                                                                              .mapTo(GlobalEventOrder.class)
+                                                                                              .list()
+                                                                           );
+            allTransientGaps.remove(aggregateType);
+            return globalEventOrdersRemoved;
         }
 
         @Override
         public List<GlobalEventOrder> getTransientGapsFor(AggregateType aggregateType) {
             return unitOfWorkFactory.withUnitOfWork(unitOfWork ->
-                                                            internalGetTransientGapsFor(aggregateType)
-                                                                    .stream()
-                                                                    .map(Pair::_1)
-                                                                    .collect(Collectors.toList()));
+                                                            internalGetTransientGapsFor(aggregateType).gaps.toGlobalEventOrders());
         }
 
         @Override
@@ -524,7 +633,6 @@ public final class PostgresqlEventStreamGapHandler<CONFIG extends AggregateEvent
         public String toString() {
             return "PostgresqlSubscriptionGapHandler{" +
                     "subscriberId=" + subscriberId +
-                    ", transientGapsLastRefreshedFromStorage=" + transientGapsLastRefreshedFromStorage +
                     ", transientGaps(#" + allTransientGaps.size() + ")=" + allTransientGaps +
                     '}';
         }
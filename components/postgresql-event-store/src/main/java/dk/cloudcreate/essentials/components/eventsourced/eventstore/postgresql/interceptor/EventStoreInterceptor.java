@@ -42,6 +42,18 @@ public interface EventStoreInterceptor {
         return eventStoreInterceptorChain.proceed();
     }
 
+    /**
+     * Intercept the {@link AppendToStreams} operation (i.e. {@link EventStore#appendToStreams(AppendToStreams)}/{@link EventStore#appendToStreams(List)})<br>
+     * Note: The {@link AppendToStream}'s included in the {@link AppendToStreams} operation are NOT individually intercepted using {@link #intercept(AppendToStream, EventStoreInterceptorChain)}
+     *
+     * @param operation                  the operation instance
+     * @param eventStoreInterceptorChain the interceptor chain
+     * @return the result of the processing (default implementation just calls {@link EventStoreInterceptorChain#proceed()})
+     */
+    default List<AggregateEventStream<?>> intercept(AppendToStreams operation, EventStoreInterceptorChain<AppendToStreams, List<AggregateEventStream<?>>> eventStoreInterceptorChain) {
+        return eventStoreInterceptorChain.proceed();
+    }
+
     /**
      * Intercept the {@link LoadLastPersistedEventRelatedTo} operation
      *
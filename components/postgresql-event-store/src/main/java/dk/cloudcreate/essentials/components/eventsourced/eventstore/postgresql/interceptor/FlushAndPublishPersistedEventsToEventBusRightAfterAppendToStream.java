@@ -19,15 +19,16 @@ package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.bus.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.AppendToStream;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.*;
 import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Add this interceptor to the {@link EventStore} if you want {@link EventStoreSubscriptionManager#subscribeToAggregateEventsInTransaction(SubscriberId, AggregateType, Optional, TransactionalPersistedEventHandler)}
- * to receive {@link PersistedEvent}'s as soon as they are appended to the {@link EventStore} (i.e. {@link EventStore#appendToStream(AppendToStream)} is performed)
+ * to receive {@link PersistedEvent}'s as soon as they are appended to the {@link EventStore} (i.e. {@link EventStore#appendToStream(AppendToStream)} or {@link EventStore#appendToStreams(AppendToStreams)} is performed)
  */
 public class FlushAndPublishPersistedEventsToEventBusRightAfterAppendToStream implements EventStoreInterceptor {
     @Override
@@ -38,4 +39,16 @@ public class FlushAndPublishPersistedEventsToEventBusRightAfterAppendToStream im
         }
         return eventsPersisted;
     }
+
+    @Override
+    public List<AggregateEventStream<?>> intercept(AppendToStreams operation, EventStoreInterceptorChain<AppendToStreams, List<AggregateEventStream<?>>> eventStoreInterceptorChain) {
+        var aggregateEventStreams = eventStoreInterceptorChain.proceed();
+        var eventsPersisted = aggregateEventStreams.stream()
+                                                   .flatMap(aggregateEventStream -> aggregateEventStream.eventList().stream())
+                                                   .collect(Collectors.toList());
+        if (!eventsPersisted.isEmpty()) {
+            eventStoreInterceptorChain.eventStore().localEventBus().publish(new PersistedEvents(CommitStage.Flush, eventStoreInterceptorChain.eventStore().getUnitOfWorkFactory().getRequiredUnitOfWork(), eventsPersisted));
+        }
+        return aggregateEventStreams;
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.micrometer;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import static dk.cloudcreate.essentials.components.foundation.messaging.queue.micrometer.DurableQueuesMicrometerInterceptor.MODULE_TAG_NAME;
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * {@link EventStoreInterceptor} that maintains Micrometer meters, per {@link AggregateType}, for the core {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore} operations:
+ * <ul>
+ *     <li>{@value #APPEND_TO_STREAM_TIMER_NAME} and {@value #APPEND_TO_STREAM_EVENTS_SUMMARY_NAME} - the latency and number of events appended per {@link AppendToStream}
+ *     (the {@link AppendToStream}'s of an {@link AppendToStreams} operation are recorded individually in {@value #APPEND_TO_STREAM_EVENTS_SUMMARY_NAME},
+ *     while the latency is recorded in {@value #APPEND_TO_STREAMS_TIMER_NAME})</li>
+ *     <li>{@value #FETCH_STREAM_TIMER_NAME} and {@value #FETCH_STREAM_EVENTS_SUMMARY_NAME} - the latency and number of events per {@link FetchStream}</li>
+ *     <li>{@value #LOAD_EVENTS_BY_GLOBAL_ORDER_TIMER_NAME}, {@value #LOAD_EVENTS_BY_GLOBAL_ORDER_ROWS_SUMMARY_NAME} and {@value #LOAD_EVENTS_BY_GLOBAL_ORDER_EMPTY_COUNTER_NAME} -
+ *     the latency, the number of rows returned and the number of empty results per {@link LoadEventsByGlobalOrder}, which is the query performed for each
+ *     subscription poll (the empty-poll ratio is {@value #LOAD_EVENTS_BY_GLOBAL_ORDER_EMPTY_COUNTER_NAME} divided by the count of {@value #LOAD_EVENTS_BY_GLOBAL_ORDER_TIMER_NAME})</li>
+ * </ul>
+ * The meters are only tagged with the {@link AggregateType} and the optional module tag, so the number of meters is bounded by the number of {@link AggregateType}'s.
+ * The meters are created once per {@link AggregateType} and cached.<br>
+ * <b>Note:</b> To count the events, the result of {@link FetchStream} and {@link LoadEventsByGlobalOrder} is materialized
+ * (which the {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore}'s own polling does anyway).<br>
+ * Use {@link MicrometerTimingJSONEventSerializer} to measure the event deserialization time.
+ */
+public final class MicrometerMetricsEventStoreInterceptor implements EventStoreInterceptor {
+    public static final  String   APPEND_TO_STREAM_TIMER_NAME                    = "EventStore_AppendToStream";
+    public static final  String   APPEND_TO_STREAM_EVENTS_SUMMARY_NAME           = "EventStore_AppendToStream_Events";
+    public static final  String   APPEND_TO_STREAMS_TIMER_NAME                   = "EventStore_AppendToStreams";
+    public static final  String   FETCH_STREAM_TIMER_NAME                        = "EventStore_FetchStream";
+    public static final  String   FETCH_STREAM_EVENTS_SUMMARY_NAME               = "EventStore_FetchStream_Events";
+    public static final  String   LOAD_EVENTS_BY_GLOBAL_ORDER_TIMER_NAME         = "EventStore_LoadEventsByGlobalOrder";
+    public static final  String   LOAD_EVENTS_BY_GLOBAL_ORDER_ROWS_SUMMARY_NAME  = "EventStore_LoadEventsByGlobalOrder_Rows";
+    public static final  String   LOAD_EVENTS_BY_GLOBAL_ORDER_EMPTY_COUNTER_NAME = "EventStore_LoadEventsByGlobalOrder_Empty";
+    public static final  String   AGGREGATE_TYPE_TAG_NAME                        = "AggregateType";
+    private static final double[] PERCENTILES                                    = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry                                     meterRegistry;
+    private final List<Tag>                                         commonTags          = new ArrayList<>();
+    private final ConcurrentMap<AggregateType, AggregateTypeMeters> aggregateTypeMeters = new ConcurrentHashMap<>();
+    private final Timer                                             appendToStreamsTimer;
+
+    /**
+     * @param meterRegistry the meter registry
+     * @param moduleTag     the optional module tag
+     */
+    public MicrometerMetricsEventStoreInterceptor(MeterRegistry meterRegistry,
+                                                  String moduleTag) {
+        this.meterRegistry = requireNonNull(meterRegistry, "No meterRegistry instance provided");
+        Optional.ofNullable(moduleTag).map(t -> Tag.of(MODULE_TAG_NAME, t)).ifPresent(commonTags::add);
+        appendToStreamsTimer = Timer.builder(APPEND_TO_STREAMS_TIMER_NAME)
+                                    .tags(commonTags)
+                                    .publishPercentiles(PERCENTILES)
+                                    .register(meterRegistry);
+    }
+
+    @Override
+    public <ID> AggregateEventStream<ID> intercept(AppendToStream<ID> operation, EventStoreInterceptorChain<AppendToStream<ID>, AggregateEventStream<ID>> eventStoreInterceptorChain) {
+        var meters    = metersFor(operation.aggregateType);
+        var startedAt = System.nanoTime();
+        try {
+            return eventStoreInterceptorChain.proceed();
+        } finally {
+            meters.appendToStream.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            meters.appendToStreamEvents.record(operation.getEventsToAppend().size());
+        }
+    }
+
+    @Override
+    public List<AggregateEventStream<?>> intercept(AppendToStreams operation, EventStoreInterceptorChain<AppendToStreams, List<AggregateEventStream<?>>> eventStoreInterceptorChain) {
+        var startedAt = System.nanoTime();
+        try {
+            return eventStoreInterceptorChain.proceed();
+        } finally {
+            appendToStreamsTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            for (var appendToStream : operation.getAppendToStreams()) {
+                metersFor(appendToStream.aggregateType).appendToStreamEvents.record(appendToStream.getEventsToAppend().size());
+            }
+        }
+    }
+
+    @Override
+    public <ID> Optional<AggregateEventStream<ID>> intercept(FetchStream<ID> operation, EventStoreInterceptorChain<FetchStream<ID>, Optional<AggregateEventStream<ID>>> eventStoreInterceptorChain) {
+        var meters    = metersFor(operation.aggregateType);
+        var startedAt = System.nanoTime();
+        try {
+            var potentialStream = eventStoreInterceptorChain.proceed();
+            meters.fetchStreamEvents.record(potentialStream.isPresent() ? potentialStream.get().eventList().size() : 0);
+            return potentialStream;
+        } finally {
+            meters.fetchStream.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Stream<PersistedEvent> intercept(LoadEventsByGlobalOrder operation, EventStoreInterceptorChain<LoadEventsByGlobalOrder, Stream<PersistedEvent>> eventStoreInterceptorChain) {
+        var meters    = metersFor(operation.aggregateType);
+        var startedAt = System.nanoTime();
+        try {
+            var persistedEvents = eventStoreInterceptorChain.proceed().collect(Collectors.toList());
+            meters.loadEventsByGlobalOrderRows.record(persistedEvents.size());
+            if (persistedEvents.isEmpty()) {
+                meters.loadEventsByGlobalOrderEmpty.increment();
+            }
+            return persistedEvents.stream();
+        } finally {
+            meters.loadEventsByGlobalOrder.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private AggregateTypeMeters metersFor(AggregateType aggregateType) {
+        var meters = aggregateTypeMeters.get(aggregateType);
+        if (meters == null) {
+            meters = aggregateTypeMeters.computeIfAbsent(aggregateType, AggregateTypeMeters::new);
+        }
+        return meters;
+    }
+
+    private final class AggregateTypeMeters {
+        private final Timer               appendToStream;
+        private final DistributionSummary appendToStreamEvents;
+        private final Timer               fetchStream;
+        private final DistributionSummary fetchStreamEvents;
+        private final Timer               loadEventsByGlobalOrder;
+        private final DistributionSummary loadEventsByGlobalOrderRows;
+        private final Counter             loadEventsByGlobalOrderEmpty;
+
+        private AggregateTypeMeters(AggregateType aggregateType) {
+            var tags = new ArrayList<>(commonTags);
+            tags.add(Tag.of(AGGREGATE_TYPE_TAG_NAME, aggregateType.toString()));
+            appendToStream = Timer.builder(APPEND_TO_STREAM_TIMER_NAME)
+                                  .tags(tags)
+                                  .publishPercentiles(PERCENTILES)
+                                  .register(meterRegistry);
+            appendToStreamEvents = DistributionSummary.builder(APPEND_TO_STREAM_EVENTS_SUMMARY_NAME)
+                                                      .tags(tags)
+                                                      .publishPercentiles(PERCENTILES)
+                                                      .register(meterRegistry);
+            fetchStream = Timer.builder(FETCH_STREAM_TIMER_NAME)
+                               .tags(tags)
+                               .publishPercentiles(PERCENTILES)
+                               .register(meterRegistry);
+            fetchStreamEvents = DistributionSummary.builder(FETCH_STREAM_EVENTS_SUMMARY_NAME)
+                                                   .tags(tags)
+                                                   .publishPercentiles(PERCENTILES)
+                                                   .register(meterRegistry);
+            loadEventsByGlobalOrder = Timer.builder(LOAD_EVENTS_BY_GLOBAL_ORDER_TIMER_NAME)
+                                           .tags(tags)
+                                           .publishPercentiles(PERCENTILES)
+                                           .register(meterRegistry);
+            loadEventsByGlobalOrderRows = DistributionSummary.builder(LOAD_EVENTS_BY_GLOBAL_ORDER_ROWS_SUMMARY_NAME)
+                                                             .tags(tags)
+                                                             .publishPercentiles(PERCENTILES)
+                                                             .register(meterRegistry);
+            loadEventsByGlobalOrderEmpty = Counter.builder(LOAD_EVENTS_BY_GLOBAL_ORDER_EMPTY_COUNTER_NAME)
+                                                  .tags(tags)
+                                                  .register(meterRegistry);
+        }
+    }
+}
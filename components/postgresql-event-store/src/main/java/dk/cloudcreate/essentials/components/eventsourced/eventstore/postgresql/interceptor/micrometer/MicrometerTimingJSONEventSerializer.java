@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.micrometer;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.EventMetaData;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static dk.cloudcreate.essentials.components.foundation.messaging.queue.micrometer.DurableQueuesMicrometerInterceptor.MODULE_TAG_NAME;
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * {@link JSONEventSerializer} decorator that records the time spent deserializing JSON in the {@value #DESERIALIZE_TIMER_NAME} timer.<br>
+ * {@link EventJSON#deserialize()} and {@link EventJSON#getJsonDeserialized()} use the {@link JSONEventSerializer} that the
+ * {@link EventJSON} was loaded with, so to measure the event deserialization time, the {@link MicrometerTimingJSONEventSerializer}
+ * must be the {@link JSONEventSerializer} configured for the event stream persistence strategy.<br>
+ * If the same {@link JSONEventSerializer} is also used for e.g. durable queue message payloads, then their deserialization time is included as well.
+ */
+public final class MicrometerTimingJSONEventSerializer implements JSONEventSerializer {
+    public static final  String   DESERIALIZE_TIMER_NAME = "EventStore_JSON_Deserialize";
+    private static final double[] PERCENTILES            = {0.5, 0.95, 0.99};
+
+    private final JSONEventSerializer delegate;
+    private final Timer               deserializeTimer;
+
+    /**
+     * @param delegate      the {@link JSONEventSerializer} that performs the actual serialization and deserialization
+     * @param meterRegistry the meter registry
+     * @param moduleTag     the optional module tag
+     */
+    public MicrometerTimingJSONEventSerializer(JSONEventSerializer delegate,
+                                               MeterRegistry meterRegistry,
+                                               String moduleTag) {
+        this.delegate = requireNonNull(delegate, "No delegate JSONEventSerializer provided");
+        requireNonNull(meterRegistry, "No meterRegistry instance provided");
+        var tags = new ArrayList<Tag>();
+        Optional.ofNullable(moduleTag).map(t -> Tag.of(MODULE_TAG_NAME, t)).ifPresent(tags::add);
+        deserializeTimer = Timer.builder(DESERIALIZE_TIMER_NAME)
+                                .tags(tags)
+                                .publishPercentiles(PERCENTILES)
+                                .register(meterRegistry);
+    }
+
+    @Override
+    public EventJSON serializeEvent(Object objectToSerialize) {
+        return delegate.serializeEvent(objectToSerialize);
+    }
+
+    @Override
+    public EventMetaDataJSON serializeMetaData(EventMetaData metaData) {
+        return delegate.serializeMetaData(metaData);
+    }
+
+    @Override
+    public String serialize(Object obj) {
+        return delegate.serialize(obj);
+    }
+
+    @Override
+    public byte[] serializeAsBytes(Object obj) {
+        return delegate.serializeAsBytes(obj);
+    }
+
+    @Override
+    public <T> T deserialize(String json, String javaType) {
+        var startedAt = System.nanoTime();
+        try {
+            return delegate.deserialize(json, javaType);
+        } finally {
+            deserializeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(String json, Class<T> javaType) {
+        var startedAt = System.nanoTime();
+        try {
+            return delegate.deserialize(json, javaType);
+        } finally {
+            deserializeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] json, String javaType) {
+        var startedAt = System.nanoTime();
+        try {
+            return delegate.deserialize(json, javaType);
+        } finally {
+            deserializeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] json, Class<T> javaType) {
+        var startedAt = System.nanoTime();
+        try {
+            return delegate.deserialize(json, javaType);
+        } finally {
+            deserializeTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
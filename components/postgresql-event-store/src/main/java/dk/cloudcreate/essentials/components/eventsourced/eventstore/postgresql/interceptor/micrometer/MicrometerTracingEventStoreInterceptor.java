@@ -26,7 +26,7 @@ import io.micrometer.observation.transport.*;
 import io.micrometer.tracing.Tracer;
 import io.micrometer.tracing.propagation.Propagator;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Stream;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
@@ -73,6 +73,15 @@ public final class MicrometerTracingEventStoreInterceptor implements EventStoreI
         return observation.observe(eventStoreInterceptorChain::proceed);
     }
 
+    @Override
+    public List<AggregateEventStream<?>> intercept(AppendToStreams operation, EventStoreInterceptorChain<AppendToStreams, List<AggregateEventStream<?>>> eventStoreInterceptorChain) {
+        var observation = Observation.createNotStarted("PersistEventsToStreams", observationRegistry)
+                                     .highCardinalityKeyValue(AGGREGATE_TYPE, operation.getAggregateTypes().toString())
+                                     .highCardinalityKeyValue("StreamCount", Integer.toString(operation.getAppendToStreams().size()))
+                                     .highCardinalityKeyValue("EventCount", Integer.toString(operation.getNumberOfEventsToAppend()));
+        return observation.observe(eventStoreInterceptorChain::proceed);
+    }
+
     @Override
     public <ID> Optional<PersistedEvent> intercept(LoadLastPersistedEventRelatedTo<ID> operation,
                                                    EventStoreInterceptorChain<LoadLastPersistedEventRelatedTo<ID>, Optional<PersistedEvent>> eventStoreInterceptorChain) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Operation matching the {@link EventStore#appendToStreams(List)} method call<br>
+ * Operation also matches {@link EventStoreInterceptor#intercept(AppendToStreams, EventStoreInterceptorChain)}<br>
+ * <br>
+ * Appends events to multiple {@link AggregateEventStream}'s (which may belong to different {@link AggregateType}'s) as one operation.<br>
+ * Each {@link AppendToStream} must target a distinct aggregate event stream (i.e. a unique combination of {@link AppendToStream#aggregateType}
+ * and {@link AppendToStream#aggregateId})
+ */
+public final class AppendToStreams {
+    private final List<AppendToStream<?>> appendToStreams;
+
+    /**
+     * Create a new builder that produces a new {@link AppendToStreams} instance
+     *
+     * @return a new {@link AppendToStreamsBuilder} instance
+     */
+    public static AppendToStreamsBuilder builder() {
+        return new AppendToStreamsBuilder();
+    }
+
+    /**
+     * Append events to multiple {@link AggregateEventStream}'s
+     *
+     * @param appendToStreams the {@link AppendToStream} operations, one per aggregate event stream
+     */
+    public AppendToStreams(List<AppendToStream<?>> appendToStreams) {
+        requireNonNull(appendToStreams, "No appendToStreams provided");
+        var aggregateEventStreams = new HashSet<Map.Entry<AggregateType, Object>>();
+        appendToStreams.forEach(appendToStream -> {
+            requireNonNull(appendToStream, "appendToStreams contains a null AppendToStream");
+            requireTrue(aggregateEventStreams.add(Map.entry(appendToStream.aggregateType, appendToStream.aggregateId)),
+                        msg("appendToStreams contains more than one AppendToStream for AggregateType '{}' and aggregateId '{}'",
+                            appendToStream.aggregateType,
+                            appendToStream.aggregateId));
+        });
+        this.appendToStreams = List.copyOf(appendToStreams);
+    }
+
+    /**
+     * Append events to multiple {@link AggregateEventStream}'s
+     *
+     * @param appendToStreams the {@link AppendToStream} operations, one per aggregate event stream
+     */
+    public AppendToStreams(AppendToStream<?>... appendToStreams) {
+        this(List.of(appendToStreams));
+    }
+
+    /**
+     * @return the {@link AppendToStream} operations, one per aggregate event stream
+     */
+    public List<AppendToStream<?>> getAppendToStreams() {
+        return appendToStreams;
+    }
+
+    /**
+     * @return the distinct {@link AggregateType}'s affected by this operation
+     */
+    public Set<AggregateType> getAggregateTypes() {
+        return appendToStreams.stream()
+                              .map(AppendToStream::getAggregateType)
+                              .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * @return the total number of events to persist/append across all the {@link #getAppendToStreams()}
+     */
+    public int getNumberOfEventsToAppend() {
+        return appendToStreams.stream()
+                              .mapToInt(appendToStream -> appendToStream.getEventsToAppend().size())
+                              .sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AppendToStreams{" +
+                "appendToStreams=" + appendToStreams +
+                '}';
+    }
+}
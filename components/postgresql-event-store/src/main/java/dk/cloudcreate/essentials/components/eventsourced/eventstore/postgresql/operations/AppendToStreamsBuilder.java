@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * Builder for the {@link AppendToStreams}
+ */
+public final class AppendToStreamsBuilder {
+    private final List<AppendToStream<?>> appendToStreams = new ArrayList<>();
+
+    /**
+     * @param appendToStream the operation describing the events to append to a single {@link AggregateEventStream}
+     * @return this builder instance
+     */
+    public AppendToStreamsBuilder addAppendToStream(AppendToStream<?> appendToStream) {
+        appendToStreams.add(requireNonNull(appendToStream, "No appendToStream provided"));
+        return this;
+    }
+
+    /**
+     * @param aggregateType               the aggregate type that the underlying {@link AggregateEventStream} is associated with
+     * @param aggregateId                 the identifier of the aggregate we want to persist events related to
+     * @param appendEventsAfterEventOrder append the <code>eventsToAppend</code> after this event order.<br>
+     *                                    If <code>appendEventsAfterEventOrder</code> is {@link Optional#empty()} then the {@link EventStore}
+     *                                    will resolve the {@link EventOrder} of the last persisted event for this aggregate instance.
+     * @param eventsToAppend              the events to persist/append
+     * @param <ID>                        the id type for the aggregate
+     * @return this builder instance
+     */
+    public <ID> AppendToStreamsBuilder addAppendToStream(AggregateType aggregateType,
+                                                         ID aggregateId,
+                                                         Optional<Long> appendEventsAfterEventOrder,
+                                                         List<?> eventsToAppend) {
+        return addAppendToStream(new AppendToStream<>(aggregateType,
+                                                      aggregateId,
+                                                      appendEventsAfterEventOrder,
+                                                      eventsToAppend));
+    }
+
+    /**
+     * Builder an {@link AppendToStreams} instance from the builder properties
+     *
+     * @return the {@link AppendToStreams} instance
+     */
+    public AppendToStreams build() {
+        return new AppendToStreams(appendToStreams);
+    }
+}
@@ -18,6 +18,7 @@ package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.AppendToStream;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.AggregateIdSerializer;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.EventStoreUnitOfWork;
@@ -27,7 +28,9 @@ import dk.cloudcreate.essentials.components.foundation.types.*;
 import dk.cloudcreate.essentials.types.LongRange;
 
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.stream.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 
 /**
  * Represents the strategy that the {@link PostgresqlEventStore} will use to persist and load events related to a named Event Stream.<br>
@@ -226,6 +229,27 @@ public interface AggregateEventStreamPersistenceStrategy<CONFIG extends Aggregat
      */
     <STREAM_ID> AggregateEventStream<STREAM_ID> persist(EventStoreUnitOfWork unitOfWork, AggregateType aggregateType, STREAM_ID aggregateId, Optional<Long> appendEventsAfterEventOrder, List<?> persistableEvents);
 
+    /**
+     * Persist persistable events related to multiple aggregate event streams (which may be associated with different {@link AggregateType}'s)<br>
+     * The default implementation calls {@link #persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)} for each {@link AppendToStream}.
+     * Implementations are encouraged to persist all events belonging to the same {@link AggregateType} using a single statement/round-trip.
+     *
+     * @param unitOfWork      the current unitOfWork
+     * @param appendToStreams the {@link AppendToStream}'s, each describing the persistable events (i.e. events that haven't yet been persisted) for a distinct aggregate event stream
+     * @return the {@link AggregateEventStream}'s - each one corresponds 1-1 and IN-ORDER with the <code>appendToStreams</code>
+     */
+    default List<AggregateEventStream<?>> persist(EventStoreUnitOfWork unitOfWork, List<AppendToStream<?>> appendToStreams) {
+        requireNonNull(unitOfWork, "No unitOfWork provided");
+        requireNonNull(appendToStreams, "No appendToStreams provided");
+        return appendToStreams.stream()
+                              .map(appendToStream -> persist(unitOfWork,
+                                                             appendToStream.aggregateType,
+                                                             appendToStream.aggregateId,
+                                                             appendToStream.getAppendEventsAfterEventOrder(),
+                                                             appendToStream.getEventsToAppend()))
+                              .collect(Collectors.toList());
+    }
+
     /**
      * Load the last {@link PersistedEvent} in relation to the specified <code>configuration</code> and <code>aggregateId</code>
      *
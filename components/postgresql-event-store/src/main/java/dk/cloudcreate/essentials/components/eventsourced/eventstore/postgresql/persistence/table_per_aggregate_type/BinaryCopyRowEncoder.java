@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Encodes rows in the Postgresql binary {@code COPY} format (see <a href="https://www.postgresql.org/docs/current/sql-copy.html">COPY - Binary Format</a>),
+ * as used by {@link SeparateTablePerAggregateTypePersistenceStrategy} when bulk appending events using {@code COPY ... FROM STDIN (FORMAT binary)}<br>
+ * Usage:
+ * <pre>{@code
+ * var encoder = new BinaryCopyRowEncoder();
+ * encoder.startRow(2)
+ *        .writeBigint(1)
+ *        .writeText("Hello");
+ * copyManager.copyIn(copySql, encoder.finish());
+ * }</pre>
+ * This class is not thread safe
+ */
+final class BinaryCopyRowEncoder {
+    private static final byte[]         SIGNATURE          = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final byte           JSONB_VERSION      = 1;
+    private static final OffsetDateTime POSTGRESQL_EPOCH   = OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final short          END_OF_DATA_MARKER = -1;
+    private static final int            NULL_VALUE_LENGTH  = -1;
+
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream      output;
+    private       boolean               finished;
+
+    BinaryCopyRowEncoder() {
+        bytes = new ByteArrayOutputStream(8192);
+        output = new DataOutputStream(bytes);
+        try {
+            output.write(SIGNATURE);
+            // Flags field
+            output.writeInt(0);
+            // Header extension area length
+            output.writeInt(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Start a new row/tuple
+     *
+     * @param numberOfFields the number of fields that will be written for this row
+     * @return this encoder
+     */
+    BinaryCopyRowEncoder startRow(int numberOfFields) {
+        requireTrue(numberOfFields > 0, "numberOfFields must be > 0");
+        checkNotFinished();
+        try {
+            output.writeShort(numberOfFields);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    BinaryCopyRowEncoder writeNull() {
+        checkNotFinished();
+        try {
+            output.writeInt(NULL_VALUE_LENGTH);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    BinaryCopyRowEncoder writeBigint(long value) {
+        checkNotFinished();
+        try {
+            output.writeInt(Long.BYTES);
+            output.writeLong(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    BinaryCopyRowEncoder writeText(String value) {
+        if (value == null) {
+            return writeNull();
+        }
+        return writeBytes(value.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    BinaryCopyRowEncoder writeUuid(UUID value) {
+        if (value == null) {
+            return writeNull();
+        }
+        checkNotFinished();
+        try {
+            output.writeInt(16);
+            output.writeLong(value.getMostSignificantBits());
+            output.writeLong(value.getLeastSignificantBits());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Write a {@code TIMESTAMP WITH TIME ZONE} value, which is encoded as the number of microseconds since 2000-01-01T00:00:00Z
+     *
+     * @param value the timestamp
+     * @return this encoder
+     */
+    BinaryCopyRowEncoder writeTimestampWithTimeZone(OffsetDateTime value) {
+        if (value == null) {
+            return writeNull();
+        }
+        checkNotFinished();
+        try {
+            output.writeInt(Long.BYTES);
+            output.writeLong(ChronoUnit.MICROS.between(POSTGRESQL_EPOCH, value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    BinaryCopyRowEncoder writeJson(String json) {
+        if (json == null) {
+            return writeNull();
+        }
+        return writeBytes(json.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    /**
+     * Write a {@code JSONB} value, which is encoded as a version byte followed by the UTF-8 encoded JSON text
+     *
+     * @param json the JSON
+     * @return this encoder
+     */
+    BinaryCopyRowEncoder writeJsonb(String json) {
+        if (json == null) {
+            return writeNull();
+        }
+        return writeBytes(json.getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * Write the end of data marker
+     *
+     * @return the encoded rows, ready to be passed to e.g. {@code CopyManager#copyIn(String, InputStream)}
+     */
+    InputStream finish() {
+        checkNotFinished();
+        try {
+            output.writeShort(END_OF_DATA_MARKER);
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finished = true;
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private BinaryCopyRowEncoder writeBytes(byte[] value, boolean jsonb) {
+        checkNotFinished();
+        try {
+            if (jsonb) {
+                output.writeInt(value.length + 1);
+                output.writeByte(JSONB_VERSION);
+            } else {
+                output.writeInt(value.length);
+            }
+            output.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private void checkNotFinished() {
+        requireFalse(finished, "The encoder has already been finished");
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import java.util.Optional;
+
+/**
+ * A partition of an event stream table configured with {@link EventStreamTablePartitioning}
+ *
+ * @param partitionTableName the name of the partition table (<code>{eventStreamTableName}_p{partitionNumber}</code>)
+ * @param partitionNumber    the partition number (see {@link EventStreamTablePartitioning#partitionNumberFor(long)} and {@link EventStreamTablePartitioning#partitionNumberFor(java.time.Instant)})
+ * @param attached           is the partition attached to the event stream table. Events in a detached partition can't be read through the event stream table
+ * @param tablespace         the tablespace the partition is stored in, if it isn't the default tablespace
+ */
+public record EventStreamTablePartition(String partitionTableName,
+                                        long partitionNumber,
+                                        boolean attached,
+                                        Optional<String> tablespace) {
+}
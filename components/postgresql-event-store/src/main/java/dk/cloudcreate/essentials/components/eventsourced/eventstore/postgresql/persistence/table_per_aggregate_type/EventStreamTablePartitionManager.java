@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.foundation.Lifecycle;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import org.slf4j.*;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Periodically maintains the partitions of all the event stream tables, managed by a {@link SeparateTablePerAggregateTypePersistenceStrategy}, that are
+ * configured with {@link EventStreamTablePartitioning}:
+ * <ul>
+ *     <li>Creates the partitions ahead of the head of the event stream using {@link SeparateTablePerAggregateTypePersistenceStrategy#ensureEventStreamTablePartitions(dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType)}</li>
+ *     <li>Archives cold partitions, if an {@link EventStreamTablePartitioning#archiveTablespace} is configured, using
+ *     {@link SeparateTablePerAggregateTypePersistenceStrategy#archiveColdEventStreamTablePartitions(dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType)}</li>
+ * </ul>
+ * The <code>maintenanceInterval</code> must be short enough that the head of an event stream can't move past the {@link EventStreamTablePartitioning#partitionsAhead}
+ * partitions between two maintenance runs, as events can only be persisted if a partition covering them exists.<br>
+ * Running the manager on multiple nodes is safe, as partition creation is serialized using a Postgresql advisory lock.<br>
+ * The {@link SeparateTablePerAggregateTypePersistenceStrategy} creates and starts a manager, using the {@link #DEFAULT_MAINTENANCE_INTERVAL}, when the first partitioned
+ * event stream table is initialized (see {@link SeparateTablePerAggregateTypePersistenceStrategy#getEventStreamTablePartitionManager()}). An additional manager,
+ * e.g. with a shorter <code>maintenanceInterval</code>, can be started for event streams with a high append rate.
+ */
+public final class EventStreamTablePartitionManager implements Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(EventStreamTablePartitionManager.class);
+
+    /**
+     * The default interval between partition maintenance runs
+     */
+    public static final Duration DEFAULT_MAINTENANCE_INTERVAL = Duration.ofMinutes(1);
+
+    private final SeparateTablePerAggregateTypePersistenceStrategy persistenceStrategy;
+    private final Duration                                         maintenanceInterval;
+
+    private volatile boolean                  started;
+    private          ScheduledExecutorService maintenanceExecutor;
+
+    /**
+     * Create a new {@link EventStreamTablePartitionManager} using the {@link #DEFAULT_MAINTENANCE_INTERVAL}
+     *
+     * @param persistenceStrategy the persistence strategy that manages the partitioned event stream tables
+     */
+    public EventStreamTablePartitionManager(SeparateTablePerAggregateTypePersistenceStrategy persistenceStrategy) {
+        this(persistenceStrategy, DEFAULT_MAINTENANCE_INTERVAL);
+    }
+
+    /**
+     * Create a new {@link EventStreamTablePartitionManager}
+     *
+     * @param persistenceStrategy the persistence strategy that manages the partitioned event stream tables
+     * @param maintenanceInterval the interval between partition maintenance runs
+     */
+    public EventStreamTablePartitionManager(SeparateTablePerAggregateTypePersistenceStrategy persistenceStrategy,
+                                            Duration maintenanceInterval) {
+        this.persistenceStrategy = requireNonNull(persistenceStrategy, "No persistenceStrategy provided");
+        this.maintenanceInterval = requireNonNull(maintenanceInterval, "No maintenanceInterval provided");
+        requireTrue(maintenanceInterval.toMillis() > 0, "maintenanceInterval must be > 0 ms");
+    }
+
+    @Override
+    public void start() {
+        if (!started) {
+            log.info("Starting EventStreamTablePartitionManager with maintenanceInterval: {}", maintenanceInterval);
+            maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                                                                                                 .nameFormat("EventStreamTablePartitionManager-%d")
+                                                                                                 .daemon(true)
+                                                                                                 .build());
+            maintenanceExecutor.scheduleWithFixedDelay(this::maintainPartitions,
+                                                       maintenanceInterval.toMillis(),
+                                                       maintenanceInterval.toMillis(),
+                                                       TimeUnit.MILLISECONDS);
+            started = true;
+        } else {
+            log.debug("EventStreamTablePartitionManager was already started");
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (started) {
+            log.info("Stopping EventStreamTablePartitionManager");
+            started = false;
+            maintenanceExecutor.shutdownNow();
+            log.info("Stopped EventStreamTablePartitionManager");
+        } else {
+            log.debug("EventStreamTablePartitionManager was already stopped");
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Maintain the partitions of all partitioned event stream tables now.<br>
+     * This is called every <code>maintenanceInterval</code> while the manager is started, but can also be called directly.
+     * Exceptions are logged and the maintenance is retried at the next run.
+     */
+    public void maintainPartitions() {
+        for (var aggregateType : persistenceStrategy.getPartitionedAggregateTypes()) {
+            try {
+                persistenceStrategy.ensureEventStreamTablePartitions(aggregateType);
+                persistenceStrategy.archiveColdEventStreamTablePartitions(aggregateType);
+            } catch (Exception e) {
+                log.error("[{}] Failed to maintain the event-stream table partitions", aggregateType, e);
+            }
+        }
+    }
+}
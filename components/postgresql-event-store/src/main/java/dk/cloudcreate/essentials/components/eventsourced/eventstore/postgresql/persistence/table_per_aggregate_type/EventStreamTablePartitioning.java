@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.EventStreamTableColumnNames;
+import dk.cloudcreate.essentials.components.foundation.postgresql.PostgresqlUtil;
+
+import java.time.*;
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Opt-in configuration for storing the events of a {@link SeparateTablePerAggregateEventStreamConfiguration#eventStreamTableName} in a
+ * Postgresql table that uses declarative range partitioning on either the {@link EventStreamTableColumnNames#globalOrderColumn} or the
+ * {@link EventStreamTableColumnNames#timestampColumn}.<br>
+ * Each partition covers a fixed range ({@link #globalOrdersPerPartition} global orders or {@link #timestampIntervalPerPartition}) and is named
+ * <code>{eventStreamTableName}_p{partitionNumber}</code>, where the partition number is the range number counted from global order 0 or from the epoch.<br>
+ * The {@link SeparateTablePerAggregateTypePersistenceStrategy} creates {@link #partitionsAhead} partitions ahead of the partition
+ * containing the head of the event stream, when the table is initialized and whenever {@link SeparateTablePerAggregateTypePersistenceStrategy#ensureEventStreamTablePartitions(dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType)}
+ * is called (e.g. by the {@link EventStreamTablePartitionManager}, which the strategy starts automatically).<br>
+ * <br>
+ * <b>Uniqueness:</b> Postgresql requires unique constraints on a partitioned table to include the partition key, so the
+ * <code>UNIQUE (aggregate_id, event_order)</code> and <code>UNIQUE (event_id)</code> constraints are enforced by a separate, non-partitioned,
+ * <code>{eventStreamTableName}_keys</code> table, which is maintained by a statement level trigger. The keys table is never archived or detached, so
+ * the uniqueness guarantees also cover the events in archived and detached partitions.<br>
+ * <br>
+ * <b>Archiving:</b> If an {@link #archiveTablespace} is configured, then all but the newest {@link #numberOfHotPartitions} partitions
+ * (up to and including the partition containing the head of the event stream) can be moved to the archive tablespace, e.g. a tablespace on compressed storage.
+ * Archived partitions remain attached, so they're still readable by e.g. {@link SeparateTablePerAggregateTypePersistenceStrategy#loadEventsByGlobalOrder}
+ * and {@link SeparateTablePerAggregateTypePersistenceStrategy#loadAggregateEvents}.<br>
+ * <br>
+ * <b>Note:</b> Partitioning only applies when the event stream table is created. An existing non-partitioned event stream table isn't converted.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class EventStreamTablePartitioning {
+    /**
+     * The default value for {@link #partitionsAhead}
+     */
+    public static final int DEFAULT_PARTITIONS_AHEAD = 2;
+
+    /**
+     * The column the event stream table is range partitioned on
+     */
+    public enum PartitionKey {
+        /**
+         * Partition on the {@link EventStreamTableColumnNames#globalOrderColumn}. Queries by global order (such as subscription polling) only access the partitions covering the global order range.
+         */
+        GLOBAL_ORDER,
+        /**
+         * Partition on the {@link EventStreamTableColumnNames#timestampColumn}. The primary key becomes <code>(global_order, timestamp)</code> and
+         * queries by global order access all (attached) partitions
+         */
+        TIMESTAMP
+    }
+
+    /**
+     * The column the event stream table is range partitioned on
+     */
+    public final PartitionKey     partitionKey;
+    /**
+     * The number of global orders covered by each partition (only used with {@link PartitionKey#GLOBAL_ORDER})
+     */
+    public final long             globalOrdersPerPartition;
+    /**
+     * The timestamp interval covered by each partition (only used with {@link PartitionKey#TIMESTAMP})
+     */
+    public final Duration         timestampIntervalPerPartition;
+    /**
+     * The number of partitions that are created ahead of the partition containing the head of the event stream
+     */
+    public final int              partitionsAhead;
+    /**
+     * The optional tablespace that cold partitions are moved to by {@link SeparateTablePerAggregateTypePersistenceStrategy#archiveColdEventStreamTablePartitions(dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType)}
+     */
+    public final Optional<String> archiveTablespace;
+    /**
+     * The number of partitions, up to and including the partition containing the head of the event stream, that are never archived
+     */
+    public final int              numberOfHotPartitions;
+
+    private EventStreamTablePartitioning(PartitionKey partitionKey,
+                                         long globalOrdersPerPartition,
+                                         Duration timestampIntervalPerPartition,
+                                         int partitionsAhead,
+                                         Optional<String> archiveTablespace,
+                                         int numberOfHotPartitions) {
+        this.partitionKey = requireNonNull(partitionKey, "No partitionKey provided");
+        this.globalOrdersPerPartition = globalOrdersPerPartition;
+        this.timestampIntervalPerPartition = timestampIntervalPerPartition;
+        this.partitionsAhead = partitionsAhead;
+        this.archiveTablespace = requireNonNull(archiveTablespace, "No archiveTablespace option provided");
+        this.numberOfHotPartitions = numberOfHotPartitions;
+        requireTrue(partitionsAhead >= 1, "partitionsAhead must be >= 1");
+        requireTrue(numberOfHotPartitions >= 1, "numberOfHotPartitions must be >= 1");
+        archiveTablespace.ifPresent(PostgresqlUtil::checkIsValidTableOrColumnName);
+    }
+
+    /**
+     * Range partition the event stream table on the {@link EventStreamTableColumnNames#globalOrderColumn}
+     *
+     * @param globalOrdersPerPartition the number of global orders covered by each partition
+     * @return the partitioning configuration
+     */
+    public static EventStreamTablePartitioning byGlobalOrder(long globalOrdersPerPartition) {
+        requireTrue(globalOrdersPerPartition > 0, "globalOrdersPerPartition must be > 0");
+        return new EventStreamTablePartitioning(PartitionKey.GLOBAL_ORDER,
+                                                globalOrdersPerPartition,
+                                                null,
+                                                DEFAULT_PARTITIONS_AHEAD,
+                                                Optional.empty(),
+                                                1);
+    }
+
+    /**
+     * Range partition the event stream table on the {@link EventStreamTableColumnNames#timestampColumn}
+     *
+     * @param timestampIntervalPerPartition the timestamp interval covered by each partition (must be a whole number of seconds)
+     * @return the partitioning configuration
+     */
+    public static EventStreamTablePartitioning byTimestamp(Duration timestampIntervalPerPartition) {
+        requireNonNull(timestampIntervalPerPartition, "No timestampIntervalPerPartition provided");
+        requireTrue(timestampIntervalPerPartition.getSeconds() > 0 && timestampIntervalPerPartition.getNano() == 0,
+                    "timestampIntervalPerPartition must be a positive whole number of seconds");
+        return new EventStreamTablePartitioning(PartitionKey.TIMESTAMP,
+                                                0,
+                                                timestampIntervalPerPartition,
+                                                DEFAULT_PARTITIONS_AHEAD,
+                                                Optional.empty(),
+                                                1);
+    }
+
+    /**
+     * Create a copy of this configuration with a different {@link #partitionsAhead}
+     *
+     * @param partitionsAhead the number of partitions that are created ahead of the partition containing the head of the event stream
+     * @return the new partitioning configuration
+     */
+    public EventStreamTablePartitioning withPartitionsAhead(int partitionsAhead) {
+        return new EventStreamTablePartitioning(partitionKey,
+                                                globalOrdersPerPartition,
+                                                timestampIntervalPerPartition,
+                                                partitionsAhead,
+                                                archiveTablespace,
+                                                numberOfHotPartitions);
+    }
+
+    /**
+     * Create a copy of this configuration where cold partitions are archived to the given tablespace<br>
+     * <b>Security Note:</b> The tablespace name will be directly used in constructing SQL statements, so it must only be derived from a controlled and trusted source.
+     * {@link PostgresqlUtil#checkIsValidTableOrColumnName(String)} is called to validate the name as a first line of defense.
+     *
+     * @param archiveTablespace     the (existing) tablespace that cold partitions are moved to
+     * @param numberOfHotPartitions the number of partitions, up to and including the partition containing the head of the event stream, that are never archived
+     * @return the new partitioning configuration
+     */
+    public EventStreamTablePartitioning withArchiveTablespace(String archiveTablespace, int numberOfHotPartitions) {
+        requireNonNull(archiveTablespace, "No archiveTablespace provided");
+        return new EventStreamTablePartitioning(partitionKey,
+                                                globalOrdersPerPartition,
+                                                timestampIntervalPerPartition,
+                                                partitionsAhead,
+                                                Optional.of(archiveTablespace.toLowerCase()),
+                                                numberOfHotPartitions);
+    }
+
+    /**
+     * Resolve the number of the partition that contains the given global order
+     *
+     * @param globalOrder the global order
+     * @return the partition number
+     */
+    public long partitionNumberFor(long globalOrder) {
+        requireTrue(partitionKey == PartitionKey.GLOBAL_ORDER, "Only supported when partitioning by GLOBAL_ORDER");
+        return Math.floorDiv(globalOrder, globalOrdersPerPartition);
+    }
+
+    /**
+     * Resolve the number of the partition that contains the given timestamp
+     *
+     * @param timestamp the timestamp
+     * @return the partition number
+     */
+    public long partitionNumberFor(Instant timestamp) {
+        requireNonNull(timestamp, "No timestamp provided");
+        requireTrue(partitionKey == PartitionKey.TIMESTAMP, "Only supported when partitioning by TIMESTAMP");
+        return Math.floorDiv(timestamp.getEpochSecond(), timestampIntervalPerPartition.getSeconds());
+    }
+
+    /**
+     * Resolve the SQL literal for the inclusive lower bound of the given partition (which is the exclusive upper bound of the previous partition)
+     *
+     * @param partitionNumber the partition number
+     * @return the SQL literal for the partition bound
+     */
+    String partitionBoundFor(long partitionNumber) {
+        if (partitionKey == PartitionKey.GLOBAL_ORDER) {
+            return Long.toString(Math.multiplyExact(partitionNumber, globalOrdersPerPartition));
+        }
+        return "'" + OffsetDateTime.ofInstant(Instant.ofEpochSecond(Math.multiplyExact(partitionNumber, timestampIntervalPerPartition.getSeconds())), ZoneOffset.UTC) + "'";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventStreamTablePartitioning that)) return false;
+        return globalOrdersPerPartition == that.globalOrdersPerPartition &&
+                partitionsAhead == that.partitionsAhead &&
+                numberOfHotPartitions == that.numberOfHotPartitions &&
+                partitionKey == that.partitionKey &&
+                Objects.equals(timestampIntervalPerPartition, that.timestampIntervalPerPartition) &&
+                archiveTablespace.equals(that.archiveTablespace);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitionKey, globalOrdersPerPartition, timestampIntervalPerPartition, partitionsAhead, archiveTablespace, numberOfHotPartitions);
+    }
+
+    @Override
+    public String toString() {
+        return "EventStreamTablePartitioning{" +
+                "partitionKey=" + partitionKey +
+                (partitionKey == PartitionKey.GLOBAL_ORDER ? ", globalOrdersPerPartition=" + globalOrdersPerPartition : ", timestampIntervalPerPartition=" + timestampIntervalPerPartition) +
+                ", partitionsAhead=" + partitionsAhead +
+                ", archiveTablespace=" + archiveTablespace +
+                ", numberOfHotPartitions=" + numberOfHotPartitions +
+                '}';
+    }
+}
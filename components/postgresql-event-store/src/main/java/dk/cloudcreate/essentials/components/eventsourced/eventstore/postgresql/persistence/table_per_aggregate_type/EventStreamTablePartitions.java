@@ -0,0 +1,326 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStoreException;
+import dk.cloudcreate.essentials.components.foundation.postgresql.PostgresqlUtil;
+import org.jdbi.v3.core.Handle;
+import org.slf4j.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.NamedArgumentBinding.arg;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.*;
+
+/**
+ * The SQL used by the {@link SeparateTablePerAggregateTypePersistenceStrategy} for event stream tables configured with {@link EventStreamTablePartitioning}.<br>
+ * All methods must be called with a {@link Handle} that is part of an active transaction.
+ */
+final class EventStreamTablePartitions {
+    private static final Logger log = LoggerFactory.getLogger(EventStreamTablePartitions.class);
+
+    private EventStreamTablePartitions() {
+    }
+
+    /**
+     * The name of the non-partitioned table that enforces the uniqueness of the aggregate-id/event-order and event-id columns
+     */
+    static String keysTableName(String eventStreamTableName) {
+        return eventStreamTableName + "_keys";
+    }
+
+    static String partitionTableName(String eventStreamTableName, long partitionNumber) {
+        return eventStreamTableName + "_p" + partitionNumber;
+    }
+
+    private static String globalOrderSequenceName(SeparateTablePerAggregateEventStreamConfiguration configuration) {
+        return configuration.eventStreamTableName + "_" + configuration.eventStreamTableColumnNames.globalOrderColumn + "_seq";
+    }
+
+    static boolean isPartitionedTable(Handle handle, String eventStreamTableName) {
+        return handle.createQuery("SELECT EXISTS(SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(:tableName))")
+                     .bind("tableName", eventStreamTableName)
+                     .mapTo(Boolean.class)
+                     .one();
+    }
+
+    /**
+     * Create the partitioned event stream table, the keys table and the trigger that maintains the keys table.<br>
+     * The global order is generated by an explicit sequence (owned by the global order column), as identity columns aren't supported on partitioned tables in all Postgresql versions.
+     * No partitions are created - see {@link #ensurePartitions(Handle, SeparateTablePerAggregateEventStreamConfiguration, EventStreamTablePartitioning)}
+     */
+    static void createPartitionedEventStreamTable(Handle handle,
+                                                  SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                  EventStreamTablePartitioning partitioning) {
+        var eventStreamTableName = configuration.eventStreamTableName;
+        var columnNames          = configuration.eventStreamTableColumnNames;
+        var partitionKeyColumn = partitioning.partitionKey == EventStreamTablePartitioning.PartitionKey.GLOBAL_ORDER ?
+                                 columnNames.globalOrderColumn :
+                                 columnNames.timestampColumn;
+        var primaryKeyColumns = partitioning.partitionKey == EventStreamTablePartitioning.PartitionKey.GLOBAL_ORDER ?
+                                columnNames.globalOrderColumn :
+                                columnNames.globalOrderColumn + ", " + columnNames.timestampColumn;
+
+        handle.execute(bind("CREATE SEQUENCE IF NOT EXISTS {:sequenceName}",
+                            arg("sequenceName", globalOrderSequenceName(configuration))));
+        handle.execute(bind("CREATE TABLE {:tableName} (\n" +
+                                    "            {:globalOrderColumn} bigint NOT NULL DEFAULT nextval('{:sequenceName}'),\n" +
+                                    "            {:aggregateIdColumn} {:aggregateIdColumnType} NOT NULL,\n" +
+                                    "            {:eventOrderColumn} bigint NOT NULL,\n" +
+                                    "            {:eventIdColumn} {:eventIdColumnType} NOT NULL,\n" +
+                                    "            {:causedByEventIdColumn} {:eventIdColumnType},\n" +
+                                    "            {:correlationIdColumn} {:correlationIdColumnType},\n" +
+                                    "            {:eventTypeColumn} text NOT NULL,\n" +
+                                    "            {:eventRevisionColumn} text NOT NULL,\n" +
+                                    "            {:timestampColumn} TIMESTAMP WITH TIME ZONE NOT NULL,\n" +
+                                    "            {:eventPayloadColumn} {:eventPayloadType} NOT NULL,\n" +
+                                    "            {:eventMetaDataColumn} {:eventMetaDataType} NOT NULL,\n" +
+                                    "            {:tenantColumn} text,\n" +
+                                    "          PRIMARY KEY ({:primaryKeyColumns})\n" +
+                                    "        ) PARTITION BY RANGE ({:partitionKeyColumn})",
+                            arg("tableName", eventStreamTableName),
+                            arg("sequenceName", globalOrderSequenceName(configuration)),
+                            arg("globalOrderColumn", columnNames.globalOrderColumn),
+                            arg("aggregateIdColumn", columnNames.aggregateIdColumn),
+                            arg("aggregateIdColumnType", configuration.aggregateIdColumnType),
+                            arg("eventOrderColumn", columnNames.eventOrderColumn),
+                            arg("eventIdColumn", columnNames.eventIdColumn),
+                            arg("eventIdColumnType", configuration.eventIdColumnType),
+                            arg("causedByEventIdColumn", columnNames.causedByEventIdColumn),
+                            arg("correlationIdColumn", columnNames.correlationIdColumn),
+                            arg("correlationIdColumnType", configuration.correlationIdColumnType),
+                            arg("eventTypeColumn", columnNames.eventTypeColumn),
+                            arg("eventRevisionColumn", columnNames.eventRevisionColumn),
+                            arg("timestampColumn", columnNames.timestampColumn),
+                            arg("eventPayloadColumn", columnNames.eventPayloadColumn),
+                            arg("eventPayloadType", configuration.eventJsonColumnType),
+                            arg("eventMetaDataColumn", columnNames.eventMetaDataColumn),
+                            arg("eventMetaDataType", configuration.eventMetadataJsonColumnType),
+                            arg("tenantColumn", columnNames.tenantColumn),
+                            arg("primaryKeyColumns", primaryKeyColumns),
+                            arg("partitionKeyColumn", partitionKeyColumn)));
+        handle.execute(bind("ALTER SEQUENCE {:sequenceName} OWNED BY {:tableName}.{:globalOrderColumn}",
+                            arg("sequenceName", globalOrderSequenceName(configuration)),
+                            arg("tableName", eventStreamTableName),
+                            arg("globalOrderColumn", columnNames.globalOrderColumn)));
+
+        // Non-unique lookup indexes for fetchStream and loadEvent(s) - the uniqueness is enforced by the keys table
+        handle.execute(bind("CREATE INDEX IF NOT EXISTS {:tableName}_{:aggregateIdColumn}_{:eventOrderColumn}_idx ON {:tableName} ({:aggregateIdColumn}, {:eventOrderColumn})",
+                            arg("tableName", eventStreamTableName),
+                            arg("aggregateIdColumn", columnNames.aggregateIdColumn),
+                            arg("eventOrderColumn", columnNames.eventOrderColumn)));
+        handle.execute(bind("CREATE INDEX IF NOT EXISTS {:tableName}_{:eventIdColumn}_idx ON {:tableName} ({:eventIdColumn})",
+                            arg("tableName", eventStreamTableName),
+                            arg("eventIdColumn", columnNames.eventIdColumn)));
+
+        // The constraint names match the names Postgresql generates for the non-partitioned event stream table,
+        // so a violation of the aggregate-id/event-order constraint is still detected as an optimistic concurrency violation
+        handle.execute(bind("DROP TABLE IF EXISTS {:keysTableName}",
+                            arg("keysTableName", keysTableName(eventStreamTableName))));
+        handle.execute(bind("CREATE TABLE {:keysTableName} (\n" +
+                                    "            {:aggregateIdColumn} {:aggregateIdColumnType} NOT NULL,\n" +
+                                    "            {:eventOrderColumn} bigint NOT NULL,\n" +
+                                    "            {:eventIdColumn} {:eventIdColumnType} NOT NULL,\n" +
+                                    "          CONSTRAINT {:tableName}_{:aggregateIdColumn}_{:eventOrderColumn}_key UNIQUE ({:aggregateIdColumn}, {:eventOrderColumn}),\n" +
+                                    "          CONSTRAINT {:tableName}_{:eventIdColumn}_key UNIQUE ({:eventIdColumn})\n" +
+                                    "        )",
+                            arg("keysTableName", keysTableName(eventStreamTableName)),
+                            arg("tableName", eventStreamTableName),
+                            arg("aggregateIdColumn", columnNames.aggregateIdColumn),
+                            arg("aggregateIdColumnType", configuration.aggregateIdColumnType),
+                            arg("eventOrderColumn", columnNames.eventOrderColumn),
+                            arg("eventIdColumn", columnNames.eventIdColumn),
+                            arg("eventIdColumnType", configuration.eventIdColumnType)));
+
+        // Statement level trigger, so a batch insert or COPY results in a single insert into the keys table
+        handle.execute(bind("CREATE OR REPLACE FUNCTION {:keysTableName}_insert()\n" +
+                                    "        RETURNS trigger\n" +
+                                    "        LANGUAGE PLPGSQL\n" +
+                                    "       AS $$\n" +
+                                    "       BEGIN\n" +
+                                    "         INSERT INTO {:keysTableName} ({:aggregateIdColumn}, {:eventOrderColumn}, {:eventIdColumn})\n" +
+                                    "              SELECT {:aggregateIdColumn}, {:eventOrderColumn}, {:eventIdColumn} FROM inserted_events;\n" +
+                                    "         RETURN NULL;\n" +
+                                    "       END;\n" +
+                                    "       $$;",
+                            arg("keysTableName", keysTableName(eventStreamTableName)),
+                            arg("aggregateIdColumn", columnNames.aggregateIdColumn),
+                            arg("eventOrderColumn", columnNames.eventOrderColumn),
+                            arg("eventIdColumn", columnNames.eventIdColumn)));
+        handle.execute(bind("CREATE TRIGGER {:keysTableName}_on_insert\n" +
+                                    "      AFTER INSERT\n" +
+                                    "            ON {:tableName}\n" +
+                                    "      REFERENCING NEW TABLE AS inserted_events\n" +
+                                    "      FOR EACH STATEMENT\n" +
+                                    "         EXECUTE FUNCTION {:keysTableName}_insert()",
+                            arg("keysTableName", keysTableName(eventStreamTableName)),
+                            arg("tableName", eventStreamTableName)));
+        log.info("[{}] Created event-stream table '{}' partitioned using {} with keys table '{}'",
+                 configuration.aggregateType,
+                 eventStreamTableName,
+                 partitioning,
+                 keysTableName(eventStreamTableName));
+    }
+
+    /**
+     * Resolve the number of the partition that contains the head of the event stream. For {@link EventStreamTablePartitioning.PartitionKey#GLOBAL_ORDER}
+     * the head is the last value of the global order sequence (which is always &gt;= the highest persisted global order) and for
+     * {@link EventStreamTablePartitioning.PartitionKey#TIMESTAMP} the head is the current time.
+     */
+    static long headPartitionNumber(Handle handle,
+                                    SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                    EventStreamTablePartitioning partitioning) {
+        if (partitioning.partitionKey == EventStreamTablePartitioning.PartitionKey.GLOBAL_ORDER) {
+            var lastGlobalOrder = handle.createQuery(bind("SELECT last_value FROM {:sequenceName}",
+                                                          arg("sequenceName", globalOrderSequenceName(configuration))))
+                                        .mapTo(Long.class)
+                                        .one();
+            return partitioning.partitionNumberFor(lastGlobalOrder);
+        }
+        return partitioning.partitionNumberFor(Instant.now());
+    }
+
+    /**
+     * Ensure that the partitions up to and including {@link EventStreamTablePartitioning#partitionsAhead} partitions after the partition containing the head of the event stream exist.<br>
+     * The first partition created has no lower bound (<code>MINVALUE</code>), so events with e.g. older timestamps can always be stored.
+     * Partitions are created contiguously after the highest numbered partition (attached or detached).
+     *
+     * @return the names of the created partitions
+     */
+    static List<String> ensurePartitions(Handle handle,
+                                         SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                         EventStreamTablePartitioning partitioning) {
+        var eventStreamTableName = configuration.eventStreamTableName;
+        // Serialize partition creation across nodes, as CREATE TABLE IF NOT EXISTS isn't safe for concurrent use
+        handle.createQuery("SELECT 1 FROM pg_advisory_xact_lock(hashtext(:lockName))")
+              .bind("lockName", eventStreamTableName + "_partitions")
+              .mapTo(Integer.class)
+              .one();
+
+        var headPartitionNumber = headPartitionNumber(handle, configuration, partitioning);
+        var highestPartitionNumber = getPartitions(handle, configuration).stream()
+                                                                         .mapToLong(EventStreamTablePartition::partitionNumber)
+                                                                         .max();
+        var createdPartitions = new ArrayList<String>();
+        var fromPartitionNumber = highestPartitionNumber.isPresent() ? highestPartitionNumber.getAsLong() + 1 : headPartitionNumber;
+        for (var partitionNumber = fromPartitionNumber; partitionNumber <= headPartitionNumber + partitioning.partitionsAhead; partitionNumber++) {
+            var partitionTableName = partitionTableName(eventStreamTableName, partitionNumber);
+            handle.execute(bind("CREATE TABLE {:partitionTableName} PARTITION OF {:tableName} FOR VALUES FROM ({:fromInclusive}) TO ({:toExclusive})",
+                                arg("partitionTableName", partitionTableName),
+                                arg("tableName", eventStreamTableName),
+                                arg("fromInclusive", highestPartitionNumber.isEmpty() && createdPartitions.isEmpty() ? "MINVALUE" : partitioning.partitionBoundFor(partitionNumber)),
+                                arg("toExclusive", partitioning.partitionBoundFor(partitionNumber + 1))));
+            createdPartitions.add(partitionTableName);
+        }
+        if (!createdPartitions.isEmpty()) {
+            log.info("[{}] Created event-stream table '{}' partitions {} (head partition number: {})",
+                     configuration.aggregateType,
+                     eventStreamTableName,
+                     createdPartitions,
+                     headPartitionNumber);
+        }
+        return createdPartitions;
+    }
+
+    /**
+     * Get all partitions (attached and detached) of the event stream table, sorted by partition number
+     */
+    static List<EventStreamTablePartition> getPartitions(Handle handle, SeparateTablePerAggregateEventStreamConfiguration configuration) {
+        var eventStreamTableName = configuration.eventStreamTableName;
+        return handle.createQuery("SELECT c.relname AS partition_table_name, i.inhrelid IS NOT NULL AS attached, t.spcname AS tablespace\n" +
+                                          " FROM pg_class c\n" +
+                                          " LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = to_regclass(:tableName)\n" +
+                                          " LEFT JOIN pg_tablespace t ON t.oid = c.reltablespace\n" +
+                                          " WHERE c.relkind = 'r' AND c.relname ~ :partitionNamePattern AND pg_table_is_visible(c.oid)")
+                     .bind("tableName", eventStreamTableName)
+                     .bind("partitionNamePattern", partitionNamePattern(eventStreamTableName).pattern())
+                     .map((rs, ctx) -> new EventStreamTablePartition(rs.getString("partition_table_name"),
+                                                                     partitionNumberOf(eventStreamTableName, rs.getString("partition_table_name")),
+                                                                     rs.getBoolean("attached"),
+                                                                     Optional.ofNullable(rs.getString("tablespace"))))
+                     .list()
+                     .stream()
+                     .sorted(Comparator.comparingLong(EventStreamTablePartition::partitionNumber))
+                     .toList();
+    }
+
+    /**
+     * Move the partition, and its indexes, to the given tablespace. This rewrites the partition while holding an <code>ACCESS EXCLUSIVE</code> lock on it
+     */
+    static void moveToTablespace(Handle handle, String partitionTableName, String tablespace) {
+        PostgresqlUtil.checkIsValidTableOrColumnName(partitionTableName);
+        PostgresqlUtil.checkIsValidTableOrColumnName(tablespace);
+        handle.execute(bind("ALTER TABLE {:partitionTableName} SET TABLESPACE {:tablespace}",
+                            arg("partitionTableName", partitionTableName),
+                            arg("tablespace", tablespace)));
+        var indexNames = handle.createQuery("SELECT ic.relname FROM pg_index x JOIN pg_class ic ON ic.oid = x.indexrelid WHERE x.indrelid = to_regclass(:partitionTableName)")
+                               .bind("partitionTableName", partitionTableName)
+                               .mapTo(String.class)
+                               .list();
+        for (var indexName : indexNames) {
+            PostgresqlUtil.checkIsValidTableOrColumnName(indexName);
+            handle.execute(bind("ALTER INDEX {:indexName} SET TABLESPACE {:tablespace}",
+                                arg("indexName", indexName),
+                                arg("tablespace", tablespace)));
+        }
+    }
+
+    static void detachPartition(Handle handle,
+                                SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                String partitionTableName) {
+        requirePartitionOf(configuration, partitionTableName);
+        handle.execute(bind("ALTER TABLE {:tableName} DETACH PARTITION {:partitionTableName}",
+                            arg("tableName", configuration.eventStreamTableName),
+                            arg("partitionTableName", partitionTableName)));
+    }
+
+    /**
+     * Re-attach a detached partition using the bounds it was created with (the lowest numbered partition has no lower bound)
+     */
+    static void attachPartition(Handle handle,
+                                SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                EventStreamTablePartitioning partitioning,
+                                String partitionTableName) {
+        requirePartitionOf(configuration, partitionTableName);
+        var partitionNumber = partitionNumberOf(configuration.eventStreamTableName, partitionTableName);
+        var isLowestPartition = getPartitions(handle, configuration).stream()
+                                                                    .allMatch(partition -> partition.partitionNumber() >= partitionNumber);
+        handle.execute(bind("ALTER TABLE {:tableName} ATTACH PARTITION {:partitionTableName} FOR VALUES FROM ({:fromInclusive}) TO ({:toExclusive})",
+                            arg("tableName", configuration.eventStreamTableName),
+                            arg("partitionTableName", partitionTableName),
+                            arg("fromInclusive", isLowestPartition ? "MINVALUE" : partitioning.partitionBoundFor(partitionNumber)),
+                            arg("toExclusive", partitioning.partitionBoundFor(partitionNumber + 1))));
+    }
+
+    private static void requirePartitionOf(SeparateTablePerAggregateEventStreamConfiguration configuration, String partitionTableName) {
+        requireNonNull(partitionTableName, "No partitionTableName provided");
+        if (!partitionNamePattern(configuration.eventStreamTableName).matcher(partitionTableName).matches()) {
+            throw new EventStoreException(msg("'{}' isn't a partition of event-stream table '{}'", partitionTableName, configuration.eventStreamTableName));
+        }
+    }
+
+    private static Pattern partitionNamePattern(String eventStreamTableName) {
+        return Pattern.compile("^" + eventStreamTableName + "_p[0-9]+$");
+    }
+
+    private static long partitionNumberOf(String eventStreamTableName, String partitionTableName) {
+        return Long.parseLong(partitionTableName.substring(eventStreamTableName.length() + 2));
+    }
+}
@@ -16,7 +16,6 @@
 
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
 
-import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStoreException;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.PersistedEvent;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.EventMetaData;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.*;
@@ -27,12 +26,24 @@ import org.jdbi.v3.core.statement.StatementContext;
 
 import java.sql.*;
 import java.time.OffsetDateTime;
-import java.util.Optional;
+import java.util.Arrays;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
 
+/**
+ * {@link RowMapper} that maps rows from an event stream table into {@link PersistedEvent}'s.<br>
+ * The column indexes are resolved once per {@link ResultSet} (see {@link #specialize(ResultSet, StatementContext)})
+ * and the event payload and meta-data are read as raw bytes, which are only decoded when
+ * {@link EventJSON#getJson()}/{@link EventMetaDataJSON#getJson()} or the corresponding <code>deserialize()</code> methods are called.
+ */
 final class PersistedEventRowMapper implements RowMapper<PersistedEvent> {
+    private static final String EVENT_META_DATA_JAVA_TYPE = EventMetaData.class.getName();
+    /**
+     * Version prefix Postgresql uses when a <code>JSONB</code> column is transferred in binary format
+     */
+    private static final byte   JSONB_BINARY_VERSION      = 1;
+
     private final SeparateTablePerAggregateTypePersistenceStrategy  persistenceStrategy;
     private final SeparateTablePerAggregateEventStreamConfiguration config;
 
@@ -41,62 +52,100 @@ final class PersistedEventRowMapper implements RowMapper<PersistedEvent> {
         this.config = requireNonNull(configuration, "No EventStream configuration provided");
     }
 
+    @Override
+    public RowMapper<PersistedEvent> specialize(ResultSet rs, StatementContext ctx) throws SQLException {
+        return new ColumnIndexedPersistedEventRowMapper(rs);
+    }
 
     @Override
     public PersistedEvent map(ResultSet rs, StatementContext ctx) throws SQLException {
-        return PersistedEvent.from(EventId.of(rs.getString(config.eventStreamTableColumnNames.eventIdColumn)),
-                                   config.aggregateType,
-                                   config.aggregateIdSerializer.deserialize(rs.getString(config.eventStreamTableColumnNames.aggregateIdColumn)),
-                                   resolveEventJSON(rs),
-                                   EventOrder.of(rs.getLong(config.eventStreamTableColumnNames.eventOrderColumn)),
-                                   EventRevision.of(rs.getInt(config.eventStreamTableColumnNames.eventRevisionColumn)),
-                                   GlobalEventOrder.of(rs.getLong(config.eventStreamTableColumnNames.globalOrderColumn)),
-                                   resolveEventMetaDataJSON(rs),
-                                   rs.getObject(config.eventStreamTableColumnNames.timestampColumn, OffsetDateTime.class),
-                                   EventId.optionalFrom(rs.getString(config.eventStreamTableColumnNames.causedByEventIdColumn)),
-                                   CorrelationId.optionalFrom(rs.getString(config.eventStreamTableColumnNames.correlationIdColumn)),
-                                   resolveTenant(rs));
+        return specialize(rs, ctx).map(rs, ctx);
     }
 
-    private Optional<Tenant> resolveTenant(ResultSet rs) {
-        return config.tenantSerializer.deserialize(getString(rs, config.eventStreamTableColumnNames.tenantColumn));
+    /**
+     * Strip the <code>JSONB</code> binary version prefix in case the driver transferred the column in binary format
+     */
+    static byte[] stripJsonbBinaryVersion(byte[] rawJson) {
+        if (rawJson != null && rawJson.length > 0 && rawJson[0] == JSONB_BINARY_VERSION) {
+            return Arrays.copyOfRange(rawJson, 1, rawJson.length);
+        }
+        return rawJson;
     }
 
-    private EventJSON resolveEventJSON(ResultSet resultSet) throws SQLException {
-        var jsonPayload          = getString(resultSet, config.eventStreamTableColumnNames.eventPayloadColumn);
-        var eventTypeOrNameValue = getString(resultSet, config.eventStreamTableColumnNames.eventTypeColumn);
+    /**
+     * {@link RowMapper} specialized for a single {@link ResultSet}, where all column indexes have been resolved up front
+     */
+    private final class ColumnIndexedPersistedEventRowMapper implements RowMapper<PersistedEvent> {
+        private final int eventIdIndex;
+        private final int aggregateIdIndex;
+        private final int eventTypeIndex;
+        private final int eventPayloadIndex;
+        private final int eventOrderIndex;
+        private final int eventRevisionIndex;
+        private final int globalOrderIndex;
+        private final int eventMetaDataIndex;
+        private final int timestampIndex;
+        private final int causedByEventIdIndex;
+        private final int correlationIdIndex;
+        private final int tenantIndex;
 
-        if (eventTypeOrNameValue == null || eventTypeOrNameValue.isBlank()) {
-            throw new IllegalStateException(msg("[{}] Row: {} - Column '{}' column was empty or blank",
-                                                config.aggregateType,
-                                                resultSet.getRow(),
-                                                config.eventStreamTableColumnNames.eventTypeColumn));
+        private ColumnIndexedPersistedEventRowMapper(ResultSet rs) throws SQLException {
+            var columnNames = config.eventStreamTableColumnNames;
+            eventIdIndex = rs.findColumn(columnNames.eventIdColumn);
+            aggregateIdIndex = rs.findColumn(columnNames.aggregateIdColumn);
+            eventTypeIndex = rs.findColumn(columnNames.eventTypeColumn);
+            eventPayloadIndex = rs.findColumn(columnNames.eventPayloadColumn);
+            eventOrderIndex = rs.findColumn(columnNames.eventOrderColumn);
+            eventRevisionIndex = rs.findColumn(columnNames.eventRevisionColumn);
+            globalOrderIndex = rs.findColumn(columnNames.globalOrderColumn);
+            eventMetaDataIndex = rs.findColumn(columnNames.eventMetaDataColumn);
+            timestampIndex = rs.findColumn(columnNames.timestampColumn);
+            causedByEventIdIndex = rs.findColumn(columnNames.causedByEventIdColumn);
+            correlationIdIndex = rs.findColumn(columnNames.correlationIdColumn);
+            tenantIndex = rs.findColumn(columnNames.tenantColumn);
         }
-        if (EventType.isSerializedEventType(eventTypeOrNameValue)) {
-            return new EventJSON(config.jsonSerializer,
-                                 EventType.of(eventTypeOrNameValue),
-                                 jsonPayload);
-        } else {
-            return new EventJSON(config.jsonSerializer,
-                                 EventName.of(eventTypeOrNameValue),
-                                 jsonPayload);
+
+        @Override
+        public PersistedEvent map(ResultSet rs, StatementContext ctx) throws SQLException {
+            return PersistedEvent.from(EventId.of(rs.getString(eventIdIndex)),
+                                       config.aggregateType,
+                                       config.aggregateIdSerializer.deserialize(rs.getString(aggregateIdIndex)),
+                                       resolveEventJSON(rs),
+                                       EventOrder.of(rs.getLong(eventOrderIndex)),
+                                       EventRevision.of(rs.getInt(eventRevisionIndex)),
+                                       GlobalEventOrder.of(rs.getLong(globalOrderIndex)),
+                                       resolveEventMetaDataJSON(rs),
+                                       rs.getObject(timestampIndex, OffsetDateTime.class),
+                                       EventId.optionalFrom(rs.getString(causedByEventIdIndex)),
+                                       CorrelationId.optionalFrom(rs.getString(correlationIdIndex)),
+                                       config.tenantSerializer.deserialize(rs.getString(tenantIndex)));
         }
-    }
 
-    private EventMetaDataJSON resolveEventMetaDataJSON(ResultSet resultSet) {
-        var jsonPayload = getString(resultSet, config.eventStreamTableColumnNames.eventMetaDataColumn);
-        return new EventMetaDataJSON(config.jsonSerializer,
-                                     EventMetaData.class.getName(),
-                                     jsonPayload);
-    }
+        private EventJSON resolveEventJSON(ResultSet resultSet) throws SQLException {
+            var rawJsonPayload       = stripJsonbBinaryVersion(resultSet.getBytes(eventPayloadIndex));
+            var eventTypeOrNameValue = resultSet.getString(eventTypeIndex);
 
+            if (eventTypeOrNameValue == null || eventTypeOrNameValue.isBlank()) {
+                throw new IllegalStateException(msg("[{}] Row: {} - Column '{}' column was empty or blank",
+                                                    config.aggregateType,
+                                                    resultSet.getRow(),
+                                                    config.eventStreamTableColumnNames.eventTypeColumn));
+            }
+            if (EventType.isSerializedEventType(eventTypeOrNameValue)) {
+                return new EventJSON(config.jsonSerializer,
+                                     EventType.of(eventTypeOrNameValue),
+                                     rawJsonPayload);
+            } else {
+                return new EventJSON(config.jsonSerializer,
+                                     EventName.of(eventTypeOrNameValue),
+                                     rawJsonPayload);
+            }
+        }
 
-    private String getString(ResultSet resultSet, String columnName) {
-        try {
-            return resultSet.getString(columnName);
-        } catch (SQLException e) {
-            throw new EventStoreException(msg("Failed to getString from ResultSet in relation to columnName '{}'", columnName), e);
+        private EventMetaDataJSON resolveEventMetaDataJSON(ResultSet resultSet) throws SQLException {
+            return new EventMetaDataJSON(config.jsonSerializer,
+                                         EVENT_META_DATA_JAVA_TYPE,
+                                         stripJsonbBinaryVersion(resultSet.getBytes(eventMetaDataIndex)));
         }
     }
-
 }
@@ -16,15 +16,330 @@
 
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.Lifecycle;
+import dk.cloudcreate.essentials.components.foundation.postgresql.*;
+import dk.cloudcreate.essentials.reactive.EventHandler;
+import org.slf4j.*;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
 
 /**
- * Support for notification based async polling (where the {@link EventStore} only polls when necessary, is coming soon.<br>
- * Until then you have to use {@link EventStore#pollEvents(AggregateType, long, Optional, Optional, Optional, Optional)} which
- * uses periodic event store polling
+ * Support for notification based async polling, where the {@link EventStore} only polls when necessary.<br>
+ * When a {@link PostgresqlEventStreamListener} is provided to the {@link SeparateTablePerAggregateTypePersistenceStrategy}, the strategy
+ * installs a statement level <code>AFTER INSERT</code> trigger on each event stream table, which <code>pg_notify</code>'s the highest
+ * {@link GlobalEventOrder} inserted by the statement. The notifications are received using the {@link MultiTableChangeListener}.<br>
+ * <br>
+ * {@link EventStore#pollEvents(AggregateType, long, Optional, Optional, Optional, Optional)}, {@link EventStore#unboundedPollForEvents(AggregateType, long, Optional, Optional, Optional, Optional)}
+ * and the {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.SharedEventStreamTailReader} use
+ * {@link #awaitEventsPersistedFrom(AggregateType, long, long, Duration)}/{@link #hasBeenNotifiedOfEventsFrom(AggregateType, long, long)} to park idle subscribers without querying
+ * the event store. As notifications can be lost (e.g. if the listener connection is re-established), subscribers will always perform a safety-net poll
+ * at least every {@link #getSafetyNetPollingInterval()}.<br>
+ * Global orders are assigned when events are inserted, but notifications are sent when the inserting transactions commit, so a notification can carry a lower
+ * global order than an earlier notification (e.g. when a transaction that was assigned a lower global order commits last). Such notifications are
+ * still relevant to subscribers waiting for the lower global order, which is why subscribers keep track of the {@link #getNotificationCount(AggregateType)}
+ * when they query the event store and are woken by any later notification that covers the global order they're waiting for.
  */
-public final  class PostgresqlEventStreamListener /* implements Lifecycle */ {
+public final class PostgresqlEventStreamListener implements Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostgresqlEventStreamListener.class);
+
+    /**
+     * The default maximum time a subscriber is parked waiting for a notification before it polls the event store anyway
+     */
+    public static final Duration DEFAULT_SAFETY_NET_POLLING_INTERVAL = Duration.ofSeconds(10);
+    /**
+     * The number of recent notifications, per {@link AggregateType}, whose global order is retained to determine if a subscriber has been notified since it last queried.
+     * Subscribers that have missed more notifications than this are considered notified
+     */
+    static final int NUMBER_OF_RECENT_NOTIFICATIONS_RETAINED = 1024;
+
+    private final MultiTableChangeListener<TableChangeNotification> multiTableChangeListener;
+    private final Duration                                          safetyNetPollingInterval;
+    /**
+     * Key: The (lower case) event stream table name<br>
+     * Value: The {@link AggregateType} the table contains events for
+     */
+    private final ConcurrentMap<String, AggregateType>              aggregateTypePerTableName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AggregateType, NotifiedGlobalOrder> notifiedGlobalOrders      = new ConcurrentHashMap<>();
+    private final EventHandler                                      notificationHandler       = this::onNotification;
+    private volatile boolean                                        started;
+
+    /**
+     * Create a new {@link PostgresqlEventStreamListener} using the {@link #DEFAULT_SAFETY_NET_POLLING_INTERVAL}
+     *
+     * @param multiTableChangeListener the listener that receives the event stream table notifications (required)
+     */
+    public PostgresqlEventStreamListener(MultiTableChangeListener<TableChangeNotification> multiTableChangeListener) {
+        this(multiTableChangeListener, DEFAULT_SAFETY_NET_POLLING_INTERVAL);
+    }
+
+    /**
+     * Create a new {@link PostgresqlEventStreamListener}
+     *
+     * @param multiTableChangeListener the listener that receives the event stream table notifications (required)
+     * @param safetyNetPollingInterval the maximum time a subscriber is parked waiting for a notification before it polls the event store anyway
+     */
+    public PostgresqlEventStreamListener(MultiTableChangeListener<TableChangeNotification> multiTableChangeListener,
+                                         Duration safetyNetPollingInterval) {
+        this.multiTableChangeListener = requireNonNull(multiTableChangeListener, "No multiTableChangeListener provided");
+        this.safetyNetPollingInterval = requireNonNull(safetyNetPollingInterval, "No safetyNetPollingInterval provided");
+        requireTrue(!safetyNetPollingInterval.isNegative() && !safetyNetPollingInterval.isZero(), "safetyNetPollingInterval must be positive");
+    }
+
+    @Override
+    public void start() {
+        if (!started) {
+            log.info("Starting with safetyNetPollingInterval {}", safetyNetPollingInterval);
+            started = true;
+            multiTableChangeListener.getEventBus().addSyncSubscriber(notificationHandler);
+            aggregateTypePerTableName.keySet().forEach(tableName -> multiTableChangeListener.listenToNotificationsFor(tableName, EventStreamTableNotification.class));
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (started) {
+            log.info("Stopping");
+            started = false;
+            multiTableChangeListener.getEventBus().removeSyncSubscriber(notificationHandler);
+            aggregateTypePerTableName.keySet().forEach(multiTableChangeListener::unlistenToNotificationsFor);
+            // Release any parked subscribers, so they fall back to polling
+            notifiedGlobalOrders.values().forEach(NotifiedGlobalOrder::wakeUp);
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Start listening for notifications about events persisted to the given event stream table
+     *
+     * @param aggregateType        the aggregate type the event stream table contains events for
+     * @param eventStreamTableName the event stream table name
+     * @return this listener instance
+     */
+    public PostgresqlEventStreamListener listenForChangesTo(AggregateType aggregateType, String eventStreamTableName) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        requireNonBlank(eventStreamTableName, "No eventStreamTableName provided");
+        var tableName = resolveChannelName(eventStreamTableName);
+        notifiedGlobalOrders.computeIfAbsent(aggregateType, _aggregateType -> new NotifiedGlobalOrder());
+        if (aggregateTypePerTableName.put(tableName, aggregateType) == null && started) {
+            multiTableChangeListener.listenToNotificationsFor(tableName, EventStreamTableNotification.class);
+        }
+        return this;
+    }
+
+    /**
+     * The maximum time a subscriber is parked waiting for a notification before it polls the event store anyway
+     *
+     * @return the safety-net polling interval
+     */
+    public Duration getSafetyNetPollingInterval() {
+        return safetyNetPollingInterval;
+    }
+
+    /**
+     * Is the given aggregate type covered by this listener
+     *
+     * @param aggregateType the aggregate type
+     * @return true if the listener is started and receives notifications for the given aggregate type
+     */
+    public boolean isListeningFor(AggregateType aggregateType) {
+        return started && notifiedGlobalOrders.containsKey(aggregateType);
+    }
+
+    /**
+     * Get the highest {@link GlobalEventOrder} received in a notification for the given aggregate type
+     *
+     * @param aggregateType the aggregate type
+     * @return the highest {@link GlobalEventOrder} notified, or {@link Optional#empty()} if no notifications have been received
+     */
+    public Optional<GlobalEventOrder> getHighestNotifiedGlobalOrder(AggregateType aggregateType) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var notifiedGlobalOrder = notifiedGlobalOrders.get(aggregateType);
+        if (notifiedGlobalOrder == null || notifiedGlobalOrder.highestGlobalOrder < GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue()) {
+            return Optional.empty();
+        }
+        return Optional.of(GlobalEventOrder.of(notifiedGlobalOrder.highestGlobalOrder));
+    }
+
+    /**
+     * Get the number of notifications received for the given aggregate type. Subscribers register the count when they query the event store and use it with
+     * {@link #hasBeenNotifiedOfEventsFrom(AggregateType, long, long)} and {@link #awaitEventsPersistedFrom(AggregateType, long, long, Duration)}
+     *
+     * @param aggregateType the aggregate type
+     * @return the number of notifications received for the given aggregate type
+     */
+    public long getNotificationCount(AggregateType aggregateType) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var notifiedGlobalOrder = notifiedGlobalOrders.get(aggregateType);
+        return notifiedGlobalOrder != null ? notifiedGlobalOrder.notificationCount : 0;
+    }
+
+    /**
+     * Has a notification been received that covers an event with a global order larger than or equal to <code>fromInclusiveGlobalOrder</code>
+     *
+     * @param aggregateType            the aggregate type
+     * @param fromInclusiveGlobalOrder the next global order the caller is interested in
+     * @return true if a notification covering <code>fromInclusiveGlobalOrder</code> has been received (or if the listener isn't listening for the
+     * aggregate type, in which case the caller should poll)
+     */
+    public boolean hasBeenNotifiedOfEventsFrom(AggregateType aggregateType, long fromInclusiveGlobalOrder) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var notifiedGlobalOrder = notifiedGlobalOrders.get(aggregateType);
+        if (!started || notifiedGlobalOrder == null) {
+            return true;
+        }
+        return notifiedGlobalOrder.highestGlobalOrder >= fromInclusiveGlobalOrder;
+    }
+
+    /**
+     * Has a notification, received after the first <code>sinceNotificationCount</code> notifications, covered an event with a global order larger than or equal to
+     * <code>fromInclusiveGlobalOrder</code>. Unlike {@link #hasBeenNotifiedOfEventsFrom(AggregateType, long)} this also covers notifications with a global order lower than
+     * the highest global order notified
+     *
+     * @param aggregateType            the aggregate type
+     * @param fromInclusiveGlobalOrder the next global order the caller is interested in
+     * @param sinceNotificationCount   the {@link #getNotificationCount(AggregateType)} when the caller last queried the event store
+     * @return true if a later notification covering <code>fromInclusiveGlobalOrder</code> has been received (or if the listener isn't listening for the
+     * aggregate type, in which case the caller should poll)
+     */
+    public boolean hasBeenNotifiedOfEventsFrom(AggregateType aggregateType, long fromInclusiveGlobalOrder, long sinceNotificationCount) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var notifiedGlobalOrder = notifiedGlobalOrders.get(aggregateType);
+        if (!started || notifiedGlobalOrder == null) {
+            return true;
+        }
+        return notifiedGlobalOrder.hasBeenNotifiedSince(sinceNotificationCount, fromInclusiveGlobalOrder);
+    }
+
+    /**
+     * Park the calling thread until a notification, received after the first <code>sinceNotificationCount</code> notifications, covers <code>fromInclusiveGlobalOrder</code>
+     * or <code>maxWaitTime</code> has elapsed
+     *
+     * @param aggregateType            the aggregate type
+     * @param fromInclusiveGlobalOrder the next global order the caller is interested in
+     * @param sinceNotificationCount   the {@link #getNotificationCount(AggregateType)} when the caller last queried the event store
+     * @param maxWaitTime              the maximum time to wait
+     * @return true if a notification covering <code>fromInclusiveGlobalOrder</code> was received, false if the wait timed out
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    public boolean awaitEventsPersistedFrom(AggregateType aggregateType, long fromInclusiveGlobalOrder, long sinceNotificationCount, Duration maxWaitTime) throws InterruptedException {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        requireNonNull(maxWaitTime, "No maxWaitTime provided");
+        var notifiedGlobalOrder = notifiedGlobalOrders.get(aggregateType);
+        if (!started || notifiedGlobalOrder == null) {
+            return true;
+        }
+        return notifiedGlobalOrder.await(fromInclusiveGlobalOrder, sinceNotificationCount, maxWaitTime.toMillis());
+    }
+
+    private void onNotification(Object event) {
+        if (!(event instanceof EventStreamTableNotification notification)) {
+            return;
+        }
+        var aggregateType = aggregateTypePerTableName.get(resolveChannelName(notification.getTableName()));
+        if (aggregateType == null) {
+            return;
+        }
+        log.trace("[{}] Received notification with highest globalOrder {}", aggregateType, notification.globalOrder);
+        notifiedGlobalOrders.computeIfAbsent(aggregateType, _aggregateType -> new NotifiedGlobalOrder())
+                            .notified(notification.globalOrder);
+    }
+
+    static String resolveChannelName(String eventStreamTableName) {
+        return ListenNotify.resolveTableChangeChannelName(eventStreamTableName.toLowerCase());
+    }
+
+    /**
+     * Keeps track of the notifications received for a single {@link AggregateType}
+     */
+    private final class NotifiedGlobalOrder {
+        private volatile long highestGlobalOrder = -1;
+        private volatile long notificationCount;
+        /**
+         * The global orders of the most recent notifications - the last element belongs to notification number {@link #notificationCount}
+         */
+        private final ArrayDeque<Long> recentlyNotifiedGlobalOrders = new ArrayDeque<>();
+
+        /**
+         * Every notification is recorded and wakes up all parked subscribers, since a notification with a global order lower than the
+         * {@link #highestGlobalOrder} covers the subscribers waiting for that global order
+         */
+        private synchronized void notified(long globalOrder) {
+            highestGlobalOrder = Math.max(highestGlobalOrder, globalOrder);
+            notificationCount++;
+            recentlyNotifiedGlobalOrders.addLast(globalOrder);
+            if (recentlyNotifiedGlobalOrders.size() > NUMBER_OF_RECENT_NOTIFICATIONS_RETAINED) {
+                recentlyNotifiedGlobalOrders.removeFirst();
+            }
+            notifyAll();
+        }
+
+        private synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        private synchronized boolean hasBeenNotifiedSince(long sinceNotificationCount, long fromInclusiveGlobalOrder) {
+            var numberOfNewNotifications = notificationCount - sinceNotificationCount;
+            if (numberOfNewNotifications <= 0) {
+                return false;
+            }
+            if (numberOfNewNotifications > recentlyNotifiedGlobalOrders.size()) {
+                // The notifications are no longer retained, so let the subscriber query
+                return true;
+            }
+            var newestFirst = recentlyNotifiedGlobalOrders.descendingIterator();
+            for (var i = 0L; i < numberOfNewNotifications; i++) {
+                if (newestFirst.next() >= fromInclusiveGlobalOrder) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized boolean await(long fromInclusiveGlobalOrder, long sinceNotificationCount, long maxWaitTimeMs) throws InterruptedException {
+            var deadline = System.currentTimeMillis() + maxWaitTimeMs;
+            while (started && !hasBeenNotifiedSince(sinceNotificationCount, fromInclusiveGlobalOrder)) {
+                var remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return hasBeenNotifiedSince(sinceNotificationCount, fromInclusiveGlobalOrder);
+        }
+    }
+
+    /**
+     * The notification published by the event stream table trigger installed by the {@link SeparateTablePerAggregateTypePersistenceStrategy}
+     */
+    public static class EventStreamTableNotification extends TableChangeNotification {
+        /**
+         * The highest global order inserted by the statement that triggered the notification
+         */
+        @JsonProperty("global_order")
+        private long globalOrder;
+
+        public EventStreamTableNotification() {
+        }
+
+        public EventStreamTableNotification(String tableName, ListenNotify.SqlOperation operation, long globalOrder) {
+            super(tableName, operation);
+            this.globalOrder = globalOrder;
+        }
+
+        public long getGlobalOrder() {
+            return globalOrder;
+        }
+    }
 }
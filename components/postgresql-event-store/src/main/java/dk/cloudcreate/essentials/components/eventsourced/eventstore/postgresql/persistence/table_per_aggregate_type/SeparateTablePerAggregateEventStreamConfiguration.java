@@ -24,7 +24,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.s
 import dk.cloudcreate.essentials.components.foundation.postgresql.PostgresqlUtil;
 import dk.cloudcreate.essentials.components.foundation.types.*;
 
-import java.util.Objects;
+import java.util.*;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 
@@ -93,16 +93,21 @@ import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
  * To mitigate the risk of SQL injection attacks, external or untrusted inputs should never directly provide the {@code aggregateType}'s value.<br>
  * <b>Failure to adequately sanitize and validate this value could expose the application to SQL injection
  */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public final class SeparateTablePerAggregateEventStreamConfiguration extends AggregateEventStreamConfiguration {
     /**
      * The unique name of the Postgresql table name where ONLY {@link PersistedEvent}'s related to {@link #aggregateType} are stored<br>
      * <b>Note: The table name provided will automatically be converted to <u>lower case</u></b>
      */
-    public final String                      eventStreamTableName;
+    public final String                                 eventStreamTableName;
     /**
      * The names of the {@link #eventStreamTableName} columns - The actual implementation must be compatible with the chosen {@link AggregateEventStreamPersistenceStrategy}
      */
-    public final EventStreamTableColumnNames eventStreamTableColumnNames;
+    public final EventStreamTableColumnNames            eventStreamTableColumnNames;
+    /**
+     * The optional range partitioning of the {@link #eventStreamTableName} table. If empty, then the events are stored in a single (non-partitioned) table
+     */
+    public final Optional<EventStreamTablePartitioning> eventStreamTablePartitioning;
 
     /**
      * @param aggregateType               The type of Aggregate this event stream configuration relates to<br>
@@ -196,6 +201,41 @@ public final class SeparateTablePerAggregateEventStreamConfiguration extends Agg
                                                              JSONColumnType eventJsonColumnType,
                                                              JSONColumnType eventMetadataJsonColumnType,
                                                              TenantSerializer<?> tenantSerializer) {
+        this(aggregateType,
+             eventStreamTableName,
+             eventStreamTableColumnNames,
+             queryFetchSize,
+             jsonSerializer,
+             aggregateIdSerializer,
+             aggregateIdColumnType,
+             eventIdColumnType,
+             correlationIdColumnType,
+             eventJsonColumnType,
+             eventMetadataJsonColumnType,
+             tenantSerializer,
+             Optional.empty());
+    }
+
+    /**
+     * Create an event stream configuration with optional range partitioning of the event stream table.<br>
+     * See {@link #SeparateTablePerAggregateEventStreamConfiguration(AggregateType, String, EventStreamTableColumnNames, int, JSONEventSerializer, AggregateIdSerializer, IdentifierColumnType, IdentifierColumnType, IdentifierColumnType, JSONColumnType, JSONColumnType, TenantSerializer)}
+     * for a description of the other parameters, including their security implications.
+     *
+     * @param eventStreamTablePartitioning the optional range partitioning of the {@link #eventStreamTableName} table
+     */
+    public SeparateTablePerAggregateEventStreamConfiguration(AggregateType aggregateType,
+                                                             String eventStreamTableName,
+                                                             EventStreamTableColumnNames eventStreamTableColumnNames,
+                                                             int queryFetchSize,
+                                                             JSONEventSerializer jsonSerializer,
+                                                             AggregateIdSerializer aggregateIdSerializer,
+                                                             IdentifierColumnType aggregateIdColumnType,
+                                                             IdentifierColumnType eventIdColumnType,
+                                                             IdentifierColumnType correlationIdColumnType,
+                                                             JSONColumnType eventJsonColumnType,
+                                                             JSONColumnType eventMetadataJsonColumnType,
+                                                             TenantSerializer<?> tenantSerializer,
+                                                             Optional<EventStreamTablePartitioning> eventStreamTablePartitioning) {
         super(aggregateType,
               queryFetchSize,
               jsonSerializer,
@@ -208,6 +248,7 @@ public final class SeparateTablePerAggregateEventStreamConfiguration extends Agg
               tenantSerializer);
         this.eventStreamTableName = requireNonNull(eventStreamTableName, "No eventStreamTableName provided").toLowerCase();
         this.eventStreamTableColumnNames = requireNonNull(eventStreamTableColumnNames, "No eventStreamTableColumnNames provided");
+        this.eventStreamTablePartitioning = requireNonNull(eventStreamTablePartitioning, "No eventStreamTablePartitioning option provided");
 
         PostgresqlUtil.checkIsValidTableOrColumnName(this.eventStreamTableName);
         this.eventStreamTableColumnNames.validate();
@@ -316,6 +357,29 @@ public final class SeparateTablePerAggregateEventStreamConfiguration extends Agg
                                                                      tenantSerializer);
     }
 
+    /**
+     * Create a copy of this configuration, where the {@link #eventStreamTableName} table is range partitioned according to the <code>eventStreamTablePartitioning</code>
+     *
+     * @param eventStreamTablePartitioning the range partitioning of the {@link #eventStreamTableName} table
+     * @return the new event stream configuration
+     */
+    public SeparateTablePerAggregateEventStreamConfiguration withEventStreamTablePartitioning(EventStreamTablePartitioning eventStreamTablePartitioning) {
+        requireNonNull(eventStreamTablePartitioning, "No eventStreamTablePartitioning provided");
+        return new SeparateTablePerAggregateEventStreamConfiguration(aggregateType,
+                                                                     eventStreamTableName,
+                                                                     eventStreamTableColumnNames,
+                                                                     queryFetchSize,
+                                                                     jsonSerializer,
+                                                                     aggregateIdSerializer,
+                                                                     aggregateIdColumnType,
+                                                                     eventIdColumnType,
+                                                                     correlationIdColumnType,
+                                                                     eventJsonColumnType,
+                                                                     eventMetadataJsonColumnType,
+                                                                     tenantSerializer,
+                                                                     Optional.of(eventStreamTablePartitioning));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -334,6 +398,7 @@ public final class SeparateTablePerAggregateEventStreamConfiguration extends Agg
         return "SeparateTablePerAggregateEventStreamConfiguration{" +
                 "eventStreamTableName='" + eventStreamTableName + '\'' +
                 ", eventStreamTableColumnNames=" + eventStreamTableColumnNames +
+                ", eventStreamTablePartitioning=" + eventStreamTablePartitioning +
                 ", aggregateType=" + aggregateType +
                 ", queryFetchSize=" + queryFetchSize +
                 ", jsonSerializer=" + jsonSerializer +
@@ -18,6 +18,7 @@ package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStoreException;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.AppendToStream;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.jdbi.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.AggregateIdSerializer;
@@ -32,8 +33,11 @@ import dk.cloudcreate.essentials.types.LongRange;
 import org.jdbi.v3.core.*;
 import org.jdbi.v3.core.result.ResultBearing;
 import org.jdbi.v3.core.statement.*;
+import org.postgresql.PGConnection;
 import org.slf4j.*;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -99,24 +103,57 @@ import static dk.cloudcreate.essentials.shared.MessageFormatter.*;
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public final class SeparateTablePerAggregateTypePersistenceStrategy implements AggregateEventStreamPersistenceStrategy<SeparateTablePerAggregateEventStreamConfiguration> {
     private static final Logger log = LoggerFactory.getLogger(SeparateTablePerAggregateTypePersistenceStrategy.class);
+    /**
+     * The default value for {@link #getBulkAppendThreshold()}
+     */
+    public static final int DEFAULT_BULK_APPEND_THRESHOLD = 1000;
 
     /**
      * Key: {@link AggregateType}<br>
      * Value: The insert SQL for the event stream table the event stream is persisted to
      */
     private final ConcurrentMap<AggregateType, String>                                                        insertSql                         = new ConcurrentHashMap<>();
+    /**
+     * Key: {@link AggregateType}<br>
+     * Value: The COPY SQL used when bulk appending events to the event stream table (see {@link #setBulkAppendThreshold(int)})
+     */
+    private final ConcurrentMap<AggregateType, String>                                                        copySql                           = new ConcurrentHashMap<>();
+    /**
+     * Key: {@link AggregateType}<br>
+     * Value: The Query SQL used to resolve the global orders of bulk appended events (see {@link #setBulkAppendThreshold(int)})
+     */
+    private final ConcurrentMap<AggregateType, String>                                                        bulkAppendedGlobalOrdersSql       = new ConcurrentHashMap<>();
     /**
      * Key: {@link AggregateType}<br>
      * Value: The Query SQL for the event stream table the aggregate's events are persisted to
      */
     private final ConcurrentMap<AggregateType, String>                                                        lastPersistedEventForAggregateSql = new ConcurrentHashMap<>();
+    /**
+     * Key: {@link AggregateType}<br>
+     * Value: The Query SQL that resolves the last persisted event order for multiple aggregates in the event stream table
+     */
+    private final ConcurrentMap<AggregateType, String>                                                        lastEventOrderForAggregatesSql    = new ConcurrentHashMap<>();
+    /**
+     * Key: {@link QuerySqlKey} - the {@link AggregateType} combined with the shape of the query<br>
+     * Value: The Query SQL for the event stream table, where only the query parameters remain to be bound
+     */
+    private final ConcurrentMap<QuerySqlKey, String>                                                          querySql                          = new ConcurrentHashMap<>();
     private final ConcurrentMap<AggregateType, SeparateTablePerAggregateEventStreamConfiguration>             aggregateTypeConfigurations       = new ConcurrentHashMap<>();
+    /**
+     * The {@link AggregateType}'s whose event stream table is range partitioned according to {@link SeparateTablePerAggregateEventStreamConfiguration#eventStreamTablePartitioning}
+     */
+    private final Set<AggregateType>                                                                          partitionedAggregateTypes         = ConcurrentHashMap.newKeySet();
+    /**
+     * Created and started when the first partitioned event stream table is initialized
+     */
+    private volatile EventStreamTablePartitionManager                                                         eventStreamTablePartitionManager;
     private final EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>                                           unitOfWorkFactory;
     private final PersistableEventMapper                                                                      eventMapper;
     private final AggregateEventStreamConfigurationFactory<SeparateTablePerAggregateEventStreamConfiguration> aggregateEventStreamConfigurationFactory;
     private final Optional<PostgresqlEventStreamListener>                                                     postgresEventStreamListener;
     private final Jdbi                                                                                        jdbi;
     private final List<PersistableEventEnricher>                                                              persistableEventEnrichers;
+    private volatile int                                                                                      bulkAppendThreshold               = DEFAULT_BULK_APPEND_THRESHOLD;
 
     /**
      * Create a new {@link SeparateTablePerAggregateTypePersistenceStrategy} using the specified {@link PersistableEventMapper}
@@ -231,7 +268,9 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
     }
 
     /**
-     * Disabled for now until the {@link PostgresqlEventStreamListener} is complete
+     * Create a new {@link SeparateTablePerAggregateTypePersistenceStrategy} using the specified {@link PersistableEventMapper}
+     * and (optionally) a {@link PostgresqlEventStreamListener}. If a {@link PostgresqlEventStreamListener} is provided, then a notification trigger is added to each event stream table,
+     * which allows subscribers to be woken up by notifications instead of periodically polling the event store
      *
      * @param jdbi                                     The jdbi instance
      * @param unitOfWorkFactory                        the {@link EventStoreUnitOfWorkFactory}
@@ -241,18 +280,18 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
      *                                                 e.g. {@link #addAggregateEventStreamConfiguration(AggregateType, Class)} and {@link #addAggregateEventStreamConfiguration(AggregateType, AggregateIdSerializer)}<br>
      *                                                 See {@link SeparateTablePerAggregateTypeEventStreamConfigurationFactory}
      * @param aggregateTypeConfigurations              {@link AggregateEventStreamConfiguration}'s that should be added immediately
-     * @param postgresqlEventStreamListener            the {@link PostgresqlEventStreamListener} which supports the postgresql PUBLISH/NOTIFY pattern
+     * @param postgresqlEventStreamListener            optional (may be null) {@link PostgresqlEventStreamListener} which supports the postgresql LISTEN/NOTIFY pattern
      * @param persistableEventEnrichers                {@link PersistableEventEnricher}'s - which are called in sequence by the {@link SeparateTablePerAggregateTypePersistenceStrategy#persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)} after
      *                                                 {@link PersistableEventMapper#map(Object, AggregateEventStreamConfiguration, Object, EventOrder)}
      *                                                 has been called
      */
-    private SeparateTablePerAggregateTypePersistenceStrategy(Jdbi jdbi,
-                                                             EventStoreUnitOfWorkFactory unitOfWorkFactory,
-                                                             PersistableEventMapper eventMapper,
-                                                             AggregateEventStreamConfigurationFactory<SeparateTablePerAggregateEventStreamConfiguration> aggregateEventStreamConfigurationFactory,
-                                                             List<SeparateTablePerAggregateEventStreamConfiguration> aggregateTypeConfigurations,
-                                                             PostgresqlEventStreamListener postgresqlEventStreamListener,
-                                                             List<PersistableEventEnricher> persistableEventEnrichers) {
+    public SeparateTablePerAggregateTypePersistenceStrategy(Jdbi jdbi,
+                                                            EventStoreUnitOfWorkFactory unitOfWorkFactory,
+                                                            PersistableEventMapper eventMapper,
+                                                            AggregateEventStreamConfigurationFactory<SeparateTablePerAggregateEventStreamConfiguration> aggregateEventStreamConfigurationFactory,
+                                                            List<SeparateTablePerAggregateEventStreamConfiguration> aggregateTypeConfigurations,
+                                                            PostgresqlEventStreamListener postgresqlEventStreamListener,
+                                                            List<PersistableEventEnricher> persistableEventEnrichers) {
         this.jdbi = requireNonNull(jdbi, "No jdbi instance provided");
         this.unitOfWorkFactory = requireNonNull(unitOfWorkFactory);
         this.eventMapper = requireNonNull(eventMapper, "No event mapper provided");
@@ -334,15 +373,192 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                 createEventStreamTable(unitOfWork.handle(), eventStreamConfiguration);
             }
             ensureIndexes(unitOfWork.handle(), eventStreamConfiguration);
-            // TODO: Revisit EventStream listening
-//            addEventStreamPostgresqlNotification(unitOfWork.handle(), eventStreamConfiguration);
+            eventStreamConfiguration.eventStreamTablePartitioning.ifPresent(partitioning -> {
+                if (EventStreamTablePartitions.isPartitionedTable(unitOfWork.handle(), eventStreamConfiguration.eventStreamTableName)) {
+                    EventStreamTablePartitions.ensurePartitions(unitOfWork.handle(), eventStreamConfiguration, partitioning);
+                    partitionedAggregateTypes.add(eventStreamConfiguration.aggregateType);
+                } else {
+                    log.warn("[{}] Event-stream table '{}' already exists and isn't partitioned. Ignoring {}",
+                             eventStreamConfiguration.aggregateType,
+                             eventStreamConfiguration.eventStreamTableName,
+                             partitioning);
+                }
+            });
+            addEventStreamPostgresqlNotification(unitOfWork.handle(), eventStreamConfiguration);
         });
+        if (partitionedAggregateTypes.contains(eventStreamConfiguration.aggregateType)) {
+            startEventStreamTablePartitionManager();
+        }
         // Start listening for changes
-        // TODO: Start listening
-//            if (!postgresEventStreamListener.get().isStarted()) {
-//                postgresEventStreamListener.get().start();
-//            }
-//            postgresEventStreamListener.get().listenForChangesTo(eventStreamTableName);
+        postgresEventStreamListener.ifPresent(listener -> {
+            listener.listenForChangesTo(eventStreamConfiguration.aggregateType, eventStreamConfiguration.eventStreamTableName);
+            if (!listener.isStarted()) {
+                listener.start();
+            }
+        });
+    }
+
+    /**
+     * Get the {@link PostgresqlEventStreamListener} (if configured) that receives notifications when events are persisted to the event stream tables
+     *
+     * @return the {@link PostgresqlEventStreamListener} if configured
+     */
+    public Optional<PostgresqlEventStreamListener> getPostgresqlEventStreamListener() {
+        return postgresEventStreamListener;
+    }
+
+    /**
+     * The minimum number of events appended in a single {@link #persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)} call,
+     * before the events are appended using a single {@code COPY ... FROM STDIN (FORMAT binary)} statement instead of a batched {@code INSERT}<br>
+     * Default value is {@link #DEFAULT_BULK_APPEND_THRESHOLD}
+     *
+     * @return the bulk append threshold. A value of 0 means that bulk appending is disabled
+     */
+    public int getBulkAppendThreshold() {
+        return bulkAppendThreshold;
+    }
+
+    /**
+     * Set the minimum number of events appended in a single {@link #persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)} call,
+     * before the events are appended using a single {@code COPY ... FROM STDIN (FORMAT binary)} statement instead of a batched {@code INSERT}<br>
+     * The optimistic concurrency guarantee (the unique constraint on aggregate-id and event-order) is the same for both append paths.
+     *
+     * @param bulkAppendThreshold the bulk append threshold. A value of 0 disables bulk appending
+     * @return this strategy instance
+     */
+    public SeparateTablePerAggregateTypePersistenceStrategy setBulkAppendThreshold(int bulkAppendThreshold) {
+        requireTrue(bulkAppendThreshold >= 0, "bulkAppendThreshold must be >= 0");
+        this.bulkAppendThreshold = bulkAppendThreshold;
+        return this;
+    }
+
+    private synchronized void startEventStreamTablePartitionManager() {
+        if (eventStreamTablePartitionManager == null) {
+            eventStreamTablePartitionManager = new EventStreamTablePartitionManager(this);
+        }
+        if (!eventStreamTablePartitionManager.isStarted()) {
+            eventStreamTablePartitionManager.start();
+        }
+    }
+
+    /**
+     * Get the {@link EventStreamTablePartitionManager} that maintains the partitions of the partitioned event stream tables.<br>
+     * The manager is created and started, using the {@link EventStreamTablePartitionManager#DEFAULT_MAINTENANCE_INTERVAL}, when the first
+     * event stream table configured with {@link SeparateTablePerAggregateEventStreamConfiguration#eventStreamTablePartitioning} is initialized
+     *
+     * @return the {@link EventStreamTablePartitionManager} or {@link Optional#empty()} if no partitioned event stream table has been initialized
+     */
+    public Optional<EventStreamTablePartitionManager> getEventStreamTablePartitionManager() {
+        return Optional.ofNullable(eventStreamTablePartitionManager);
+    }
+
+    /**
+     * Get the {@link AggregateType}'s whose event stream table is range partitioned according to {@link SeparateTablePerAggregateEventStreamConfiguration#eventStreamTablePartitioning}
+     *
+     * @return the aggregate types with a partitioned event stream table
+     */
+    public Set<AggregateType> getPartitionedAggregateTypes() {
+        return Collections.unmodifiableSet(partitionedAggregateTypes);
+    }
+
+    /**
+     * Ensure that the partitions of the {@link AggregateType}'s event stream table exist, up to and including {@link EventStreamTablePartitioning#partitionsAhead}
+     * partitions after the partition that contains the head of the event stream.<br>
+     * This is called when the event stream table is initialized and periodically afterwards by the {@link EventStreamTablePartitionManager}
+     * (see {@link #getEventStreamTablePartitionManager()}), as events can only be persisted if a partition covering them exists
+     *
+     * @param aggregateType the aggregate type with a partitioned event stream table
+     * @return the names of the partitions created
+     */
+    public List<String> ensureEventStreamTablePartitions(AggregateType aggregateType) {
+        var configuration = getPartitionedAggregateEventStreamConfiguration(aggregateType);
+        return unitOfWorkFactory.withUnitOfWork(unitOfWork -> EventStreamTablePartitions.ensurePartitions(unitOfWork.handle(),
+                                                                                                         configuration,
+                                                                                                         configuration.eventStreamTablePartitioning.get()));
+    }
+
+    /**
+     * Get all the partitions (attached and detached) of the {@link AggregateType}'s event stream table
+     *
+     * @param aggregateType the aggregate type with a partitioned event stream table
+     * @return the partitions sorted by {@link EventStreamTablePartition#partitionNumber()}
+     */
+    public List<EventStreamTablePartition> getEventStreamTablePartitions(AggregateType aggregateType) {
+        var configuration = getPartitionedAggregateEventStreamConfiguration(aggregateType);
+        return unitOfWorkFactory.withUnitOfWork(unitOfWork -> EventStreamTablePartitions.getPartitions(unitOfWork.handle(), configuration));
+    }
+
+    /**
+     * Move the cold partitions of the {@link AggregateType}'s event stream table to the {@link EventStreamTablePartitioning#archiveTablespace}.<br>
+     * A partition is cold if it's attached and isn't one of the {@link EventStreamTablePartitioning#numberOfHotPartitions} partitions up to and including
+     * the partition that contains the head of the event stream. Archived partitions remain attached, so their events can still be read (e.g. during replays).<br>
+     * Each partition is moved in its own transaction, which rewrites the partition while holding an <code>ACCESS EXCLUSIVE</code> lock on it, so
+     * queries that access the partition are blocked while it's being moved.
+     *
+     * @param aggregateType the aggregate type with a partitioned event stream table
+     * @return the names of the partitions archived (empty if no {@link EventStreamTablePartitioning#archiveTablespace} is configured)
+     */
+    public List<String> archiveColdEventStreamTablePartitions(AggregateType aggregateType) {
+        var configuration = getPartitionedAggregateEventStreamConfiguration(aggregateType);
+        var partitioning  = configuration.eventStreamTablePartitioning.get();
+        if (partitioning.archiveTablespace.isEmpty()) {
+            return List.of();
+        }
+        var archiveTablespace = partitioning.archiveTablespace.get();
+        var coldPartitions = unitOfWorkFactory.withUnitOfWork(unitOfWork -> {
+            var headPartitionNumber = EventStreamTablePartitions.headPartitionNumber(unitOfWork.handle(), configuration, partitioning);
+            return EventStreamTablePartitions.getPartitions(unitOfWork.handle(), configuration)
+                                             .stream()
+                                             .filter(partition -> partition.attached() &&
+                                                     partition.partitionNumber() <= headPartitionNumber - partitioning.numberOfHotPartitions &&
+                                                     !partition.tablespace().equals(partitioning.archiveTablespace))
+                                             .map(EventStreamTablePartition::partitionTableName)
+                                             .toList();
+        });
+        for (var partitionTableName : coldPartitions) {
+            log.info("[{}] Archiving event-stream table partition '{}' to tablespace '{}'", aggregateType, partitionTableName, archiveTablespace);
+            unitOfWorkFactory.usingUnitOfWork(unitOfWork -> EventStreamTablePartitions.moveToTablespace(unitOfWork.handle(), partitionTableName, archiveTablespace));
+        }
+        return coldPartitions;
+    }
+
+    /**
+     * Detach a partition from the {@link AggregateType}'s event stream table. The partition table and its events are kept, but the events
+     * can no longer be read through the event store (e.g. during replays) until the partition is re-attached using {@link #attachEventStreamTablePartition(AggregateType, String)}.<br>
+     * The uniqueness of the aggregate-id/event-order and event-id of the detached events is still enforced.<br>
+     * <b>Note:</b> Only detach partitions that all subscribers have handled, as subscribers will otherwise see the missing events as gaps.
+     *
+     * @param aggregateType      the aggregate type with a partitioned event stream table
+     * @param partitionTableName the name of the partition to detach
+     */
+    public void detachEventStreamTablePartition(AggregateType aggregateType, String partitionTableName) {
+        var configuration = getPartitionedAggregateEventStreamConfiguration(aggregateType);
+        log.info("[{}] Detaching event-stream table partition '{}' from '{}'", aggregateType, partitionTableName, configuration.eventStreamTableName);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> EventStreamTablePartitions.detachPartition(unitOfWork.handle(), configuration, partitionTableName));
+    }
+
+    /**
+     * Re-attach a partition, previously detached using {@link #detachEventStreamTablePartition(AggregateType, String)}, to the {@link AggregateType}'s event stream table
+     *
+     * @param aggregateType      the aggregate type with a partitioned event stream table
+     * @param partitionTableName the name of the partition to attach
+     */
+    public void attachEventStreamTablePartition(AggregateType aggregateType, String partitionTableName) {
+        var configuration = getPartitionedAggregateEventStreamConfiguration(aggregateType);
+        log.info("[{}] Attaching event-stream table partition '{}' to '{}'", aggregateType, partitionTableName, configuration.eventStreamTableName);
+        unitOfWorkFactory.usingUnitOfWork(unitOfWork -> EventStreamTablePartitions.attachPartition(unitOfWork.handle(),
+                                                                                                  configuration,
+                                                                                                  configuration.eventStreamTablePartitioning.get(),
+                                                                                                  partitionTableName));
+    }
+
+    private SeparateTablePerAggregateEventStreamConfiguration getPartitionedAggregateEventStreamConfiguration(AggregateType aggregateType) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        var configuration = getAggregateEventStreamConfiguration(aggregateType);
+        if (!partitionedAggregateTypes.contains(aggregateType)) {
+            throw new EventStoreException(msg("The event-stream table '{}' for AggregateType '{}' isn't partitioned", configuration.eventStreamTableName, aggregateType));
+        }
+        return configuration;
     }
 
 
@@ -360,7 +576,12 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
             unitOfWork.handle().execute("DROP TABLE IF EXISTS " + configuration.eventStreamTableName);
             log.debug("Dropped table '{}'", configuration.eventStreamTableName);
+            if (configuration.eventStreamTablePartitioning.isPresent()) {
+                unitOfWork.handle().execute("DROP TABLE IF EXISTS " + EventStreamTablePartitions.keysTableName(configuration.eventStreamTableName));
+                log.debug("Dropped table '{}'", EventStreamTablePartitions.keysTableName(configuration.eventStreamTableName));
+            }
         });
+        partitionedAggregateTypes.remove(configuration.aggregateType);
         initializeEventStorageFor(configuration);
     }
 
@@ -387,6 +608,11 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         PostgresqlUtil.checkIsValidTableOrColumnName(eventStreamConfiguration.eventStreamTableName);
         eventStreamConfiguration.eventStreamTableColumnNames.validate();
 
+        if (eventStreamConfiguration.eventStreamTablePartitioning.isPresent()) {
+            EventStreamTablePartitions.createPartitionedEventStreamTable(handle, eventStreamConfiguration, eventStreamConfiguration.eventStreamTablePartitioning.get());
+            return;
+        }
+
         var eventStreamTableName = eventStreamConfiguration.eventStreamTableName;
         var columnNames          = eventStreamConfiguration.eventStreamTableColumnNames;
         Update update = handle.createUpdate(bind("CREATE TABLE {:tableName} (\n" +
@@ -436,69 +662,54 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         PostgresqlUtil.checkIsValidTableOrColumnName(eventStreamConfiguration.eventStreamTableName);
         eventStreamConfiguration.eventStreamTableColumnNames.validate();
 
-        var eventStreamTableName = eventStreamConfiguration.eventStreamTableName;
-        var columnNames          = eventStreamConfiguration.eventStreamTableColumnNames;
-
         if (postgresEventStreamListener.isPresent()) {
-            var update = handle.createUpdate((bind("CREATE OR REPLACE FUNCTION notify_{:tableName}_change()\n" +
-                                                           "        RETURNS trigger\n" +
-                                                           "        LANGUAGE PLPGSQL\n" +
-                                                           "       AS $$\n" +
-                                                           "       BEGIN\n" +
-                                                           "         PERFORM (\n" +
-                                                           "            WITH payload(table_name,\n" +
-                                                           "                         {:aggregateIdColumnName},\n" +
-                                                           "                         {:eventTypeColumnName},\n" +
-                                                           "                         {:eventOrderColumnName},\n" +
-                                                           "                         {:globalOrderColumnName},\n" +
-                                                           "                         {:timestampColumnName},\n" +
-                                                           "                         {:tenantColumnName}) as\n" +
-                                                           "            (\n" +
-                                                           "              SELECT '{:tableName}',\n" +
-                                                           "                     NEW.{:aggregateIdColumnName},\n" +
-                                                           "                     NEW.{:eventTypeColumnName},\n" +
-                                                           "                     NEW.{:eventOrderColumnName},\n" +
-                                                           "                     NEW.{:globalOrderColumnName},\n" +
-                                                           "                     NEW.{:timestampColumnName},\n" +
-                                                           "                     NEW.{:tenantColumnName}\n" +
-                                                           "            )\n" +
-                                                           "            SELECT pg_notify('{:tableName}', row_to_json(payload)::text)\n" +
-                                                           "              FROM payload\n" +
-                                                           "         );\n" +
-                                                           "         RETURN NULL;\n" +
-                                                           "       END;\n" +
-                                                           "       $$;",
-                                                   arg("tableName", eventStreamTableName),
-                                                   arg("aggregateIdColumnName", columnNames.aggregateIdColumn),
-                                                   arg("eventTypeColumnName", columnNames.eventTypeColumn),
-                                                   arg("eventOrderColumnName", columnNames.eventOrderColumn),
-                                                   arg("globalOrderColumnName", columnNames.globalOrderColumn),
-                                                   arg("timestampColumnName", columnNames.timestampColumn),
-                                                   arg("tenantColumnName", columnNames.tenantColumn))
-                                             ));
-//            beforeEventStreamTableNotificationFunctionCreation(update, handle);
+            var eventStreamTableName = eventStreamConfiguration.eventStreamTableName.toLowerCase();
+            var columnNames          = eventStreamConfiguration.eventStreamTableColumnNames;
+            var channelName          = PostgresqlEventStreamListener.resolveChannelName(eventStreamTableName);
+
+            // Statement level trigger, so a batch insert results in a single notification containing the highest global order inserted
+            var update = handle.createUpdate(bind("CREATE OR REPLACE FUNCTION notify_{:tableName}_change()\n" +
+                                                          "        RETURNS trigger\n" +
+                                                          "        LANGUAGE PLPGSQL\n" +
+                                                          "       AS $$\n" +
+                                                          "       BEGIN\n" +
+                                                          "         PERFORM pg_notify('{:channelName}',\n" +
+                                                          "                           json_build_object('table_name', TG_TABLE_NAME,\n" +
+                                                          "                                             'sql_operation', TG_OP,\n" +
+                                                          "                                             'global_order', (SELECT MAX({:globalOrderColumnName}) FROM inserted_events))::text);\n" +
+                                                          "         RETURN NULL;\n" +
+                                                          "       END;\n" +
+                                                          "       $$;",
+                                                  arg("tableName", eventStreamTableName),
+                                                  arg("channelName", channelName),
+                                                  arg("globalOrderColumnName", columnNames.globalOrderColumn)
+                                                 ));
             update.execute();
             log.info("[{}] Ensured event-stream Notification Function 'notify_{}_change' for table '{}' exists",
                      eventStreamConfiguration.aggregateType,
                      eventStreamTableName,
                      eventStreamTableName);
-//            afterEventStreamTableNotificationFunctionCreation(numberOfChanges, update, handle);
-
 
-            update = handle.createUpdate(bind("CREATE OR REPLACE TRIGGER notify_on_{:tableName}_changes\n" +
+            var isReplaceTriggerSupported = PostgresqlUtil.getServiceMajorVersion(handle) >= 14;
+            if (!isReplaceTriggerSupported) {
+                handle.createUpdate(bind("DROP TRIGGER IF EXISTS notify_on_{:tableName}_changes ON {:tableName}",
+                                         arg("tableName", eventStreamTableName)))
+                      .execute();
+            }
+            update = handle.createUpdate(bind("CREATE {:optionalReplace}TRIGGER notify_on_{:tableName}_changes\n" +
                                                       "      AFTER INSERT\n" +
                                                       "            ON {:tableName}\n" +
-                                                      "      FOR EACH ROW\n" +
-                                                      "         EXECUTE PROCEDURE notify_{:tableName}_change()",
-                                              arg("tableName", eventStreamTableName)
+                                                      "      REFERENCING NEW TABLE AS inserted_events\n" +
+                                                      "      FOR EACH STATEMENT\n" +
+                                                      "         EXECUTE FUNCTION notify_{:tableName}_change()",
+                                              arg("tableName", eventStreamTableName),
+                                              arg("optionalReplace", isReplaceTriggerSupported ? "OR REPLACE " : "")
                                              ));
-//            beforeEventStreamTableNotificationTriggerCreation(update, handle);
             update.execute();
             log.info("[{}] Ensured event-stream Notification Trigger 'notify_on_{}_changes' for table '{}' exists",
                      eventStreamConfiguration.aggregateType,
                      eventStreamTableName,
                      eventStreamTableName);
-//            afterEventStreamTableNotificationTriggerCreation(numberOfChanges, update, handle);
         }
     }
 
@@ -546,40 +757,36 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                                            Stream.empty());
         }
 
-        var batch = unitOfWork.handle()
-                              .prepareBatch(getInsertSql(configuration));
+        var eventOrder                = new AtomicLong(resolveAppendEventsAfterEventOrder(unitOfWork, aggregateType, aggregateId, appendEventsAfterEventOrder));
+        var initialEventOrder         = eventOrder.get();
+        var enrichedPersistableEvents = mapAndEnrichPersistableEvents(configuration, aggregateId, persistableEvents, eventOrder);
+
+        var useBulkAppend = bulkAppendThreshold > 0 && enrichedPersistableEvents.size() >= bulkAppendThreshold;
+        var batch = useBulkAppend ? null : unitOfWork.handle()
+                                                     .prepareBatch(getInsertSql(configuration));
+        var jdbiPersistableEvents = enrichedPersistableEvents.stream()
+                                                             .map(persistableEvent -> useBulkAppend ?
+                                                                                      serializeForPersistence(configuration, persistableEvent) :
+                                                                                      addEventToPersistenceBatch(configuration, batch, persistableEvent))
+                                                             .collect(Collectors.toList());
 
-        var eventOrder = new AtomicLong(appendEventsAfterEventOrder.orElseGet(() -> loadLastPersistedEventRelatedTo(unitOfWork,
-                                                                                                                    aggregateType,
-                                                                                                                    aggregateId)
-                .map(PersistedEvent::eventOrder)
-                .orElse(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED)
-                .longValue()));
-        var initialEventOrder = eventOrder.get();
-        var jdbiPersistableEvents = persistableEvents.stream()
-                                                     .map(rawPersistableEvent -> eventMapper.map(aggregateId, configuration, rawPersistableEvent, EventOrder.of(eventOrder.incrementAndGet())))
-                                                     .map(mappedPersistableEvent -> {
-                                                         PersistableEvent enrichedPersistableEvent = mappedPersistableEvent;
-                                                         for (var enricher : persistableEventEnrichers) {
-                                                             enrichedPersistableEvent = enricher.enrich(enrichedPersistableEvent);
-                                                             if (enrichedPersistableEvent == null) {
-                                                                 throw new IllegalStateException(msg("{} returned null",
-                                                                                                     PersistableEventEnricher.class.getSimpleName()
-                                                                                                    ));
-                                                             }
-                                                         }
-                                                         return enrichedPersistableEvent;
-                                                     })
-                                                     .map(persistableEvent -> addEventToPersistenceBatch(configuration, batch, persistableEvent))
-                                                     .collect(Collectors.toList());
-
-        final ResultBearing result = batch.executePreparedBatch(configuration.eventStreamTableColumnNames.globalOrderColumn);
         try {
-            var eventGlobalOrders = result.reduceRows(new ArrayList<Long>(),
+            Stream<Long> eventGlobalOrders;
+            if (useBulkAppend) {
+                eventGlobalOrders = bulkAppendUsingCopy(unitOfWork.handle(),
+                                                        configuration,
+                                                        aggregateId,
+                                                        jdbiPersistableEvents,
+                                                        initialEventOrder + 1,
+                                                        eventOrder.longValue()).stream();
+            } else {
+                final ResultBearing result = batch.executePreparedBatch(configuration.eventStreamTableColumnNames.globalOrderColumn);
+                eventGlobalOrders = result.reduceRows(new ArrayList<Long>(),
                                                       (listOfGlobalOrders, row) -> {
                                                           listOfGlobalOrders.add(row.getColumn(configuration.eventStreamTableColumnNames.globalOrderColumn, Long.class));
                                                           return listOfGlobalOrders;
                                                       }).stream();
+            }
 
             var persistedEvents = Streams.zipOrderedAndEqualSizedStreams(eventGlobalOrders,
                                                                          jdbiPersistableEvents.stream(),
@@ -597,7 +804,7 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                                            persistedEvents);
         } catch (RuntimeException e) {
             var cause = Exceptions.getRootCause(e);
-            if (cause.getMessage() != null && cause.getMessage().contains("ERROR: duplicate key value violates unique constraint") && cause.getMessage().contains("aggregate_id_event_order_key")) {
+            if (isOptimisticConcurrencyViolation(cause)) {
                 throw new OptimisticAppendToStreamException(msg("[{}] Optimistic Concurrency Exception Failed to Append {} Events to Stream related to aggregate with id '{}'. " +
                                                                         "First event was appended with eventOrder {}. Details: {}",
                                                                 configuration.aggregateType,
@@ -614,6 +821,233 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         }
     }
 
+    /**
+     * Persists the events related to multiple aggregate event streams.<br>
+     * All events belonging to the same {@link AggregateType} (i.e. the same event stream table) are added to a single {@link PreparedBatch},
+     * which is executed using a single round-trip.<br>
+     * The event order of the streams that don't specify {@link AppendToStream#getAppendEventsAfterEventOrder()} is resolved using a single query per
+     * event stream table before the batch is executed.<br>
+     * An {@link AggregateType} with only one {@link AppendToStream} uses {@link #persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)},
+     * which means it can use the {@code COPY} based bulk append (see {@link #setBulkAppendThreshold(int)})
+     */
+    @Override
+    public List<AggregateEventStream<?>> persist(EventStoreUnitOfWork unitOfWork, List<AppendToStream<?>> appendToStreams) {
+        requireNonNull(unitOfWork, "No unitOfWork provided");
+        requireNonNull(appendToStreams, "No appendToStreams provided");
+
+        var aggregateEventStreams = new ArrayList<AggregateEventStream<?>>(Collections.nCopies(appendToStreams.size(), null));
+        var streamIndexesPerAggregateType = new LinkedHashMap<AggregateType, List<Integer>>();
+        for (var index = 0; index < appendToStreams.size(); index++) {
+            var appendToStream = requireNonNull(appendToStreams.get(index), "appendToStreams contains a null AppendToStream");
+            streamIndexesPerAggregateType.computeIfAbsent(appendToStream.aggregateType, aggregateType -> new ArrayList<>())
+                                         .add(index);
+        }
+
+        streamIndexesPerAggregateType.forEach((aggregateType, streamIndexes) -> {
+            if (streamIndexes.size() == 1) {
+                var appendToStream = appendToStreams.get(streamIndexes.get(0));
+                aggregateEventStreams.set(streamIndexes.get(0), persist(unitOfWork,
+                                                                        appendToStream.aggregateType,
+                                                                        appendToStream.aggregateId,
+                                                                        appendToStream.getAppendEventsAfterEventOrder(),
+                                                                        appendToStream.getEventsToAppend()));
+            } else {
+                var persistedStreams = persistToEventStreamTable(unitOfWork,
+                                                                 getAggregateEventStreamConfiguration(aggregateType),
+                                                                 streamIndexes.stream()
+                                                                              .map(appendToStreams::get)
+                                                                              .collect(Collectors.toList()));
+                for (var index = 0; index < streamIndexes.size(); index++) {
+                    aggregateEventStreams.set(streamIndexes.get(index), persistedStreams.get(index));
+                }
+            }
+        });
+        return aggregateEventStreams;
+    }
+
+    private List<AggregateEventStream<?>> persistToEventStreamTable(EventStoreUnitOfWork unitOfWork,
+                                                                    SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                                    List<AppendToStream<?>> appendToStreams) {
+        var aggregateIdsWithoutEventOrder = appendToStreams.stream()
+                                                           .filter(appendToStream -> !appendToStream.getEventsToAppend().isEmpty() &&
+                                                                   appendToStream.getAppendEventsAfterEventOrder().isEmpty())
+                                                           .map(appendToStream -> toAggregateIdColumnValue(configuration, appendToStream.aggregateId))
+                                                           .distinct()
+                                                           .collect(Collectors.toList());
+        var lastEventOrders = aggregateIdsWithoutEventOrder.isEmpty() ?
+                              Map.<Object, Long>of() :
+                              loadLastEventOrdersRelatedTo(unitOfWork, configuration, aggregateIdsWithoutEventOrder);
+
+        var batch = unitOfWork.handle()
+                              .prepareBatch(getInsertSql(configuration));
+        var pendingAppends = appendToStreams.stream()
+                                            .map(appendToStream -> {
+                                                var eventOrder = new AtomicLong(appendToStream.getEventsToAppend().isEmpty() ?
+                                                                                EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED.longValue() :
+                                                                                appendToStream.getAppendEventsAfterEventOrder()
+                                                                                              .orElseGet(() -> lastEventOrders.getOrDefault(toAggregateIdColumnValue(configuration, appendToStream.aggregateId),
+                                                                                                                                            EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED.longValue())));
+                                                var initialEventOrder = eventOrder.get();
+                                                var jdbiPersistableEvents = mapAndEnrichPersistableEvents(configuration,
+                                                                                                          appendToStream.aggregateId,
+                                                                                                          appendToStream.getEventsToAppend(),
+                                                                                                          eventOrder)
+                                                        .stream()
+                                                        .map(persistableEvent -> addEventToPersistenceBatch(configuration, batch, persistableEvent))
+                                                        .collect(Collectors.toList());
+                                                return new PendingAggregateEventStreamAppend(appendToStream.aggregateId, initialEventOrder, jdbiPersistableEvents);
+                                            })
+                                            .collect(Collectors.toList());
+        var numberOfEvents = pendingAppends.stream().mapToInt(pendingAppend -> pendingAppend.jdbiPersistableEvents.size()).sum();
+        if (numberOfEvents == 0) {
+            return pendingAppends.stream()
+                                 .map(pendingAppend -> AggregateEventStream.of(configuration,
+                                                                               pendingAppend.aggregateId,
+                                                                               LongRange.only(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED.longValue()),
+                                                                               Stream.empty()))
+                                 .collect(Collectors.toList());
+        }
+
+        try {
+            var eventGlobalOrders = batch.executePreparedBatch(configuration.eventStreamTableColumnNames.globalOrderColumn)
+                                         .reduceRows(new ArrayList<Long>(),
+                                                     (listOfGlobalOrders, row) -> {
+                                                         listOfGlobalOrders.add(row.getColumn(configuration.eventStreamTableColumnNames.globalOrderColumn, Long.class));
+                                                         return listOfGlobalOrders;
+                                                     });
+            requireTrue(eventGlobalOrders.size() == numberOfEvents,
+                        msg("[{}] Expected {} global orders but received {}", configuration.aggregateType, numberOfEvents, eventGlobalOrders.size()));
+
+            var aggregateEventStreams = new ArrayList<AggregateEventStream<?>>(pendingAppends.size());
+            var globalOrderIndex      = 0;
+            for (var pendingAppend : pendingAppends) {
+                var numberOfStreamEvents = pendingAppend.jdbiPersistableEvents.size();
+                if (numberOfStreamEvents == 0) {
+                    aggregateEventStreams.add(AggregateEventStream.of(configuration,
+                                                                      pendingAppend.aggregateId,
+                                                                      LongRange.only(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED.longValue()),
+                                                                      Stream.empty()));
+                    continue;
+                }
+                var persistedEvents = Streams.zipOrderedAndEqualSizedStreams(eventGlobalOrders.subList(globalOrderIndex, globalOrderIndex + numberOfStreamEvents).stream(),
+                                                                             pendingAppend.jdbiPersistableEvents.stream(),
+                                                                             (eventGlobalOrder, jdbiPersistableEvent) -> PersistedEvent.from(jdbiPersistableEvent.persistableEvent,
+                                                                                                                                             configuration.aggregateType,
+                                                                                                                                             GlobalEventOrder.of(eventGlobalOrder),
+                                                                                                                                             jdbiPersistableEvent.serializedEvent,
+                                                                                                                                             jdbiPersistableEvent.serializedEventMetaData,
+                                                                                                                                             jdbiPersistableEvent.eventTimestamp))
+                                             .collect(Collectors.toList());
+                globalOrderIndex += numberOfStreamEvents;
+                aggregateEventStreams.add(AggregateEventStream.of(configuration,
+                                                                  pendingAppend.aggregateId,
+                                                                  LongRange.between(pendingAppend.initialEventOrder + 1,
+                                                                                    pendingAppend.initialEventOrder + numberOfStreamEvents),
+                                                                  persistedEvents.stream()));
+            }
+            return aggregateEventStreams;
+        } catch (RuntimeException e) {
+            var aggregateIds = pendingAppends.stream().map(pendingAppend -> pendingAppend.aggregateId).collect(Collectors.toList());
+            var cause        = Exceptions.getRootCause(e);
+            if (isOptimisticConcurrencyViolation(cause)) {
+                throw new OptimisticAppendToStreamException(msg("[{}] Optimistic Concurrency Exception Failed to Append {} Events to {} Streams related to aggregates with ids {}. Details: {}",
+                                                                configuration.aggregateType,
+                                                                numberOfEvents,
+                                                                pendingAppends.size(),
+                                                                aggregateIds,
+                                                                cause.getMessage()), e);
+            } else {
+                throw new AppendToStreamException(msg("[{}] Failed to Append {} Events to {} Streams related to aggregates with ids {}",
+                                                      configuration.aggregateType,
+                                                      numberOfEvents,
+                                                      pendingAppends.size(),
+                                                      aggregateIds), e);
+            }
+        }
+    }
+
+    private long resolveAppendEventsAfterEventOrder(EventStoreUnitOfWork unitOfWork,
+                                                    AggregateType aggregateType,
+                                                    Object aggregateId,
+                                                    Optional<Long> appendEventsAfterEventOrder) {
+        return appendEventsAfterEventOrder.orElseGet(() -> loadLastPersistedEventRelatedTo(unitOfWork,
+                                                                                           aggregateType,
+                                                                                           aggregateId)
+                .map(PersistedEvent::eventOrder)
+                .orElse(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED)
+                .longValue());
+    }
+
+    /**
+     * Resolve the last persisted event order for each of the aggregates using a single query
+     *
+     * @param unitOfWork    the current unit of work
+     * @param configuration the configuration of the event stream table
+     * @param aggregateIds  the aggregate ids converted using {@link #toAggregateIdColumnValue(SeparateTablePerAggregateEventStreamConfiguration, Object)}
+     * @return the last persisted event order per aggregate id column value. Aggregates without persisted events are not included
+     */
+    private Map<Object, Long> loadLastEventOrdersRelatedTo(EventStoreUnitOfWork unitOfWork,
+                                                           SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                           List<Object> aggregateIds) {
+        var aggregateIdType = configuration.aggregateIdColumnType == IdentifierColumnType.UUID ? UUID.class : String.class;
+        return unitOfWork.handle()
+                         .createQuery(getLastEventOrderForAggregatesSQL(configuration))
+                         .bindList("aggregateIds", aggregateIds)
+                         .setFetchSize(aggregateIds.size())
+                         .reduceRows(new HashMap<Object, Long>(),
+                                     (lastEventOrders, row) -> {
+                                         lastEventOrders.put(row.getColumn("aggregate_id", aggregateIdType),
+                                                             row.getColumn("last_event_order", Long.class));
+                                         return lastEventOrders;
+                                     });
+    }
+
+    private String getLastEventOrderForAggregatesSQL(SeparateTablePerAggregateEventStreamConfiguration configuration) {
+        return lastEventOrderForAggregatesSql.computeIfAbsent(configuration.aggregateType, aggregateType -> {
+            PostgresqlUtil.checkIsValidTableOrColumnName(configuration.eventStreamTableName);
+            configuration.eventStreamTableColumnNames.validate();
+
+            var sqlTemplate = "SELECT {:aggregateIdColumn} AS aggregate_id, MAX({:eventOrderColumn}) AS last_event_order FROM {:tableName} WHERE \n" +
+                    "   {:aggregateIdColumn} IN (<aggregateIds>) \n" +
+                    "   GROUP BY {:aggregateIdColumn}";
+            return bind(sqlTemplate,
+                        // Column names
+                        arg("tableName", configuration.eventStreamTableName),
+                        arg("aggregateIdColumn", configuration.eventStreamTableColumnNames.aggregateIdColumn),
+                        arg("eventOrderColumn", configuration.eventStreamTableColumnNames.eventOrderColumn));
+        });
+    }
+
+    private static Object toAggregateIdColumnValue(SeparateTablePerAggregateEventStreamConfiguration configuration, Object aggregateId) {
+        var serializedAggregateId = configuration.aggregateIdSerializer.serialize(aggregateId);
+        return configuration.aggregateIdColumnType == IdentifierColumnType.UUID ? UUID.fromString(serializedAggregateId) : serializedAggregateId;
+    }
+
+    private List<PersistableEvent> mapAndEnrichPersistableEvents(SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                                 Object aggregateId,
+                                                                 List<?> persistableEvents,
+                                                                 AtomicLong eventOrder) {
+        return persistableEvents.stream()
+                                .map(rawPersistableEvent -> eventMapper.map(aggregateId, configuration, rawPersistableEvent, EventOrder.of(eventOrder.incrementAndGet())))
+                                .map(mappedPersistableEvent -> {
+                                    PersistableEvent enrichedPersistableEvent = mappedPersistableEvent;
+                                    for (var enricher : persistableEventEnrichers) {
+                                        enrichedPersistableEvent = enricher.enrich(enrichedPersistableEvent);
+                                        if (enrichedPersistableEvent == null) {
+                                            throw new IllegalStateException(msg("{} returned null",
+                                                                                PersistableEventEnricher.class.getSimpleName()
+                                                                               ));
+                                        }
+                                    }
+                                    return enrichedPersistableEvent;
+                                })
+                                .collect(Collectors.toList());
+    }
+
+    private static boolean isOptimisticConcurrencyViolation(Throwable cause) {
+        return cause.getMessage() != null && cause.getMessage().contains("ERROR: duplicate key value violates unique constraint") && cause.getMessage().contains("aggregate_id_event_order_key");
+    }
+
     @Override
     public <STREAM_ID> Optional<PersistedEvent> loadLastPersistedEventRelatedTo(EventStoreUnitOfWork unitOfWork, AggregateType aggregateType, STREAM_ID aggregateId) {
         requireNonNull(unitOfWork, "No unitOfWork provided");
@@ -651,14 +1085,19 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         });
     }
 
-    @SuppressWarnings("unchecked")
-    private JdbiPersistableEventWrapper addEventToPersistenceBatch(SeparateTablePerAggregateEventStreamConfiguration configuration, PreparedBatch batch, PersistableEvent persistableEvent) {
+    private JdbiPersistableEventWrapper serializeForPersistence(SeparateTablePerAggregateEventStreamConfiguration configuration, PersistableEvent persistableEvent) {
         var serializedEvent         = configuration.jsonSerializer.serializeEvent(persistableEvent.event());
         var serializedEventMetaData = configuration.jsonSerializer.serializeMetaData(persistableEvent.metaData());
 
         var timestamp = persistableEvent.timestamp()
                                         .orElseGet(OffsetDateTime::now)
                                         .withOffsetSameInstant(ZoneOffset.UTC);
+        return new JdbiPersistableEventWrapper(persistableEvent, timestamp, serializedEvent, serializedEventMetaData);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbiPersistableEventWrapper addEventToPersistenceBatch(SeparateTablePerAggregateEventStreamConfiguration configuration, PreparedBatch batch, PersistableEvent persistableEvent) {
+        var jdbiPersistableEvent = serializeForPersistence(configuration, persistableEvent);
 
         Object correlationId   = null;
         Object causedByEventId = null;
@@ -696,14 +1135,95 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                               persistableEvent.eventId().toString())
              .bind("causedByEventId", causedByEventId)
              .bind("correlationId", correlationId)
-             .bind("eventType", serializedEvent.getEventTypeOrNamePersistenceValue())
+             .bind("eventType", jdbiPersistableEvent.serializedEvent.getEventTypeOrNamePersistenceValue())
              .bind("eventRevision", persistableEvent.eventRevision())
-             .bind("timestamp", timestamp)
-             .bind("eventPayload", bindEventJSONForPersistence(serializedEvent, configuration))
-             .bind("eventMetaData", bindEventMetaDataJSONForPersistence(serializedEventMetaData, configuration))
+             .bind("timestamp", jdbiPersistableEvent.eventTimestamp)
+             .bind("eventPayload", bindEventJSONForPersistence(jdbiPersistableEvent.serializedEvent, configuration))
+             .bind("eventMetaData", bindEventMetaDataJSONForPersistence(jdbiPersistableEvent.serializedEventMetaData, configuration))
              .bind("tenant", persistableEvent.tenant().map(tenant -> configuration.tenantSerializer.serialize(tenant)).orElse(null))
              .add();
-        return new JdbiPersistableEventWrapper(persistableEvent, timestamp, serializedEvent, serializedEventMetaData);
+        return jdbiPersistableEvent;
+    }
+
+    /**
+     * Append all the events using a single {@code COPY ... FROM STDIN (FORMAT binary)} statement and afterwards resolve
+     * the global orders that Postgresql assigned to the appended events.<br>
+     * The {@code UNIQUE (aggregate_id, event_order)} constraint is enforced by {@code COPY} in the same way as for {@code INSERT},
+     * so a concurrent append to the same aggregate event stream fails with the same duplicate key error as the batch based append path.
+     *
+     * @return the global orders ordered by event order
+     */
+    private List<Long> bulkAppendUsingCopy(Handle handle,
+                                           SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                           Object aggregateId,
+                                           List<JdbiPersistableEventWrapper> jdbiPersistableEvents,
+                                           long fromEventOrderInclusive,
+                                           long toEventOrderInclusive) {
+        var encoder = new BinaryCopyRowEncoder();
+        jdbiPersistableEvents.forEach(jdbiPersistableEvent -> encodeForCopy(configuration, encoder, jdbiPersistableEvent));
+        long numberOfCopiedEvents;
+        try {
+            numberOfCopiedEvents = handle.getConnection()
+                                         .unwrap(PGConnection.class)
+                                         .getCopyAPI()
+                                         .copyIn(getCopySql(configuration), encoder.finish());
+        } catch (SQLException | IOException e) {
+            throw new EventStoreException(msg("[{}] Failed to COPY {} Events to Stream related to aggregate with id '{}'",
+                                              configuration.aggregateType,
+                                              jdbiPersistableEvents.size(),
+                                              aggregateId), e);
+        }
+        log.trace("[{}] Appended {} Events using COPY to Stream related to aggregate with id '{}'",
+                  configuration.aggregateType,
+                  numberOfCopiedEvents,
+                  aggregateId);
+
+        var eventGlobalOrders = handle.createQuery(getBulkAppendedGlobalOrdersSql(configuration))
+                                      .bind("aggregateId", configuration.aggregateIdColumnType == IdentifierColumnType.UUID ? UUID.fromString(configuration.aggregateIdSerializer.serialize(aggregateId)) : configuration.aggregateIdSerializer.serialize(aggregateId))
+                                      .bind("eventOrderRangeFrom", fromEventOrderInclusive)
+                                      .bind("eventOrderRangeTo", toEventOrderInclusive)
+                                      .mapTo(Long.class)
+                                      .list();
+        if (eventGlobalOrders.size() != jdbiPersistableEvents.size()) {
+            throw new EventStoreException(msg("[{}] Expected to resolve {} global orders for the Events COPY'ed to Stream related to aggregate with id '{}', but resolved {}",
+                                              configuration.aggregateType,
+                                              jdbiPersistableEvents.size(),
+                                              aggregateId,
+                                              eventGlobalOrders.size()));
+        }
+        return eventGlobalOrders;
+    }
+
+    private void encodeForCopy(SeparateTablePerAggregateEventStreamConfiguration configuration, BinaryCopyRowEncoder encoder, JdbiPersistableEventWrapper jdbiPersistableEvent) {
+        var persistableEvent = jdbiPersistableEvent.persistableEvent;
+        encoder.startRow(11);
+        writeIdentifier(encoder, configuration.aggregateIdColumnType, configuration.aggregateIdSerializer.serialize(persistableEvent.aggregateId()));
+        encoder.writeBigint(persistableEvent.eventOrder().longValue());
+        writeIdentifier(encoder, configuration.eventIdColumnType, persistableEvent.eventId().toString());
+        writeIdentifier(encoder, configuration.eventIdColumnType, persistableEvent.causedByEventId().map(Object::toString).orElse(null));
+        writeIdentifier(encoder, configuration.correlationIdColumnType, persistableEvent.correlationId().map(Object::toString).orElse(null));
+        encoder.writeText(jdbiPersistableEvent.serializedEvent.getEventTypeOrNamePersistenceValue());
+        encoder.writeText(persistableEvent.eventRevision().toString());
+        encoder.writeTimestampWithTimeZone(jdbiPersistableEvent.eventTimestamp);
+        writeJSON(encoder, configuration.eventJsonColumnType, jdbiPersistableEvent.serializedEvent.getJson());
+        writeJSON(encoder, configuration.eventMetadataJsonColumnType, jdbiPersistableEvent.serializedEventMetaData.getJson());
+        encoder.writeText(persistableEvent.tenant().map(tenant -> configuration.tenantSerializer.serialize(tenant)).orElse(null));
+    }
+
+    private static void writeIdentifier(BinaryCopyRowEncoder encoder, IdentifierColumnType columnType, String identifier) {
+        if (columnType == IdentifierColumnType.UUID) {
+            encoder.writeUuid(identifier != null ? UUID.fromString(identifier) : null);
+        } else {
+            encoder.writeText(identifier);
+        }
+    }
+
+    private static void writeJSON(BinaryCopyRowEncoder encoder, JSONColumnType columnType, String json) {
+        if (columnType == JSONColumnType.JSONB) {
+            encoder.writeJsonb(json);
+        } else {
+            encoder.writeJson(json);
+        }
     }
 
     private Object bindEventJSONForPersistence(EventJSON eventJson, AggregateEventStreamConfiguration configuration) {
@@ -739,6 +1259,24 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
         }
     }
 
+    /**
+     * Placeholder for the events, related to a single aggregate event stream, that have been added to a
+     * {@link org.jdbi.v3.core.Jdbi} {@link org.jdbi.v3.core.statement.Batch} shared between multiple aggregate event streams
+     */
+    private static class PendingAggregateEventStreamAppend {
+        private final Object                            aggregateId;
+        private final long                              initialEventOrder;
+        private final List<JdbiPersistableEventWrapper> jdbiPersistableEvents;
+
+        private PendingAggregateEventStreamAppend(Object aggregateId,
+                                                  long initialEventOrder,
+                                                  List<JdbiPersistableEventWrapper> jdbiPersistableEvents) {
+            this.aggregateId = aggregateId;
+            this.initialEventOrder = initialEventOrder;
+            this.jdbiPersistableEvents = jdbiPersistableEvents;
+        }
+    }
+
     @Override
     public <STREAM_ID> Optional<AggregateEventStream<STREAM_ID>> loadAggregateEvents(EventStoreUnitOfWork unitOfWork, AggregateType aggregateType, STREAM_ID aggregateId, LongRange eventOrderRange, Optional<Tenant> onlyIncludeEventsIfTheyBelongToTenant) {
         requireNonNull(unitOfWork, "No unitOfWork provided");
@@ -775,15 +1313,24 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
     private String loadAggregateEventsQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration,
                                                LongRange eventOrderRange,
                                                Optional<Tenant> onlyIncludeEventsIfTheyBelongToTenant) {
+        var isClosedRange     = eventOrderRange.isClosedRange();
+        var isFilteringTenant = onlyIncludeEventsIfTheyBelongToTenant.isPresent();
+        return querySql.computeIfAbsent(new QuerySqlKey(configuration.aggregateType, QueryShape.LOAD_AGGREGATE_EVENTS, isClosedRange, false, isFilteringTenant),
+                                        key -> createLoadAggregateEventsQuerySql(configuration, isClosedRange, isFilteringTenant));
+    }
+
+    private static String createLoadAggregateEventsQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                            boolean isClosedRange,
+                                                            boolean isFilteringTenant) {
         String sql = "SELECT * FROM {:tableName} WHERE \n" +
                 "   {:aggregateIdColumn} = :aggregateId AND\n";
 
-        if (eventOrderRange.isClosedRange()) {
+        if (isClosedRange) {
             sql += "   {:eventOrderColumn} BETWEEN :eventOrderRangeFrom AND :eventOrderRangeTo";
         } else {
             sql += "   {:eventOrderColumn} >= :eventOrderRangeFrom";
         }
-        if (onlyIncludeEventsIfTheyBelongToTenant.isPresent()) {
+        if (isFilteringTenant) {
             sql += " AND\n   ({:tenantColumn} IS NULL OR {:tenantColumn} = :tenant)";
         }
         sql += " ORDER BY {:eventOrderColumn} ASC";
@@ -880,6 +1427,11 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
     }
 
     private String loadEventQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration) {
+        return querySql.computeIfAbsent(new QuerySqlKey(configuration.aggregateType, QueryShape.LOAD_EVENT, false, false, false),
+                                        key -> createLoadEventQuerySql(configuration));
+    }
+
+    private static String createLoadEventQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration) {
         String sql = "SELECT * FROM {:tableName} WHERE \n" +
                 "   {:eventIdColumn} = :eventId";
 
@@ -891,6 +1443,11 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
     }
 
     private String loadEventsQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration) {
+        return querySql.computeIfAbsent(new QuerySqlKey(configuration.aggregateType, QueryShape.LOAD_EVENTS, false, false, false),
+                                        key -> createLoadEventsQuerySql(configuration));
+    }
+
+    private static String createLoadEventsQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration) {
         String sql = "SELECT * FROM {:tableName} WHERE \n" +
                 "   {:eventIdColumn} IN (<eventIds>)";
 
@@ -905,21 +1462,32 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                                                    LongRange globalOrderRange,
                                                    List<GlobalEventOrder> includeAdditionalGlobalOrders,
                                                    Optional<Tenant> onlyIncludeEventsIfTheyBelongToTenant) {
+        var isClosedRange                     = globalOrderRange.isClosedRange();
+        var isIncludingAdditionalGlobalOrders = includeAdditionalGlobalOrders != null && !includeAdditionalGlobalOrders.isEmpty();
+        var isFilteringTenant                 = onlyIncludeEventsIfTheyBelongToTenant.isPresent();
+        return querySql.computeIfAbsent(new QuerySqlKey(configuration.aggregateType, QueryShape.LOAD_EVENTS_BY_GLOBAL_ORDER, isClosedRange, isIncludingAdditionalGlobalOrders, isFilteringTenant),
+                                        key -> createLoadEventsByGlobalOrderQuerySql(configuration, isClosedRange, isIncludingAdditionalGlobalOrders, isFilteringTenant));
+    }
+
+    private static String createLoadEventsByGlobalOrderQuerySql(SeparateTablePerAggregateEventStreamConfiguration configuration,
+                                                                boolean isClosedRange,
+                                                                boolean isIncludingAdditionalGlobalOrders,
+                                                                boolean isFilteringTenant) {
         String sql = "SELECT * FROM {:tableName} WHERE \n";
 
-        if (includeAdditionalGlobalOrders != null && !includeAdditionalGlobalOrders.isEmpty()) {
+        if (isIncludingAdditionalGlobalOrders) {
             sql += "(";
         }
-        if (globalOrderRange.isClosedRange()) {
+        if (isClosedRange) {
             sql += "   {:globalOrderColumn} BETWEEN :globalOrderRangeFrom AND :globalOrderRangeTo";
         } else {
             sql += "   {:globalOrderColumn} >= :globalOrderRangeFrom";
         }
-        if (includeAdditionalGlobalOrders != null && !includeAdditionalGlobalOrders.isEmpty()) {
+        if (isIncludingAdditionalGlobalOrders) {
             sql += " OR {:globalOrderColumn} IN (<includeAdditionalGlobalOrders>))";
         }
 
-        if (onlyIncludeEventsIfTheyBelongToTenant.isPresent()) {
+        if (isFilteringTenant) {
             sql += " AND\n   ({:tenantColumn} IS NULL OR {:tenantColumn} = :tenant)";
         }
         sql += " ORDER BY {:globalOrderColumn} ASC";
@@ -930,6 +1498,60 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                     arg("tenantColumn", configuration.eventStreamTableColumnNames.tenantColumn));
     }
 
+    private String getCopySql(SeparateTablePerAggregateEventStreamConfiguration config) {
+        return copySql.computeIfAbsent(config.aggregateType, aggregateType -> {
+            PostgresqlUtil.checkIsValidTableOrColumnName(config.eventStreamTableName);
+            config.eventStreamTableColumnNames.validate();
+
+            // The column order MUST match the order used in encodeForCopy
+            return bind("COPY {:tableName} (\n" +
+                                "        {:aggregateIdColumn},\n" +
+                                "        {:eventOrderColumn},\n" +
+                                "        {:eventIdColumn},\n" +
+                                "        {:causedByEventIdColumn},\n" +
+                                "        {:correlationIdColumn},\n" +
+                                "        {:eventTypeColumn},\n" +
+                                "        {:eventRevisionColumn},\n" +
+                                "        {:timestampColumn},\n" +
+                                "        {:eventPayloadColumn},\n" +
+                                "        {:eventMetaDataColumn},\n" +
+                                "        {:tenantColumn}\n" +
+                                "     ) FROM STDIN (FORMAT binary)",
+                        // Column names
+                        arg("tableName", config.eventStreamTableName.toLowerCase()),
+                        arg("aggregateIdColumn", config.eventStreamTableColumnNames.aggregateIdColumn),
+                        arg("eventOrderColumn", config.eventStreamTableColumnNames.eventOrderColumn),
+                        arg("eventIdColumn", config.eventStreamTableColumnNames.eventIdColumn),
+                        arg("causedByEventIdColumn", config.eventStreamTableColumnNames.causedByEventIdColumn),
+                        arg("correlationIdColumn", config.eventStreamTableColumnNames.correlationIdColumn),
+                        arg("eventTypeColumn", config.eventStreamTableColumnNames.eventTypeColumn),
+                        arg("eventRevisionColumn", config.eventStreamTableColumnNames.eventRevisionColumn),
+                        arg("timestampColumn", config.eventStreamTableColumnNames.timestampColumn),
+                        arg("eventPayloadColumn", config.eventStreamTableColumnNames.eventPayloadColumn),
+                        arg("eventMetaDataColumn", config.eventStreamTableColumnNames.eventMetaDataColumn),
+                        arg("tenantColumn", config.eventStreamTableColumnNames.tenantColumn)
+                       );
+        });
+    }
+
+    private String getBulkAppendedGlobalOrdersSql(SeparateTablePerAggregateEventStreamConfiguration config) {
+        return bulkAppendedGlobalOrdersSql.computeIfAbsent(config.aggregateType, aggregateType -> {
+            PostgresqlUtil.checkIsValidTableOrColumnName(config.eventStreamTableName);
+            config.eventStreamTableColumnNames.validate();
+
+            return bind("SELECT {:globalOrderColumn} FROM {:tableName} WHERE \n" +
+                                "   {:aggregateIdColumn} = :aggregateId AND\n" +
+                                "   {:eventOrderColumn} BETWEEN :eventOrderRangeFrom AND :eventOrderRangeTo\n" +
+                                "   ORDER BY {:eventOrderColumn} ASC",
+                        // Column names
+                        arg("tableName", config.eventStreamTableName.toLowerCase()),
+                        arg("globalOrderColumn", config.eventStreamTableColumnNames.globalOrderColumn),
+                        arg("aggregateIdColumn", config.eventStreamTableColumnNames.aggregateIdColumn),
+                        arg("eventOrderColumn", config.eventStreamTableColumnNames.eventOrderColumn)
+                       );
+        });
+    }
+
     private String getInsertSql(SeparateTablePerAggregateEventStreamConfiguration config) {
         return insertSql.computeIfAbsent(config.aggregateType, aggregateType -> {
             PostgresqlUtil.checkIsValidTableOrColumnName(config.eventStreamTableName);
@@ -978,4 +1600,30 @@ public final class SeparateTablePerAggregateTypePersistenceStrategy implements A
                         arg("globalOrder", config.eventStreamTableColumnNames.globalOrderColumn));
         });
     }
+
+    /**
+     * The different shapes of queries, whose SQL is cached in {@link #querySql}
+     */
+    private enum QueryShape {
+        LOAD_AGGREGATE_EVENTS,
+        LOAD_EVENT,
+        LOAD_EVENTS,
+        LOAD_EVENTS_BY_GLOBAL_ORDER
+    }
+
+    /**
+     * Key for the {@link #querySql} cache
+     *
+     * @param aggregateType                     the aggregate type whose event stream table is queried
+     * @param queryShape                        the shape of the query
+     * @param isClosedRange                     is the event order/global order range a closed range
+     * @param isIncludingAdditionalGlobalOrders does the query include additional global orders
+     * @param isFilteringTenant                 does the query filter on tenant
+     */
+    private record QuerySqlKey(AggregateType aggregateType,
+                               QueryShape queryShape,
+                               boolean isClosedRange,
+                               boolean isIncludingAdditionalGlobalOrders,
+                               boolean isFilteringTenant) {
+    }
 }
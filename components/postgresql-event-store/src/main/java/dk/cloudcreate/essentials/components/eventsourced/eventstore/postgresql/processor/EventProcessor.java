@@ -156,6 +156,7 @@ public abstract class EventProcessor implements Lifecycle {
     private final   Inboxes                       inboxes;
     protected final DurableLocalCommandBus        commandBus;
     private final   EventStore                    eventStore;
+    private final   boolean                       forwardEventToInboxOverridden;
 
     private boolean                         started;
     private List<EventStoreSubscription>    eventStoreSubscriptions;
@@ -202,6 +203,7 @@ public abstract class EventProcessor implements Lifecycle {
         this.commandBus = requireNonNull(commandBus, "No commandBus provided");
         this.eventStore = requireNonNull(eventStoreSubscriptionManager.getEventStore(), "No eventStore is associated with the eventStoreSubscriptionManager provided");
         this.messageHandlerInterceptors = requireNonNull(messageHandlerInterceptors, "No messageHandlerInterceptors list provided");
+        this.forwardEventToInboxOverridden = isForwardEventToInboxOverridden();
         setupCommandHandler();
     }
 
@@ -227,6 +229,19 @@ public abstract class EventProcessor implements Lifecycle {
              List.of());
     }
 
+    private boolean isForwardEventToInboxOverridden() {
+        Class<?> type = this.getClass();
+        while (type != EventProcessor.class) {
+            try {
+                type.getDeclaredMethod("forwardEventToInbox", PersistedEvent.class, Inbox.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                type = type.getSuperclass();
+            }
+        }
+        return false;
+    }
+
     private void setupCommandHandler() {
         commandBusHandlerDelegate = new AnnotatedCommandHandler(this);
         commandBus.addCommandHandler(commandBusHandlerDelegate);
@@ -335,7 +350,27 @@ public abstract class EventProcessor implements Lifecycle {
 
                                                                                 }
                                                                             },
-                                                                            event -> forwardEventToInbox(event, inbox));
+                                                                            new BatchedPersistedEventHandler() {
+                                                                                @Override
+                                                                                public int maxBatchSize() {
+                                                                                    return getInboxForwardingMaxBatchSize();
+                                                                                }
+
+                                                                                @Override
+                                                                                public Duration maxBatchLatency() {
+                                                                                    return getInboxForwardingMaxBatchLatency();
+                                                                                }
+
+                                                                                @Override
+                                                                                public void handle(List<PersistedEvent> events) {
+                                                                                    forwardEventsToInbox(events, inbox);
+                                                                                }
+
+                                                                                @Override
+                                                                                public void handle(PersistedEvent event) {
+                                                                                    forwardEventToInbox(event, inbox);
+                                                                                }
+                                                                            });
                                                                     log.info("⚙️ [{}] Created exclusive '{}' subscription: {}",
                                                                              processorName,
                                                                              aggregateType,
@@ -383,6 +418,41 @@ public abstract class EventProcessor implements Lifecycle {
      * @param resetAggregateSubscriptionsFromAndIncluding a map of {@link AggregateType} and reset-fromAndIncluding {@link GlobalEventOrder}
      */
     public void resetSubscriptions(Map<AggregateType, GlobalEventOrder> resetAggregateSubscriptionsFromAndIncluding) {
+        resetSubscriptions(resetAggregateSubscriptionsFromAndIncluding, EventStoreSubscription::resetFrom);
+    }
+
+    /**
+     * Resets all {@link AggregateType} subscriptions fromAndIncluding {@link GlobalEventOrder#FIRST_GLOBAL_EVENT_ORDER} and replays
+     * the events using the {@link EventStoreReplayer}'s parallel range scans, after which the subscriptions resume normal polling
+     * (see {@link EventStoreSubscription#replayFrom(GlobalEventOrder, EventStoreReplayer)})<br>
+     * {@link #onSubscriptionsReset(AggregateType, GlobalEventOrder)} will be called for each {@link AggregateType}
+     *
+     * @param replayer the replayer that will replay the events
+     */
+    public void replayAllSubscriptions(EventStoreReplayer replayer) {
+        replaySubscriptions(eventStoreSubscriptions.stream()
+                                                   .map(EventStoreSubscription::aggregateType)
+                                                   .collect(Collectors.toMap(Function.identity(), aggregateType -> GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER)),
+                            replayer);
+    }
+
+    /**
+     * Reset the specific {@link AggregateType} fromAndIncluding the specified {@link GlobalEventOrder} and replay the events using the
+     * {@link EventStoreReplayer}'s parallel range scans, after which the subscriptions resume normal polling
+     * (see {@link EventStoreSubscription#replayFrom(GlobalEventOrder, EventStoreReplayer)})<br>
+     * {@link #onSubscriptionsReset(AggregateType, GlobalEventOrder)} will be called for each {@link AggregateType}
+     *
+     * @param replayAggregateSubscriptionsFromAndIncluding a map of {@link AggregateType} and replay-fromAndIncluding {@link GlobalEventOrder}
+     * @param replayer                                     the replayer that will replay the events
+     */
+    public void replaySubscriptions(Map<AggregateType, GlobalEventOrder> replayAggregateSubscriptionsFromAndIncluding, EventStoreReplayer replayer) {
+        requireNonNull(replayer, "No replayer provided");
+        resetSubscriptions(replayAggregateSubscriptionsFromAndIncluding,
+                           (eventStoreSubscription, replayFromAndIncluding) -> eventStoreSubscription.replayFrom(replayFromAndIncluding, replayer));
+    }
+
+    private void resetSubscriptions(Map<AggregateType, GlobalEventOrder> resetAggregateSubscriptionsFromAndIncluding,
+                                    BiConsumer<EventStoreSubscription, GlobalEventOrder> resetSubscription) {
         requireNonNull(resetAggregateSubscriptionsFromAndIncluding, "resetAggregateSubscriptionsFromAndIncluding is null");
         resetAggregateSubscriptionsFromAndIncluding.keySet().forEach(aggregateType -> {
             var matchingSubscription = eventStoreSubscriptions.stream().filter(eventStoreSubscription -> eventStoreSubscription.aggregateType().equals(aggregateType)).findFirst();
@@ -394,7 +464,7 @@ public abstract class EventProcessor implements Lifecycle {
                                                               resubscribeFromAndIncluding);
 
                                                      onSubscriptionsReset(aggregateType, resubscribeFromAndIncluding);
-                                                     eventStoreSubscription.resetFrom(resubscribeFromAndIncluding);
+                                                     resetSubscription.accept(eventStoreSubscription, resubscribeFromAndIncluding);
                                                  },
                                                  () -> {
                                                      throw new IllegalArgumentException(msg("[{}] Cannot reset subscription for {} '{}' since the {} doesn't subscribe to events for this aggregate type",
@@ -428,15 +498,52 @@ public abstract class EventProcessor implements Lifecycle {
      * @param forwardToInbox the {@link Inbox} the event should be forwarded to
      */
     protected void forwardEventToInbox(PersistedEvent event, Inbox forwardToInbox) {
+        toInboxMessage(event).ifPresent(forwardToInbox::addMessageReceived);
+    }
+
+    /**
+     * Forward a batch of events, received from one of the {@link EventStoreSubscription}'s, to the <code>forwardToInbox</code> using a single
+     * {@link Inbox#addMessagesReceived(List)} call, i.e. a single bulk queue operation for the entire batch instead of one per event<br>
+     * The default implementation forwards the events that {@link #toInboxMessage(PersistedEvent)} converts to an {@link OrderedMessage}.<br>
+     * If a subclass overrides {@link #forwardEventToInbox(PersistedEvent, Inbox)}, then the default implementation instead calls the overridden
+     * {@link #forwardEventToInbox(PersistedEvent, Inbox)} for each event in the batch, so the override applies to batched events as well.<br>
+     * To keep the bulk queue operation while customizing which events are forwarded, override {@link #toInboxMessage(PersistedEvent)} instead.<br>
+     * If the batch fails, then each event in the batch is forwarded using {@link #forwardEventToInbox(PersistedEvent, Inbox)} (see {@link BatchedPersistedEventHandler})
+     *
+     * @param events         the events to forward - ordered by {@link PersistedEvent#globalEventOrder()}
+     * @param forwardToInbox the {@link Inbox} the events should be forwarded to
+     */
+    protected void forwardEventsToInbox(List<PersistedEvent> events, Inbox forwardToInbox) {
+        if (forwardEventToInboxOverridden) {
+            events.forEach(event -> forwardEventToInbox(event, forwardToInbox));
+            return;
+        }
+        var messages = events.stream()
+                             .map(this::toInboxMessage)
+                             .flatMap(Optional::stream)
+                             .collect(Collectors.toList());
+        forwardToInbox.addMessagesReceived(messages);
+    }
+
+    /**
+     * Convert the event to the {@link OrderedMessage} that's forwarded to the {@link Inbox}<br>
+     * The default implementation checks if the concrete {@link EventProcessor} class has an {@literal @MessageHandler} annotated method that
+     * handles the event. Only events with a corresponding {@link MessageHandler} annotated method are converted to an {@link EventReferenceOrderedMessage}
+     *
+     * @param event the event to forward
+     * @return the {@link OrderedMessage} to forward or {@link Optional#empty()} if the event shouldn't be forwarded to the {@link Inbox}
+     */
+    protected Optional<OrderedMessage> toInboxMessage(PersistedEvent event) {
         if (patternMatchingInboxMessageHandlerDelegate.handlesMessageWithPayload(event.event().getEventType().get().toJavaClass())) {
             var aggregateType         = event.aggregateType();
             var aggregateIdSerializer = resolveAggregateIdSerializer(aggregateType);
 
-            forwardToInbox.addMessageReceived(new EventReferenceOrderedMessage(aggregateType,
-                                                                               aggregateIdSerializer.serialize(event.aggregateId()),
-                                                                               event.eventOrder(),
-                                                                               new MessageMetaData(event.metaData().deserialize())));
+            return Optional.of(new EventReferenceOrderedMessage(aggregateType,
+                                                                aggregateIdSerializer.serialize(event.aggregateId()),
+                                                                event.eventOrder(),
+                                                                new MessageMetaData(event.metaData().deserialize())));
         }
+        return Optional.empty();
     }
 
     private AggregateIdSerializer resolveAggregateIdSerializer(AggregateType aggregateType) {
@@ -496,6 +603,27 @@ public abstract class EventProcessor implements Lifecycle {
     }
 
 
+    /**
+     * Get the maximum number of events, received from the {@link EventStoreSubscription}'s, that are forwarded to the underlying {@link Inbox}
+     * in a single batch (see {@link #forwardEventsToInbox(List, Inbox)})<br>
+     * Default is {@link BatchedPersistedEventHandler#DEFAULT_MAX_BATCH_SIZE}
+     *
+     * @return the maximum number of events forwarded to the underlying {@link Inbox} in a single batch
+     */
+    protected int getInboxForwardingMaxBatchSize() {
+        return BatchedPersistedEventHandler.DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    /**
+     * Get the maximum time the {@link EventStoreSubscription}'s wait for more events before forwarding a partially filled batch to the underlying {@link Inbox}<br>
+     * Default is {@link BatchedPersistedEventHandler#DEFAULT_MAX_BATCH_LATENCY}
+     *
+     * @return the maximum time to wait for a batch of events to fill up
+     */
+    protected Duration getInboxForwardingMaxBatchLatency() {
+        return BatchedPersistedEventHandler.DEFAULT_MAX_BATCH_LATENCY;
+    }
+
     @Override
     public String toString() {
         return "⚙️ " + this.getClass().getSimpleName() + " { " +
@@ -21,6 +21,7 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.t
 import dk.cloudcreate.essentials.components.foundation.json.JSONDeserializationException;
 import dk.cloudcreate.essentials.types.CharSequenceType;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
@@ -37,7 +38,16 @@ public final class EventJSON {
      */
     private transient Optional<Object>    jsonDeserialized;
     private final     EventTypeOrName  eventTypeOrName;
-    private final     String           json;
+    /**
+     * The serialized JSON - if the instance was created from the raw UTF-8 encoded JSON bytes (see {@link #rawJson})
+     * then this field is lazily decoded by {@link #getJson()}
+     */
+    private volatile  String           json;
+    /**
+     * The raw UTF-8 encoded JSON, which is only decoded into {@link #json} when {@link #getJson()}
+     * or {@link #getJsonDeserialized()} is called
+     */
+    private transient volatile byte[]  rawJson;
 
     public EventJSON(JSONEventSerializer jsonSerializer, Object jsonDeserialized, EventType eventType, String json) {
         this(jsonSerializer, eventType, json);
@@ -50,6 +60,20 @@ public final class EventJSON {
         this.json = json;
     }
 
+    /**
+     * Create an {@link EventJSON} from the raw UTF-8 encoded JSON bytes. The bytes are only decoded into a {@link String}
+     * when {@link #getJson()} or {@link #getJsonDeserialized()}/{@link #deserialize()} is called
+     *
+     * @param jsonSerializer the JSON serializer
+     * @param eventType      the event type
+     * @param rawJson        the raw UTF-8 encoded JSON
+     */
+    public EventJSON(JSONEventSerializer jsonSerializer, EventType eventType, byte[] rawJson) {
+        this.jsonSerializer = requireNonNull(jsonSerializer, "No JSON serializer provided");
+        this.eventTypeOrName = EventTypeOrName.with(eventType);
+        this.rawJson = rawJson;
+    }
+
     public EventJSON(JSONEventSerializer jsonSerializer, Object jsonDeserialized, EventName eventName, String json) {
         this(jsonSerializer, eventName, json);
         this.jsonDeserialized = Optional.of(requireNonNull(jsonDeserialized, "No payload provided"));
@@ -61,6 +85,20 @@ public final class EventJSON {
         this.json = json;
     }
 
+    /**
+     * Create an {@link EventJSON} from the raw UTF-8 encoded JSON bytes. The bytes are only decoded into a {@link String}
+     * when {@link #getJson()} or {@link #getJsonDeserialized()}/{@link #deserialize()} is called
+     *
+     * @param jsonSerializer the JSON serializer
+     * @param eventName      the event name
+     * @param rawJson        the raw UTF-8 encoded JSON
+     */
+    public EventJSON(JSONEventSerializer jsonSerializer, EventName eventName, byte[] rawJson) {
+        this.jsonSerializer = requireNonNull(jsonSerializer, "No JSON serializer provided");
+        this.eventTypeOrName = EventTypeOrName.with(eventName);
+        this.rawJson = rawJson;
+    }
+
     /**
      * The {@link #getJson()} deserialized to the corresponding {@link #getEventType()} that
      * was serialized into the {@link #getJson()}<br>
@@ -72,7 +110,7 @@ public final class EventJSON {
     @SuppressWarnings({"OptionalAssignedToNull", "unchecked"})
     public <T> Optional<T> getJsonDeserialized() {
         if (jsonDeserialized == null && jsonSerializer != null) {
-            eventTypeOrName.ifHasEventType(eventJavaType -> jsonDeserialized = Optional.of(jsonSerializer.deserialize(json, eventJavaType.toJavaClass())));
+            eventTypeOrName.ifHasEventType(eventJavaType -> jsonDeserialized = Optional.of(jsonSerializer.deserialize(getJson(), eventJavaType.toJavaClass())));
         }
         return (Optional<T>) jsonDeserialized;
     }
@@ -126,12 +164,12 @@ public final class EventJSON {
         if (this == o) return true;
         if (!(o instanceof EventJSON)) return false;
         EventJSON eventJSON = (EventJSON) o;
-        return eventTypeOrName.equals(eventJSON.eventTypeOrName) && Objects.equals(json, eventJSON.json);
+        return eventTypeOrName.equals(eventJSON.eventTypeOrName) && Objects.equals(getJson(), eventJSON.getJson());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(eventTypeOrName, json);
+        return Objects.hash(eventTypeOrName, getJson());
     }
 
     /**
@@ -140,6 +178,18 @@ public final class EventJSON {
      * @return The raw serialized JSON
      */
     public String getJson() {
+        var json = this.json;
+        if (json == null) {
+            var rawJson = this.rawJson;
+            if (rawJson != null) {
+                json = new String(rawJson, StandardCharsets.UTF_8);
+                this.json = json;
+                this.rawJson = null;
+            } else {
+                // Another thread may have decoded the rawJson in the meantime
+                json = this.json;
+            }
+        }
         return json;
     }
 
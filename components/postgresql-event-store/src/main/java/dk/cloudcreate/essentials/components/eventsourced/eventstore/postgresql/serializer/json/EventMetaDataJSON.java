@@ -19,6 +19,7 @@ package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.PersistedEvent;
 import dk.cloudcreate.essentials.components.foundation.json.JSONDeserializationException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
@@ -35,7 +36,16 @@ public final class EventMetaDataJSON {
      */
     private transient Optional<Object>    jsonDeserialized;
     private final     Optional<String> javaType;
-    private final     String           json;
+    /**
+     * The serialized JSON - if the instance was created from the raw UTF-8 encoded JSON bytes (see {@link #rawJson})
+     * then this field is lazily decoded by {@link #getJson()}
+     */
+    private volatile  String           json;
+    /**
+     * The raw UTF-8 encoded JSON, which is only decoded into {@link #json} when {@link #getJson()}
+     * or {@link #getJsonDeserialized()} is called
+     */
+    private transient volatile byte[]  rawJson;
 
     public EventMetaDataJSON(JSONEventSerializer jsonSerializer, Object jsonDeserialized, String javaType, String json) {
         this(jsonSerializer, javaType, json);
@@ -48,6 +58,20 @@ public final class EventMetaDataJSON {
         this.json = json;
     }
 
+    /**
+     * Create an {@link EventMetaDataJSON} from the raw UTF-8 encoded JSON bytes. The bytes are only decoded into a {@link String}
+     * when {@link #getJson()} or {@link #getJsonDeserialized()}/{@link #deserialize()} is called
+     *
+     * @param jsonSerializer the JSON serializer
+     * @param javaType       the fully qualified class name of the meta data type
+     * @param rawJson        the raw UTF-8 encoded JSON
+     */
+    public EventMetaDataJSON(JSONEventSerializer jsonSerializer, String javaType, byte[] rawJson) {
+        this.jsonSerializer = requireNonNull(jsonSerializer, "No JSON serializer provided");
+        this.javaType = Optional.ofNullable(javaType);
+        this.rawJson = rawJson;
+    }
+
     /**
      * The {@link #getJson()} deserialized to the corresponding {@link #getJavaType()} that
      * was serialized into the {@link #getJson()}<br>
@@ -59,7 +83,7 @@ public final class EventMetaDataJSON {
     @SuppressWarnings({"OptionalAssignedToNull", "unchecked"})
     public <T> Optional<T> getJsonDeserialized() {
         if (jsonDeserialized == null && jsonSerializer != null) {
-            javaType.ifPresent(s -> jsonDeserialized = Optional.of(jsonSerializer.deserialize(json, s)));
+            javaType.ifPresent(s -> jsonDeserialized = Optional.of(jsonSerializer.deserialize(getJson(), s)));
         }
         return (Optional<T>) jsonDeserialized;
     }
@@ -97,6 +121,18 @@ public final class EventMetaDataJSON {
      * @return The raw serialized JSON
      */
     public String getJson() {
+        var json = this.json;
+        if (json == null) {
+            var rawJson = this.rawJson;
+            if (rawJson != null) {
+                json = new String(rawJson, StandardCharsets.UTF_8);
+                this.json = json;
+                this.rawJson = null;
+            } else {
+                // Another thread may have decoded the rawJson in the meantime
+                json = this.json;
+            }
+        }
         return json;
     }
 
@@ -105,18 +141,18 @@ public final class EventMetaDataJSON {
         if (this == o) return true;
         if (!(o instanceof EventMetaDataJSON)) return false;
         EventMetaDataJSON that = (EventMetaDataJSON) o;
-        return javaType.equals(that.javaType) && Objects.equals(json, that.json);
+        return javaType.equals(that.javaType) && Objects.equals(getJson(), that.getJson());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(javaType, json);
+        return Objects.hash(javaType, getJson());
     }
 
     @Override
     public String toString() {
         return "EventMetaDataJSON{" +
-                "'" + json + '\'' +
+                "'" + getJson() + '\'' +
                 '}';
     }
 }
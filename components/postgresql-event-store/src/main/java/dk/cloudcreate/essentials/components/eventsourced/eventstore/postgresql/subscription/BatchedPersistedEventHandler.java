@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Batched {@link PersistedEvent} Event handler interface for use with the {@link EventStoreSubscriptionManager}'s:
+ * <ul>
+ *     <li>{@link EventStoreSubscriptionManager#exclusivelySubscribeToAggregateEventsAsynchronously(SubscriberId, AggregateType, GlobalEventOrder, Optional, FencedLockAwareSubscriber, PersistedEventHandler)} </li>
+ *     <li>{@link EventStoreSubscriptionManager#subscribeToAggregateEventsAsynchronously(SubscriberId, AggregateType, GlobalEventOrder, Optional, PersistedEventHandler)}</li>
+ * </ul>
+ * When the event handler provided to the subscription is a {@link BatchedPersistedEventHandler}, then the subscription accumulates
+ * up to {@link #maxBatchSize()} events, or the events received within {@link #maxBatchLatency()}, and calls {@link #handle(List)} with all of them in a single {@link UnitOfWork}.<br>
+ * The {@link SubscriptionResumePoint} is advanced once per batch.<br>
+ * <br>
+ * If {@link #handle(List)} throws an exception, then the {@link UnitOfWork} is rolled back and the subscription falls back to calling
+ * {@link #handle(PersistedEvent)} for each event in the batch (each in its own {@link UnitOfWork}), which isolates any poison events.
+ * Your {@link #handle(PersistedEvent)} implementation must therefore produce the same result as {@link #handle(List)} would for a single event.
+ */
+public interface BatchedPersistedEventHandler extends PersistedEventHandler {
+    /**
+     * The default value for {@link #maxBatchSize()}
+     */
+    int      DEFAULT_MAX_BATCH_SIZE    = 100;
+    /**
+     * The default value for {@link #maxBatchLatency()}
+     */
+    Duration DEFAULT_MAX_BATCH_LATENCY = Duration.ofMillis(100);
+
+    /**
+     * The maximum number of events included in a single call to {@link #handle(List)}
+     *
+     * @return the maximum number of events included in a single batch
+     */
+    default int maxBatchSize() {
+        return DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    /**
+     * The maximum time the subscription waits for more events before calling {@link #handle(List)} with a partially filled batch
+     *
+     * @return the maximum time the subscription waits for a batch to fill up
+     */
+    default Duration maxBatchLatency() {
+        return DEFAULT_MAX_BATCH_LATENCY;
+    }
+
+    /**
+     * This method will be called in a {@link UnitOfWork} with a batch of published {@link PersistedEvent}'s
+     *
+     * @param events the events published - ordered by {@link PersistedEvent#globalEventOrder()}
+     */
+    void handle(List<PersistedEvent> events);
+
+    /**
+     * This method will be called in a {@link UnitOfWork} for each event in a batch, when {@link #handle(List)} failed
+     *
+     * @param event the event published
+     */
+    @Override
+    void handle(PersistedEvent event);
+}
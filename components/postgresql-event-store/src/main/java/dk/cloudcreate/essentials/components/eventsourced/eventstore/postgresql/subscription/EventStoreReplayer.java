@@ -0,0 +1,479 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.SubscriptionGapHandler;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.components.foundation.types.*;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import dk.cloudcreate.essentials.shared.functional.tuple.Pair;
+import dk.cloudcreate.essentials.types.LongRange;
+import org.slf4j.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Replay engine that rebuilds event handlers (e.g. projections) from the {@link EventStore} much faster than the normal
+ * one-event-at-a-time polling performed by an {@link EventStoreSubscription}.<br>
+ * The {@link GlobalEventOrder} range to replay is split into chunks of {@link #getChunkSize()} global orders, which are scanned concurrently
+ * by {@link #getNumberOfParallelScans()} scanners. Each scan runs in its own {@link UnitOfWork} (and thereby on its own database connection)
+ * and loads all the events of its chunk into memory, so at most {@link #getChunkSize()} * ({@link #getNumberOfParallelScans()} + 1) events are held in memory.<br>
+ * The scanned chunks are re-sequenced, so the {@link PersistedEventHandler} receives the events in {@link GlobalEventOrder} order.
+ * If {@link #getNumberOfParallelLanes()} is larger than 1, then the events are instead partitioned by {@link PersistedEvent#aggregateId()}
+ * onto parallel lanes, which preserves the order of the events per aggregate instance, but not across aggregate instances.<br>
+ * <br>
+ * The replay continues until it is within {@link #getLiveTailMargin()} global orders of the highest persisted {@link GlobalEventOrder}.
+ * The remaining events (including events from transactions that haven't committed yet) are left to the normal polling of the subscription, which
+ * resumes right after the highest {@link GlobalEventOrder} replayed. Gaps discovered among the replayed events (e.g. events from transactions
+ * that hadn't committed when their chunk was scanned) are reconciled using the subscriber's {@link SubscriptionGapHandler}, exactly like the
+ * subscription's normal polling does, so the subscription includes them in its queries afterwards.<br>
+ * Use {@link EventStoreSubscription#replayFrom(GlobalEventOrder, EventStoreReplayer)} to replay the events of a subscription and afterwards switch
+ * the subscription back to normal polling.<br>
+ * Progress is reported to the configured {@link EventStoreSubscriptionMonitor}'s (see {@link EventStoreSubscriptionMonitor#replayProgress(ReplayProgress)})
+ * and can be queried using {@link #getReplayProgress(SubscriberId, AggregateType)}
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class EventStoreReplayer {
+    private static final Logger log = LoggerFactory.getLogger(EventStoreReplayer.class);
+
+    /**
+     * The default value for {@link #getNumberOfParallelScans()}
+     */
+    public static final int DEFAULT_NUMBER_OF_PARALLEL_SCANS = 4;
+    /**
+     * The default value for {@link #getChunkSize()}
+     */
+    public static final int DEFAULT_CHUNK_SIZE               = 10_000;
+    /**
+     * The default value for {@link #getLiveTailMargin()}
+     */
+    public static final int DEFAULT_LIVE_TAIL_MARGIN         = 1_000;
+
+    private final EventStore                                                       eventStore;
+    private final int                                                              numberOfParallelScans;
+    private final int                                                              chunkSize;
+    private final int                                                              numberOfParallelLanes;
+    private final int                                                              liveTailMargin;
+    private final List<EventStoreSubscriptionMonitor>                              monitors;
+    private final ConcurrentMap<Pair<SubscriberId, AggregateType>, ReplayProgress> replayProgress = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new {@link EventStoreReplayer}
+     *
+     * @param eventStore            the event store to replay events from
+     * @param numberOfParallelScans the number of chunks that are scanned concurrently (each scan uses its own database connection)
+     * @param chunkSize             the number of {@link GlobalEventOrder}'s covered by each chunk
+     * @param numberOfParallelLanes the number of lanes, partitioned by aggregate id, the events are handled by. If 1 then the events
+     *                              are handled sequentially in {@link GlobalEventOrder} order
+     * @param liveTailMargin        how many global orders, behind the highest persisted {@link GlobalEventOrder}, the replay stops and leaves
+     *                              the rest to the normal polling of the subscription
+     * @param monitors              the monitors that will receive {@link ReplayProgress} reports
+     */
+    public EventStoreReplayer(EventStore eventStore,
+                              int numberOfParallelScans,
+                              int chunkSize,
+                              int numberOfParallelLanes,
+                              int liveTailMargin,
+                              List<EventStoreSubscriptionMonitor> monitors) {
+        requireTrue(numberOfParallelScans >= 1, "numberOfParallelScans must be >= 1");
+        requireTrue(chunkSize >= 1, "chunkSize must be >= 1");
+        requireTrue(numberOfParallelLanes >= 1, "numberOfParallelLanes must be >= 1");
+        requireTrue(liveTailMargin >= 0, "liveTailMargin must be >= 0");
+        this.eventStore = requireNonNull(eventStore, "No eventStore provided");
+        this.numberOfParallelScans = numberOfParallelScans;
+        this.chunkSize = chunkSize;
+        this.numberOfParallelLanes = numberOfParallelLanes;
+        this.liveTailMargin = liveTailMargin;
+        this.monitors = List.copyOf(requireNonNull(monitors, "No monitors provided"));
+    }
+
+    /**
+     * Create a new builder that produces a new {@link EventStoreReplayer}
+     *
+     * @return a new {@link EventStoreReplayerBuilder}
+     */
+    public static EventStoreReplayerBuilder builder() {
+        return new EventStoreReplayerBuilder();
+    }
+
+    /**
+     * Replay all events, related to the <code>aggregateType</code>, from and including <code>replayFromAndIncluding</code> until
+     * the replay is within {@link #getLiveTailMargin()} of the highest persisted {@link GlobalEventOrder}.<br>
+     * Each event (or batch of events in case the <code>eventHandler</code> is a {@link BatchedPersistedEventHandler}) is handled in its own {@link UnitOfWork}.
+     * Events that fail to be handled are logged and skipped, in the same way as the asynchronous subscriptions do.<br>
+     * This method blocks until the replay has completed.
+     *
+     * @param subscriberId               the subscriber the replay is performed on behalf of
+     * @param aggregateType              the aggregate type whose events are replayed
+     * @param replayFromAndIncluding     the {@link GlobalEventOrder} to start replaying from (inclusive)
+     * @param onlyIncludeEventsForTenant if {@link Optional#isPresent()} then only include events that belong to the specified {@link Tenant}
+     * @param eventHandler               the event handler that the replayed events are handed to
+     * @return the {@link GlobalEventOrder} that the subscription must resume normal polling from (inclusive), which is the {@link GlobalEventOrder} after
+     * the highest {@link GlobalEventOrder} replayed (or <code>replayFromAndIncluding</code> if no events were replayed)
+     */
+    public GlobalEventOrder replay(SubscriberId subscriberId,
+                                   AggregateType aggregateType,
+                                   GlobalEventOrder replayFromAndIncluding,
+                                   Optional<Tenant> onlyIncludeEventsForTenant,
+                                   PersistedEventHandler eventHandler) {
+        return new Replay(requireNonNull(subscriberId, "No subscriberId provided"),
+                          requireNonNull(aggregateType, "No aggregateType provided"),
+                          requireNonNull(replayFromAndIncluding, "No replayFromAndIncluding provided"),
+                          requireNonNull(onlyIncludeEventsForTenant, "No onlyIncludeEventsForTenant provided"),
+                          requireNonNull(eventHandler, "No eventHandler provided")).run();
+    }
+
+    /**
+     * Get the latest progress of the ongoing (or most recently completed) replay for the given subscriber and aggregate type
+     *
+     * @param subscriberId  the subscriber id
+     * @param aggregateType the aggregate type
+     * @return the latest {@link ReplayProgress} or {@link Optional#empty()} if no replay has been performed
+     */
+    public Optional<ReplayProgress> getReplayProgress(SubscriberId subscriberId, AggregateType aggregateType) {
+        return Optional.ofNullable(replayProgress.get(Pair.of(subscriberId, aggregateType)));
+    }
+
+    public int getNumberOfParallelScans() {
+        return numberOfParallelScans;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getNumberOfParallelLanes() {
+        return numberOfParallelLanes;
+    }
+
+    public int getLiveTailMargin() {
+        return liveTailMargin;
+    }
+
+    @Override
+    public String toString() {
+        return "EventStoreReplayer{" +
+                "numberOfParallelScans=" + numberOfParallelScans +
+                ", chunkSize=" + chunkSize +
+                ", numberOfParallelLanes=" + numberOfParallelLanes +
+                ", liveTailMargin=" + liveTailMargin +
+                '}';
+    }
+
+    /**
+     * A chunk scan that has been submitted to the scan executor
+     *
+     * @param fromInclusive  the first {@link GlobalEventOrder} covered by the chunk
+     * @param toAndIncluding the last {@link GlobalEventOrder} covered by the chunk
+     * @param events         the events scanned
+     */
+    private record ChunkScan(long fromInclusive, long toAndIncluding, Future<List<PersistedEvent>> events) {
+    }
+
+    /**
+     * The state of a single replay
+     */
+    private class Replay {
+        private final SubscriberId          subscriberId;
+        private final AggregateType         aggregateType;
+        private final GlobalEventOrder      replayFromAndIncluding;
+        private final Optional<Tenant>      onlyIncludeEventsForTenant;
+        private final PersistedEventHandler eventHandler;
+        private final long                  startedAtNanos         = System.nanoTime();
+        private final LongAdder             numberOfReplayedEvents = new LongAdder();
+        private final SubscriptionGapHandler gapHandler;
+        private       long                  replayedUpToAndIncluding;
+        private       long                  highestGlobalOrderReplayed;
+        private       long                  replayTargetGlobalOrder;
+        private       ExecutorService       scanExecutor;
+        private       ReplayLanes           lanes;
+
+        private Replay(SubscriberId subscriberId,
+                       AggregateType aggregateType,
+                       GlobalEventOrder replayFromAndIncluding,
+                       Optional<Tenant> onlyIncludeEventsForTenant,
+                       PersistedEventHandler eventHandler) {
+            this.subscriberId = subscriberId;
+            this.aggregateType = aggregateType;
+            this.replayFromAndIncluding = replayFromAndIncluding;
+            this.onlyIncludeEventsForTenant = onlyIncludeEventsForTenant;
+            this.eventHandler = eventHandler;
+            this.replayedUpToAndIncluding = replayFromAndIncluding.longValue() - 1;
+            this.highestGlobalOrderReplayed = replayFromAndIncluding.longValue() - 1;
+            this.gapHandler = eventStore instanceof PostgresqlEventStore<?> postgresqlEventStore ?
+                              postgresqlEventStore.getEventStreamGapHandler().gapHandlerFor(subscriberId) :
+                              null;
+        }
+
+        private GlobalEventOrder run() {
+            log.info("[{}-{}] Starting replay from and including globalOrder {} using {}",
+                     subscriberId,
+                     aggregateType,
+                     replayFromAndIncluding,
+                     EventStoreReplayer.this);
+            scanExecutor = Executors.newFixedThreadPool(numberOfParallelScans,
+                                                        ThreadFactoryBuilder.builder()
+                                                                            .nameFormat(subscriberId + "-" + aggregateType + "-replay-scan-%d")
+                                                                            .daemon(true)
+                                                                            .build());
+            if (numberOfParallelLanes > 1) {
+                lanes = new ReplayLanes();
+            }
+            try {
+                var nextGlobalOrder = replayFromAndIncluding.longValue();
+                replayTargetGlobalOrder = resolveReplayTarget();
+                while (replayTargetGlobalOrder >= nextGlobalOrder) {
+                    replayRange(nextGlobalOrder, replayTargetGlobalOrder);
+                    nextGlobalOrder = replayTargetGlobalOrder + 1;
+                    // Events may have been persisted while replaying - continue until we're within the live tail margin
+                    replayTargetGlobalOrder = Math.max(replayTargetGlobalOrder, resolveReplayTarget());
+                }
+                if (lanes != null) {
+                    lanes.awaitCompletion();
+                }
+                replayedUpToAndIncluding = nextGlobalOrder - 1;
+                reportProgress(true);
+                log.info("[{}-{}] Completed replay of {} event(s) from and including globalOrder {} to and including globalOrder {} in {} ms. Highest globalOrder replayed: {}",
+                         subscriberId,
+                         aggregateType,
+                         numberOfReplayedEvents.sum(),
+                         replayFromAndIncluding,
+                         replayedUpToAndIncluding,
+                         Duration.ofNanos(System.nanoTime() - startedAtNanos).toMillis(),
+                         highestGlobalOrderReplayed);
+                // Resume right after the highest global order replayed, so events from transactions that committed after
+                // the last chunk was scanned (and which would otherwise fall between the last replayed event and the replay target) aren't skipped
+                return GlobalEventOrder.of(highestGlobalOrderReplayed + 1);
+            } finally {
+                scanExecutor.shutdownNow();
+                if (lanes != null) {
+                    lanes.stop();
+                }
+            }
+        }
+
+        private long resolveReplayTarget() {
+            var highestGlobalOrderPersisted = eventStore.findEventStreamHead(aggregateType)
+                                                        .map(GlobalEventOrder::longValue)
+                                                        .orElse(0L);
+            return highestGlobalOrderPersisted - liveTailMargin;
+        }
+
+        private void replayRange(long fromInclusive, long toInclusive) {
+            var pendingChunkScans = new ArrayDeque<ChunkScan>(numberOfParallelScans);
+            var nextChunkFrom     = fromInclusive;
+            while (nextChunkFrom <= toInclusive || !pendingChunkScans.isEmpty()) {
+                while (nextChunkFrom <= toInclusive && pendingChunkScans.size() < numberOfParallelScans) {
+                    var chunkFrom = nextChunkFrom;
+                    var chunkTo   = Math.min(toInclusive, chunkFrom + chunkSize - 1);
+                    pendingChunkScans.add(new ChunkScan(chunkFrom, chunkTo, scanExecutor.submit(() -> scan(chunkFrom, chunkTo))));
+                    nextChunkFrom = chunkTo + 1;
+                }
+                // Chunks are handled in the order they were submitted, which re-sequences the concurrently scanned chunks
+                var chunkScan = pendingChunkScans.poll();
+                var events    = awaitScan(chunkScan);
+                reconcileGaps(chunkScan, events);
+                handleChunk(events);
+                if (!events.isEmpty()) {
+                    highestGlobalOrderReplayed = Math.max(highestGlobalOrderReplayed, events.get(events.size() - 1).globalEventOrder().longValue());
+                }
+                replayedUpToAndIncluding = chunkScan.toAndIncluding();
+                reportProgress(false);
+            }
+        }
+
+        private List<PersistedEvent> scan(long fromInclusive, long toInclusive) {
+            log.trace("[{}-{}] Scanning globalOrder range [{};{}]",
+                      subscriberId,
+                      aggregateType,
+                      fromInclusive,
+                      toInclusive);
+            return eventStore.getUnitOfWorkFactory()
+                             .withUnitOfWork(unitOfWork -> eventStore.loadEventsByGlobalOrder(aggregateType,
+                                                                                              LongRange.between(fromInclusive, toInclusive),
+                                                                                              null,
+                                                                                              onlyIncludeEventsForTenant)
+                                                                     .collect(Collectors.toList()));
+        }
+
+        /**
+         * Hand the gaps among the scanned events over to the subscriber's {@link SubscriptionGapHandler}, so the subscription's normal
+         * polling picks up the events that commit late into the gaps.<br>
+         * The chunks are reconciled sequentially (in {@link GlobalEventOrder} order), just like the chunks polled by the subscription
+         *
+         * @param chunkScan the chunk that was scanned
+         * @param events    the events scanned
+         */
+        private void reconcileGaps(ChunkScan chunkScan, List<PersistedEvent> events) {
+            if (gapHandler == null) {
+                return;
+            }
+            var chunkRange = LongRange.between(chunkScan.fromInclusive(), chunkScan.toAndIncluding());
+            eventStore.getUnitOfWorkFactory()
+                      .usingUnitOfWork(unitOfWork -> gapHandler.reconcileGaps(aggregateType,
+                                                                              chunkRange,
+                                                                              events,
+                                                                              List.of()));
+        }
+
+        private List<PersistedEvent> awaitScan(ChunkScan chunkScan) {
+            try {
+                return chunkScan.events().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EventStoreException(msg("[{}-{}] Replay was interrupted", subscriberId, aggregateType), e);
+            } catch (ExecutionException e) {
+                throw new EventStoreException(msg("[{}-{}] Failed to scan events up to and including globalOrder {}",
+                                                  subscriberId,
+                                                  aggregateType,
+                                                  chunkScan.toAndIncluding()),
+                                              e.getCause());
+            }
+        }
+
+        private void handleChunk(List<PersistedEvent> events) {
+            if (lanes != null) {
+                events.forEach(lanes::dispatch);
+            } else if (eventHandler instanceof BatchedPersistedEventHandler batchedEventHandler) {
+                var batchSize = Math.max(1, batchedEventHandler.maxBatchSize());
+                for (var index = 0; index < events.size(); index += batchSize) {
+                    handleBatch(batchedEventHandler, events.subList(index, Math.min(events.size(), index + batchSize)));
+                }
+            } else {
+                events.forEach(this::handle);
+            }
+        }
+
+        private void handleBatch(BatchedPersistedEventHandler batchedEventHandler, List<PersistedEvent> batch) {
+            try {
+                eventStore.getUnitOfWorkFactory()
+                          .usingUnitOfWork(unitOfWork -> batchedEventHandler.handle(batch));
+                numberOfReplayedEvents.add(batch.size());
+            } catch (Exception cause) {
+                log.debug(msg("[{}-{}] Failed to handle batch of {} event(s) - falling back to handling the events individually",
+                              subscriberId,
+                              aggregateType,
+                              batch.size()),
+                          cause);
+                batch.forEach(this::handle);
+            }
+        }
+
+        private void handle(PersistedEvent e) {
+            try {
+                eventStore.getUnitOfWorkFactory()
+                          .usingUnitOfWork(unitOfWork -> eventHandler.handle(e));
+            } catch (Exception cause) {
+                log.error(msg("[{}-{}] (#{}) Skipping {} event during replay because of error",
+                              subscriberId,
+                              aggregateType,
+                              e.globalEventOrder(),
+                              e.event().getEventTypeOrName().getValue()), cause);
+            } finally {
+                numberOfReplayedEvents.increment();
+            }
+        }
+
+        private void reportProgress(boolean completed) {
+            var progress = new ReplayProgress(subscriberId,
+                                              aggregateType,
+                                              replayFromAndIncluding,
+                                              GlobalEventOrder.of(replayedUpToAndIncluding),
+                                              GlobalEventOrder.of(Math.max(replayTargetGlobalOrder, replayedUpToAndIncluding)),
+                                              numberOfReplayedEvents.sum(),
+                                              Duration.ofNanos(System.nanoTime() - startedAtNanos),
+                                              completed);
+            replayProgress.put(Pair.of(subscriberId, aggregateType), progress);
+            log.debug("[{}-{}] {}", subscriberId, aggregateType, progress);
+            monitors.forEach(monitor -> {
+                try {
+                    monitor.replayProgress(progress);
+                } catch (Exception e) {
+                    log.error(msg("[{}-{}] Monitor '{}' failed to handle replay progress",
+                                  subscriberId,
+                                  aggregateType,
+                                  monitor), e);
+                }
+            });
+        }
+
+        /**
+         * Partitions events, by {@link PersistedEvent#aggregateId()}, onto single threaded worker lanes.<br>
+         * The number of events dispatched, but not yet handled, is bounded by {@link #getChunkSize()} * {@link #getNumberOfParallelScans()}
+         */
+        private class ReplayLanes {
+            private final ExecutorService[] lanes;
+            private final int               maxInFlightEvents;
+            private final Semaphore         inFlightEvents;
+
+            private ReplayLanes() {
+                this.maxInFlightEvents = (int) Math.min(Integer.MAX_VALUE, (long) chunkSize * numberOfParallelScans);
+                this.inFlightEvents = new Semaphore(maxInFlightEvents);
+                this.lanes = new ExecutorService[numberOfParallelLanes];
+                for (var lane = 0; lane < numberOfParallelLanes; lane++) {
+                    lanes[lane] = Executors.newSingleThreadExecutor(ThreadFactoryBuilder.builder()
+                                                                                        .nameFormat(subscriberId + "-" + aggregateType + "-replay-lane-" + lane)
+                                                                                        .daemon(true)
+                                                                                        .build());
+                }
+            }
+
+            private void dispatch(PersistedEvent e) {
+                acquire(1);
+                var lane = Math.floorMod(e.aggregateId().hashCode(), lanes.length);
+                lanes[lane].execute(() -> {
+                    try {
+                        handle(e);
+                    } finally {
+                        inFlightEvents.release();
+                    }
+                });
+            }
+
+            private void awaitCompletion() {
+                acquire(maxInFlightEvents);
+                inFlightEvents.release(maxInFlightEvents);
+            }
+
+            private void acquire(int permits) {
+                try {
+                    inFlightEvents.acquire(permits);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new EventStoreException(msg("[{}-{}] Replay was interrupted", subscriberId, aggregateType), e);
+                }
+            }
+
+            private void stop() {
+                for (var lane : lanes) {
+                    lane.shutdownNow();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMonitor;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+
+import java.util.*;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * Builder for the {@link EventStoreReplayer}
+ */
+public final class EventStoreReplayerBuilder {
+    private       EventStore                          eventStore;
+    private       int                                 numberOfParallelScans = EventStoreReplayer.DEFAULT_NUMBER_OF_PARALLEL_SCANS;
+    private       int                                 chunkSize             = EventStoreReplayer.DEFAULT_CHUNK_SIZE;
+    private       int                                 numberOfParallelLanes = 1;
+    private       int                                 liveTailMargin        = EventStoreReplayer.DEFAULT_LIVE_TAIL_MARGIN;
+    private final List<EventStoreSubscriptionMonitor> monitors              = new ArrayList<>();
+
+    /**
+     * @param eventStore the event store to replay events from
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder setEventStore(EventStore eventStore) {
+        this.eventStore = eventStore;
+        return this;
+    }
+
+    /**
+     * @param numberOfParallelScans the number of chunks that are scanned concurrently (each scan uses its own database connection)
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder setNumberOfParallelScans(int numberOfParallelScans) {
+        this.numberOfParallelScans = numberOfParallelScans;
+        return this;
+    }
+
+    /**
+     * @param chunkSize the number of {@link GlobalEventOrder}'s covered by each chunk
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param numberOfParallelLanes the number of lanes, partitioned by aggregate id, the events are handled by. If 1 (the default) then the events
+     *                              are handled sequentially in {@link GlobalEventOrder} order
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder setNumberOfParallelLanes(int numberOfParallelLanes) {
+        this.numberOfParallelLanes = numberOfParallelLanes;
+        return this;
+    }
+
+    /**
+     * @param liveTailMargin how many global orders, behind the highest persisted {@link GlobalEventOrder}, the replay stops and leaves
+     *                       the rest to the normal polling of the subscription
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder setLiveTailMargin(int liveTailMargin) {
+        this.liveTailMargin = liveTailMargin;
+        return this;
+    }
+
+    /**
+     * @param monitor a monitor that will receive replay progress reports
+     * @return this builder
+     */
+    public EventStoreReplayerBuilder addMonitor(EventStoreSubscriptionMonitor monitor) {
+        monitors.add(requireNonNull(monitor, "No monitor provided"));
+        return this;
+    }
+
+    public EventStoreReplayer build() {
+        return new EventStoreReplayer(eventStore,
+                                      numberOfParallelScans,
+                                      chunkSize,
+                                      numberOfParallelLanes,
+                                      liveTailMargin,
+                                      monitors);
+    }
+}
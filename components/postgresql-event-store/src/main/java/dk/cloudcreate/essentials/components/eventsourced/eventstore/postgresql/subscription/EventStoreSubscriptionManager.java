@@ -17,25 +17,33 @@
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 import dk.cloudcreate.essentials.components.distributed.fencedlock.postgresql.PostgresqlFencedLockManager;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStoreException;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStoreSubscription;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.PostgresqlEventStore;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.bus.CommitStage;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.bus.PersistedEvents;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.PersistedEvent;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.PostgresqlEventStreamGapHandler;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.EventJSON;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMetrics;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
 import dk.cloudcreate.essentials.components.foundation.Lifecycle;
 import dk.cloudcreate.essentials.components.foundation.fencedlock.FencedLock;
@@ -49,11 +57,15 @@ import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
 import dk.cloudcreate.essentials.components.foundation.types.Tenant;
 import dk.cloudcreate.essentials.shared.FailFast;
 import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import dk.cloudcreate.essentials.shared.functional.CheckedRunnable;
+import dk.cloudcreate.essentials.shared.functional.CheckedSupplier;
 import dk.cloudcreate.essentials.shared.functional.tuple.Pair;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
@@ -210,6 +222,48 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                                                FencedLockAwareSubscriber fencedLockAwareSubscriber,
                                                                                PersistedEventHandler eventHandler);
 
+    /**
+     * Create an exclusive asynchronous subscription that will receive {@link PersistedEvent} after they have been committed to the {@link EventStore}<br>
+     * This ensures that the handling of events can occur in a separate transaction, than the one that persisted the events, thereby avoiding the dual write problem<br>
+     * An exclusive subscription means that the {@link EventStoreSubscriptionManager} will acquire a distributed {@link FencedLock} to ensure that only one active subscriber in a cluster,
+     * out of all subscribers that share the same <code>subscriberId</code>, is allowed to have an active subscribe at a time<br>
+     * <br>
+     * If <code>numberOfParallelLanes</code> is larger than 1, then the events are partitioned, by {@link PersistedEvent#aggregateId()}, onto <code>numberOfParallelLanes</code> worker lanes,
+     * which handle events in parallel. Events related to the same aggregate id are always handled by the same lane and in the order they were persisted, but there is no
+     * ordering guarantee across aggregate ids.<br>
+     * The {@link SubscriptionResumePoint} only advances to the lowest {@link GlobalEventOrder} that hasn't been completely handled across all lanes (a low-watermark),
+     * so a restarted subscription may re-deliver events that were already handled by a faster lane.<br>
+     * The default implementation only supports a <code>numberOfParallelLanes</code> of 1, in which case it delegates to
+     * {@link #exclusivelySubscribeToAggregateEventsAsynchronously(SubscriberId, AggregateType, GlobalEventOrder, Optional, FencedLockAwareSubscriber, PersistedEventHandler)}
+     *
+     * @param subscriberId                                            the unique id for the subscriber
+     * @param forAggregateType                                        the type of aggregate that we're subscribing for {@link PersistedEvent}'s related to
+     * @param onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder If it's the first time the given <code>subscriberId</code> is subscribing then the subscription will be using this {@link GlobalEventOrder} as the starting point in the
+     *                                                                EventStream associated with the <code>aggregateType</code>
+     * @param onlyIncludeEventsForTenant                              if {@link Optional#isPresent()} then only include events that belong to the specified {@link Tenant}, otherwise all Events matching the criteria are returned
+     * @param fencedLockAwareSubscriber                               Callback interface that will be called when the exclusive/fenced lock is acquired or released
+     * @param numberOfParallelLanes                                   the number of worker lanes that events are partitioned onto (by aggregate id). 1 means that all events are handled sequentially in global order
+     * @param eventHandler                                            the event handler that will receive the published {@link PersistedEvent}'s<br>
+     *                                                                Exceptions thrown from the eventHandler will cause the event to be skipped. If you need a retry capability
+     *                                                                please use {@link #exclusivelySubscribeToAggregateEventsAsynchronously(SubscriberId, AggregateType, GlobalEventOrder, Optional, FencedLockAwareSubscriber, Inbox)}
+     * @return the subscription handle
+     */
+    default EventStoreSubscription exclusivelySubscribeToAggregateEventsAsynchronously(SubscriberId subscriberId,
+                                                                                       AggregateType forAggregateType,
+                                                                                       GlobalEventOrder onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
+                                                                                       Optional<Tenant> onlyIncludeEventsForTenant,
+                                                                                       FencedLockAwareSubscriber fencedLockAwareSubscriber,
+                                                                                       int numberOfParallelLanes,
+                                                                                       PersistedEventHandler eventHandler) {
+        FailFast.requireTrue(numberOfParallelLanes == 1, msg("{} only supports numberOfParallelLanes = 1", getClass().getSimpleName()));
+        return exclusivelySubscribeToAggregateEventsAsynchronously(subscriberId,
+                                                                   forAggregateType,
+                                                                   onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
+                                                                   onlyIncludeEventsForTenant,
+                                                                   fencedLockAwareSubscriber,
+                                                                   eventHandler);
+    }
+
     /**
      * Create an exclusive asynchronous subscription that will receive {@link PersistedEvent} after they have been committed to the {@link EventStore}<br>
      * This ensures that the handling of events can occur in a separate transaction, than the one that persisted the events, thereby avoiding the dual write problem<br>
@@ -452,7 +506,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
      * @param eventStorePollingBatchSize    how many events should The {@link EventStore} maximum return when polling for events
      * @param eventStorePollingInterval     how often should the {@link EventStore} be polled for new events
      * @param fencedLockManager             the {@link FencedLockManager} that will be used to acquire a {@link FencedLock} for exclusive asynchronous subscriptions
-     * @param snapshotResumePointsEvery     How often should active (for exclusive subscribers this means subscribers that have acquired a distributed lock) subscribers have their {@link SubscriptionResumePoint} saved
+     * @param snapshotResumePointsEvery     How often should active (for exclusive subscribers this means subscribers that have acquired a distributed lock) subscribers have their {@link SubscriptionResumePoint} saved, i.e. the max staleness of the persisted resume points (see {@link ResumePointWriter})
      * @param durableSubscriptionRepository The repository responsible for persisting {@link SubscriptionResumePoint}
      * @return the newly create {@link EventStoreSubscriptionManager}
      * @see PostgresqlFencedLockManager
@@ -503,10 +557,12 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
         private final FencedLockManager             fencedLockManager;
         private final DurableSubscriptionRepository durableSubscriptionRepository;
         private final Duration                      snapshotResumePointsEvery;
+        private final Optional<SharedEventStreamTailReader> sharedEventStreamTailReader;
 
         private final    ConcurrentMap<Pair<SubscriberId, AggregateType>, EventStoreSubscription> subscribers = new ConcurrentHashMap<>();
         private volatile boolean                                                                  started;
-        private          ScheduledFuture<?>                                                       saveResumePointsFuture;
+        private final    ResumePointWriter                                                        resumePointWriter;
+        private final    EventStoreSubscriptionMetrics                                            subscriptionMetrics;
         private final    boolean                                                                  startLifeCycles;
 
         public DefaultEventStoreSubscriptionManager(EventStore eventStore,
@@ -516,6 +572,56 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                     Duration snapshotResumePointsEvery,
                                                     DurableSubscriptionRepository durableSubscriptionRepository,
                                                     boolean startLifeCycles) {
+            this(eventStore,
+                 eventStorePollingBatchSize,
+                 eventStorePollingInterval,
+                 fencedLockManager,
+                 snapshotResumePointsEvery,
+                 durableSubscriptionRepository,
+                 startLifeCycles,
+                 Optional.empty());
+        }
+
+        /**
+         * @param sharedEventStreamTailReader optional {@link SharedEventStreamTailReader}. If present then all asynchronous subscriptions will
+         *                                    receive their events through the shared, per {@link AggregateType}, tail reader instead of each running their own
+         *                                    {@link EventStore#pollEvents(AggregateType, GlobalEventOrder, Optional, Optional, Optional, Optional)} query loop
+         */
+        public DefaultEventStoreSubscriptionManager(EventStore eventStore,
+                                                    int eventStorePollingBatchSize,
+                                                    Duration eventStorePollingInterval,
+                                                    FencedLockManager fencedLockManager,
+                                                    Duration snapshotResumePointsEvery,
+                                                    DurableSubscriptionRepository durableSubscriptionRepository,
+                                                    boolean startLifeCycles,
+                                                    Optional<SharedEventStreamTailReader> sharedEventStreamTailReader) {
+            this(eventStore,
+                 eventStorePollingBatchSize,
+                 eventStorePollingInterval,
+                 fencedLockManager,
+                 snapshotResumePointsEvery,
+                 durableSubscriptionRepository,
+                 startLifeCycles,
+                 sharedEventStreamTailReader,
+                 EventStoreSubscriptionMetrics.NONE);
+        }
+
+        /**
+         * @param sharedEventStreamTailReader optional {@link SharedEventStreamTailReader}. If present then all asynchronous subscriptions will
+         *                                    receive their events through the shared, per {@link AggregateType}, tail reader instead of each running their own
+         *                                    {@link EventStore#pollEvents(AggregateType, GlobalEventOrder, Optional, Optional, Optional, Optional)} query loop
+         * @param subscriptionMetrics         the {@link EventStoreSubscriptionMetrics} that event handling and gap reconciliation is reported to
+         *                                    ({@link EventStoreSubscriptionMetrics#NONE} disables subscription metrics)
+         */
+        public DefaultEventStoreSubscriptionManager(EventStore eventStore,
+                                                    int eventStorePollingBatchSize,
+                                                    Duration eventStorePollingInterval,
+                                                    FencedLockManager fencedLockManager,
+                                                    Duration snapshotResumePointsEvery,
+                                                    DurableSubscriptionRepository durableSubscriptionRepository,
+                                                    boolean startLifeCycles,
+                                                    Optional<SharedEventStreamTailReader> sharedEventStreamTailReader,
+                                                    EventStoreSubscriptionMetrics subscriptionMetrics) {
             FailFast.requireTrue(eventStorePollingBatchSize >= 1, "eventStorePollingBatchSize must be >= 1");
             this.eventStore = requireNonNull(eventStore, "No eventStore provided");
             this.eventStorePollingBatchSize = eventStorePollingBatchSize;
@@ -524,16 +630,29 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
             this.durableSubscriptionRepository = requireNonNull(durableSubscriptionRepository, "No durableSubscriptionRepository provided");
             this.snapshotResumePointsEvery = requireNonNull(snapshotResumePointsEvery, "No snapshotResumePointsEvery provided");
             this.startLifeCycles = startLifeCycles;
+            this.sharedEventStreamTailReader = requireNonNull(sharedEventStreamTailReader, "No sharedEventStreamTailReader option provided");
+            this.subscriptionMetrics = requireNonNull(subscriptionMetrics, "No subscriptionMetrics provided");
+            if (subscriptionMetrics != EventStoreSubscriptionMetrics.NONE &&
+                    eventStore instanceof PostgresqlEventStore<?> postgresqlEventStore &&
+                    postgresqlEventStore.getEventStreamGapHandler() instanceof PostgresqlEventStreamGapHandler<?> gapHandler) {
+                gapHandler.setSubscriptionMetrics(subscriptionMetrics);
+            }
+            this.resumePointWriter = new ResumePointWriter("EventStoreSubscriptionManager-" + fencedLockManager.getLockManagerInstanceId(),
+                                                           durableSubscriptionRepository,
+                                                           snapshotResumePointsEvery,
+                                                           this::activeSubscriptionResumePoints);
 
             log.info("[{}] Using {} using {} with snapshotResumePointsEvery: {}, eventStorePollingBatchSize: {}, eventStorePollingInterval: {}, " +
-                             "startLifeCycles: {}",
+                             "startLifeCycles: {}, sharedEventStreamTailReader: {}, subscriptionMetrics: {}",
                      fencedLockManager.getLockManagerInstanceId(),
                      fencedLockManager,
                      durableSubscriptionRepository.getClass().getSimpleName(),
                      snapshotResumePointsEvery,
                      eventStorePollingBatchSize,
                      eventStorePollingInterval,
-                     startLifeCycles
+                     startLifeCycles,
+                     sharedEventStreamTailReader.isPresent(),
+                     subscriptionMetrics != EventStoreSubscriptionMetrics.NONE
                     );
         }
 
@@ -549,15 +668,9 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                 if (!fencedLockManager.isStarted()) {
                     fencedLockManager.start();
                 }
+                sharedEventStreamTailReader.ifPresent(Lifecycle::start);
 
-                saveResumePointsFuture = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
-                                                                                                        .nameFormat("EventStoreSubscriptionManager-" + fencedLockManager.getLockManagerInstanceId() + "-%d")
-                                                                                                        .daemon(true)
-                                                                                                        .build())
-                                                  .scheduleAtFixedRate(this::saveResumePointsForAllSubscribers,
-                                                                       snapshotResumePointsEvery.toMillis(),
-                                                                       snapshotResumePointsEvery.toMillis(),
-                                                                       TimeUnit.MILLISECONDS);
+                resumePointWriter.start();
                 started = true;
                 // Start any subscribers added prior to us starting
                 subscribers.values().forEach(Lifecycle::start);
@@ -570,8 +683,9 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
         public void stop() {
             if (started) {
                 log.info("[{}] Stopping EventStore Subscription Manager", fencedLockManager.getLockManagerInstanceId());
-                saveResumePointsFuture.cancel(true);
+                resumePointWriter.stop();
                 subscribers.forEach((subscriberIdAggregateTypePair, eventStoreSubscription) -> eventStoreSubscription.stop());
+                sharedEventStreamTailReader.ifPresent(Lifecycle::stop);
                 if (fencedLockManager.isStarted()) {
                     fencedLockManager.stop();
                 }
@@ -592,6 +706,60 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
             return eventStore;
         }
 
+        /**
+         * Poll for events using the {@link SharedEventStreamTailReader} if configured, otherwise using {@link EventStore#pollEvents(AggregateType, GlobalEventOrder, Optional, Optional, Optional, Optional)}
+         */
+        private Flux<PersistedEvent> pollEvents(AggregateType aggregateType,
+                                                GlobalEventOrder fromInclusiveGlobalOrder,
+                                                Optional<Tenant> onlyIncludeEventsForTenant,
+                                                SubscriberId subscriberId) {
+            if (sharedEventStreamTailReader.isPresent()) {
+                return sharedEventStreamTailReader.get().pollEvents(aggregateType,
+                                                                    fromInclusiveGlobalOrder,
+                                                                    onlyIncludeEventsForTenant,
+                                                                    subscriberId);
+            }
+            return eventStore.pollEvents(aggregateType,
+                                         fromInclusiveGlobalOrder,
+                                         Optional.of(eventStorePollingBatchSize),
+                                         Optional.of(eventStorePollingInterval),
+                                         onlyIncludeEventsForTenant,
+                                         Optional.of(subscriberId));
+        }
+
+        /**
+         * Subscribe to events in batches of up to {@link BatchedPersistedEventHandler#maxBatchSize()} events or the events received within {@link BatchedPersistedEventHandler#maxBatchLatency()}
+         *
+         * @return the subscriber, which has already been subscribed to the polled events
+         */
+        private BaseSubscriber<List<PersistedEvent>> subscribeToBatchedEvents(SubscriberId subscriberId,
+                                                                              AggregateType aggregateType,
+                                                                              SubscriptionResumePoint resumePoint,
+                                                                              Optional<Tenant> onlyIncludeEventsForTenant,
+                                                                              BatchedPersistedEventHandler eventHandler,
+                                                                              BiConsumer<PersistedEvent, Exception> onErrorHandlingEvent) {
+            FailFast.requireTrue(eventHandler.maxBatchSize() >= 1, "maxBatchSize must be >= 1");
+            requireNonNull(eventHandler.maxBatchLatency(), "No maxBatchLatency provided");
+            log.info("[{}-{}] Using batched event handling with maxBatchSize: {}, maxBatchLatency: {}",
+                     subscriberId,
+                     aggregateType,
+                     eventHandler.maxBatchSize(),
+                     eventHandler.maxBatchLatency());
+            var batchedEventsSubscriber = new BatchedEventsSubscriber(subscriberId,
+                                                                      aggregateType,
+                                                                      resumePoint,
+                                                                      onlyIncludeEventsForTenant,
+                                                                      eventHandler,
+                                                                      onErrorHandlingEvent);
+            pollEvents(aggregateType,
+                       resumePoint.getResumeFromAndIncluding(),
+                       onlyIncludeEventsForTenant,
+                       subscriberId)
+                    .bufferTimeout(eventHandler.maxBatchSize(), eventHandler.maxBatchLatency(), true)
+                    .subscribe(batchedEventsSubscriber);
+            return batchedEventsSubscriber;
+        }
+
         @Override
         public Set<Pair<SubscriberId, AggregateType>> getActiveSubscriptions() {
             return this.subscribers.entrySet().stream()
@@ -607,19 +775,145 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                            .map(SubscriptionResumePoint::getResumeFromAndIncluding);
         }
 
-        private void saveResumePointsForAllSubscribers() {
-            // TODO: Filter out active subscribers and decide if we can increment the global event order like when the subscriber stops.
+        /**
+         * The resume points of the active subscribers (for exclusive subscribers this means subscribers that have acquired a distributed lock),
+         * which the {@link ResumePointWriter} saves if they've changed
+         */
+        private List<SubscriptionResumePoint> activeSubscriptionResumePoints() {
+            // TODO: Decide if we can increment the global event order like when the subscriber stops.
             //   Current approach is safe with regards to reset of resume-points, but it will result in one overlapping event during resubscription
             //   related to a failed node or after a subscription manager failure (i.e. it doesn't run stop() at all or run to completion)
+            return subscribers.values()
+                              .stream()
+                              .filter(EventStoreSubscription::isActive)
+                              .map(EventStoreSubscription::currentResumePoint)
+                              .flatMap(Optional::stream)
+                              .collect(Collectors.toList());
+        }
+
+        /**
+         * Perform the event handling in a {@link UnitOfWork}.<br>
+         * If {@link PersistedEventHandler#updateResumePointInHandlerUnitOfWork()} is true, then the <code>resumePoint</code>, moved to <code>resumeFromAndIncludingAfterHandling</code>,
+         * is saved in the same {@link UnitOfWork} as the event handling
+         */
+        private void usingHandlerUnitOfWork(PersistedEventHandler eventHandler,
+                                            SubscriptionResumePoint resumePoint,
+                                            int numberOfEvents,
+                                            GlobalEventOrder resumeFromAndIncludingAfterHandling,
+                                            CheckedRunnable handling) {
+            if (eventHandler.updateResumePointInHandlerUnitOfWork()) {
+                withHandlerUnitOfWork(eventHandler,
+                                      resumePoint,
+                                      numberOfEvents,
+                                      resumeFromAndIncludingAfterHandling,
+                                      () -> {
+                                          handling.run();
+                                          return null;
+                                      });
+                return;
+            }
+            var handlingMeter = handlingMeterFor(resumePoint, numberOfEvents);
+            try {
+                var meteredHandling = handlingMeter != null ? handlingMeter.meter(handling) : handling;
+                eventStore.getUnitOfWorkFactory()
+                          .usingUnitOfWork(unitOfWork -> meteredHandling.run());
+            } finally {
+                if (handlingMeter != null) {
+                    handlingMeter.completed();
+                }
+            }
+        }
+
+        /**
+         * Perform the event handling in a {@link UnitOfWork} and return the result of the handling.<br>
+         * If {@link PersistedEventHandler#updateResumePointInHandlerUnitOfWork()} is true, then the <code>resumePoint</code>, moved to <code>resumeFromAndIncludingAfterHandling</code>,
+         * is saved in the same {@link UnitOfWork} as the event handling
+         */
+        private <R> R withHandlerUnitOfWork(PersistedEventHandler eventHandler,
+                                            SubscriptionResumePoint resumePoint,
+                                            int numberOfEvents,
+                                            GlobalEventOrder resumeFromAndIncludingAfterHandling,
+                                            CheckedSupplier<R> handling) {
+            var handlingMeter = handlingMeterFor(resumePoint, numberOfEvents);
             try {
-                durableSubscriptionRepository.saveResumePoints(subscribers.values()
-                                                                          .stream()
-                                                                          .filter(EventStoreSubscription::isActive)
-                                                                          .filter(eventStoreSubscription -> eventStoreSubscription.currentResumePoint().isPresent())
-                                                                          .map(eventStoreSubscription -> eventStoreSubscription.currentResumePoint().get())
-                                                                          .collect(Collectors.toList()));
-            } catch (Exception e) {
-                log.error(msg("Failed to store ResumePoint's for the {} subscriber(s)", subscribers.size()), e);
+                var meteredHandling = handlingMeter != null ? handlingMeter.meter(handling) : handling;
+                if (!eventHandler.updateResumePointInHandlerUnitOfWork()) {
+                    return eventStore.getUnitOfWorkFactory()
+                                     .withUnitOfWork(unitOfWork -> meteredHandling.get());
+                }
+                // Save a copy, so the ResumePointWriter can't persist the moved resume point before the event handling has been committed
+                var resumePointToSave = new SubscriptionResumePoint(resumePoint.getSubscriberId(),
+                                                                    resumePoint.getAggregateType(),
+                                                                    resumePoint.getResumeFromAndIncluding(),
+                                                                    resumePoint.getLastUpdated())
+                        .setResumeFromAndIncluding(resumeFromAndIncludingAfterHandling);
+                var result = eventStore.getUnitOfWorkFactory()
+                                       .withUnitOfWork(unitOfWork -> {
+                                           var handlingResult = meteredHandling.get();
+                                           durableSubscriptionRepository.saveResumePoint(resumePointToSave);
+                                           return handlingResult;
+                                       });
+                resumePoint.setResumeFromAndIncluding(resumeFromAndIncludingAfterHandling)
+                           .markSaved(resumeFromAndIncludingAfterHandling, resumePointToSave.getLastUpdated());
+                return result;
+            } finally {
+                if (handlingMeter != null) {
+                    handlingMeter.completed();
+                }
+            }
+        }
+
+        /**
+         * @return a new {@link HandlingMeter} or <code>null</code> if subscription metrics are disabled (to avoid allocations on the event handling hot path)
+         */
+        private HandlingMeter handlingMeterFor(SubscriptionResumePoint resumePoint, int numberOfEvents) {
+            return subscriptionMetrics != EventStoreSubscriptionMetrics.NONE ? new HandlingMeter(resumePoint, numberOfEvents) : null;
+        }
+
+        /**
+         * Measures the time spent in the event handler and the time spent in the {@link UnitOfWork} outside the event handler
+         * and reports it to the {@link EventStoreSubscriptionMetrics}
+         */
+        private final class HandlingMeter {
+            private final SubscriptionResumePoint resumePoint;
+            private final int                     numberOfEvents;
+            private final long                    startedAt = System.nanoTime();
+            private       long                    handlingNanos;
+
+            private HandlingMeter(SubscriptionResumePoint resumePoint, int numberOfEvents) {
+                this.resumePoint = resumePoint;
+                this.numberOfEvents = numberOfEvents;
+            }
+
+            private CheckedRunnable meter(CheckedRunnable handling) {
+                return () -> {
+                    var handlingStartedAt = System.nanoTime();
+                    try {
+                        handling.run();
+                    } finally {
+                        handlingNanos += System.nanoTime() - handlingStartedAt;
+                    }
+                };
+            }
+
+            private <R> CheckedSupplier<R> meter(CheckedSupplier<R> handling) {
+                return () -> {
+                    var handlingStartedAt = System.nanoTime();
+                    try {
+                        return handling.get();
+                    } finally {
+                        handlingNanos += System.nanoTime() - handlingStartedAt;
+                    }
+                };
+            }
+
+            private void completed() {
+                var totalNanos = System.nanoTime() - startedAt;
+                subscriptionMetrics.eventsHandled(resumePoint.getSubscriberId(),
+                                                  resumePoint.getAggregateType(),
+                                                  numberOfEvents,
+                                                  handlingNanos,
+                                                  Math.max(0, totalNanos - handlingNanos));
             }
         }
 
@@ -677,9 +971,29 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                                                           Optional<Tenant> onlyIncludeEventsForTenant,
                                                                                           FencedLockAwareSubscriber fencedLockAwareSubscriber,
                                                                                           PersistedEventHandler eventHandler) {
+            return exclusivelySubscribeToAggregateEventsAsynchronously(subscriberId,
+                                                                       forAggregateType,
+                                                                       onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
+                                                                       onlyIncludeEventsForTenant,
+                                                                       fencedLockAwareSubscriber,
+                                                                       1,
+                                                                       eventHandler);
+        }
+
+        @Override
+        public EventStoreSubscription exclusivelySubscribeToAggregateEventsAsynchronously(SubscriberId subscriberId,
+                                                                                          AggregateType forAggregateType,
+                                                                                          GlobalEventOrder onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
+                                                                                          Optional<Tenant> onlyIncludeEventsForTenant,
+                                                                                          FencedLockAwareSubscriber fencedLockAwareSubscriber,
+                                                                                          int numberOfParallelLanes,
+                                                                                          PersistedEventHandler eventHandler) {
             requireNonNull(onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder, "No onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder provided");
             requireNonNull(onlyIncludeEventsForTenant, "No onlyIncludeEventsForTenant option provided");
             requireNonNull(eventHandler, "No eventHandler provided");
+            FailFast.requireTrue(numberOfParallelLanes >= 1, "numberOfParallelLanes must be >= 1");
+            FailFast.requireTrue(numberOfParallelLanes == 1 || !(eventHandler instanceof BatchedPersistedEventHandler),
+                                 "numberOfParallelLanes > 1 isn't supported in combination with a BatchedPersistedEventHandler");
             return addEventStoreSubscription(subscriberId,
                                              forAggregateType,
                                              new ExclusiveAsynchronousSubscription(eventStore,
@@ -690,6 +1004,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                                                    onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
                                                                                    onlyIncludeEventsForTenant,
                                                                                    fencedLockAwareSubscriber,
+                                                                                   numberOfParallelLanes,
                                                                                    eventHandler));
         }
 
@@ -897,6 +1212,275 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
             }
         }
 
+        /**
+         * Handles a batch of events in a single {@link UnitOfWork} using {@link BatchedPersistedEventHandler#handle(List)} and advances the
+         * {@link SubscriptionResumePoint} once per batch.<br>
+         * If the batch fails, then each event in the batch is handled individually using {@link BatchedPersistedEventHandler#handle(PersistedEvent)}.<br>
+         * If the polled events fail, then a new subscriber resubscribes from the {@link SubscriptionResumePoint} after the <code>eventStorePollingInterval</code>.
+         * Disposing this subscriber also disposes the resubscribed subscriber
+         */
+        private class BatchedEventsSubscriber extends BaseSubscriber<List<PersistedEvent>> {
+            private final SubscriberId                          subscriberId;
+            private final AggregateType                         aggregateType;
+            private final SubscriptionResumePoint               resumePoint;
+            private final Optional<Tenant>                      onlyIncludeEventsForTenant;
+            private final BatchedPersistedEventHandler          eventHandler;
+            private final BiConsumer<PersistedEvent, Exception> onErrorHandlingEvent;
+
+            private volatile boolean                              disposed;
+            private volatile BaseSubscriber<List<PersistedEvent>> resubscribedSubscriber;
+
+            private BatchedEventsSubscriber(SubscriberId subscriberId,
+                                            AggregateType aggregateType,
+                                            SubscriptionResumePoint resumePoint,
+                                            Optional<Tenant> onlyIncludeEventsForTenant,
+                                            BatchedPersistedEventHandler eventHandler,
+                                            BiConsumer<PersistedEvent, Exception> onErrorHandlingEvent) {
+                this.subscriberId = subscriberId;
+                this.aggregateType = aggregateType;
+                this.resumePoint = resumePoint;
+                this.onlyIncludeEventsForTenant = onlyIncludeEventsForTenant;
+                this.eventHandler = eventHandler;
+                this.onErrorHandlingEvent = onErrorHandlingEvent;
+            }
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(List<PersistedEvent> events) {
+                if (events.isEmpty()) {
+                    request(1);
+                    return;
+                }
+                var lastEvent = events.get(events.size() - 1);
+                log.trace("[{}-{}] Received batch of {} event(s) with globalEventOrder {} to {}",
+                          subscriberId,
+                          aggregateType,
+                          events.size(),
+                          events.get(0).globalEventOrder(),
+                          lastEvent.globalEventOrder());
+                try {
+                    usingHandlerUnitOfWork(eventHandler,
+                                           resumePoint,
+                                           events.size(),
+                                           lastEvent.globalEventOrder().increment(),
+                                           () -> eventHandler.handle(events));
+                } catch (Exception batchCause) {
+                    log.warn(msg("[{}-{}] Failed to handle batch of {} event(s) with globalEventOrder {} to {}. Falling back to handling each event individually",
+                                 subscriberId,
+                                 aggregateType,
+                                 events.size(),
+                                 events.get(0).globalEventOrder(),
+                                 lastEvent.globalEventOrder()), batchCause);
+                    for (var event : events) {
+                        try {
+                            usingHandlerUnitOfWork(eventHandler,
+                                                   resumePoint,
+                                                   1,
+                                                   event.globalEventOrder().increment(),
+                                                   () -> eventHandler.handle(event));
+                        } catch (Exception cause) {
+                            onErrorHandlingEvent.accept(event, cause);
+                        }
+                    }
+                } finally {
+                    resumePoint.setResumeFromAndIncluding(lastEvent.globalEventOrder().increment());
+                }
+                request(1);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                if (disposed) {
+                    log.debug(msg("[{}-{}] Batched event subscription failed after it was disposed",
+                                  subscriberId,
+                                  aggregateType), throwable);
+                    return;
+                }
+                log.error(msg("[{}-{}] Batched event subscription failed. Resubscribing from globalEventOrder {} in {}",
+                              subscriberId,
+                              aggregateType,
+                              resumePoint.getResumeFromAndIncluding(),
+                              eventStorePollingInterval), throwable);
+                Mono.delay(eventStorePollingInterval)
+                    .subscribe(ignore -> resubscribe());
+            }
+
+            private void resubscribe() {
+                if (disposed) {
+                    log.debug("[{}-{}] Skipping resubscription as the subscription was disposed",
+                              subscriberId,
+                              aggregateType);
+                    return;
+                }
+                resubscribedSubscriber = subscribeToBatchedEvents(subscriberId,
+                                                                  aggregateType,
+                                                                  resumePoint,
+                                                                  onlyIncludeEventsForTenant,
+                                                                  eventHandler,
+                                                                  onErrorHandlingEvent);
+                if (disposed) {
+                    // Disposed while resubscribing
+                    resubscribedSubscriber.dispose();
+                }
+            }
+
+            @Override
+            public void dispose() {
+                disposed = true;
+                super.dispose();
+                var subscriber = resubscribedSubscriber;
+                if (subscriber != null) {
+                    subscriber.dispose();
+                }
+            }
+        }
+
+        /**
+         * Partitions events, by {@link PersistedEvent#aggregateId()}, onto a fixed number of single threaded worker lanes.<br>
+         * Events for the same aggregate id are always handled by the same lane, in the order they were dispatched.<br>
+         * The {@link SubscriptionResumePoint} is advanced to the lowest global order that is still in-flight (the low-watermark), or
+         * to the global order after the highest dispatched event if no events are in-flight.<br>
+         * Once the lanes are stopped, queued events are discarded and completing events no longer advance the {@link SubscriptionResumePoint},
+         * as the events will be redelivered from the low-watermark.
+         */
+        private class KeyPartitionedLanes {
+            private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+            private final SubscriberId                          subscriberId;
+            private final AggregateType                         aggregateType;
+            private final SubscriptionResumePoint               resumePoint;
+            private final PersistedEventHandler                 eventHandler;
+            private final BiConsumer<PersistedEvent, Exception> onErrorHandlingEvent;
+            private final LongConsumer                          requestMoreEvents;
+            private final ExecutorService[]                     lanes;
+            /**
+             * Global orders that have been dispatched to a lane but not completed yet - guarded by <code>this</code>
+             */
+            private final TreeSet<Long>                         inFlightGlobalOrders = new TreeSet<>();
+            private       long                                  highestDispatchedGlobalOrder;
+            private volatile boolean                            stopped;
+
+            private KeyPartitionedLanes(SubscriberId subscriberId,
+                                        AggregateType aggregateType,
+                                        SubscriptionResumePoint resumePoint,
+                                        int numberOfLanes,
+                                        PersistedEventHandler eventHandler,
+                                        BiConsumer<PersistedEvent, Exception> onErrorHandlingEvent,
+                                        LongConsumer requestMoreEvents) {
+                this.subscriberId = subscriberId;
+                this.aggregateType = aggregateType;
+                this.resumePoint = resumePoint;
+                this.eventHandler = eventHandler;
+                this.onErrorHandlingEvent = onErrorHandlingEvent;
+                this.requestMoreEvents = requestMoreEvents;
+                this.highestDispatchedGlobalOrder = resumePoint.getResumeFromAndIncluding().longValue() - 1;
+                this.lanes = new ExecutorService[numberOfLanes];
+                for (var lane = 0; lane < numberOfLanes; lane++) {
+                    lanes[lane] = Executors.newSingleThreadExecutor(ThreadFactoryBuilder.builder()
+                                                                                        .nameFormat(subscriberId + "-" + aggregateType + "-lane-" + lane)
+                                                                                        .daemon(true)
+                                                                                        .build());
+                }
+                log.info("[{}-{}] Handling events using {} parallel lanes partitioned by aggregate id",
+                         subscriberId,
+                         aggregateType,
+                         numberOfLanes);
+                if (eventHandler.updateResumePointInHandlerUnitOfWork()) {
+                    log.warn("[{}-{}] updateResumePointInHandlerUnitOfWork isn't supported when using parallel lanes. The resume point will be saved by the ResumePointWriter",
+                             subscriberId,
+                             aggregateType);
+                }
+            }
+
+            private void dispatch(PersistedEvent e) {
+                var globalOrder = e.globalEventOrder().longValue();
+                synchronized (this) {
+                    inFlightGlobalOrders.add(globalOrder);
+                    highestDispatchedGlobalOrder = Math.max(highestDispatchedGlobalOrder, globalOrder);
+                }
+                var lane = Math.floorMod(e.aggregateId().hashCode(), lanes.length);
+                try {
+                    lanes[lane].execute(() -> handle(e));
+                } catch (RejectedExecutionException rejected) {
+                    // The lanes are stopping - the event will be redelivered from the resume point
+                    log.debug("[{}-{}] (#{}) Lane {} rejected the event as the lanes are stopping",
+                              subscriberId,
+                              aggregateType,
+                              globalOrder,
+                              lane);
+                }
+            }
+
+            private void handle(PersistedEvent e) {
+                if (stopped) {
+                    return;
+                }
+                long requestSize;
+                var handlingMeter = handlingMeterFor(resumePoint, 1);
+                try {
+                    CheckedSupplier<Integer> handling = () -> eventHandler.handleWithBackPressure(e);
+                    var meteredHandling = handlingMeter != null ? handlingMeter.meter(handling) : handling;
+                    requestSize = eventStore.getUnitOfWorkFactory()
+                                            .withUnitOfWork(unitOfWork -> meteredHandling.get());
+                    if (requestSize < 0) {
+                        requestSize = 1;
+                    }
+                } catch (Exception cause) {
+                    onErrorHandlingEvent.accept(e, cause);
+                    requestSize = 1;
+                } finally {
+                    if (handlingMeter != null) {
+                        handlingMeter.completed();
+                    }
+                    completed(e.globalEventOrder().longValue());
+                }
+                if (requestSize > 0 && !stopped) {
+                    requestMoreEvents.accept(requestSize);
+                }
+            }
+
+            private synchronized void completed(long globalOrder) {
+                if (stopped) {
+                    // The resume point may already have been saved - the event will be redelivered from the low-watermark
+                    return;
+                }
+                inFlightGlobalOrders.remove(globalOrder);
+                var lowWatermark = inFlightGlobalOrders.isEmpty() ? highestDispatchedGlobalOrder + 1 : inFlightGlobalOrders.first();
+                resumePoint.setResumeFromAndIncluding(GlobalEventOrder.of(lowWatermark));
+            }
+
+            private void stop() {
+                log.debug("[{}-{}] Stopping {} parallel lanes",
+                          subscriberId,
+                          aggregateType,
+                          lanes.length);
+                synchronized (this) {
+                    stopped = true;
+                }
+                for (var lane : lanes) {
+                    lane.shutdownNow();
+                }
+                var deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+                try {
+                    for (var lane : lanes) {
+                        if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                            log.warn("[{}-{}] Timed out after {} waiting for the lanes to complete their in-flight events",
+                                     subscriberId,
+                                     aggregateType,
+                                     STOP_TIMEOUT);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
         private class NonExclusiveAsynchronousSubscription implements EventStoreSubscription {
             private final EventStore                     eventStore;
             private final DurableSubscriptionRepository  durableSubscriptionRepository;
@@ -906,7 +1490,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
             private final Optional<Tenant>               onlyIncludeEventsForTenant;
             private final PersistedEventHandler          eventHandler;
             private       SubscriptionResumePoint        resumePoint;
-            private       BaseSubscriber<PersistedEvent> subscription;
+            private       BaseSubscriber<?>              subscription;
 
             private volatile boolean started;
 
@@ -952,7 +1536,17 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                              aggregateType,
                              resumePoint.getResumeFromAndIncluding());
 
-                    subscription = new BaseSubscriber<>() {
+                    if (eventHandler instanceof BatchedPersistedEventHandler batchedEventHandler) {
+                        subscription = subscribeToBatchedEvents(subscriberId,
+                                                                aggregateType,
+                                                                resumePoint,
+                                                                onlyIncludeEventsForTenant,
+                                                                batchedEventHandler,
+                                                                this::onErrorHandlingEvent);
+                        return;
+                    }
+
+                    var eventSubscriber = new BaseSubscriber<PersistedEvent>() {
                         @Override
                         protected void hookOnSubscribe(Subscription subscription) {
                             NonExclusiveAsynchronousSubscription.this.request(eventStorePollingBatchSize);
@@ -970,8 +1564,11 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                       e.eventOrder()
                                      );
                             try {
-                                var requestSize = eventStore.getUnitOfWorkFactory()
-                                                            .withUnitOfWork(unitOfWork -> eventHandler.handleWithBackPressure(e));
+                                var requestSize = withHandlerUnitOfWork(eventHandler,
+                                                                        resumePoint,
+                                                                        1,
+                                                                        e.globalEventOrder().increment(),
+                                                                        () -> eventHandler.handleWithBackPressure(e));
                                 if (requestSize < 0) {
                                     requestSize = 1;
                                 }
@@ -992,14 +1589,13 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                             }
                         }
                     };
-                    eventStore.pollEvents(aggregateType,
-                                          resumePoint.getResumeFromAndIncluding(),
-                                          Optional.of(eventStorePollingBatchSize),
-                                          Optional.of(eventStorePollingInterval),
-                                          onlyIncludeEventsForTenant,
-                                          Optional.of(subscriberId))
+                    subscription = eventSubscriber;
+                    pollEvents(aggregateType,
+                               resumePoint.getResumeFromAndIncluding(),
+                               onlyIncludeEventsForTenant,
+                               subscriberId)
                               .limitRate(eventStorePollingBatchSize)
-                              .subscribe(subscription);
+                              .subscribe(eventSubscriber);
                 } else {
                     log.debug("[{}-{}] Subscription was already started",
                               subscriberId,
@@ -1098,6 +1694,44 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                 }
             }
 
+            @Override
+            public void replayFrom(GlobalEventOrder replayFromAndIncludingGlobalOrder, EventStoreReplayer replayer) {
+                requireNonNull(replayFromAndIncludingGlobalOrder, "No replayFromAndIncludingGlobalOrder value provided");
+                requireNonNull(replayer, "No replayer provided");
+                if (!started) {
+                    log.info("[{}-{}] Cannot replay from and including globalOrder {} because the subscription isn't started",
+                             subscriberId,
+                             aggregateType,
+                             replayFromAndIncludingGlobalOrder);
+                    return;
+                }
+                log.info("[{}-{}] Stopping the subscription and replaying from and including globalOrder {}",
+                         subscriberId,
+                         aggregateType,
+                         replayFromAndIncludingGlobalOrder);
+                stop();
+                overrideResumePoint(replayFromAndIncludingGlobalOrder);
+                try {
+                    // If the replay fails, then the subscription will continue polling from the reset resume point
+                    resumeAfterReplay(replayer.replay(subscriberId,
+                                                      aggregateType,
+                                                      replayFromAndIncludingGlobalOrder,
+                                                      onlyIncludeEventsForTenant,
+                                                      eventHandler));
+                } finally {
+                    start();
+                }
+            }
+
+            private void resumeAfterReplay(GlobalEventOrder resumeFromAndIncludingGlobalOrder) {
+                log.info("[{}-{}] Replay completed. Resuming subscription from and including globalOrder {}",
+                         subscriberId,
+                         aggregateType,
+                         resumeFromAndIncludingGlobalOrder);
+                resumePoint.setResumeFromAndIncluding(resumeFromAndIncludingGlobalOrder);
+                durableSubscriptionRepository.saveResumePoint(resumePoint);
+            }
+
             private void overrideResumePoint(GlobalEventOrder subscribeFromAndIncludingGlobalOrder) {
                 requireNonNull(subscribeFromAndIncludingGlobalOrder, "No subscribeFromAndIncludingGlobalOrder value provided");
                 // Override resume point
@@ -1157,11 +1791,13 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
             private final GlobalEventOrder              onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder;
             private final Optional<Tenant>              onlyIncludeEventsForTenant;
             private final FencedLockAwareSubscriber     fencedLockAwareSubscriber;
+            private final int                           numberOfParallelLanes;
             private final PersistedEventHandler         eventHandler;
             private final LockName                      lockName;
 
             private SubscriptionResumePoint        resumePoint;
-            private BaseSubscriber<PersistedEvent> subscription;
+            private BaseSubscriber<?>              subscription;
+            private KeyPartitionedLanes            lanes;
 
             private volatile boolean started;
             private volatile boolean active;
@@ -1174,6 +1810,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                      GlobalEventOrder onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder,
                                                      Optional<Tenant> onlyIncludeEventsForTenant,
                                                      FencedLockAwareSubscriber fencedLockAwareSubscriber,
+                                                     int numberOfParallelLanes,
                                                      PersistedEventHandler eventHandler) {
                 this.eventStore = requireNonNull(eventStore, "No eventStore provided");
                 this.fencedLockManager = requireNonNull(fencedLockManager, "No fencedLockManager provided");
@@ -1184,6 +1821,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                                                                               "No onFirstSubscriptionSubscribeFromAndIncludingGlobalOrder provided");
                 this.onlyIncludeEventsForTenant = requireNonNull(onlyIncludeEventsForTenant, "No onlyIncludeEventsForTenant provided");
                 this.fencedLockAwareSubscriber = requireNonNull(fencedLockAwareSubscriber, "No fencedLockAwareSubscriber provided");
+                this.numberOfParallelLanes = numberOfParallelLanes;
                 this.eventHandler = requireNonNull(eventHandler, "No eventHandler provided");
                 lockName = LockName.of(msg("[{}-{}]", subscriberId, aggregateType));
             }
@@ -1227,7 +1865,27 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                 log.error(msg("FencedLockAwareSubscriber#onLockAcquired failed for lock {} and resumePoint {}", lock.getName(), resumePoint), e);
                             }
 
-                            subscription = new BaseSubscriber<>() {
+                            if (eventHandler instanceof BatchedPersistedEventHandler batchedEventHandler) {
+                                subscription = subscribeToBatchedEvents(subscriberId,
+                                                                        aggregateType,
+                                                                        resumePoint,
+                                                                        onlyIncludeEventsForTenant,
+                                                                        batchedEventHandler,
+                                                                        ExclusiveAsynchronousSubscription.this::onErrorHandlingEvent);
+                                return;
+                            }
+
+                            if (numberOfParallelLanes > 1) {
+                                lanes = new KeyPartitionedLanes(subscriberId,
+                                                                aggregateType,
+                                                                resumePoint,
+                                                                numberOfParallelLanes,
+                                                                eventHandler,
+                                                                ExclusiveAsynchronousSubscription.this::onErrorHandlingEvent,
+                                                                ExclusiveAsynchronousSubscription.this::request);
+                            }
+
+                            var eventSubscriber = new BaseSubscriber<PersistedEvent>() {
                                 @Override
                                 protected void hookOnSubscribe(Subscription subscription) {
                                     ExclusiveAsynchronousSubscription.this.request(eventStorePollingBatchSize);
@@ -1244,9 +1902,16 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                               e.aggregateId(),
                                               e.eventOrder()
                                              );
+                                    if (lanes != null) {
+                                        lanes.dispatch(e);
+                                        return;
+                                    }
                                     try {
-                                        var requestSize = eventStore.getUnitOfWorkFactory()
-                                                                    .withUnitOfWork(unitOfWork -> eventHandler.handleWithBackPressure(e));
+                                        var requestSize = withHandlerUnitOfWork(eventHandler,
+                                                                                resumePoint,
+                                                                                1,
+                                                                                e.globalEventOrder().increment(),
+                                                                                () -> eventHandler.handleWithBackPressure(e));
                                         if (requestSize < 0) {
                                             requestSize = 1;
                                         }
@@ -1268,14 +1933,13 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                 }
                             };
 
-                            eventStore.pollEvents(aggregateType,
-                                                  resumePoint.getResumeFromAndIncluding(),
-                                                  Optional.of(eventStorePollingBatchSize),
-                                                  Optional.of(eventStorePollingInterval),
-                                                  onlyIncludeEventsForTenant,
-                                                  Optional.of(subscriberId))
+                            subscription = eventSubscriber;
+                            pollEvents(aggregateType,
+                                       resumePoint.getResumeFromAndIncluding(),
+                                       onlyIncludeEventsForTenant,
+                                       subscriberId)
                                       .limitRate(eventStorePollingBatchSize)
-                                      .subscribe(subscription);
+                                      .subscribe(eventSubscriber);
                         }
 
                         @Override
@@ -1304,6 +1968,12 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                                               aggregateType), e);
                             }
 
+                            if (lanes != null) {
+                                // Discard the events queued in the lanes and wait for the in-flight events, so no events are handled after the lock is released
+                                lanes.stop();
+                                lanes = null;
+                            }
+
                             try {
                                 fencedLockAwareSubscriber.onLockReleased(lock);
                             } catch (Exception e) {
@@ -1356,7 +2026,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                     return;
                 }
                 if (subscription == null) {
-                    log.info("[{}-{}] Cannot request {} event(s) as the subscriber is null - the exclusive subscription is shutting down",
+                    log.debug("[{}-{}] Cannot request {} event(s) as the subscriber is null - the exclusive subscription is shutting down",
                              subscriberId,
                              aggregateType,
                              n);
@@ -1422,6 +2092,54 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                 }
             }
 
+            @Override
+            public void replayFrom(GlobalEventOrder replayFromAndIncludingGlobalOrder, EventStoreReplayer replayer) {
+                requireNonNull(replayFromAndIncludingGlobalOrder, "No replayFromAndIncludingGlobalOrder value provided");
+                requireNonNull(replayer, "No replayer provided");
+                if (!(isStarted() && isActive())) {
+                    log.info("[{}-{}] Cannot replay from and including globalOrder {} because the underlying lock hasn't been acquired. isStarted: {}, isActive (is-lock-acquired): {}",
+                             subscriberId,
+                             aggregateType,
+                             replayFromAndIncludingGlobalOrder,
+                             isStarted(),
+                             isActive());
+                    return;
+                }
+                log.info("[{}-{}] Stopping the subscription and replaying from and including globalOrder {}",
+                         subscriberId,
+                         aggregateType,
+                         replayFromAndIncludingGlobalOrder);
+                stop();
+                // Hold the lock while replaying, so no other instance starts polling the subscription
+                var replayLock = fencedLockManager.tryAcquireLock(lockName);
+                if (replayLock.isEmpty()) {
+                    log.info("[{}-{}] Cannot replay from and including globalOrder {} because another instance acquired the lock",
+                             subscriberId,
+                             aggregateType,
+                             replayFromAndIncludingGlobalOrder);
+                    start();
+                    return;
+                }
+                try {
+                    overrideResumePoint(replayFromAndIncludingGlobalOrder);
+                    // If the replay fails, then the subscription will continue polling from the reset resume point
+                    var resumeFromAndIncludingGlobalOrder = replayer.replay(subscriberId,
+                                                                            aggregateType,
+                                                                            replayFromAndIncludingGlobalOrder,
+                                                                            onlyIncludeEventsForTenant,
+                                                                            eventHandler);
+                    log.info("[{}-{}] Replay completed. Resuming subscription from and including globalOrder {}",
+                             subscriberId,
+                             aggregateType,
+                             resumeFromAndIncludingGlobalOrder);
+                    resumePoint.setResumeFromAndIncluding(resumeFromAndIncludingGlobalOrder);
+                    durableSubscriptionRepository.saveResumePoint(resumePoint);
+                } finally {
+                    replayLock.get().release();
+                    start();
+                }
+            }
+
             private void overrideResumePoint(GlobalEventOrder subscribeFromAndIncludingGlobalOrder) {
                 requireNonNull(subscribeFromAndIncludingGlobalOrder, "No subscribeFromAndIncludingGlobalOrder value provided");
                 // Override resume point
@@ -1465,6 +2183,7 @@ public interface EventStoreSubscriptionManager extends Lifecycle {
                         ", subscriberId=" + subscriberId +
                         ", onlyIncludeEventsForTenant=" + onlyIncludeEventsForTenant +
                         ", lockName=" + lockName +
+                        ", numberOfParallelLanes=" + numberOfParallelLanes +
                         ", resumePoint=" + resumePoint +
                         ", started=" + started +
                         ", active=" + active +
@@ -17,9 +17,11 @@
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.*;
 import dk.cloudcreate.essentials.components.foundation.fencedlock.*;
 
 import java.time.Duration;
+import java.util.Optional;
 
 public final class EventStoreSubscriptionManagerBuilder {
     private EventStore                    eventStore;
@@ -29,6 +31,9 @@ public final class EventStoreSubscriptionManagerBuilder {
     private Duration                      snapshotResumePointsEvery  = Duration.ofSeconds(1);
     private DurableSubscriptionRepository durableSubscriptionRepository;
     private boolean startLifeCycles = true;
+    private SharedEventStreamTailReader   sharedEventStreamTailReader;
+    private boolean                       useSharedEventStreamTailReader;
+    private EventStoreSubscriptionMetrics subscriptionMetrics        = EventStoreSubscriptionMetrics.NONE;
 
     /**
      * @param eventStore the event store that the created {@link EventStoreSubscriptionManager} can manage event subscriptions against
@@ -67,7 +72,7 @@ public final class EventStoreSubscriptionManagerBuilder {
     }
 
     /**
-     * @param snapshotResumePointsEvery How often should active (for exclusive subscribers this means subscribers that have acquired a distributed lock) subscribers have their {@link SubscriptionResumePoint} saved
+     * @param snapshotResumePointsEvery How often should active (for exclusive subscribers this means subscribers that have acquired a distributed lock) subscribers have their {@link SubscriptionResumePoint} saved, i.e. the max staleness of the persisted resume points (see {@link ResumePointWriter})
      * @return this builder
      */
     public EventStoreSubscriptionManagerBuilder setSnapshotResumePointsEvery(Duration snapshotResumePointsEvery) {
@@ -89,13 +94,50 @@ public final class EventStoreSubscriptionManagerBuilder {
         return this;
     }
 
+    /**
+     * @param sharedEventStreamTailReader optional {@link SharedEventStreamTailReader} that all asynchronous subscriptions will receive their events through,
+     *                                    instead of each subscription polling the {@link EventStore} on its own
+     * @return this builder
+     */
+    public EventStoreSubscriptionManagerBuilder setSharedEventStreamTailReader(SharedEventStreamTailReader sharedEventStreamTailReader) {
+        this.sharedEventStreamTailReader = sharedEventStreamTailReader;
+        return this;
+    }
+
+    /**
+     * @param useSharedEventStreamTailReader if true, and no {@link #setSharedEventStreamTailReader(SharedEventStreamTailReader)} has been provided, then
+     *                                       a {@link SharedEventStreamTailReader} will be created using the configured event store, polling batch size and polling interval
+     * @return this builder
+     */
+    public EventStoreSubscriptionManagerBuilder setUseSharedEventStreamTailReader(boolean useSharedEventStreamTailReader) {
+        this.useSharedEventStreamTailReader = useSharedEventStreamTailReader;
+        return this;
+    }
+
+    /**
+     * @param subscriptionMetrics the {@link EventStoreSubscriptionMetrics} that subscription event handling and gap reconciliation is reported to,
+     *                            e.g. {@link EventStoreSubscriptionMicrometerMetrics}. Default is {@link EventStoreSubscriptionMetrics#NONE}
+     * @return this builder
+     */
+    public EventStoreSubscriptionManagerBuilder setSubscriptionMetrics(EventStoreSubscriptionMetrics subscriptionMetrics) {
+        this.subscriptionMetrics = subscriptionMetrics;
+        return this;
+    }
+
     public EventStoreSubscriptionManager.DefaultEventStoreSubscriptionManager build() {
+        if (sharedEventStreamTailReader == null && useSharedEventStreamTailReader) {
+            sharedEventStreamTailReader = new SharedEventStreamTailReader(eventStore,
+                                                                          eventStorePollingBatchSize,
+                                                                          eventStorePollingInterval);
+        }
         return new EventStoreSubscriptionManager.DefaultEventStoreSubscriptionManager(eventStore,
                                                                                       eventStorePollingBatchSize,
                                                                                       eventStorePollingInterval,
                                                                                       fencedLockManager,
                                                                                       snapshotResumePointsEvery,
                                                                                       durableSubscriptionRepository,
-                                                                                      startLifeCycles);
+                                                                                      startLifeCycles,
+                                                                                      Optional.ofNullable(sharedEventStreamTailReader),
+                                                                                      subscriptionMetrics);
     }
 }
\ No newline at end of file
@@ -49,6 +49,23 @@ public interface PersistedEventHandler {
         return 1;
     }
 
+    /**
+     * Should the subscription's {@link SubscriptionResumePoint} be saved in the same {@link UnitOfWork} that is used for handling the event(s)?<br>
+     * If <code>true</code>, then the event handling and the resume point update are committed (or rolled back) together, which gives exactly-once
+     * handling for handlers that only change state in the same database as the resume points (e.g. projections), at the cost of one extra
+     * <code>UPDATE</code> per handled event (or batch of events for a {@link BatchedPersistedEventHandler}).
+     * This requires that the {@link DurableSubscriptionRepository} uses the same unit of work factory as the {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore}.<br>
+     * If <code>false</code> (default), then the resume point is saved by the {@link ResumePointWriter} at most
+     * {@link EventStoreSubscriptionManagerBuilder#setSnapshotResumePointsEvery(java.time.Duration)} later, which means that the events handled
+     * since the last save will be redelivered after a crash.<br>
+     * Not supported for handlers using {@link KeyPartitionedPersistedEventHandler}'s parallel lanes, as their resume point is a low watermark across the lanes.
+     *
+     * @return true if the resume point must be saved in the event handling {@link UnitOfWork}, otherwise false
+     */
+    default boolean updateResumePointInHandlerUnitOfWork() {
+        return false;
+    }
+
     /**
      * This method will be called in a {@link UnitOfWork} when ever a {@link PersistedEvent} is published
      *
@@ -196,58 +196,64 @@ public final class PostgresqlDurableSubscriptionRepository implements DurableSub
         return subscriptionResumePoint;
     }
 
-    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    /**
+     * Save all {@link SubscriptionResumePoint#isChanged()} resume points using a single <code>UPDATE ... FROM unnest(...)</code> statement.<br>
+     * Unchanged resume points are filtered out before a {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} is created,
+     * and if no resume points have changed, then the database isn't accessed at all.<br>
+     * If a {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} is already active, then the update joins it.
+     *
+     * @param resumePoints the resume points to save
+     */
     @Override
     public void saveResumePoints(Collection<SubscriptionResumePoint> resumePoints) {
         requireNonNull(resumePoints, "No resumePoints provided");
-        if (resumePoints.isEmpty()) {
-            log.trace("No resumePoints to save");
+        var numberOfResumePoints = resumePoints.size();
+        // Snapshot the values to save, as the resume points can be moved concurrently by their subscriptions
+        var changedResumePoints   = new ArrayList<SubscriptionResumePoint>(numberOfResumePoints);
+        var resumeFromAndIncludes = new ArrayList<GlobalEventOrder>(numberOfResumePoints);
+        for (var resumePoint : resumePoints) {
+            if (resumePoint.isChanged()) {
+                changedResumePoints.add(resumePoint);
+                resumeFromAndIncludes.add(resumePoint.getResumeFromAndIncluding());
+            }
+        }
+        if (changedResumePoints.isEmpty()) {
+            log.trace("None of the {} resumePoints have changed", numberOfResumePoints);
             return;
-        } else {
-            log.trace("Received {} ResumePoints to save: {}", resumePoints.size(), resumePoints);
         }
+        log.trace("Saving {} changed ResumePoints out of {}: {}", changedResumePoints.size(), numberOfResumePoints, changedResumePoints);
 
-        unitOfWorkFactory.usingUnitOfWork(uow -> {
-            var now = OffsetDateTime.now(Clock.systemUTC());
-            var preparedBatch = uow.handle().prepareBatch("UPDATE " + this.durableSubscriptionsTableName +
-                                                                  " SET resume_from_and_including_global_eventorder = :resume_from_and_including_global_eventorder, last_updated = :last_updated " +
-                                                                  " WHERE aggregate_type = :aggregate_type AND subscriber_id = :subscriber_id");
-
-            // TODO: Optimize filtering to happen outside db trx
-            resumePoints.forEach(subscriptionResumePoint -> {
-                if (!subscriptionResumePoint.isChanged()) {
-                    log.debug("Wont save Unchanged {}", subscriptionResumePoint);
-                    return;
-                }
-                log.debug("Saving {}", subscriptionResumePoint);
-                preparedBatch
-                        .bind("aggregate_type", subscriptionResumePoint.getAggregateType())
-                        .bind("subscriber_id", subscriptionResumePoint.getSubscriberId())
-                        .bind("resume_from_and_including_global_eventorder", subscriptionResumePoint.getResumeFromAndIncluding())
-                        .bind("last_updated", now)
-                        .add();
-            });
+        var numberOfChangedResumePoints = changedResumePoints.size();
+        var aggregateTypes              = new String[numberOfChangedResumePoints];
+        var subscriberIds               = new String[numberOfChangedResumePoints];
+        var globalEventOrders           = new long[numberOfChangedResumePoints];
+        for (var index = 0; index < numberOfChangedResumePoints; index++) {
+            var resumePoint = changedResumePoints.get(index);
+            aggregateTypes[index] = resumePoint.getAggregateType().toString();
+            subscriberIds[index] = resumePoint.getSubscriberId().toString();
+            globalEventOrders[index] = resumeFromAndIncludes.get(index).longValue();
+        }
 
-            var batchSize = preparedBatch.size();
-            var rowsUpdated = Arrays.stream(preparedBatch.execute())
-                                    .reduce(Integer::sum).orElse(0);
-            resumePoints.forEach(subscriptionResumePoint -> {
-                if (subscriptionResumePoint.isChanged()) {
-                    subscriptionResumePoint.setLastUpdated(now);
-                }
-            });
-            if (log.isTraceEnabled()) {
-                log.trace("Saved {} resumePoints out of {} resulting in {} updated rows: {}",
-                          batchSize,
-                          resumePoints.size(),
-                          rowsUpdated,
-                          resumePoints);
-            } else {
-                log.debug("Saved {} resumePoints out of {} resulting in {} updated rows",
-                          batchSize,
-                          resumePoints.size(),
-                          rowsUpdated);
-            }
+        var now = OffsetDateTime.now(Clock.systemUTC());
+        unitOfWorkFactory.usingUnitOfWork(uow -> {
+            var rowsUpdated = uow.handle().createUpdate("UPDATE " + this.durableSubscriptionsTableName + " AS resume_point\n" +
+                                                                " SET resume_from_and_including_global_eventorder = changed.resume_from_and_including_global_eventorder, last_updated = :last_updated\n" +
+                                                                " FROM unnest(:aggregate_types, :subscriber_ids, :resume_from_and_including_global_eventorders)\n" +
+                                                                "      AS changed(aggregate_type, subscriber_id, resume_from_and_including_global_eventorder)\n" +
+                                                                " WHERE resume_point.aggregate_type = changed.aggregate_type AND resume_point.subscriber_id = changed.subscriber_id")
+                                 .bind("aggregate_types", aggregateTypes)
+                                 .bind("subscriber_ids", subscriberIds)
+                                 .bind("resume_from_and_including_global_eventorders", globalEventOrders)
+                                 .bind("last_updated", now)
+                                 .execute();
+            log.debug("Saved {} changed resumePoints out of {} resulting in {} updated rows",
+                      numberOfChangedResumePoints,
+                      numberOfResumePoints,
+                      rowsUpdated);
         });
+        // Only mark the resume points as saved once the unit of work has completed, so they remain changed (and are retried) if saving fails
+        for (var index = 0; index < numberOfChangedResumePoints; index++) {
+            changedResumePoints.get(index).markSaved(resumeFromAndIncludes.get(index), now);
+        }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.foundation.Lifecycle;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import org.slf4j.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+
+/**
+ * Coalesces {@link SubscriptionResumePoint} persistence for all the subscriptions managed by an {@link EventStoreSubscriptionManager}.<br>
+ * Subscriptions only move their resume point in memory while handling events. Once every <code>maxStaleness</code> the writer collects the
+ * {@link SubscriptionResumePoint#isChanged()} resume points and saves them using a single {@link DurableSubscriptionRepository#saveResumePoints(Collection)} call,
+ * so the number of resume point writes is independent of the event throughput and the number of subscriptions.<br>
+ * The persisted resume point of a subscription is at most <code>maxStaleness</code> behind the in-memory resume point, which is the maximum
+ * number of events that will be redelivered if a node crashes.<br>
+ * Subscribers that cannot tolerate redelivery can use {@link PersistedEventHandler#updateResumePointInHandlerUnitOfWork()}, which updates
+ * the resume point in the same {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} as the event handling.
+ */
+public final class ResumePointWriter implements Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ResumePointWriter.class);
+
+    private final DurableSubscriptionRepository                  durableSubscriptionRepository;
+    private final Duration                                       maxStaleness;
+    private final Supplier<Collection<SubscriptionResumePoint>> resumePointsSupplier;
+    private final String                                         name;
+
+    private volatile boolean                  started;
+    private          ScheduledExecutorService flushExecutor;
+
+    /**
+     * Create a new {@link ResumePointWriter}
+     *
+     * @param name                          the name of the writer (used for naming the flush thread)
+     * @param durableSubscriptionRepository the repository used for saving the resume points
+     * @param maxStaleness                  the maximum time a changed resume point can go without being saved
+     * @param resumePointsSupplier          supplies the resume points of the active subscriptions. Unchanged resume points are ignored
+     */
+    public ResumePointWriter(String name,
+                             DurableSubscriptionRepository durableSubscriptionRepository,
+                             Duration maxStaleness,
+                             Supplier<Collection<SubscriptionResumePoint>> resumePointsSupplier) {
+        this.name = requireNonNull(name, "No name provided");
+        this.durableSubscriptionRepository = requireNonNull(durableSubscriptionRepository, "No durableSubscriptionRepository provided");
+        this.maxStaleness = requireNonNull(maxStaleness, "No maxStaleness provided");
+        this.resumePointsSupplier = requireNonNull(resumePointsSupplier, "No resumePointsSupplier provided");
+        requireTrue(maxStaleness.toMillis() > 0, "maxStaleness must be > 0 ms");
+    }
+
+    @Override
+    public void start() {
+        if (!started) {
+            log.info("[{}] Starting ResumePointWriter with maxStaleness: {}", name, maxStaleness);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                                                                                           .nameFormat("ResumePointWriter-" + name + "-%d")
+                                                                                           .daemon(true)
+                                                                                           .build());
+            flushExecutor.scheduleAtFixedRate(this::flush,
+                                              maxStaleness.toMillis(),
+                                              maxStaleness.toMillis(),
+                                              TimeUnit.MILLISECONDS);
+            started = true;
+        } else {
+            log.debug("[{}] ResumePointWriter was already started", name);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (started) {
+            log.info("[{}] Stopping ResumePointWriter", name);
+            started = false;
+            flushExecutor.shutdownNow();
+            log.info("[{}] Stopped ResumePointWriter", name);
+        } else {
+            log.debug("[{}] ResumePointWriter was already stopped", name);
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * The maximum time a changed resume point can go without being saved
+     *
+     * @return the max staleness
+     */
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    /**
+     * Save all changed resume points now.<br>
+     * This is called every {@link #getMaxStaleness()} while the writer is started, but can also be called directly.
+     * Exceptions are logged and the resume points will be retried at the next flush, as they remain changed.
+     */
+    public void flush() {
+        try {
+            var changedResumePoints = new ArrayList<SubscriptionResumePoint>();
+            for (var resumePoint : resumePointsSupplier.get()) {
+                if (resumePoint.isChanged()) {
+                    changedResumePoints.add(resumePoint);
+                }
+            }
+            if (changedResumePoints.isEmpty()) {
+                log.trace("[{}] No changed resume points to save", name);
+                return;
+            }
+            durableSubscriptionRepository.saveResumePoints(changedResumePoints);
+        } catch (Exception e) {
+            log.error("[{}] Failed to save changed resume points", name, e);
+        }
+    }
+}
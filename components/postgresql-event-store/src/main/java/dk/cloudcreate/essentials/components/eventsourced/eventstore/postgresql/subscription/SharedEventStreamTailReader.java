@@ -0,0 +1,650 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.Lifecycle;
+import dk.cloudcreate.essentials.components.foundation.types.*;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
+import dk.cloudcreate.essentials.types.LongRange;
+import org.slf4j.*;
+import reactor.core.publisher.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static dk.cloudcreate.essentials.shared.FailFast.*;
+import static dk.cloudcreate.essentials.shared.MessageFormatter.msg;
+
+/**
+ * Shared, per {@link AggregateType}, tail reader of the {@link EventStore} event streams.<br>
+ * Instead of every asynchronous {@link EventStoreSubscription} running its own {@link EventStore#pollEvents(AggregateType, long, Optional, Optional, Optional, Optional)}
+ * query loop (and its own polling thread), the {@link SharedEventStreamTailReader} polls the event stream of each {@link AggregateType} <b>once</b> per polling interval,
+ * keeps a bounded ring of the most recently read {@link PersistedEvent}'s and fans these out to every subscriber whose resume point falls inside the ring.<br>
+ * <br>
+ * Subscribers, whose resume point lies before the oldest event covered by the ring (e.g. because they're starting from an old resume point or because they're
+ * too slow to keep up with the tail and the ring wraps around), will run their own catch-up {@link EventStore#loadEventsByGlobalOrder(AggregateType, LongRange, List, Optional)} queries
+ * until they reach the part of the event stream covered by the ring, after which they rejoin the shared tail.<br>
+ * <br>
+ * Polling is performed by a single polling thread, while event delivery (and catch-up queries) is performed by a shared, bounded, delivery thread pool.<br>
+ * The {@link Flux} returned from {@link #pollEvents(AggregateType, GlobalEventOrder, Optional, SubscriberId)} honours the subscriber's back-pressure (i.e. the requested number of events),
+ * and delivers events with at-least-once semantics in the same way as {@link EventStore#pollEvents(AggregateType, long, Optional, Optional, Optional, Optional)}.<br>
+ * If the {@link EventStore} is a {@link PostgresqlEventStore}, then the shared tail uses the {@link PostgresqlEventStore#getEventStreamGapHandler()} on behalf of a shared {@link SubscriberId}
+ * (see {@link #sharedSubscriberIdFor(AggregateType)}), while catch-up queries use the gap handler for the individual subscriber.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class SharedEventStreamTailReader implements Lifecycle {
+    private static final Logger log = LoggerFactory.getLogger(SharedEventStreamTailReader.class);
+
+    /**
+     * The default number of {@link PersistedEvent}'s that are kept in the ring per {@link AggregateType}
+     */
+    public static final int DEFAULT_RING_CAPACITY = 10_000;
+    /**
+     * The maximum number of consecutive full batches the polling thread will read for a single {@link AggregateType} during
+     * one polling round, before moving on to the next {@link AggregateType}
+     */
+    private static final int MAX_CONSECUTIVE_BATCHES_PER_POLL = 10;
+
+    private final EventStore                                 eventStore;
+    private final int                                        pollingBatchSize;
+    private final Duration                                   pollingInterval;
+    private final int                                        ringCapacity;
+    private final int                                        numberOfDeliveryThreads;
+    private final ConcurrentMap<AggregateType, AggregateTypeTail> tails = new ConcurrentHashMap<>();
+
+    private volatile boolean                  started;
+    private          ScheduledExecutorService pollingExecutor;
+    private          ExecutorService          deliveryExecutor;
+
+    /**
+     * Create a new {@link SharedEventStreamTailReader} using the {@link #DEFAULT_RING_CAPACITY} and a delivery thread pool
+     * with as many threads as there are available processors
+     *
+     * @param eventStore       the event store to poll
+     * @param pollingBatchSize the maximum number of events returned by each query against the event store
+     * @param pollingInterval  how often the event store is polled for new events
+     */
+    public SharedEventStreamTailReader(EventStore eventStore,
+                                       int pollingBatchSize,
+                                       Duration pollingInterval) {
+        this(eventStore,
+             pollingBatchSize,
+             pollingInterval,
+             DEFAULT_RING_CAPACITY,
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new {@link SharedEventStreamTailReader}
+     *
+     * @param eventStore              the event store to poll
+     * @param pollingBatchSize        the maximum number of events returned by each query against the event store
+     * @param pollingInterval         how often the event store is polled for new events
+     * @param ringCapacity            the number of recently read {@link PersistedEvent}'s kept per {@link AggregateType}. Must be larger than or equal to <code>pollingBatchSize</code>
+     * @param numberOfDeliveryThreads the number of threads used to deliver events to subscribers (and to perform catch-up queries on their behalf)
+     */
+    public SharedEventStreamTailReader(EventStore eventStore,
+                                       int pollingBatchSize,
+                                       Duration pollingInterval,
+                                       int ringCapacity,
+                                       int numberOfDeliveryThreads) {
+        requireTrue(pollingBatchSize >= 1, "pollingBatchSize must be >= 1");
+        requireTrue(ringCapacity >= pollingBatchSize, "ringCapacity must be >= pollingBatchSize");
+        requireTrue(numberOfDeliveryThreads >= 1, "numberOfDeliveryThreads must be >= 1");
+        this.eventStore = requireNonNull(eventStore, "No eventStore provided");
+        this.pollingBatchSize = pollingBatchSize;
+        this.pollingInterval = requireNonNull(pollingInterval, "No pollingInterval provided");
+        this.ringCapacity = ringCapacity;
+        this.numberOfDeliveryThreads = numberOfDeliveryThreads;
+    }
+
+    /**
+     * The {@link SubscriberId} that the shared tail uses, on behalf of all subscribers, when tracking event stream gaps
+     *
+     * @param aggregateType the aggregate type
+     * @return the shared {@link SubscriberId} for the given aggregate type
+     */
+    public static SubscriberId sharedSubscriberIdFor(AggregateType aggregateType) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        return SubscriberId.of("SharedEventStreamTailReader-" + aggregateType);
+    }
+
+    @Override
+    public void start() {
+        if (!started) {
+            log.info("Starting SharedEventStreamTailReader with pollingBatchSize: {}, pollingInterval: {}, ringCapacity: {}, numberOfDeliveryThreads: {}",
+                     pollingBatchSize,
+                     pollingInterval,
+                     ringCapacity,
+                     numberOfDeliveryThreads);
+            deliveryExecutor = Executors.newFixedThreadPool(numberOfDeliveryThreads,
+                                                            ThreadFactoryBuilder.builder()
+                                                                                .nameFormat("SharedEventStreamTailReader-Delivery-%d")
+                                                                                .daemon(true)
+                                                                                .build());
+            pollingExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                                                                                             .nameFormat("SharedEventStreamTailReader-Polling-%d")
+                                                                                             .daemon(true)
+                                                                                             .build());
+            pollingExecutor.scheduleWithFixedDelay(this::pollAllTails,
+                                                   pollingInterval.toMillis(),
+                                                   pollingInterval.toMillis(),
+                                                   TimeUnit.MILLISECONDS);
+            started = true;
+            // Wake up any subscribers that subscribed prior to us starting
+            tails.values().forEach(AggregateTypeTail::signalAllSubscribers);
+        } else {
+            log.debug("SharedEventStreamTailReader was already started");
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (started) {
+            log.info("Stopping SharedEventStreamTailReader");
+            started = false;
+            pollingExecutor.shutdownNow();
+            deliveryExecutor.shutdownNow();
+            // Complete the subscribers' Flux'es, so they don't wait forever for events that will never be delivered
+            tails.values().forEach(AggregateTypeTail::completeAllSubscribers);
+            tails.clear();
+            log.info("Stopped SharedEventStreamTailReader");
+        } else {
+            log.debug("SharedEventStreamTailReader was already stopped");
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Subscribe to the shared tail of the event stream related to the given <code>aggregateType</code>.<br>
+     * The returned {@link Flux} is a drop-in replacement for {@link EventStore#pollEvents(AggregateType, long, Optional, Optional, Optional, Optional)} and supports backpressure.
+     *
+     * @param aggregateType                 the aggregate type that the underlying events are associated with
+     * @param fromInclusiveGlobalOrder      the first {@link GlobalEventOrder} (inclusive) that the subscriber wants to receive
+     * @param onlyIncludeEventsForTenant    Matching is performed on the {@link PersistedEvent#tenant()} field and events without a tenant, as well as events for the given tenant, will be included
+     * @param subscriberId                  the unique id of the subscriber
+     * @return a {@link Flux} of {@link PersistedEvent}'s
+     */
+    public Flux<PersistedEvent> pollEvents(AggregateType aggregateType,
+                                           GlobalEventOrder fromInclusiveGlobalOrder,
+                                           Optional<Tenant> onlyIncludeEventsForTenant,
+                                           SubscriberId subscriberId) {
+        requireNonNull(aggregateType, "No aggregateType provided");
+        requireNonNull(fromInclusiveGlobalOrder, "No fromInclusiveGlobalOrder provided");
+        requireNonNull(onlyIncludeEventsForTenant, "No onlyIncludeEventsForTenant provided");
+        requireNonNull(subscriberId, "No subscriberId provided");
+
+        return Flux.create(sink -> {
+            var tail = tails.computeIfAbsent(aggregateType, AggregateTypeTail::new);
+            var tailSubscriber = new TailSubscriber(tail,
+                                                    subscriberId,
+                                                    fromInclusiveGlobalOrder.longValue(),
+                                                    onlyIncludeEventsForTenant,
+                                                    sink);
+            sink.onRequest(requested -> tailSubscriber.signal());
+            sink.onDispose(() -> tail.removeSubscriber(tailSubscriber));
+            tail.addSubscriber(tailSubscriber);
+            log.debug("[{}-{}] Subscribed to shared tail from and including globalOrder {}",
+                      subscriberId,
+                      aggregateType,
+                      fromInclusiveGlobalOrder);
+        });
+    }
+
+    private Optional<SubscriptionGapHandler> gapHandlerFor(SubscriberId subscriberId) {
+        if (eventStore instanceof PostgresqlEventStore<?> postgresqlEventStore) {
+            return Optional.of(postgresqlEventStore.getEventStreamGapHandler().gapHandlerFor(subscriberId));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<PostgresqlEventStreamListener> eventStreamListenerFor(AggregateType aggregateType) {
+        if (eventStore instanceof PostgresqlEventStore<?> postgresqlEventStore) {
+            return postgresqlEventStore.getEventStreamListener()
+                                       .filter(listener -> listener.isListeningFor(aggregateType));
+        }
+        return Optional.empty();
+    }
+
+    private List<PersistedEvent> loadEvents(AggregateType aggregateType,
+                                            LongRange globalOrderRange,
+                                            Optional<Tenant> onlyIncludeEventsForTenant,
+                                            Optional<SubscriptionGapHandler> gapHandler) {
+        return eventStore.getUnitOfWorkFactory().withUnitOfWork(unitOfWork -> {
+            var transientGapsToIncludeInQuery = gapHandler.map(handler -> handler.findTransientGapsToIncludeInQuery(aggregateType, globalOrderRange))
+                                                          .orElse(null);
+            var persistedEvents = eventStore.loadEventsByGlobalOrder(aggregateType,
+                                                                     globalOrderRange,
+                                                                     transientGapsToIncludeInQuery,
+                                                                     onlyIncludeEventsForTenant)
+                                            .collect(Collectors.toList());
+            gapHandler.ifPresent(handler -> handler.reconcileGaps(aggregateType,
+                                                                  globalOrderRange,
+                                                                  persistedEvents,
+                                                                  transientGapsToIncludeInQuery));
+            return persistedEvents;
+        });
+    }
+
+    private void pollAllTails() {
+        tails.values().forEach(tail -> {
+            try {
+                tail.poll();
+            } catch (Exception e) {
+                log.error(msg("[{}] Failed to poll the shared event stream tail", tail.aggregateType), e);
+            }
+            tail.signalAllSubscribers();
+        });
+    }
+
+    /**
+     * Thrown by {@link AggregateTypeTail#eventAt(long)} when the requested ring sequence has already been overwritten
+     */
+    private static final class FellBehindTailException extends RuntimeException {
+        private FellBehindTailException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final FellBehindTailException FELL_BEHIND = new FellBehindTailException();
+
+    /**
+     * The shared tail for a single {@link AggregateType}
+     */
+    private final class AggregateTypeTail {
+        private final AggregateType                    aggregateType;
+        private final Optional<SubscriptionGapHandler> gapHandler;
+        private final PersistedEvent[]                 ring;
+        private final Set<TailSubscriber>              subscribers = ConcurrentHashMap.newKeySet();
+        /**
+         * The ring sequence that the next {@link PersistedEvent} read by the tail will be assigned
+         */
+        private       long                             headSequence;
+        /**
+         * The next global order the tail will poll from. Negative until the tail has been initialized by the polling thread
+         */
+        private       long                             nextGlobalOrderToPoll   = -1;
+        /**
+         * The tail has read every event with a global order larger than or equal to this value (minus any gaps which are tracked by the gap handler)
+         */
+        private volatile long                          coveredFromGlobalOrder = Long.MAX_VALUE;
+        /**
+         * Used to skip queries when a {@link PostgresqlEventStreamListener} is listening for the aggregate type and no new events have been notified
+         */
+        private       long                             lastQueryTimestamp;
+        private       long                             lastQueriedFromGlobalOrder   = -1;
+        private       long                             notificationCountAtLastQuery;
+        private final boolean                          includesTransientGapsInQueries;
+
+        private AggregateTypeTail(AggregateType aggregateType) {
+            this.aggregateType = aggregateType;
+            this.gapHandler = gapHandlerFor(sharedSubscriberIdFor(aggregateType));
+            this.includesTransientGapsInQueries = eventStore instanceof PostgresqlEventStore<?> postgresqlEventStore &&
+                    !(postgresqlEventStore.getEventStreamGapHandler() instanceof NoEventStreamGapHandler);
+            this.ring = new PersistedEvent[ringCapacity];
+        }
+
+        private void addSubscriber(TailSubscriber tailSubscriber) {
+            subscribers.add(tailSubscriber);
+            tailSubscriber.signal();
+        }
+
+        private void removeSubscriber(TailSubscriber tailSubscriber) {
+            subscribers.remove(tailSubscriber);
+            log.debug("[{}-{}] Unsubscribed from shared tail", tailSubscriber.subscriberId, aggregateType);
+        }
+
+        private void signalAllSubscribers() {
+            subscribers.forEach(TailSubscriber::signal);
+        }
+
+        private void completeAllSubscribers() {
+            subscribers.forEach(tailSubscriber -> tailSubscriber.sink.complete());
+            subscribers.clear();
+        }
+
+        /**
+         * Called by the polling thread
+         */
+        private void poll() {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            if (nextGlobalOrderToPoll < 0) {
+                nextGlobalOrderToPoll = eventStore.getUnitOfWorkFactory()
+                                                  .withUnitOfWork(unitOfWork -> eventStore.findHighestGlobalEventOrderPersisted(aggregateType))
+                                                  .map(highestGlobalOrder -> highestGlobalOrder.longValue() + 1)
+                                                  .orElse(GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue());
+                coveredFromGlobalOrder = nextGlobalOrderToPoll;
+                log.debug("[{}] Initialized shared tail to start from and including globalOrder {}", aggregateType, nextGlobalOrderToPoll);
+            }
+            if (!shouldQueryForEvents()) {
+                return;
+            }
+
+            for (var batch = 0; batch < MAX_CONSECUTIVE_BATCHES_PER_POLL; batch++) {
+                var globalOrderRange = LongRange.from(nextGlobalOrderToPoll, pollingBatchSize);
+                var persistedEvents  = loadEvents(aggregateType, globalOrderRange, Optional.empty(), gapHandler);
+                if (persistedEvents.isEmpty()) {
+                    return;
+                }
+                log.trace("[{}] Shared tail loaded {} event(s) using globalOrderRange {}", aggregateType, persistedEvents.size(), globalOrderRange);
+                append(persistedEvents);
+                signalAllSubscribers();
+                if (persistedEvents.size() < pollingBatchSize) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Without a {@link PostgresqlEventStreamListener} the tail queries on every poll. With a listener the tail only queries
+         * when a notification covering {@link #nextGlobalOrderToPoll} hasn't been queried for yet, or when the safety-net
+         * polling interval has elapsed (covers lost notifications)
+         */
+        private boolean shouldQueryForEvents() {
+            var listener = eventStreamListenerFor(aggregateType);
+            if (listener.isEmpty()) {
+                return true;
+            }
+            var notificationCount = listener.get().getNotificationCount(aggregateType);
+            var now               = System.currentTimeMillis();
+            // When transient gaps are included in the queries, then any notification (including one with a global order below nextGlobalOrderToPoll,
+            // i.e. from a transaction that committed late) can fill a gap
+            var lowestGlobalOrderOfInterest = includesTransientGapsInQueries ? GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue() : nextGlobalOrderToPoll;
+            var hasUnqueriedNotification = (nextGlobalOrderToPoll != lastQueriedFromGlobalOrder && listener.get().hasBeenNotifiedOfEventsFrom(aggregateType, nextGlobalOrderToPoll)) ||
+                    listener.get().hasBeenNotifiedOfEventsFrom(aggregateType, lowestGlobalOrderOfInterest, notificationCountAtLastQuery);
+            if (hasUnqueriedNotification || now - lastQueryTimestamp >= listener.get().getSafetyNetPollingInterval().toMillis()) {
+                lastQueryTimestamp = now;
+                lastQueriedFromGlobalOrder = nextGlobalOrderToPoll;
+                notificationCountAtLastQuery = notificationCount;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void append(List<PersistedEvent> persistedEvents) {
+            for (var persistedEvent : persistedEvents) {
+                var index   = (int) (headSequence % ringCapacity);
+                var evicted = ring[index];
+                if (evicted != null) {
+                    coveredFromGlobalOrder = Math.max(coveredFromGlobalOrder, evicted.globalEventOrder().longValue() + 1);
+                }
+                ring[index] = persistedEvent;
+                headSequence++;
+                nextGlobalOrderToPoll = Math.max(nextGlobalOrderToPoll, persistedEvent.globalEventOrder().longValue() + 1);
+            }
+        }
+
+        /**
+         * @param sequence the ring sequence
+         * @return the event at the given sequence or <code>null</code> if the tail hasn't read the event yet
+         * @throws FellBehindTailException if the event at the given sequence has already been overwritten
+         */
+        private synchronized PersistedEvent eventAt(long sequence) {
+            if (sequence < headSequence - ringCapacity) {
+                throw FELL_BEHIND;
+            }
+            if (sequence >= headSequence) {
+                return null;
+            }
+            return ring[(int) (sequence % ringCapacity)];
+        }
+
+        /**
+         * @param fromInclusiveGlobalOrder the next global order the subscriber wants to receive
+         * @return the ring sequence that the subscriber can continue from or a negative value if the
+         * <code>fromInclusiveGlobalOrder</code> isn't covered by the tail
+         */
+        private synchronized long joinSequenceFor(long fromInclusiveGlobalOrder) {
+            if (fromInclusiveGlobalOrder < coveredFromGlobalOrder) {
+                return -1;
+            }
+            for (var sequence = Math.max(0, headSequence - ringCapacity); sequence < headSequence; sequence++) {
+                if (ring[(int) (sequence % ringCapacity)].globalEventOrder().longValue() >= fromInclusiveGlobalOrder) {
+                    return sequence;
+                }
+            }
+            return headSequence;
+        }
+    }
+
+    /**
+     * A single subscriber of an {@link AggregateTypeTail}.<br>
+     * All delivery happens in {@link #drain()}, which is guaranteed to only be executed by one delivery thread at a time
+     */
+    private final class TailSubscriber {
+        private final AggregateTypeTail                tail;
+        private final SubscriberId                     subscriberId;
+        private final Optional<Tenant>                 onlyIncludeEventsForTenant;
+        private final Optional<SubscriptionGapHandler> gapHandler;
+        private final FluxSink<PersistedEvent>         sink;
+        private final AtomicInteger                    workInProgress = new AtomicInteger();
+        private final Deque<PersistedEvent>            catchUpEvents  = new ArrayDeque<>();
+        /**
+         * The next global order this subscriber wants to receive
+         */
+        private       long                             nextGlobalOrder;
+        /**
+         * The next ring sequence to deliver or a negative value if the subscriber is catching up on its own
+         */
+        private       long                             nextSequence   = -1;
+        private       long                             lastTransientGapsQueryTimestamp;
+
+        private TailSubscriber(AggregateTypeTail tail,
+                               SubscriberId subscriberId,
+                               long fromInclusiveGlobalOrder,
+                               Optional<Tenant> onlyIncludeEventsForTenant,
+                               FluxSink<PersistedEvent> sink) {
+            this.tail = tail;
+            this.subscriberId = subscriberId;
+            this.nextGlobalOrder = fromInclusiveGlobalOrder;
+            this.onlyIncludeEventsForTenant = onlyIncludeEventsForTenant;
+            this.gapHandler = gapHandlerFor(subscriberId);
+            this.sink = sink;
+        }
+
+        private void signal() {
+            if (!started || sink.isCancelled()) {
+                return;
+            }
+            if (workInProgress.getAndIncrement() == 0) {
+                try {
+                    deliveryExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    workInProgress.set(0);
+                    log.debug("[{}-{}] Delivery was rejected as the SharedEventStreamTailReader is stopping", subscriberId, tail.aggregateType);
+                }
+            }
+        }
+
+        private void drain() {
+            var missed = 1;
+            do {
+                if (!deliverAvailableEvents()) {
+                    // Yield the delivery thread to other subscribers and continue later
+                    try {
+                        deliveryExecutor.execute(this::drain);
+                    } catch (RejectedExecutionException e) {
+                        workInProgress.set(0);
+                        log.debug("[{}-{}] Delivery was rejected as the SharedEventStreamTailReader is stopping", subscriberId, tail.aggregateType);
+                    }
+                    return;
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return true if all available events (limited by the demand) were delivered, false if the subscriber should yield the delivery thread
+         */
+        private boolean deliverAvailableEvents() {
+            if (nextSequence >= 0 && catchUpEvents.isEmpty() && sink.requestedFromDownstream() > 0) {
+                queryTransientGapsBelowTheTail();
+            }
+            var delivered = 0;
+            while (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                if (delivered >= pollingBatchSize) {
+                    return false;
+                }
+                if (!catchUpEvents.isEmpty()) {
+                    deliver(catchUpEvents.poll());
+                    delivered++;
+                    continue;
+                }
+
+                if (nextSequence >= 0) {
+                    PersistedEvent persistedEvent;
+                    try {
+                        persistedEvent = tail.eventAt(nextSequence);
+                    } catch (FellBehindTailException e) {
+                        log.debug("[{}-{}] Fell behind the shared tail. Catching up from and including globalOrder {}",
+                                  subscriberId,
+                                  tail.aggregateType,
+                                  nextGlobalOrder);
+                        nextSequence = -1;
+                        continue;
+                    }
+                    if (persistedEvent == null) {
+                        return true;
+                    }
+                    nextSequence++;
+                    if (isIncludedForTenant(persistedEvent)) {
+                        deliver(persistedEvent);
+                        delivered++;
+                    }
+                } else {
+                    var joinSequence = tail.joinSequenceFor(nextGlobalOrder);
+                    if (joinSequence >= 0) {
+                        log.debug("[{}-{}] Joining the shared tail from and including globalOrder {}",
+                                  subscriberId,
+                                  tail.aggregateType,
+                                  nextGlobalOrder);
+                        nextSequence = joinSequence;
+                    } else if (!catchUp()) {
+                        return true;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Query the event store on behalf of this subscriber for events older than the events covered by the shared tail
+         *
+         * @return true if the subscriber made progress, otherwise false
+         */
+        private boolean catchUp() {
+            var coveredFromGlobalOrder = tail.coveredFromGlobalOrder;
+            var tailIsInitialized      = coveredFromGlobalOrder != Long.MAX_VALUE;
+            var toInclusiveGlobalOrder = nextGlobalOrder + pollingBatchSize - 1;
+            if (tailIsInitialized) {
+                toInclusiveGlobalOrder = Math.min(toInclusiveGlobalOrder, coveredFromGlobalOrder - 1);
+            }
+            var globalOrderRange = LongRange.between(nextGlobalOrder, toInclusiveGlobalOrder);
+
+            List<PersistedEvent> persistedEvents;
+            try {
+                persistedEvents = loadEvents(tail.aggregateType, globalOrderRange, onlyIncludeEventsForTenant, gapHandler);
+            } catch (Exception e) {
+                log.error(msg("[{}-{}] Catch-up query using globalOrderRange {} failed",
+                              subscriberId,
+                              tail.aggregateType,
+                              globalOrderRange), e);
+                return false;
+            }
+            log.trace("[{}-{}] Catch-up query using globalOrderRange {} returned {} event(s)",
+                      subscriberId,
+                      tail.aggregateType,
+                      globalOrderRange,
+                      persistedEvents.size());
+
+            catchUpEvents.addAll(persistedEvents);
+            if (tailIsInitialized) {
+                // Skip the entire range below the tail coverage. Any gaps in the range are tracked as transient gaps by the gap handler
+                // and re-queried by queryTransientGapsBelowTheTail() after the subscriber has joined the shared tail
+                nextGlobalOrder = toInclusiveGlobalOrder + 1;
+                return true;
+            } else if (!persistedEvents.isEmpty()) {
+                nextGlobalOrder = persistedEvents.get(persistedEvents.size() - 1).globalEventOrder().longValue() + 1;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * {@link #catchUp()} skips past gaps below the shared tail coverage, which the subscriber's gap handler tracks as transient gaps.
+         * The shared tail never queries below its coverage, so while the subscriber is on the shared tail its transient gaps are re-queried
+         * (at most once per polling interval) until the late events have been delivered or the gap handler has promoted the gaps to permanent gaps
+         */
+        private void queryTransientGapsBelowTheTail() {
+            if (gapHandler.isEmpty()) {
+                return;
+            }
+            var now = System.currentTimeMillis();
+            if (now - lastTransientGapsQueryTimestamp < pollingInterval.toMillis()) {
+                return;
+            }
+            lastTransientGapsQueryTimestamp = now;
+            try {
+                var coveredFromGlobalOrder = tail.coveredFromGlobalOrder;
+                var oldestTransientGap = gapHandler.get().getTransientGapsFor(tail.aggregateType)
+                                                   .stream()
+                                                   .mapToLong(GlobalEventOrder::longValue)
+                                                   .filter(globalOrder -> globalOrder < coveredFromGlobalOrder)
+                                                   .min();
+                if (oldestTransientGap.isEmpty()) {
+                    return;
+                }
+                // The gap handler includes the transient gaps in the query
+                var persistedEvents = loadEvents(tail.aggregateType, LongRange.only(oldestTransientGap.getAsLong()), onlyIncludeEventsForTenant, gapHandler);
+                log.trace("[{}-{}] Transient gaps query returned {} event(s)",
+                          subscriberId,
+                          tail.aggregateType,
+                          persistedEvents.size());
+                catchUpEvents.addAll(persistedEvents);
+            } catch (Exception e) {
+                log.error(msg("[{}-{}] Transient gaps query failed",
+                              subscriberId,
+                              tail.aggregateType), e);
+            }
+        }
+
+        private boolean isIncludedForTenant(PersistedEvent persistedEvent) {
+            return onlyIncludeEventsForTenant.isEmpty() ||
+                    persistedEvent.tenant().isEmpty() ||
+                    persistedEvent.tenant().equals(onlyIncludeEventsForTenant);
+        }
+
+        private void deliver(PersistedEvent persistedEvent) {
+            nextGlobalOrder = Math.max(nextGlobalOrder, persistedEvent.globalEventOrder().longValue() + 1);
+            sink.next(persistedEvent);
+        }
+    }
+}
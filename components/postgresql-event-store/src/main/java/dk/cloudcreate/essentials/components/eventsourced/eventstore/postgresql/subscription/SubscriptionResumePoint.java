@@ -25,12 +25,17 @@ import java.util.Objects;
 
 import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
 
+/**
+ * The resume point of a single subscription, i.e. the {@link GlobalEventOrder} the subscription will resume from (and including).<br>
+ * The resume point is updated by the subscription thread(s) while the {@link ResumePointWriter} concurrently saves changed resume points,
+ * which is why {@link #setResumeFromAndIncluding(GlobalEventOrder)} and {@link #markSaved(GlobalEventOrder, OffsetDateTime)} are synchronized
+ */
 public final class SubscriptionResumePoint {
-    private final SubscriberId     subscriberId;
-    private final AggregateType    aggregateType;
-    private       GlobalEventOrder resumeFromAndIncluding;
-    private       OffsetDateTime   lastUpdated;
-    private       boolean          changed;
+    private final    SubscriberId     subscriberId;
+    private final    AggregateType    aggregateType;
+    private volatile GlobalEventOrder resumeFromAndIncluding;
+    private volatile OffsetDateTime   lastUpdated;
+    private volatile boolean          changed;
 
     public SubscriptionResumePoint(SubscriberId subscriberId, AggregateType aggregateType, GlobalEventOrder resumeFromAndIncluding, OffsetDateTime lastUpdated) {
         this.subscriberId = requireNonNull(subscriberId, "No subscriberId provided");
@@ -55,7 +60,7 @@ public final class SubscriptionResumePoint {
         return lastUpdated;
     }
 
-    public SubscriptionResumePoint setResumeFromAndIncluding(GlobalEventOrder resumeFromAndIncluding) {
+    public synchronized SubscriptionResumePoint setResumeFromAndIncluding(GlobalEventOrder resumeFromAndIncluding) {
         requireNonNull(resumeFromAndIncluding, "No resumeFromAndIncluding provided");
         if (!Objects.equals(this.resumeFromAndIncluding, resumeFromAndIncluding)) {
             changed = true;
@@ -64,12 +69,29 @@ public final class SubscriptionResumePoint {
         return this;
     }
 
-    public SubscriptionResumePoint setLastUpdated(OffsetDateTime lastUpdated) {
+    public synchronized SubscriptionResumePoint setLastUpdated(OffsetDateTime lastUpdated) {
         this.lastUpdated = requireNonNull(lastUpdated, "No lastUpdated provided");
         changed = false;
         return this;
     }
 
+    /**
+     * Mark the resume point as saved. The resume point is only marked as unchanged if the {@link #getResumeFromAndIncluding()}
+     * still is the <code>savedResumeFromAndIncluding</code>, i.e. the resume point hasn't moved while it was being saved
+     *
+     * @param savedResumeFromAndIncluding the {@link #getResumeFromAndIncluding()} value that was saved
+     * @param lastUpdated                 the timestamp of the save
+     * @return this resume point
+     */
+    public synchronized SubscriptionResumePoint markSaved(GlobalEventOrder savedResumeFromAndIncluding, OffsetDateTime lastUpdated) {
+        requireNonNull(savedResumeFromAndIncluding, "No savedResumeFromAndIncluding provided");
+        this.lastUpdated = requireNonNull(lastUpdated, "No lastUpdated provided");
+        if (Objects.equals(this.resumeFromAndIncluding, savedResumeFromAndIncluding)) {
+            changed = false;
+        }
+        return this;
+    }
+
     public boolean isChanged() {
         return changed;
     }
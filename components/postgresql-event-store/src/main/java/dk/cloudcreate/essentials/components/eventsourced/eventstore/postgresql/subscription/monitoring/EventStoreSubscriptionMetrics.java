@@ -0,0 +1,53 @@
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.SubscriptionGapHandler;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.*;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+
+/**
+ * Callback for recording subscription level metrics, which is called by the {@link EventStoreSubscriptionManager} (and the
+ * {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.PostgresqlEventStreamGapHandler}) on the event handling hot path.<br>
+ * Implementations must be thread safe and must not block. Durations are provided in nanoseconds, so no objects are allocated for recording them.<br>
+ * Use {@link #NONE} (the default) to disable subscription metrics, in which case the {@link EventStoreSubscriptionManager} skips all timing.
+ *
+ * @see EventStoreSubscriptionMicrometerMetrics
+ */
+public interface EventStoreSubscriptionMetrics {
+    /**
+     * {@link EventStoreSubscriptionMetrics} that doesn't record anything
+     */
+    EventStoreSubscriptionMetrics NONE = new EventStoreSubscriptionMetrics() {
+    };
+
+    /**
+     * Called after a subscriber has handled one or more events (more than one for a {@link BatchedPersistedEventHandler}) in a
+     * {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork}.
+     * This is also called if the event handling failed.
+     *
+     * @param subscriberId              the subscriber that handled the events
+     * @param aggregateType             the aggregate type the events are associated with
+     * @param numberOfEvents            the number of events handled
+     * @param handlingNanos             the time spent in the {@link PersistedEventHandler}
+     * @param unitOfWorkCompletionNanos the time spent in the {@link dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork} outside the {@link PersistedEventHandler},
+     *                                  which primarily is the commit (including any resume point update, see {@link PersistedEventHandler#updateResumePointInHandlerUnitOfWork()})
+     */
+    default void eventsHandled(SubscriberId subscriberId,
+                               AggregateType aggregateType,
+                               int numberOfEvents,
+                               long handlingNanos,
+                               long unitOfWorkCompletionNanos) {
+    }
+
+    /**
+     * Called after {@link SubscriptionGapHandler#reconcileGaps(AggregateType, dk.cloudcreate.essentials.types.LongRange, java.util.List, java.util.List)}
+     *
+     * @param subscriberId   the subscriber whose gaps were reconciled
+     * @param aggregateType  the aggregate type the gaps are associated with
+     * @param reconcileNanos the time spent reconciling the gaps
+     */
+    default void gapsReconciled(SubscriberId subscriberId,
+                                AggregateType aggregateType,
+                                long reconcileNanos) {
+    }
+}
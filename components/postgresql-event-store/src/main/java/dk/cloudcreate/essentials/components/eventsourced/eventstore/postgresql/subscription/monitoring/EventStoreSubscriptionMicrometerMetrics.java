@@ -0,0 +1,111 @@
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+import static dk.cloudcreate.essentials.components.foundation.messaging.queue.micrometer.DurableQueuesMicrometerInterceptor.MODULE_TAG_NAME;
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * Micrometer version of the {@link EventStoreSubscriptionMetrics}, which maintains the following meters per {@link SubscriberId} and {@link AggregateType}:
+ * <ul>
+ *     <li>{@value #HANDLED_EVENTS_COUNTER_NAME} - counter of handled events (the events/sec per subscriber is the rate of this counter)</li>
+ *     <li>{@value #HANDLER_LATENCY_TIMER_NAME} - timer, with percentiles, of the time spent in the event handler</li>
+ *     <li>{@value #UNIT_OF_WORK_COMPLETION_TIMER_NAME} - timer of the time spent committing the event handling unit of work</li>
+ *     <li>{@value #GAP_RECONCILE_TIMER_NAME} - timer of the time spent reconciling event stream gaps</li>
+ * </ul>
+ * The meters are only tagged with the {@link SubscriberId}, the {@link AggregateType} and the optional module tag, so the number of meters is bounded
+ * by the number of subscriptions. The meters are created once per subscription and cached, so recording doesn't allocate.
+ */
+public final class EventStoreSubscriptionMicrometerMetrics implements EventStoreSubscriptionMetrics {
+    public static final  String   HANDLED_EVENTS_COUNTER_NAME        = "DurableSubscriptions_HandledEvents";
+    public static final  String   HANDLER_LATENCY_TIMER_NAME         = "DurableSubscriptions_Handler_Latency";
+    public static final  String   UNIT_OF_WORK_COMPLETION_TIMER_NAME = "DurableSubscriptions_UnitOfWork_Completion";
+    public static final  String   GAP_RECONCILE_TIMER_NAME           = "DurableSubscriptions_GapReconcile";
+    private static final String   SUBSCRIBER_ID_TAG                  = "SubscriberId";
+    private static final String   AGGREGATE_TYPE_TAG                 = "AggregateType";
+    private static final double[] PERCENTILES                        = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry                                                                 meterRegistry;
+    private final List<Tag>                                                                     commonTags = new ArrayList<>();
+    private final ConcurrentMap<SubscriberId, ConcurrentMap<AggregateType, SubscriptionMeters>> meters     = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry the meter registry
+     * @param moduleTag     the optional module tag
+     */
+    public EventStoreSubscriptionMicrometerMetrics(MeterRegistry meterRegistry,
+                                                   String moduleTag) {
+        this.meterRegistry = requireNonNull(meterRegistry, "No meterRegistry instance provided");
+        Optional.ofNullable(moduleTag).map(t -> Tag.of(MODULE_TAG_NAME, t)).ifPresent(commonTags::add);
+    }
+
+    @Override
+    public void eventsHandled(SubscriberId subscriberId,
+                              AggregateType aggregateType,
+                              int numberOfEvents,
+                              long handlingNanos,
+                              long unitOfWorkCompletionNanos) {
+        var subscriptionMeters = metersFor(subscriberId, aggregateType);
+        subscriptionMeters.handledEvents.increment(numberOfEvents);
+        subscriptionMeters.handlerLatency.record(handlingNanos, TimeUnit.NANOSECONDS);
+        subscriptionMeters.unitOfWorkCompletion.record(unitOfWorkCompletionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void gapsReconciled(SubscriberId subscriberId,
+                               AggregateType aggregateType,
+                               long reconcileNanos) {
+        metersFor(subscriberId, aggregateType).gapReconcile.record(reconcileNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private SubscriptionMeters metersFor(SubscriberId subscriberId, AggregateType aggregateType) {
+        var subscriberMeters = meters.get(subscriberId);
+        if (subscriberMeters == null) {
+            subscriberMeters = meters.computeIfAbsent(subscriberId, id -> new ConcurrentHashMap<>());
+        }
+        var subscriptionMeters = subscriberMeters.get(aggregateType);
+        if (subscriptionMeters == null) {
+            subscriptionMeters = subscriberMeters.computeIfAbsent(aggregateType, type -> new SubscriptionMeters(subscriberId, type));
+        }
+        return subscriptionMeters;
+    }
+
+    private final class SubscriptionMeters {
+        private final Counter handledEvents;
+        private final Timer   handlerLatency;
+        private final Timer   unitOfWorkCompletion;
+        private final Timer   gapReconcile;
+
+        private SubscriptionMeters(SubscriberId subscriberId, AggregateType aggregateType) {
+            var tags = new ArrayList<>(commonTags);
+            tags.add(Tag.of(SUBSCRIBER_ID_TAG, subscriberId.toString()));
+            tags.add(Tag.of(AGGREGATE_TYPE_TAG, aggregateType.toString()));
+            handledEvents = Counter.builder(HANDLED_EVENTS_COUNTER_NAME)
+                                   .tags(tags)
+                                   .register(meterRegistry);
+            handlerLatency = Timer.builder(HANDLER_LATENCY_TIMER_NAME)
+                                  .tags(tags)
+                                  .publishPercentiles(PERCENTILES)
+                                  .register(meterRegistry);
+            unitOfWorkCompletion = Timer.builder(UNIT_OF_WORK_COMPLETION_TIMER_NAME)
+                                        .tags(tags)
+                                        .publishPercentiles(PERCENTILES)
+                                        .register(meterRegistry);
+            gapReconcile = Timer.builder(GAP_RECONCILE_TIMER_NAME)
+                                .tags(tags)
+                                .register(meterRegistry);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring;
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.EventStoreReplayer;
 import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
 
 /**
@@ -8,4 +9,12 @@ import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
  */
 public interface EventStoreSubscriptionMonitor {
     void monitor(SubscriberId subscriberId, AggregateType aggregateType);
+
+    /**
+     * Called by the {@link EventStoreReplayer} every time a replay has progressed (and when the replay has completed)
+     *
+     * @param progress the current progress of the replay
+     */
+    default void replayProgress(ReplayProgress progress) {
+    }
 }
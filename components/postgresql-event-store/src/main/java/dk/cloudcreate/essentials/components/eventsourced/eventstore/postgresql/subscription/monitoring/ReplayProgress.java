@@ -0,0 +1,141 @@
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.EventStoreReplayer;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static dk.cloudcreate.essentials.shared.FailFast.requireNonNull;
+
+/**
+ * Snapshot of the progress of an {@link EventStoreReplayer} replay for a given {@link SubscriberId} and {@link AggregateType}
+ */
+public final class ReplayProgress {
+    private final SubscriberId     subscriberId;
+    private final AggregateType    aggregateType;
+    private final GlobalEventOrder replayFromAndIncluding;
+    private final GlobalEventOrder replayedUpToAndIncluding;
+    private final GlobalEventOrder replayTargetGlobalOrder;
+    private final long             numberOfReplayedEvents;
+    private final Duration         elapsed;
+    private final boolean          completed;
+
+    public ReplayProgress(SubscriberId subscriberId,
+                          AggregateType aggregateType,
+                          GlobalEventOrder replayFromAndIncluding,
+                          GlobalEventOrder replayedUpToAndIncluding,
+                          GlobalEventOrder replayTargetGlobalOrder,
+                          long numberOfReplayedEvents,
+                          Duration elapsed,
+                          boolean completed) {
+        this.subscriberId = requireNonNull(subscriberId, "No subscriberId provided");
+        this.aggregateType = requireNonNull(aggregateType, "No aggregateType provided");
+        this.replayFromAndIncluding = requireNonNull(replayFromAndIncluding, "No replayFromAndIncluding provided");
+        this.replayedUpToAndIncluding = requireNonNull(replayedUpToAndIncluding, "No replayedUpToAndIncluding provided");
+        this.replayTargetGlobalOrder = requireNonNull(replayTargetGlobalOrder, "No replayTargetGlobalOrder provided");
+        this.numberOfReplayedEvents = numberOfReplayedEvents;
+        this.elapsed = requireNonNull(elapsed, "No elapsed provided");
+        this.completed = completed;
+    }
+
+    public SubscriberId getSubscriberId() {
+        return subscriberId;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+
+    /**
+     * @return the {@link GlobalEventOrder} the replay started from (inclusive)
+     */
+    public GlobalEventOrder getReplayFromAndIncluding() {
+        return replayFromAndIncluding;
+    }
+
+    /**
+     * @return the highest {@link GlobalEventOrder} that all events up to (and including) have been handed to the event handler
+     */
+    public GlobalEventOrder getReplayedUpToAndIncluding() {
+        return replayedUpToAndIncluding;
+    }
+
+    /**
+     * @return the {@link GlobalEventOrder} the replay currently aims for. The target moves forward while new events are persisted during the replay
+     */
+    public GlobalEventOrder getReplayTargetGlobalOrder() {
+        return replayTargetGlobalOrder;
+    }
+
+    /**
+     * @return the number of events that have been replayed
+     */
+    public long getNumberOfReplayedEvents() {
+        return numberOfReplayedEvents;
+    }
+
+    /**
+     * @return the time elapsed since the replay started
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return true if the replay has reached the live tail of the event stream and the subscription has been handed back to normal polling
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return the average number of events replayed per second since the replay started
+     */
+    public double getEventsPerSecond() {
+        var elapsedMillis = elapsed.toMillis();
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return numberOfReplayedEvents * 1000d / elapsedMillis;
+    }
+
+    /**
+     * The estimated time remaining until the replay reaches the {@link #getReplayTargetGlobalOrder()}, which is calculated based on the
+     * range of {@link GlobalEventOrder}'s covered so far (since the global order range can contain gaps, the number of remaining events is unknown)
+     *
+     * @return the estimated time remaining or {@link Optional#empty()} if no estimate can be calculated yet
+     */
+    public Optional<Duration> getEstimatedTimeRemaining() {
+        if (completed) {
+            return Optional.of(Duration.ZERO);
+        }
+        var coveredGlobalOrders   = replayedUpToAndIncluding.longValue() - replayFromAndIncluding.longValue() + 1;
+        var remainingGlobalOrders = replayTargetGlobalOrder.longValue() - replayedUpToAndIncluding.longValue();
+        var elapsedMillis         = elapsed.toMillis();
+        if (coveredGlobalOrders <= 0 || elapsedMillis <= 0) {
+            return Optional.empty();
+        }
+        if (remainingGlobalOrders <= 0) {
+            return Optional.of(Duration.ZERO);
+        }
+        return Optional.of(Duration.ofMillis((long) (remainingGlobalOrders * ((double) elapsedMillis / coveredGlobalOrders))));
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayProgress{" +
+                "subscriberId=" + subscriberId +
+                ", aggregateType=" + aggregateType +
+                ", replayFromAndIncluding=" + replayFromAndIncluding +
+                ", replayedUpToAndIncluding=" + replayedUpToAndIncluding +
+                ", replayTargetGlobalOrder=" + replayTargetGlobalOrder +
+                ", numberOfReplayedEvents=" + numberOfReplayedEvents +
+                ", eventsPerSecond=" + getEventsPerSecond() +
+                ", estimatedTimeRemaining=" + getEstimatedTimeRemaining() +
+                ", completed=" + completed +
+                '}';
+    }
+}
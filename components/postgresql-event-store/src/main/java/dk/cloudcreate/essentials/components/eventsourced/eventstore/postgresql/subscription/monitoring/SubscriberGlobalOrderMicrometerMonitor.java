@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.EventStoreSubscriptionManager;
@@ -31,6 +32,8 @@ import static java.lang.Long.max;
 public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscriptionMonitor {
     private static final Logger log = LoggerFactory.getLogger(SubscriberGlobalOrderMicrometerMonitor.class);
     private static final String SUBSCRIPTION_EVENT_ORDER_DIFF_METRIC = "DurableSubscriptions_EventOrder_Diff";
+    private static final String REPLAY_EVENTS_PER_SECOND_METRIC = "DurableSubscriptions_Replay_EventsPerSecond";
+    private static final String REPLAY_ESTIMATED_SECONDS_REMAINING_METRIC = "DurableSubscriptions_Replay_EstimatedSecondsRemaining";
     private static final String SUBSCRIBER_ID_TAG = "SubscriberId";
     private static final String AGGREGATE_TYPE_TAG = "AggregateType";
 
@@ -38,6 +41,7 @@ public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscri
     private final MeterRegistry meterRegistry;
     private final EventStoreUnitOfWorkFactory<? extends EventStoreUnitOfWork> unitOfWorkFactory;
     private final ConcurrentHashMap<Pair<SubscriberId, AggregateType>, Pair<Gauge, AtomicLong>> subscriberGauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Pair<SubscriberId, AggregateType>, AtomicReference<ReplayProgress>> replayProgressGauges = new ConcurrentHashMap<>();
     private final List<Tag> commonTags = new ArrayList<>();
 
     public SubscriberGlobalOrderMicrometerMonitor(EventStoreSubscriptionManager eventStoreSubscriptionManager,
@@ -50,9 +54,13 @@ public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscri
         Optional.ofNullable(moduleTag).map(t -> Tag.of(MODULE_TAG_NAME, t)).ifPresent(commonTags::add);
     }
 
+    /**
+     * The subscriber lag is calculated using the {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore#findEventStreamHead(AggregateType)},
+     * which is shared across all subscribers of the same {@link AggregateType}, so monitoring doesn't require a database round trip per subscriber
+     */
     @Override
     public void monitor(SubscriberId subscriberId, AggregateType aggregateType) {
-        unitOfWorkFactory.usingUnitOfWork(() -> doExecuteMonitoring(subscriberId, aggregateType));
+        doExecuteMonitoring(subscriberId, aggregateType);
     }
 
     private void doExecuteMonitoring(SubscriberId subscriberId, AggregateType aggregateType) {
@@ -67,6 +75,30 @@ public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscri
             });
     }
 
+    @Override
+    public void replayProgress(ReplayProgress progress) {
+        log.debug("Replay progress for subscriber {} on aggregateType {}: {}", progress.getSubscriberId(), progress.getAggregateType(), progress);
+        replayProgressGauges.computeIfAbsent(Pair.of(progress.getSubscriberId(), progress.getAggregateType()), this::initializeReplayProgressGauges)
+            .set(progress);
+    }
+
+    private AtomicReference<ReplayProgress> initializeReplayProgressGauges(Pair<SubscriberId, AggregateType> key) {
+        var latestProgress = new AtomicReference<ReplayProgress>();
+        var tags = buildTags(key);
+        Gauge.builder(REPLAY_EVENTS_PER_SECOND_METRIC, latestProgress, progress -> Optional.ofNullable(progress.get())
+                .map(ReplayProgress::getEventsPerSecond)
+                .orElse(0d))
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder(REPLAY_ESTIMATED_SECONDS_REMAINING_METRIC, latestProgress, progress -> Optional.ofNullable(progress.get())
+                .flatMap(ReplayProgress::getEstimatedTimeRemaining)
+                .map(estimatedTimeRemaining -> estimatedTimeRemaining.toMillis() / 1000d)
+                .orElse(0d))
+            .tags(tags)
+            .register(meterRegistry);
+        return latestProgress;
+    }
+
     private Pair<Gauge, AtomicLong> initializeEventOrderDiffCountGauge(Pair<SubscriberId, AggregateType> key) {
         var eventOrderDifferenceCount = new AtomicLong();
         return Pair.of(buildGauge(key, eventOrderDifferenceCount), eventOrderDifferenceCount);
@@ -74,15 +106,19 @@ public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscri
 
     @NotNull
     private Gauge buildGauge(Pair<SubscriberId, AggregateType> pair, AtomicLong eventOrderDifferenceCount) {
+        return Gauge.builder(SUBSCRIPTION_EVENT_ORDER_DIFF_METRIC, eventOrderDifferenceCount::get)
+            .tags(buildTags(pair))
+            .register(meterRegistry);
+    }
+
+    private List<Tag> buildTags(Pair<SubscriberId, AggregateType> pair) {
         var subscriberId = pair._1;
         var aggregateType = pair._2;
 
         var tags = new ArrayList<>(commonTags);
         tags.add(Tag.of(SUBSCRIBER_ID_TAG, subscriberId.toString()));
         tags.add(Tag.of(AGGREGATE_TYPE_TAG, aggregateType.toString()));
-        return Gauge.builder(SUBSCRIPTION_EVENT_ORDER_DIFF_METRIC, eventOrderDifferenceCount::get)
-            .tags(tags)
-            .register(meterRegistry);
+        return tags;
     }
 
     private Optional<Long> calculateSubscriberGlobalEventOrderDiff(SubscriberId subscriberId, AggregateType aggregateType) {
@@ -95,6 +131,6 @@ public class SubscriberGlobalOrderMicrometerMonitor implements EventStoreSubscri
 
     @NotNull
     private GlobalEventOrder findHighestGlobalEventOrderPersisted(AggregateType aggregateType) {
-        return eventStoreSubscriptionManager.getEventStore().findHighestGlobalEventOrderPersisted(aggregateType).orElse(GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER);
+        return eventStoreSubscriptionManager.getEventStore().findEventStreamHead(aggregateType).orElse(GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamPersistenceStrategy;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.shared.functional.CheckedFunction;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventStreamHeadTrackerTest {
+    private static final AggregateType ORDERS    = AggregateType.of("Orders");
+    private static final AggregateType CUSTOMERS = AggregateType.of("Customers");
+
+    private AggregateEventStreamPersistenceStrategy<?> persistenceStrategy;
+    private PersistedEventsCommitLifecycleCallback     commitLifecycleCallback;
+    private EventStreamHeadTracker                     tracker;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setup() throws Exception {
+        persistenceStrategy = mock(AggregateEventStreamPersistenceStrategy.class);
+        var unitOfWorkFactory = (EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>) mock(EventStoreUnitOfWorkFactory.class);
+        doAnswer(invocation -> ((CheckedFunction<EventStoreUnitOfWork, ?>) invocation.getArgument(0)).apply(null))
+                .when(unitOfWorkFactory).withUnitOfWork(any(CheckedFunction.class));
+
+        tracker = new EventStreamHeadTracker(unitOfWorkFactory, persistenceStrategy, Optional.empty(), Duration.ofHours(1));
+
+        var callbackCaptor = ArgumentCaptor.forClass(PersistedEventsCommitLifecycleCallback.class);
+        verify(unitOfWorkFactory).registerPersistedEventsCommitLifeCycleCallback(callbackCaptor.capture());
+        commitLifecycleCallback = callbackCaptor.getValue();
+    }
+
+    @Test
+    void the_head_position_is_only_queried_once_within_the_max_query_interval() {
+        when(persistenceStrategy.findHighestGlobalEventOrderPersisted(any(), eq(ORDERS))).thenReturn(Optional.of(GlobalEventOrder.of(10)));
+
+        assertThat(tracker.findHeadPosition(ORDERS)).hasValue(GlobalEventOrder.of(10));
+        assertThat(tracker.findHeadPosition(ORDERS)).hasValue(GlobalEventOrder.of(10));
+
+        verify(persistenceStrategy, times(1)).findHighestGlobalEventOrderPersisted(any(), eq(ORDERS));
+    }
+
+    @Test
+    void no_persisted_events_results_in_an_empty_head_position() {
+        when(persistenceStrategy.findHighestGlobalEventOrderPersisted(any(), eq(ORDERS))).thenReturn(Optional.empty());
+
+        assertThat(tracker.findHeadPosition(ORDERS)).isEmpty();
+    }
+
+    @Test
+    void committed_events_advance_the_head_position_without_querying() {
+        when(persistenceStrategy.findHighestGlobalEventOrderPersisted(any(), any())).thenReturn(Optional.empty());
+        assertThat(tracker.findHeadPosition(ORDERS)).isEmpty();
+        assertThat(tracker.findHeadPosition(CUSTOMERS)).isEmpty();
+
+        commitLifecycleCallback.afterCommit(null, List.of(persistedEvent(ORDERS, 1),
+                                                          persistedEvent(ORDERS, 3),
+                                                          persistedEvent(CUSTOMERS, 2),
+                                                          persistedEvent(ORDERS, 2)));
+        commitLifecycleCallback.afterRollback(null, List.of(persistedEvent(ORDERS, 4)));
+
+        assertThat(tracker.findHeadPosition(ORDERS)).hasValue(GlobalEventOrder.of(3));
+        assertThat(tracker.findHeadPosition(CUSTOMERS)).hasValue(GlobalEventOrder.of(2));
+        verify(persistenceStrategy, times(2)).findHighestGlobalEventOrderPersisted(any(), any());
+    }
+
+    @Test
+    void the_head_position_never_moves_backwards() {
+        when(persistenceStrategy.findHighestGlobalEventOrderPersisted(any(), eq(ORDERS))).thenReturn(Optional.of(GlobalEventOrder.of(5)));
+        tracker.advance(ORDERS, GlobalEventOrder.of(7));
+
+        assertThat(tracker.findHeadPosition(ORDERS)).hasValue(GlobalEventOrder.of(7));
+    }
+
+    private static PersistedEvent persistedEvent(AggregateType aggregateType, long globalOrder) {
+        var persistedEvent = mock(PersistedEvent.class);
+        when(persistedEvent.aggregateType()).thenReturn(aggregateType);
+        when(persistedEvent.globalEventOrder()).thenReturn(GlobalEventOrder.of(globalOrder));
+        return persistedEvent;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.PostgresqlEventStreamGapHandler;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.AggregateIdSerializer;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.JacksonJSONEventSerializer;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.test_data.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
+import dk.cloudcreate.essentials.components.foundation.postgresql.SqlExecutionTimeLogger;
+import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
+import dk.cloudcreate.essentials.components.foundation.types.*;
+import dk.cloudcreate.essentials.jackson.immutable.EssentialsImmutableJacksonModule;
+import dk.cloudcreate.essentials.jackson.types.EssentialTypesJacksonModule;
+import dk.cloudcreate.essentials.types.LongRange;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.postgres.PostgresPlugin;
+import org.junit.jupiter.api.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.*;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.*;
+
+import static dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.SeparateTablePerAggregateTypeEventStreamConfigurationFactory.standardSingleTenantConfiguration;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Verifies the {@link PostgresqlEventStore} when the event stream table is range partitioned using {@link EventStreamTablePartitioning}
+ */
+@Testcontainers
+class PartitionedEventStreamTablePostgresqlEventStoreIT {
+    public static final AggregateType ORDERS                      = AggregateType.of("Orders");
+    public static final long          GLOBAL_ORDERS_PER_PARTITION = 10;
+
+    private Jdbi                                                                    jdbi;
+    private EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>                       unitOfWorkFactory;
+    private SeparateTablePerAggregateTypePersistenceStrategy                        persistenceStrategy;
+    private PostgresqlEventStore<SeparateTablePerAggregateEventStreamConfiguration> eventStore;
+
+    @Container
+    private final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("event-store")
+            .withUsername("test-user")
+            .withPassword("secret-password");
+
+    @BeforeEach
+    void setup() {
+        jdbi = Jdbi.create(postgreSQLContainer.getJdbcUrl(),
+                           postgreSQLContainer.getUsername(),
+                           postgreSQLContainer.getPassword());
+        jdbi.installPlugin(new PostgresPlugin());
+        jdbi.setSqlLogger(new SqlExecutionTimeLogger());
+
+        unitOfWorkFactory = new EventStoreManagedUnitOfWorkFactory(jdbi);
+        var jsonSerializer = new JacksonJSONEventSerializer(createObjectMapper());
+        persistenceStrategy = new SeparateTablePerAggregateTypePersistenceStrategy(jdbi,
+                                                                                   unitOfWorkFactory,
+                                                                                   new TestPersistableEventMapper(),
+                                                                                   standardSingleTenantConfiguration(aggregateType_ -> aggregateType_ + "_events",
+                                                                                                                     EventStreamTableColumnNames.defaultColumnNames(),
+                                                                                                                     jsonSerializer,
+                                                                                                                     IdentifierColumnType.UUID,
+                                                                                                                     JSONColumnType.JSONB));
+        eventStore = new PostgresqlEventStore<>(unitOfWorkFactory,
+                                                persistenceStrategy,
+                                                Optional.empty(),
+                                                eventStore -> new PostgresqlEventStreamGapHandler<>(eventStore,
+                                                                                                    unitOfWorkFactory));
+        eventStore.addAggregateEventStreamConfiguration(SeparateTablePerAggregateEventStreamConfiguration.standardSingleTenantConfiguration(ORDERS,
+                                                                                                                                            jsonSerializer,
+                                                                                                                                            AggregateIdSerializer.serializerFor(OrderId.class),
+                                                                                                                                            IdentifierColumnType.UUID,
+                                                                                                                                            JSONColumnType.JSONB)
+                                                                                                         .withEventStreamTablePartitioning(EventStreamTablePartitioning.byGlobalOrder(GLOBAL_ORDERS_PER_PARTITION)));
+    }
+
+    @AfterEach
+    void cleanup() {
+        unitOfWorkFactory.getCurrentUnitOfWork().ifPresent(UnitOfWork::rollback);
+        assertThat(unitOfWorkFactory.getCurrentUnitOfWork()).isEmpty();
+        persistenceStrategy.getEventStreamTablePartitionManager().ifPresent(EventStreamTablePartitionManager::stop);
+    }
+
+    @Test
+    void the_partitions_are_created_and_the_partition_manager_is_started_when_the_table_is_initialized() {
+        assertThat(persistenceStrategy.getPartitionedAggregateTypes()).containsExactly(ORDERS);
+        assertThat(persistenceStrategy.getEventStreamTablePartitionManager()).isPresent();
+        assertThat(persistenceStrategy.getEventStreamTablePartitionManager().get().isStarted()).isTrue();
+
+        // The partition containing the head of the (empty) event stream and the DEFAULT_PARTITIONS_AHEAD partitions after it
+        assertThat(persistenceStrategy.getEventStreamTablePartitions(ORDERS).stream()
+                                      .map(EventStreamTablePartition::partitionNumber)
+                                      .collect(Collectors.toList()))
+                .containsExactly(0L, 1L, 2L);
+        assertThat(persistenceStrategy.getEventStreamTablePartitions(ORDERS)).allMatch(EventStreamTablePartition::attached);
+    }
+
+    @Test
+    void events_appended_across_partitions_can_be_fetched_and_loaded_by_global_order() {
+        // Given
+        var orderId1 = OrderId.random();
+        var orderId2 = OrderId.random();
+
+        // When appending 25 events, i.e. events in partition 0, 1 and 2 (global orders start at 1)
+        for (var round = 0; round < 5; round++) {
+            var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+            var orderId    = round % 2 == 0 ? orderId1 : orderId2;
+            var events = IntStream.range(0, 5)
+                                  .mapToObj(index -> new OrderEvent.ProductAddedToOrder(orderId, ProductId.random(), index + 1))
+                                  .collect(Collectors.toList());
+            eventStore.appendToStream(ORDERS, orderId, events);
+            unitOfWork.commit();
+            persistenceStrategy.getEventStreamTablePartitionManager().get().maintainPartitions();
+        }
+
+        // Then the partitions ahead of the head of the event stream (global order 25, i.e. partition 2) have been created
+        assertThat(persistenceStrategy.getEventStreamTablePartitions(ORDERS).stream()
+                                      .map(EventStreamTablePartition::partitionNumber)
+                                      .collect(Collectors.toList()))
+                .containsExactly(0L, 1L, 2L, 3L, 4L);
+
+        // And the event streams can be fetched
+        var unitOfWork    = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var order1Events  = eventStore.fetchStream(ORDERS, orderId1).get().eventList();
+        var order2Events  = eventStore.fetchStream(ORDERS, orderId2).get().eventList();
+        assertThat(order1Events.size()).isEqualTo(15);
+        assertThat(order2Events.size()).isEqualTo(10);
+        assertThat(order1Events.stream().map(persistedEvent -> persistedEvent.eventOrder().longValue()).collect(Collectors.toList()))
+                .isEqualTo(LongStream.range(0, 15).boxed().collect(Collectors.toList()));
+        assertThat(order2Events.stream().map(persistedEvent -> persistedEvent.eventOrder().longValue()).collect(Collectors.toList()))
+                .isEqualTo(LongStream.range(0, 10).boxed().collect(Collectors.toList()));
+        assertThat(eventStore.fetchStream(ORDERS, orderId1, LongRange.between(5, 9)).get().eventList().size()).isEqualTo(5);
+
+        // And the events can be loaded by global order across partitions
+        var allEvents = eventStore.loadEventsByGlobalOrder(ORDERS, LongRange.from(GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER.longValue()))
+                                  .collect(Collectors.toList());
+        assertThat(allEvents.stream().map(persistedEvent -> persistedEvent.globalEventOrder().longValue()).collect(Collectors.toList()))
+                .isEqualTo(LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+
+        var eventsInPartition1 = eventStore.loadEventsByGlobalOrder(ORDERS, LongRange.between(10, 19))
+                                           .collect(Collectors.toList());
+        assertThat(eventsInPartition1.stream().map(persistedEvent -> persistedEvent.globalEventOrder().longValue()).collect(Collectors.toList()))
+                .isEqualTo(LongStream.rangeClosed(10, 19).boxed().collect(Collectors.toList()));
+        unitOfWork.rollback();
+    }
+
+    @Test
+    void appending_an_event_with_an_already_persisted_event_order_throws_OptimisticAppendToStreamException() {
+        // Given
+        var orderId    = OrderId.random();
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        eventStore.appendToStream(ORDERS,
+                                  orderId,
+                                  List.of(new OrderEvent.OrderAdded(orderId, CustomerId.random(), 1234),
+                                          new OrderEvent.ProductAddedToOrder(orderId, ProductId.random(), 2)));
+        unitOfWork.commit();
+
+        // When appending events with an overlapping event order (the uniqueness is enforced by the keys table trigger)
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        assertThatThrownBy(() -> eventStore.appendToStream(ORDERS,
+                                                           orderId,
+                                                           EventOrder.of(0),
+                                                           List.of(new OrderEvent.ProductRemovedFromOrder(orderId, ProductId.random()))))
+                .isExactlyInstanceOf(OptimisticAppendToStreamException.class);
+        unitOfWork.rollback();
+
+        // Then no events were persisted
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var eventStream = eventStore.fetchStream(ORDERS, orderId).get();
+        assertThat(eventStream.eventList().size()).isEqualTo(2);
+        assertThat(eventStream.eventList().get(1).event().getEventType()).isEqualTo(Optional.of(EventType.of(OrderEvent.ProductAddedToOrder.class)));
+        unitOfWork.rollback();
+    }
+
+    private ObjectMapper createObjectMapper() {
+        var objectMapper = JsonMapper.builder()
+                                     .disable(MapperFeature.AUTO_DETECT_GETTERS)
+                                     .disable(MapperFeature.AUTO_DETECT_IS_GETTERS)
+                                     .disable(MapperFeature.AUTO_DETECT_SETTERS)
+                                     .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                                     .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                     .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                                     .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                                     .enable(MapperFeature.AUTO_DETECT_CREATORS)
+                                     .enable(MapperFeature.AUTO_DETECT_FIELDS)
+                                     .enable(MapperFeature.PROPAGATE_TRANSIENT_MARKER)
+                                     .addModule(new Jdk8Module())
+                                     .addModule(new JavaTimeModule())
+                                     .addModule(new EssentialTypesJacksonModule())
+                                     .addModule(new EssentialsImmutableJacksonModule())
+                                     .build();
+
+        objectMapper.setVisibility(objectMapper.getSerializationConfig().getDefaultVisibilityChecker()
+                                               .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                                               .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                                               .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                                               .withCreatorVisibility(JsonAutoDetect.Visibility.ANY));
+        return objectMapper;
+    }
+
+    private static class TestPersistableEventMapper implements PersistableEventMapper {
+        @Override
+        public PersistableEvent map(Object aggregateId, AggregateEventStreamConfiguration aggregateEventStreamConfiguration, Object event, EventOrder eventOrder) {
+            return PersistableEvent.from(EventId.random(),
+                                         aggregateEventStreamConfiguration.aggregateType,
+                                         aggregateId,
+                                         EventTypeOrName.with(event.getClass()),
+                                         event,
+                                         eventOrder,
+                                         null, // Leave reading the EventRevision to the PersistableEvent's from method
+                                         EventMetaData.empty(),
+                                         OffsetDateTime.now(),
+                                         null,
+                                         CorrelationId.random(),
+                                         null);
+        }
+    }
+}
@@ -162,7 +162,7 @@ public class PostgresqlEventStoreBenchmark {
         });
     }
 
-    private static ObjectMapper createObjectMapper() {
+    static ObjectMapper createObjectMapper() {
         var objectMapper = JsonMapper.builder()
                                      .disable(MapperFeature.AUTO_DETECT_GETTERS)
                                      .disable(MapperFeature.AUTO_DETECT_IS_GETTERS)
@@ -188,7 +188,7 @@ public class PostgresqlEventStoreBenchmark {
         return objectMapper;
     }
 
-    private static class TestPersistableEventMapper implements PersistableEventMapper {
+    static class TestPersistableEventMapper implements PersistableEventMapper {
         private final CorrelationId correlationId   = CorrelationId.random();
         private final EventId       causedByEventId = EventId.random();
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql;
+
+import com.zaxxer.hikari.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.JacksonJSONEventSerializer;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.test_data.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.EventStoreManagedUnitOfWorkFactory;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.postgres.PostgresPlugin;
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares appending large event streams using the batched {@code INSERT} path (bulkAppendThreshold = 0)
+ * against the {@code COPY ... FROM STDIN (FORMAT binary)} path (bulkAppendThreshold = 1)
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class PostgresqlEventStoreBulkAppendBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Benchmark)
+    public static class PerformanceTestState {
+
+        @Param({"100", "1000", "5000"})
+        public  int                                                                     appendedEvents;
+        @Param({"0", "1"})
+        public  int                                                                     bulkAppendThreshold;
+        private PostgreSQLContainer<?>                                                  postgreSQLContainer;
+        private HikariDataSource                                                        ds;
+        public  AggregateType                                                           aggregateType;
+        public  EventStoreManagedUnitOfWorkFactory                                      unitOfWorkFactory;
+        public  PostgresqlEventStore<SeparateTablePerAggregateEventStreamConfiguration> eventStore;
+        public  AtomicLong                                                              orderNumber = new AtomicLong(0);
+
+        @Setup(Level.Trial)
+        public void trialSetUp() {
+            postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+                    .withDatabaseName("event-store")
+                    .withUsername("test-user")
+                    .withPassword("secret-password");
+            postgreSQLContainer.start();
+            HikariConfig hikariConfig = new HikariConfig();
+            hikariConfig.setJdbcUrl(postgreSQLContainer.getJdbcUrl());
+            hikariConfig.setUsername(postgreSQLContainer.getUsername());
+            hikariConfig.setPassword(postgreSQLContainer.getPassword());
+            ds = new HikariDataSource(hikariConfig);
+            var jdbi = Jdbi.create(ds);
+            jdbi.installPlugin(new PostgresPlugin());
+
+            aggregateType = AggregateType.of("Orders");
+            unitOfWorkFactory = new EventStoreManagedUnitOfWorkFactory(jdbi);
+            var persistenceStrategy = new SeparateTablePerAggregateTypePersistenceStrategy(jdbi,
+                                                                                           unitOfWorkFactory,
+                                                                                           new PostgresqlEventStoreBenchmark.TestPersistableEventMapper(),
+                                                                                           SeparateTablePerAggregateTypeEventStreamConfigurationFactory.standardSingleTenantConfiguration(new JacksonJSONEventSerializer(PostgresqlEventStoreBenchmark.createObjectMapper()),
+                                                                                                                                                                                          IdentifierColumnType.UUID,
+                                                                                                                                                                                          JSONColumnType.JSONB))
+                    .setBulkAppendThreshold(bulkAppendThreshold);
+            eventStore = new PostgresqlEventStore<>(unitOfWorkFactory,
+                                                    persistenceStrategy);
+            eventStore.addAggregateEventStreamConfiguration(aggregateType,
+                                                            OrderId.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void trialTeardown() {
+            ds.close();
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Benchmark
+    public void appendLargeEventStream(PerformanceTestState state) {
+        state.unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            var orderId      = OrderId.random();
+            var appendEvents = new ArrayList<OrderEvent>(state.appendedEvents + 1);
+            appendEvents.add(new OrderEvent.OrderAdded(orderId,
+                                                       CustomerId.random(),
+                                                       state.orderNumber.incrementAndGet()));
+            for (var i = 0; i < state.appendedEvents; i++) {
+                appendEvents.add(new OrderEvent.ProductAddedToOrder(orderId,
+                                                                    ProductId.random(),
+                                                                    2));
+            }
+            state.eventStore.appendToStream(state.aggregateType,
+                                            orderId,
+                                            appendEvents);
+        });
+    }
+}
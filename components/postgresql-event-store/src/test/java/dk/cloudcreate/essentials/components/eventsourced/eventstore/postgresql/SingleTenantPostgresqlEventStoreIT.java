@@ -24,6 +24,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.bus.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.PostgresqlEventStreamGapHandler;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.operations.AppendToStream;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.*;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.AggregateIdSerializer;
@@ -783,6 +784,215 @@ class SingleTenantPostgresqlEventStoreIT {
         assertThat(eventsLoaded.get(0).correlationId()).isEqualTo(Optional.of(eventMapper.correlationId));
     }
 
+    @Test
+    void bulk_append_events_using_copy() {
+        // Given
+        ((SeparateTablePerAggregateTypePersistenceStrategy) eventStore.getPersistenceStrategy()).setBulkAppendThreshold(2);
+        var orderId    = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe2222");
+        var customerId = CustomerId.of("Test-Customer-Id-4");
+        var appendEvents = List.of(new OrderEvent.OrderAdded(orderId,
+                                                             customerId,
+                                                             4321),
+                                   new OrderEvent.ProductAddedToOrder(orderId,
+                                                                      ProductId.of("ProductId-1"),
+                                                                      2),
+                                   new OrderEvent.ProductRemovedFromOrder(orderId,
+                                                                          ProductId.of("ProductId-1")));
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+
+        // When
+        var persistedEventsStream = eventStore.appendToStream(aggregateType,
+                                                              orderId,
+                                                              appendEvents);
+        unitOfWork.commit();
+
+        // Then
+        assertThat(persistedEventsStream.eventOrderRangeIncluded()).isEqualTo(LongRange.between(0, 2));
+        var eventsPersisted = persistedEventsStream.eventList();
+        assertThat(eventsPersisted.stream().map(PersistedEvent::globalEventOrder).collect(Collectors.toList()))
+                .containsExactly(GlobalEventOrder.of(1), GlobalEventOrder.of(2), GlobalEventOrder.of(3));
+
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var eventsLoaded = eventStore.fetchStream(aggregateType,
+                                                  orderId).get().eventList();
+        unitOfWork.rollback();
+        assertThat(eventsLoaded.size()).isEqualTo(3);
+        for (var i = 0; i < eventsLoaded.size(); i++) {
+            assertThat((CharSequence) eventsLoaded.get(i).eventId()).isEqualTo(eventsPersisted.get(i).eventId());
+            assertThat(eventsLoaded.get(i).eventOrder()).isEqualTo(EventOrder.of(i));
+            assertThat(eventsLoaded.get(i).globalEventOrder()).isEqualTo(eventsPersisted.get(i).globalEventOrder());
+            assertThat(eventsLoaded.get(i).eventRevision()).isEqualTo(eventsPersisted.get(i).eventRevision());
+            assertThat(eventsLoaded.get(i).event().getJsonDeserialized().get()).usingRecursiveComparison().isEqualTo(appendEvents.get(i));
+            assertThat(eventsLoaded.get(i).metaData().getJsonDeserialized()).isEqualTo(Optional.of(META_DATA));
+            assertThat(eventsLoaded.get(i).causedByEventId()).isEqualTo(Optional.of(eventMapper.causedByEventId));
+            assertThat(eventsLoaded.get(i).correlationId()).isEqualTo(Optional.of(eventMapper.correlationId));
+        }
+    }
+
+    @Test
+    void bulk_append_events_using_copy_with_overlapping_event_order() {
+        // Given
+        ((SeparateTablePerAggregateTypePersistenceStrategy) eventStore.getPersistenceStrategy()).setBulkAppendThreshold(2);
+        var orderId    = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe3333");
+        var customerId = CustomerId.of("Test-Customer-Id-5");
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        eventStore.appendToStream(aggregateType,
+                                  orderId,
+                                  List.of(new OrderEvent.OrderAdded(orderId,
+                                                                    customerId,
+                                                                    5678)));
+        unitOfWork.commit();
+
+        // When
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var appendEvents = List.of(new OrderEvent.ProductAddedToOrder(orderId,
+                                                                      ProductId.of("ProductId-1"),
+                                                                      2),
+                                   new OrderEvent.ProductRemovedFromOrder(orderId,
+                                                                          ProductId.of("ProductId-1")));
+        assertThatThrownBy(() -> eventStore.appendToStream(aggregateType,
+                                                           orderId,
+                                                           EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED, // -1
+                                                           appendEvents))
+                .isExactlyInstanceOf(OptimisticAppendToStreamException.class);
+        unitOfWork.rollback();
+
+        // Then
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var eventsLoaded = eventStore.fetchStream(aggregateType,
+                                                  orderId).get().eventList();
+        unitOfWork.rollback();
+        assertThat(eventsLoaded.size()).isEqualTo(1);
+    }
+
+    @Test
+    void append_events_to_multiple_streams_in_one_operation() {
+        // Given
+        var orderId1 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe4444");
+        var orderId2 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe5555");
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        eventStore.appendToStream(aggregateType,
+                                  orderId2,
+                                  List.of(new OrderEvent.OrderAdded(orderId2,
+                                                                    CustomerId.of("Test-Customer-Id-7"),
+                                                                    7777)));
+        unitOfWork.commit();
+        recordingLocalEventBusConsumer.clear();
+
+        // When
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var persistedStreams = eventStore.appendToStreams(List.<AppendToStream<?>>of(new AppendToStream<>(aggregateType,
+                                                                                                          orderId1,
+                                                                                                          new OrderEvent.OrderAdded(orderId1,
+                                                                                                                                    CustomerId.of("Test-Customer-Id-6"),
+                                                                                                                                    6666),
+                                                                                                          new OrderEvent.ProductAddedToOrder(orderId1,
+                                                                                                                                             ProductId.of("ProductId-1"),
+                                                                                                                                             2)),
+                                                                                     new AppendToStream<>(aggregateType,
+                                                                                                          orderId2,
+                                                                                                          Optional.of(0L),
+                                                                                                          List.of(new OrderEvent.ProductAddedToOrder(orderId2,
+                                                                                                                                                     ProductId.of("ProductId-2"),
+                                                                                                                                                     1)))));
+        unitOfWork.commit();
+
+        // Then
+        assertThat(persistedStreams).hasSize(2);
+        assertThat((CharSequence) persistedStreams.get(0).aggregateId()).isEqualTo(orderId1);
+        assertThat(persistedStreams.get(0).eventOrderRangeIncluded()).isEqualTo(LongRange.between(0, 1));
+        assertThat(persistedStreams.get(0).eventList().stream().map(PersistedEvent::globalEventOrder).collect(Collectors.toList()))
+                .containsExactly(GlobalEventOrder.of(2), GlobalEventOrder.of(3));
+        assertThat((CharSequence) persistedStreams.get(1).aggregateId()).isEqualTo(orderId2);
+        assertThat(persistedStreams.get(1).eventOrderRangeIncluded()).isEqualTo(LongRange.between(1, 1));
+        assertThat(persistedStreams.get(1).eventList().get(0).globalEventOrder()).isEqualTo(GlobalEventOrder.of(4));
+        assertThat(recordingLocalEventBusConsumer.beforeCommitPersistedEvents).hasSize(3);
+        assertThat(recordingLocalEventBusConsumer.afterCommitPersistedEvents).hasSize(3);
+
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        assertThat(eventStore.fetchStream(aggregateType, orderId1).get().eventList()).hasSize(2);
+        assertThat(eventStore.fetchStream(aggregateType, orderId2).get().eventList()).hasSize(2);
+        unitOfWork.rollback();
+    }
+
+    @Test
+    void append_events_to_multiple_streams_resolves_the_event_order_of_all_streams() {
+        // Given
+        var orderId1 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe8888");
+        var orderId2 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe9999");
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        eventStore.appendToStream(aggregateType,
+                                  orderId2,
+                                  List.of(new OrderEvent.OrderAdded(orderId2,
+                                                                    CustomerId.of("Test-Customer-Id-11"),
+                                                                    1111),
+                                          new OrderEvent.ProductAddedToOrder(orderId2,
+                                                                             ProductId.of("ProductId-1"),
+                                                                             1)));
+        unitOfWork.commit();
+
+        // When
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var persistedStreams = eventStore.appendToStreams(List.<AppendToStream<?>>of(new AppendToStream<>(aggregateType,
+                                                                                                          orderId1,
+                                                                                                          new OrderEvent.OrderAdded(orderId1,
+                                                                                                                                    CustomerId.of("Test-Customer-Id-10"),
+                                                                                                                                    1010)),
+                                                                                     new AppendToStream<>(aggregateType,
+                                                                                                          orderId2,
+                                                                                                          new OrderEvent.ProductAddedToOrder(orderId2,
+                                                                                                                                             ProductId.of("ProductId-2"),
+                                                                                                                                             2))));
+        unitOfWork.commit();
+
+        // Then
+        assertThat(persistedStreams).hasSize(2);
+        assertThat(persistedStreams.get(0).eventOrderRangeIncluded()).isEqualTo(LongRange.only(0));
+        assertThat(persistedStreams.get(1).eventOrderRangeIncluded()).isEqualTo(LongRange.only(2));
+
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        assertThat(eventStore.fetchStream(aggregateType, orderId1).get().eventList()).hasSize(1);
+        assertThat(eventStore.fetchStream(aggregateType, orderId2).get().eventList()).hasSize(3);
+        unitOfWork.rollback();
+    }
+
+    @Test
+    void append_events_to_multiple_streams_with_overlapping_event_order() {
+        // Given
+        var orderId1 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe6666");
+        var orderId2 = OrderId.of("beed77fb-d911-480f-9c48-03ed5bfe7777");
+        var unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        eventStore.appendToStream(aggregateType,
+                                  orderId2,
+                                  List.of(new OrderEvent.OrderAdded(orderId2,
+                                                                    CustomerId.of("Test-Customer-Id-9"),
+                                                                    9999)));
+        unitOfWork.commit();
+
+        // When
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        var appendToStreams = List.<AppendToStream<?>>of(new AppendToStream<>(aggregateType,
+                                                                              orderId1,
+                                                                              new OrderEvent.OrderAdded(orderId1,
+                                                                                                        CustomerId.of("Test-Customer-Id-8"),
+                                                                                                        8888)),
+                                                         new AppendToStream<>(aggregateType,
+                                                                              orderId2,
+                                                                              Optional.of(EventOrder.NO_EVENTS_PREVIOUSLY_PERSISTED.longValue()),
+                                                                              List.of(new OrderEvent.ProductAddedToOrder(orderId2,
+                                                                                                                         ProductId.of("ProductId-2"),
+                                                                                                                         1))));
+        assertThatThrownBy(() -> eventStore.appendToStreams(appendToStreams))
+                .isExactlyInstanceOf(OptimisticAppendToStreamException.class);
+        unitOfWork.rollback();
+
+        // Then
+        unitOfWork = unitOfWorkFactory.getOrCreateNewUnitOfWork();
+        assertThat(eventStore.fetchStream(aggregateType, orderId1)).isEmpty();
+        assertThat(eventStore.fetchStream(aggregateType, orderId2).get().eventList()).hasSize(1);
+        unitOfWork.rollback();
+    }
+
     @Test
     void test_inMemory_Projection() {
         // Given
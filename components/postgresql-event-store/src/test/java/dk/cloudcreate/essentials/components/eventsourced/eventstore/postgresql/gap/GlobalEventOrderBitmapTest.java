@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalEventOrderBitmapTest {
+    @Test
+    void add_contains_and_remove_across_chunks() {
+        var bitmap = new GlobalEventOrderBitmap();
+        assertThat(bitmap.isEmpty()).isTrue();
+
+        assertThat(bitmap.add(5)).isTrue();
+        assertThat(bitmap.add(5)).isFalse();
+        assertThat(bitmap.add(70_000)).isTrue();
+        assertThat(bitmap.add(Long.MAX_VALUE)).isTrue();
+
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.contains(5)).isTrue();
+        assertThat(bitmap.contains(GlobalEventOrder.of(70_000))).isTrue();
+        assertThat(bitmap.contains(6)).isFalse();
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.toArray()).containsExactly(5, 70_000, Long.MAX_VALUE);
+
+        assertThat(bitmap.remove(70_000)).isTrue();
+        assertThat(bitmap.remove(70_000)).isFalse();
+        assertThat(bitmap.toArray()).containsExactly(5, Long.MAX_VALUE);
+    }
+
+    @Test
+    void dense_chunks_are_converted_to_bitmaps_and_back() {
+        var bitmap = new GlobalEventOrderBitmap();
+        LongStream.range(0, 10_000).map(value -> value * 2).forEach(bitmap::add);
+        assertThat(bitmap.cardinality()).isEqualTo(10_000);
+        assertThat(bitmap.contains(19_998)).isTrue();
+        assertThat(bitmap.contains(19_999)).isFalse();
+        assertThat(bitmap.stream().limit(3)).containsExactly(0L, 2L, 4L);
+
+        LongStream.range(0, 9_000).map(value -> value * 2).forEach(bitmap::remove);
+        assertThat(bitmap.cardinality()).isEqualTo(1_000);
+        assertThat(bitmap.toArray()).containsExactly(LongStream.range(9_000, 10_000).map(value -> value * 2).toArray());
+
+        bitmap.add(1);
+        assertThat(bitmap.toArray()[0]).isEqualTo(1);
+    }
+
+    @Test
+    void bulk_operations() {
+        var bitmap = GlobalEventOrderBitmap.of(List.of(GlobalEventOrder.of(1), GlobalEventOrder.of(2), GlobalEventOrder.of(3), GlobalEventOrder.of(100_000)));
+        var other  = GlobalEventOrderBitmap.of(2, 3, 4, 200_000);
+
+        assertThat(bitmap.intersection(other).toArray()).containsExactly(2, 3);
+
+        var copy = bitmap.copy().addAll(other);
+        assertThat(copy.toArray()).containsExactly(1, 2, 3, 4, 100_000, 200_000);
+        assertThat(bitmap.cardinality()).isEqualTo(4);
+
+        copy.removeAll(bitmap);
+        assertThat(copy.toGlobalEventOrders()).containsExactly(GlobalEventOrder.of(4), GlobalEventOrder.of(200_000));
+        assertThat(copy).isEqualTo(GlobalEventOrderBitmap.of(4, 200_000));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BinaryCopyRowEncoderTest {
+    @Test
+    void encodes_header_rows_and_trailer_in_the_binary_copy_format() throws IOException {
+        var uuid = UUID.fromString("beed77fb-d911-480f-9c48-03ed5bfe1111");
+        var input = new DataInputStream(new BinaryCopyRowEncoder().startRow(6)
+                                                                   .writeUuid(uuid)
+                                                                   .writeBigint(42)
+                                                                   .writeText("Hello")
+                                                                   .writeTimestampWithTimeZone(OffsetDateTime.of(2000, 1, 1, 0, 0, 1, 0, ZoneOffset.UTC))
+                                                                   .writeJsonb("{}")
+                                                                   .writeText(null)
+                                                                   .finish());
+
+        // Header
+        var signature = new byte[11];
+        input.readFully(signature);
+        assertThat(signature).isEqualTo(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        assertThat(input.readInt()).isEqualTo(0);
+        assertThat(input.readInt()).isEqualTo(0);
+
+        // Row
+        assertThat(input.readShort()).isEqualTo((short) 6);
+        assertThat(input.readInt()).isEqualTo(16);
+        assertThat(new UUID(input.readLong(), input.readLong())).isEqualTo(uuid);
+        assertThat(input.readInt()).isEqualTo(8);
+        assertThat(input.readLong()).isEqualTo(42);
+        assertThat(input.readInt()).isEqualTo(5);
+        assertThat(new String(input.readNBytes(5), StandardCharsets.UTF_8)).isEqualTo("Hello");
+        assertThat(input.readInt()).isEqualTo(8);
+        assertThat(input.readLong()).isEqualTo(1_000_000L);
+        assertThat(input.readInt()).isEqualTo(3);
+        assertThat(input.readByte()).isEqualTo((byte) 1);
+        assertThat(new String(input.readNBytes(2), StandardCharsets.UTF_8)).isEqualTo("{}");
+        assertThat(input.readInt()).isEqualTo(-1);
+
+        // Trailer
+        assertThat(input.readShort()).isEqualTo((short) -1);
+        assertThat(input.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void timestamps_are_encoded_as_utc_microseconds_since_the_postgresql_epoch() throws IOException {
+        var input = new DataInputStream(new BinaryCopyRowEncoder().startRow(1)
+                                                                   .writeTimestampWithTimeZone(OffsetDateTime.of(1999, 12, 31, 23, 0, 0, 1_000, ZoneOffset.ofHours(-1)))
+                                                                   .finish());
+        input.skipNBytes(11 + 4 + 4 + 2 + 4);
+
+        assertThat(input.readLong()).isEqualTo(1L);
+    }
+
+    @Test
+    void cannot_write_after_finish() {
+        var encoder = new BinaryCopyRowEncoder();
+        encoder.finish();
+
+        assertThatThrownBy(() -> encoder.startRow(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.foundation.postgresql.InvalidTableOrColumnNameException;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventStreamTablePartitioningTest {
+    @Test
+    void global_order_partitions_cover_consecutive_ranges() {
+        var partitioning = EventStreamTablePartitioning.byGlobalOrder(1000);
+
+        assertThat(partitioning.partitionNumberFor(1)).isEqualTo(0);
+        assertThat(partitioning.partitionNumberFor(999)).isEqualTo(0);
+        assertThat(partitioning.partitionNumberFor(1000)).isEqualTo(1);
+        assertThat(partitioning.partitionBoundFor(1)).isEqualTo("1000");
+        assertThat(partitioning.partitionBoundFor(2)).isEqualTo("2000");
+    }
+
+    @Test
+    void timestamp_partitions_are_aligned_to_the_epoch() {
+        var partitioning = EventStreamTablePartitioning.byTimestamp(Duration.ofDays(1));
+
+        var partitionNumber = partitioning.partitionNumberFor(Instant.parse("2024-03-15T13:45:00Z"));
+
+        assertThat(partitionNumber).isEqualTo(partitioning.partitionNumberFor(Instant.parse("2024-03-15T00:00:00Z")));
+        assertThat(partitioning.partitionBoundFor(partitionNumber)).isEqualTo("'2024-03-15T00:00Z'");
+        assertThat(partitioning.partitionBoundFor(partitionNumber + 1)).isEqualTo("'2024-03-16T00:00Z'");
+    }
+
+    @Test
+    void invalid_configurations_are_rejected() {
+        assertThatThrownBy(() -> EventStreamTablePartitioning.byGlobalOrder(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventStreamTablePartitioning.byTimestamp(Duration.ofMillis(1500))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventStreamTablePartitioning.byGlobalOrder(1000).withPartitionsAhead(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventStreamTablePartitioning.byGlobalOrder(1000).withArchiveTablespace("invalid name", 2)).isInstanceOf(InvalidTableOrColumnNameException.class);
+        assertThatThrownBy(() -> EventStreamTablePartitioning.byGlobalOrder(1000).partitionNumberFor(Instant.now())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.JSONEventSerializer;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PersistedEventRowMapperTest {
+    private static final List<String> COLUMN_NAMES = List.of("global_order",
+                                                             "timestamp",
+                                                             "event_id",
+                                                             "caused_by_event_id",
+                                                             "correlation_id",
+                                                             "aggregate_id",
+                                                             "event_order",
+                                                             "event_type",
+                                                             "event_revision",
+                                                             "event_payload",
+                                                             "event_metadata",
+                                                             "tenant");
+
+    private JSONEventSerializer                               jsonSerializer;
+    private SeparateTablePerAggregateEventStreamConfiguration configuration;
+    private PersistedEventRowMapper                           rowMapper;
+
+    @BeforeEach
+    void setup() {
+        jsonSerializer = mock(JSONEventSerializer.class);
+        configuration = new SeparateTablePerAggregateEventStreamConfiguration(AggregateType.of("Orders"),
+                                                                              "orders_events",
+                                                                              EventStreamTableColumnNames.defaultColumnNames(),
+                                                                              10,
+                                                                              jsonSerializer,
+                                                                              AggregateIdSerializer.serializerFor(String.class),
+                                                                              IdentifierColumnType.TEXT,
+                                                                              IdentifierColumnType.TEXT,
+                                                                              IdentifierColumnType.TEXT,
+                                                                              JSONColumnType.JSONB,
+                                                                              JSONColumnType.JSONB,
+                                                                              new TenantSerializer.TenantIdSerializer());
+        rowMapper = new PersistedEventRowMapper(mock(SeparateTablePerAggregateTypePersistenceStrategy.class),
+                                                configuration);
+    }
+
+    @Test
+    void column_indexes_are_resolved_once_per_result_set() throws Exception {
+        var resultSet = mockResultSet("{\"orderId\":\"order-1\"}".getBytes(StandardCharsets.UTF_8));
+        var ctx       = mock(StatementContext.class);
+
+        var specializedRowMapper = rowMapper.specialize(resultSet, ctx);
+        specializedRowMapper.map(resultSet, ctx);
+        specializedRowMapper.map(resultSet, ctx);
+        specializedRowMapper.map(resultSet, ctx);
+
+        COLUMN_NAMES.forEach(columnName -> {
+            try {
+                verify(resultSet, times(1)).findColumn(columnName);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        verify(resultSet, never()).getString(anyString());
+        verify(resultSet, never()).getBytes(anyString());
+    }
+
+    @Test
+    void event_payload_and_meta_data_are_only_decoded_when_requested() throws Exception {
+        var json      = "{\"orderId\":\"order-1\"}";
+        var resultSet = mockResultSet(json.getBytes(StandardCharsets.UTF_8));
+        var ctx       = mock(StatementContext.class);
+
+        var persistedEvent = rowMapper.specialize(resultSet, ctx).map(resultSet, ctx);
+
+        assertThat(persistedEvent.aggregateId()).isEqualTo("order-1");
+        assertThat(persistedEvent.eventOrder()).isEqualTo(EventOrder.of(2));
+        assertThat(persistedEvent.globalEventOrder()).isEqualTo(GlobalEventOrder.of(5));
+        assertThat(persistedEvent.event().getEventName()).isEqualTo(Optional.of(EventName.of("OrderAdded")));
+        assertThat(persistedEvent.tenant()).isEmpty();
+        verifyNoInteractions(jsonSerializer);
+
+        assertThat(persistedEvent.event().getJson()).isEqualTo(json);
+        assertThat(persistedEvent.metaData().getJson()).isEqualTo("{}");
+        // Decoding is idempotent
+        assertThat(persistedEvent.event().getJson()).isEqualTo(json);
+    }
+
+    @Test
+    void jsonb_binary_version_prefix_is_stripped() throws Exception {
+        var json       = "{\"orderId\":\"order-1\"}";
+        var jsonBytes  = json.getBytes(StandardCharsets.UTF_8);
+        var jsonbBytes = new byte[jsonBytes.length + 1];
+        jsonbBytes[0] = 1;
+        System.arraycopy(jsonBytes, 0, jsonbBytes, 1, jsonBytes.length);
+        var resultSet = mockResultSet(jsonbBytes);
+        var ctx       = mock(StatementContext.class);
+
+        var persistedEvent = rowMapper.map(resultSet, ctx);
+
+        assertThat(persistedEvent.event().getJson()).isEqualTo(json);
+    }
+
+    private ResultSet mockResultSet(byte[] eventPayload) throws Exception {
+        var resultSet = mock(ResultSet.class);
+        for (int i = 0; i < COLUMN_NAMES.size(); i++) {
+            when(resultSet.findColumn(COLUMN_NAMES.get(i))).thenReturn(i + 1);
+        }
+        when(resultSet.getLong(index("global_order"))).thenReturn(5L);
+        when(resultSet.getObject(index("timestamp"), OffsetDateTime.class)).thenReturn(OffsetDateTime.now());
+        when(resultSet.getString(index("event_id"))).thenReturn(UUID.randomUUID().toString());
+        when(resultSet.getString(index("aggregate_id"))).thenReturn("order-1");
+        when(resultSet.getLong(index("event_order"))).thenReturn(2L);
+        when(resultSet.getString(index("event_type"))).thenReturn("OrderAdded");
+        when(resultSet.getInt(index("event_revision"))).thenReturn(1);
+        when(resultSet.getBytes(index("event_payload"))).thenReturn(eventPayload);
+        when(resultSet.getBytes(index("event_metadata"))).thenReturn("{}".getBytes(StandardCharsets.UTF_8));
+        return resultSet;
+    }
+
+    private static int index(String columnName) {
+        return COLUMN_NAMES.indexOf(columnName) + 1;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener.EventStreamTableNotification;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.postgresql.*;
+import dk.cloudcreate.essentials.reactive.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresqlEventStreamListenerTest {
+    private static final AggregateType ORDERS = AggregateType.of("Orders");
+
+    private LocalEventBus                 eventBus;
+    private PostgresqlEventStreamListener listener;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setup() {
+        eventBus = new LocalEventBus("test", 1);
+        var multiTableChangeListener = (MultiTableChangeListener<TableChangeNotification>) mock(MultiTableChangeListener.class);
+        when(multiTableChangeListener.getEventBus()).thenReturn(eventBus);
+        listener = new PostgresqlEventStreamListener(multiTableChangeListener, Duration.ofSeconds(5));
+        listener.listenForChangesTo(ORDERS, "ORDERS_EVENTS");
+        listener.start();
+        verify(multiTableChangeListener).listenToNotificationsFor(eq("orders_events"), eq(EventStreamTableNotification.class));
+    }
+
+    @AfterEach
+    void cleanup() {
+        listener.stop();
+    }
+
+    @Test
+    void notifications_advance_the_highest_notified_global_order() {
+        assertThat(listener.isListeningFor(ORDERS)).isTrue();
+        assertThat(listener.getHighestNotifiedGlobalOrder(ORDERS)).isEmpty();
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 1)).isFalse();
+
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 10));
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 5));
+
+        assertThat(listener.getHighestNotifiedGlobalOrder(ORDERS)).hasValue(GlobalEventOrder.of(10));
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 10)).isTrue();
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 11)).isFalse();
+    }
+
+    @Test
+    void unknown_aggregate_types_should_always_be_polled() throws InterruptedException {
+        var unknown = AggregateType.of("Unknown");
+        assertThat(listener.isListeningFor(unknown)).isFalse();
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(unknown, 100)).isTrue();
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(unknown, 100, 0)).isTrue();
+        assertThat(listener.awaitEventsPersistedFrom(unknown, 100, 0, Duration.ofSeconds(5))).isTrue();
+    }
+
+    @Test
+    void await_returns_when_a_covering_notification_arrives() throws Exception {
+        var awaiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return listener.awaitEventsPersistedFrom(ORDERS, 3, 0, Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(100);
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 2));
+        Thread.sleep(100);
+        assertThat(awaiting).isNotDone();
+
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 3));
+        assertThat(awaiting.get(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void await_times_out_without_notifications() throws InterruptedException {
+        assertThat(listener.awaitEventsPersistedFrom(ORDERS, 1, 0, Duration.ofMillis(50))).isFalse();
+    }
+
+    @Test
+    void notifications_below_the_highest_notified_global_order_are_not_dropped() {
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 10));
+        assertThat(listener.getNotificationCount(ORDERS)).isEqualTo(1);
+        var notificationCountAtLastQuery = listener.getNotificationCount(ORDERS);
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 5, notificationCountAtLastQuery)).isFalse();
+
+        // A transaction that was assigned a lower global order commits last
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 5));
+
+        assertThat(listener.getNotificationCount(ORDERS)).isEqualTo(2);
+        assertThat(listener.getHighestNotifiedGlobalOrder(ORDERS)).hasValue(GlobalEventOrder.of(10));
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 5, notificationCountAtLastQuery)).isTrue();
+        assertThat(listener.hasBeenNotifiedOfEventsFrom(ORDERS, 6, notificationCountAtLastQuery)).isFalse();
+    }
+
+    @Test
+    void await_is_woken_by_a_notification_below_the_highest_notified_global_order() throws Exception {
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 10));
+        var notificationCountAtLastQuery = listener.getNotificationCount(ORDERS);
+        var awaiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return listener.awaitEventsPersistedFrom(ORDERS, 5, notificationCountAtLastQuery, Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(100);
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 4));
+        Thread.sleep(100);
+        assertThat(awaiting).isNotDone();
+
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 5));
+        assertThat(awaiting.get(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void await_returns_immediately_if_a_covering_notification_arrived_after_the_last_query() throws InterruptedException {
+        var notificationCountAtLastQuery = listener.getNotificationCount(ORDERS);
+        eventBus.publish(new EventStreamTableNotification("orders_events", ListenNotify.SqlOperation.INSERT, 7));
+
+        assertThat(listener.awaitEventsPersistedFrom(ORDERS, 7, notificationCountAtLastQuery, Duration.ofMillis(1))).isTrue();
+        assertThat(listener.awaitEventsPersistedFrom(ORDERS, 7, listener.getNotificationCount(ORDERS), Duration.ofMillis(50))).isFalse();
+    }
+
+    @Test
+    void a_MultiTableChangeListener_is_required() {
+        assertThatThrownBy(() -> new PostgresqlEventStreamListener(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.EventJSON;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
+import dk.cloudcreate.essentials.components.foundation.fencedlock.*;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import dk.cloudcreate.essentials.shared.functional.CheckedConsumer;
+import org.junit.jupiter.api.*;
+import reactor.core.publisher.Flux;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BatchedPersistedEventHandlerTest {
+    private static final AggregateType ORDERS        = AggregateType.of("Orders");
+    private static final SubscriberId  SUBSCRIBER_ID = SubscriberId.of("BatchedSubscriber");
+
+    private EventStore                    eventStore;
+    private SubscriptionResumePoint       resumePoint;
+    private EventStoreSubscriptionManager subscriptionManager;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setup() throws Exception {
+        eventStore = mock(EventStore.class);
+        var unitOfWorkFactory = (EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>) mock(EventStoreUnitOfWorkFactory.class);
+        when(eventStore.getUnitOfWorkFactory()).thenReturn(unitOfWorkFactory);
+        doAnswer(invocation -> {
+            ((CheckedConsumer<EventStoreUnitOfWork>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(unitOfWorkFactory).usingUnitOfWork(any(CheckedConsumer.class));
+
+        resumePoint = new SubscriptionResumePoint(SUBSCRIBER_ID, ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, OffsetDateTime.now());
+        var durableSubscriptionRepository = mock(DurableSubscriptionRepository.class);
+        when(durableSubscriptionRepository.getOrCreateResumePoint(eq(SUBSCRIBER_ID), eq(ORDERS), any(GlobalEventOrder.class))).thenReturn(resumePoint);
+
+        var fencedLockManager = mock(FencedLockManager.class);
+        when(fencedLockManager.getLockManagerInstanceId()).thenReturn("test");
+
+        subscriptionManager = EventStoreSubscriptionManager.builder()
+                                                           .setEventStore(eventStore)
+                                                           .setEventStorePollingBatchSize(10)
+                                                           .setEventStorePollingInterval(Duration.ofMillis(100))
+                                                           .setFencedLockManager(fencedLockManager)
+                                                           .setSnapshotResumePointsEvery(Duration.ofSeconds(10))
+                                                           .setDurableSubscriptionRepository(durableSubscriptionRepository)
+                                                           .build();
+        subscriptionManager.start();
+    }
+
+    @AfterEach
+    void cleanup() {
+        subscriptionManager.stop();
+    }
+
+    @Test
+    void events_are_handled_in_batches_and_the_resume_point_is_advanced_per_batch() {
+        givenPersistedEvents(25);
+        var handler = new RecordingBatchedPersistedEventHandler(Optional.empty());
+
+        subscriptionManager.subscribeToAggregateEventsAsynchronously(SUBSCRIBER_ID,
+                                                                     ORDERS,
+                                                                     GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                                                     Optional.empty(),
+                                                                     handler);
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> assertThat(resumePoint.getResumeFromAndIncluding()).isEqualTo(GlobalEventOrder.of(26)));
+        assertThat(handler.batches.stream().map(List::size).collect(Collectors.toList())).containsExactly(10, 10, 5);
+        assertThat(handler.batches.stream().flatMap(List::stream).collect(Collectors.toList()))
+                .isEqualTo(LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+        assertThat(handler.individuallyHandled).isEmpty();
+    }
+
+    @Test
+    void a_failing_batch_falls_back_to_handling_each_event_individually() {
+        givenPersistedEvents(5);
+        var handler = new RecordingBatchedPersistedEventHandler(Optional.of(3L));
+
+        subscriptionManager.subscribeToAggregateEventsAsynchronously(SUBSCRIBER_ID,
+                                                                     ORDERS,
+                                                                     GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                                                     Optional.empty(),
+                                                                     handler);
+
+        await().atMost(Duration.ofSeconds(5))
+               .untilAsserted(() -> assertThat(resumePoint.getResumeFromAndIncluding()).isEqualTo(GlobalEventOrder.of(6)));
+        assertThat(handler.batches).isEmpty();
+        assertThat(handler.individuallyHandled).containsExactly(1L, 2L, 4L, 5L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPersistedEvents(int numberOfEvents) {
+        var persistedEvents = new ArrayList<PersistedEvent>();
+        for (var globalOrder = 1; globalOrder <= numberOfEvents; globalOrder++) {
+            var persistedEvent = mock(PersistedEvent.class);
+            var eventJSON      = mock(EventJSON.class);
+            when(persistedEvent.globalEventOrder()).thenReturn(GlobalEventOrder.of(globalOrder));
+            when(persistedEvent.event()).thenReturn(eventJSON);
+            when(eventJSON.getEventTypeOrName()).thenReturn(EventTypeOrName.with(EventName.of("TestEvent")));
+            persistedEvents.add(persistedEvent);
+        }
+        when(eventStore.pollEvents(eq(ORDERS), any(GlobalEventOrder.class), any(Optional.class), any(Optional.class), any(Optional.class), any(Optional.class)))
+                .thenReturn(Flux.fromIterable(persistedEvents).concatWith(Flux.never()));
+    }
+
+    private static class RecordingBatchedPersistedEventHandler implements BatchedPersistedEventHandler {
+        private final Optional<Long>   poisonGlobalOrder;
+        private final List<List<Long>> batches             = new CopyOnWriteArrayList<>();
+        private final List<Long>       individuallyHandled = new CopyOnWriteArrayList<>();
+
+        private RecordingBatchedPersistedEventHandler(Optional<Long> poisonGlobalOrder) {
+            this.poisonGlobalOrder = poisonGlobalOrder;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return 10;
+        }
+
+        @Override
+        public Duration maxBatchLatency() {
+            return Duration.ofMillis(50);
+        }
+
+        @Override
+        public void handle(List<PersistedEvent> events) {
+            var globalOrders = events.stream().map(event -> event.globalEventOrder().longValue()).collect(Collectors.toList());
+            poisonGlobalOrder.filter(globalOrders::contains).ifPresent(poison -> {
+                throw new IllegalStateException("Poison event " + poison);
+            });
+            batches.add(globalOrders);
+        }
+
+        @Override
+        public void handle(PersistedEvent event) {
+            var globalOrder = event.globalEventOrder().longValue();
+            poisonGlobalOrder.filter(poison -> poison == globalOrder).ifPresent(poison -> {
+                throw new IllegalStateException("Poison event " + poison);
+            });
+            individuallyHandled.add(globalOrder);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.EventJSON;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import dk.cloudcreate.essentials.shared.functional.*;
+import dk.cloudcreate.essentials.types.LongRange;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventStoreReplayerTest {
+    private static final AggregateType ORDERS        = AggregateType.of("Orders");
+    private static final SubscriberId  SUBSCRIBER_ID = SubscriberId.of("Replayer");
+
+    private EventStore                    eventStore;
+    private List<ReplayProgress>          reportedProgress;
+    private EventStoreSubscriptionMonitor monitor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        eventStore = mock(EventStore.class);
+        stubUnitOfWorkFactory();
+
+        reportedProgress = new CopyOnWriteArrayList<>();
+        monitor = new EventStoreSubscriptionMonitor() {
+            @Override
+            public void monitor(SubscriberId subscriberId, AggregateType aggregateType) {
+            }
+
+            @Override
+            public void replayProgress(ReplayProgress progress) {
+                reportedProgress.add(progress);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubUnitOfWorkFactory() throws Exception {
+        var unitOfWorkFactory = (EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>) mock(EventStoreUnitOfWorkFactory.class);
+        when(eventStore.getUnitOfWorkFactory()).thenReturn(unitOfWorkFactory);
+        doAnswer(invocation -> {
+            ((CheckedConsumer<EventStoreUnitOfWork>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(unitOfWorkFactory).usingUnitOfWork(any(CheckedConsumer.class));
+        doAnswer(invocation -> ((CheckedFunction<EventStoreUnitOfWork, ?>) invocation.getArgument(0)).apply(null))
+                .when(unitOfWorkFactory).withUnitOfWork(any(CheckedFunction.class));
+    }
+
+    @Test
+    void events_are_handed_to_the_event_handler_in_global_order_until_the_live_tail_margin_is_reached() {
+        givenPersistedEvents(95, 5);
+        var handledGlobalOrders = new CopyOnWriteArrayList<Long>();
+        var replayer = EventStoreReplayer.builder()
+                                         .setEventStore(eventStore)
+                                         .setNumberOfParallelScans(4)
+                                         .setChunkSize(10)
+                                         .setLiveTailMargin(5)
+                                         .addMonitor(monitor)
+                                         .build();
+
+        var resumeFrom = replayer.replay(SUBSCRIBER_ID,
+                                         ORDERS,
+                                         GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                         Optional.empty(),
+                                         event -> handledGlobalOrders.add(event.globalEventOrder().longValue()));
+
+        assertThat(resumeFrom).isEqualTo(GlobalEventOrder.of(91));
+        assertThat(handledGlobalOrders).isEqualTo(LongStream.rangeClosed(1, 90).boxed().collect(Collectors.toList()));
+
+        var finalProgress = replayer.getReplayProgress(SUBSCRIBER_ID, ORDERS);
+        assertThat(finalProgress).isPresent();
+        assertThat(finalProgress.get().isCompleted()).isTrue();
+        assertThat(finalProgress.get().getNumberOfReplayedEvents()).isEqualTo(90);
+        assertThat(finalProgress.get().getReplayedUpToAndIncluding()).isEqualTo(GlobalEventOrder.of(90));
+        assertThat(finalProgress.get().getEstimatedTimeRemaining()).isPresent();
+
+        // One progress report per chunk and one when completed
+        assertThat(reportedProgress).hasSize(10);
+        assertThat(reportedProgress.get(reportedProgress.size() - 1).isCompleted()).isTrue();
+        assertThat(reportedProgress.subList(0, 9)).noneMatch(ReplayProgress::isCompleted);
+    }
+
+    @Test
+    void events_are_partitioned_by_aggregate_id_when_using_parallel_lanes() {
+        givenPersistedEvents(200, 5);
+        var handledGlobalOrdersPerAggregate = Collections.synchronizedMap(new HashMap<Object, List<Long>>());
+        var replayer = EventStoreReplayer.builder()
+                                         .setEventStore(eventStore)
+                                         .setNumberOfParallelScans(3)
+                                         .setChunkSize(7)
+                                         .setNumberOfParallelLanes(3)
+                                         .setLiveTailMargin(0)
+                                         .build();
+
+        var resumeFrom = replayer.replay(SUBSCRIBER_ID,
+                                         ORDERS,
+                                         GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                         Optional.empty(),
+                                         event -> handledGlobalOrdersPerAggregate.computeIfAbsent(event.aggregateId(), aggregateId -> new CopyOnWriteArrayList<>())
+                                                                                 .add(event.globalEventOrder().longValue()));
+
+        assertThat(resumeFrom).isEqualTo(GlobalEventOrder.of(201));
+        assertThat(handledGlobalOrdersPerAggregate).hasSize(5);
+        handledGlobalOrdersPerAggregate.values().forEach(globalOrders -> {
+            assertThat(globalOrders).hasSize(40);
+            assertThat(globalOrders).isSorted();
+        });
+    }
+
+    @Test
+    void events_are_handed_in_batches_to_a_BatchedPersistedEventHandler_and_failing_events_are_skipped() {
+        givenPersistedEvents(25, 1);
+        var batches             = new CopyOnWriteArrayList<List<Long>>();
+        var individuallyHandled = new CopyOnWriteArrayList<Long>();
+        var replayer = EventStoreReplayer.builder()
+                                         .setEventStore(eventStore)
+                                         .setChunkSize(25)
+                                         .setLiveTailMargin(0)
+                                         .build();
+
+        replayer.replay(SUBSCRIBER_ID,
+                        ORDERS,
+                        GlobalEventOrder.of(6),
+                        Optional.empty(),
+                        new BatchedPersistedEventHandler() {
+                            @Override
+                            public int maxBatchSize() {
+                                return 10;
+                            }
+
+                            @Override
+                            public void handle(List<PersistedEvent> events) {
+                                var globalOrders = events.stream().map(event -> event.globalEventOrder().longValue()).collect(Collectors.toList());
+                                if (globalOrders.contains(20L)) {
+                                    throw new IllegalStateException("Poison event");
+                                }
+                                batches.add(globalOrders);
+                            }
+
+                            @Override
+                            public void handle(PersistedEvent event) {
+                                if (event.globalEventOrder().longValue() == 20L) {
+                                    throw new IllegalStateException("Poison event");
+                                }
+                                individuallyHandled.add(event.globalEventOrder().longValue());
+                            }
+                        });
+
+        assertThat(batches).containsExactly(LongStream.rangeClosed(6, 15).boxed().collect(Collectors.toList()));
+        assertThat(individuallyHandled).containsExactly(16L, 17L, 18L, 19L, 21L, 22L, 23L, 24L, 25L);
+        assertThat(replayer.getReplayProgress(SUBSCRIBER_ID, ORDERS).get().getNumberOfReplayedEvents()).isEqualTo(20);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void gaps_are_handed_to_the_subscribers_gap_handler_and_the_subscription_resumes_after_the_highest_replayed_global_order() throws Exception {
+        var postgresqlEventStore = mock(PostgresqlEventStore.class);
+        var eventStreamGapHandler = mock(EventStreamGapHandler.class);
+        var subscriptionGapHandler = mock(SubscriptionGapHandler.class);
+        when(postgresqlEventStore.getEventStreamGapHandler()).thenReturn(eventStreamGapHandler);
+        when(eventStreamGapHandler.gapHandlerFor(SUBSCRIBER_ID)).thenReturn(subscriptionGapHandler);
+        eventStore = postgresqlEventStore;
+        stubUnitOfWorkFactory();
+        // Global orders 14 and 18-20 belong to transactions that haven't committed yet
+        givenPersistedEvents(25, 1, Set.of(14L, 18L, 19L, 20L));
+        var handledGlobalOrders = new CopyOnWriteArrayList<Long>();
+        var replayer = EventStoreReplayer.builder()
+                                         .setEventStore(eventStore)
+                                         .setChunkSize(10)
+                                         .setLiveTailMargin(5)
+                                         .build();
+
+        var resumeFrom = replayer.replay(SUBSCRIBER_ID,
+                                         ORDERS,
+                                         GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                         Optional.empty(),
+                                         event -> handledGlobalOrders.add(event.globalEventOrder().longValue()));
+
+        assertThat(handledGlobalOrders).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 15L, 16L, 17L);
+        // The trailing gap (18-20) is left to the normal polling of the subscription
+        assertThat(resumeFrom).isEqualTo(GlobalEventOrder.of(18));
+        // The gaps among the replayed events are reconciled by the subscriber's gap handler, so the subscription includes them in its queries
+        var eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(subscriptionGapHandler).reconcileGaps(eq(ORDERS), eq(LongRange.between(1, 10)), anyList(), eq(List.of()));
+        verify(subscriptionGapHandler).reconcileGaps(eq(ORDERS), eq(LongRange.between(11, 20)), eventsCaptor.capture(), eq(List.of()));
+        assertThat(((List<PersistedEvent>) eventsCaptor.getValue()).stream().map(event -> event.globalEventOrder().longValue()))
+                .containsExactly(11L, 12L, 13L, 15L, 16L, 17L);
+    }
+
+    private void givenPersistedEvents(int numberOfEvents, int numberOfAggregates) {
+        givenPersistedEvents(numberOfEvents, numberOfAggregates, Set.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPersistedEvents(int numberOfEvents, int numberOfAggregates, Set<Long> uncommittedGlobalOrders) {
+        var persistedEvents = new ArrayList<PersistedEvent>();
+        for (var globalOrder = 1; globalOrder <= numberOfEvents; globalOrder++) {
+            if (uncommittedGlobalOrders.contains((long) globalOrder)) {
+                continue;
+            }
+            var persistedEvent = mock(PersistedEvent.class);
+            var eventJSON      = mock(EventJSON.class);
+            when(persistedEvent.globalEventOrder()).thenReturn(GlobalEventOrder.of(globalOrder));
+            when(persistedEvent.aggregateId()).thenReturn("aggregate-" + (globalOrder % numberOfAggregates));
+            when(persistedEvent.event()).thenReturn(eventJSON);
+            when(eventJSON.getEventTypeOrName()).thenReturn(EventTypeOrName.with(EventName.of("TestEvent")));
+            persistedEvents.add(persistedEvent);
+        }
+        when(eventStore.findEventStreamHead(ORDERS)).thenReturn(Optional.of(GlobalEventOrder.of(numberOfEvents)));
+        when(eventStore.loadEventsByGlobalOrder(eq(ORDERS), any(LongRange.class), isNull(), any(Optional.class)))
+                .thenAnswer(invocation -> {
+                    LongRange range = invocation.getArgument(1);
+                    return persistedEvents.stream()
+                                          .filter(event -> range.covers(event.globalEventOrder().longValue()));
+                });
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.serializer.json.EventJSON;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.*;
+import dk.cloudcreate.essentials.components.foundation.fencedlock.*;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import dk.cloudcreate.essentials.shared.functional.CheckedFunction;
+import org.junit.jupiter.api.*;
+import reactor.core.publisher.Flux;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class KeyPartitionedExclusiveSubscriptionTest {
+    private static final AggregateType ORDERS        = AggregateType.of("Orders");
+    private static final SubscriberId  SUBSCRIBER_ID = SubscriberId.of("LanesSubscriber");
+
+    private EventStore                    eventStore;
+    private SubscriptionResumePoint       resumePoint;
+    private EventStoreSubscriptionManager subscriptionManager;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setup() throws Exception {
+        eventStore = mock(EventStore.class);
+        var unitOfWorkFactory = (EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>) mock(EventStoreUnitOfWorkFactory.class);
+        when(eventStore.getUnitOfWorkFactory()).thenReturn(unitOfWorkFactory);
+        when(unitOfWorkFactory.withUnitOfWork(any(CheckedFunction.class))).thenAnswer(invocation -> ((CheckedFunction<EventStoreUnitOfWork, ?>) invocation.getArgument(0)).apply(null));
+
+        resumePoint = new SubscriptionResumePoint(SUBSCRIBER_ID, ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, OffsetDateTime.now());
+        var durableSubscriptionRepository = mock(DurableSubscriptionRepository.class);
+        when(durableSubscriptionRepository.getOrCreateResumePoint(eq(SUBSCRIBER_ID), eq(ORDERS), any(GlobalEventOrder.class))).thenReturn(resumePoint);
+
+        var fencedLockManager = mock(FencedLockManager.class);
+        when(fencedLockManager.getLockManagerInstanceId()).thenReturn("test");
+        when(fencedLockManager.isLockedByThisLockManagerInstance(any(LockName.class))).thenReturn(true);
+        doAnswer(invocation -> {
+            ((LockCallback) invocation.getArgument(1)).lockAcquired(mock(FencedLock.class));
+            return null;
+        }).when(fencedLockManager).acquireLockAsync(any(LockName.class), any(LockCallback.class));
+
+        subscriptionManager = EventStoreSubscriptionManager.builder()
+                                                           .setEventStore(eventStore)
+                                                           .setEventStorePollingBatchSize(10)
+                                                           .setEventStorePollingInterval(Duration.ofMillis(100))
+                                                           .setFencedLockManager(fencedLockManager)
+                                                           .setSnapshotResumePointsEvery(Duration.ofSeconds(10))
+                                                           .setDurableSubscriptionRepository(durableSubscriptionRepository)
+                                                           .build();
+        subscriptionManager.start();
+    }
+
+    @AfterEach
+    void cleanup() {
+        subscriptionManager.stop();
+    }
+
+    @Test
+    void events_are_handled_in_parallel_lanes_preserving_per_aggregate_order() {
+        var numberOfAggregates = 5;
+        var eventsPerAggregate = 20;
+        givenPersistedEvents(numberOfAggregates, eventsPerAggregate);
+        var handledPerAggregate = new ConcurrentHashMap<String, List<Long>>();
+        var handlingThreads     = ConcurrentHashMap.<String>newKeySet();
+
+        subscriptionManager.exclusivelySubscribeToAggregateEventsAsynchronously(SUBSCRIBER_ID,
+                                                                                ORDERS,
+                                                                                GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER,
+                                                                                Optional.empty(),
+                                                                                new FencedLockAwareSubscriber() {
+                                                                                    @Override
+                                                                                    public void onLockAcquired(FencedLock fencedLock, SubscriptionResumePoint resumeFromAndIncluding) {
+                                                                                    }
+
+                                                                                    @Override
+                                                                                    public void onLockReleased(FencedLock fencedLock) {
+                                                                                    }
+                                                                                },
+                                                                                4,
+                                                                                event -> {
+                                                                                    handlingThreads.add(Thread.currentThread().getName());
+                                                                                    handledPerAggregate.computeIfAbsent(event.aggregateId().toString(), aggregateId -> new CopyOnWriteArrayList<>())
+                                                                                                       .add(event.eventOrder().longValue());
+                                                                                });
+
+        var totalNumberOfEvents = numberOfAggregates * eventsPerAggregate;
+        await().atMost(Duration.ofSeconds(10))
+               .untilAsserted(() -> assertThat(resumePoint.getResumeFromAndIncluding()).isEqualTo(GlobalEventOrder.of(totalNumberOfEvents + 1)));
+        assertThat(handledPerAggregate).hasSize(numberOfAggregates);
+        handledPerAggregate.values()
+                           .forEach(eventOrders -> assertThat(eventOrders).isEqualTo(LongStream.range(0, eventsPerAggregate).boxed().collect(Collectors.toList())));
+        assertThat(handlingThreads).allMatch(threadName -> threadName.contains("-lane-"));
+    }
+
+    private void givenPersistedEvents(int numberOfAggregates, int eventsPerAggregate) {
+        var persistedEvents = new ArrayList<PersistedEvent>();
+        var globalOrder     = 1L;
+        for (var eventOrder = 0; eventOrder < eventsPerAggregate; eventOrder++) {
+            for (var aggregate = 0; aggregate < numberOfAggregates; aggregate++) {
+                var persistedEvent = mock(PersistedEvent.class);
+                var eventJSON      = mock(EventJSON.class);
+                when(persistedEvent.globalEventOrder()).thenReturn(GlobalEventOrder.of(globalOrder++));
+                when(persistedEvent.aggregateId()).thenReturn("Order-" + aggregate);
+                when(persistedEvent.eventOrder()).thenReturn(EventOrder.of(eventOrder));
+                when(persistedEvent.event()).thenReturn(eventJSON);
+                when(eventJSON.getEventTypeOrName()).thenReturn(EventTypeOrName.with(EventName.of("TestEvent")));
+                persistedEvents.add(persistedEvent);
+            }
+        }
+        when(eventStore.pollEvents(eq(ORDERS), any(GlobalEventOrder.class), any(Optional.class), any(Optional.class), any(Optional.class), any(Optional.class)))
+                .thenReturn(Flux.fromIterable(persistedEvents).concatWith(Flux.never()));
+    }
+}
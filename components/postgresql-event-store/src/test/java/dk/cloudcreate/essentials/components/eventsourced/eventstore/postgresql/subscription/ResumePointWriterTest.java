@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResumePointWriterTest {
+    private static final AggregateType ORDERS = AggregateType.of("Orders");
+
+    private DurableSubscriptionRepository durableSubscriptionRepository;
+    private SubscriptionResumePoint       resumePoint1;
+    private SubscriptionResumePoint       resumePoint2;
+    private ResumePointWriter             writer;
+
+    @BeforeEach
+    void setup() {
+        durableSubscriptionRepository = mock(DurableSubscriptionRepository.class);
+        resumePoint1 = new SubscriptionResumePoint(SubscriberId.of("Subscriber1"), ORDERS, GlobalEventOrder.of(1), OffsetDateTime.now());
+        resumePoint2 = new SubscriptionResumePoint(SubscriberId.of("Subscriber2"), ORDERS, GlobalEventOrder.of(1), OffsetDateTime.now());
+        writer = new ResumePointWriter("Test", durableSubscriptionRepository, Duration.ofHours(1), () -> List.of(resumePoint1, resumePoint2));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void flush_only_saves_changed_resume_points_in_a_single_call() {
+        resumePoint1.setResumeFromAndIncluding(GlobalEventOrder.of(5));
+        resumePoint1.setResumeFromAndIncluding(GlobalEventOrder.of(10));
+
+        writer.flush();
+
+        var resumePointsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(durableSubscriptionRepository, times(1)).saveResumePoints(resumePointsCaptor.capture());
+        assertThat((Collection<SubscriptionResumePoint>) resumePointsCaptor.getValue()).containsExactly(resumePoint1);
+    }
+
+    @Test
+    void flush_without_changed_resume_points_does_not_access_the_repository() {
+        writer.flush();
+
+        verifyNoInteractions(durableSubscriptionRepository);
+    }
+
+    @Test
+    void a_failing_flush_is_retried_at_the_next_flush() {
+        resumePoint2.setResumeFromAndIncluding(GlobalEventOrder.of(2));
+        doThrow(new RuntimeException("Test")).doNothing().when(durableSubscriptionRepository).saveResumePoints(anyCollection());
+
+        writer.flush();
+        writer.flush();
+
+        verify(durableSubscriptionRepository, times(2)).saveResumePoints(List.of(resumePoint2));
+    }
+
+    @Test
+    void a_resume_point_moved_while_being_saved_remains_changed() {
+        resumePoint1.setResumeFromAndIncluding(GlobalEventOrder.of(5));
+        var savedResumeFromAndIncluding = resumePoint1.getResumeFromAndIncluding();
+        resumePoint1.setResumeFromAndIncluding(GlobalEventOrder.of(6));
+
+        resumePoint1.markSaved(savedResumeFromAndIncluding, OffsetDateTime.now());
+
+        assertThat(resumePoint1.isChanged()).isTrue();
+        resumePoint1.markSaved(GlobalEventOrder.of(6), OffsetDateTime.now());
+        assertThat(resumePoint1.isChanged()).isFalse();
+    }
+}
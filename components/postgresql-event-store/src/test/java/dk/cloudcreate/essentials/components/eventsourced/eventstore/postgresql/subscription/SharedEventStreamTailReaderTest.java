@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.transaction.*;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.types.GlobalEventOrder;
+import dk.cloudcreate.essentials.components.foundation.types.*;
+import dk.cloudcreate.essentials.shared.functional.CheckedFunction;
+import dk.cloudcreate.essentials.types.LongRange;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SharedEventStreamTailReaderTest {
+    private static final AggregateType ORDERS = AggregateType.of("Orders");
+
+    private List<PersistedEvent>         persistedEvents;
+    private AtomicInteger                numberOfQueries;
+    private EventStore                   eventStore;
+    private SharedEventStreamTailReader  tailReader;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setup() throws Exception {
+        persistedEvents = new CopyOnWriteArrayList<>();
+        numberOfQueries = new AtomicInteger();
+        eventStore = mock(EventStore.class);
+        var unitOfWorkFactory = (EventStoreUnitOfWorkFactory<EventStoreUnitOfWork>) mock(EventStoreUnitOfWorkFactory.class);
+        when(eventStore.getUnitOfWorkFactory()).thenReturn(unitOfWorkFactory);
+        when(unitOfWorkFactory.withUnitOfWork(any(CheckedFunction.class))).thenAnswer(invocation -> ((CheckedFunction<EventStoreUnitOfWork, ?>) invocation.getArgument(0)).apply(null));
+        when(eventStore.findHighestGlobalEventOrderPersisted(ORDERS)).thenAnswer(invocation -> persistedEvents.isEmpty() ?
+                                                                                               Optional.empty() :
+                                                                                               Optional.of(persistedEvents.get(persistedEvents.size() - 1).globalEventOrder()));
+        when(eventStore.loadEventsByGlobalOrder(eq(ORDERS), any(LongRange.class), any(), any(Optional.class))).thenAnswer(invocation -> {
+            numberOfQueries.incrementAndGet();
+            LongRange range = invocation.getArgument(1);
+            return persistedEvents.stream()
+                                  .filter(persistedEvent -> range.covers(persistedEvent.globalEventOrder().longValue()))
+                                  .collect(Collectors.toList())
+                                  .stream();
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (tailReader != null) {
+            tailReader.stop();
+        }
+    }
+
+    @Test
+    void subscribers_starting_inside_and_before_the_tail_all_receive_every_event() {
+        appendEvents(50);
+        tailReader = new SharedEventStreamTailReader(eventStore, 10, Duration.ofMillis(20), 100, 2);
+        tailReader.start();
+
+        var fromTheBeginning = tailReader.pollEvents(ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, Optional.empty(), SubscriberId.of("FromTheBeginning"))
+                                         .take(150)
+                                         .map(persistedEvent -> persistedEvent.globalEventOrder().longValue())
+                                         .collectList()
+                                         .toFuture();
+        var fromTheTail = tailReader.pollEvents(ORDERS, GlobalEventOrder.of(51), Optional.empty(), SubscriberId.of("FromTheTail"))
+                                    .take(100)
+                                    .map(persistedEvent -> persistedEvent.globalEventOrder().longValue())
+                                    .collectList()
+                                    .toFuture();
+
+        appendEvents(100);
+
+        assertThat(fromTheBeginning.join()).isEqualTo(LongStream.rangeClosed(1, 150).boxed().collect(Collectors.toList()));
+        assertThat(fromTheTail.join()).isEqualTo(LongStream.rangeClosed(51, 150).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void slow_subscriber_that_falls_behind_the_ring_catches_up_and_receives_every_event() {
+        tailReader = new SharedEventStreamTailReader(eventStore, 5, Duration.ofMillis(10), 5, 2);
+        tailReader.start();
+
+        var received = tailReader.pollEvents(ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, Optional.empty(), SubscriberId.of("Slow"))
+                                 .delayElements(Duration.ofMillis(2))
+                                 .take(100)
+                                 .map(persistedEvent -> persistedEvent.globalEventOrder().longValue())
+                                 .collectList()
+                                 .toFuture();
+        appendEvents(100);
+
+        assertThat(received.join()).isEqualTo(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void tenant_specific_subscriber_only_receives_events_without_tenant_or_for_its_own_tenant() {
+        tailReader = new SharedEventStreamTailReader(eventStore, 10, Duration.ofMillis(20), 100, 1);
+        tailReader.start();
+        var tenant1 = TenantId.of("Tenant1");
+        var tenant2 = TenantId.of("Tenant2");
+
+        var received = tailReader.pollEvents(ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, Optional.of(tenant1), SubscriberId.of("Tenant1Subscriber"))
+                                 .take(2)
+                                 .map(persistedEvent -> persistedEvent.globalEventOrder().longValue())
+                                 .collectList()
+                                 .toFuture();
+
+        // Wait for the tail to be initialized, so the events are delivered from the shared tail
+        sleep(200);
+        appendEvent(Optional.of(tenant1));
+        appendEvent(Optional.of(tenant2));
+        appendEvent(Optional.empty());
+
+        assertThat(received.join()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void stopping_the_tail_reader_completes_the_subscribers() {
+        appendEvents(5);
+        tailReader = new SharedEventStreamTailReader(eventStore, 10, Duration.ofMillis(20), 100, 1);
+        tailReader.start();
+
+        var received = tailReader.pollEvents(ORDERS, GlobalEventOrder.FIRST_GLOBAL_EVENT_ORDER, Optional.empty(), SubscriberId.of("Subscriber"))
+                                 .map(persistedEvent -> persistedEvent.globalEventOrder().longValue())
+                                 .collectList()
+                                 .toFuture();
+        sleep(200);
+        tailReader.stop();
+
+        assertThat(received.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toList()));
+    }
+
+    private void appendEvents(int numberOfEvents) {
+        for (var i = 0; i < numberOfEvents; i++) {
+            appendEvent(Optional.empty());
+        }
+    }
+
+    private void appendEvent(Optional<Tenant> tenant) {
+        var persistedEvent = mock(PersistedEvent.class);
+        var globalOrder    = GlobalEventOrder.of(persistedEvents.size() + 1);
+        when(persistedEvent.globalEventOrder()).thenReturn(globalOrder);
+        when(persistedEvent.tenant()).thenReturn(tenant);
+        persistedEvents.add(persistedEvent);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
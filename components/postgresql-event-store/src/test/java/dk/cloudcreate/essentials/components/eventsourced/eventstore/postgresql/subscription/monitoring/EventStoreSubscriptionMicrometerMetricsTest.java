@@ -0,0 +1,45 @@
+package dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring;
+
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.eventstream.AggregateType;
+import dk.cloudcreate.essentials.components.foundation.types.SubscriberId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMicrometerMetrics.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventStoreSubscriptionMicrometerMetricsTest {
+    private static final AggregateType ORDERS     = AggregateType.of("Orders");
+    private static final SubscriberId  SUBSCRIBER = SubscriberId.of("Subscriber1");
+
+    @Test
+    void records_handled_events_per_subscription() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var metrics       = new EventStoreSubscriptionMicrometerMetrics(meterRegistry, "Test");
+
+        metrics.eventsHandled(SUBSCRIBER, ORDERS, 10, TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.eventsHandled(SUBSCRIBER, ORDERS, 1, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.gapsReconciled(SUBSCRIBER, ORDERS, TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertThat(meterRegistry.get(HANDLED_EVENTS_COUNTER_NAME).tag("SubscriberId", "Subscriber1").tag("AggregateType", "Orders").counter().count()).isEqualTo(11);
+        var handlerLatency = meterRegistry.get(HANDLER_LATENCY_TIMER_NAME).timer();
+        assertThat(handlerLatency.count()).isEqualTo(2);
+        assertThat(handlerLatency.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6);
+        assertThat(meterRegistry.get(UNIT_OF_WORK_COMPLETION_TIMER_NAME).timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3);
+        assertThat(meterRegistry.get(GAP_RECONCILE_TIMER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void meters_are_created_once_per_subscription() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var metrics       = new EventStoreSubscriptionMicrometerMetrics(meterRegistry, null);
+
+        metrics.eventsHandled(SUBSCRIBER, ORDERS, 1, 1, 1);
+        metrics.eventsHandled(SUBSCRIBER, ORDERS, 1, 1, 1);
+        metrics.eventsHandled(SubscriberId.of("Subscriber2"), ORDERS, 1, 1, 1);
+
+        assertThat(meterRegistry.find(HANDLED_EVENTS_COUNTER_NAME).counters()).hasSize(2);
+    }
+}
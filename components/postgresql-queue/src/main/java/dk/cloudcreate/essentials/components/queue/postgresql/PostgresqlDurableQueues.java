@@ -23,6 +23,7 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import dk.cloudcreate.essentials.components.foundation.json.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.codec.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
 import dk.cloudcreate.essentials.components.foundation.postgresql.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.*;
@@ -32,12 +33,11 @@ import dk.cloudcreate.essentials.jackson.immutable.EssentialsImmutableJacksonMod
 import dk.cloudcreate.essentials.jackson.types.EssentialTypesJacksonModule;
 import dk.cloudcreate.essentials.reactive.*;
 import dk.cloudcreate.essentials.shared.Exceptions;
-import dk.cloudcreate.essentials.shared.collections.Lists;
 import dk.cloudcreate.essentials.shared.interceptor.InterceptorChain;
 import dk.cloudcreate.essentials.shared.reflection.Classes;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.mapper.RowMapper;
-import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.core.statement.*;
 import org.slf4j.*;
 
 import java.sql.*;
@@ -84,24 +84,37 @@ public final class PostgresqlDurableQueues implements DurableQueues {
     private static final Logger log                               = LoggerFactory.getLogger(PostgresqlDurableQueues.class);
     public static final  String DEFAULT_DURABLE_QUEUES_TABLE_NAME = "durable_queues";
     private static final Object NO_PAYLOAD                        = new Object();
+    /**
+     * The maximum number of messages inserted using a single multi-row INSERT statement in {@link #queueMessages(QueueMessages)}
+     * (keeps the number of bind parameters well below the PostgreSQL limit of 65535)
+     */
+    private static final int    MAX_MESSAGES_PER_INSERT_STATEMENT = 1000;
 
     private final HandleAwareUnitOfWorkFactory<? extends HandleAwareUnitOfWork> unitOfWorkFactory;
     private final JSONSerializer                                                jsonSerializer;
+    private final MessagePayloadCodecs                                          messagePayloadCodecs;
     private final String                                                        sharedQueueTableName;
-    private final ConcurrentMap<QueueName, PostgresqlDurableQueueConsumer>      durableQueueConsumers                 = new ConcurrentHashMap<>();
+    private final ConcurrentMap<QueueName, PostgresqlDurableQueueConsumer>      durableQueueConsumers = new ConcurrentHashMap<>();
     private final QueuedMessageRowMapper                                        queuedMessageMapper;
-    private final List<DurableQueuesInterceptor>                                interceptors                          = new ArrayList<>();
+    private final List<DurableQueuesInterceptor>                                interceptors          = new ArrayList<>();
     private final Optional<MultiTableChangeListener<TableChangeNotification>>   multiTableChangeListener;
     private final Function<ConsumeFromQueue, QueuePollingOptimizer>             queuePollingOptimizerFactory;
     private final TransactionalMode                                             transactionalMode;
     /**
-     * Only used if {@link #transactionalMode} has value {@link TransactionalMode#SingleOperationTransaction}
+     * The duration of the delivery lease - only used if {@link #transactionalMode} has value {@link TransactionalMode#SingleOperationTransaction}
      */
     private       int                                                           messageHandlingTimeoutMs;
+    /**
+     * Identifies this {@link PostgresqlDurableQueues} instance as the holder of a delivery lease (stored in the <code>leased_by</code> column)
+     */
+    private final String                                                        leaseOwnerId          = UUID.randomUUID().toString();
     /**
      * Contains the timestamp of the last performed {@link #resetMessagesStuckBeingDelivered(QueueName)} check<br>
      * Only used if {@link #transactionalMode} has value {@link TransactionalMode#SingleOperationTransaction}
+     *
+     * @deprecated messages with an expired delivery lease are reclaimed by the dequeue query, so this is no longer maintained by {@link PostgresqlDurableQueues}
      */
+    @Deprecated
     protected     ConcurrentMap<QueueName, Instant>                             lastResetStuckMessagesCheckTimestamps = new ConcurrentHashMap<>();
 
 
@@ -256,8 +269,62 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                    Function<ConsumeFromQueue, QueuePollingOptimizer> queuePollingOptimizerFactory,
                                    TransactionalMode transactionalMode,
                                    Duration messageHandlingTimeout) {
+        this(unitOfWorkFactory,
+             jsonSerializer,
+             sharedQueueTableName,
+             multiTableChangeListener,
+             queuePollingOptimizerFactory,
+             transactionalMode,
+             messageHandlingTimeout,
+             MessagePayloadCodecs.jsonByDefault());
+    }
+
+    /**
+     * Create {@link DurableQueues} with custom jsonSerializer and sharedQueueTableName
+     * <br>
+     *
+     * @param unitOfWorkFactory            the {@link UnitOfWorkFactory} needed to access the database
+     * @param jsonSerializer               the {@link JSONSerializer} that is used to serialize/deserialize message payloads
+     * @param sharedQueueTableName         the name of the table that will contain all messages (across all {@link QueueName}'s)<br>
+     *                                     <strong>Note:</strong><br>
+     *                                     To support customization of storage table name, the {@code sharedQueueTableName} will be directly used in constructing SQL statements
+     *                                     through string concatenation, which exposes the component to SQL injection attacks.<br>
+     *                                     <br>
+     *                                     <strong>Security Note:</strong><br>
+     *                                     <b>It is the responsibility of the user of this component to sanitize the {@code sharedQueueTableName}
+     *                                     to ensure the security of all the SQL statements generated by this component.</b><br>
+     *                                     The {@link PostgresqlDurableQueues} component will
+     *                                     call the {@link PostgresqlUtil#checkIsValidTableOrColumnName(String)} method to validate the table name as a first line of defense.<br>
+     *                                     The {@link PostgresqlUtil#checkIsValidTableOrColumnName(String)} provides an initial layer of defense against SQL injection by applying naming conventions intended to reduce the risk of malicious input.<br>
+     *                                     However, Essentials components as well as {@link PostgresqlUtil#checkIsValidTableOrColumnName(String)} does not offer exhaustive protection, nor does it assure the complete security of the resulting SQL against SQL injection threats.<br>
+     *                                     <b>The responsibility for implementing protective measures against SQL Injection lies exclusively with the users/developers using the Essentials components and its supporting classes</b>.<br>
+     *                                     Users must ensure thorough sanitization and validation of API input parameters,  column, table, and index names.<br>
+     *                                     Insufficient attention to these practices may leave the application vulnerable to SQL injection, potentially endangering the security and integrity of the database.<br>
+     *                                     <br>
+     *                                     It is highly recommended that the {@code sharedQueueTableName} value is only derived from a controlled and trusted source.<br>
+     *                                     To mitigate the risk of SQL injection attacks, external or untrusted inputs should never directly provide the {@code sharedQueueTableName} value.<br>
+     * @param multiTableChangeListener     optional {@link MultiTableChangeListener} that allows {@link PostgresqlDurableQueues} to use {@link QueuePollingOptimizer}
+     * @param queuePollingOptimizerFactory optional {@link QueuePollingOptimizer} factory that creates a {@link QueuePollingOptimizer} per {@link ConsumeFromQueue} command -
+     *                                     if set to null {@link #createQueuePollingOptimizerFor(ConsumeFromQueue)} is used instead
+     * @param transactionalMode            The {@link TransactionalMode} for this {@link DurableQueues} instance. If set to {@link TransactionalMode#SingleOperationTransaction}
+     *                                     then the consumer MUST call the {@link DurableQueues#acknowledgeMessageAsHandled(AcknowledgeMessageAsHandled)} explicitly in a new {@link UnitOfWork}
+     * @param messageHandlingTimeout       Only required if <code>transactionalMode</code> is {@link TransactionalMode#SingleOperationTransaction}.<br>
+     *                                     The parameter defines the timeout for messages being delivered, but haven't yet been acknowledged.
+     *                                     After this timeout the message delivery will be reset and the message will again be a candidate for delivery
+     * @param messagePayloadCodecs         the {@link MessagePayloadCodecs} that defines which queues store their message payloads using a binary {@link MessagePayloadCodec}
+     *                                     instead of JSON
+     */
+    public PostgresqlDurableQueues(HandleAwareUnitOfWorkFactory<? extends HandleAwareUnitOfWork> unitOfWorkFactory,
+                                   JSONSerializer jsonSerializer,
+                                   String sharedQueueTableName,
+                                   MultiTableChangeListener<TableChangeNotification> multiTableChangeListener,
+                                   Function<ConsumeFromQueue, QueuePollingOptimizer> queuePollingOptimizerFactory,
+                                   TransactionalMode transactionalMode,
+                                   Duration messageHandlingTimeout,
+                                   MessagePayloadCodecs messagePayloadCodecs) {
         this.unitOfWorkFactory = requireNonNull(unitOfWorkFactory, "No unitOfWorkFactory instance provided");
         this.jsonSerializer = requireNonNull(jsonSerializer, "No jsonSerializer");
+        this.messagePayloadCodecs = requireNonNull(messagePayloadCodecs, "No messagePayloadCodecs provided");
         this.sharedQueueTableName = requireNonNull(sharedQueueTableName, "No sharedQueueTableName provided").toLowerCase(Locale.ROOT);
         PostgresqlUtil.checkIsValidTableOrColumnName(sharedQueueTableName);
 
@@ -281,39 +348,61 @@ public final class PostgresqlDurableQueues implements DurableQueues {
             handleAwareUnitOfWork.handle().getJdbi().registerArgument(new QueueEntryIdArgumentFactory());
             handleAwareUnitOfWork.handle().getJdbi().registerColumnMapper(new QueueEntryIdColumnMapper());
             handleAwareUnitOfWork.handle().execute(bind("CREATE TABLE IF NOT EXISTS {:tableName} (\n" +
-                                                                "  id                     TEXT PRIMARY KEY,\n" +
-                                                                "  queue_name             TEXT NOT NULL,\n" +
-                                                                "  message_payload        JSONB NOT NULL,\n" +
-                                                                "  message_payload_type   TEXT NOT NULL,\n" +
-                                                                "  added_ts               TIMESTAMPTZ NOT NULL,\n" +
-                                                                "  next_delivery_ts       TIMESTAMPTZ,\n" +
-                                                                "  delivery_ts            TIMESTAMPTZ DEFAULT NULL,\n" +
-                                                                "  total_attempts         INTEGER DEFAULT 0,\n" +
-                                                                "  redelivery_attempts    INTEGER DEFAULT 0,\n" +
-                                                                "  last_delivery_error    TEXT DEFAULT NULL,\n" +
-                                                                "  is_being_delivered     BOOLEAN DEFAULT FALSE,\n" +
-                                                                "  is_dead_letter_message BOOLEAN NOT NULL DEFAULT FALSE,\n" +
-                                                                "  meta_data              JSONB DEFAULT NULL,\n" +
-                                                                "  delivery_mode          TEXT NOT NULL,\n" +
-                                                                "  key                    TEXT DEFAULT NULL,\n" +
-                                                                "  key_order              BIGINT DEFAULT -1\n" +
+                                                                "  id                       TEXT PRIMARY KEY,\n" +
+                                                                "  queue_name               TEXT NOT NULL,\n" +
+                                                                "  message_payload          JSONB DEFAULT NULL,\n" +
+                                                                "  message_payload_bytes    BYTEA DEFAULT NULL,\n" +
+                                                                "  message_payload_encoding TEXT DEFAULT NULL,\n" +
+                                                                "  message_payload_type     TEXT NOT NULL,\n" +
+                                                                "  added_ts                 TIMESTAMPTZ NOT NULL,\n" +
+                                                                "  next_delivery_ts         TIMESTAMPTZ,\n" +
+                                                                "  delivery_ts              TIMESTAMPTZ DEFAULT NULL,\n" +
+                                                                "  total_attempts           INTEGER DEFAULT 0,\n" +
+                                                                "  redelivery_attempts      INTEGER DEFAULT 0,\n" +
+                                                                "  last_delivery_error      TEXT DEFAULT NULL,\n" +
+                                                                "  is_being_delivered       BOOLEAN DEFAULT FALSE,\n" +
+                                                                "  lease_until              TIMESTAMPTZ DEFAULT NULL,\n" +
+                                                                "  leased_by                TEXT DEFAULT NULL,\n" +
+                                                                "  is_dead_letter_message   BOOLEAN NOT NULL DEFAULT FALSE,\n" +
+                                                                "  meta_data                JSONB DEFAULT NULL,\n" +
+                                                                "  delivery_mode            TEXT NOT NULL,\n" +
+                                                                "  key                      TEXT DEFAULT NULL,\n" +
+                                                                "  key_order                BIGINT DEFAULT -1,\n" +
+                                                                "  is_head_of_key           BOOLEAN NOT NULL DEFAULT TRUE\n" +
                                                                 ")",
                                                         arg("tableName", sharedQueueTableName))
                                                   );
             log.info("Ensured Durable Queues table '{}' exists", sharedQueueTableName);
+            ensureHeadOfKeyColumnExists(handleAwareUnitOfWork.handle());
+            ensureMessagePayloadEncodingColumnsExist(handleAwareUnitOfWork.handle());
+            ensureLeaseColumnsExist(handleAwareUnitOfWork.handle());
 
             createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_queue_name ON {:tableName} (queue_name)",
                         handleAwareUnitOfWork.handle());
-            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_next_delivery_ts ON {:tableName} (next_delivery_ts)",
-                        handleAwareUnitOfWork.handle());
-            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_is_dead_letter_message ON {:tableName} (is_dead_letter_message)",
+            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_ordered_msg ON {:tableName} (queue_name, key, key_order)",
                         handleAwareUnitOfWork.handle());
-            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_is_being_delivered ON {:tableName} (is_being_delivered)",
+            // Partial indexes, which only contain the rows relevant for the given query, ensure that e.g. the lookup of the
+            // next message ready for delivery isn't affected by the number of Dead Letter Messages.
+            // Messages being delivered are covered by the deliverable index, since a leased message has next_delivery_ts = lease_until
+            // (which allows the dequeue query to reclaim messages with an expired lease)
+            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_deliverable_head_msg ON {:tableName} (queue_name, key_order, next_delivery_ts)\n" +
+                                "WHERE is_dead_letter_message = FALSE AND is_head_of_key = TRUE",
                         handleAwareUnitOfWork.handle());
-            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_ordered_msg ON {:tableName} (queue_name, key, key_order)",
+            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_head_of_key ON {:tableName} (queue_name, key)\n" +
+                                "WHERE is_head_of_key = TRUE AND key IS NOT NULL",
                         handleAwareUnitOfWork.handle());
-            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_next_msg ON {:tableName} (queue_name, is_dead_letter_message, is_being_delivered, next_delivery_ts)",
+            createIndex("CREATE INDEX IF NOT EXISTS idx_{:tableName}_dead_letter_msg ON {:tableName} (queue_name)\n" +
+                                "WHERE is_dead_letter_message = TRUE",
                         handleAwareUnitOfWork.handle());
+            // Drop the indexes created by earlier versions, which are superseded by the partial indexes above
+            dropIndex("DROP INDEX IF EXISTS idx_{:tableName}_next_delivery_ts",
+                      handleAwareUnitOfWork.handle());
+            dropIndex("DROP INDEX IF EXISTS idx_{:tableName}_is_dead_letter_message",
+                      handleAwareUnitOfWork.handle());
+            dropIndex("DROP INDEX IF EXISTS idx_{:tableName}_is_being_delivered",
+                      handleAwareUnitOfWork.handle());
+            dropIndex("DROP INDEX IF EXISTS idx_{:tableName}_next_msg",
+                      handleAwareUnitOfWork.handle());
 
             multiTableChangeListener.ifPresent(listener -> {
                 ListenNotify.addChangeNotificationTriggerToTable(handleAwareUnitOfWork.handle(),
@@ -338,6 +427,88 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                       );
     }
 
+    /**
+     * Ensure that a queue table created by an earlier version has the <code>is_head_of_key</code> column.<br>
+     * When the column is added, then all {@link OrderedMessage}'s that have a queued message with the same key and a lower key_order
+     * are marked as not being head of their key
+     */
+    private void ensureHeadOfKeyColumnExists(Handle handle) {
+        var hasHeadOfKeyColumn = handle.createQuery("SELECT EXISTS (SELECT 1 FROM information_schema.columns\n" +
+                                                            " WHERE table_schema = current_schema() AND table_name = :tableName AND column_name = 'is_head_of_key')")
+                                       .bind("tableName", sharedQueueTableName.toLowerCase(Locale.ROOT))
+                                       .mapTo(Boolean.class)
+                                       .one();
+        if (hasHeadOfKeyColumn) {
+            return;
+        }
+        handle.execute(bind("ALTER TABLE {:tableName} ADD COLUMN IF NOT EXISTS is_head_of_key BOOLEAN NOT NULL DEFAULT TRUE",
+                            arg("tableName", sharedQueueTableName)));
+        var numberOfMessagesNotHeadOfKey = handle.execute(bind("UPDATE {:tableName} q1 SET is_head_of_key = FALSE\n" +
+                                                                       " WHERE q1.key IS NOT NULL AND\n" +
+                                                                       "   EXISTS (SELECT 1 FROM {:tableName} q2 WHERE q2.queue_name = q1.queue_name AND q2.key = q1.key AND q2.key_order < q1.key_order)",
+                                                               arg("tableName", sharedQueueTableName)));
+        log.info("Added column 'is_head_of_key' to Durable Queues table '{}' and marked {} Ordered Message(s) as not being head of their key",
+                 sharedQueueTableName,
+                 numberOfMessagesNotHeadOfKey);
+    }
+
+    /**
+     * Ensure that a queue table created by an earlier version has the <code>message_payload_bytes</code> and <code>message_payload_encoding</code> columns,
+     * which are used by queues that store their message payloads using a {@link MessagePayloadCodec}.<br>
+     * Existing messages keep their JSON <code>message_payload</code> (and a <code>NULL</code> <code>message_payload_encoding</code>)
+     */
+    private void ensureMessagePayloadEncodingColumnsExist(Handle handle) {
+        var hasMessagePayloadEncodingColumn = handle.createQuery("SELECT EXISTS (SELECT 1 FROM information_schema.columns\n" +
+                                                                         " WHERE table_schema = current_schema() AND table_name = :tableName AND column_name = 'message_payload_encoding')")
+                                                    .bind("tableName", sharedQueueTableName.toLowerCase(Locale.ROOT))
+                                                    .mapTo(Boolean.class)
+                                                    .one();
+        if (hasMessagePayloadEncodingColumn) {
+            return;
+        }
+        handle.execute(bind("ALTER TABLE {:tableName}\n" +
+                                    " ADD COLUMN IF NOT EXISTS message_payload_bytes BYTEA DEFAULT NULL,\n" +
+                                    " ADD COLUMN IF NOT EXISTS message_payload_encoding TEXT DEFAULT NULL,\n" +
+                                    " ALTER COLUMN message_payload DROP NOT NULL",
+                            arg("tableName", sharedQueueTableName)));
+        log.info("Added columns 'message_payload_bytes' and 'message_payload_encoding' to Durable Queues table '{}'",
+                 sharedQueueTableName);
+    }
+
+    /**
+     * Ensure that a queue table created by an earlier version has the <code>lease_until</code> and <code>leased_by</code> columns.<br>
+     * When the columns are added, then all messages being delivered (which earlier versions reset using a periodic scan)
+     * get a lease that expires <code>messageHandlingTimeout</code> after their delivery timestamp, so they can be reclaimed by the dequeue query
+     */
+    private void ensureLeaseColumnsExist(Handle handle) {
+        var hasLeaseUntilColumn = handle.createQuery("SELECT EXISTS (SELECT 1 FROM information_schema.columns\n" +
+                                                             " WHERE table_schema = current_schema() AND table_name = :tableName AND column_name = 'lease_until')")
+                                        .bind("tableName", sharedQueueTableName.toLowerCase(Locale.ROOT))
+                                        .mapTo(Boolean.class)
+                                        .one();
+        if (hasLeaseUntilColumn) {
+            return;
+        }
+        handle.execute(bind("ALTER TABLE {:tableName}\n" +
+                                    " ADD COLUMN IF NOT EXISTS lease_until TIMESTAMPTZ DEFAULT NULL,\n" +
+                                    " ADD COLUMN IF NOT EXISTS leased_by TEXT DEFAULT NULL",
+                            arg("tableName", sharedQueueTableName)));
+        var numberOfLeasedMessages = 0;
+        if (transactionalMode == TransactionalMode.SingleOperationTransaction) {
+            numberOfLeasedMessages = handle.createUpdate(bind("UPDATE {:tableName} SET\n" +
+                                                                      "     lease_until = COALESCE(delivery_ts, :now) + :leaseDuration * INTERVAL '1 millisecond',\n" +
+                                                                      "     next_delivery_ts = COALESCE(delivery_ts, :now) + :leaseDuration * INTERVAL '1 millisecond'\n" +
+                                                                      " WHERE is_being_delivered = TRUE AND is_dead_letter_message = FALSE",
+                                                              arg("tableName", sharedQueueTableName)))
+                                           .bind("now", OffsetDateTime.now(Clock.systemUTC()))
+                                           .bind("leaseDuration", messageHandlingTimeoutMs)
+                                           .execute();
+        }
+        log.info("Added columns 'lease_until' and 'leased_by' to Durable Queues table '{}' and leased {} message(s) being delivered",
+                 sharedQueueTableName,
+                 numberOfLeasedMessages);
+    }
+
     /**
      * The name of the shared table where all queue messages are stored
      *
@@ -347,6 +518,16 @@ public final class PostgresqlDurableQueues implements DurableQueues {
         return sharedQueueTableName;
     }
 
+    /**
+     * The {@link MessagePayloadCodecs} that defines which queues store their message payloads using a binary {@link MessagePayloadCodec} instead of JSON.<br>
+     * Queue specific codecs can be added after the {@link PostgresqlDurableQueues} has been created, e.g. using {@link MessagePayloadCodecs#useCodecForQueue(QueueName, MessagePayloadCodec)}
+     *
+     * @return the {@link MessagePayloadCodecs}
+     */
+    public final MessagePayloadCodecs getMessagePayloadCodecs() {
+        return messagePayloadCodecs;
+    }
+
     public final List<DurableQueuesInterceptor> getInterceptors() {
         return Collections.unmodifiableList(interceptors);
     }
@@ -423,6 +604,11 @@ public final class PostgresqlDurableQueues implements DurableQueues {
         return transactionalMode;
     }
 
+    @Override
+    public final Optional<Duration> getMessageHandlingTimeout() {
+        return transactionalMode == TransactionalMode.SingleOperationTransaction ? Optional.of(Duration.ofMillis(messageHandlingTimeoutMs)) : Optional.empty();
+    }
+
     @Override
     public final Optional<UnitOfWorkFactory<? extends UnitOfWork>> getUnitOfWorkFactory() {
         return Optional.ofNullable(unitOfWorkFactory);
@@ -549,12 +735,7 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                   isOrderedMessage ? msg(" {}:{}", ((OrderedMessage) message).getKey(), ((OrderedMessage) message).getOrder()) : "",
                   nextDeliveryTimestamp);
 
-        String jsonPayload;
-        try {
-            jsonPayload = jsonSerializer.serialize(message.getPayload());
-        } catch (JSONSerializationException e) {
-            throw new DurableQueueException(msg("Failed to serialize message payload of type", message.getPayload().getClass().getName()), e, queueName);
-        }
+        var encodedPayload = encodeMessagePayload(queueName, message);
 
         if (transactionalMode == TransactionalMode.FullyTransactional) {
             unitOfWorkFactory.getRequiredUnitOfWork();
@@ -563,10 +744,15 @@ public final class PostgresqlDurableQueues implements DurableQueues {
         // TODO: Future improvement: If queueing an OrderedMessage check if another OrderMessage related to the same key and a lower order is already marked as a dead letter message,
         //  in which case this message can be queued directly as a dead letter message
         unitOfWorkFactory.usingUnitOfWork(unitOfWork -> {
+            if (isOrderedMessage) {
+                lockHeadOfKeys(unitOfWork.handle(), queueName, List.of(requireNonNull(((OrderedMessage) message).getKey(), "An OrderedMessage requires a non null key")));
+            }
             var update = unitOfWork.handle().createUpdate(bind("INSERT INTO {:tableName} (\n" +
                                                                        "       id,\n" +
                                                                        "       queue_name,\n" +
                                                                        "       message_payload,\n" +
+                                                                       "       message_payload_bytes,\n" +
+                                                                       "       message_payload_encoding,\n" +
                                                                        "       message_payload_type,\n" +
                                                                        "       added_ts,\n" +
                                                                        "       next_delivery_ts,\n" +
@@ -575,11 +761,14 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                        "       meta_data,\n" +
                                                                        "       delivery_mode,\n" +
                                                                        "       key,\n" +
-                                                                       "       key_order\n" +
+                                                                       "       key_order,\n" +
+                                                                       "       is_head_of_key\n" +
                                                                        "   ) VALUES (\n" +
                                                                        "       :id,\n" +
                                                                        "       :queueName,\n" +
                                                                        "       :message_payload::jsonb,\n" +
+                                                                       "       :message_payload_bytes,\n" +
+                                                                       "       :message_payload_encoding,\n" +
                                                                        "       :message_payload_type,\n" +
                                                                        "       :addedTimestamp,\n" +
                                                                        "       :nextDeliveryTimestamp,\n" +
@@ -588,16 +777,17 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                        "       :metaData::jsonb,\n" +
                                                                        "       :deliveryMode,\n" +
                                                                        "       :key,\n" +
-                                                                       "       :order\n" +
+                                                                       "       :order,\n" +
+                                                                       "       NOT EXISTS (SELECT 1 FROM {:tableName} WHERE queue_name = :queueName AND key = :key AND key_order < :order)\n" +
                                                                        "   )",
                                                                arg("tableName", sharedQueueTableName)))
                                    .bind("id", queueEntryId)
                                    .bind("queueName", queueName)
-                                   .bind("message_payload", jsonPayload)
                                    .bind("message_payload_type", message.getPayload().getClass().getName())
                                    .bind("addedTimestamp", addedTimestamp)
                                    .bind("nextDeliveryTimestamp", nextDeliveryTimestamp)
                                    .bind("isDeadLetterMessage", isDeadLetterMessage);
+            encodedPayload.bindTo(update);
 
             if (message instanceof OrderedMessage) {
                 var orderedMessage = (OrderedMessage) message;
@@ -630,6 +820,9 @@ public final class PostgresqlDurableQueues implements DurableQueues {
             if (numberOfRowsUpdated == 0) {
                 throw new DurableQueueException("Failed to insert message", queueName);
             }
+            if (isOrderedMessage) {
+                demoteHeadOfKeys(unitOfWork.handle(), queueName, List.of(((OrderedMessage) message).getKey()));
+            }
         });
         log.debug("[{}:{}] Queued {}{}message{} with nextDeliveryTimestamp {}",
                   queueName,
@@ -656,86 +849,62 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                    var addedTimestamp        = OffsetDateTime.now(Clock.systemUTC());
                                                    var nextDeliveryTimestamp = addedTimestamp.plus(deliveryDelay.orElse(Duration.ZERO));
 
-                                                   var batch = unitOfWorkFactory.getRequiredUnitOfWork().handle().prepareBatch(bind("INSERT INTO {:tableName} (\n" +
-                                                                                                                                            "       id,\n" +
-                                                                                                                                            "       queue_name,\n" +
-                                                                                                                                            "       message_payload,\n" +
-                                                                                                                                            "       message_payload_type,\n" +
-                                                                                                                                            "       added_ts,\n" +
-                                                                                                                                            "       next_delivery_ts,\n" +
-                                                                                                                                            "       last_delivery_error,\n" +
-                                                                                                                                            "       is_dead_letter_message,\n" +
-                                                                                                                                            "       is_being_delivered,\n" +
-                                                                                                                                            "       meta_data,\n" +
-                                                                                                                                            "       delivery_mode,\n" +
-                                                                                                                                            "       key,\n" +
-                                                                                                                                            "       key_order\n" +
-                                                                                                                                            "   ) VALUES (\n" +
-                                                                                                                                            "       :id,\n" +
-                                                                                                                                            "       :queueName,\n" +
-                                                                                                                                            "       :message_payload::jsonb,\n" +
-                                                                                                                                            "       :message_payload_type,\n" +
-                                                                                                                                            "       :addedTimestamp,\n" +
-                                                                                                                                            "       :nextDeliveryTimestamp,\n" +
-                                                                                                                                            "       :lastDeliveryError,\n" +
-                                                                                                                                            "       :isDeadLetterMessage,\n" +
-                                                                                                                                            "       :isBeingDelivered,\n" +
-                                                                                                                                            "       :metaData::jsonb,\n" +
-                                                                                                                                            "       :deliveryMode,\n" +
-                                                                                                                                            "       :key,\n" +
-                                                                                                                                            "       :order\n" +
-                                                                                                                                            "   )",
-                                                                                                                                    arg("tableName", sharedQueueTableName)));
-                                                   var queueEntryIds = Lists.toIndexedStream(messages).map(indexedMessage -> {
-                                                       var    message = indexedMessage._2;
-                                                       String jsonPayload;
-                                                       try {
-                                                           jsonPayload = jsonSerializer.serialize(message.getPayload());
-                                                       } catch (JSONSerializationException e) {
-                                                           throw new DurableQueueException(msg("Failed to serialize message payload of type", message.getPayload().getClass().getName()), e, queueName);
-                                                       }
-                                                       var queueEntryId = QueueEntryId.random();
-                                                       batch.bind("id", queueEntryId)
-                                                            .bind("queueName", queueName)
-                                                            .bind("message_payload", jsonPayload)
-                                                            .bind("message_payload_type", message.getPayload().getClass().getName())
-                                                            .bind("addedTimestamp", addedTimestamp)
-                                                            .bind("nextDeliveryTimestamp", nextDeliveryTimestamp)
-                                                            .bind("isDeadLetterMessage", false)
-                                                            .bind("isBeingDelivered", false)
-                                                            .bindNull("lastDeliveryError", Types.VARCHAR);
-
-                                                       if (message instanceof OrderedMessage) {
-                                                           var orderedMessage = (OrderedMessage) message;
-                                                           requireNonNull(orderedMessage.getKey(), msg("[Index: {}] - OrderedMessage requires a non null key", indexedMessage._1));
-                                                           requireTrue(orderedMessage.getOrder() >= 0, msg("[Index: {}] - OrderedMessage requires an order >= 0", indexedMessage._1));
-
-                                                           batch.bind("deliveryMode", QueuedMessage.DeliveryMode.IN_ORDER)
-                                                                .bind("key", orderedMessage.getKey())
-                                                                .bind("order", orderedMessage.getOrder());
-                                                       } else {
-                                                           batch.bind("deliveryMode", QueuedMessage.DeliveryMode.NORMAL)
-                                                                .bindNull("key", Types.VARCHAR)
-                                                                .bind("order", -1L);
-                                                       }
-
-                                                       try {
-                                                           var jsonMetaData = jsonSerializer.serialize(message.getMetaData());
-                                                           batch.bind("metaData", jsonMetaData);
-                                                       } catch (JSONSerializationException e) {
-                                                           throw new DurableQueueException("Failed to serialize message meta-data", e, queueName);
+                                                   var handle = unitOfWorkFactory.getRequiredUnitOfWork().handle();
+                                                   var orderedMessageKeys = messages.stream()
+                                                                                    .filter(message -> message instanceof OrderedMessage)
+                                                                                    .map(message -> ((OrderedMessage) message).getKey())
+                                                                                    .filter(Objects::nonNull)
+                                                                                    .collect(Collectors.toSet());
+                                                   lockHeadOfKeys(handle, queueName, orderedMessageKeys);
+
+                                                   // Insert the messages using multi-row INSERT statements, each containing up to MAX_MESSAGES_PER_INSERT_STATEMENT messages
+                                                   List<QueueEntryId> queueEntryIds = new ArrayList<>(messages.size());
+                                                   var                numberOfRowsUpdated = 0;
+                                                   for (var chunkStartIndex = 0; chunkStartIndex < messages.size(); chunkStartIndex += MAX_MESSAGES_PER_INSERT_STATEMENT) {
+                                                       var chunk = messages.subList(chunkStartIndex, Math.min(messages.size(), chunkStartIndex + MAX_MESSAGES_PER_INSERT_STATEMENT));
+                                                       var insert = handle.createUpdate(buildMultiRowInsertSql(chunk.size()))
+                                                                          .bind("queueName", queueName)
+                                                                          .bind("addedTimestamp", addedTimestamp)
+                                                                          .bind("nextDeliveryTimestamp", nextDeliveryTimestamp);
+                                                       for (var rowIndex = 0; rowIndex < chunk.size(); rowIndex++) {
+                                                           var message        = chunk.get(rowIndex);
+                                                           var messageIndex   = chunkStartIndex + rowIndex;
+                                                           var suffix         = "_" + rowIndex;
+                                                           var encodedPayload = encodeMessagePayload(queueName, message);
+                                                           var queueEntryId   = QueueEntryId.random();
+                                                           encodedPayload.bindTo(insert, suffix);
+                                                           insert.bind("id" + suffix, queueEntryId)
+                                                                 .bind("message_payload_type" + suffix, message.getPayload().getClass().getName());
+
+                                                           if (message instanceof OrderedMessage) {
+                                                               var orderedMessage = (OrderedMessage) message;
+                                                               requireNonNull(orderedMessage.getKey(), msg("[Index: {}] - OrderedMessage requires a non null key", messageIndex));
+                                                               requireTrue(orderedMessage.getOrder() >= 0, msg("[Index: {}] - OrderedMessage requires an order >= 0", messageIndex));
+
+                                                               insert.bind("deliveryMode" + suffix, QueuedMessage.DeliveryMode.IN_ORDER)
+                                                                     .bind("key" + suffix, orderedMessage.getKey())
+                                                                     .bind("order" + suffix, orderedMessage.getOrder());
+                                                           } else {
+                                                               insert.bind("deliveryMode" + suffix, QueuedMessage.DeliveryMode.NORMAL)
+                                                                     .bindNull("key" + suffix, Types.VARCHAR)
+                                                                     .bind("order" + suffix, -1L);
+                                                           }
+
+                                                           try {
+                                                               var jsonMetaData = jsonSerializer.serialize(message.getMetaData());
+                                                               insert.bind("metaData" + suffix, jsonMetaData);
+                                                           } catch (JSONSerializationException e) {
+                                                               throw new DurableQueueException("Failed to serialize message meta-data", e, queueName);
+                                                           }
+                                                           queueEntryIds.add(queueEntryId);
                                                        }
-
-                                                       batch.add();
-                                                       return queueEntryId;
-                                                   }).collect(Collectors.toList());
-
-                                                   var numberOfRowsUpdated = Arrays.stream(batch.execute())
-                                                                                   .reduce(Integer::sum).orElse(0);
+                                                       numberOfRowsUpdated += insert.execute();
+                                                   }
                                                    if (numberOfRowsUpdated != messages.size()) {
                                                        throw new DurableQueueException(msg("Attempted to queue {} messages but only inserted {} messages", messages.size(), numberOfRowsUpdated),
                                                                                        queueName);
                                                    }
+                                                   demoteHeadOfKeys(handle, queueName, orderedMessageKeys);
 
                                                    log.debug("[{}] Queued {} Messages with nextDeliveryTimestamp {} and entry-id's: {}",
                                                              queueName,
@@ -755,25 +924,30 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                                () -> {
                                                    var nextDeliveryTimestamp = OffsetDateTime.now(Clock.systemUTC()).plus(operation.getDeliveryDelay());
-                                                   var result = unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(bind("UPDATE {:tableName} SET\n" +
+                                                   var query = unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(bind("UPDATE {:tableName} SET\n" +
                                                                                                                                             "     next_delivery_ts = :nextDeliveryTimestamp,\n" +
                                                                                                                                             "     last_delivery_error = :lastDeliveryError,\n" +
                                                                                                                                             "     redelivery_attempts = redelivery_attempts + 1,\n" +
                                                                                                                                             "     is_being_delivered = FALSE,\n" +
-                                                                                                                                            "     delivery_ts = NULL\n" +
-                                                                                                                                            " WHERE id = :id\n" +
+                                                                                                                                            "     delivery_ts = NULL,\n" +
+                                                                                                                                            "     lease_until = NULL,\n" +
+                                                                                                                                            "     leased_by = NULL\n" +
+                                                                                                                                            " WHERE id = :id" + leaseOwnerCondition() + "\n" +
                                                                                                                                             " RETURNING *",
                                                                                                                                     arg("tableName", sharedQueueTableName)))
                                                                                  .bind("nextDeliveryTimestamp", nextDeliveryTimestamp)
                                                                                  .bind("lastDeliveryError", Exceptions.getStackTrace(operation.getCauseForRetry()))
-                                                                                 .bind("id", operation.queueEntryId)
-                                                                                 .map(queuedMessageMapper)
-                                                                                 .findOne();
+                                                                                 .bind("id", operation.queueEntryId);
+                                                   bindLeaseOwner(query);
+                                                   var result = query.map(queuedMessageMapper)
+                                                                     .findOne();
                                                    if (result.isPresent()) {
                                                        log.debug("Marked Message with id '{}' for Retry at {}. Message entry after update: {}", operation.queueEntryId, nextDeliveryTimestamp, result.get());
                                                        return result;
                                                    } else {
-                                                       log.error("Failed to Mark Message with id '{}' for Retry", operation.queueEntryId);
+                                                       if (!reportLostLease("Retry", operation.queueEntryId)) {
+                                                           log.error("Failed to Mark Message with id '{}' for Retry", operation.queueEntryId);
+                                                       }
                                                        return Optional.<QueuedMessage>empty();
                                                    }
                                                }).proceed();
@@ -788,24 +962,29 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                interceptors,
                                                (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                                () -> {
-                                                   var result = unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(bind("UPDATE {:tableName} SET\n" +
+                                                   var query = unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(bind("UPDATE {:tableName} SET\n" +
                                                                                                                                             "     next_delivery_ts = NULL,\n" +
                                                                                                                                             "     last_delivery_error = :lastDeliveryError,\n" +
                                                                                                                                             "     is_dead_letter_message = TRUE,\n" +
                                                                                                                                             "     is_being_delivered = FALSE,\n" +
-                                                                                                                                            "     delivery_ts = NULL\n" +
-                                                                                                                                            " WHERE id = :id AND is_dead_letter_message = FALSE\n" +
+                                                                                                                                            "     delivery_ts = NULL,\n" +
+                                                                                                                                            "     lease_until = NULL,\n" +
+                                                                                                                                            "     leased_by = NULL\n" +
+                                                                                                                                            " WHERE id = :id AND is_dead_letter_message = FALSE" + leaseOwnerCondition() + "\n" +
                                                                                                                                             " RETURNING *",
                                                                                                                                     arg("tableName", sharedQueueTableName)))
                                                                                  .bind("lastDeliveryError", Exceptions.getStackTrace(operation.getCauseForBeingMarkedAsDeadLetter()))
-                                                                                 .bind("id", operation.queueEntryId)
-                                                                                 .map(queuedMessageMapper)
-                                                                                 .findOne();
+                                                                                 .bind("id", operation.queueEntryId);
+                                                   bindLeaseOwner(query);
+                                                   var result = query.map(queuedMessageMapper)
+                                                                     .findOne();
                                                    if (result.isPresent()) {
                                                        log.debug("Marked message with id '{}' as Dead Letter Message. Message entry after update: {}", operation.queueEntryId, result.get());
                                                        return result;
                                                    } else {
-                                                       log.error("Failed to Mark as Message message with id '{}' as Dead Letter Message", operation.queueEntryId);
+                                                       if (!reportLostLease("Mark-As-Dead-Letter-Message", operation.queueEntryId)) {
+                                                           log.error("Failed to Mark as Message message with id '{}' as Dead Letter Message", operation.queueEntryId);
+                                                       }
                                                        return Optional.<QueuedMessage>empty();
                                                    }
                                                }).proceed();
@@ -865,6 +1044,49 @@ public final class PostgresqlDurableQueues implements DurableQueues {
 
     }
 
+    @Override
+    public final int acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled operation) {
+        requireNonNull(operation, "You must provide a AcknowledgeMessagesAsHandled instance");
+
+        return newInterceptorChainForOperation(operation,
+                                               interceptors,
+                                               (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
+                                               () -> {
+                                                   if (operation.queueEntryIds.isEmpty()) {
+                                                       return 0;
+                                                   }
+                                                   log.debug("[{}] Acknowledging-Messages-As-Handled regarding {} Message(s) with ids {}", operation.queueName, operation.queueEntryIds.size(), operation.queueEntryIds);
+                                                   var ids = operation.queueEntryIds.stream()
+                                                                                    .map(QueueEntryId::toString)
+                                                                                    .toArray(String[]::new);
+                                                   var handle = unitOfWorkFactory.getRequiredUnitOfWork().handle();
+                                                   lockHeadOfKeysOfMessages(handle, ids);
+                                                   var query = handle.createQuery(bind("DELETE FROM {:tableName} WHERE queue_name = :queueName AND id = ANY(:ids)" + leaseOwnerCondition() + "\n" +
+                                                                                               " RETURNING queue_name, key, is_head_of_key",
+                                                                                       arg("tableName", sharedQueueTableName)))
+                                                                     .bind("queueName", operation.queueName)
+                                                                     .bind("ids", ids);
+                                                   bindLeaseOwner(query);
+                                                   var deletedMessages = query.map(deletedMessageMapper)
+                                                                              .list();
+                                                   promoteNextHeadOfKeys(handle, operation.queueName, deletedMessages);
+                                                   var rowsDeleted = deletedMessages.size();
+                                                   if (rowsDeleted == ids.length) {
+                                                       log.debug("[{}] Deleted {} Message(s)", operation.queueName, rowsDeleted);
+                                                   } else {
+                                                       var messagesWithLostLease = getMessagesLeasedByAnotherInstance(ids);
+                                                       if (!messagesWithLostLease.isEmpty()) {
+                                                           log.warn("[{}] Lost the delivery lease for Message(s) with ids {} - they have been reclaimed by another {} instance, so they weren't Acknowledged-As-Handled",
+                                                                    operation.queueName,
+                                                                    messagesWithLostLease,
+                                                                    PostgresqlDurableQueues.class.getSimpleName());
+                                                       }
+                                                       log.error("[{}] Only deleted {} of {} Message(s) with ids {} - some may already have been deleted or their delivery lease was lost", operation.queueName, rowsDeleted, ids.length, operation.queueEntryIds);
+                                                   }
+                                                   return rowsDeleted;
+                                               }).proceed();
+    }
+
     @Override
     public final boolean deleteMessage(DeleteMessage operation) {
         requireNonNull(operation, "You must provide a DeleteMessage instance");
@@ -873,15 +1095,23 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                interceptors,
                                                (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                                () -> {
-                                                   var rowsUpdated = unitOfWorkFactory.getRequiredUnitOfWork().handle().createUpdate(bind("DELETE FROM {:tableName} WHERE id = :id",
-                                                                                                                                          arg("tableName", sharedQueueTableName)))
-                                                                                      .bind("id", operation.queueEntryId)
-                                                                                      .execute();
-                                                   if (rowsUpdated == 1) {
+                                                   var handle = unitOfWorkFactory.getRequiredUnitOfWork().handle();
+                                                   lockHeadOfKeysOfMessages(handle, new String[]{operation.queueEntryId.toString()});
+                                                   var query = handle.createQuery(bind("DELETE FROM {:tableName} WHERE id = :id" + leaseOwnerCondition() + "\n" +
+                                                                                               " RETURNING queue_name, key, is_head_of_key",
+                                                                                       arg("tableName", sharedQueueTableName)))
+                                                                     .bind("id", operation.queueEntryId);
+                                                   bindLeaseOwner(query);
+                                                   var deletedMessage = query.map(deletedMessageMapper)
+                                                                             .findOne();
+                                                   if (deletedMessage.isPresent()) {
+                                                       promoteNextHeadOfKeys(handle, deletedMessage.get().queueName(), List.of(deletedMessage.get()));
                                                        log.debug("Deleted Message with id '{}'", operation.queueEntryId);
                                                        return true;
                                                    } else {
-                                                       log.error("Couldn't Delete Message with id '{}' - it may already have been deleted", operation.queueEntryId);
+                                                       if (!reportLostLease("Delete", operation.queueEntryId)) {
+                                                           log.error("Couldn't Delete Message with id '{}' - it may already have been deleted", operation.queueEntryId);
+                                                       }
                                                        return false;
                                                    }
                                                }).proceed();
@@ -894,7 +1124,6 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                interceptors,
                                                (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                                () -> {
-                                                   resetMessagesStuckBeingDelivered(operation.queueName);
                                                    var now                 = OffsetDateTime.now(Clock.systemUTC());
                                                    var excludeKeysLimitSql = "";
                                                    var excludedKeys        = operation.getExcludeOrderedMessagesWithKey() != null ? operation.getExcludeOrderedMessagesWithKey() : List.of();
@@ -906,9 +1135,8 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                           "    WHERE\n" +
                                                                           "        queue_name = :queueName AND\n" +
                                                                           "        is_dead_letter_message = FALSE AND\n" +
-                                                                          "        is_being_delivered = FALSE AND\n" +
                                                                           "        next_delivery_ts <= :now AND\n" +
-                                                                          "        NOT EXISTS (SELECT 1 FROM {:tableName} q2 WHERE q2.key = q1.key AND q2.queue_name = q1.queue_name AND q2.key_order < q1.key_order)\n" +
+                                                                          "        is_head_of_key = TRUE\n" +
                                                                           excludeKeysLimitSql +
                                                                           "    ORDER BY key_order ASC, next_delivery_ts ASC\n" + // TODO: Future improvement: Allow the user to specify if key_order or next_delivery_ts should have the highest priority
                                                                           "    LIMIT 1\n" +
@@ -916,7 +1144,11 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                           " )\n" +
                                                                           " UPDATE {:tableName} queued_message SET\n" +
                                                                           "    total_attempts = total_attempts + 1,\n" +
-                                                                          "    next_delivery_ts = NULL,\n" +
+                                                                          "    redelivery_attempts = redelivery_attempts + CASE WHEN queued_message.is_being_delivered THEN 1 ELSE 0 END,\n" +
+                                                                          "    last_delivery_error = CASE WHEN queued_message.is_being_delivered THEN :leaseExpiredError ELSE queued_message.last_delivery_error END,\n" +
+                                                                          "    next_delivery_ts = :leaseUntil,\n" +
+                                                                          "    lease_until = :leaseUntil,\n" +
+                                                                          "    leased_by = :leasedBy,\n" +
                                                                           "    is_being_delivered = TRUE,\n" +
                                                                           "    delivery_ts = :now\n" +
                                                                           " FROM queued_message_ready_for_delivery\n" +
@@ -925,6 +1157,8 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                           "     queued_message.id,\n" +
                                                                           "     queued_message.queue_name,\n" +
                                                                           "     queued_message.message_payload,\n" +
+                                                                          "     queued_message.message_payload_bytes,\n" +
+                                                                          "     queued_message.message_payload_encoding,\n" +
                                                                           "     queued_message.message_payload_type,\n" +
                                                                           "     queued_message.added_ts,\n" +
                                                                           "     queued_message.next_delivery_ts,\n" +
@@ -940,29 +1174,354 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                           "     queued_message.key_order",
                                                                   arg("tableName", sharedQueueTableName));
 
-                                                   var query = unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(sql)
-                                                                                .bind("queueName", operation.queueName)
-                                                                                .bind("now", now);
+                                                   var handle = unitOfWorkFactory.getRequiredUnitOfWork().handle();
+                                                   var query = handle.createQuery(sql)
+                                                                     .bind("queueName", operation.queueName)
+                                                                     .bind("now", now);
+                                                   bindDeliveryLease(query, now);
                                                    if (!excludedKeys.isEmpty()) {
                                                        query.bindList("excludedKeys", excludedKeys);
                                                    }
 
 
-                                                   return query
-                                                           .map(queuedMessageMapper)
-                                                           .findOne();
+                                                   return claimMessagesReadyForDelivery(handle,
+                                                                                        operation.queueName,
+                                                                                        () -> query.map(queuedMessageMapper)
+                                                                                                   .list())
+                                                           .stream()
+                                                           .findFirst();
                                                }).proceed();
     }
 
+    @Override
+    public final List<QueuedMessage> getNextMessagesReadyForDelivery(GetNextMessagesReadyForDelivery operation) {
+        requireNonNull(operation, "You must specify a GetNextMessagesReadyForDelivery instance");
+        return newInterceptorChainForOperation(operation,
+                                               interceptors,
+                                               (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
+                                               () -> {
+                                                   var now                 = OffsetDateTime.now(Clock.systemUTC());
+                                                   var excludeKeysLimitSql = "";
+                                                   var excludedKeys        = operation.getExcludeOrderedMessagesWithKey() != null ? operation.getExcludeOrderedMessagesWithKey() : List.of();
+                                                   if (!excludedKeys.isEmpty()) {
+                                                       excludeKeysLimitSql = "        AND key NOT IN (<excludedKeys>)\n";
+                                                   }
+                                                   // Only the head of each key (i.e. the OrderedMessage with the lowest key_order per key) can be claimed,
+                                                   // i.e. the batch never contains two messages with the same key
+                                                   var sql = bind("WITH queued_messages_ready_for_delivery AS (\n" +
+                                                                          "    SELECT id, next_delivery_ts AS ready_for_delivery_ts FROM {:tableName} q1 \n" +
+                                                                          "    WHERE\n" +
+                                                                          "        queue_name = :queueName AND\n" +
+                                                                          "        is_dead_letter_message = FALSE AND\n" +
+                                                                          "        next_delivery_ts <= :now AND\n" +
+                                                                          "        is_head_of_key = TRUE\n" +
+                                                                          excludeKeysLimitSql +
+                                                                          "    ORDER BY key_order ASC, next_delivery_ts ASC\n" +
+                                                                          "    LIMIT :maxNumberOfMessages\n" +
+                                                                          "    FOR UPDATE SKIP LOCKED\n" +
+                                                                          " ),\n" +
+                                                                          " delivered_messages AS (\n" +
+                                                                          "    UPDATE {:tableName} queued_message SET\n" +
+                                                                          "       total_attempts = total_attempts + 1,\n" +
+                                                                          "       redelivery_attempts = redelivery_attempts + CASE WHEN queued_message.is_being_delivered THEN 1 ELSE 0 END,\n" +
+                                                                          "       last_delivery_error = CASE WHEN queued_message.is_being_delivered THEN :leaseExpiredError ELSE queued_message.last_delivery_error END,\n" +
+                                                                          "       next_delivery_ts = :leaseUntil,\n" +
+                                                                          "       lease_until = :leaseUntil,\n" +
+                                                                          "       leased_by = :leasedBy,\n" +
+                                                                          "       is_being_delivered = TRUE,\n" +
+                                                                          "       delivery_ts = :now\n" +
+                                                                          "    FROM queued_messages_ready_for_delivery\n" +
+                                                                          "    WHERE queued_message.id = queued_messages_ready_for_delivery.id\n" +
+                                                                          "    RETURNING\n" +
+                                                                          "        queued_message.id,\n" +
+                                                                          "        queued_message.queue_name,\n" +
+                                                                          "        queued_message.message_payload,\n" +
+                                                                          "        queued_message.message_payload_bytes,\n" +
+                                                                          "        queued_message.message_payload_encoding,\n" +
+                                                                          "        queued_message.message_payload_type,\n" +
+                                                                          "        queued_message.added_ts,\n" +
+                                                                          "        queued_message.next_delivery_ts,\n" +
+                                                                          "        queued_message.delivery_ts,\n" +
+                                                                          "        queued_message.last_delivery_error,\n" +
+                                                                          "        queued_message.total_attempts,\n" +
+                                                                          "        queued_message.redelivery_attempts,\n" +
+                                                                          "        queued_message.is_dead_letter_message,\n" +
+                                                                          "        queued_message.is_being_delivered,\n" +
+                                                                          "        queued_message.meta_data,\n" +
+                                                                          "        queued_message.delivery_mode,\n" +
+                                                                          "        queued_message.key,\n" +
+                                                                          "        queued_message.key_order,\n" +
+                                                                          "        queued_messages_ready_for_delivery.ready_for_delivery_ts\n" +
+                                                                          " )\n" +
+                                                                          " SELECT * FROM delivered_messages\n" +
+                                                                          " ORDER BY key_order ASC, ready_for_delivery_ts ASC",
+                                                                  arg("tableName", sharedQueueTableName));
+
+                                                   var handle = unitOfWorkFactory.getRequiredUnitOfWork().handle();
+                                                   var query = handle.createQuery(sql)
+                                                                     .bind("queueName", operation.queueName)
+                                                                     .bind("now", now)
+                                                                     .bind("maxNumberOfMessages", operation.maxNumberOfMessages);
+                                                   bindDeliveryLease(query, now);
+                                                   if (!excludedKeys.isEmpty()) {
+                                                       query.bindList("excludedKeys", excludedKeys);
+                                                   }
+
+                                                   var queuedMessages = claimMessagesReadyForDelivery(handle,
+                                                                                                      operation.queueName,
+                                                                                                      () -> query.map(queuedMessageMapper)
+                                                                                                                 .list());
+                                                   if (!queuedMessages.isEmpty()) {
+                                                       log.debug("[{}] Found {} message(s) ready for delivery", operation.queueName, queuedMessages.size());
+                                                   }
+                                                   return queuedMessages;
+                                               }).proceed();
+    }
+
+    /**
+     * Serializes all changes to the head of line of the {@link OrderedMessage} <code>keys</code> (within the given queue) until the current transaction ends.<br>
+     * This ensures that concurrently queuing and deleting {@link OrderedMessage}'s with the same key can't leave a key without a head
+     * (or with more than one head). The locks are acquired in key order to avoid deadlocks between transactions that lock multiple keys
+     *
+     * @param handle    the handle of the current transaction
+     * @param queueName the name of the queue
+     * @param keys      the {@link OrderedMessage} keys to lock
+     */
+    private void lockHeadOfKeys(Handle handle, QueueName queueName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        handle.createQuery("SELECT sorted_keys.key, pg_advisory_xact_lock(hashtext(:queueName), hashtext(sorted_keys.key))\n" +
+                                   " FROM (SELECT DISTINCT key FROM unnest(:keys) AS key ORDER BY key) sorted_keys")
+              .bind("queueName", queueName)
+              .bind("keys", keys.toArray(String[]::new))
+              .map((rs, ctx) -> rs.getString("key"))
+              .list();
+    }
+
+    /**
+     * Claim the messages ready for delivery using the <code>claimMessages</code> query.<br>
+     * With {@link TransactionalMode#FullyTransactional} the claimed messages remain row locked until the {@link UnitOfWork} completes, which means that the head of key
+     * locks (see {@link #lockHeadOfKeys(Handle, QueueName, Collection)}) can't be acquired when the messages are acknowledged without risking a deadlock with a
+     * concurrent out of order enqueue (which holds the head of key lock while it demotes the claimed message). Instead the head of key locks of the claimed
+     * {@link OrderedMessage}'s are acquired, without waiting, right after the messages are claimed. If any of them is held by another transaction, then the claim
+     * is rolled back (to a savepoint) and the messages are left for a later poll
+     *
+     * @param handle        the handle of the current transaction
+     * @param queueName     the name of the queue
+     * @param claimMessages the query that claims the messages ready for delivery
+     * @return the claimed messages
+     */
+    private List<QueuedMessage> claimMessagesReadyForDelivery(Handle handle, QueueName queueName, Supplier<List<QueuedMessage>> claimMessages) {
+        if (transactionalMode != TransactionalMode.FullyTransactional) {
+            return claimMessages.get();
+        }
+        var savepointName = "claim_messages_ready_for_delivery";
+        handle.savepoint(savepointName);
+        var claimedMessages = claimMessages.get();
+        var orderedMessageKeys = claimedMessages.stream()
+                                                .filter(queuedMessage -> queuedMessage.getMessage() instanceof OrderedMessage)
+                                                .map(queuedMessage -> ((OrderedMessage) queuedMessage.getMessage()).getKey())
+                                                .collect(Collectors.toSet());
+        if (!orderedMessageKeys.isEmpty() && !tryLockHeadOfKeys(handle, queueName, orderedMessageKeys)) {
+            handle.rollbackToSavepoint(savepointName);
+            log.debug("[{}] Skipped claiming {} message(s), since the head of key lock for one or more of the keys {} is held by another transaction",
+                      queueName,
+                      claimedMessages.size(),
+                      orderedMessageKeys);
+            return List.of();
+        }
+        handle.releaseSavepoint(savepointName);
+        return claimedMessages;
+    }
+
+    /**
+     * Try to acquire the head of key locks (see {@link #lockHeadOfKeys(Handle, QueueName, Collection)}) without waiting
+     *
+     * @param handle    the handle of the current transaction
+     * @param queueName the name of the queue
+     * @param keys      the {@link OrderedMessage} keys to lock
+     * @return true if all the locks were acquired, otherwise false (locks that were acquired are held until the transaction, or the surrounding savepoint, ends)
+     */
+    private boolean tryLockHeadOfKeys(Handle handle, QueueName queueName, Collection<String> keys) {
+        return handle.createQuery("SELECT bool_and(pg_try_advisory_xact_lock(hashtext(:queueName), hashtext(sorted_keys.key))) AS locked\n" +
+                                          " FROM (SELECT DISTINCT key FROM unnest(:keys) AS key ORDER BY key) sorted_keys")
+                     .bind("queueName", queueName)
+                     .bind("keys", keys.toArray(String[]::new))
+                     .mapTo(Boolean.class)
+                     .one();
+    }
+
+    /**
+     * Acquire the head of key locks (see {@link #lockHeadOfKeys(Handle, QueueName, Collection)}) for the keys of the {@link OrderedMessage}'s with the given ids.<br>
+     * This must be called before the messages are deleted: a concurrent out of order enqueue acquires the head of key lock before it demotes
+     * the current head of the key, so acquiring the head of key lock after having row locked (e.g. deleted) the head of the key could deadlock with it.
+     * The keys are read without row locking the messages (the key of a message never changes)
+     *
+     * @param handle the handle of the current transaction
+     * @param ids    the ids of the messages that are about to be deleted
+     */
+    private void lockHeadOfKeysOfMessages(Handle handle, String[] ids) {
+        handle.createQuery(bind("SELECT sorted_keys.key, pg_advisory_xact_lock(hashtext(sorted_keys.queue_name), hashtext(sorted_keys.key))\n" +
+                                        " FROM (SELECT DISTINCT queue_name, key FROM {:tableName} WHERE id = ANY(:ids) AND key IS NOT NULL ORDER BY queue_name, key) sorted_keys",
+                                arg("tableName", sharedQueueTableName)))
+              .bind("ids", ids)
+              .map((rs, ctx) -> rs.getString("key"))
+              .list();
+    }
+
+    /**
+     * Ensure that an {@link OrderedMessage} is no longer marked as head of its key if a message with the same key and a lower key_order
+     * was queued after it (i.e. if the messages were queued out of order)
+     *
+     * @param handle    the handle of the current transaction
+     * @param queueName the name of the queue
+     * @param keys      the keys of the {@link OrderedMessage}'s that were queued
+     */
+    private void demoteHeadOfKeys(Handle handle, QueueName queueName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        var numberOfMessagesDemoted = handle.createUpdate(bind("UPDATE {:tableName} q1 SET is_head_of_key = FALSE\n" +
+                                                                       " WHERE q1.queue_name = :queueName AND q1.key = ANY(:keys) AND q1.is_head_of_key = TRUE AND\n" +
+                                                                       "   EXISTS (SELECT 1 FROM {:tableName} q2 WHERE q2.queue_name = q1.queue_name AND q2.key = q1.key AND q2.key_order < q1.key_order)",
+                                                               arg("tableName", sharedQueueTableName)))
+                                            .bind("queueName", queueName)
+                                            .bind("keys", keys.toArray(String[]::new))
+                                            .execute();
+        if (numberOfMessagesDemoted > 0) {
+            log.debug("[{}] Marked {} Ordered Message(s) as no longer being head of their key, since message(s) with a lower order were queued",
+                      queueName,
+                      numberOfMessagesDemoted);
+        }
+    }
+
+    /**
+     * Mark the {@link OrderedMessage} with the lowest key_order as the new head of its key, for each key where the deleted message was head of its key.<br>
+     * The head of key locks must have been acquired, using {@link #lockHeadOfKeysOfMessages(Handle, String[])}, before the messages were deleted
+     *
+     * @param handle          the handle of the current transaction
+     * @param queueName       the name of the queue
+     * @param deletedMessages the messages that were deleted
+     */
+    private void promoteNextHeadOfKeys(Handle handle, QueueName queueName, List<DeletedMessage> deletedMessages) {
+        var keys = deletedMessages.stream()
+                                  .filter(deletedMessage -> deletedMessage.isHeadOfKey() && deletedMessage.key() != null)
+                                  .map(DeletedMessage::key)
+                                  .collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return;
+        }
+        var numberOfMessagesPromoted = handle.createUpdate(bind("UPDATE {:tableName} SET is_head_of_key = TRUE\n" +
+                                                                        " WHERE is_head_of_key = FALSE AND id IN (\n" +
+                                                                        "   SELECT (SELECT q.id FROM {:tableName} q WHERE q.queue_name = :queueName AND q.key = keys.key ORDER BY q.key_order ASC LIMIT 1)\n" +
+                                                                        "   FROM unnest(:keys) AS keys(key)\n" +
+                                                                        " )",
+                                                                arg("tableName", sharedQueueTableName)))
+                                             .bind("queueName", queueName)
+                                             .bind("keys", keys.toArray(String[]::new))
+                                             .execute();
+        log.trace("[{}] Marked {} Ordered Message(s) as head of their key after deleting the previous head for the key(s) {}",
+                  queueName,
+                  numberOfMessagesPromoted,
+                  keys);
+    }
+
+    /**
+     * Bind the delivery lease parameters used when claiming messages for delivery.<br>
+     * When using {@link TransactionalMode#SingleOperationTransaction} a claimed message is leased to this instance
+     * (<code>leased_by</code>) until <code>now + messageHandlingTimeout</code> (<code>lease_until</code>). The lease is also stored in <code>next_delivery_ts</code>,
+     * which means that a message whose lease has expired (because it wasn't acknowledged, retried or marked as a Dead Letter Message in time) is reclaimed
+     * by the dequeue query itself - without requiring a periodic scan for messages stuck being delivered.<br>
+     * When using {@link TransactionalMode#FullyTransactional} the claimed message remains locked until the {@link UnitOfWork} completes, so no lease is used
+     * and <code>next_delivery_ts</code> is set to <code>NULL</code>
+     *
+     * @param query the dequeue query
+     * @param now   the timestamp of the delivery
+     */
+    private void bindDeliveryLease(Query query, OffsetDateTime now) {
+        query.bind("leaseExpiredError", "Handler Processing of the Message was determined to have Timed Out");
+        if (transactionalMode == TransactionalMode.SingleOperationTransaction) {
+            query.bind("leaseUntil", now.plus(Duration.ofMillis(messageHandlingTimeoutMs)))
+                 .bind("leasedBy", leaseOwnerId);
+        } else {
+            query.bindNull("leaseUntil", Types.TIMESTAMP_WITH_TIMEZONE)
+                 .bindNull("leasedBy", Types.VARCHAR);
+        }
+    }
+
+    /**
+     * When using {@link TransactionalMode#SingleOperationTransaction}, then a message that is being delivered can only be acknowledged, deleted, retried or marked as a
+     * Dead Letter Message by the {@link PostgresqlDurableQueues} instance that holds its delivery lease (<code>leased_by</code>).<br>
+     * If the lease expired and the message was reclaimed by another instance, then the operation must not affect the redelivered message.<br>
+     * Messages that aren't leased (<code>leased_by IS NULL</code>) can be operated on by any instance.
+     *
+     * @return the SQL condition (including a leading <code>AND</code>) or an empty string when using {@link TransactionalMode#FullyTransactional}
+     * @see #bindLeaseOwner(SqlStatement)
+     */
+    private String leaseOwnerCondition() {
+        return transactionalMode == TransactionalMode.SingleOperationTransaction ? " AND (leased_by IS NULL OR leased_by = :leaseOwnerId)" : "";
+    }
+
+    /**
+     * Bind the <code>leaseOwnerId</code> parameter used by {@link #leaseOwnerCondition()}
+     *
+     * @param statement the statement that includes the {@link #leaseOwnerCondition()}
+     */
+    private void bindLeaseOwner(SqlStatement<?> statement) {
+        if (transactionalMode == TransactionalMode.SingleOperationTransaction) {
+            statement.bind("leaseOwnerId", leaseOwnerId);
+        }
+    }
+
+    /**
+     * Report if the operation didn't affect the message because its delivery lease is held by another {@link PostgresqlDurableQueues} instance
+     *
+     * @param operationName the name of the operation
+     * @param queueEntryId  the id of the message
+     * @return true if the delivery lease was lost (and a warning was logged), otherwise false
+     */
+    private boolean reportLostLease(String operationName, QueueEntryId queueEntryId) {
+        if (getMessagesLeasedByAnotherInstance(new String[]{queueEntryId.toString()}).isEmpty()) {
+            return false;
+        }
+        log.warn("Lost the delivery lease for Message with id '{}' - it has been reclaimed by another {} instance, so the {} operation was ignored",
+                 queueEntryId,
+                 PostgresqlDurableQueues.class.getSimpleName(),
+                 operationName);
+        return true;
+    }
+
+    /**
+     * Get the ids of the messages, among the provided <code>ids</code>, whose delivery lease is held by another {@link PostgresqlDurableQueues} instance
+     *
+     * @param ids the message ids
+     * @return the ids of the messages leased by another instance (always empty when using {@link TransactionalMode#FullyTransactional})
+     */
+    private List<QueueEntryId> getMessagesLeasedByAnotherInstance(String[] ids) {
+        if (transactionalMode != TransactionalMode.SingleOperationTransaction) {
+            return List.of();
+        }
+        return unitOfWorkFactory.getRequiredUnitOfWork().handle().createQuery(bind("SELECT id FROM {:tableName} WHERE id = ANY(:ids) AND leased_by IS NOT NULL AND leased_by <> :leaseOwnerId",
+                                                                                   arg("tableName", sharedQueueTableName)))
+                                .bind("ids", ids)
+                                .bind("leaseOwnerId", leaseOwnerId)
+                                .map((rs, ctx) -> QueueEntryId.of(rs.getString("id")))
+                                .list();
+    }
+
     /**
      * This operation will scan for messages that has been marked as {@link QueuedMessage#isBeingDelivered()} for longer
      * than {@link #messageHandlingTimeoutMs}<br>
-     * All messages found will have {@link QueuedMessage#isBeingDelivered()} and {@link QueuedMessage#getDeliveryTimestamp()}
-     * reset<br>
+     * All messages found will have {@link QueuedMessage#isBeingDelivered()}, {@link QueuedMessage#getDeliveryTimestamp()}
+     * and their delivery lease reset<br>
      * Only relevant for when using {@link TransactionalMode#SingleOperationTransaction}
      *
      * @param queueName the queue for which we're looking for messages stuck being marked as {@link QueuedMessage#isBeingDelivered()}
+     * @deprecated a message that is being delivered is leased until <code>lease_until</code> and the dequeue query reclaims messages with an expired lease,
+     * so {@link PostgresqlDurableQueues} no longer calls this method
      */
+    @Deprecated
     protected final void resetMessagesStuckBeingDelivered(QueueName queueName) {
         // Reset stuck messages
         if (transactionalMode == TransactionalMode.SingleOperationTransaction) {
@@ -976,12 +1535,16 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                 var numberOfChanges = unitOfWorkFactory.getRequiredUnitOfWork().handle().createUpdate(bind("UPDATE {:tableName} SET\n" +
                                                                                                                    "     is_being_delivered = FALSE,\n" +
                                                                                                                    "     delivery_ts = NULL,\n" +
+                                                                                                                   "     lease_until = NULL,\n" +
+                                                                                                                   "     leased_by = NULL,\n" +
                                                                                                                    "     redelivery_attempts = redelivery_attempts + 1,\n" +
                                                                                                                    "     next_delivery_ts = :now,\n" +
                                                                                                                    "     last_delivery_error = :error\n" +
-                                                                                                                   " WHERE is_being_delivered = TRUE\n" +
+                                                                                                                   " WHERE queue_name = :queueName\n" +
+                                                                                                                   " AND is_being_delivered = TRUE\n" +
                                                                                                                    " AND delivery_ts <= :threshold\n",
                                                                                                            arg("tableName", sharedQueueTableName)))
+                                                       .bind("queueName", queueName)
                                                        .bind("threshold", now.minusMillis(messageHandlingTimeoutMs))
                                                        .bind("error", "Handler Processing of the Message was determined to have Timed Out")
                                                        .bind("now", now)
@@ -1025,11 +1588,8 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                interceptors,
                                                (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                                () -> unitOfWorkFactory.withUnitOfWork(handleAwareUnitOfWork -> handleAwareUnitOfWork.handle().createQuery(bind("SELECT \n" +
-                                                                                                                                                                       "    COUNT(*) FILTER (WHERE is_dead_letter_message = FALSE) AS regular_count,\n" +
-                                                                                                                                                                       "    COUNT(*) FILTER (WHERE is_dead_letter_message = TRUE) AS dead_letter_count\n" +
-                                                                                                                                                                       "FROM {:tableName} \n" +
-                                                                                                                                                                       " WHERE \n" +
-                                                                                                                                                                       "    queue_name = :queueName",
+                                                                                                                                                                       "    (SELECT COUNT(*) FROM {:tableName} WHERE queue_name = :queueName AND is_dead_letter_message = FALSE) AS regular_count,\n" +
+                                                                                                                                                                       "    (SELECT COUNT(*) FROM {:tableName} WHERE queue_name = :queueName AND is_dead_letter_message = TRUE) AS dead_letter_count",
                                                                                                                                                                arg("tableName", sharedQueueTableName)))
                                                                                                                                     .bind("queueName", operation.queueName)
                                                                                                                                     .map((rs, ctx) -> new QueuedMessageCounts(operation.queueName,
@@ -1211,11 +1771,77 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                                                                               .findOne());
     }
 
-    private Object deserializeMessagePayload(QueueName queueName, String messagePayload, String messagePayloadType) {
+    /**
+     * Build a multi-row INSERT statement for {@link #queueMessages(QueueMessages)}, where the parameters of each row are suffixed with <code>_{rowIndex}</code>.<br>
+     * Ordered messages are marked as head of their key if no message with the same key and a lower key_order exists before the statement is executed -
+     * {@link #demoteHeadOfKeys(Handle, QueueName, Collection)} afterwards corrects the head of key for messages with the same key queued in the same statement
+     *
+     * @param numberOfMessages the number of messages (rows) to insert
+     * @return the INSERT SQL
+     */
+    private String buildMultiRowInsertSql(int numberOfMessages) {
+        var sql = new StringBuilder(bind("INSERT INTO {:tableName} (\n" +
+                                                 "       id,\n" +
+                                                 "       queue_name,\n" +
+                                                 "       message_payload,\n" +
+                                                 "       message_payload_bytes,\n" +
+                                                 "       message_payload_encoding,\n" +
+                                                 "       message_payload_type,\n" +
+                                                 "       added_ts,\n" +
+                                                 "       next_delivery_ts,\n" +
+                                                 "       last_delivery_error,\n" +
+                                                 "       is_dead_letter_message,\n" +
+                                                 "       is_being_delivered,\n" +
+                                                 "       meta_data,\n" +
+                                                 "       delivery_mode,\n" +
+                                                 "       key,\n" +
+                                                 "       key_order,\n" +
+                                                 "       is_head_of_key\n" +
+                                                 "   ) VALUES\n",
+                                         arg("tableName", sharedQueueTableName)));
+        for (var rowIndex = 0; rowIndex < numberOfMessages; rowIndex++) {
+            if (rowIndex > 0) {
+                sql.append(",\n");
+            }
+            sql.append(bind("   (:id_{:row}, :queueName, :message_payload_{:row}::jsonb, :message_payload_bytes_{:row}, :message_payload_encoding_{:row}, :message_payload_type_{:row},\n" +
+                                    "    :addedTimestamp, :nextDeliveryTimestamp, NULL, FALSE, FALSE, :metaData_{:row}::jsonb, :deliveryMode_{:row}, :key_{:row}, :order_{:row},\n" +
+                                    "    NOT EXISTS (SELECT 1 FROM {:tableName} WHERE queue_name = :queueName AND key = :key_{:row} AND key_order < :order_{:row}))",
+                            arg("tableName", sharedQueueTableName),
+                            arg("row", rowIndex)));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Encode the message payload using the {@link MessagePayloadCodec} configured for the queue (see {@link #getMessagePayloadCodecs()}) or as JSON
+     * if the queue doesn't have a {@link MessagePayloadCodec}
+     */
+    private EncodedMessagePayload encodeMessagePayload(QueueName queueName, Message message) {
+        var codec = messagePayloadCodecs.getCodecFor(queueName);
+        if (codec.isPresent()) {
+            try {
+                return new EncodedMessagePayload(null, codec.get().encode(message.getPayload()), codec.get().getEncoding());
+            } catch (MessagePayloadCodecException e) {
+                throw new DurableQueueException(msg("Failed to encode message payload of type {}", message.getPayload().getClass().getName()), e, queueName);
+            }
+        }
+        try {
+            return new EncodedMessagePayload(jsonSerializer.serialize(message.getPayload()), null, null);
+        } catch (JSONSerializationException e) {
+            throw new DurableQueueException(msg("Failed to serialize message payload of type {}", message.getPayload().getClass().getName()), e, queueName);
+        }
+    }
+
+    private Object deserializeMessagePayload(QueueName queueName, String messagePayload, byte[] messagePayloadBytes, String messagePayloadEncoding, String messagePayloadType) {
         requireNonNull(queueName, "No queueName provided");
-        requireNonNull(messagePayload, "No messagePayload provided");
         requireNonNull(messagePayloadType, "No messagePayloadType provided");
         try {
+            if (messagePayloadEncoding != null) {
+                requireNonNull(messagePayloadBytes, msg("No messagePayloadBytes provided for encoding '{}'", messagePayloadEncoding));
+                return messagePayloadCodecs.getCodecForEncoding(messagePayloadEncoding)
+                                           .decode(messagePayloadBytes, Classes.forName(messagePayloadType));
+            }
+            requireNonNull(messagePayload, "No messagePayload provided");
             return jsonSerializer.deserialize(messagePayload, Classes.forName(messagePayloadType));
         } catch (Throwable e) {
             throw new DurableQueueException(msg("Failed to deserialize message payload of type {}", messagePayloadType), e, queueName);
@@ -1343,6 +1969,16 @@ public final class PostgresqlDurableQueues implements DurableQueues {
             return unitOfWorkFactory.withUnitOfWork(interceptorChain::proceed);
         }
 
+        @Override
+        public int intercept(AcknowledgeMessagesAsHandled operation, InterceptorChain<AcknowledgeMessagesAsHandled, Integer, DurableQueuesInterceptor> interceptorChain) {
+            return unitOfWorkFactory.withUnitOfWork(interceptorChain::proceed);
+        }
+
+        @Override
+        public List<QueuedMessage> intercept(GetNextMessagesReadyForDelivery operation, InterceptorChain<GetNextMessagesReadyForDelivery, List<QueuedMessage>, DurableQueuesInterceptor> interceptorChain) {
+            return unitOfWorkFactory.withUnitOfWork(interceptorChain::proceed);
+        }
+
         @Override
         public long intercept(GetTotalMessagesQueuedFor operation, InterceptorChain<GetTotalMessagesQueuedFor, Long, DurableQueuesInterceptor> interceptorChain) {
             return unitOfWorkFactory.withUnitOfWork(interceptorChain::proceed);
@@ -1364,14 +2000,50 @@ public final class PostgresqlDurableQueues implements DurableQueues {
         }
     }
 
+    private record DeletedMessage(QueueName queueName, String key, boolean isHeadOfKey) {
+    }
+
+    /**
+     * A message payload encoded either as JSON (<code>json</code>) or using a {@link MessagePayloadCodec} (<code>bytes</code> and <code>encoding</code>)
+     */
+    private record EncodedMessagePayload(String json, byte[] bytes, String encoding) {
+        void bindTo(SqlStatement<?> statement) {
+            bindTo(statement, "");
+        }
+
+        void bindTo(SqlStatement<?> statement, String parameterNameSuffix) {
+            if (json != null) {
+                statement.bind("message_payload" + parameterNameSuffix, json);
+            } else {
+                statement.bindNull("message_payload" + parameterNameSuffix, Types.VARCHAR);
+            }
+            if (bytes != null) {
+                statement.bind("message_payload_bytes" + parameterNameSuffix, bytes)
+                         .bind("message_payload_encoding" + parameterNameSuffix, encoding);
+            } else {
+                statement.bindNull("message_payload_bytes" + parameterNameSuffix, Types.BINARY)
+                         .bindNull("message_payload_encoding" + parameterNameSuffix, Types.VARCHAR);
+            }
+        }
+    }
+
+    private static final RowMapper<DeletedMessage> deletedMessageMapper = (rs, ctx) -> new DeletedMessage(QueueName.of(rs.getString("queue_name")),
+                                                                                                          rs.getString("key"),
+                                                                                                          rs.getBoolean("is_head_of_key"));
+
     private class QueuedMessageRowMapper implements RowMapper<QueuedMessage> {
         public QueuedMessageRowMapper() {
         }
 
         @Override
         public QueuedMessage map(ResultSet rs, StatementContext ctx) throws SQLException {
-            var queueName      = QueueName.of(rs.getString("queue_name"));
-            var messagePayload = PostgresqlDurableQueues.this.deserializeMessagePayload(queueName, rs.getString("message_payload"), rs.getString("message_payload_type"));
+            var queueName        = QueueName.of(rs.getString("queue_name"));
+            var isBeingDelivered = rs.getBoolean("is_being_delivered");
+            var messagePayload   = PostgresqlDurableQueues.this.deserializeMessagePayload(queueName,
+                                                                                          rs.getString("message_payload"),
+                                                                                          rs.getBytes("message_payload_bytes"),
+                                                                                          rs.getString("message_payload_encoding"),
+                                                                                          rs.getString("message_payload_type"));
 
             MessageMetaData messageMetaData     = null;
             var             metaDataColumnValue = rs.getString("meta_data");
@@ -1402,13 +2074,14 @@ public final class PostgresqlDurableQueues implements DurableQueues {
                                             queueName,
                                             message,
                                             rs.getObject("added_ts", OffsetDateTime.class),
-                                            rs.getObject("next_delivery_ts", OffsetDateTime.class),
+                                            // next_delivery_ts contains the lease expiry while the message is being delivered
+                                            isBeingDelivered ? null : rs.getObject("next_delivery_ts", OffsetDateTime.class),
                                             rs.getObject("delivery_ts", OffsetDateTime.class),
                                             rs.getString("last_delivery_error"),
                                             rs.getInt("total_attempts"),
                                             rs.getInt("redelivery_attempts"),
                                             rs.getBoolean("is_dead_letter_message"),
-                                            rs.getBoolean("is_being_delivered"));
+                                            isBeingDelivered);
         }
     }
 
@@ -18,6 +18,7 @@ package dk.cloudcreate.essentials.components.queue.postgresql;
 
 import dk.cloudcreate.essentials.components.foundation.json.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.codec.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
 import dk.cloudcreate.essentials.components.foundation.postgresql.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.*;
@@ -55,6 +56,7 @@ public final class PostgresqlDurableQueuesBuilder {
      * Only used if {@link #transactionalMode} has value {@link TransactionalMode#SingleOperationTransaction}
      */
     private Duration                                                      messageHandlingTimeout       = Duration.ofSeconds(30);
+    private MessagePayloadCodecs                                          messagePayloadCodecs         = null;
 
     /**
      * @param unitOfWorkFactory the {@link UnitOfWorkFactory} needed to access the database
@@ -146,6 +148,18 @@ public final class PostgresqlDurableQueuesBuilder {
         return this;
     }
 
+    /**
+     * @param messagePayloadCodecs defines which queues store their message payloads using a binary {@link MessagePayloadCodec} (such as Jackson Smile or CBOR)
+     *                             in the <code>message_payload_bytes</code> column instead of as JSON in the <code>message_payload</code> column.<br>
+     *                             Messages already stored as JSON remain readable.<br>
+     *                             Default is {@link MessagePayloadCodecs#jsonByDefault()}
+     * @return this builder instance
+     */
+    public PostgresqlDurableQueuesBuilder setMessagePayloadCodecs(MessagePayloadCodecs messagePayloadCodecs) {
+        this.messagePayloadCodecs = messagePayloadCodecs;
+        return this;
+    }
+
     public PostgresqlDurableQueues build() {
         return new PostgresqlDurableQueues(unitOfWorkFactory,
                                            jsonSerializer != null ? jsonSerializer : new JacksonJSONSerializer(createDefaultObjectMapper()),
@@ -153,6 +167,7 @@ public final class PostgresqlDurableQueuesBuilder {
                                            multiTableChangeListener,
                                            queuePollingOptimizerFactory,
                                            transactionalMode,
-                                           messageHandlingTimeout);
+                                           messageHandlingTimeout,
+                                           messagePayloadCodecs != null ? messagePayloadCodecs : MessagePayloadCodecs.jsonByDefault());
     }
 }
\ No newline at end of file
@@ -16,13 +16,22 @@
 
 package dk.cloudcreate.essentials.components.queue.postgresql;
 
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.codec.*;
 import dk.cloudcreate.essentials.components.foundation.test.messaging.queue.DurableQueuesIT;
+import dk.cloudcreate.essentials.components.foundation.test.messaging.queue.test_data.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.jdbi.GenericHandleAwareUnitOfWorkFactory.GenericHandleAwareUnitOfWork;
 import dk.cloudcreate.essentials.components.foundation.transaction.jdbi.JdbiUnitOfWorkFactory;
 import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.*;
 
+import java.time.*;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @Testcontainers
 class PostgresqlDurableQueuesIT extends DurableQueuesIT<PostgresqlDurableQueues, GenericHandleAwareUnitOfWork, JdbiUnitOfWorkFactory> {
     @Container
@@ -47,4 +56,76 @@ class PostgresqlDurableQueuesIT extends DurableQueuesIT<PostgresqlDurableQueues,
     protected void resetQueueStorage(JdbiUnitOfWorkFactory unitOfWorkFactory) {
         unitOfWorkFactory.usingUnitOfWork(uow -> uow.handle().execute("DROP TABLE IF EXISTS " + PostgresqlDurableQueues.DEFAULT_DURABLE_QUEUES_TABLE_NAME));
     }
-}
\ No newline at end of file
+
+    @Test
+    void messages_are_stored_using_the_binary_codec_and_legacy_json_rows_are_migrated_and_still_readable() {
+        // Given a queue table created by an earlier version, which contains JSON encoded ordered messages
+        var queueName = QueueName.of("TestQueue");
+        var tableName = PostgresqlDurableQueues.DEFAULT_DURABLE_QUEUES_TABLE_NAME;
+        durableQueues.stop();
+        unitOfWorkFactory.usingUnitOfWork(uow -> {
+            uow.handle().execute("DROP TABLE IF EXISTS " + tableName);
+            uow.handle().execute("CREATE TABLE " + tableName + " (\n" +
+                                         "  id                     TEXT PRIMARY KEY,\n" +
+                                         "  queue_name             TEXT NOT NULL,\n" +
+                                         "  message_payload        JSONB NOT NULL,\n" +
+                                         "  message_payload_type   TEXT NOT NULL,\n" +
+                                         "  added_ts               TIMESTAMPTZ NOT NULL,\n" +
+                                         "  next_delivery_ts       TIMESTAMPTZ,\n" +
+                                         "  delivery_ts            TIMESTAMPTZ DEFAULT NULL,\n" +
+                                         "  total_attempts         INTEGER DEFAULT 0,\n" +
+                                         "  redelivery_attempts    INTEGER DEFAULT 0,\n" +
+                                         "  last_delivery_error    TEXT DEFAULT NULL,\n" +
+                                         "  is_being_delivered     BOOLEAN DEFAULT FALSE,\n" +
+                                         "  is_dead_letter_message BOOLEAN NOT NULL DEFAULT FALSE,\n" +
+                                         "  meta_data              JSONB DEFAULT NULL,\n" +
+                                         "  delivery_mode          TEXT NOT NULL,\n" +
+                                         "  key                    TEXT DEFAULT NULL,\n" +
+                                         "  key_order              BIGINT DEFAULT -1\n" +
+                                         ")");
+            for (var order = 0; order < 2; order++) {
+                uow.handle().createUpdate("INSERT INTO " + tableName + " (id, queue_name, message_payload, message_payload_type, added_ts, next_delivery_ts, meta_data, delivery_mode, key, key_order)\n" +
+                                                  " VALUES (:id, :queueName, :messagePayload::jsonb, :messagePayloadType, :now, :now, '{}'::jsonb, 'IN_ORDER', 'Key1', :order)")
+                   .bind("id", QueueEntryId.random().toString())
+                   .bind("queueName", queueName.toString())
+                   .bind("messagePayload", "\"LegacyMsg" + order + "\"")
+                   .bind("messagePayloadType", String.class.getName())
+                   .bind("now", OffsetDateTime.now(Clock.systemUTC()))
+                   .bind("order", order)
+                   .execute();
+            }
+        });
+
+        // When starting a PostgresqlDurableQueues that stores the message payloads using a binary codec
+        var codec = new CompressingMessagePayloadCodec(new JacksonMessagePayloadCodec("json-bytes", PostgresqlDurableQueues.createDefaultObjectMapper()), 0);
+        durableQueues = PostgresqlDurableQueues.builder()
+                                               .setUnitOfWorkFactory(unitOfWorkFactory)
+                                               .setMessagePayloadCodecs(MessagePayloadCodecs.withDefaultCodec(codec))
+                                               .build();
+        durableQueues.start();
+        var message = OrderedMessage.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 1234), "Key1", 2);
+        var queueEntryId = withDurableQueue(() -> durableQueues.queueMessage(queueName, message));
+
+        // Then the encoded message is stored in the binary payload column and round-trips
+        var encoding = unitOfWorkFactory.withUnitOfWork(uow -> uow.handle().createQuery("SELECT message_payload_encoding FROM " + tableName + " WHERE id = :id")
+                                                                  .bind("id", queueEntryId.toString())
+                                                                  .mapTo(String.class)
+                                                                  .one());
+        assertThat(encoding).isEqualTo("json-bytes+gzip");
+        assertThat(durableQueues.getQueuedMessage(queueEntryId).get().getMessage()).usingRecursiveComparison().isEqualTo(message);
+
+        // And the legacy messages are delivered, in key order, before the new message
+        var deliveredPayloads = new ArrayList<>();
+        for (var i = 0; i < 3; i++) {
+            usingDurableQueue(() -> {
+                var nextMessage = durableQueues.getNextMessageReadyForDelivery(queueName);
+                assertThat(nextMessage).isPresent();
+                deliveredPayloads.add(nextMessage.get().getPayload());
+                durableQueues.acknowledgeMessageAsHandled(nextMessage.get().getId());
+            });
+        }
+        assertThat(deliveredPayloads.subList(0, 2)).containsExactly("LegacyMsg0", "LegacyMsg1");
+        assertThat(deliveredPayloads.get(2)).usingRecursiveComparison().isEqualTo(message.getPayload());
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
+    }
+}
@@ -27,7 +27,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.*;
 
 import java.time.Duration;
-import java.util.UUID;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -127,4 +127,49 @@ class SingleOperationTransactionPostgresqlDurableQueuesIT extends DurableQueuesI
         assertThat(durableQueues.getQueuedMessage(addedMessageId)).isEmpty();
         assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void a_message_reclaimed_after_its_lease_expired_can_only_be_completed_by_the_new_lease_holder() throws InterruptedException {
+        // Given
+        var queueName = QueueName.of("TestQueue");
+        var previousLeaseHolder = PostgresqlDurableQueues.builder()
+                                                         .setUnitOfWorkFactory(unitOfWorkFactory)
+                                                         .setTransactionalMode(TransactionalMode.SingleOperationTransaction)
+                                                         .setMessageHandlingTimeout(Duration.ofSeconds(1))
+                                                         .build();
+        previousLeaseHolder.start();
+        try {
+            var message        = Message.of(new OrderEvent.OrderAdded(OrderId.random(), CustomerId.random(), 1234));
+            var addedMessageId = durableQueues.queueMessage(queueName, message);
+
+            var firstDelivery = previousLeaseHolder.getNextMessageReadyForDelivery(queueName);
+            assertThat(firstDelivery).isPresent();
+            assertThat(firstDelivery.get().getRedeliveryAttempts()).isEqualTo(0);
+            assertThat(durableQueues.getNextMessageReadyForDelivery(queueName)).isEmpty();
+
+            // When the lease expires
+            Thread.sleep(1500);
+
+            // Then the message is reclaimed
+            var secondDelivery = durableQueues.getNextMessageReadyForDelivery(queueName);
+            assertThat(secondDelivery).isPresent();
+            assertThat((CharSequence) secondDelivery.get().getId()).isEqualTo(addedMessageId);
+            assertThat(secondDelivery.get().getRedeliveryAttempts()).isEqualTo(1);
+            assertThat(secondDelivery.get().getLastDeliveryError()).contains("Timed Out");
+
+            // And the previous lease holder can't complete the message anymore
+            assertThat(previousLeaseHolder.acknowledgeMessageAsHandled(addedMessageId)).isFalse();
+            assertThat(previousLeaseHolder.retryMessage(addedMessageId, new RuntimeException("On purpose"), Duration.ZERO)).isEmpty();
+            assertThat(previousLeaseHolder.markAsDeadLetterMessage(addedMessageId, new RuntimeException("On purpose"))).isEmpty();
+            assertThat(previousLeaseHolder.acknowledgeMessagesAsHandled(queueName, List.of(addedMessageId))).isEqualTo(0);
+            assertThat(durableQueues.getQueuedMessage(addedMessageId)).isPresent();
+            assertThat(durableQueues.getQueuedMessage(addedMessageId).get().isBeingDelivered()).isTrue();
+
+            // While the new lease holder can
+            assertThat(durableQueues.acknowledgeMessageAsHandled(addedMessageId)).isTrue();
+            assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
+        } finally {
+            previousLeaseHolder.stop();
+        }
+    }
+}
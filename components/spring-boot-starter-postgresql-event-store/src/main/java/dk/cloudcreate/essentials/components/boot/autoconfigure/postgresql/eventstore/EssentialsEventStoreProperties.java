@@ -161,6 +161,9 @@ public class EssentialsEventStoreProperties {
         private int      eventStorePollingBatchSize = 10;
         private Duration eventStorePollingInterval  = Duration.ofMillis(100);
         private Duration snapshotResumePointsEvery  = Duration.ofSeconds(10);
+        private boolean  useSharedEventStreamTailReader;
+        private boolean  useEventStreamNotifications;
+        private Duration eventStreamNotificationSafetyNetPollingInterval = Duration.ofSeconds(10);
 
         /**
          * How many events should The {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.EventStore} maximum return when polling for events
@@ -215,6 +218,66 @@ public class EssentialsEventStoreProperties {
         public void setSnapshotResumePointsEvery(Duration snapshotResumePointsEvery) {
             this.snapshotResumePointsEvery = snapshotResumePointsEvery;
         }
+
+        /**
+         * Should asynchronous subscriptions receive their events through a shared, per aggregate type, tail reader
+         * (see {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.SharedEventStreamTailReader}) instead of each subscription polling the event store on its own
+         *
+         * @return should asynchronous subscriptions receive their events through a shared, per aggregate type, tail reader
+         */
+        public boolean isUseSharedEventStreamTailReader() {
+            return useSharedEventStreamTailReader;
+        }
+
+        /**
+         * Should asynchronous subscriptions receive their events through a shared, per aggregate type, tail reader
+         * (see {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.SharedEventStreamTailReader}) instead of each subscription polling the event store on its own
+         *
+         * @param useSharedEventStreamTailReader should asynchronous subscriptions receive their events through a shared, per aggregate type, tail reader
+         */
+        public void setUseSharedEventStreamTailReader(boolean useSharedEventStreamTailReader) {
+            this.useSharedEventStreamTailReader = useSharedEventStreamTailReader;
+        }
+
+        /**
+         * Should polling subscribers be woken up by Postgresql LISTEN/NOTIFY notifications, published when events are persisted, instead of periodically polling the event store
+         * (see {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener})<br>
+         * Requires a {@link dk.cloudcreate.essentials.components.foundation.postgresql.MultiTableChangeListener} bean
+         *
+         * @return should polling subscribers be woken up by Postgresql LISTEN/NOTIFY notifications
+         */
+        public boolean isUseEventStreamNotifications() {
+            return useEventStreamNotifications;
+        }
+
+        /**
+         * Should polling subscribers be woken up by Postgresql LISTEN/NOTIFY notifications, published when events are persisted, instead of periodically polling the event store
+         * (see {@link dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener})<br>
+         * Requires a {@link dk.cloudcreate.essentials.components.foundation.postgresql.MultiTableChangeListener} bean
+         *
+         * @param useEventStreamNotifications should polling subscribers be woken up by Postgresql LISTEN/NOTIFY notifications
+         */
+        public void setUseEventStreamNotifications(boolean useEventStreamNotifications) {
+            this.useEventStreamNotifications = useEventStreamNotifications;
+        }
+
+        /**
+         * When {@link #isUseEventStreamNotifications()} is true: the maximum time a subscriber waits for a notification before it polls the event store anyway
+         *
+         * @return the maximum time a subscriber waits for a notification before it polls the event store anyway
+         */
+        public Duration getEventStreamNotificationSafetyNetPollingInterval() {
+            return eventStreamNotificationSafetyNetPollingInterval;
+        }
+
+        /**
+         * When {@link #isUseEventStreamNotifications()} is true: the maximum time a subscriber waits for a notification before it polls the event store anyway
+         *
+         * @param eventStreamNotificationSafetyNetPollingInterval the maximum time a subscriber waits for a notification before it polls the event store anyway
+         */
+        public void setEventStreamNotificationSafetyNetPollingInterval(Duration eventStreamNotificationSafetyNetPollingInterval) {
+            this.eventStreamNotificationSafetyNetPollingInterval = eventStreamNotificationSafetyNetPollingInterval;
+        }
     }
 
     public static class EventStoreSubscriptionMonitorProperties {
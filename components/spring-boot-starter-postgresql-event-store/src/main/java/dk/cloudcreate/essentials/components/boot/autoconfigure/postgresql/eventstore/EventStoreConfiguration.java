@@ -42,12 +42,14 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.e
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.NoEventStreamGapHandler;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.gap.PostgresqlEventStreamGapHandler;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.EventStoreInterceptor;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.micrometer.MicrometerMetricsEventStoreInterceptor;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.interceptor.micrometer.MicrometerTracingEventStoreInterceptor;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamConfiguration;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.AggregateEventStreamPersistenceStrategy;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.PersistableEvent;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.PersistableEventMapper;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PersistableEventEnricher;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.PostgresqlEventStreamListener;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.SeparateTablePerAggregateEventStreamConfiguration;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.SeparateTablePerAggregateTypeEventStreamConfigurationFactory;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.persistence.table_per_aggregate_type.SeparateTablePerAggregateTypePersistenceStrategy;
@@ -58,6 +60,8 @@ import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.s
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.spring.SpringTransactionAwareEventStoreUnitOfWorkFactory;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.EventStoreSubscriptionManager;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.PostgresqlDurableSubscriptionRepository;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMetrics;
+import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMicrometerMetrics;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMonitor;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.EventStoreSubscriptionMonitorManager;
 import dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.subscription.monitoring.SubscriberGlobalOrderMicrometerMonitor;
@@ -71,6 +75,8 @@ import dk.cloudcreate.essentials.components.foundation.messaging.eip.store_and_f
 import dk.cloudcreate.essentials.components.foundation.messaging.eip.store_and_forward.Inboxes;
 import dk.cloudcreate.essentials.components.foundation.messaging.eip.store_and_forward.MessageHandlerInterceptor;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.DurableQueues;
+import dk.cloudcreate.essentials.components.foundation.postgresql.MultiTableChangeListener;
+import dk.cloudcreate.essentials.components.foundation.postgresql.TableChangeNotification;
 import dk.cloudcreate.essentials.components.foundation.reactive.command.DurableLocalCommandBus;
 import dk.cloudcreate.essentials.components.foundation.transaction.UnitOfWork;
 import dk.cloudcreate.essentials.reactive.Handler;
@@ -82,6 +88,8 @@ import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import io.micrometer.tracing.propagation.Propagator;
 import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -116,6 +124,7 @@ import static dk.cloudcreate.essentials.shared.FailFast.requireTrue;
 @ConditionalOnClass(name = "dk.cloudcreate.essentials.components.eventsourced.eventstore.postgresql.PostgresqlEventStore")
 @EnableConfigurationProperties(EssentialsEventStoreProperties.class)
 public class EventStoreConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(EventStoreConfiguration.class);
 
     /**
      * The Local EventBus where the {@link EventStore} publishes {@link PersistedEvents} locally
@@ -175,7 +184,8 @@ public class EventStoreConfiguration {
                                                                        FencedLockManager fencedLockManager,
                                                                        Jdbi jdbi,
                                                                        EssentialsEventStoreProperties eventStoreProperties,
-                                                                       EssentialsComponentsProperties essentialsComponentsProperties) {
+                                                                       EssentialsComponentsProperties essentialsComponentsProperties,
+                                                                       Optional<EventStoreSubscriptionMetrics> subscriptionMetrics) {
         return EventStoreSubscriptionManager.builder()
                                             .setEventStore(eventStore)
                                             .setFencedLockManager(fencedLockManager)
@@ -183,7 +193,9 @@ public class EventStoreConfiguration {
                                             .setEventStorePollingBatchSize(eventStoreProperties.getSubscriptionManager().getEventStorePollingBatchSize())
                                             .setEventStorePollingInterval(eventStoreProperties.getSubscriptionManager().getEventStorePollingInterval())
                                             .setSnapshotResumePointsEvery(eventStoreProperties.getSubscriptionManager().getSnapshotResumePointsEvery())
+                                            .setUseSharedEventStreamTailReader(eventStoreProperties.getSubscriptionManager().isUseSharedEventStreamTailReader())
                                             .setStartLifeCycles(essentialsComponentsProperties.getLifeCycles().isStartLifeCycles())
+                                            .setSubscriptionMetrics(subscriptionMetrics.orElse(EventStoreSubscriptionMetrics.NONE))
                                             .build();
     }
 
@@ -194,6 +206,9 @@ public class EventStoreConfiguration {
      * @param unitOfWorkFactory         the {@link EventStoreUnitOfWorkFactory}
      * @param persistableEventMapper    the mapper from the raw Java Event's to {@link PersistableEvent}<br>
      * @param jsonEventSerializer       {@link JSONEventSerializer} responsible for serializing/deserializing the raw Java events to and from JSON
+     * @param properties                the event store properties
+     * @param multiTableChangeListener  the optional {@link MultiTableChangeListener} - used to create a {@link PostgresqlEventStreamListener} if
+     *                                  {@link EssentialsEventStoreProperties.EventStoreSubscriptionManagerProperties#isUseEventStreamNotifications()} is true
      * @param persistableEventEnrichers {@link PersistableEventEnricher}'s - which are called in sequence by the {@link SeparateTablePerAggregateTypePersistenceStrategy#persist(EventStoreUnitOfWork, AggregateType, Object, Optional, List)} after
      *                                  {@link PersistableEventMapper#map(Object, AggregateEventStreamConfiguration, Object, EventOrder)}
      *                                  has been called
@@ -206,13 +221,26 @@ public class EventStoreConfiguration {
                                                                                                                                     PersistableEventMapper persistableEventMapper,
                                                                                                                                     JSONEventSerializer jsonEventSerializer,
                                                                                                                                     EssentialsEventStoreProperties properties,
+                                                                                                                                    Optional<MultiTableChangeListener<TableChangeNotification>> multiTableChangeListener,
                                                                                                                                     List<PersistableEventEnricher> persistableEventEnrichers) {
+        var subscriptionManagerProperties = properties.getSubscriptionManager();
+        PostgresqlEventStreamListener eventStreamListener = null;
+        if (subscriptionManagerProperties.isUseEventStreamNotifications()) {
+            if (multiTableChangeListener.isPresent()) {
+                eventStreamListener = new PostgresqlEventStreamListener(multiTableChangeListener.get(),
+                                                                        subscriptionManagerProperties.getEventStreamNotificationSafetyNetPollingInterval());
+            } else {
+                log.warn("Event stream notifications are enabled, but no MultiTableChangeListener bean is available. Falling back to polling the EventStore");
+            }
+        }
         return new SeparateTablePerAggregateTypePersistenceStrategy(jdbi,
                                                                     unitOfWorkFactory,
                                                                     persistableEventMapper,
                                                                     SeparateTablePerAggregateTypeEventStreamConfigurationFactory.standardSingleTenantConfiguration(jsonEventSerializer,
                                                                                                                                                                    properties.getIdentifierColumnType(),
                                                                                                                                                                    properties.getJsonColumnType()),
+                                                                    List.of(),
+                                                                    eventStreamListener,
                                                                     persistableEventEnrichers);
     }
 
@@ -253,6 +281,23 @@ public class EventStoreConfiguration {
                                                           essentialsComponentsProperties.isVerboseTracing());
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "management.tracing", name = "enabled", havingValue = "true")
+    public MicrometerMetricsEventStoreInterceptor micrometerMetricsEventStoreInterceptor(Optional<MeterRegistry> meterRegistry,
+                                                                                         EssentialsComponentsProperties properties) {
+        requireTrue(meterRegistry.isPresent(), "MeterRegistry is not configured");
+        return new MicrometerMetricsEventStoreInterceptor(meterRegistry.get(), properties.getTracingProperties().getModuleTag());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "management.tracing", name = "enabled", havingValue = "true")
+    public EventStoreSubscriptionMetrics eventStoreSubscriptionMetrics(Optional<MeterRegistry> meterRegistry,
+                                                                       EssentialsComponentsProperties properties) {
+        requireTrue(meterRegistry.isPresent(), "MeterRegistry is not configured");
+        return new EventStoreSubscriptionMicrometerMetrics(meterRegistry.get(), properties.getTracingProperties().getModuleTag());
+    }
+
     /**
      * Create {@link EventProcessorDependencies} which encapsulates all the dependencies required by an instance of an {@link EventProcessor}
      *
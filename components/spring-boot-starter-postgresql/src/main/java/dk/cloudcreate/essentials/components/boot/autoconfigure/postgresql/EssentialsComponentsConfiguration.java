@@ -131,6 +131,30 @@ public class EssentialsComponentsConfiguration {
         return new DurableQueuesMicrometerInterceptor(meterRegistry.get(), properties.getTracingProperties().getModuleTag());
     }
 
+    /**
+     * The shared {@link DurableQueueConsumerRuntime}, which runs all the {@link DurableQueues} consumers (including Inbox and Outbox consumers)
+     * that don't specify their own consumer executor and limits the number of concurrent message handlings across all of them
+     *
+     * @param properties the essentials components properties
+     * @return the shared {@link DurableQueueConsumerRuntime}
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "essentials.durable-queues.consumer-runtime", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean
+    public DurableQueueConsumerRuntime durableQueueConsumerRuntime(EssentialsComponentsProperties properties) {
+        var consumerRuntimeProperties = properties.getDurableQueues().getConsumerRuntime();
+        return DurableQueueConsumerRuntime.create("DurableQueues-ConsumerRuntime",
+                                                  consumerRuntimeProperties.getNumberOfThreads(),
+                                                  consumerRuntimeProperties.getMaxConcurrentMessageHandling(),
+                                                  consumerRuntimeProperties.isUseVirtualThreads());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "essentials.durable-queues.consumer-runtime", name = "enabled", havingValue = "true")
+    public DurableQueueConsumerRuntimeInterceptor durableQueueConsumerRuntimeInterceptor(DurableQueueConsumerRuntime durableQueueConsumerRuntime) {
+        return new DurableQueueConsumerRuntimeInterceptor(durableQueueConsumerRuntime);
+    }
+
     /**
      * Auto-registers any {@link CommandHandler} with the single {@link CommandBus} bean found<br>
      * AND auto-registers any {@link EventHandler} with all {@link EventBus} beans foound
@@ -161,6 +161,17 @@ public class EssentialsComponentsProperties {
 
         private boolean verboseTracing = false;
 
+        private final ConsumerRuntimeProperties consumerRuntime = new ConsumerRuntimeProperties();
+
+        /**
+         * Get the shared {@link dk.cloudcreate.essentials.components.foundation.messaging.queue.DurableQueueConsumerRuntime} properties
+         *
+         * @return the shared consumer runtime properties
+         */
+        public ConsumerRuntimeProperties getConsumerRuntime() {
+            return consumerRuntime;
+        }
+
         /**
          * Should the Tracing produces only include all operations or only top level operations (default false)
          *
@@ -326,6 +337,94 @@ public class EssentialsComponentsProperties {
         }
     }
 
+    /**
+     * Properties for the shared {@link dk.cloudcreate.essentials.components.foundation.messaging.queue.DurableQueueConsumerRuntime}, which
+     * runs all {@link ConsumeFromQueue} consumers (including Inbox and Outbox consumers) that don't specify their own consumer executor
+     * and limits the number of concurrent message handlings across all of them
+     */
+    public static class ConsumerRuntimeProperties {
+        private boolean enabled                      = false;
+        private int     numberOfThreads              = 2;
+        private int     maxConcurrentMessageHandling = 10;
+        private boolean useVirtualThreads            = true;
+
+        /**
+         * Should all consumers use the shared consumer runtime (default false)
+         *
+         * @return Should all consumers use the shared consumer runtime
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Should all consumers use the shared consumer runtime (default false)
+         *
+         * @param enabled Should all consumers use the shared consumer runtime
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * The number of platform scheduler threads, which trigger the polls of all consumers using the runtime (default 2).<br>
+         * The polls themselves run on virtual threads (if enabled and supported) or on a cached pool of platform threads
+         *
+         * @return The number of platform scheduler threads shared by all consumers using the runtime
+         */
+        public int getNumberOfThreads() {
+            return numberOfThreads;
+        }
+
+        /**
+         * The number of platform scheduler threads, which trigger the polls of all consumers using the runtime (default 2).<br>
+         * The polls themselves run on virtual threads (if enabled and supported) or on a cached pool of platform threads
+         *
+         * @param numberOfThreads The number of platform scheduler threads shared by all consumers using the runtime
+         */
+        public void setNumberOfThreads(int numberOfThreads) {
+            this.numberOfThreads = numberOfThreads;
+        }
+
+        /**
+         * The maximum number of concurrent polls/message handlings across all consumers using the runtime (default 10).<br>
+         * This should match the size of the database connection pool used by the DurableQueues
+         *
+         * @return The maximum number of concurrent polls/message handlings across all consumers using the runtime
+         */
+        public int getMaxConcurrentMessageHandling() {
+            return maxConcurrentMessageHandling;
+        }
+
+        /**
+         * The maximum number of concurrent polls/message handlings across all consumers using the runtime (default 10).<br>
+         * This should match the size of the database connection pool used by the DurableQueues
+         *
+         * @param maxConcurrentMessageHandling The maximum number of concurrent polls/message handlings across all consumers using the runtime
+         */
+        public void setMaxConcurrentMessageHandling(int maxConcurrentMessageHandling) {
+            this.maxConcurrentMessageHandling = maxConcurrentMessageHandling;
+        }
+
+        /**
+         * Should the runtime use virtual threads if supported by the JVM (Java 21+) - otherwise platform threads are used (default true)
+         *
+         * @return Should the runtime use virtual threads if supported by the JVM
+         */
+        public boolean isUseVirtualThreads() {
+            return useVirtualThreads;
+        }
+
+        /**
+         * Should the runtime use virtual threads if supported by the JVM (Java 21+) - otherwise platform threads are used (default true)
+         *
+         * @param useVirtualThreads Should the runtime use virtual threads if supported by the JVM
+         */
+        public void setUseVirtualThreads(boolean useVirtualThreads) {
+            this.useVirtualThreads = useVirtualThreads;
+        }
+    }
+
     public static class FencedLockManagerProperties {
         private Duration lockTimeOut              = Duration.ofSeconds(15);
         private Duration lockConfirmationInterval = Duration.ofSeconds(4);
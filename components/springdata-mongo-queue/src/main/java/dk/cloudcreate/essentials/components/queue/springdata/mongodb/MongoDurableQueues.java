@@ -22,11 +22,12 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mongodb.*;
-import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.*;
 import dk.cloudcreate.essentials.components.foundation.json.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.Message;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.QueuePollingOptimizer.SimpleQueuePollingOptimizer;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.codec.*;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.*;
 import dk.cloudcreate.essentials.components.foundation.mongo.MongoUtil;
 import dk.cloudcreate.essentials.components.foundation.transaction.*;
@@ -34,8 +35,10 @@ import dk.cloudcreate.essentials.components.foundation.transaction.spring.mongo.
 import dk.cloudcreate.essentials.jackson.immutable.EssentialsImmutableJacksonModule;
 import dk.cloudcreate.essentials.jackson.types.EssentialTypesJacksonModule;
 import dk.cloudcreate.essentials.shared.Exceptions;
+import dk.cloudcreate.essentials.shared.concurrent.ThreadFactoryBuilder;
 import dk.cloudcreate.essentials.shared.functional.TripleFunction;
 import dk.cloudcreate.essentials.shared.reflection.Classes;
+import org.bson.BsonValue;
 import org.slf4j.*;
 import org.springframework.data.annotation.*;
 import org.springframework.data.domain.Sort;
@@ -91,6 +94,15 @@ public final class MongoDurableQueues implements DurableQueues {
 
     protected static final Logger                                            log                                    = LoggerFactory.getLogger(MongoDurableQueues.class);
     public static final    String                                            DEFAULT_DURABLE_QUEUES_COLLECTION_NAME = "durable_queues";
+    private static final   int                                               MAX_NUMBER_OF_STALLED_HEAD_OF_KEY_CANDIDATES = 100;
+    /**
+     * The delay before the change stream subscription is re-opened after the change stream cursor failed
+     */
+    public static final    Duration                                          CHANGE_STREAM_RESTART_DELAY            = Duration.ofSeconds(5);
+    /**
+     * MongoDB error codes indicating that a change stream can't be resumed from the provided resume token (ChangeStreamHistoryLost and ChangeStreamFatalError)
+     */
+    private static final   Set<Integer>                                      CHANGE_STREAM_NOT_RESUMABLE_ERROR_CODES = Set.of(280, 286);
     private final          Function<ConsumeFromQueue, QueuePollingOptimizer> queuePollingOptimizerFactory;
 
     protected       SpringMongoTransactionAwareUnitOfWorkFactory        unitOfWorkFactory;
@@ -105,12 +117,20 @@ public final class MongoDurableQueues implements DurableQueues {
 
 
     private volatile boolean                           started;
+    private volatile MessagePayloadCodecs              messagePayloadCodecs                  = MessagePayloadCodecs.jsonByDefault();
     private          int                               messageHandlingTimeoutMs;
     /**
      * Contains the timestamp of the last performed {@link #resetMessagesStuckBeingDelivered(QueueName)} check
      */
     protected        ConcurrentMap<QueueName, Instant> lastResetStuckMessagesCheckTimestamps = new ConcurrentHashMap<>();
+    protected        ConcurrentMap<QueueName, Instant> lastStalledHeadOfKeyCheckTimestamps   = new ConcurrentHashMap<>();
     private          Subscription                      changeSubscription;
+    private volatile boolean                           useChangeStreamNotifications          = true;
+    /**
+     * The resume token of the last change stream event received - used to resume the change stream after a cursor failure or a restart
+     */
+    private volatile BsonValue                         lastChangeStreamResumeToken;
+    private          ScheduledExecutorService          changeStreamRestartExecutor;
 
     /**
      * Create {@link DurableQueues} running in {@link TransactionalMode#SingleOperationTransaction} with sharedQueueCollectionName: {@value DEFAULT_DURABLE_QUEUES_COLLECTION_NAME}, default {@link ObjectMapper}
@@ -409,6 +429,7 @@ public final class MongoDurableQueues implements DurableQueues {
                                      .on("nextDeliveryTimestamp", Sort.Direction.ASC)
                                      .on("isDeadLetterMessage", Sort.Direction.ASC)
                                      .on("isBeingDelivered", Sort.Direction.ASC)
+                                     .on("isHeadOfKey", Sort.Direction.ASC)
                                      .on("key", Sort.Direction.ASC)
                                      .on("keyOrder", Sort.Direction.ASC),
                              "ordered_msg", new Index()
@@ -463,6 +484,57 @@ public final class MongoDurableQueues implements DurableQueues {
         return sharedQueueCollectionName;
     }
 
+    /**
+     * The {@link MessagePayloadCodecs} that defines which queues store their message payloads using a binary {@link MessagePayloadCodec} (such as Jackson Smile or CBOR)
+     * instead of JSON.<br>
+     * Queue specific codecs can be added using e.g. {@link MessagePayloadCodecs#useCodecForQueue(QueueName, MessagePayloadCodec)}
+     *
+     * @return the {@link MessagePayloadCodecs}
+     */
+    public final MessagePayloadCodecs getMessagePayloadCodecs() {
+        return messagePayloadCodecs;
+    }
+
+    /**
+     * Replace the {@link MessagePayloadCodecs} that defines which queues store their message payloads using a binary {@link MessagePayloadCodec}
+     * instead of JSON. Messages already stored as JSON remain readable.<br>
+     * Default is {@link MessagePayloadCodecs#jsonByDefault()}
+     *
+     * @param messagePayloadCodecs the {@link MessagePayloadCodecs}
+     * @return this {@link MongoDurableQueues} instance
+     */
+    public final MongoDurableQueues setMessagePayloadCodecs(MessagePayloadCodecs messagePayloadCodecs) {
+        this.messagePayloadCodecs = requireNonNull(messagePayloadCodecs, "No messagePayloadCodecs provided");
+        return this;
+    }
+
+    /**
+     * Is the {@link MongoDurableQueues} using a MongoDB change stream on the {@link #getSharedQueueCollectionName()} collection to notify
+     * the {@link DurableQueueConsumer}'s (using {@link DurableQueueConsumerNotifications#messageAdded(QueuedMessage)}) when a message is queued or becomes ready for redelivery?<br>
+     * Default is true
+     *
+     * @return true if change stream notifications are used
+     */
+    public final boolean isUsingChangeStreamNotifications() {
+        return useChangeStreamNotifications;
+    }
+
+    /**
+     * Should the {@link MongoDurableQueues} use a MongoDB change stream on the {@link #getSharedQueueCollectionName()} collection to notify
+     * the {@link DurableQueueConsumer}'s when a message is queued or becomes ready for redelivery (default true)?<br>
+     * The change stream requires a replica set (or a sharded cluster). If change streams are disabled, or aren't supported, then the
+     * {@link DurableQueueConsumer}'s rely solely on polling (see {@link QueuePollingOptimizer}).<br>
+     * Must be called before {@link #start()}
+     *
+     * @param useChangeStreamNotifications true if change stream notifications should be used
+     * @return this {@link MongoDurableQueues} instance
+     */
+    public final MongoDurableQueues setUseChangeStreamNotifications(boolean useChangeStreamNotifications) {
+        requireFalse(started, "Change stream notifications can only be configured before the MongoDurableQueues is started");
+        this.useChangeStreamNotifications = useChangeStreamNotifications;
+        return this;
+    }
+
     @Override
     public final void start() {
         if (!started) {
@@ -494,12 +566,49 @@ public final class MongoDurableQueues implements DurableQueues {
         return started;
     }
 
+    /**
+     * Open the change stream on the {@link #getSharedQueueCollectionName()} collection, which notifies the matching {@link MongoDurableQueueConsumer}'s
+     * when a message is queued or an existing message becomes ready for (re)delivery.<br>
+     * The change stream is filtered server side to:
+     * <ul>
+     *     <li>inserts and replacements (i.e. queued messages)</li>
+     *     <li>updates that release a message from delivery ({@code isBeingDelivered=false} - e.g. a retry or a reset of a stuck message),
+     *     resurrect a Dead Letter Message ({@code isDeadLetterMessage=false}) or promote a message to head of its key ({@code isHeadOfKey=true}).<br>
+     *     The full document is looked up for these updates only</li>
+     * </ul>
+     * If the change stream cursor fails, the subscription is re-opened after {@link #CHANGE_STREAM_RESTART_DELAY} and resumed from the resume token
+     * of the last received event. If the change stream can't be resumed (e.g. the oplog no longer contains the resume token) then a new change stream
+     * is opened - any missed notifications are covered by the {@link DurableQueueConsumer}'s polling.
+     */
     protected final void startCollectionListener() {
+        if (!useChangeStreamNotifications) {
+            log.info("ChangeStream notifications are disabled - the DurableQueueConsumer's will rely on polling");
+            return;
+        }
+        changeStreamRestartExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                                                                                                     .nameFormat("MongoDurableQueues-ChangeStream-Restart-%d")
+                                                                                                     .daemon(true)
+                                                                                                     .build());
+        registerChangeStreamSubscription();
+        messageListenerContainer.start();
+    }
+
+    private synchronized void registerChangeStreamSubscription() {
+        if (!started || !useChangeStreamNotifications) {
+            return;
+        }
+        if (changeSubscription != null) {
+            changeSubscription.cancel();
+        }
         MessageListener<ChangeStreamDocument<Document>, DurableQueuedMessage> listener = message -> {
             try {
+                var resumeToken = message.getRaw() != null ? message.getRaw().getResumeToken() : null;
+                if (resumeToken != null) {
+                    lastChangeStreamResumeToken = resumeToken;
+                }
                 if (message.getBody() == null) {
-                    // Ignore, as these are
-                    log.error("Received notification with null payload: {}", message.getRaw());
+                    // The message was deleted (e.g. acknowledged) before the full document could be looked up
+                    log.trace("Ignoring notification with null payload: {}", message.getRaw());
                     return;
                 }
 
@@ -517,30 +626,85 @@ public final class MongoDurableQueues implements DurableQueues {
                 log.error("An error occurred while handling notification", e);
             }
         };
-        ChangeStreamRequest<DurableQueuedMessage> request = ChangeStreamRequest.builder()
-                                                                               .collection(this.sharedQueueCollectionName)
-                                                                               .filter(newAggregation(
-                                                                                       match(where("operationType").in("insert", "update", "replace")),
-                                                                                       match(where("queueName").exists(true))
-                                                                                                     ))
-                                                                               .publishTo(listener)
-                                                                               .build();
-
-        changeSubscription = messageListenerContainer.register(request, DurableQueuedMessage.class, cause -> {
-            if (cause instanceof UncategorizedMongoDbException && cause.getMessage() != null && cause.getMessage().contains("error 136")) {
-                log.info("ChangeStream is NOT ENABLED for this collection/database/cluster. Error message received: {}",
-                         cause.getMessage());
-                log.info("ℹ️ If you're using DocumentDB then please see: https://docs.aws.amazon.com/documentdb/latest/developerguide/change_streams.html");
-            } else {
-                log.error(msg("ChangeStream listener error: {}", cause.getMessage()), cause);
+        var requestBuilder = ChangeStreamRequest.builder()
+                                                .collection(this.sharedQueueCollectionName)
+                                                .filter(new org.bson.Document("$match",
+                                                                              new org.bson.Document("$or", List.of(
+                                                                                      new org.bson.Document("operationType", new org.bson.Document("$in", List.of("insert", "replace"))),
+                                                                                      new org.bson.Document("operationType", "update")
+                                                                                              .append("$or", List.of(
+                                                                                                      new org.bson.Document("updateDescription.updatedFields.isBeingDelivered", false),
+                                                                                                      new org.bson.Document("updateDescription.updatedFields.isDeadLetterMessage", false),
+                                                                                                      new org.bson.Document("updateDescription.updatedFields.isHeadOfKey", true)))))))
+                                                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                                                .publishTo(listener);
+        var resumeToken = lastChangeStreamResumeToken;
+        if (resumeToken != null) {
+            log.debug("Resuming ChangeStream after resume token {}", resumeToken);
+            requestBuilder.resumeAfter(resumeToken);
+        }
+
+        changeSubscription = messageListenerContainer.register(requestBuilder.build(), DurableQueuedMessage.class, this::onChangeStreamError);
+    }
+
+    private void onChangeStreamError(Throwable cause) {
+        if (cause instanceof UncategorizedMongoDbException && cause.getMessage() != null && cause.getMessage().contains("error 136")) {
+            log.info("ChangeStream is NOT ENABLED for this collection/database/cluster. Error message received: {}",
+                     cause.getMessage());
+            log.info("ℹ️ If you're using DocumentDB then please see: https://docs.aws.amazon.com/documentdb/latest/developerguide/change_streams.html");
+            return;
+        }
+        if (!started) {
+            log.debug("Ignoring ChangeStream listener error as MongoDurableQueues is stopped: {}", cause.getMessage());
+            return;
+        }
+        if (isChangeStreamNotResumable(cause)) {
+            log.warn("ChangeStream can't be resumed from resume token {} - opening a new ChangeStream. Error: {}",
+                     lastChangeStreamResumeToken,
+                     cause.getMessage());
+            lastChangeStreamResumeToken = null;
+        } else {
+            log.error(msg("ChangeStream listener error: {}", cause.getMessage()), cause);
+        }
+        var restartExecutor = changeStreamRestartExecutor;
+        if (restartExecutor == null) {
+            return;
+        }
+        log.info("Re-opening the ChangeStream in {} ms", CHANGE_STREAM_RESTART_DELAY.toMillis());
+        try {
+            restartExecutor.schedule(() -> {
+                try {
+                    registerChangeStreamSubscription();
+                } catch (Exception e) {
+                    log.error("Failed to re-open the ChangeStream", e);
+                }
+            }, CHANGE_STREAM_RESTART_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("ChangeStream restart executor is shut down - not re-opening the ChangeStream");
+        }
+    }
+
+    private static boolean isChangeStreamNotResumable(Throwable cause) {
+        var current = cause;
+        while (current != null) {
+            if (current instanceof MongoException mongoException && CHANGE_STREAM_NOT_RESUMABLE_ERROR_CODES.contains(mongoException.getCode())) {
+                return true;
             }
-        });
-        messageListenerContainer.start();
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return false;
     }
 
     protected final void stopCollectionListener() {
-        if (changeSubscription != null) {
-            changeSubscription.cancel();
+        synchronized (this) {
+            if (changeSubscription != null) {
+                changeSubscription.cancel();
+                changeSubscription = null;
+            }
+        }
+        if (changeStreamRestartExecutor != null) {
+            changeStreamRestartExecutor.shutdownNow();
+            changeStreamRestartExecutor = null;
         }
         if (messageListenerContainer != null && messageListenerContainer.isRunning()) {
             messageListenerContainer.stop();
@@ -552,6 +716,11 @@ public final class MongoDurableQueues implements DurableQueues {
         return transactionalMode;
     }
 
+    @Override
+    public final Optional<Duration> getMessageHandlingTimeout() {
+        return transactionalMode == TransactionalMode.SingleOperationTransaction ? Optional.of(Duration.ofMillis(messageHandlingTimeoutMs)) : Optional.empty();
+    }
+
     @Override
     public final Optional<UnitOfWorkFactory<? extends UnitOfWork>> getUnitOfWorkFactory() {
         return Optional.ofNullable(unitOfWorkFactory);
@@ -644,6 +813,9 @@ public final class MongoDurableQueues implements DurableQueues {
         var durableQueuedMessage = createDurableQueuedMessage(queueName, isDeadLetterMessage, addedTimestamp, nextDeliveryTimestamp, message);
 
         mongoTemplate.save(durableQueuedMessage, this.sharedQueueCollectionName);
+        if (isOrderedMessage) {
+            promoteNextHeadOfKey(queueName, durableQueuedMessage.getKey());
+        }
         log.debug("[{}:{}] Queued {}{}message{} with nextDeliveryTimestamp {}. TransactionalMode: {}",
                   queueName,
                   queueEntryId,
@@ -692,11 +864,22 @@ public final class MongoDurableQueues implements DurableQueues {
         return Optional.ofNullable(mongoTemplate.findOne(query,
                                                          DurableQueuedMessage.class,
                                                          this.sharedQueueCollectionName))
-                       .map(durableQueuedMessage -> durableQueuedMessage.setDeserializeMessagePayloadFunction(this::deserializeMessagePayload));
+                       .map(this::withMessagePayloadDeserializer);
+    }
+
+    private DurableQueuedMessage withMessagePayloadDeserializer(DurableQueuedMessage durableQueuedMessage) {
+        return durableQueuedMessage.setDeserializeMessagePayloadFunction((queueName, messagePayload, messagePayloadType) -> deserializeMessagePayload(queueName,
+                                                                                                                                                 messagePayload,
+                                                                                                                                                 durableQueuedMessage.getMessagePayloadEncoding(),
+                                                                                                                                                 messagePayloadType));
     }
 
-    private Object deserializeMessagePayload(QueueName queueName, byte[] messagePayload, String messagePayloadType) {
+    private Object deserializeMessagePayload(QueueName queueName, byte[] messagePayload, String messagePayloadEncoding, String messagePayloadType) {
         try {
+            if (messagePayloadEncoding != null) {
+                return messagePayloadCodecs.getCodecForEncoding(messagePayloadEncoding)
+                                           .decode(messagePayload, Classes.forName(messagePayloadType));
+            }
             return jsonSerializer.deserialize(messagePayload, Classes.forName(messagePayloadType));
         } catch (Throwable e) {
             throw new DurableQueueException(msg("Failed to deserialize message payload of type {}", messagePayloadType), e, queueName);
@@ -732,6 +915,11 @@ public final class MongoDurableQueues implements DurableQueues {
                                                                                        .stream()
                                                                                        .map(DurableQueuedMessage::getId)
                                                                                        .collect(Collectors.toList());
+                                                   messages.stream()
+                                                           .filter(message -> message.getDeliveryMode() == QueuedMessage.DeliveryMode.IN_ORDER)
+                                                           .map(DurableQueuedMessage::getKey)
+                                                           .distinct()
+                                                           .forEach(key -> promoteNextHeadOfKey(queueName, key));
                                                    if (insertedEntryIds.size() != payloads.size()) {
                                                        throw new DurableQueueException(msg("Attempted to queue {} messages but only inserted {} messages", payloads.size(), insertedEntryIds.size()),
                                                                                        queueName);
@@ -747,11 +935,20 @@ public final class MongoDurableQueues implements DurableQueues {
     }
 
     private DurableQueuedMessage createDurableQueuedMessage(QueueName queueName, boolean isDeadLetterMessage, Instant addedTimestamp, Instant nextDeliveryTimestamp, Message message) {
-        byte[] jsonPayload;
-        try {
-            jsonPayload = jsonSerializer.serializeAsBytes(message.getPayload());
-        } catch (JSONSerializationException e) {
-            throw new DurableQueueException(msg("Failed to serialize message payload of type", message.getPayload().getClass().getName()), e, queueName);
+        byte[] encodedPayload;
+        var    codec = messagePayloadCodecs.getCodecFor(queueName);
+        if (codec.isPresent()) {
+            try {
+                encodedPayload = codec.get().encode(message.getPayload());
+            } catch (MessagePayloadCodecException e) {
+                throw new DurableQueueException(msg("Failed to encode message payload of type {}", message.getPayload().getClass().getName()), e, queueName);
+            }
+        } else {
+            try {
+                encodedPayload = jsonSerializer.serializeAsBytes(message.getPayload());
+            } catch (JSONSerializationException e) {
+                throw new DurableQueueException(msg("Failed to serialize message payload of type {}", message.getPayload().getClass().getName()), e, queueName);
+            }
         }
 
         var    deliveryMode = QueuedMessage.DeliveryMode.NORMAL;
@@ -768,7 +965,7 @@ public final class MongoDurableQueues implements DurableQueues {
         return new DurableQueuedMessage(QueueEntryId.random(),
                                         queueName,
                                         false,
-                                        jsonPayload,
+                                        encodedPayload,
                                         message.getPayload().getClass().getName(),
                                         addedTimestamp,
                                         nextDeliveryTimestamp,
@@ -780,7 +977,10 @@ public final class MongoDurableQueues implements DurableQueues {
                                         message.getMetaData(),
                                         deliveryMode,
                                         key,
-                                        keyOrder);
+                                        keyOrder,
+                                        // An OrderedMessage only becomes head of its key after it has been saved (see promoteNextHeadOfKey)
+                                        deliveryMode == QueuedMessage.DeliveryMode.NORMAL)
+                .setMessagePayloadEncoding(codec.map(MessagePayloadCodec::getEncoding).orElse(null));
     }
 
     @Override
@@ -921,6 +1121,42 @@ public final class MongoDurableQueues implements DurableQueues {
 
     }
 
+    @Override
+    public final int acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled operation) {
+        requireNonNull(operation, "You must provide a AcknowledgeMessagesAsHandled instance");
+
+        return newInterceptorChainForOperation(operation,
+                                               interceptors,
+                                               (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
+                                               () -> {
+                                                   if (transactionalMode == TransactionalMode.FullyTransactional) {
+                                                       unitOfWorkFactory.getRequiredUnitOfWork();
+                                                   }
+                                                   if (operation.queueEntryIds.isEmpty()) {
+                                                       return 0;
+                                                   }
+
+                                                   log.debug("[{}] Acknowledging-Messages-As-Handled regarding {} Message(s) with ids {}", operation.queueName, operation.queueEntryIds.size(), operation.queueEntryIds);
+                                                   var ids = operation.queueEntryIds.stream()
+                                                                                    .map(QueueEntryId::toString)
+                                                                                    .collect(Collectors.toList());
+                                                   var deleteQuery = query(where("_id").in(ids)
+                                                                                       .and("queueName").is(operation.queueName));
+                                                   deleteQuery.fields().include("deliveryMode", "key", "isHeadOfKey");
+                                                   var deletedMessages = mongoTemplate.findAllAndRemove(deleteQuery,
+                                                                                                        DurableQueuedMessage.class,
+                                                                                                        this.sharedQueueCollectionName);
+                                                   promoteNextHeadOfKeys(operation.queueName, deletedMessages);
+                                                   var messagesDeleted = deletedMessages.size();
+                                                   if (messagesDeleted == ids.size()) {
+                                                       log.debug("[{}] Deleted {} Message(s)", operation.queueName, messagesDeleted);
+                                                   } else {
+                                                       log.error("[{}] Only deleted {} of {} Message(s) with ids {} - some may already have been deleted", operation.queueName, messagesDeleted, ids.size(), operation.queueEntryIds);
+                                                   }
+                                                   return messagesDeleted;
+                                               }).proceed();
+    }
+
     @Override
     public final boolean deleteMessage(DeleteMessage operation) {
         requireNonNull(operation, "You must provide a DeleteMessage instance");
@@ -934,9 +1170,14 @@ public final class MongoDurableQueues implements DurableQueues {
                                                    }
 
 
-                                                   var queueEntryId    = operation.queueEntryId;
-                                                   var messagesDeleted = mongoTemplate.remove(query(where("_id").is(queueEntryId.toString())), this.sharedQueueCollectionName).getDeletedCount();
-                                                   if (messagesDeleted == 1) {
+                                                   var queueEntryId   = operation.queueEntryId;
+                                                   var deleteQuery    = query(where("_id").is(queueEntryId.toString()));
+                                                   deleteQuery.fields().include("queueName", "deliveryMode", "key", "isHeadOfKey");
+                                                   var deletedMessage = mongoTemplate.findAndRemove(deleteQuery,
+                                                                                                    DurableQueuedMessage.class,
+                                                                                                    this.sharedQueueCollectionName);
+                                                   if (deletedMessage != null) {
+                                                       promoteNextHeadOfKeys(deletedMessage.getQueueName(), List.of(deletedMessage));
                                                        log.debug("Deleted Message with id '{}'", queueEntryId);
                                                        return true;
                                                    } else {
@@ -973,10 +1214,12 @@ public final class MongoDurableQueues implements DurableQueues {
                                                    try {
                                                        resetMessagesStuckBeingDelivered(queueName);
 
+                                                       // Documents queued before the isHeadOfKey field was introduced don't have the field and are treated as head of their key
                                                        var whereCriteria = where("queueName").is(queueName)
-                                                                                             .and("nextDeliveryTimestamp").lte(Instant.now())
-                                                                                             .and("isDeadLetterMessage").is(false)
-                                                                                             .and("isBeingDelivered").is(false);
+                                                                                            .and("nextDeliveryTimestamp").lte(Instant.now())
+                                                                                            .and("isDeadLetterMessage").is(false)
+                                                                                            .and("isBeingDelivered").is(false)
+                                                                                            .and("isHeadOfKey").ne(false);
                                                        var excludedKeys = operation.getExcludeOrderedMessagesWithKey() != null ? operation.getExcludeOrderedMessagesWithKey() : List.of();
                                                        if (!excludedKeys.isEmpty()) {
                                                            whereCriteria.and("key").not().in(excludedKeys);
@@ -1002,13 +1245,14 @@ public final class MongoDurableQueues implements DurableQueues {
                                                            if (deliverMessage) {
                                                                log.debug("[{}] Found a message ready for delivery: {}", queueName, nextMessageToDeliver.id);
                                                                return Optional.of(nextMessageToDeliver)
-                                                                              .map(durableQueuedMessage -> (QueuedMessage) durableQueuedMessage.setDeserializeMessagePayloadFunction(this::deserializeMessagePayload));
+                                                                              .map(durableQueuedMessage -> (QueuedMessage) withMessagePayloadDeserializer(durableQueuedMessage));
                                                            } else {
                                                                log.trace("[{}] Didn't find a message ready for delivery (deliverMessage: {} for '{}')", queueName, deliverMessage, nextMessageToDeliver.getId());
                                                                return Optional.<QueuedMessage>empty();
                                                            }
                                                        } else {
                                                            log.trace("[{}] Didn't find a message ready for delivery", queueName);
+                                                           promoteStalledHeadOfKeys(queueName);
                                                            return Optional.<QueuedMessage>empty();
                                                        }
                                                    } catch (Exception e) {
@@ -1036,6 +1280,97 @@ public final class MongoDurableQueues implements DurableQueues {
                                                }).proceed();
     }
 
+    /**
+     * MongoDB doesn't support claiming multiple documents atomically (<code>findAndModify</code> only modifies a single document), so the messages are
+     * claimed one at a time using {@link #getNextMessageReadyForDelivery(GetNextMessageReadyForDelivery)}, while excluding the keys of the {@link OrderedMessage}'s
+     * already claimed. The handled messages can still be acknowledged in a single round trip using {@link #acknowledgeMessagesAsHandled(AcknowledgeMessagesAsHandled)}
+     */
+    @Override
+    public final List<QueuedMessage> getNextMessagesReadyForDelivery(GetNextMessagesReadyForDelivery operation) {
+        requireNonNull(operation, "You must specify a GetNextMessagesReadyForDelivery instance");
+        return newInterceptorChainForOperation(operation,
+                                               interceptors,
+                                               (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
+                                               () -> {
+                                                   Set<String>         excludedKeys = new HashSet<>(operation.getExcludeOrderedMessagesWithKey() != null ? operation.getExcludeOrderedMessagesWithKey() : List.of());
+                                                   List<QueuedMessage> messages     = new ArrayList<>(operation.maxNumberOfMessages);
+                                                   while (messages.size() < operation.maxNumberOfMessages) {
+                                                       var nextMessage = getNextMessageReadyForDelivery(new GetNextMessageReadyForDelivery(operation.queueName, List.copyOf(excludedKeys)));
+                                                       if (nextMessage.isEmpty()) {
+                                                           break;
+                                                       }
+                                                       messages.add(nextMessage.get());
+                                                       if (nextMessage.get().getMessage() instanceof OrderedMessage orderedMessage) {
+                                                           excludedKeys.add(orderedMessage.getKey());
+                                                       }
+                                                   }
+                                                   return messages;
+                                               }).proceed();
+    }
+
+    /**
+     * Mark the {@link OrderedMessage} with the lowest keyOrder, among the messages queued with the same <code>key</code>, as head of its key.<br>
+     * Only the head of a key can be claimed by {@link #getNextMessageReadyForDelivery(GetNextMessageReadyForDelivery)}.<br>
+     * This method is called <b>after</b> an {@link OrderedMessage} has been saved or deleted. A message is never un-marked as head of its key,
+     * so whichever of two concurrent save/delete operations checks last will see both changes and promote the correct message.
+     * If {@link OrderedMessage}'s are queued out of order, then more than one message can be marked as head of its key, in which case
+     * {@link #resolveIfMessageShouldBeDelivered(QueueName, DurableQueuedMessage)} still ensures that the messages are delivered in order
+     *
+     * @param queueName the name of the queue
+     * @param key       the {@link OrderedMessage} key
+     */
+    private void promoteNextHeadOfKey(QueueName queueName, String key) {
+        var nextHeadOfKeyQuery = query(where("queueName").is(queueName)
+                                                         .and("key").is(key))
+                .with(Sort.by(Sort.Direction.ASC, "keyOrder"))
+                .limit(1);
+        nextHeadOfKeyQuery.fields().include("isHeadOfKey");
+        var nextHeadOfKey = mongoTemplate.findOne(nextHeadOfKeyQuery,
+                                                  DurableQueuedMessage.class,
+                                                  this.sharedQueueCollectionName);
+        if (nextHeadOfKey != null && !nextHeadOfKey.isHeadOfKey()) {
+            mongoTemplate.updateFirst(query(where("id").is(nextHeadOfKey.getId())),
+                                      new Update().set("isHeadOfKey", true),
+                                      this.sharedQueueCollectionName);
+            log.trace("[{}] Marked message with id '{}' as head of key '{}'", queueName, nextHeadOfKey.getId(), key);
+        }
+    }
+
+    private void promoteNextHeadOfKeys(QueueName queueName, List<DurableQueuedMessage> deletedMessages) {
+        deletedMessages.stream()
+                       .filter(deletedMessage -> deletedMessage.getDeliveryMode() == QueuedMessage.DeliveryMode.IN_ORDER)
+                       .map(DurableQueuedMessage::getKey)
+                       .distinct()
+                       .forEach(key -> promoteNextHeadOfKey(queueName, key));
+    }
+
+    /**
+     * When using {@link TransactionalMode#FullyTransactional}, a transaction can't see changes made by a concurrent transaction, so saving and deleting {@link OrderedMessage}'s
+     * with the same key concurrently can leave the key without a head. To recover from this, we (at most once per {@link #messageHandlingTimeoutMs} and only when no message is ready for delivery)
+     * promote the next head of the keys of (a bounded number of) messages ready for delivery that aren't marked as head of their key
+     *
+     * @param queueName the name of the queue
+     */
+    private void promoteStalledHeadOfKeys(QueueName queueName) {
+        var now                                = Instant.now();
+        var lastStalledHeadOfKeyCheckTimestamp = lastStalledHeadOfKeyCheckTimestamps.get(queueName);
+        if (lastStalledHeadOfKeyCheckTimestamp != null && Duration.between(lastStalledHeadOfKeyCheckTimestamp, now).toMillis() <= messageHandlingTimeoutMs) {
+            return;
+        }
+        lastStalledHeadOfKeyCheckTimestamps.put(queueName, now);
+        var notHeadOfKeyQuery = query(where("queueName").is(queueName)
+                                                        .and("nextDeliveryTimestamp").lte(now)
+                                                        .and("isDeadLetterMessage").is(false)
+                                                        .and("isBeingDelivered").is(false)
+                                                        .and("isHeadOfKey").is(false))
+                .limit(MAX_NUMBER_OF_STALLED_HEAD_OF_KEY_CANDIDATES);
+        notHeadOfKeyQuery.fields().include("deliveryMode", "key");
+        var notHeadOfKeyMessages = mongoTemplate.find(notHeadOfKeyQuery,
+                                                      DurableQueuedMessage.class,
+                                                      this.sharedQueueCollectionName);
+        promoteNextHeadOfKeys(queueName, notHeadOfKeyMessages);
+    }
+
     private boolean resolveIfMessageShouldBeDelivered(QueueName queueName, DurableQueuedMessage nextMessageToDeliver) {
         if (nextMessageToDeliver.getDeliveryMode() == QueuedMessage.DeliveryMode.IN_ORDER) {
             // Check if there's another ordered message queued with the same key and a keyOrder lower than the one we found
@@ -1306,7 +1641,7 @@ public final class MongoDurableQueues implements DurableQueues {
                                   DurableQueuedMessage.class,
                                   this.sharedQueueCollectionName)
                             .stream()
-                            .map(durableQueuedMessage -> durableQueuedMessage.setDeserializeMessagePayloadFunction(this::deserializeMessagePayload))
+                            .map(this::withMessagePayloadDeserializer)
                             .collect(Collectors.toList());
     }
 
@@ -1392,6 +1727,7 @@ public final class MongoDurableQueues implements DurableQueues {
                                             (interceptor, interceptorChain) -> interceptor.intercept(operation, interceptorChain),
                                             () -> {
                                                 lastResetStuckMessagesCheckTimestamps.remove(operation.durableQueueConsumer.queueName());
+                                                lastStalledHeadOfKeyCheckTimestamps.remove(operation.durableQueueConsumer.queueName());
                                                 return (DurableQueueConsumer) durableQueueConsumers.remove(durableQueueConsumer.queueName());
                                             })
                     .proceed();
@@ -1433,6 +1769,10 @@ public final class MongoDurableQueues implements DurableQueues {
         private QueueName    queueName;
         private boolean      isBeingDelivered;
         private byte[]       messagePayload;
+        /**
+         * The {@link MessagePayloadCodec#getEncoding()} of the {@link #messagePayload} - <code>null</code> if the {@link #messagePayload} is JSON
+         */
+        private String       messagePayloadEncoding;
         private String       messagePayloadType;
         private Instant      addedTimestamp;
         private Instant      nextDeliveryTimestamp;
@@ -1448,6 +1788,7 @@ public final class MongoDurableQueues implements DurableQueues {
         private DeliveryMode deliveryMode = DeliveryMode.NORMAL;
         private String       key;
         private long         keyOrder     = -1L;
+        private boolean      isHeadOfKey  = true;
 
         @Transient
         private transient TripleFunction<QueueName, byte[], String, Object> deserializeMessagePayloadFunction;
@@ -1473,6 +1814,42 @@ public final class MongoDurableQueues implements DurableQueues {
                                     DeliveryMode deliveryMode,
                                     String key,
                                     long keyOrder) {
+            this(id,
+                 queueName,
+                 isBeingDelivered,
+                 messagePayload,
+                 messagePayloadType,
+                 addedTimestamp,
+                 nextDeliveryTimestamp,
+                 deliveryTimestamp,
+                 totalDeliveryAttempts,
+                 redeliveryAttempts,
+                 lastDeliveryError,
+                 isDeadLetterMessage,
+                 metaData,
+                 deliveryMode,
+                 key,
+                 keyOrder,
+                 true);
+        }
+
+        public DurableQueuedMessage(QueueEntryId id,
+                                    QueueName queueName,
+                                    boolean isBeingDelivered,
+                                    byte[] messagePayload,
+                                    String messagePayloadType,
+                                    Instant addedTimestamp,
+                                    Instant nextDeliveryTimestamp,
+                                    Instant deliveryTimestamp,
+                                    int totalDeliveryAttempts,
+                                    int redeliveryAttempts,
+                                    String lastDeliveryError,
+                                    boolean isDeadLetterMessage,
+                                    MessageMetaData metaData,
+                                    DeliveryMode deliveryMode,
+                                    String key,
+                                    long keyOrder,
+                                    boolean isHeadOfKey) {
             this.id = id;
             this.queueName = queueName;
             this.isBeingDelivered = isBeingDelivered;
@@ -1489,6 +1866,7 @@ public final class MongoDurableQueues implements DurableQueues {
             this.deliveryMode = deliveryMode;
             this.key = key;
             this.keyOrder = keyOrder;
+            this.isHeadOfKey = isHeadOfKey;
         }
 
         @Override
@@ -1514,6 +1892,18 @@ public final class MongoDurableQueues implements DurableQueues {
             return messagePayloadType;
         }
 
+        /**
+         * @return the {@link MessagePayloadCodec#getEncoding()} of the {@link #getMessagePayload()} or <code>null</code> if the message payload is JSON
+         */
+        public String getMessagePayloadEncoding() {
+            return messagePayloadEncoding;
+        }
+
+        public DurableQueuedMessage setMessagePayloadEncoding(String messagePayloadEncoding) {
+            this.messagePayloadEncoding = messagePayloadEncoding;
+            return this;
+        }
+
         @Override
         public OffsetDateTime getAddedTimestamp() {
             return addedTimestamp.atOffset(ZoneOffset.UTC);
@@ -1562,6 +1952,14 @@ public final class MongoDurableQueues implements DurableQueues {
             return keyOrder;
         }
 
+        /**
+         * @return true if this message is a {@link DeliveryMode#NORMAL} message or if it's the {@link OrderedMessage}
+         * with the lowest {@link #getKeyOrder()} among the messages queued with the same {@link #getKey()}
+         */
+        public boolean isHeadOfKey() {
+            return isHeadOfKey;
+        }
+
         @Override
         public Message getMessage() {
             requireNonNull(deserializeMessagePayloadFunction, "Internal Error: deserializeMessagePayloadFunction is null");
@@ -1615,6 +2013,7 @@ public final class MongoDurableQueues implements DurableQueues {
                     ", queueName=" + queueName +
                     ", isBeingDelivered=" + isBeingDelivered +
                     ", messagePayloadType='" + messagePayloadType + '\'' +
+                    ", messagePayloadEncoding='" + messagePayloadEncoding + '\'' +
                     ", addedTimestamp=" + addedTimestamp +
                     ", nextDeliveryTimestamp=" + nextDeliveryTimestamp +
                     ", deliveryTimestamp=" + deliveryTimestamp +
@@ -1624,6 +2023,7 @@ public final class MongoDurableQueues implements DurableQueues {
                     ", deliveryMode=" + deliveryMode +
                     ", key=" + key +
                     ", keyOrder=" + keyOrder +
+                    ", isHeadOfKey=" + isHeadOfKey +
                     ", metaData=" + metaData +
                     '}';
         }
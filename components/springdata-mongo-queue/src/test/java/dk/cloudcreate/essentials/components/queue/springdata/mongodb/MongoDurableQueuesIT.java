@@ -16,9 +16,15 @@
 
 package dk.cloudcreate.essentials.components.queue.springdata.mongodb;
 
+import dk.cloudcreate.essentials.components.foundation.messaging.RedeliveryPolicy;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.operations.ConsumeFromQueue;
 import dk.cloudcreate.essentials.components.foundation.test.messaging.queue.DurableQueuesIT;
 import dk.cloudcreate.essentials.components.foundation.transaction.spring.mongo.SpringMongoTransactionAwareUnitOfWorkFactory;
 import dk.cloudcreate.essentials.components.foundation.transaction.spring.mongo.SpringMongoTransactionAwareUnitOfWorkFactory.SpringMongoTransactionAwareUnitOfWork;
+import org.awaitility.Awaitility;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.data.mongodb.*;
@@ -28,6 +34,12 @@ import org.springframework.test.context.*;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.*;
 
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @Testcontainers
 @DataMongoTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -65,4 +77,53 @@ class MongoDurableQueuesIT extends DurableQueuesIT<MongoDurableQueues, SpringMon
     protected void resetQueueStorage(SpringMongoTransactionAwareUnitOfWorkFactory unitOfWorkFactory) {
         mongoTemplate.dropCollection(MongoDurableQueues.DEFAULT_DURABLE_QUEUES_COLLECTION_NAME);
     }
-}
\ No newline at end of file
+
+    @Test
+    void consumers_are_notified_using_the_change_stream_which_is_resumed_after_a_cursor_failure() {
+        // Given a consumer that (due to the long polling interval) relies on the change stream notifications
+        var queueName        = QueueName.of("TestQueue");
+        var receivedPayloads = new ConcurrentLinkedQueue<>();
+        var consumer = durableQueues.consumeFromQueue(ConsumeFromQueue.builder()
+                                                                      .setQueueName(queueName)
+                                                                      .setRedeliveryPolicy(RedeliveryPolicy.fixedBackoff(Duration.ofMillis(100), 1))
+                                                                      .setParallelConsumers(1)
+                                                                      .setPollingInterval(Duration.ofSeconds(30))
+                                                                      .setQueueMessageHandler(queuedMessage -> receivedPayloads.add(queuedMessage.getPayload()))
+                                                                      .build());
+        Awaitility.waitAtMost(Duration.ofSeconds(5))
+                  .until(() -> !findChangeStreamCursorIds().isEmpty());
+
+        // When
+        usingDurableQueue(() -> durableQueues.queueMessage(queueName, Message.of("Message1")));
+
+        // Then
+        Awaitility.waitAtMost(Duration.ofSeconds(5))
+                  .untilAsserted(() -> assertThat(receivedPayloads).containsExactly("Message1"));
+
+        // And When the change stream cursor fails
+        var changeStreamCursorIds = findChangeStreamCursorIds();
+        mongoTemplate.getDb().runCommand(new Document("killCursors", MongoDurableQueues.DEFAULT_DURABLE_QUEUES_COLLECTION_NAME)
+                                                 .append("cursors", changeStreamCursorIds));
+        // and a message is queued before the change stream has been re-opened
+        usingDurableQueue(() -> durableQueues.queueMessage(queueName, Message.of("Message2")));
+
+        // Then the re-opened change stream resumes after the last received event and notifies the consumer
+        Awaitility.waitAtMost(MongoDurableQueues.CHANGE_STREAM_RESTART_DELAY.plusSeconds(10))
+                  .untilAsserted(() -> assertThat(receivedPayloads).containsExactly("Message1", "Message2"));
+        assertThat(findChangeStreamCursorIds()).doesNotContainAnyElementsOf(changeStreamCursorIds);
+        consumer.cancel();
+    }
+
+    private List<Long> findChangeStreamCursorIds() {
+        var currentOperations = mongoTemplate.getMongoDatabaseFactory()
+                                             .getMongoDatabase("admin")
+                                             .aggregate(List.of(new Document("$currentOp", new Document("allUsers", true).append("idleCursors", true)),
+                                                                new Document("$match", new Document("cursor.originatingCommand.aggregate", MongoDurableQueues.DEFAULT_DURABLE_QUEUES_COLLECTION_NAME)
+                                                                        .append("cursor.tailable", true))))
+                                             .into(new ArrayList<>());
+        return currentOperations.stream()
+                                .map(operation -> operation.get("cursor", Document.class).getLong("cursorId"))
+                                .distinct()
+                                .toList();
+    }
+}
@@ -16,12 +16,15 @@
 
 package dk.cloudcreate.essentials.components.queue.springdata.mongodb;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dk.cloudcreate.essentials.components.foundation.messaging.queue.*;
+import dk.cloudcreate.essentials.components.foundation.messaging.queue.codec.*;
 import dk.cloudcreate.essentials.components.foundation.test.messaging.queue.DurableQueuesIT;
 import dk.cloudcreate.essentials.components.foundation.test.messaging.queue.test_data.*;
 import dk.cloudcreate.essentials.components.foundation.transaction.spring.mongo.SpringMongoTransactionAwareUnitOfWorkFactory;
 import dk.cloudcreate.essentials.components.foundation.transaction.spring.mongo.SpringMongoTransactionAwareUnitOfWorkFactory.SpringMongoTransactionAwareUnitOfWork;
 import dk.cloudcreate.essentials.components.foundation.types.CorrelationId;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
@@ -32,7 +35,7 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.*;
 
 import java.time.Duration;
-import java.util.UUID;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -133,4 +136,35 @@ class SingleOperationTransactionMongoDurableQueuesIT extends DurableQueuesIT<Mon
         assertThat(durableQueues.getQueuedMessage(addedMessageId)).isEmpty();
         assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void messages_are_stored_using_the_binary_codec_while_json_encoded_messages_are_still_readable() {
+        // Given a JSON encoded message (which is stored in the same way as by versions without message payload codecs)
+        var queueName   = QueueName.of("TestQueue");
+        var jsonMessage = Message.of("JsonMessage");
+        var jsonMessageId = durableQueues.queueMessage(queueName, jsonMessage);
+
+        // When switching to a binary codec
+        var codec = new CompressingMessagePayloadCodec(new JacksonMessagePayloadCodec("json-bytes", new ObjectMapper()), 0);
+        durableQueues.setMessagePayloadCodecs(MessagePayloadCodecs.withDefaultCodec(codec));
+        var encodedMessage   = Message.of("EncodedMessage");
+        var encodedMessageId = durableQueues.queueMessage(queueName, encodedMessage);
+
+        // Then
+        var collection = mongoTemplate.getCollection(MongoDurableQueues.DEFAULT_DURABLE_QUEUES_COLLECTION_NAME);
+        assertThat(collection.countDocuments(new Document("messagePayloadEncoding", "json-bytes+gzip"))).isEqualTo(1);
+        assertThat(collection.countDocuments(new Document("messagePayloadEncoding", null))).isEqualTo(1);
+        assertThat(durableQueues.getQueuedMessage(jsonMessageId).get().getMessage()).usingRecursiveComparison().isEqualTo(jsonMessage);
+        assertThat(durableQueues.getQueuedMessage(encodedMessageId).get().getMessage()).usingRecursiveComparison().isEqualTo(encodedMessage);
+
+        // And both messages are delivered
+        var firstDelivery = durableQueues.getNextMessageReadyForDelivery(queueName);
+        assertThat(firstDelivery).isPresent();
+        durableQueues.acknowledgeMessageAsHandled(firstDelivery.get().getId());
+        var secondDelivery = durableQueues.getNextMessageReadyForDelivery(queueName);
+        assertThat(secondDelivery).isPresent();
+        durableQueues.acknowledgeMessageAsHandled(secondDelivery.get().getId());
+        assertThat(List.of(firstDelivery.get().getId(), secondDelivery.get().getId())).containsExactlyInAnyOrder(jsonMessageId, encodedMessageId);
+        assertThat(durableQueues.getTotalMessagesQueuedFor(queueName)).isEqualTo(0);
+    }
+}